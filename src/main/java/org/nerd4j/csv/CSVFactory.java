@@ -21,6 +21,10 @@
  */
 package org.nerd4j.csv;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 import org.nerd4j.csv.conf.CSVMetadataBuilder;
 import org.nerd4j.csv.conf.CSVMetadataRegister;
@@ -49,6 +53,18 @@ import org.slf4j.LoggerFactory;
  * {@link CSVReaderFactory}s and {@link CSVWriterFactory}s
  * needed to build the actual {@link org.nerd4j.csv.reader.CSVReader CSVReader}s and
  * {@link org.nerd4j.csv.writer.CSVWriter CSVWriter}s.
+ * <p>
+ * This class is thread safe and is intended to be shared.
+ * The parser and formatter factories and the meta-data used
+ * to build readers and writers are created once for each name
+ * and shared by all the callers, so changes made to the configuration
+ * after the first request are not visible. Registering new items
+ * into the {@link CSVRegistry} invalidates the built items.
+ * <p>
+ * Each request for a {@link CSVReaderFactory} or a {@link CSVWriterFactory}
+ * returns a new instance, so settings like
+ * {@link CSVReaderFactory#setMetrics(org.nerd4j.csv.metrics.CSVMetrics) metrics}
+ * apply only to the caller that made them.
  * 
  * @author Nerd4j Team
  */
@@ -59,11 +75,14 @@ public final class CSVFactory
     private static final Logger logger = LoggerFactory.getLogger( CSVFactory.class );
     
     /** The registry used to retrieve the components used to build the CSV handlers. */
-    private CSVRegistry registry;
+    private final CSVRegistry registry;
     
     /** The CSV configuration to use. */
     private final CSVConfiguration configuration;
     
+    /** The items built with the current version of the registry. */
+    private final AtomicReference<BuiltItems> builtItems;
+    
     
     /**
      * Constructor with parameters.
@@ -82,6 +101,8 @@ public final class CSVFactory
         logger.debug( "Proceed to register all the specified items" );
         CSVMetadataRegister.register( configuration.getRegister(), registry );
         
+        this.builtItems = new AtomicReference<BuiltItems>( new BuiltItems(registry.getVersion()) );
+        
     }
     
     
@@ -94,20 +115,15 @@ public final class CSVFactory
      * Returns the {@link CSVParserFactory} related to the given name.
      * 
      * @param name the name of the requested bean.
-     * @return a new {@link CSVParserFactory}.
+     * @return the related {@link CSVParserFactory}.
      */
     public CSVParserFactory getCSVParserFactory( String name )
     {
         
         if( name == null || name.isEmpty() )
             throw new NullPointerException( "Unable to locate the parser factory without the related name" );
-
-        final CSVParserConf parserConf = configuration.getParsers().get( name );
-        if( parserConf == null )
-            throw new NullPointerException( "There is no csv parser factory configured with the name " + name );
         
-        final CSVParserMetadata parserConfiguration =  CSVMetadataBuilder.build( parserConf );
-        return new CSVParserFactory( parserConfiguration );
+        return getOrBuild( getBuiltItems().parserFactories, name, this::buildCSVParserFactory );
         
     }
     
@@ -115,7 +131,7 @@ public final class CSVFactory
      * Returns the {@link CSVFormatterFactory} related to the given name.
      * 
      * @param name the name of the requested bean.
-     * @return a new {@link CSVFormatterFactory}.
+     * @return the related {@link CSVFormatterFactory}.
      */
     public CSVFormatterFactory getCSVFormatterFactory( String name )
     {
@@ -123,59 +139,248 @@ public final class CSVFactory
         if( name == null || name.isEmpty() )
             throw new NullPointerException( "Unable to locate the formatter factory without the related name" );
         
-        final CSVFormatterConf formatterConf = configuration.getFormatters().get( name );
-        if( formatterConf == null )
-            throw new NullPointerException( "There is no csv formatter factory configured with the name " + name );
-        
-        final CSVFormatterMetadata formatterConfiguration =  CSVMetadataBuilder.build( formatterConf );
-        return new CSVFormatterFactory( formatterConfiguration );
+        return getOrBuild( getBuiltItems().formatterFactories, name, this::buildCSVFormatterFactory );
         
     }
     
     /**
-     * Returns the {@link CSVReaderFactory} related to the given name.
+     * Returns a new {@link CSVReaderFactory} related to the given name.
      * 
      * @param name the name of the requested bean.
      * @param <M>  type of the model returned by the reader.
-     * @return a new {@link CSVReaderFactory}.
+     * @return the related {@link CSVReaderFactory}.
      */
-    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @SuppressWarnings("unchecked")
     public <M> CSVReaderFactory<M> getCSVReaderFactory( String name )
     {
         
         if( name == null || name.isEmpty() )
             throw new NullPointerException( "Unable to locate the reader factory without the related name" );
         
-        final CSVReaderConf readerConf = configuration.getReaders().get( name );
-        if( readerConf == null )
-            throw new NullPointerException( "There is no csv reader factory configured with the name " + name );
+        final CSVReaderMetadataFactory<M> metadataFactory = (CSVReaderMetadataFactory<M>)
+            getOrBuild( getBuiltItems().readerMetadataFactories, name, this::buildCSVReaderMetadataFactory );
         
-        final CSVReaderMetadataFactory readerMetadataFactory =  new CSVReaderMetadataFactory( readerConf, configuration, registry );
-        return new CSVReaderFactoryImpl( readerMetadataFactory );
+        return new CSVReaderFactoryImpl<M>( metadataFactory );
         
     }
     
-    
     /**
-     * Returns the {@link CSVWriterFactory} related to the given name.
+     * Returns a new {@link CSVWriterFactory} related to the given name.
      * 
      * @param name the name of the requested bean.
      * @param <M>  type of the model accepted by the writer.
-     * @return a new {@link CSVWriterFactory}.
+     * @return the related {@link CSVWriterFactory}.
      */
-    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @SuppressWarnings("unchecked")
     public <M> CSVWriterFactory<M> getCSVWriterFactory( String name )
     {
         
         if( name == null || name.isEmpty() )
             throw new NullPointerException( "Unable to locate the writer factory without the related name" );
         
+        final CSVWriterMetadataFactory<M> metadataFactory = (CSVWriterMetadataFactory<M>)
+            getOrBuild( getBuiltItems().writerMetadataFactories, name, this::buildCSVWriterMetadataFactory );
+        
+        return new CSVWriterFactoryImpl<M>( metadataFactory );
+        
+    }
+    
+    
+    /* ******************* */
+    /*  GETTERS & SETTERS  */
+    /* ******************* */
+    
+    
+    /**
+     * Returns the registry used to build the CSV handlers.
+     * New items can be registered at any time, the items
+     * already built will be built again on the next request.
+     * 
+     * @return the registry in use.
+     */
+    public CSVRegistry getRegistry()
+    {
+        
+        return registry;
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Returns the items built with the current version of the registry.
+     * <p>
+     * If the registry changed since the items were built, a new empty
+     * set of items replaces the current one. The replacement is atomic,
+     * so an item built with an old version of the registry can never
+     * be stored into the items related to a newer version.
+     * 
+     * @return the items related to the current version of the registry.
+     */
+    private BuiltItems getBuiltItems()
+    {
+        
+        final long version = registry.getVersion();
+        
+        BuiltItems current = builtItems.get();
+        while( current.registryVersion < version )
+        {
+            final BuiltItems updated = new BuiltItems( version );
+            if( builtItems.compareAndSet(current, updated) )
+            {
+                logger.debug( "The registry changed, the built items will be discarded" );
+                return updated;
+            }
+            
+            current = builtItems.get();
+        }
+        
+        return current;
+        
+    }
+    
+    /**
+     * Returns the item related to the given name building it if needed.
+     * 
+     * @param <F>     type of the item.
+     * @param items   the items already built.
+     * @param name    the name of the requested item.
+     * @param builder function that builds the item.
+     * @return the related item.
+     */
+    private static <F> F getOrBuild( final ConcurrentMap<String,F> items, final String name,
+                                     final Function<String,F> builder )
+    {
+        
+        final F item = items.get( name );
+        return item != null ? item : items.computeIfAbsent( name, builder );
+        
+    }
+    
+    /**
+     * Builds the {@link CSVParserFactory} related to the given name.
+     * 
+     * @param name the name of the requested bean.
+     * @return a new {@link CSVParserFactory}.
+     */
+    private CSVParserFactory buildCSVParserFactory( String name )
+    {
+        
+        final CSVParserConf parserConf = configuration.getParsers().get( name );
+        if( parserConf == null )
+            throw new NullPointerException( "There is no csv parser factory configured with the name " + name );
+        
+        final CSVParserMetadata parserConfiguration =  CSVMetadataBuilder.build( parserConf );
+        return new CSVParserFactory( parserConfiguration );
+        
+    }
+    
+    /**
+     * Builds the {@link CSVFormatterFactory} related to the given name.
+     * 
+     * @param name the name of the requested bean.
+     * @return a new {@link CSVFormatterFactory}.
+     */
+    private CSVFormatterFactory buildCSVFormatterFactory( String name )
+    {
+        
+        final CSVFormatterConf formatterConf = configuration.getFormatters().get( name );
+        if( formatterConf == null )
+            throw new NullPointerException( "There is no csv formatter factory configured with the name " + name );
+        
+        final CSVFormatterMetadata formatterConfiguration =  CSVMetadataBuilder.build( formatterConf );
+        return new CSVFormatterFactory( formatterConfiguration );
+        
+    }
+    
+    /**
+     * Builds the {@link CSVReaderMetadataFactory} related to the given name.
+     * 
+     * @param name the name of the requested bean.
+     * @return a new {@link CSVReaderMetadataFactory}.
+     */
+    private CSVReaderMetadataFactory<?> buildCSVReaderMetadataFactory( String name )
+    {
+        
+        final CSVReaderConf readerConf = configuration.getReaders().get( name );
+        if( readerConf == null )
+            throw new NullPointerException( "There is no csv reader factory configured with the name " + name );
+        
+        return new CSVReaderMetadataFactory<Object>( readerConf, configuration, registry );
+        
+    }
+    
+    /**
+     * Builds the {@link CSVWriterMetadataFactory} related to the given name.
+     * 
+     * @param name the name of the requested bean.
+     * @return a new {@link CSVWriterMetadataFactory}.
+     */
+    private CSVWriterMetadataFactory<?> buildCSVWriterMetadataFactory( String name )
+    {
+        
         final CSVWriterConf writerConf = configuration.getWriters().get( name );
         if( writerConf == null )
             throw new NullPointerException( "There is no csv writer factory configured with the name " + name );
         
-        final CSVWriterMetadataFactory writerMetadataFactory =  new CSVWriterMetadataFactory( writerConf, configuration, registry );
-        return new CSVWriterFactoryImpl( writerMetadataFactory );
+        return new CSVWriterMetadataFactory<Object>( writerConf, configuration, registry );
+        
+    }
+    
+    
+    /* *************** */
+    /*  INNER CLASSES  */
+    /* *************** */
+    
+    
+    /**
+     * Collects the items built with a given version of the registry.
+     * The instances are never modified after the version changes,
+     * they are replaced as a whole.
+     * 
+     * @author Nerd4j Team
+     */
+    private static final class BuiltItems
+    {
+        
+        /** Version of the registry used to build the items. */
+        final long registryVersion;
+        
+        /** The parser factories already built related to their names. */
+        final ConcurrentMap<String,CSVParserFactory> parserFactories;
+        
+        /** The formatter factories already built related to their names. */
+        final ConcurrentMap<String,CSVFormatterFactory> formatterFactories;
+        
+        /** The reader meta-data factories already built related to their names. */
+        final ConcurrentMap<String,CSVReaderMetadataFactory<?>> readerMetadataFactories;
+        
+        /** The writer meta-data factories already built related to their names. */
+        final ConcurrentMap<String,CSVWriterMetadataFactory<?>> writerMetadataFactories;
+        
+        
+        /**
+         * Constructor with parameters.
+         * 
+         * @param registryVersion version of the registry used to build the items.
+         */
+        BuiltItems( final long registryVersion )
+        {
+            
+            super();
+            
+            this.registryVersion = registryVersion;
+            
+            this.parserFactories = new ConcurrentHashMap<String,CSVParserFactory>();
+            this.formatterFactories = new ConcurrentHashMap<String,CSVFormatterFactory>();
+            this.readerMetadataFactories = new ConcurrentHashMap<String,CSVReaderMetadataFactory<?>>();
+            this.writerMetadataFactories = new ConcurrentHashMap<String,CSVWriterMetadataFactory<?>>();
+            
+        }
         
     }
     
@@ -65,11 +65,29 @@ public interface CSVProcessOutcome<M>
      * <b>IMPORTANT</b> for performance reasons there is only one
      *                  instance of the execution context. So the
      *                  internal values of this object may vary
-     *                  during execution.
+     *                  during execution, unless the outcome is an
+     *                  immutable snapshot (see
+     *                  {@link org.nerd4j.csv.reader.CSVReaderOptions#snapshotOutcomes() CSVReaderOptions}).
      *                  
      * @return the operation execution context.
      */
     public CSVProcessContext getCSVProcessContext();
+    
+    /**
+     * Returns the raw text of the CSV record processed
+     * without the record separator.
+     * <p>
+     * The raw record is available only if the capture
+     * has been enabled, otherwise {@code null} is returned.
+     * 
+     * @return the raw text of the CSV record, can be {@code null}.
+     */
+    default String getRawRecord()
+    {
+    	
+    	return null;
+    	
+    }
    
     /**
      * Tells if the operation failed due to an error.
@@ -121,6 +121,12 @@ public final class CSVConfChecker
         if( configuration.getQuoteChar() == null )
             throw new CSVConfigurationException( "The 'quote' is mandatory for the 'csv-parser'" );
         
+        if( configuration.getMaxFieldSize() != null && configuration.getMaxFieldSize() < 0 )
+            throw new CSVConfigurationException( "The 'max-field-size' of the 'csv-parser' can't be negative" );
+        
+        if( configuration.getMaxRecordSize() != null && configuration.getMaxRecordSize() < 0 )
+            throw new CSVConfigurationException( "The 'max-record-size' of the 'csv-parser' can't be negative" );
+        
     }
     
     /**
@@ -0,0 +1,197 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.conf;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.nerd4j.csv.exception.CSVConfigurationException;
+
+
+/**
+ * Utility class to compute a fingerprint of the CSV configurations.
+ * 
+ * <p>
+ * The fingerprint is a 64 bit hash of all the values contained in the
+ * configuration objects, visited recursively. Two configurations with
+ * the same values have the same fingerprint, so it can be used to tell
+ * if some data produced using a configuration is still valid.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVConfFingerprint
+{
+    
+    /** The package of the configuration classes to visit. */
+    private static final String CONF_PACKAGE = "org.nerd4j.csv.conf.mapping";
+    
+    
+    /**
+     * Returns the fingerprint of the given configurations.
+     * 
+     * @param configurations the configurations to fingerprint.
+     * @return the fingerprint of the configurations.
+     * @throws CSVConfigurationException if the configurations can't be inspected.
+     */
+    public static long of( final Object... configurations )
+    throws CSVConfigurationException
+    {
+        
+        final StringBuilder sb = new StringBuilder( 1024 );
+        final Map<Object,Boolean> visited = new IdentityHashMap<Object,Boolean>();
+        for( Object configuration : configurations )
+            append( sb, configuration, visited );
+        
+        long hash = 0xcbf29ce484222325L;
+        for( int i = 0; i < sb.length(); ++i )
+            hash = (hash ^ sb.charAt(i)) * 0x100000001b3L;
+        
+        return hash;
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Appends a textual representation of the given value.
+     * 
+     * @param sb      the builder where to append.
+     * @param value   the value to append.
+     * @param visited the configuration objects already visited.
+     */
+    private static void append( final StringBuilder sb, final Object value, final Map<Object,Boolean> visited )
+    {
+        
+        if( value == null )
+        {
+            sb.append( "null" );
+            return;
+        }
+        
+        final Class<?> type = value.getClass();
+        if( type == char[].class )
+            sb.append( '"' ).append( (char[]) value ).append( '"' );
+        
+        else if( type.isArray() )
+        {
+            sb.append( '[' );
+            for( int i = 0, length = Array.getLength(value); i < length; ++i )
+                append( sb.append(','), Array.get(value, i), visited );
+            sb.append( ']' );
+        }
+        
+        else if( value instanceof Map )
+        {
+            /* The maps are visited sorted by key to not depend on the map implementation. */
+            final Map<String,Object> sorted = new TreeMap<String,Object>();
+            for( Map.Entry<?,?> entry : ((Map<?,?>) value).entrySet() )
+                sorted.put( String.valueOf(entry.getKey()), entry.getValue() );
+            
+            sb.append( '{' );
+            for( Map.Entry<String,Object> entry : sorted.entrySet() )
+                append( sb.append(',').append(entry.getKey()).append('='), entry.getValue(), visited );
+            sb.append( '}' );
+        }
+        
+        else if( value instanceof Collection )
+        {
+            sb.append( '[' );
+            for( Object element : (Collection<?>) value )
+                append( sb.append(','), element, visited );
+            sb.append( ']' );
+        }
+        
+        else if( value instanceof Class )
+            sb.append( ((Class<?>) value).getName() );
+        
+        else if( type.getPackage() != null && type.getPackage().getName().startsWith(CONF_PACKAGE) )
+        {
+            if( visited.put(value, Boolean.TRUE) != null )
+            {
+                sb.append( "<cycle>" );
+                return;
+            }
+            
+            sb.append( type.getSimpleName() ).append( '(' );
+            for( Field field : getFields(type) )
+                try{
+                    
+                    append( sb.append(field.getName()).append('='), field.get(value), visited );
+                    sb.append( ';' );
+                    
+                }catch( IllegalAccessException ex )
+                {
+                    throw new CSVConfigurationException( "Unable to read the configuration field " + field, ex );
+                }
+            sb.append( ')' );
+        }
+        
+        else
+            sb.append( '"' ).append( value ).append( '"' );
+        
+    }
+    
+    
+    /**
+     * Returns the instance fields of the given class and of its
+     * super classes sorted by class and name.
+     * 
+     * @param type the class to inspect.
+     * @return the instance fields.
+     */
+    private static List<Field> getFields( final Class<?> type )
+    {
+        
+        final List<Field> fields = new ArrayList<Field>();
+        for( Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass() )
+        {
+            
+            final Field[] declared = current.getDeclaredFields();
+            Arrays.sort( declared, Comparator.comparing(Field::getName) );
+            
+            for( Field field : declared )
+                if( ! Modifier.isStatic(field.getModifiers()) && ! field.isSynthetic() )
+                {
+                    field.setAccessible( true );
+                    fields.add( field );
+                }
+            
+        }
+        
+        return fields;
+        
+    }
+    
+}
@@ -0,0 +1,903 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.conf;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+
+import org.nerd4j.csv.conf.mapping.CSVCharSetConf;
+import org.nerd4j.csv.conf.mapping.CSVColumnConf;
+import org.nerd4j.csv.conf.mapping.CSVConfiguration;
+import org.nerd4j.csv.conf.mapping.CSVFieldConverterConf;
+import org.nerd4j.csv.conf.mapping.CSVFieldProcessorConf;
+import org.nerd4j.csv.conf.mapping.CSVFieldValidatorConf;
+import org.nerd4j.csv.conf.mapping.CSVFormatterConf;
+import org.nerd4j.csv.conf.mapping.CSVHandlerConf;
+import org.nerd4j.csv.conf.mapping.CSVParserConf;
+import org.nerd4j.csv.conf.mapping.CSVReaderConf;
+import org.nerd4j.csv.conf.mapping.CSVRegisterConf;
+import org.nerd4j.csv.conf.mapping.CSVRegisterConverterConf;
+import org.nerd4j.csv.conf.mapping.CSVRegisterProcessorConf;
+import org.nerd4j.csv.conf.mapping.CSVRegisterProviderConf;
+import org.nerd4j.csv.conf.mapping.CSVRegisterTypesConf;
+import org.nerd4j.csv.conf.mapping.CSVRegisterValidatorConf;
+import org.nerd4j.csv.conf.mapping.CSVWriterConf;
+import org.nerd4j.csv.exception.CSVConfigurationException;
+
+
+/**
+ * Utility class to store a {@link CSVConfiguration} into
+ * a compact binary snapshot and to load it back.
+ * 
+ * <p>
+ * The configuration is checked by the {@link CSVConfChecker}
+ * before to be stored, so a snapshot can be loaded without
+ * parsing any XML or annotation and without checking it again.
+ * This is intended to reduce the start up time of the
+ * applications using always the same configuration.
+ * 
+ * <p>
+ * The snapshot is bound to the format version of this class,
+ * a snapshot written with a different version is rejected.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVConfSnapshot
+{
+    
+    /** Magic number identifying the snapshot files. */
+    static final int MAGIC = 0x4e344353;
+    
+    /** Version of the snapshot format. */
+    static final int VERSION = 3;
+    
+    /** Marks a {@code null} value. */
+    private static final int NULL = -1;
+    
+    
+    /**
+     * This class is not intended to be instantiated.
+     * 
+     */
+    private CSVConfSnapshot()
+    {
+        
+        super();
+        
+    }
+    
+    
+    /* **************** */
+    /*  PUBLIC METHODS  */
+    /* **************** */
+    
+    
+    /**
+     * Checks the given configuration and writes its snapshot
+     * into the given stream. The stream is not closed.
+     * 
+     * @param configuration the configuration to store.
+     * @param target        the stream where to write.
+     * @throws IOException if fails to write the stream.
+     * @throws CSVConfigurationException if the configuration is inconsistent.
+     */
+    public static void write( final CSVConfiguration configuration, final OutputStream target )
+    throws IOException
+    {
+        
+        if( configuration == null )
+            throw new NullPointerException( "The configuration to store can't be null" );
+        
+        if( target == null )
+            throw new NullPointerException( "The target stream can't be null" );
+        
+        check( configuration );
+        
+        final DataOutputStream out = new DataOutputStream( new BufferedOutputStream(target) );
+        out.writeInt( MAGIC );
+        out.writeInt( VERSION );
+        
+        write( configuration.getRegister(), out );
+        
+        out.writeInt( configuration.getParsers().size() );
+        for( Map.Entry<String,CSVParserConf> entry : configuration.getParsers().entrySet() )
+        {
+            writeString( entry.getKey(), out );
+            write( entry.getValue(), out );
+        }
+        
+        out.writeInt( configuration.getFormatters().size() );
+        for( Map.Entry<String,CSVFormatterConf> entry : configuration.getFormatters().entrySet() )
+        {
+            writeString( entry.getKey(), out );
+            write( entry.getValue(), out );
+        }
+        
+        out.writeInt( configuration.getReaders().size() );
+        for( Map.Entry<String,CSVReaderConf> entry : configuration.getReaders().entrySet() )
+        {
+            writeString( entry.getKey(), out );
+            write( entry.getValue(), out );
+        }
+        
+        out.writeInt( configuration.getWriters().size() );
+        for( Map.Entry<String,CSVWriterConf> entry : configuration.getWriters().entrySet() )
+        {
+            writeString( entry.getKey(), out );
+            write( entry.getValue(), out );
+        }
+        
+        out.flush();
+        
+    }
+    
+    /**
+     * Reads a configuration from the snapshot in the given stream.
+     * The stream is not closed but it is buffered, so it can be
+     * read beyond the end of the snapshot.
+     * 
+     * @param source the stream to read.
+     * @return the configuration read.
+     * @throws IOException if fails to read the stream.
+     * @throws CSVConfigurationException if the stream doesn't contain a valid snapshot.
+     */
+    public static CSVConfiguration read( final InputStream source )
+    throws IOException
+    {
+        
+        if( source == null )
+            throw new NullPointerException( "The source stream can't be null" );
+        
+        final DataInputStream in = new DataInputStream( new BufferedInputStream(source) );
+        if( in.readInt() != MAGIC )
+            throw new CSVConfigurationException( "The given source is not a CSV configuration snapshot" );
+        
+        final int version = in.readInt();
+        if( version != VERSION )
+            throw new CSVConfigurationException( "Unsupported CSV configuration snapshot version " + version );
+        
+        final CSVConfiguration configuration = new CSVConfiguration();
+        read( configuration.getRegister(), in );
+        
+        for( int i = in.readInt(); i > 0; --i )
+            configuration.getParsers().put( readString(in), readCharSet(new CSVParserConf(), in) );
+        
+        for( int i = in.readInt(); i > 0; --i )
+            configuration.getFormatters().put( readString(in), readCharSet(new CSVFormatterConf(), in) );
+        
+        for( int i = in.readInt(); i > 0; --i )
+        {
+            final String name = readString( in );
+            final CSVReaderConf reader = readHandler( new CSVReaderConf(), in );
+            reader.setReadHeader( readBoolean(in) );
+            reader.setUseColumnNames( readBoolean(in) );
+            reader.setAcceptIncompleteRecords( readBoolean(in) );
+            reader.setParserRef( readString(in) );
+            reader.setParser( in.readBoolean() ? readCharSet(new CSVParserConf(), in) : null );
+            configuration.getReaders().put( name, reader );
+        }
+        
+        for( int i = in.readInt(); i > 0; --i )
+        {
+            final String name = readString( in );
+            final CSVWriterConf writer = readHandler( new CSVWriterConf(), in );
+            writer.setWriteHeader( readBoolean(in) );
+            writer.setFormatterRef( readString(in) );
+            writer.setFormatter( in.readBoolean() ? readCharSet(new CSVFormatterConf(), in) : null );
+            configuration.getWriters().put( name, writer );
+        }
+        
+        return configuration;
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Checks all the parts of the given configuration.
+     * 
+     * @param configuration the configuration to check.
+     * @throws CSVConfigurationException if the configuration is inconsistent.
+     */
+    private static void check( final CSVConfiguration configuration )
+    {
+        
+        CSVConfChecker.check( configuration.getRegister() );
+        
+        for( CSVParserConf parser : configuration.getParsers().values() )
+            CSVConfChecker.check( parser );
+        
+        for( CSVFormatterConf formatter : configuration.getFormatters().values() )
+            CSVConfChecker.check( formatter );
+        
+        for( CSVReaderConf reader : configuration.getReaders().values() )
+            CSVConfChecker.check( reader );
+        
+        for( CSVWriterConf writer : configuration.getWriters().values() )
+            CSVConfChecker.check( writer );
+        
+    }
+    
+    
+    /**
+     * Writes the given register configuration.
+     * 
+     * @param register the configuration to write.
+     * @param out      the stream where to write.
+     * @throws IOException if fails to write the stream.
+     */
+    private static void write( final CSVRegisterConf register, final DataOutputStream out )
+    throws IOException
+    {
+        
+        final CSVRegisterTypesConf types = register.getTypes();
+        out.writeBoolean( types != null );
+        if( types != null )
+        {
+            write( types.getValidatorProviders(), out );
+            write( types.getConverterProviders(), out );
+            write( types.getCsvToModelProviders(), out );
+            write( types.getModelToCSVProviders(), out );
+        }
+        
+        out.writeInt( register.getValidators().size() );
+        for( Map.Entry<String,CSVRegisterValidatorConf> entry : register.getValidators().entrySet() )
+        {
+            writeString( entry.getKey(), out );
+            writeString( entry.getValue().getName(), out );
+            write( entry.getValue(), out );
+        }
+        
+        out.writeInt( register.getConverters().size() );
+        for( Map.Entry<String,CSVRegisterConverterConf> entry : register.getConverters().entrySet() )
+        {
+            writeString( entry.getKey(), out );
+            writeString( entry.getValue().getName(), out );
+            write( entry.getValue(), out );
+        }
+        
+        out.writeInt( register.getProcessors().size() );
+        for( Map.Entry<String,CSVRegisterProcessorConf> entry : register.getProcessors().entrySet() )
+        {
+            writeString( entry.getKey(), out );
+            writeString( entry.getValue().getName(), out );
+            write( entry.getValue(), out );
+        }
+        
+    }
+    
+    /**
+     * Reads a register configuration into the given one.
+     * 
+     * @param register the configuration to fill.
+     * @param in       the stream to read.
+     * @throws IOException if fails to read the stream.
+     */
+    private static void read( final CSVRegisterConf register, final DataInputStream in )
+    throws IOException
+    {
+        
+        if( in.readBoolean() )
+        {
+            final CSVRegisterTypesConf types = register.getTypes();
+            readProviders( types.getValidatorProviders(), in );
+            readProviders( types.getConverterProviders(), in );
+            readProviders( types.getCsvToModelProviders(), in );
+            readProviders( types.getModelToCSVProviders(), in );
+        }
+        
+        for( int i = in.readInt(); i > 0; --i )
+        {
+            final String key = readString( in );
+            final CSVRegisterValidatorConf validator = new CSVRegisterValidatorConf();
+            validator.setName( readString(in) );
+            register.getValidators().put( key, readValidator(validator, in) );
+        }
+        
+        for( int i = in.readInt(); i > 0; --i )
+        {
+            final String key = readString( in );
+            final CSVRegisterConverterConf converter = new CSVRegisterConverterConf();
+            converter.setName( readString(in) );
+            register.getConverters().put( key, readConverter(converter, in) );
+        }
+        
+        for( int i = in.readInt(); i > 0; --i )
+        {
+            final String key = readString( in );
+            final CSVRegisterProcessorConf processor = new CSVRegisterProcessorConf();
+            processor.setName( readString(in) );
+            register.getProcessors().put( key, readProcessor(processor, in) );
+        }
+        
+    }
+    
+    /**
+     * Writes the given register providers.
+     * 
+     * @param providers the providers to write.
+     * @param out       the stream where to write.
+     * @throws IOException if fails to write the stream.
+     */
+    private static void write( final Map<String,CSVRegisterProviderConf> providers, final DataOutputStream out )
+    throws IOException
+    {
+        
+        out.writeInt( providers.size() );
+        for( Map.Entry<String,CSVRegisterProviderConf> entry : providers.entrySet() )
+        {
+            writeString( entry.getKey(), out );
+            writeString( entry.getValue().getTypeName(), out );
+            writeString( entry.getValue().getProviderClass(), out );
+        }
+        
+    }
+    
+    /**
+     * Reads the register providers into the given map.
+     * 
+     * @param providers the map to fill.
+     * @param in        the stream to read.
+     * @throws IOException if fails to read the stream.
+     */
+    private static void readProviders( final Map<String,CSVRegisterProviderConf> providers, final DataInputStream in )
+    throws IOException
+    {
+        
+        for( int i = in.readInt(); i > 0; --i )
+        {
+            final String key = readString( in );
+            final CSVRegisterProviderConf provider = new CSVRegisterProviderConf();
+            provider.setTypeName( readString(in) );
+            provider.setProviderClass( readString(in) );
+            providers.put( key, provider );
+        }
+        
+    }
+    
+    /**
+     * Writes the given handler configuration.
+     * 
+     * @param handler the configuration to write.
+     * @param out     the stream where to write.
+     * @throws IOException if fails to write the stream.
+     */
+    private static void write( final CSVHandlerConf handler, final DataOutputStream out )
+    throws IOException
+    {
+        
+        writeString( handler.getName(), out );
+        writeString( handler.getModelBinder().getType(), out );
+        writeParams( handler.getModelBinder().getParams(), out );
+        
+        out.writeInt( handler.getColumns().size() );
+        for( Map.Entry<String,CSVColumnConf> entry : handler.getColumns().entrySet() )
+        {
+            
+            final CSVColumnConf column = entry.getValue();
+            writeString( entry.getKey(), out );
+            writeString( column.getName(), out );
+            writeString( column.getMapping(), out );
+            writeBoolean( column.getOptional(), out );
+            writeBoolean( column.getDedup(), out );
+            out.writeInt( column.getOrder() != null ? column.getOrder() : Integer.MIN_VALUE );
+            out.writeBoolean( column.getOrder() != null );
+            writeString( column.getProcessorRef(), out );
+            
+            out.writeBoolean( column.getProcessor() != null );
+            if( column.getProcessor() != null )
+                write( column.getProcessor(), out );
+            
+        }
+        
+        if( handler instanceof CSVReaderConf )
+        {
+            final CSVReaderConf reader = (CSVReaderConf) handler;
+            writeBoolean( reader.getReadHeader(), out );
+            writeBoolean( reader.getUseColumnNames(), out );
+            writeBoolean( reader.getAcceptIncompleteRecords(), out );
+            writeString( reader.getParserRef(), out );
+            
+            out.writeBoolean( reader.getParser() != null );
+            if( reader.getParser() != null )
+                write( reader.getParser(), out );
+        }
+        else
+        {
+            final CSVWriterConf writer = (CSVWriterConf) handler;
+            writeBoolean( writer.getWriteHeader(), out );
+            writeString( writer.getFormatterRef(), out );
+            
+            out.writeBoolean( writer.getFormatter() != null );
+            if( writer.getFormatter() != null )
+                write( writer.getFormatter(), out );
+        }
+        
+    }
+    
+    /**
+     * Reads the common part of a handler configuration into the given one.
+     * 
+     * @param <H>     type of the handler configuration.
+     * @param handler the configuration to fill.
+     * @param in      the stream to read.
+     * @return the given configuration.
+     * @throws IOException if fails to read the stream.
+     */
+    private static <H extends CSVHandlerConf> H readHandler( final H handler, final DataInputStream in )
+    throws IOException
+    {
+        
+        handler.setName( readString(in) );
+        handler.getModelBinder().setType( readString(in) );
+        readParams( handler.getModelBinder().getParams(), in );
+        
+        for( int i = in.readInt(); i > 0; --i )
+        {
+            
+            final String key = readString( in );
+            final CSVColumnConf column = new CSVColumnConf();
+            column.setName( readString(in) );
+            column.setMapping( readString(in) );
+            column.setOptional( readBoolean(in) );
+            column.setDedup( readBoolean(in) );
+            
+            final int order = in.readInt();
+            column.setOrder( in.readBoolean() ? order : null );
+            column.setProcessorRef( readString(in) );
+            
+            if( in.readBoolean() )
+                column.setProcessor( readProcessor(new CSVFieldProcessorConf(), in) );
+            
+            handler.getColumns().put( key, column );
+            
+        }
+        
+        return handler;
+        
+    }
+    
+    /**
+     * Writes the given processor configuration.
+     * 
+     * @param processor the configuration to write.
+     * @param out       the stream where to write.
+     * @throws IOException if fails to write the stream.
+     */
+    private static void write( final CSVFieldProcessorConf processor, final DataOutputStream out )
+    throws IOException
+    {
+        
+        writeString( processor.getPreconditionRef(), out );
+        writeString( processor.getConverterRef(), out );
+        writeString( processor.getPostconditionRef(), out );
+        
+        out.writeBoolean( processor.getPrecondition() != null );
+        if( processor.getPrecondition() != null )
+            write( processor.getPrecondition(), out );
+        
+        out.writeBoolean( processor.getConverter() != null );
+        if( processor.getConverter() != null )
+            write( processor.getConverter(), out );
+        
+        out.writeBoolean( processor.getPostcondition() != null );
+        if( processor.getPostcondition() != null )
+            write( processor.getPostcondition(), out );
+        
+    }
+    
+    /**
+     * Reads a processor configuration into the given one.
+     * 
+     * @param <P>       type of the processor configuration.
+     * @param processor the configuration to fill.
+     * @param in        the stream to read.
+     * @return the given configuration.
+     * @throws IOException if fails to read the stream.
+     */
+    private static <P extends CSVFieldProcessorConf> P readProcessor( final P processor, final DataInputStream in )
+    throws IOException
+    {
+        
+        processor.setPreconditionRef( readString(in) );
+        processor.setConverterRef( readString(in) );
+        processor.setPostconditionRef( readString(in) );
+        
+        if( in.readBoolean() )
+            processor.setPrecondition( readValidator(new CSVFieldValidatorConf(), in) );
+        
+        if( in.readBoolean() )
+            processor.setConverter( readConverter(new CSVFieldConverterConf(), in) );
+        
+        if( in.readBoolean() )
+            processor.setPostcondition( readValidator(new CSVFieldValidatorConf(), in) );
+        
+        return processor;
+        
+    }
+    
+    /**
+     * Writes the given validator configuration.
+     * 
+     * @param validator the configuration to write.
+     * @param out       the stream where to write.
+     * @throws IOException if fails to write the stream.
+     */
+    private static void write( final CSVFieldValidatorConf validator, final DataOutputStream out )
+    throws IOException
+    {
+        
+        writeString( validator.getType(), out );
+        writeParams( validator.getParams(), out );
+        
+    }
+    
+    /**
+     * Reads a validator configuration into the given one.
+     * 
+     * @param <V>       type of the validator configuration.
+     * @param validator the configuration to fill.
+     * @param in        the stream to read.
+     * @return the given configuration.
+     * @throws IOException if fails to read the stream.
+     */
+    private static <V extends CSVFieldValidatorConf> V readValidator( final V validator, final DataInputStream in )
+    throws IOException
+    {
+        
+        validator.setType( readString(in) );
+        readParams( validator.getParams(), in );
+        
+        return validator;
+        
+    }
+    
+    /**
+     * Writes the given converter configuration.
+     * 
+     * @param converter the configuration to write.
+     * @param out       the stream where to write.
+     * @throws IOException if fails to write the stream.
+     */
+    private static void write( final CSVFieldConverterConf converter, final DataOutputStream out )
+    throws IOException
+    {
+        
+        writeString( converter.getType(), out );
+        writeParams( converter.getParams(), out );
+        
+    }
+    
+    /**
+     * Reads a converter configuration into the given one.
+     * 
+     * @param <C>       type of the converter configuration.
+     * @param converter the configuration to fill.
+     * @param in        the stream to read.
+     * @return the given configuration.
+     * @throws IOException if fails to read the stream.
+     */
+    private static <C extends CSVFieldConverterConf> C readConverter( final C converter, final DataInputStream in )
+    throws IOException
+    {
+        
+        converter.setType( readString(in) );
+        readParams( converter.getParams(), in );
+        
+        return converter;
+        
+    }
+    
+    /**
+     * Writes the given character set configuration.
+     * 
+     * @param charSet the configuration to write.
+     * @param out     the stream where to write.
+     * @throws IOException if fails to write the stream.
+     */
+    private static void write( final CSVCharSetConf charSet, final DataOutputStream out )
+    throws IOException
+    {
+        
+        writeString( charSet.getName(), out );
+        writeChar( charSet.getQuoteChar(), out );
+        writeChar( charSet.getEscapeChar(), out );
+        writeChar( charSet.getFieldSeparator(), out );
+        writeChars( charSet.getRecordSeparator(), out );
+        
+        if( charSet instanceof CSVParserConf )
+        {
+            final CSVParserConf parser = (CSVParserConf) charSet;
+            writeChars( parser.getCharsToIgnore(), out );
+            writeChars( parser.getCharsToIgnoreAroundFields(), out );
+            writeBoolean( parser.isStrictQuotes(), out );
+            writeBoolean( parser.isMatchRecordSeparatorExactSequence(), out );
+            writeInteger( parser.getMaxFieldSize(), out );
+            writeInteger( parser.getMaxRecordSize(), out );
+        }
+        else
+        {
+            final CSVFormatterConf formatter = (CSVFormatterConf) charSet;
+            writeChars( formatter.getCharsToEscape(), out );
+            writeChars( formatter.getCharsThatForceQuoting(), out );
+        }
+        
+    }
+    
+    /**
+     * Reads a character set configuration into the given one.
+     * 
+     * @param <C>     type of the character set configuration.
+     * @param charSet the configuration to fill.
+     * @param in      the stream to read.
+     * @return the given configuration.
+     * @throws IOException if fails to read the stream.
+     */
+    private static <C extends CSVCharSetConf> C readCharSet( final C charSet, final DataInputStream in )
+    throws IOException
+    {
+        
+        charSet.setName( readString(in) );
+        charSet.setQuoteChar( readChar(in) );
+        charSet.setEscapeChar( readChar(in) );
+        charSet.setFieldSeparator( readChar(in) );
+        charSet.setRecordSeparator( readChars(in) );
+        
+        if( charSet instanceof CSVParserConf )
+        {
+            final CSVParserConf parser = (CSVParserConf) charSet;
+            parser.setCharsToIgnore( readChars(in) );
+            parser.setCharsToIgnoreAroundFields( readChars(in) );
+            parser.setStrictQuotes( readBoolean(in) );
+            parser.setMatchRecordSeparatorExactSequence( readBoolean(in) );
+            parser.setMaxFieldSize( readInteger(in) );
+            parser.setMaxRecordSize( readInteger(in) );
+        }
+        else
+        {
+            final CSVFormatterConf formatter = (CSVFormatterConf) charSet;
+            formatter.setCharsToEscape( readChars(in) );
+            formatter.setCharsThatForceQuoting( readChars(in) );
+        }
+        
+        return charSet;
+        
+    }
+    
+    /**
+     * Writes the given parameters.
+     * 
+     * @param params the parameters to write.
+     * @param out    the stream where to write.
+     * @throws IOException if fails to write the stream.
+     */
+    private static void writeParams( final Map<String,String> params, final DataOutputStream out )
+    throws IOException
+    {
+        
+        out.writeInt( params.size() );
+        for( Map.Entry<String,String> entry : params.entrySet() )
+        {
+            writeString( entry.getKey(), out );
+            writeString( entry.getValue(), out );
+        }
+        
+    }
+    
+    /**
+     * Reads the parameters into the given map.
+     * 
+     * @param params the map to fill.
+     * @param in     the stream to read.
+     * @throws IOException if fails to read the stream.
+     */
+    private static void readParams( final Map<String,String> params, final DataInputStream in )
+    throws IOException
+    {
+        
+        for( int i = in.readInt(); i > 0; --i )
+            params.put( readString(in), readString(in) );
+        
+    }
+    
+    /**
+     * Writes the given string that can be {@code null}.
+     * 
+     * @param value the value to write.
+     * @param out   the stream where to write.
+     * @throws IOException if fails to write the stream.
+     */
+    private static void writeString( final String value, final DataOutputStream out )
+    throws IOException
+    {
+        
+        out.writeBoolean( value != null );
+        if( value != null )
+            out.writeUTF( value );
+        
+    }
+    
+    /**
+     * Reads a string written by {@link #writeString(String, DataOutputStream)}.
+     * 
+     * @param in the stream to read.
+     * @return the value read.
+     * @throws IOException if fails to read the stream.
+     */
+    private static String readString( final DataInputStream in )
+    throws IOException
+    {
+        
+        return in.readBoolean() ? in.readUTF() : null;
+        
+    }
+    
+    /**
+     * Writes the given flag that can be {@code null}.
+     * 
+     * @param value the value to write.
+     * @param out   the stream where to write.
+     * @throws IOException if fails to write the stream.
+     */
+    private static void writeBoolean( final Boolean value, final DataOutputStream out )
+    throws IOException
+    {
+        
+        out.writeByte( value == null ? NULL : value ? 1 : 0 );
+        
+    }
+    
+    /**
+     * Writes the given non negative value.
+     * 
+     * @param value the value to write.
+     * @param out   the stream where to write.
+     * @throws IOException if fails to write the stream.
+     */
+    private static void writeInteger( final Integer value, final DataOutputStream out )
+    throws IOException
+    {
+        
+        out.writeInt( value == null ? NULL : value );
+        
+    }
+    
+    /**
+     * Reads a value written by {@link #writeInteger(Integer, DataOutputStream)}.
+     * 
+     * @param in the stream to read.
+     * @return the value read.
+     * @throws IOException if fails to read the stream.
+     */
+    private static Integer readInteger( final DataInputStream in )
+    throws IOException
+    {
+        
+        final int value = in.readInt();
+        return value == NULL ? null : value;
+        
+    }
+    
+    /**
+     * Reads a flag written by {@link #writeBoolean(Boolean, DataOutputStream)}.
+     * 
+     * @param in the stream to read.
+     * @return the value read.
+     * @throws IOException if fails to read the stream.
+     */
+    private static Boolean readBoolean( final DataInputStream in )
+    throws IOException
+    {
+        
+        final byte value = in.readByte();
+        return value == NULL ? null : value == 1;
+        
+    }
+    
+    /**
+     * Writes the given character that can be {@code null}.
+     * 
+     * @param value the value to write.
+     * @param out   the stream where to write.
+     * @throws IOException if fails to write the stream.
+     */
+    private static void writeChar( final Character value, final DataOutputStream out )
+    throws IOException
+    {
+        
+        out.writeInt( value != null ? value.charValue() : NULL );
+        
+    }
+    
+    /**
+     * Reads a character written by {@link #writeChar(Character, DataOutputStream)}.
+     * 
+     * @param in the stream to read.
+     * @return the value read.
+     * @throws IOException if fails to read the stream.
+     */
+    private static Character readChar( final DataInputStream in )
+    throws IOException
+    {
+        
+        final int value = in.readInt();
+        return value == NULL ? null : (char) value;
+        
+    }
+    
+    /**
+     * Writes the given characters that can be {@code null}.
+     * 
+     * @param value the value to write.
+     * @param out   the stream where to write.
+     * @throws IOException if fails to write the stream.
+     */
+    private static void writeChars( final char[] value, final DataOutputStream out )
+    throws IOException
+    {
+        
+        if( value == null )
+        {
+            out.writeInt( NULL );
+            return;
+        }
+        
+        out.writeInt( value.length );
+        for( char c : value )
+            out.writeChar( c );
+        
+    }
+    
+    /**
+     * Reads the characters written by {@link #writeChars(char[], DataOutputStream)}.
+     * 
+     * @param in the stream to read.
+     * @return the value read.
+     * @throws IOException if fails to read the stream.
+     */
+    private static char[] readChars( final DataInputStream in )
+    throws IOException
+    {
+        
+        final int length = in.readInt();
+        if( length == NULL )
+            return null;
+        
+        final char[] value = new char[length];
+        for( int i = 0; i < length; ++i )
+            value[i] = in.readChar();
+        
+        return value;
+        
+    }
+    
+}
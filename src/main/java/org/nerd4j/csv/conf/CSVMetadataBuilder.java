@@ -41,6 +41,7 @@ import org.nerd4j.csv.field.CSVFieldMetadata;
 import org.nerd4j.csv.field.CSVFieldProcessor;
 import org.nerd4j.csv.field.CSVFieldValidator;
 import org.nerd4j.csv.field.CSVMappingDescriptor;
+import org.nerd4j.csv.field.CSVStringCache;
 import org.nerd4j.csv.field.processor.CSVFieldProcessorFactory;
 import org.nerd4j.csv.formatter.CSVFormatterMetadata;
 import org.nerd4j.csv.parser.CSVParserMetadata;
@@ -102,6 +103,12 @@ public final class CSVMetadataBuilder
         if( configuration.isStrictQuotes() != null )
             metadata.setStrictQuotes( configuration.isStrictQuotes() );
         
+        if( configuration.getMaxFieldSize() != null )
+            metadata.setMaxFieldSize( configuration.getMaxFieldSize() );
+        
+        if( configuration.getMaxRecordSize() != null )
+            metadata.setMaxRecordSize( configuration.getMaxRecordSize() );
+        
         return metadata;
         
     }
@@ -261,7 +268,10 @@ public final class CSVMetadataBuilder
         final CSVFieldProcessor<?,?> processor = processorFactory.create();                                       
         final int order = configuration.getOrder() != null ? configuration.getOrder() : Integer.MAX_VALUE;
         final boolean optional = configuration.getOptional() != null ? configuration.getOptional() : false;
-        final CSVField<?,?> field = new CSVField( processor, optional );
+        final boolean dedup = configuration.getDedup() != null ? configuration.getDedup() : false;
+        
+        /* The fields are built for each reader so each reader has its own cache. */
+        final CSVField<?,?> field = new CSVField( processor, optional, dedup ? new CSVStringCache() : null );
         
         final String name = configuration.getName();
         final String mapping = configuration.getMapping();
@@ -38,6 +38,9 @@ public class CSVColumnConf implements Cloneable
     /** Tells if the column can have {@code null} values. */
     private Boolean optional;
     
+    /** Tells if the values of the column should be deduplicated. */
+    private Boolean dedup;
+    
     /** The order in which the column should be written. */
     private Integer order;
     
@@ -61,6 +64,7 @@ public class CSVColumnConf implements Cloneable
         this.order = null;
         this.mapping = null;
         this.optional = null;
+        this.dedup = null;
         this.processor = null;
         this.processorRef = null;
         
@@ -132,6 +136,26 @@ public class CSVColumnConf implements Cloneable
         this.optional = optional;
     }
     
+    /**
+     * Returns the flag {@code dedup}.
+     * 
+     * @return the flag {@code dedup}.
+     */
+    public Boolean getDedup()
+    {
+        return dedup;
+    }
+    
+    /**
+     * Sets the flag {@code dedup}.
+     * 
+     * @param dedup value to set.
+     */
+    public void setDedup( Boolean dedup )
+    {
+        this.dedup = dedup;
+    }
+    
     /**
      * Returns the {@code order} value.
      * 
@@ -62,6 +62,18 @@ public class CSVParserConf extends CSVCharSetConf implements Cloneable
      */
     private Boolean matchRecordSeparatorExactSequence;
     
+    /**
+     * Maximum number of characters of a field,
+     * {@code 0} means no limit (by default there is no limit).
+     */
+    private Integer maxFieldSize;
+    
+    /**
+     * Maximum number of characters of a record,
+     * {@code 0} means no limit (by default there is no limit).
+     */
+    private Integer maxRecordSize;
+    
     
     /**
      * Default constructor.
@@ -76,6 +88,8 @@ public class CSVParserConf extends CSVCharSetConf implements Cloneable
         this.charsToIgnore                     = null;
         this.charsToIgnoreAroundFields         = null;
         this.matchRecordSeparatorExactSequence = null;
+        this.maxFieldSize                      = null;
+        this.maxRecordSize                     = null;
         
     }
 
@@ -164,6 +178,46 @@ public class CSVParserConf extends CSVCharSetConf implements Cloneable
     {
     	this.matchRecordSeparatorExactSequence = matchRecordSeparatorExactSequence;
     }
+    
+    /**
+     * Returns the value {@code max-field-size}.
+     * 
+     * @return the value {@code max-field-size}.
+     */
+    public Integer getMaxFieldSize()
+    {
+        return maxFieldSize;
+    }
+    
+    /**
+     * Sets the value {@code max-field-size}.
+     * 
+     * @param maxFieldSize value to set.
+     */
+    public void setMaxFieldSize( Integer maxFieldSize )
+    {
+        this.maxFieldSize = maxFieldSize;
+    }
+    
+    /**
+     * Returns the value {@code max-record-size}.
+     * 
+     * @return the value {@code max-record-size}.
+     */
+    public Integer getMaxRecordSize()
+    {
+        return maxRecordSize;
+    }
+    
+    /**
+     * Sets the value {@code max-record-size}.
+     * 
+     * @param maxRecordSize value to set.
+     */
+    public void setMaxRecordSize( Integer maxRecordSize )
+    {
+        this.maxRecordSize = maxRecordSize;
+    }
 
     
     /* ******************* */
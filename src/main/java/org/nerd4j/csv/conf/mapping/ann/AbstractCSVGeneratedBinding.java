@@ -0,0 +1,129 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.conf.mapping.ann;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.nerd4j.csv.conf.CSVConfSnapshot;
+import org.nerd4j.csv.conf.mapping.CSVConfiguration;
+import org.nerd4j.csv.exception.CSVConfigurationException;
+
+
+/**
+ * Abstract implementation of the {@link CSVGeneratedBinding}
+ * that contains the code common to all the generated classes.
+ * <p>
+ * The configuration of the bean is computed at compile time and
+ * embedded in the generated class as a {@link CSVConfSnapshot}.
+ * 
+ * @param <B> type of the annotated bean.
+ * 
+ * @author Nerd4j Team
+ */
+public abstract class AbstractCSVGeneratedBinding<B> implements CSVGeneratedBinding<B>
+{
+    
+    /** The configuration of the bean read from the embedded snapshot. */
+    private CSVConfiguration configuration;
+    
+    
+    /**
+     * Default constructor.
+     */
+    protected AbstractCSVGeneratedBinding()
+    {
+        
+        super();
+        
+        this.configuration = null;
+        
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void merge( final CSVConfiguration configTarget )
+    {
+        
+        final CSVConfiguration source = getConfiguration();
+        
+        configTarget.getReaders().putAll( source.getReaders() );
+        configTarget.getWriters().putAll( source.getWriters() );
+        
+    }
+    
+    
+    /* ***************** */
+    /*  EXTENSION HOOKS  */
+    /* ***************** */
+    
+    
+    /**
+     * Returns the {@link CSVConfSnapshot} of the bean configuration
+     * encoded as an ISO-8859-1 {@link String}.
+     * 
+     * @return the embedded configuration snapshot.
+     */
+    protected abstract String getSnapshot();
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Returns a new copy of the embedded configuration.
+     * 
+     * @return the bean configuration.
+     */
+    private CSVConfiguration getConfiguration()
+    {
+        
+        try{
+            
+            if( configuration == null )
+            {
+                final byte[] snapshot = getSnapshot().getBytes( StandardCharsets.ISO_8859_1 );
+                configuration = CSVConfSnapshot.read( new ByteArrayInputStream(snapshot) );
+            }
+            
+            return configuration.clone();
+            
+        }catch( Exception ex )
+        {
+            
+            throw new CSVConfigurationException( "Unable to read the generated configuration", ex );
+            
+        }
+        
+    }
+    
+}
@@ -39,7 +39,6 @@ import org.nerd4j.csv.conf.mapping.CSVParserConf;
 import org.nerd4j.csv.conf.mapping.CSVReaderConf;
 import org.nerd4j.csv.conf.mapping.CSVWriterConf;
 import org.nerd4j.csv.exception.CSVConfigurationException;
-import org.nerd4j.lang.Couple;
 import org.nerd4j.util.ReflectionUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -67,6 +66,37 @@ public class AnnotatedConfigurationFactory
     /** Costante per identificare un elemento di tipo writer. */
     private static final int WRITER = 2;
     
+    /** Suffix of the classes generated by the {@link CSVAnnotationProcessor}. */
+    static final String GENERATED_BINDING_SUFFIX = "_CSVBinding";
+    
+    /** The bindings generated by the {@link CSVAnnotationProcessor} for each bean. */
+    private static final ClassValue<CSVGeneratedBinding<?>> generatedBindings = new ClassValue<CSVGeneratedBinding<?>>()
+    {
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected CSVGeneratedBinding<?> computeValue( Class<?> beanClass )
+        {
+            
+            try{
+                
+                final Class<?> generated = Class.forName( getGeneratedBindingName(beanClass.getName()), true, beanClass.getClassLoader() );
+                return (CSVGeneratedBinding<?>) generated.getDeclaredConstructor().newInstance();
+                
+            }catch( ClassNotFoundException ex )
+            {
+                return null;
+                
+            }catch( Exception ex )
+            {
+                logger.warn( "Unable to use the generated binding for " + beanClass + ", falling back to reflection.", ex );
+                return null;
+            }
+            
+        }
+    };
+    
     
     
     /**
@@ -104,8 +134,14 @@ public class AnnotatedConfigurationFactory
                 throw new NullPointerException( "Invalid null configuration source" );
             }
             
-            mergeReader( configSource, configTarget );
-            mergeWriter( configSource, configTarget );
+            /* If the annotation processor generated the binding we skip the reflection. */
+            final CSVGeneratedBinding<?> binding = getGeneratedBinding( configSource );
+            if( binding != null && mergeGenerated(binding, configSource, configTarget) )
+                return;
+            
+            final Map<String,AnnotatedProperty> properties = getColumnAnnotations( configSource );
+            merge( configSource.getCanonicalName(), configSource.getAnnotation(CSVReader.class),
+                   configSource.getAnnotation(CSVWriter.class), properties, configTarget );
         
         }catch( Exception ex )
         {
@@ -116,24 +152,120 @@ public class AnnotatedConfigurationFactory
     }
     
     
+    /**
+     * Returns the binding generated by the {@link CSVAnnotationProcessor}
+     * for the given bean if any.
+     * <p>
+     * The generated class is looked up only once for each bean.
+     * 
+     * @param <B> type of the bean.
+     * @param beanClass the annotated bean.
+     * @return the generated binding, {@code null} if not generated.
+     */
+    @SuppressWarnings("unchecked")
+    public static <B> CSVGeneratedBinding<B> getGeneratedBinding( Class<B> beanClass )
+    {
+        
+        return beanClass != null ? (CSVGeneratedBinding<B>) generatedBindings.get( beanClass ) : null;
+        
+    }
+    
+    
+    /* ***************** */
+    /*  UTILITY METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Merges the configuration of the given bean into the given
+     * {@link CSVConfiguration}. This method is used both at runtime
+     * and by the {@link CSVAnnotationProcessor} at compile time.
+     * 
+     * @param beanClassName the canonical name of the bean.
+     * @param reader        the reader annotation, can be {@code null}.
+     * @param writer        the writer annotation, can be {@code null}.
+     * @param properties    the annotated properties of the bean.
+     * @param configTarget  the target to merge.
+     */
+    static void merge( final String beanClassName, final CSVReader reader, final CSVWriter writer,
+                       final Map<String,AnnotatedProperty> properties, final CSVConfiguration configTarget )
+    {
+        
+        mergeReader( beanClassName, reader, properties, configTarget );
+        mergeWriter( beanClassName, writer, properties, configTarget );
+        
+    }
+    
+    /**
+     * Returns the name of the class generated by the {@link CSVAnnotationProcessor}
+     * for the bean with the given binary name.
+     * 
+     * @param binaryName the binary name of the bean.
+     * @return the binary name of the generated class.
+     */
+    static String getGeneratedBindingName( final String binaryName )
+    {
+        
+        final int dot = binaryName.lastIndexOf( '.' );
+        return binaryName.substring( 0, dot + 1 )
+             + binaryName.substring( dot + 1 ).replace( '$', '_' )
+             + GENERATED_BINDING_SUFFIX;
+        
+    }
+    
+    
     /* ***************** */
     /*  PRIVATE METHODS  */
     /* ***************** */
     
     
+    /**
+     * Merges the configuration generated for the given bean into
+     * the given {@link CSVConfiguration}.
+     * <p>
+     * If the embedded snapshot can't be read, for example because
+     * it was generated by a different version of the library,
+     * the configuration is left untouched so the caller can
+     * fall back to reflection.
+     * 
+     * @param binding      the generated binding.
+     * @param configSource the annotated bean.
+     * @param configTarget the target to merge.
+     * @return {@code true} if the generated configuration has been merged.
+     */
+    private static boolean mergeGenerated( CSVGeneratedBinding<?> binding, Class<?> configSource,
+                                           CSVConfiguration configTarget )
+    {
+        
+        try{
+            
+            logger.debug( "Using the generated configuration for {}.", configSource );
+            binding.merge( configTarget );
+            return true;
+            
+        }catch( CSVConfigurationException ex )
+        {
+            logger.warn( "Unable to use the generated configuration for " + configSource + ", falling back to reflection.", ex );
+            return false;
+        }
+        
+    }
+    
+    
     /**
      * Merges the given reader annotation into the given CSV configuration.
      * 
-     * @param annConf the source annotate bean.
-     * @param csvConf the target CSV configuration.
+     * @param beanClassName the canonical name of the bean.
+     * @param reader        the reader annotation.
+     * @param properties    the annotated properties of the bean.
+     * @param csvConf       the target CSV configuration.
      */
-    private static void mergeReader( final Class<?> annConf, final CSVConfiguration csvConf )
+    private static void mergeReader( final String beanClassName, final CSVReader reader,
+                                     final Map<String,AnnotatedProperty> properties, final CSVConfiguration csvConf )
     {
         
-        final CSVReader reader = annConf.getAnnotation( CSVReader.class );
         if( reader == null ) return;
                 
-        final String beanClassName = annConf.getCanonicalName();
         final CSVReaderConf readerConf = new CSVReaderConf();
 
         csvConf.getReaders().put( beanClassName, readerConf );
@@ -145,23 +277,24 @@ public class AnnotatedConfigurationFactory
         modelBinder.getParams().put( "bean-class", beanClassName );
         modelBinder.setType( "bean" );
         
-        mergeColumns( annConf, readerConf.getColumns(), AnnotatedConfigurationFactory.READER );
+        mergeColumns( properties, readerConf.getColumns(), AnnotatedConfigurationFactory.READER );
         
     }
     
     /**
-     * Merges the given reader annotation into the given CSV configuration.
+     * Merges the given writer annotation into the given CSV configuration.
      * 
-     * @param annConf the source annotate bean.
-     * @param csvConf the target CSV configuration.
+     * @param beanClassName the canonical name of the bean.
+     * @param writer        the writer annotation.
+     * @param properties    the annotated properties of the bean.
+     * @param csvConf       the target CSV configuration.
      */
-    private static void mergeWriter( final Class<?> annConf, final CSVConfiguration csvConf )
+    private static void mergeWriter( final String beanClassName, final CSVWriter writer,
+                                     final Map<String,AnnotatedProperty> properties, final CSVConfiguration csvConf )
     {
         
-        final CSVWriter writer = annConf.getAnnotation( CSVWriter.class );
         if( writer == null ) return;
         
-        final String beanClassName = annConf.getCanonicalName();
         final CSVWriterConf writerConf = new CSVWriterConf();
         
         csvConf.getWriters().put( beanClassName, writerConf );
@@ -173,7 +306,7 @@ public class AnnotatedConfigurationFactory
         modelBinder.getParams().put( "bean-class", beanClassName );
         modelBinder.setType( "bean" );
         
-        mergeColumns( annConf, writerConf.getColumns(), AnnotatedConfigurationFactory.WRITER );
+        mergeColumns( properties, writerConf.getColumns(), AnnotatedConfigurationFactory.WRITER );
         
     }
         
@@ -235,6 +368,9 @@ public class AnnotatedConfigurationFactory
         csvConf.setStrictQuotes( annConf.strictQuotes() );
         csvConf.setMatchRecordSeparatorExactSequence( annConf.recordSepMatchExactSequence() );
         
+        if( annConf.maxFieldSize() > 0 ) csvConf.setMaxFieldSize( annConf.maxFieldSize() );
+        if( annConf.maxRecordSize() > 0 ) csvConf.setMaxRecordSize( annConf.maxRecordSize() );
+        
         if( isValued(annConf.quote()) ) csvConf.setQuoteChar( annConf.quote() );
         if( isValued(annConf.escape()) ) csvConf.setEscapeChar( annConf.escape() );
         if( isValued(annConf.fieldSep()) ) csvConf.setFieldSeparator( annConf.fieldSep() );                
@@ -266,28 +402,26 @@ public class AnnotatedConfigurationFactory
     /**
      * Merges the given XML configuration into the given CSV configuration.
      * 
-     * @param annConf    the source annotation configuration.
+     * @param columnMap  the annotated properties of the bean.
      * @param csvConfMap the target CSV configuration.
      * @param confType   can be reader or writer.
      */
-    private static void mergeColumns( final Class<?> annConf,
+    private static void mergeColumns( final Map<String,AnnotatedProperty> columnMap,
                                       final Map<String,CSVColumnConf> csvConfMap,
                                       final int confType )
     {
-                
-        final Map<String,Couple<CSVColumn,Class<?>>> columnMap = getColumnAnnotations( annConf );
         
         String property;
         CSVColumn column;
         String columnName;
         CSVColumnConf csvColumn;
-        Couple<CSVColumn,Class<?>> couple;
-        for( Map.Entry<String,Couple<CSVColumn,Class<?>>> entry : columnMap.entrySet() )
+        AnnotatedProperty couple;
+        for( Map.Entry<String,AnnotatedProperty> entry : columnMap.entrySet() )
         {
         
             property = entry.getKey();
             couple = entry.getValue();
-            column = couple.getFirst();
+            column = couple.column;
             
             if( ! isValued(column.name()) )
             	logger.warn( "Column name not defined going to use property name {}", property );
@@ -319,12 +453,12 @@ public class AnnotatedConfigurationFactory
      * @param annConf    the source annotation configuration.
      * @return a map relating each property of the bean with the corresponding annotation.
      */
-    private static Map<String,Couple<CSVColumn,Class<?>>> getColumnAnnotations( final Class<?> annConf )
+    private static Map<String,AnnotatedProperty> getColumnAnnotations( final Class<?> annConf )
     {
         
         final Map<Field,CSVColumn> fieldMap = ReflectionUtil.findAnnotatedFields( CSVColumn.class, annConf );
         final Map<Method,CSVColumn> methodMap = ReflectionUtil.findAnnotatedMethods( CSVColumn.class, annConf );
-        final Map<String,Couple<CSVColumn,Class<?>>> propertyMap = new HashMap<String,Couple<CSVColumn,Class<?>>>( fieldMap.size() + methodMap.size() );
+        final Map<String,AnnotatedProperty> propertyMap = new HashMap<String,AnnotatedProperty>( fieldMap.size() + methodMap.size() );
         
         Method method;
         String property;
@@ -336,7 +470,7 @@ public class AnnotatedConfigurationFactory
                 throw new IllegalArgumentException( "The annotated method " + method + " is not a getter." );
             
             property = ReflectionUtil.propertyFromGetter( entry.getKey() );
-            propertyMap.put( property, new Couple<CSVColumn,Class<?>>(entry.getValue(),method.getReturnType()) );
+            propertyMap.put( property, new AnnotatedProperty(entry.getValue(),method.getReturnType()) );
             
         }
         
@@ -349,7 +483,7 @@ public class AnnotatedConfigurationFactory
             if( propertyMap.containsKey(property) )
                 throw new IllegalStateException( "Duplicated configuration for the property " + property );
                 
-            propertyMap.put( property, new Couple<CSVColumn,Class<?>>(entry.getValue(),field.getType()) );
+            propertyMap.put( property, new AnnotatedProperty(entry.getValue(),field.getType()) );
         }
         
         return propertyMap;
@@ -364,18 +498,19 @@ public class AnnotatedConfigurationFactory
      * @param csvConf  the target CSV configuration.
      * @param confType can be reader or writer.
      */
-    private static void merge( final Couple<CSVColumn,Class<?>> annConf, final CSVColumnConf csvConf, int confType )
+    private static void merge( final AnnotatedProperty annConf, final CSVColumnConf csvConf, int confType )
     {
         
         if( checkNullConsistence(annConf != null, csvConf, "column") ) return;
         
-        final CSVColumn annotation = annConf.getFirst();
-        final Class<?> type = annConf.getSecond();
+        final CSVColumn annotation = annConf.column;
+        final AnnotatedProperty type = annConf;
         
-        if( annotation == null || type == null )
+        if( annotation == null || type.simpleName == null )
             throw new NullPointerException( "The " + confType + " configuration must be not null" );
 
         csvConf.setOptional( annotation.optional() );
+        if( annotation.dedup() ) csvConf.setDedup( true );
         csvConf.setOrder( annotation.order() );
         
         switch( confType )
@@ -442,25 +577,25 @@ public class AnnotatedConfigurationFactory
      * it creates the related processor. 
      * 
      * @param csvConf configuration to populate.
-     * @param type    type to use for auto detection.
+     * @param type    property to use for auto detection.
      * @param prefix  the prefix to use, can be 'parse' or 'format'.
      */
-    private static void autodetectProcessor( CSVColumnConf csvConf, Class<?> type, String prefix )
+    private static void autodetectProcessor( CSVColumnConf csvConf, AnnotatedProperty type, String prefix )
     {
         
-        if( String.class.isAssignableFrom(type) ) return;
+        if( type.string ) return;
         
         final CSVFieldProcessorConf processor = new CSVFieldProcessorConf();
         final CSVFieldConverterConf converter = new CSVFieldConverterConf();
         
-        if( Enum.class.isAssignableFrom(type) )
+        if( type.enumeration )
         {
             converter.setType( prefix + "Enum" );
-            converter.getParams().put( "enum-type", type.getName() );
+            converter.getParams().put( "enum-type", type.name );
         }
         else
         {
-            converter.setType( prefix + type.getSimpleName() );
+            converter.setType( prefix + type.simpleName );
         }
         
         processor.setConverter( converter );
@@ -694,4 +829,75 @@ public class AnnotatedConfigurationFactory
         
     }
     
-}
\ No newline at end of file
+    
+    /* *************** */
+    /*  INNER CLASSES  */
+    /* *************** */
+    
+    
+    /**
+     * Represents a bean property annotated with {@link CSVColumn}
+     * and the information about its type needed to detect
+     * the default processor.
+     * 
+     * @author Nerd4j Team
+     */
+    static final class AnnotatedProperty
+    {
+        
+        /** The annotation of the property. */
+        final CSVColumn column;
+        
+        /** Tells if the property is a {@link String}. */
+        final boolean string;
+        
+        /** Tells if the property is an {@link Enum}. */
+        final boolean enumeration;
+        
+        /** The simple name of the property type. */
+        final String simpleName;
+        
+        /** The binary name of the property type. */
+        final String name;
+        
+        
+        /**
+         * Constructor with parameters.
+         * 
+         * @param column      the annotation of the property.
+         * @param string      tells if the property is a {@link String}.
+         * @param enumeration tells if the property is an {@link Enum}.
+         * @param simpleName  the simple name of the property type.
+         * @param name        the binary name of the property type.
+         */
+        AnnotatedProperty( final CSVColumn column, final boolean string, final boolean enumeration,
+                           final String simpleName, final String name )
+        {
+            
+            super();
+            
+            this.column = column;
+            this.string = string;
+            this.enumeration = enumeration;
+            this.simpleName = simpleName;
+            this.name = name;
+            
+        }
+        
+        /**
+         * Constructor with parameters.
+         * 
+         * @param column the annotation of the property.
+         * @param type   the type of the property.
+         */
+        AnnotatedProperty( final CSVColumn column, final Class<?> type )
+        {
+            
+            this( column, String.class.isAssignableFrom(type), Enum.class.isAssignableFrom(type),
+                  type.getSimpleName(), type.getName() );
+            
+        }
+        
+    }
+    
+}
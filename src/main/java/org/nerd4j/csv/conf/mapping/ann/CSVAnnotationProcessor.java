@@ -0,0 +1,748 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.conf.mapping.ann;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+import org.nerd4j.csv.conf.CSVConfSnapshot;
+import org.nerd4j.csv.conf.mapping.CSVColumnConf;
+import org.nerd4j.csv.conf.mapping.CSVConfiguration;
+import org.nerd4j.csv.conf.mapping.CSVHandlerConf;
+import org.nerd4j.csv.conf.mapping.ann.AnnotatedConfigurationFactory.AnnotatedProperty;
+
+
+/**
+ * Annotation processor that generates, for each bean annotated with
+ * {@link CSVReader} or {@link CSVWriter}, a {@link CSVGeneratedBinding}
+ * containing the configuration of the bean and binders that access
+ * the bean properties without reflection.
+ * <p>
+ * The configuration is computed by the same code used at runtime by the
+ * {@link AnnotatedConfigurationFactory} and embedded in the generated
+ * class as a {@link CSVConfSnapshot}. If a bean can't be accessed
+ * by the generated code the related binder factory is not generated
+ * and the reflection based one is used.
+ * <p>
+ * The processor is registered as a service, so it is enabled just
+ * by having this library in the compilation class path.
+ * 
+ * @author Nerd4j Team
+ */
+@SupportedAnnotationTypes({ "org.nerd4j.csv.conf.mapping.ann.CSVReader",
+                            "org.nerd4j.csv.conf.mapping.ann.CSVWriter" })
+public class CSVAnnotationProcessor extends AbstractProcessor
+{
+    
+    /** Max number of characters in each snapshot {@link String} constant. */
+    private static final int SNAPSHOT_CHUNK = 8192;
+    
+    
+    /**
+     * Default constructor.
+     * 
+     */
+    public CSVAnnotationProcessor()
+    {
+        
+        super();
+        
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SourceVersion getSupportedSourceVersion()
+    {
+        
+        return SourceVersion.latestSupported();
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean process( final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv )
+    {
+        
+        final Set<TypeElement> beans = new LinkedHashSet<TypeElement>();
+        for( TypeElement annotation : annotations )
+            for( Element element : roundEnv.getElementsAnnotatedWith(annotation) )
+                if( element.getKind() == ElementKind.CLASS )
+                    beans.add( (TypeElement) element );
+        
+        for( TypeElement bean : beans )
+            generate( bean );
+        
+        /* The annotations are still available for other processors. */
+        return false;
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Generates the {@link CSVGeneratedBinding} for the given bean.
+     * If the configuration of the bean is not valid a warning
+     * is reported and no class is generated.
+     * 
+     * @param bean the annotated bean.
+     */
+    private void generate( final TypeElement bean )
+    {
+        
+        final String snapshot;
+        try{
+            
+            final CSVConfiguration configuration = new CSVConfiguration();
+            AnnotatedConfigurationFactory.merge( bean.getQualifiedName().toString(),
+                                                 bean.getAnnotation(CSVReader.class),
+                                                 bean.getAnnotation(CSVWriter.class),
+                                                 getColumnAnnotations(bean), configuration );
+            
+            final ByteArrayOutputStream target = new ByteArrayOutputStream();
+            CSVConfSnapshot.write( configuration, target );
+            snapshot = new String( target.toByteArray(), StandardCharsets.ISO_8859_1 );
+            
+            final String name = AnnotatedConfigurationFactory.getGeneratedBindingName(
+                                    processingEnv.getElementUtils().getBinaryName(bean).toString() );
+            
+            final Writer writer = processingEnv.getFiler().createSourceFile( name, bean ).openWriter();
+            try{
+                
+                writer.write( getSource(bean, name, snapshot, configuration) );
+                
+            }finally
+            {
+                writer.close();
+            }
+            
+        }catch( IOException ex )
+        {
+            
+            processingEnv.getMessager().printMessage( Diagnostic.Kind.ERROR,
+                    "Unable to generate the CSV binding: " + ex.getMessage(), bean );
+            
+        }catch( RuntimeException ex )
+        {
+            
+            processingEnv.getMessager().printMessage( Diagnostic.Kind.WARNING,
+                    "Unable to generate the CSV binding, the configuration will be read at runtime: " + ex.getMessage(), bean );
+            
+        }
+        
+    }
+    
+    /**
+     * Returns the source code of the {@link CSVGeneratedBinding}
+     * for the given bean.
+     * 
+     * @param bean          the annotated bean.
+     * @param name          the name of the generated class.
+     * @param snapshot      the configuration snapshot.
+     * @param configuration the configuration of the bean.
+     * @return the generated source code.
+     */
+    private String getSource( final TypeElement bean, final String name, final String snapshot,
+                              final CSVConfiguration configuration )
+    {
+        
+        final int dot = name.lastIndexOf( '.' );
+        final String beanName = bean.getQualifiedName().toString();
+        
+        /* Generic or hidden beans can be configured but not bound. */
+        final boolean bindable = isAccessible( bean, bean ) && bean.getTypeParameters().isEmpty();
+        final String type = bindable ? beanName : "java.lang.Object";
+        
+        final Map<String,String> setters = bindable && isInstantiable( bean ) ? getSetters( bean ) : null;
+        final Map<String,String> getters = bindable ? getGetters( bean ) : null;
+        
+        final StringBuilder out = new StringBuilder();
+        if( dot > 0 )
+            out.append( "package " ).append( name, 0, dot ).append( ";\n\n" );
+        
+        out.append( "/**\n * Generated by {@code " ).append( CSVAnnotationProcessor.class.getName() )
+           .append( "} for {@code " ).append( beanName ).append( "}, do not edit.\n */\n" )
+           .append( "public final class " ).append( name.substring(dot + 1) )
+           .append( " extends org.nerd4j.csv.conf.mapping.ann.AbstractCSVGeneratedBinding<" ).append( type ).append( ">\n{\n\n" );
+        
+        out.append( "    private static final String[] SNAPSHOT = {\n" );
+        for( int i = 0; i < snapshot.length(); i += SNAPSHOT_CHUNK )
+            appendLiteral( out.append("        "), snapshot.substring(i, Math.min(snapshot.length(), i + SNAPSHOT_CHUNK)) ).append( ",\n" );
+        out.append( "    };\n\n" );
+        
+        out.append( "    public " ).append( name.substring(dot + 1) ).append( "()\n    {\n        super();\n    }\n\n" );
+        
+        out.append( "    @Override\n    protected String getSnapshot()\n    {\n" )
+           .append( "        final StringBuilder snapshot = new StringBuilder();\n" )
+           .append( "        for( String chunk : SNAPSHOT ) snapshot.append( chunk );\n" )
+           .append( "        return snapshot.toString();\n    }\n\n" );
+        
+        final boolean reader = setters != null && covers( setters, getMappings(configuration.getReaders()) );
+        out.append( "    @Override\n    public org.nerd4j.csv.reader.binding.CSVToModelBinderFactory<" ).append( type )
+           .append( "> getCSVToModelBinderFactory()\n    {\n        return " )
+           .append( reader ? "new CSVToBean()" : "null" ).append( ";\n    }\n\n" );
+        
+        final boolean writer = getters != null && covers( getters, getMappings(configuration.getWriters()) );
+        out.append( "    @Override\n    public org.nerd4j.csv.writer.binding.ModelToCSVBinderFactory<" ).append( type )
+           .append( "> getModelToCSVBinderFactory()\n    {\n        return " )
+           .append( writer ? "new BeanToCSV()" : "null" ).append( ";\n    }\n\n" );
+        
+        if( reader )
+        {
+            out.append( "    private static final class CSVToBean extends org.nerd4j.csv.reader.binding.AbstractCSVToBeanBinderFactory<" )
+               .append( type ).append( ">\n    {\n\n" );
+            appendGetProperty( out, setters );
+            out.append( "        @Override\n        protected " ).append( type ).append( " newBean()\n        {\n" )
+               .append( "            return new " ).append( type ).append( "();\n        }\n\n" );
+            out.append( "        @Override\n        @SuppressWarnings({ \"unchecked\", \"rawtypes\" })\n" )
+               .append( "        protected void setProperty( " ).append( type ).append( " bean, int property, Object value )\n        {\n" );
+            appendSwitch( out, setters.values(), "" );
+            out.append( "        }\n\n    }\n\n" );
+        }
+        
+        if( writer )
+        {
+            out.append( "    private static final class BeanToCSV extends org.nerd4j.csv.writer.binding.AbstractBeanToCSVBinderFactory<" )
+               .append( type ).append( ">\n    {\n\n" );
+            appendGetProperty( out, getters );
+            out.append( "        @Override\n        protected Object getValue( " ).append( type ).append( " bean, int property )\n        {\n" );
+            appendSwitch( out, getters.values(), "return " );
+            out.append( "        }\n\n    }\n\n" );
+        }
+        
+        return out.append( "}\n" ).toString();
+        
+    }
+    
+    /**
+     * Appends the {@code getProperty} method that returns the index of the
+     * accessor related to the given property name. The keys starting
+     * with an upper case char are matched to the capitalized
+     * property name, the others to the property name itself.
+     * 
+     * @param out       the generated source.
+     * @param accessors the accessors related to their keys.
+     */
+    private static void appendGetProperty( final StringBuilder out, final Map<String,String> accessors )
+    {
+        
+        out.append( "        @Override\n        protected int getProperty( String name )\n        {\n" )
+           .append( "            if( name == null || name.isEmpty() ) return -1;\n" )
+           .append( "            switch( Character.toUpperCase(name.charAt(0)) + name.substring(1) )\n            {\n" );
+        
+        int index = 0;
+        for( String key : accessors.keySet() )
+        {
+            if( Character.isUpperCase(key.charAt(0)) )
+                appendLiteral( out.append("                case "), key ).append( ": return " ).append( index ).append( ";\n" );
+            ++index;
+        }
+        
+        out.append( "                default: break;\n            }\n" )
+           .append( "            switch( name )\n            {\n" );
+        
+        index = 0;
+        for( String key : accessors.keySet() )
+        {
+            if( ! Character.isUpperCase(key.charAt(0)) )
+                appendLiteral( out.append("                case "), key ).append( ": return " ).append( index ).append( ";\n" );
+            ++index;
+        }
+        
+        out.append( "                default: return -1;\n            }\n        }\n\n" );
+        
+    }
+    
+    /**
+     * Appends a {@code switch} over the property index
+     * executing the related statement.
+     * 
+     * @param out        the generated source.
+     * @param statements the statements in property index order.
+     * @param prefix     the prefix of each statement.
+     */
+    private static void appendSwitch( final StringBuilder out, final Iterable<String> statements, final String prefix )
+    {
+        
+        out.append( "            switch( property )\n            {\n" );
+        
+        int index = 0;
+        for( String statement : statements )
+        {
+            out.append( "                case " ).append( index++ ).append( ": " ).append( prefix ).append( statement );
+            out.append( prefix.isEmpty() ? " break;\n" : "\n" );
+        }
+        
+        out.append( "                default: throw new IndexOutOfBoundsException( \"Invalid property \" + property );\n" )
+           .append( "            }\n" );
+        
+    }
+    
+    /**
+     * Appends the given value as a Java {@link String} literal.
+     * 
+     * @param out   the generated source.
+     * @param value the value to append.
+     * @return the generated source.
+     */
+    private static StringBuilder appendLiteral( final StringBuilder out, final String value )
+    {
+        
+        out.append( '"' );
+        for( int i = 0; i < value.length(); ++i )
+        {
+            final char c = value.charAt( i );
+            if( c >= 0x20 && c < 0x7f && c != '"' && c != '\\' )
+                out.append( c );
+            
+            /* Unicode escapes are translated before parsing, so they can't be used for line terminators and quotes. */
+            else if( c <= 0xff )
+                out.append( String.format("\\%03o", (int) c) );
+            else
+                out.append( String.format("\\u%04x", (int) c) );
+        }
+        return out.append( '"' );
+        
+    }
+    
+    /**
+     * Reads the given bean to search for {@link CSVColumn} annotations
+     * in the same way {@link AnnotatedConfigurationFactory} does at runtime.
+     * 
+     * @param bean the annotated bean.
+     * @return a map relating each property of the bean with the corresponding annotation.
+     */
+    private Map<String,AnnotatedProperty> getColumnAnnotations( final TypeElement bean )
+    {
+        
+        final Map<String,AnnotatedProperty> propertyMap = new HashMap<String,AnnotatedProperty>();
+        
+        String property;
+        CSVColumn column;
+        for( ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(bean)) )
+        {
+            
+            column = method.getAnnotation( CSVColumn.class );
+            if( column == null || ! method.getModifiers().contains(Modifier.PUBLIC) ) continue;
+            
+            property = getGetterProperty( method );
+            if( property == null )
+                throw new IllegalArgumentException( "The annotated method " + method + " is not a getter." );
+            
+            property = Character.toLowerCase( property.charAt(0) ) + property.substring( 1 );
+            propertyMap.put( property, getAnnotatedProperty(column, method.getReturnType()) );
+            
+        }
+        
+        for( TypeElement type = bean; type != null; type = getSuperclass(type) )
+            for( VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements()) )
+            {
+                
+                column = field.getAnnotation( CSVColumn.class );
+                if( column == null ) continue;
+                
+                property = field.getSimpleName().toString();
+                if( propertyMap.containsKey(property) )
+                    throw new IllegalStateException( "Duplicated configuration for the property " + property );
+                
+                propertyMap.put( property, getAnnotatedProperty(column, field.asType()) );
+                
+            }
+        
+        return propertyMap;
+        
+    }
+    
+    /**
+     * Returns the {@link AnnotatedProperty} for a property of the given type.
+     * 
+     * @param column the annotation of the property.
+     * @param type   the type of the property.
+     * @return the annotated property.
+     */
+    private AnnotatedProperty getAnnotatedProperty( final CSVColumn column, final TypeMirror type )
+    {
+        
+        final Types types = processingEnv.getTypeUtils();
+        final Elements elements = processingEnv.getElementUtils();
+        final TypeMirror erasure = types.erasure( type );
+        
+        final boolean declared = erasure.getKind() == TypeKind.DECLARED;
+        final TypeElement element = declared ? (TypeElement) types.asElement( erasure ) : null;
+        
+        final boolean string = declared && element.getQualifiedName().contentEquals( "java.lang.String" );
+        final boolean enumeration = declared && types.isSubtype( erasure, types.erasure(elements.getTypeElement("java.lang.Enum").asType()) );
+        final String name = declared ? elements.getBinaryName( element ).toString() : erasure.toString();
+        
+        return new AnnotatedProperty( column, string, enumeration, getSimpleName(erasure), name );
+        
+    }
+    
+    /**
+     * Returns the name of the given type as returned
+     * by {@link Class#getSimpleName()}.
+     * 
+     * @param type the erased type.
+     * @return the simple name of the type.
+     */
+    private String getSimpleName( final TypeMirror type )
+    {
+        
+        switch( type.getKind() )
+        {
+            
+            case DECLARED:
+                return ((DeclaredType) type).asElement().getSimpleName().toString();
+                
+            case ARRAY:
+                return getSimpleName( ((ArrayType) type).getComponentType() ) + "[]";
+                
+            default:
+                return type.toString();
+                
+        }
+        
+    }
+    
+    /**
+     * Returns the public setters and the accessible fields of the given bean
+     * related to the statement that writes the {@code value} into the {@code bean}.
+     * The setters are identified by the capitalized property name.
+     * 
+     * @param bean the bean to write.
+     * @return the writable properties of the bean.
+     */
+    private Map<String,String> getSetters( final TypeElement bean )
+    {
+        
+        final Map<String,String> setters = new LinkedHashMap<String,String>();
+        
+        String name;
+        TypeMirror type;
+        for( ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(bean)) )
+        {
+            
+            name = method.getSimpleName().toString();
+            if( ! isAccessibleMember(method, bean) || name.length() < 4 || ! name.startsWith("set")
+                || method.getParameters().size() != 1 || setters.containsKey(name.substring(3)) )
+                continue;
+            
+            type = method.getParameters().get( 0 ).asType();
+            if( isAccessible(type, bean) )
+                setters.put( name.substring(3), "bean." + name + "( (" + getBoxedName(type) + ") value );" );
+            
+        }
+        
+        for( TypeElement owner = bean; owner != null; owner = getSuperclass(owner) )
+            for( VariableElement field : ElementFilter.fieldsIn(owner.getEnclosedElements()) )
+            {
+                
+                name = field.getSimpleName().toString();
+                if( ! isAccessibleMember(field, bean) || field.getModifiers().contains(Modifier.FINAL)
+                    || setters.containsKey(name) || ! isAccessible(field.asType(), bean) )
+                    continue;
+                
+                setters.put( name, "bean." + name + " = (" + getBoxedName(field.asType()) + ") value;" );
+                
+            }
+        
+        return setters;
+        
+    }
+    
+    /**
+     * Returns the public getters of the given bean related to the expression
+     * that reads the value from the {@code bean}. The getters are
+     * identified by the capitalized property name.
+     * 
+     * @param bean the bean to read.
+     * @return the readable properties of the bean.
+     */
+    private Map<String,String> getGetters( final TypeElement bean )
+    {
+        
+        final Map<String,String> getters = new LinkedHashMap<String,String>();
+        
+        String property;
+        for( ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(bean)) )
+        {
+            
+            property = getGetterProperty( method );
+            if( property != null && isAccessibleMember(method, bean) && ! getters.containsKey(property)
+                && ! ((TypeElement) method.getEnclosingElement()).getQualifiedName().contentEquals("java.lang.Object") )
+                getters.put( property, "bean." + method.getSimpleName() + "();" );
+            
+        }
+        
+        return getters;
+        
+    }
+    
+    /**
+     * Returns the capitalized name of the property read by the given getter.
+     * 
+     * @param method the method to check.
+     * @return the capitalized property name, {@code null} if the method is not a getter.
+     */
+    private static String getGetterProperty( final ExecutableElement method )
+    {
+        
+        final String name = method.getSimpleName().toString();
+        final int prefix = name.startsWith( "get" ) ? 3 : name.startsWith( "is" ) ? 2 : 0;
+        
+        if( prefix == 0 || name.length() == prefix || ! method.getParameters().isEmpty()
+            || method.getReturnType().getKind() == TypeKind.VOID )
+            return null;
+        
+        return name.substring( prefix );
+        
+    }
+    
+    /**
+     * Returns the names of the bean properties mapped by the given configurations.
+     * 
+     * @param configurations the reader or writer configurations.
+     * @return the mapped bean properties.
+     */
+    private static Set<String> getMappings( final Map<String,? extends CSVHandlerConf> configurations )
+    {
+        
+        final Set<String> mappings = new LinkedHashSet<String>();
+        for( CSVHandlerConf configuration : configurations.values() )
+            for( CSVColumnConf column : configuration.getColumns().values() )
+                if( column.getMapping() != null )
+                    mappings.add( column.getMapping() );
+        
+        return mappings;
+        
+    }
+    
+    /**
+     * Tells if each of the given properties is handled by one of the given accessors.
+     * 
+     * @param accessors  the accessors identified by property name or capitalized property name.
+     * @param properties the properties to check.
+     * @return {@code true} if all the properties are handled.
+     */
+    private static boolean covers( final Map<String,String> accessors, final Set<String> properties )
+    {
+        
+        for( String property : properties )
+            if( ! accessors.containsKey(property)
+                && ! accessors.containsKey(Character.toUpperCase(property.charAt(0)) + property.substring(1)) )
+                return false;
+        
+        return true;
+        
+    }
+    
+    /**
+     * Tells if the given bean can be created by the generated code.
+     * 
+     * @param bean the bean to check.
+     * @return {@code true} if the bean can be created.
+     */
+    private boolean isInstantiable( final TypeElement bean )
+    {
+        
+        if( bean.getModifiers().contains(Modifier.ABSTRACT) )
+            return false;
+        
+        if( bean.getEnclosingElement().getKind() != ElementKind.PACKAGE
+            && ! bean.getModifiers().contains(Modifier.STATIC) )
+            return false;
+        
+        for( ExecutableElement constructor : ElementFilter.constructorsIn(bean.getEnclosedElements()) )
+            if( constructor.getParameters().isEmpty() )
+                return ! constructor.getModifiers().contains( Modifier.PRIVATE );
+        
+        return false;
+        
+    }
+    
+    /**
+     * Tells if the given member can be accessed by the code generated
+     * in the package of the given bean.
+     * 
+     * @param member the member to check.
+     * @param bean   the bean owning the member.
+     * @return {@code true} if the member is accessible.
+     */
+    private boolean isAccessibleMember( final Element member, final TypeElement bean )
+    {
+        
+        final Set<Modifier> modifiers = member.getModifiers();
+        if( modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.PRIVATE) )
+            return false;
+        
+        return modifiers.contains( Modifier.PUBLIC ) || isSamePackage( member, bean );
+        
+    }
+    
+    /**
+     * Tells if the given type can be referenced by the code
+     * generated in the package of the given bean.
+     * 
+     * @param type the type to check.
+     * @param bean the bean to generate.
+     * @return {@code true} if the type is accessible.
+     */
+    private boolean isAccessible( final TypeMirror type, final TypeElement bean )
+    {
+        
+        final TypeMirror erasure = processingEnv.getTypeUtils().erasure( type );
+        switch( erasure.getKind() )
+        {
+            
+            case ARRAY:
+                return isAccessible( ((ArrayType) erasure).getComponentType(), bean );
+                
+            case DECLARED:
+                return isAccessible( ((DeclaredType) erasure).asElement(), bean );
+                
+            default:
+                return erasure.getKind().isPrimitive();
+                
+        }
+        
+    }
+    
+    /**
+     * Tells if the given type element, and all the enclosing ones, can be
+     * referenced by the code generated in the package of the given bean.
+     * 
+     * @param element the type element to check.
+     * @param bean    the bean to generate.
+     * @return {@code true} if the type is accessible.
+     */
+    private boolean isAccessible( final Element element, final TypeElement bean )
+    {
+        
+        for( Element type = element; type.getKind() != ElementKind.PACKAGE; type = type.getEnclosingElement() )
+        {
+            
+            final Set<Modifier> modifiers = type.getModifiers();
+            if( modifiers.contains(Modifier.PRIVATE) )
+                return false;
+            
+            if( ! modifiers.contains(Modifier.PUBLIC) && ! isSamePackage(type, bean) )
+                return false;
+            
+        }
+        
+        return true;
+        
+    }
+    
+    /**
+     * Tells if the given elements are in the same package.
+     * 
+     * @param element the element to check.
+     * @param bean    the bean to generate.
+     * @return {@code true} if the elements are in the same package.
+     */
+    private boolean isSamePackage( final Element element, final TypeElement bean )
+    {
+        
+        final Elements elements = processingEnv.getElementUtils();
+        final PackageElement memberPackage = elements.getPackageOf( element );
+        final PackageElement beanPackage = elements.getPackageOf( bean );
+        
+        return memberPackage.getQualifiedName().contentEquals( beanPackage.getQualifiedName() );
+        
+    }
+    
+    /**
+     * Returns the canonical name of the given type, boxed if primitive.
+     * 
+     * @param type the type to cast to.
+     * @return the name of the erased and boxed type.
+     */
+    private String getBoxedName( final TypeMirror type )
+    {
+        
+        final Types types = processingEnv.getTypeUtils();
+        final TypeMirror erasure = types.erasure( type );
+        
+        return erasure.getKind().isPrimitive()
+             ? types.boxedClass( types.getPrimitiveType(erasure.getKind()) ).getQualifiedName().toString()
+             : erasure.toString();
+        
+    }
+    
+    /**
+     * Returns the superclass of the given type.
+     * 
+     * @param type the type to check.
+     * @return the superclass, {@code null} if none.
+     */
+    private TypeElement getSuperclass( final TypeElement type )
+    {
+        
+        final TypeMirror superclass = type.getSuperclass();
+        return superclass.getKind() == TypeKind.DECLARED
+             ? (TypeElement) processingEnv.getTypeUtils().asElement( superclass )
+             : null;
+        
+    }
+    
+}
@@ -72,6 +72,17 @@ public @interface CSVColumn
 	 */
 	public boolean optional() default false;
 	
+	/**
+	 * Tells the {@link org.nerd4j.csv.reader.CSVReader CSVReader} to
+	 * deduplicate the values of this column.
+	 * <p>
+	 * This is useful for low-cardinality columns when the read
+	 * models are retained in memory.
+	 * 
+	 * @return {@code true} if the column values should be deduplicated.
+	 */
+	public boolean dedup() default false;
+	
 	/**
 	 * This configuration is used only by the {@link CSVWriter}
 	 * and tells the order in which the columns should be written.
@@ -0,0 +1,65 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.conf.mapping.ann;
+
+import org.nerd4j.csv.conf.mapping.CSVConfiguration;
+import org.nerd4j.csv.reader.binding.CSVToModelBinderFactory;
+import org.nerd4j.csv.writer.binding.ModelToCSVBinderFactory;
+
+
+/**
+ * Represents the binding generated at compile time by
+ * the {@link CSVAnnotationProcessor} for an annotated bean.
+ * <p>
+ * The generated binding replaces the reflection based
+ * configuration and binders used by default.
+ * 
+ * @param <B> type of the annotated bean.
+ * 
+ * @author Nerd4j Team
+ */
+public interface CSVGeneratedBinding<B>
+{
+    
+    /**
+     * Merges the configuration of the annotated bean
+     * into the given {@link CSVConfiguration}.
+     * 
+     * @param configTarget the configuration to merge into.
+     */
+    public void merge( CSVConfiguration configTarget );
+    
+    /**
+     * Returns the factory of the binders that fill the annotated bean.
+     * 
+     * @return a binder factory, {@code null} if the bean can't be built without reflection.
+     */
+    public CSVToModelBinderFactory<B> getCSVToModelBinderFactory();
+    
+    /**
+     * Returns the factory of the binders that read the annotated bean.
+     * 
+     * @return a binder factory, {@code null} if the bean can't be read without reflection.
+     */
+    public ModelToCSVBinderFactory<B> getModelToCSVBinderFactory();
+    
+}
@@ -135,4 +135,24 @@ public @interface CSVParser
 	 */
 	public char[] charsToIgnoreAroundFields() default { RemarkableASCII.NOT_AN_ASCII };
 	
+	/**
+	 * Maximum number of characters of a field, the parsing
+	 * fails as soon as a longer field is found.
+	 * <p>
+	 * By default there is no limit.
+	 * 
+	 * @return the maximum field size, {@code 0} means no limit.
+	 */
+	public int maxFieldSize() default 0;
+	
+	/**
+	 * Maximum number of characters of a record, the parsing
+	 * fails as soon as a longer record is found.
+	 * <p>
+	 * By default there is no limit.
+	 * 
+	 * @return the maximum record size, {@code 0} means no limit.
+	 */
+	public int maxRecordSize() default 0;
+	
 }
\ No newline at end of file
@@ -89,6 +89,51 @@ public class XMLCharSetConf
     }
     
     
+    /* ***************** */
+    /*  UTILITY METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Sets the XML attribute with the given name
+     * as done by the JAXB unmarshaller.
+     * 
+     * @param attribute the name of the attribute.
+     * @param value     the value of the attribute.
+     * @return {@code true} if the attribute is mapped.
+     */
+    boolean setAttribute( String attribute, String value )
+    {
+        
+        switch( attribute )
+        {
+            case "name":
+                this.name = value;
+                return true;
+                
+            case QUOTE:
+                this.quoteCharString = value;
+                return true;
+                
+            case ESCAPE:
+                this.escapeCharString = value;
+                return true;
+                
+            case FIELD_SEPARATOR:
+                this.fieldSeparatorString = value;
+                return true;
+                
+            case RECORD_SEPARATOR:
+                this.recordSeparatorString = value;
+                return true;
+                
+            default:
+                return false;
+        }
+        
+    }
+    
+    
     /* ***************** */
     /*  PRIVATE METHODS  */
     /* ***************** */
@@ -44,6 +44,9 @@ public class XMLColumnConf
     /** Tells if the column can have {@code null} values. */
     private Boolean optional;
     
+    /** Tells if the values of the column should be deduplicated. */
+    private Boolean dedup;
+    
     /** The order in which the column should be written. */
     private Integer order;
     
@@ -67,6 +70,7 @@ public class XMLColumnConf
         this.order = null;
         this.mapping = null;
         this.optional = null;
+        this.dedup = null;
         this.processor = null;
         this.processorRef = null;
         
@@ -141,6 +145,27 @@ public class XMLColumnConf
         this.optional = optional;
     }
     
+    /**
+     * Returns the flag {@code dedup}.
+     * 
+     * @return the flag {@code dedup}.
+     */
+    @XmlAttribute(name="dedup",required=false)
+    public Boolean getDedup()
+    {
+        return dedup;
+    }
+    
+    /**
+     * Sets the flag {@code dedup}.
+     * 
+     * @param dedup value to set.
+     */
+    public void setDedup( Boolean dedup )
+    {
+        this.dedup = dedup;
+    }
+    
     /**
      * Returns the {@code order} value.
      * 
@@ -26,8 +26,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import javax.xml.bind.JAXBContext;
-import javax.xml.bind.Unmarshaller;
 import javax.xml.namespace.QName;
 
 import org.nerd4j.csv.conf.mapping.CSVCharSetConf;
@@ -88,6 +86,9 @@ public class XMLConfigurationFactory
     
     /**
      * Returns the {@link XMLConfiguration} parsed from the given source.
+     * <p>
+     * The source is read in streaming by a StAX reader,
+     * no JAXB context is needed.
      * 
      * @param configSource the source to parse.
      * @return a new {@link XMLConfiguration}.
@@ -103,10 +104,7 @@ public class XMLConfigurationFactory
                 throw new NullPointerException( "Invalid null configuration source" );
         	}
             
-            final JAXBContext jaxBContext = JAXBContext.newInstance( XMLConfiguration.class );
-            final Unmarshaller unmarshaller = jaxBContext.createUnmarshaller();
-            
-            return (XMLConfiguration) unmarshaller.unmarshal( configSource );
+            return XMLConfigurationReader.read( configSource );
         
         }catch( Exception ex )
         {
@@ -409,6 +407,8 @@ public class XMLConfigurationFactory
     	if( xmlConf.getCharsToIgnore() != null ) csvConf.setCharsToIgnore( xmlConf.getCharsToIgnore() );
     	if( xmlConf.getCharsToIgnoreAroundFields() != null ) csvConf.setCharsToIgnoreAroundFields( xmlConf.getCharsToIgnoreAroundFields() );
     	if( xmlConf.isMatchRecordSeparatorExactSequence() != null ) csvConf.setMatchRecordSeparatorExactSequence( xmlConf.isMatchRecordSeparatorExactSequence() );
+    	if( xmlConf.getMaxFieldSize() != null ) csvConf.setMaxFieldSize( xmlConf.getMaxFieldSize() );
+    	if( xmlConf.getMaxRecordSize() != null ) csvConf.setMaxRecordSize( xmlConf.getMaxRecordSize() );
         
     }
 
@@ -687,6 +687,7 @@ public class XMLConfigurationFactory
     	if( xmlConf.getOrder() != null ) csvConf.setOrder( xmlConf.getOrder() );
     	if( xmlConf.getMapping() != null ) csvConf.setMapping( xmlConf.getMapping() );
     	if( xmlConf.getOptional() != null ) csvConf.setOptional( xmlConf.getOptional() );
+    	if( xmlConf.getDedup() != null ) csvConf.setDedup( xmlConf.getDedup() );
     	
     	if( xmlConf.getProcessorRef() != null )
     	{
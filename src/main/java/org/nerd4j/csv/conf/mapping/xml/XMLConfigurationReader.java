@@ -0,0 +1,696 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.conf.mapping.xml;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Map;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.nerd4j.csv.exception.CSVConfigurationException;
+
+
+/**
+ * Streaming reader able to build an {@link XMLConfiguration}
+ * from an XML source using the StAX API.
+ * 
+ * <p>
+ * The result is the same produced by unmarshalling the source with
+ * the JAXB annotations of the XML configuration classes, but no JAXB
+ * context needs to be created. Like JAXB, unknown elements are skipped
+ * and unknown attributes of the types accepting any attribute are
+ * collected as parameters.
+ * 
+ * <p>
+ * This class is intended to read a single source and is not thread safe.
+ * 
+ * @author Nerd4j Team
+ */
+final class XMLConfigurationReader
+{
+    
+    /** Factory used to create the StAX readers. */
+    private static final XMLInputFactory factory = createFactory();
+    
+    /** The StAX reader of the XML source. */
+    private final XMLStreamReader reader;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param reader the StAX reader of the XML source.
+     */
+    private XMLConfigurationReader( final XMLStreamReader reader )
+    {
+        
+        super();
+        
+        this.reader = reader;
+        
+    }
+    
+    
+    /* ***************** */
+    /*  UTILITY METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Reads the {@link XMLConfiguration} from the given source.
+     * 
+     * @param source the XML source to read.
+     * @return a new {@link XMLConfiguration}.
+     * @throws XMLStreamException if the source is not well formed.
+     * @throws CSVConfigurationException if the source is not a valid configuration.
+     */
+    static XMLConfiguration read( final Reader source ) throws XMLStreamException
+    {
+        
+        final XMLStreamReader reader = factory.createXMLStreamReader( source );
+        try{
+            
+            final XMLConfigurationReader configurationReader = new XMLConfigurationReader( reader );
+            if( ! configurationReader.nextChild() || ! "configuration".equals(reader.getLocalName()) )
+                throw new CSVConfigurationException( "The root element of the XML configuration must be 'configuration'" );
+            
+            return configurationReader.readConfiguration();
+        
+        }finally
+        {
+            reader.close();
+        }
+        
+    }
+    
+    /**
+     * Parses the given {@code xs:boolean} value.
+     * 
+     * @param value the value to parse.
+     * @return the parsed value, {@code null} if the value is {@code null}.
+     * @throws CSVConfigurationException if the value is not a boolean.
+     */
+    static Boolean parseBoolean( final String value )
+    {
+        
+        if( value == null )
+            return null;
+        
+        switch( value.trim() )
+        {
+            case "true":
+            case "1":
+                return Boolean.TRUE;
+                
+            case "false":
+            case "0":
+                return Boolean.FALSE;
+                
+            default:
+                throw new CSVConfigurationException( "The configured value '" + value + "' is not a boolean" );
+        }
+        
+    }
+    
+    /**
+     * Parses the given {@code xs:int} value.
+     * 
+     * @param value the value to parse.
+     * @param name  the name of the configured field.
+     * @return the parsed value, {@code null} if the value is {@code null}.
+     * @throws CSVConfigurationException if the value is not an integer.
+     */
+    static Integer parseInteger( final String value, final String name )
+    {
+        
+        if( value == null )
+            return null;
+        
+        try{
+            
+            return Integer.valueOf( value.trim() );
+            
+        }catch( NumberFormatException ex )
+        {
+            throw new CSVConfigurationException( "The configured value '" + value + "' for the field '" + name + "' is not an integer" );
+        }
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Reads the root element.
+     * 
+     * @return the configuration read.
+     * @throws XMLStreamException if the source is not well formed.
+     */
+    private XMLConfiguration readConfiguration() throws XMLStreamException
+    {
+        
+        final XMLConfiguration configuration = new XMLConfiguration();
+        while( nextChild() )
+            switch( reader.getLocalName() )
+            {
+                case "register":
+                    configuration.setRegister( readRegister() );
+                    break;
+                    
+                case "reader":
+                    if( configuration.getReaders() == null )
+                        configuration.setReaders( new ArrayList<XMLReaderConf>() );
+                    configuration.getReaders().add( readReader() );
+                    break;
+                    
+                case "writer":
+                    if( configuration.getWriters() == null )
+                        configuration.setWriters( new ArrayList<XMLWriterConf>() );
+                    configuration.getWriters().add( readWriter() );
+                    break;
+                    
+                case "parser":
+                    if( configuration.getParsers() == null )
+                        configuration.setParsers( new ArrayList<XMLParserConf>() );
+                    configuration.getParsers().add( readCharSet(new XMLParserConf()) );
+                    break;
+                    
+                case "formatter":
+                    if( configuration.getFormatters() == null )
+                        configuration.setFormatters( new ArrayList<XMLFormatterConf>() );
+                    configuration.getFormatters().add( readCharSet(new XMLFormatterConf()) );
+                    break;
+                    
+                default:
+                    skip();
+            }
+        
+        return configuration;
+        
+    }
+    
+    /**
+     * Reads the {@code register} element.
+     * 
+     * @return the configuration read.
+     * @throws XMLStreamException if the source is not well formed.
+     */
+    private XMLRegisterConf readRegister() throws XMLStreamException
+    {
+        
+        final XMLRegisterConf register = new XMLRegisterConf();
+        while( nextChild() )
+            switch( reader.getLocalName() )
+            {
+                case "types":
+                    register.setTypes( readTypes() );
+                    break;
+                    
+                case "validators":
+                    if( register.getValidators() == null )
+                        register.setValidators( new ArrayList<XMLRegisterValidatorConf>() );
+                    while( nextChild() )
+                        if( "validator".equals(reader.getLocalName()) )
+                        {
+                            final XMLRegisterValidatorConf validator = new XMLRegisterValidatorConf();
+                            validator.setName( readParams(validator.getParams(), "name") );
+                            validator.setType( attribute("type") );
+                            register.getValidators().add( validator );
+                            skip();
+                        }
+                        else
+                            skip();
+                    break;
+                    
+                case "converters":
+                    if( register.getConverters() == null )
+                        register.setConverters( new ArrayList<XMLRegisterConverterConf>() );
+                    while( nextChild() )
+                        if( "converter".equals(reader.getLocalName()) )
+                        {
+                            final XMLRegisterConverterConf converter = new XMLRegisterConverterConf();
+                            converter.setName( readParams(converter.getParams(), "name") );
+                            converter.setType( attribute("type") );
+                            register.getConverters().add( converter );
+                            skip();
+                        }
+                        else
+                            skip();
+                    break;
+                    
+                case "processors":
+                    if( register.getProcessors() == null )
+                        register.setProcessors( new ArrayList<XMLRegisterProcessorConf>() );
+                    while( nextChild() )
+                        if( "processor".equals(reader.getLocalName()) )
+                        {
+                            final XMLRegisterProcessorConf processor = new XMLRegisterProcessorConf();
+                            processor.setName( attribute("name") );
+                            register.getProcessors().add( readProcessor(processor) );
+                        }
+                        else
+                            skip();
+                    break;
+                    
+                default:
+                    skip();
+            }
+        
+        return register;
+        
+    }
+    
+    /**
+     * Reads the {@code types} element of the register.
+     * 
+     * @return the configuration read.
+     * @throws XMLStreamException if the source is not well formed.
+     */
+    private XMLRegisterTypesConf readTypes() throws XMLStreamException
+    {
+        
+        final XMLRegisterTypesConf types = new XMLRegisterTypesConf();
+        while( nextChild() )
+            switch( reader.getLocalName() )
+            {
+                case "validator":
+                    if( types.getValidatorProviders() == null )
+                        types.setValidatorProviders( new ArrayList<XMLRegisterProviderConf>() );
+                    types.getValidatorProviders().add( readProvider() );
+                    break;
+                    
+                case "converter":
+                    if( types.getConverterProviders() == null )
+                        types.setConverterProviders( new ArrayList<XMLRegisterProviderConf>() );
+                    types.getConverterProviders().add( readProvider() );
+                    break;
+                    
+                case "csv-to-model":
+                    if( types.getCsvToModelProviders() == null )
+                        types.setCsvToModelProviders( new ArrayList<XMLRegisterProviderConf>() );
+                    types.getCsvToModelProviders().add( readProvider() );
+                    break;
+                    
+                case "model-to-csv":
+                    if( types.getModelToCSVProviders() == null )
+                        types.setModelToCSVProviders( new ArrayList<XMLRegisterProviderConf>() );
+                    types.getModelToCSVProviders().add( readProvider() );
+                    break;
+                    
+                default:
+                    skip();
+            }
+        
+        return types;
+        
+    }
+    
+    /**
+     * Reads a provider element of the register types.
+     * 
+     * @return the configuration read.
+     * @throws XMLStreamException if the source is not well formed.
+     */
+    private XMLRegisterProviderConf readProvider() throws XMLStreamException
+    {
+        
+        final XMLRegisterProviderConf provider = new XMLRegisterProviderConf();
+        provider.setTypeName( attribute("type-name") );
+        provider.setProviderClass( attribute("provider-class") );
+        skip();
+        
+        return provider;
+        
+    }
+    
+    /**
+     * Reads the {@code reader} element.
+     * 
+     * @return the configuration read.
+     * @throws XMLStreamException if the source is not well formed.
+     */
+    private XMLReaderConf readReader() throws XMLStreamException
+    {
+        
+        final XMLReaderConf conf = new XMLReaderConf();
+        conf.setReadHeader( parseBoolean(attribute("read-header")) );
+        conf.setUseColumnNames( parseBoolean(attribute("use-column-names")) );
+        conf.setAcceptIncompleteRecords( parseBoolean(attribute("accept-incomplete-records")) );
+        conf.setParserRef( attribute("parser-ref") );
+        
+        readHandler( conf, "parser" );
+        return conf;
+        
+    }
+    
+    /**
+     * Reads the {@code writer} element.
+     * 
+     * @return the configuration read.
+     * @throws XMLStreamException if the source is not well formed.
+     */
+    private XMLWriterConf readWriter() throws XMLStreamException
+    {
+        
+        final XMLWriterConf conf = new XMLWriterConf();
+        conf.setWriteHeader( parseBoolean(attribute("write-header")) );
+        conf.setFormatterRef( attribute("formatter-ref") );
+        
+        readHandler( conf, "formatter" );
+        return conf;
+        
+    }
+    
+    /**
+     * Reads the content common to the {@code reader}
+     * and {@code writer} elements.
+     * 
+     * @param conf    the configuration to fill.
+     * @param charSet the name of the element containing the character set.
+     * @throws XMLStreamException if the source is not well formed.
+     */
+    private void readHandler( final XMLHandlerConf conf, final String charSet ) throws XMLStreamException
+    {
+        
+        conf.setName( attribute("name") );
+        conf.setInherit( attribute("inherit") );
+        
+        while( nextChild() )
+        {
+            
+            final String element = reader.getLocalName();
+            if( "columns".equals(element) )
+                while( nextChild() )
+                    if( "column".equals(reader.getLocalName()) )
+                        conf.getColumns().add( readColumn() );
+                    else
+                        skip();
+            
+            else if( "model-binder".equals(element) )
+            {
+                final XMLModelBinderConf modelBinder = new XMLModelBinderConf();
+                modelBinder.setType( readParams(modelBinder.getParams(), "type") );
+                conf.setModelBinder( modelBinder );
+                skip();
+            }
+            
+            else if( charSet.equals(element) && conf instanceof XMLReaderConf )
+                ((XMLReaderConf) conf).setParser( readCharSet(new XMLParserConf()) );
+            
+            else if( charSet.equals(element) && conf instanceof XMLWriterConf )
+                ((XMLWriterConf) conf).setFormatter( readCharSet(new XMLFormatterConf()) );
+            
+            else
+                skip();
+            
+        }
+        
+    }
+    
+    /**
+     * Reads the {@code column} element.
+     * 
+     * @return the configuration read.
+     * @throws XMLStreamException if the source is not well formed.
+     */
+    private XMLColumnConf readColumn() throws XMLStreamException
+    {
+        
+        final XMLColumnConf column = new XMLColumnConf();
+        column.setName( attribute("name") );
+        column.setMapping( attribute("mapping") );
+        column.setOptional( parseBoolean(attribute("optional")) );
+        column.setDedup( parseBoolean(attribute("dedup")) );
+        column.setProcessorRef( attribute("processor-ref") );
+        
+        final String order = attribute( "order" );
+        if( order != null )
+            try{
+                
+                column.setOrder( Integer.valueOf(order.trim()) );
+                
+            }catch( NumberFormatException ex )
+            {
+                throw new CSVConfigurationException( "The configured value '" + order + "' for the field 'order' is not an integer" );
+            }
+        
+        while( nextChild() )
+            if( "processor".equals(reader.getLocalName()) )
+                column.setProcessor( readProcessor(new XMLFieldProcessorConf()) );
+            else
+                skip();
+        
+        return column;
+        
+    }
+    
+    /**
+     * Reads a {@code processor} element into the given configuration.
+     * 
+     * @param <P> type of the processor configuration.
+     * @param processor the configuration to fill.
+     * @return the given configuration.
+     * @throws XMLStreamException if the source is not well formed.
+     */
+    private <P extends XMLFieldProcessorConf> P readProcessor( final P processor ) throws XMLStreamException
+    {
+        
+        processor.setPreconditionRef( attribute("precondition-ref") );
+        processor.setConverterRef( attribute("converter-ref") );
+        processor.setPostconditionRef( attribute("postcondition-ref") );
+        
+        while( nextChild() )
+            switch( reader.getLocalName() )
+            {
+                case "precondition":
+                    processor.setPrecondition( readValidator() );
+                    break;
+                    
+                case "postcondition":
+                    processor.setPostcondition( readValidator() );
+                    break;
+                    
+                case "converter":
+                    final XMLFieldConverterConf converter = new XMLFieldConverterConf();
+                    converter.setType( readParams(converter.getParams(), "type") );
+                    processor.setConverter( converter );
+                    skip();
+                    break;
+                    
+                default:
+                    skip();
+            }
+        
+        return processor;
+        
+    }
+    
+    /**
+     * Reads a validator element.
+     * 
+     * @return the configuration read.
+     * @throws XMLStreamException if the source is not well formed.
+     */
+    private XMLFieldValidatorConf readValidator() throws XMLStreamException
+    {
+        
+        final XMLFieldValidatorConf validator = new XMLFieldValidatorConf();
+        validator.setType( readParams(validator.getParams(), "type") );
+        skip();
+        
+        return validator;
+        
+    }
+    
+    /**
+     * Reads the attributes of a character set element.
+     * 
+     * @param <C> type of the character set configuration.
+     * @param charSet the configuration to fill.
+     * @return the given configuration.
+     * @throws XMLStreamException if the source is not well formed.
+     */
+    private <C extends XMLCharSetConf> C readCharSet( final C charSet ) throws XMLStreamException
+    {
+        
+        for( int i = 0; i < reader.getAttributeCount(); ++i )
+            if( isUnqualified(i) )
+                charSet.setAttribute( reader.getAttributeLocalName(i), reader.getAttributeValue(i) );
+        
+        skip();
+        return charSet;
+        
+    }
+    
+    /**
+     * Puts all the attributes of the current element into
+     * the given parameters except the given mapped ones.
+     * 
+     * @param params the parameters to fill.
+     * @param mapped the attributes mapped to fields.
+     * @return the value of the first mapped attribute.
+     */
+    private String readParams( final Map<QName,String> params, final String... mapped )
+    {
+        
+        for( int i = 0; i < reader.getAttributeCount(); ++i )
+        {
+            
+            final QName name = reader.getAttributeName( i );
+            if( isUnqualified(i) && ("type".equals(name.getLocalPart()) || contains(mapped, name.getLocalPart())) )
+                continue;
+            
+            params.put( name, reader.getAttributeValue(i) );
+            
+        }
+        
+        return attribute( mapped[0] );
+        
+    }
+    
+    /**
+     * Returns the value of the unqualified attribute
+     * with the given name in the current element.
+     * 
+     * @param name the name of the attribute.
+     * @return the value of the attribute, {@code null} if missing.
+     */
+    private String attribute( final String name )
+    {
+        
+        return reader.getAttributeValue( null, name );
+        
+    }
+    
+    /**
+     * Tells if the attribute with the given index
+     * in the current element has no namespace.
+     * 
+     * @param index the index of the attribute.
+     * @return {@code true} if the attribute is unqualified.
+     */
+    private boolean isUnqualified( final int index )
+    {
+        
+        final String namespace = reader.getAttributeNamespace( index );
+        return namespace == null || namespace.isEmpty();
+        
+    }
+    
+    /**
+     * Moves to the next child of the current element.
+     * 
+     * @return {@code true} if the reader is at the start of a child,
+     *         {@code false} if it is at the end of the current element.
+     * @throws XMLStreamException if the source is not well formed.
+     */
+    private boolean nextChild() throws XMLStreamException
+    {
+        
+        while( reader.hasNext() )
+            switch( reader.next() )
+            {
+                case XMLStreamConstants.START_ELEMENT:
+                    return true;
+                    
+                case XMLStreamConstants.END_ELEMENT:
+                    return false;
+                    
+                default:
+                    /* Text, comments and processing instructions are ignored. */
+            }
+        
+        return false;
+        
+    }
+    
+    /**
+     * Skips the rest of the current element.
+     * 
+     * @throws XMLStreamException if the source is not well formed.
+     */
+    private void skip() throws XMLStreamException
+    {
+        
+        int depth = 1;
+        while( depth > 0 && reader.hasNext() )
+            switch( reader.next() )
+            {
+                case XMLStreamConstants.START_ELEMENT:
+                    ++depth;
+                    break;
+                    
+                case XMLStreamConstants.END_ELEMENT:
+                    --depth;
+                    break;
+                    
+                default:
+                    /* Text, comments and processing instructions are ignored. */
+            }
+        
+    }
+    
+    /**
+     * Tells if the given values contain the given one.
+     * 
+     * @param values the values to search.
+     * @param value  the value to find.
+     * @return {@code true} if the value is found.
+     */
+    private static boolean contains( final String[] values, final String value )
+    {
+        
+        for( String current : values )
+            if( current.equals(value) )
+                return true;
+        
+        return false;
+        
+    }
+    
+    /**
+     * Creates the factory of the StAX readers with
+     * the DTDs and the external entities disabled.
+     * 
+     * @return a new factory.
+     */
+    private static XMLInputFactory createFactory()
+    {
+        
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty( XMLInputFactory.SUPPORT_DTD, Boolean.FALSE );
+        factory.setProperty( XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE );
+        factory.setProperty( XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE );
+        
+        return factory;
+        
+    }
+    
+}
@@ -79,6 +79,35 @@ public class XMLFormatterConf extends XMLCharSetConf
     }
     
     
+    /* ***************** */
+    /*  UTILITY METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean setAttribute( String attribute, String value )
+    {
+        
+        switch( attribute )
+        {
+            case CHARS_TO_ESCAPE:
+                this.charsToEscapeString = value;
+                return true;
+                
+            case CHARS_THAT_FORCE_QUOTING:
+                this.charsThatForceQuotingString = value;
+                return true;
+                
+            default:
+                return super.setAttribute( attribute, value );
+        }
+        
+    }
+    
+    
     /* ******************* */
     /*  GETTERS & SETTERS  */
     /* ******************* */
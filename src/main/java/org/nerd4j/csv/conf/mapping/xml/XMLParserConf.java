@@ -40,6 +40,8 @@ public class XMLParserConf extends XMLCharSetConf
     private static final String CHARS_TO_IGNORE = "chars-to-ignore";
     private static final String CHARS_TO_IGNORE_AROUND_FIELDS = "chars-to-ignore-around-fields";
     private static final String MATCH_RECORD_SEP_EXACT_SEQUENCE = "record-sep-match-exact-sequence";
+    private static final String MAX_FIELD_SIZE = "max-field-size";
+    private static final String MAX_RECORD_SIZE = "max-record-size";
     
     
     /** String representation of the charsToIgnore field. */
@@ -82,6 +84,12 @@ public class XMLParserConf extends XMLCharSetConf
      */
     private boolean matchRecordSeparatorExactSequence;
     
+    /** Maximum number of characters of a field, {@code 0} means no limit. */
+    private Integer maxFieldSize;
+    
+    /** Maximum number of characters of a record, {@code 0} means no limit. */
+    private Integer maxRecordSize;
+    
     
     /**
      * Default constructor.
@@ -102,9 +110,57 @@ public class XMLParserConf extends XMLCharSetConf
         
         this.matchRecordSeparatorExactSequence = false;
         
+        this.maxFieldSize = null;
+        this.maxRecordSize = null;
+        
     }
 
     
+    /* ***************** */
+    /*  UTILITY METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean setAttribute( String attribute, String value )
+    {
+        
+        switch( attribute )
+        {
+            case CHARS_TO_IGNORE:
+                this.charsToIgnoreString = value;
+                return true;
+                
+            case CHARS_TO_IGNORE_AROUND_FIELDS:
+                this.charsToIgnoreAroundFieldsString = value;
+                return true;
+                
+            case STRICT_QUOTES:
+                this.strictQuotes = XMLConfigurationReader.parseBoolean( value );
+                return true;
+                
+            case MATCH_RECORD_SEP_EXACT_SEQUENCE:
+                this.matchRecordSeparatorExactSequence = XMLConfigurationReader.parseBoolean( value );
+                return true;
+                
+            case MAX_FIELD_SIZE:
+                this.maxFieldSize = XMLConfigurationReader.parseInteger( value, MAX_FIELD_SIZE );
+                return true;
+                
+            case MAX_RECORD_SIZE:
+                this.maxRecordSize = XMLConfigurationReader.parseInteger( value, MAX_RECORD_SIZE );
+                return true;
+                
+            default:
+                return super.setAttribute( attribute, value );
+        }
+        
+    }
+    
+    
     /* ******************* */
     /*  GETTERS & SETTERS  */
     /* ******************* */
@@ -206,4 +262,46 @@ public class XMLParserConf extends XMLCharSetConf
 		this.strictQuotes = strictQuotes;
 	}
 	
+	/**
+     * Returns the value {@code max-field-size}.
+     * 
+     * @return the value {@code max-field-size}.
+     */
+	@XmlAttribute(name=MAX_FIELD_SIZE,required=false)
+	public Integer getMaxFieldSize()
+	{
+		return maxFieldSize;
+	}
+	
+	/**
+     * Sets the value {@code max-field-size}.
+     * 
+     * @param maxFieldSize value to set.
+     */
+	public void setMaxFieldSize( Integer maxFieldSize )
+	{
+		this.maxFieldSize = maxFieldSize;
+	}
+	
+	/**
+     * Returns the value {@code max-record-size}.
+     * 
+     * @return the value {@code max-record-size}.
+     */
+	@XmlAttribute(name=MAX_RECORD_SIZE,required=false)
+	public Integer getMaxRecordSize()
+	{
+		return maxRecordSize;
+	}
+	
+	/**
+     * Sets the value {@code max-record-size}.
+     * 
+     * @param maxRecordSize value to set.
+     */
+	public void setMaxRecordSize( Integer maxRecordSize )
+	{
+		this.maxRecordSize = maxRecordSize;
+	}
+	
 }
\ No newline at end of file
@@ -31,6 +31,9 @@ public class MalformedCSVException extends CSVException
 	
 	/** Generated Serial Version UID. */
 	private static final long serialVersionUID = 1L;
+	
+	/** Position of the character where the error has been found, {@code -1} if unknown. */
+	private final long position;
 
 	/**
 	 * Constructs a new exception with {@code null} as its detail message.
@@ -42,6 +45,8 @@ public class MalformedCSVException extends CSVException
 		
 		super();
 		
+		this.position = -1;
+		
 	}
 	
 	/**
@@ -58,6 +63,8 @@ public class MalformedCSVException extends CSVException
 		
 		super( message );
 		
+		this.position = -1;
+		
 	}
 	
 	/**
@@ -75,6 +82,8 @@ public class MalformedCSVException extends CSVException
 		
 		super( cause );
 		
+		this.position = -1;
+		
 	}
 	
 	/**
@@ -97,6 +106,38 @@ public class MalformedCSVException extends CSVException
 		
 		super( message, cause );
 		
+		this.position = -1;
+		
+	}
+	
+	/**
+	 * Constructs a new exception with the specified detail message
+	 * and the position in the CSV source where the error has been found.
+	 * 
+	 * @param message  the detail message.
+	 * @param position the position of the character where the error has been found.
+	 */
+	public MalformedCSVException( String message, long position )
+	{
+		
+		super( message );
+		
+		this.position = position;
+		
+	}
+	
+	
+	/**
+	 * Returns the position, as number of characters from the
+	 * beginning of the CSV source, where the error has been found.
+	 * 
+	 * @return the position of the error or {@code -1} if unknown.
+	 */
+	public long getPosition()
+	{
+		
+		return position;
+		
 	}
 	
 }
@@ -46,6 +46,9 @@ public final class CSVField<S,T>
     /** Tells if the value of this field can be {@code null}. */
     private final boolean optional;
     
+    /** Cache used to deduplicate the read values, {@code null} if not enabled. */
+    private final CSVStringCache stringCache;
+    
     
     /**
      * Constructor with parameters.
@@ -56,6 +59,21 @@ public final class CSVField<S,T>
     public CSVField( final CSVFieldProcessor<S,T> processor, final boolean optional )
     {
         
+        this( processor, optional, null );
+        
+    }
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param processor     processor that changes the field type. 
+     * @param optional      tells if the value of this field can be {@code null}. 
+     * @param stringCache   cache used to deduplicate the read values, can be {@code null}. 
+     */
+    public CSVField( final CSVFieldProcessor<S,T> processor, final boolean optional,
+                     final CSVStringCache stringCache )
+    {
+        
         super();
         
         if( processor == null )
@@ -63,6 +81,7 @@ public final class CSVField<S,T>
         
         this.optional = optional;
         this.processor = processor;
+        this.stringCache = stringCache;
         
     }
     
@@ -105,6 +124,79 @@ public final class CSVField<S,T>
     }
     
     
+    /**
+     * Tells if a non empty source value with the given length
+     * can be processed successfully.
+     * <p>
+     * If this method returns {@code false} the
+     * {@link #process(Object, CSVFieldProcessContext)}
+     * method is granted to fail.
+     * 
+     * @param length the length of the source value.
+     * @return {@code false} if a value with such length is granted to fail.
+     */
+    public boolean acceptLength( final int length )
+    {
+    	return processor.acceptLength( length );
+    }
+    
+    /**
+     * Tells the context that a non empty source value
+     * rejected by {@link #acceptLength(int)} failed the
+     * precondition, without processing such value.
+     * 
+     * @param context the field process execution context.
+     */
+    public void rejectLength( final CSVFieldProcessContext context )
+    {
+    	processor.rejectLength( context );
+    }
+    
+    /**
+     * Processes a non empty source value whose length
+     * has already been accepted by {@link #acceptLength(int)}.
+     * <p>
+     * If the precondition checks only the length
+     * of the value it is not applied again.
+     * 
+     * @param source the CSV field to process.
+     * @param context the field process execution context.
+     * @return the CSV field after the manipulation.
+     */
+    public T processCheckedLength( final S source, final CSVFieldProcessContext context )
+    {
+    	return processor.processCheckedLength( source, context );
+    }
+    
+    
+    /**
+     * Tells if a non empty source value can be processed
+     * looking directly at its characters.
+     * 
+     * @return {@code true} if {@link #processChars(CharSequence, CSVFieldProcessContext)} can be used.
+     */
+    public boolean acceptChars()
+    {
+    	return processor.acceptChars();
+    }
+    
+    /**
+     * Processes a non empty source value looking directly at its characters.
+     * <p>
+     * If the characters can not be converted {@code null} is returned
+     * and the caller is expected to fall back to the
+     * {@link #process(Object, CSVFieldProcessContext)} method.
+     * 
+     * @param source the characters to process.
+     * @param context the field process execution context.
+     * @return the CSV field after the manipulation.
+     */
+    public T processChars( final CharSequence source, final CSVFieldProcessContext context )
+    {
+    	return processor.processChars( source, context );
+    }
+    
+    
     /**
      * Tells if the current field can be empty.
      * 
@@ -115,6 +207,17 @@ public final class CSVField<S,T>
     	return optional;
     }
     
+    /**
+     * Returns the cache used to deduplicate the values
+     * read for this field.
+     * 
+     * @return the string cache, {@code null} if not enabled.
+     */
+    public CSVStringCache getStringCache()
+    {
+    	return stringCache;
+    }
+    
     
     /* *************** */
     /*  INNER CLASSES  */
@@ -24,6 +24,7 @@ package org.nerd4j.csv.field;
 import org.nerd4j.csv.CSVProcessContext;
 import org.nerd4j.csv.CSVProcessError;
 import org.nerd4j.csv.CSVProcessOperation;
+import org.nerd4j.csv.metrics.CSVFlightRecorder;
 
 
 /**
@@ -71,6 +72,12 @@ public final class CSVFieldProcessContext implements CSVProcessContext
     /** The CSV header containing the columns names. */ 
     private String[] header;
     
+    /** Time of the first error in the current error burst. */
+    private long burstStart;
+    
+    /** Number of errors in the current error burst. */
+    private int burstErrors;
+    
     
     /**
      * Constructor with parameters.
@@ -226,6 +233,22 @@ public final class CSVFieldProcessContext implements CSVProcessContext
         
     }
     
+    /**
+     * Moves the context to the given row and column.
+     * <p>
+     * Used when the columns are not processed in order.
+     * 
+     * @param rowIndex    the row to process.
+     * @param columnIndex the column to process.
+     */
+    public void moveTo( final int rowIndex, final int columnIndex )
+    {
+        
+        this.rowIndex = rowIndex;
+        this.columnIndex = columnIndex;
+        
+    }
+    
     /**
      * Returns the column name if exists otherwise
      * returns the column index in string format.
@@ -243,6 +266,25 @@ public final class CSVFieldProcessContext implements CSVProcessContext
         
     }
     
+    /**
+     * Returns an immutable snapshot of the current state of the context.
+     * <p>
+     * If no error occurred the same shared instance is returned,
+     * otherwise the snapshot keeps the information about the error.
+     * 
+     * @return an immutable snapshot of the context.
+     */
+    public CSVFieldProcessSnapshot snapshot()
+    {
+        
+        if( failedOperation == null )
+            return CSVFieldProcessSnapshot.SUCCESS;
+        
+        return new CSVFieldProcessSnapshot( rowIndex, columnIndex, getColumnName(),
+                                            originalValue, processedValue, failedOperation );
+        
+    }
+    
     /**
      * Tells the context that the given operation
      * has failed. This causes the {@link #isError()}
@@ -252,7 +294,12 @@ public final class CSVFieldProcessContext implements CSVProcessContext
      */
     public void operationFailed( final CSVProcessOperation failedOperation )
     {
+        
         this.failedOperation = failedOperation;
+        
+        if( CSVFlightRecorder.isErrorBurstEnabled() )
+            trackErrorBurst();
+        
     }
    
     /**
@@ -268,4 +315,34 @@ public final class CSVFieldProcessContext implements CSVProcessContext
         
     }
     
-}
\ No newline at end of file
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Counts the errors occurred within the burst window
+     * and notifies the Flight Recorder when they
+     * are enough to make a burst.
+     * 
+     */
+    private void trackErrorBurst()
+    {
+        
+        final long now = System.nanoTime();
+        if( burstErrors == 0 || now - burstStart > CSVFlightRecorder.ERROR_BURST_WINDOW_MILLIS * 1000000L )
+        {
+            burstStart  = now;
+            burstErrors = 0;
+        }
+        
+        if( ++burstErrors == CSVFlightRecorder.ERROR_BURST_SIZE )
+        {
+            CSVFlightRecorder.errorBurst( getColumnName(), failedOperation, burstErrors, now - burstStart );
+            burstErrors = 0;
+        }
+        
+    }
+    
+}
@@ -0,0 +1,216 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.field;
+
+import java.text.MessageFormat;
+
+import org.nerd4j.csv.CSVProcessContext;
+import org.nerd4j.csv.CSVProcessError;
+import org.nerd4j.csv.CSVProcessOperation;
+
+
+/**
+ * Immutable copy of a {@link CSVFieldProcessContext}
+ * taken at the end of the process of a record.
+ * 
+ * <p>
+ * Unlike the context, which is shared and updated for
+ * each record, a snapshot can be kept or handed to other
+ * threads safely. For a successful process there is nothing
+ * to keep, so all the successful snapshots are the same
+ * instance. In case of error the snapshot keeps only the
+ * information needed to describe the error and acts as
+ * the {@link CSVProcessError} as well.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVFieldProcessSnapshot implements CSVProcessContext, CSVProcessError
+{
+    
+    /** The snapshot shared by all the successful processes. */
+    public static final CSVFieldProcessSnapshot SUCCESS = new CSVFieldProcessSnapshot( -1, -1, null, null, null, null );
+
+    /** The row index where the error occurred, {@code -1} for a success. */
+    private final int rowIndex;
+    
+    /** The column index where the error occurred, {@code -1} for a success. */
+    private final int columnIndex;
+    
+    /** The name of the column where the error occurred. */
+    private final String columnName;
+    
+    /** The value of the field before processing. */
+    private final Object originalValue;
+    
+    /** The value of the field when the operation failed. */
+    private final Object processedValue;
+    
+    /** The operation that failed, {@code null} for a success. */
+    private final CSVProcessOperation operation;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param rowIndex       the row index where the error occurred.
+     * @param columnIndex    the column index where the error occurred.
+     * @param columnName     the name of the column where the error occurred.
+     * @param originalValue  the value of the field before processing.
+     * @param processedValue the value of the field when the operation failed.
+     * @param operation      the operation that failed.
+     */
+    CSVFieldProcessSnapshot( final int rowIndex, final int columnIndex, final String columnName,
+                             final Object originalValue, final Object processedValue,
+                             final CSVProcessOperation operation )
+    {
+        
+        super();
+        
+        this.rowIndex       = rowIndex;
+        this.columnIndex    = columnIndex;
+        this.columnName     = columnName;
+        this.originalValue  = originalValue;
+        this.processedValue = processedValue;
+        this.operation      = operation;
+        
+    }
+    
+    
+    /**
+     * Returns an immutable snapshot of the given process context.
+     * <p>
+     * The contexts of the framework are converted into snapshots,
+     * any other implementation is expected to be immutable and
+     * is returned as is.
+     * 
+     * @param context the process context to freeze.
+     * @return an immutable snapshot of the context.
+     */
+    public static CSVProcessContext of( final CSVProcessContext context )
+    {
+        
+        if( context instanceof CSVFieldProcessContext )
+            return ((CSVFieldProcessContext) context).snapshot();
+        
+        return context;
+        
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+
+    
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The successful snapshots are shared between
+     * the records so they return {@code -1}.
+     */
+    @Override
+    public int getRowIndex()
+    {
+        return rowIndex;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The successful snapshots are shared between
+     * the records so they return {@code -1}.
+     */
+    @Override
+    public int getColumnIndex()
+    {
+        return columnIndex;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isError()
+    {
+        return operation != null;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CSVProcessError getError()
+    {
+        return operation != null ? this : null;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CSVProcessOperation getOperation()
+    {
+        return operation;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getMessage()
+    {
+        
+        if( operation == null )
+            return null;
+        
+        return MessageFormat.format( operation.getErrorMessagePattern(),
+                                     columnName, originalValue, processedValue );
+        
+    }
+    
+    
+    /* ******************* */
+    /*  GETTERS & SETTERS  */
+    /* ******************* */
+    
+    
+    /**
+     * Returns the name of the column where the error occurred.
+     * 
+     * @return the name of the column, {@code null} for a success.
+     */
+    public String getColumnName()
+    {
+        return columnName;
+    }
+    
+    /**
+     * Returns the value of the field before processing.
+     * 
+     * @return the original value, {@code null} for a success.
+     */
+    public Object getOriginalValue()
+    {
+        return originalValue;
+    }
+    
+}
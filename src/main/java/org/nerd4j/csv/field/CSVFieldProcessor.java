@@ -21,6 +21,8 @@
  */
 package org.nerd4j.csv.field;
 
+import org.nerd4j.csv.field.converter.CSVFieldCharsConverter;
+import org.nerd4j.csv.field.validator.CSVFieldLengthValidator;
 import org.nerd4j.csv.registry.CSVRegistryEntry;
 
 /**
@@ -45,6 +47,9 @@ public class CSVFieldProcessor<S,T> implements CSVRegistryEntry
     /** Represents the condition that the field must satisfy after the conversion. */
     private final CSVFieldValidator<T> postcondition;
     
+    /** Tells if the precondition checks only the length of the field. */
+    private final boolean lengthOnlyPrecondition;
+    
     
     /**
      * Constructor with parameters.
@@ -67,6 +72,9 @@ public class CSVFieldProcessor<S,T> implements CSVRegistryEntry
         this.precondition = precondition;
         this.postcondition = postcondition;
         
+        this.lengthOnlyPrecondition = precondition instanceof CSVFieldLengthValidator
+                                      && ((CSVFieldLengthValidator) precondition).isLengthOnly();
+        
     }
     
     
@@ -87,6 +95,59 @@ public class CSVFieldProcessor<S,T> implements CSVRegistryEntry
 		
 	}
 	
+	/**
+	 * Tells if a source value with the given length can pass the precondition.
+	 * <p>
+	 * This method allows to discard a value before the related
+	 * {@link String} is created, if it returns {@code false} the
+	 * {@link #process(Object, CSVFieldProcessContext)} method is
+	 * granted to fail.
+	 * 
+	 * @param length the length of the source value.
+	 * @return {@code false} if a value with such length is granted to fail.
+	 */
+	public boolean acceptLength( final int length )
+	{
+		
+		return ! (precondition instanceof CSVFieldLengthValidator)
+			   || ((CSVFieldLengthValidator) precondition).acceptLength( length );
+		
+	}
+	
+	/**
+	 * Tells the context that a source value rejected by
+	 * {@link #acceptLength(int)} failed the precondition.
+	 * <p>
+	 * This allows to report the failure without applying
+	 * the precondition to the source value.
+	 * 
+	 * @param context the field process execution context.
+	 */
+	public void rejectLength( final CSVFieldProcessContext context )
+	{
+		
+		context.operationFailed( precondition );
+		
+	}
+	
+	/**
+	 * Tells if this processor is able to process a source
+	 * value looking directly at its characters.
+	 * <p>
+	 * This is possible if the converter is a {@link CSVFieldCharsConverter}
+	 * and there is no precondition or the precondition checks only the
+	 * length of the value.
+	 * 
+	 * @return {@code true} if {@link #processChars(CharSequence, CSVFieldProcessContext)} can be used.
+	 */
+	public boolean acceptChars()
+	{
+		
+		return (precondition == null || lengthOnlyPrecondition)
+			   && converter instanceof CSVFieldCharsConverter;
+		
+	}
+	
 	/**
 	 * Returns the target type produced by this processor.
 	 * 
@@ -109,12 +170,90 @@ public class CSVFieldProcessor<S,T> implements CSVRegistryEntry
      * @return the CSV field after the manipulation.
      */
     public T process( final S source, final CSVFieldProcessContext context )
+    {
+        
+        return process( source, context, true );
+        
+    }
+    
+    /**
+     * Applies the steps needed to process a CSV field
+     * whose length has already been accepted by
+     * {@link #acceptLength(int)}.
+     * <p>
+     * If the precondition checks only the length of
+     * the value it is not applied again.
+     * 
+     * @param source the CSV field to process.
+     * @param context the field process execution context.
+     * @return the CSV field after the manipulation.
+     */
+    public T processCheckedLength( final S source, final CSVFieldProcessContext context )
+    {
+        
+        return process( source, context, ! lengthOnlyPrecondition );
+        
+    }
+    
+    /**
+     * Applies the steps needed to process a CSV
+     * field looking directly at its characters.
+     * <p>
+     * This method can be used only if {@link #acceptChars()}
+     * returns {@code true}. If the characters can not be
+     * converted or do not satisfy the length precondition
+     * {@code null} is returned without errors and the caller
+     * is expected to fall back to the
+     * {@link #process(Object, CSVFieldProcessContext)} method.
+     * 
+     * @param source the characters to process.
+     * @param context the field process execution context.
+     * @return the CSV field after the manipulation.
+     */
+    @SuppressWarnings("unchecked")
+    public T processChars( final CharSequence source, final CSVFieldProcessContext context )
+    {
+        
+        if( lengthOnlyPrecondition && ! acceptLength(source.length()) ) return null;
+        
+        final T target = ((CSVFieldCharsConverter<T>) converter).convertChars( source );
+        if( target == null ) return null;
+        
+        context.setProcessedValue( target );
+        
+        /*
+         * We apply the postcondition if any.
+         * In any case we exit with the current context.
+         */
+        if( postcondition != null )
+            postcondition.apply( target, context );
+        
+        return target;
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Applies the processing steps, the precondition
+     * is applied only if requested.
+     * 
+     * @param source the CSV field to process.
+     * @param context the field process execution context.
+     * @param checkPrecondition tells if the precondition must be applied.
+     * @return the CSV field after the manipulation.
+     */
+    private T process( final S source, final CSVFieldProcessContext context, final boolean checkPrecondition )
     {
         
         /* If the source is not null we proceed with the manipulation. */
         
         /* First we apply the precondition if any. */
-        if( precondition != null )
+        if( checkPrecondition && precondition != null )
         {
             /* If the validation fails we exit with an error context. */
             precondition.apply( source, context );
@@ -136,4 +275,4 @@ public class CSVFieldProcessor<S,T> implements CSVRegistryEntry
         
     }
     
-}
\ No newline at end of file
+}
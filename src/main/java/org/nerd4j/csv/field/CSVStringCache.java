@@ -0,0 +1,288 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.field;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Bounded cache used to deduplicate the values of low-cardinality
+ * columns, like countries, currencies or status codes.
+ * <p>
+ * The values are looked up using the characters of the field as
+ * read by the parser, so if the value is already in the cache the
+ * canonical {@link String} is returned without allocating a new one.
+ * <p>
+ * The cache is a fixed size hash table where each value can be
+ * stored in two adjacent slots, a new value replaces the oldest
+ * one in case of collision. If the hit rate of the cache is too
+ * low the column is considered high-cardinality and the cache
+ * disables itself.
+ * <p>
+ * Each reader has its own caches, built together with the fields of
+ * the reader, so the statistics refer to the values read by a single
+ * reader. When the metrics are enabled the statistics are reported by
+ * {@link org.nerd4j.csv.metrics.CSVMetrics#stringCacheUsed(String, long, long)}
+ * as the reader is closed.
+ * <p>
+ * The lookups never lock. Concurrent use is safe because the
+ * cached values are immutable, but the statistics may be approximate.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVStringCache
+{
+    
+    /** Internal logging system. */
+    private static final Logger logger = LoggerFactory.getLogger( CSVStringCache.class );
+    
+    /** Default number of values in the cache. */
+    public static final int DEFAULT_CAPACITY = 1024;
+    
+    /** Number of lookups after which the hit rate is evaluated. */
+    static final int SAMPLE_SIZE = 4096;
+    
+    /** Min percentage of hits needed to keep the cache enabled. */
+    static final int MIN_HIT_PERCENT = 50;
+    
+    /** Values longer than this are not cached. */
+    static final int MAX_LENGTH = 64;
+    
+    
+    /** The hash table containing the cached values. */
+    private final String[] table;
+    
+    /** Mask used to compute the table index. */
+    private final int mask;
+    
+    /** Tells if the cache is in use. */
+    private volatile boolean enabled;
+    
+    /** Number of lookups that returned a cached value. */
+    private long hits;
+    
+    /** Number of lookups that created a new value. */
+    private long misses;
+    
+    /** Number of hits in the current sample. */
+    private int sampleHits;
+    
+    /** Number of lookups in the current sample. */
+    private int sampleLookups;
+    
+    
+    /**
+     * Default constructor.
+     * 
+     */
+    public CSVStringCache()
+    {
+        
+        this( DEFAULT_CAPACITY );
+        
+    }
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param capacity the max number of cached values, rounded to a power of 2.
+     */
+    public CSVStringCache( final int capacity )
+    {
+        
+        super();
+        
+        if( capacity < 2 )
+            throw new IllegalArgumentException( "The capacity must be at least 2 but was " + capacity );
+        
+        final int size = Integer.highestOneBit( capacity - 1 ) << 1;
+        
+        this.table = new String[size];
+        this.mask = size - 1;
+        this.enabled = true;
+        
+        this.hits = 0;
+        this.misses = 0;
+        this.sampleHits = 0;
+        this.sampleLookups = 0;
+        
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * Returns the canonical {@link String} with the given characters.
+     * If the value is not in the cache, a new {@link String} is created
+     * using {@link CharSequence#toString()} and stored into the cache.
+     * 
+     * @param chars the characters of the value.
+     * @return the canonical value.
+     */
+    public String get( final CharSequence chars )
+    {
+        
+        final int length = chars.length();
+        if( ! enabled || length > MAX_LENGTH )
+            return chars.toString();
+        
+        /* The same hash used by String. */
+        int hash = 0;
+        for( int i = 0; i < length; ++i )
+            hash = 31 * hash + chars.charAt( i );
+        
+        final int first = (hash ^ (hash >>> 16)) & mask;
+        final int second = (first + 1) & mask;
+        
+        final String[] table = this.table;
+        final String firstValue = table[first];
+        if( matches(firstValue, chars, length) )
+            return hit( firstValue );
+        
+        final String secondValue = table[second];
+        if( matches(secondValue, chars, length) )
+            return hit( secondValue );
+        
+        /* The most recent value takes the first slot, the previous one is moved to the second. */
+        final String value = chars.toString();
+        if( firstValue != null ) table[second] = firstValue;
+        table[first] = value;
+        
+        ++misses;
+        sample( false );
+        
+        return value;
+        
+    }
+    
+    
+    /* ******************* */
+    /*  GETTERS & SETTERS  */
+    /* ******************* */
+    
+    
+    /**
+     * Tells if the cache is in use.
+     * 
+     * @return {@code false} if the cache disabled itself.
+     */
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+    
+    /**
+     * Returns the number of lookups that returned a cached value.
+     * 
+     * @return number of hits.
+     */
+    public long getHits()
+    {
+        return hits;
+    }
+    
+    /**
+     * Returns the number of lookups that created a new value.
+     * 
+     * @return number of misses.
+     */
+    public long getMisses()
+    {
+        return misses;
+    }
+    
+    /**
+     * Returns the ratio between the hits and the lookups.
+     * 
+     * @return the hit rate, {@code 0} if no lookup has been done.
+     */
+    public double getHitRate()
+    {
+        final long lookups = hits + misses;
+        return lookups > 0 ? (double) hits / lookups : 0;
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Tells if the given cached value has the given characters.
+     * 
+     * @param value  the cached value.
+     * @param chars  the characters to look for.
+     * @param length the number of characters.
+     * @return {@code true} if the value matches.
+     */
+    private static boolean matches( final String value, final CharSequence chars, final int length )
+    {
+        
+        return value != null && value.length() == length && value.contentEquals( chars );
+        
+    }
+    
+    /**
+     * Records a cache hit.
+     * 
+     * @param value the cached value.
+     * @return the cached value.
+     */
+    private String hit( final String value )
+    {
+        
+        ++hits;
+        sample( true );
+        
+        return value;
+        
+    }
+    
+    /**
+     * Adds the given lookup to the current sample and disables
+     * the cache if the hit rate of the sample is too low.
+     * 
+     * @param hit tells if the lookup was a hit.
+     */
+    private void sample( final boolean hit )
+    {
+        
+        if( hit ) ++sampleHits;
+        if( ++sampleLookups < SAMPLE_SIZE ) return;
+        
+        if( sampleHits * 100 < sampleLookups * MIN_HIT_PERCENT )
+        {
+            logger.debug( "Hit rate {}/{} too low, the string cache will be disabled", sampleHits, sampleLookups );
+            enabled = false;
+        }
+        
+        sampleHits = 0;
+        sampleLookups = 0;
+        
+    }
+    
+}
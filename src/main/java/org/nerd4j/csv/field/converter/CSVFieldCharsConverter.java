@@ -0,0 +1,56 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.field.converter;
+
+import org.nerd4j.csv.field.CSVFieldConverter;
+
+
+/**
+ * Represents a {@link CSVFieldConverter} able to convert
+ * a value looking directly at its characters.
+ * 
+ * <p>
+ * This allows the readers to convert a value
+ * without creating the related {@link String}.
+ *
+ * @param <T> type of the target field format.
+ * 
+ * @author Nerd4j Team
+ */
+public interface CSVFieldCharsConverter<T> extends CSVFieldConverter<String,T>
+{
+    
+    /**
+     * Converts the given characters into the target type.
+     * <p>
+     * This method never fails, if the given characters
+     * can not be converted {@code null} is returned and
+     * the caller is expected to fall back to the
+     * {@link #convert(Object, org.nerd4j.csv.field.CSVFieldProcessContext)}
+     * method to get the proper error.
+     * 
+     * @param source the characters to convert.
+     * @return the converted value or {@code null} if not convertible.
+     */
+    public T convertChars( CharSequence source );
+    
+}
@@ -0,0 +1,202 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.field.converter;
+
+import java.util.Map;
+
+
+/**
+ * Immutable dictionary that maps a fixed set of keys
+ * into the related values and can be queried using
+ * any {@link CharSequence} without creating a {@link String}.
+ * 
+ * <p>
+ * The keys are stored into an open addressing hash table
+ * at most half full, so a lookup compares the characters
+ * of very few candidates and never allocates memory.
+ * 
+ * <p>
+ * If case insensitive, the keys are matched ignoring
+ * the case of the characters.
+ * 
+ * @param <V> type of the values in the dictionary.
+ * 
+ * @author Nerd4j Team
+ */
+final class CharsDictionary<V>
+{
+
+    /** The keys in the hash table, {@code null} for empty slots. */
+    private final String[] keys;
+    
+    /** The values related to the keys. */
+    private final Object[] values;
+    
+    /** Mask used to compute the slot index from the hash code. */
+    private final int mask;
+    
+    /** Tells if the keys are matched ignoring the case. */
+    private final boolean ignoreCase;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param entries    the entries to put into the dictionary.
+     * @param ignoreCase tells if the keys are matched ignoring the case.
+     * @throws IllegalArgumentException if two keys collide.
+     */
+    public CharsDictionary( final Map<String,V> entries, final boolean ignoreCase )
+    {
+        
+        super();
+        
+        if( entries == null )
+            throw new NullPointerException( "The dictionary entries are mandatory and can't be null" );
+        
+        int capacity = 4;
+        while( capacity < entries.size() << 1 )
+            capacity <<= 1;
+        
+        this.mask = capacity - 1;
+        this.ignoreCase = ignoreCase;
+        this.keys = new String[capacity];
+        this.values = new Object[capacity];
+        
+        for( Map.Entry<String,V> entry : entries.entrySet() )
+            put( entry.getKey(), entry.getValue() );
+        
+    }
+    
+    
+    /* **************** */
+    /*  PUBLIC METHODS  */
+    /* **************** */
+    
+    
+    /**
+     * Returns the value related to the given characters.
+     * 
+     * @param source the characters to look for.
+     * @return the related value or {@code null} if not present.
+     */
+    @SuppressWarnings("unchecked")
+    public V get( final CharSequence source )
+    {
+        
+        if( source == null ) return null;
+        
+        int slot = hash( source ) & mask;
+        String key;
+        while( (key = keys[slot]) != null )
+        {
+            if( matches(key, source) )
+                return (V) values[slot];
+            
+            slot = (slot + 1) & mask;
+        }
+        
+        return null;
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Puts the given entry into the hash table.
+     * 
+     * @param key   the key of the entry.
+     * @param value the value of the entry.
+     */
+    private void put( final String key, final V value )
+    {
+        
+        if( key == null || key.isEmpty() )
+            throw new IllegalArgumentException( "The dictionary keys can't be null or empty" );
+        
+        if( value == null )
+            throw new IllegalArgumentException( "The dictionary values can't be null" );
+        
+        int slot = hash( key ) & mask;
+        while( keys[slot] != null )
+        {
+            if( matches(keys[slot], key) )
+                throw new IllegalArgumentException( "The key " + key + " is defined more than once" );
+            
+            slot = (slot + 1) & mask;
+        }
+        
+        keys[slot] = key;
+        values[slot] = value;
+        
+    }
+    
+    /**
+     * Computes the hash code of the given characters
+     * consistently with the case sensitivity.
+     * 
+     * @param source the characters to hash.
+     * @return the related hash code.
+     */
+    private int hash( final CharSequence source )
+    {
+        
+        int hash = 0;
+        final int length = source.length();
+        for( int i = 0; i < length; ++i )
+            hash = 31 * hash + (ignoreCase ? Character.toUpperCase(source.charAt(i)) : source.charAt(i));
+        
+        return hash ^ (hash >>> 16);
+        
+    }
+    
+    /**
+     * Tells if the given key matches the given characters
+     * consistently with the case sensitivity.
+     * 
+     * @param key    the key to check.
+     * @param source the characters to compare.
+     * @return {@code true} if they match.
+     */
+    private boolean matches( final String key, final CharSequence source )
+    {
+        
+        final int length = key.length();
+        if( length != source.length() ) return false;
+        
+        for( int i = 0; i < length; ++i )
+        {
+            final char k = key.charAt( i );
+            final char s = source.charAt( i );
+            if( k != s && (! ignoreCase || Character.toUpperCase(k) != Character.toUpperCase(s)) )
+                return false;
+        }
+        
+        return true;
+        
+    }
+    
+}
@@ -36,9 +36,14 @@ package org.nerd4j.csv.field.converter;
  *  <li>true, false; True, False; TRUE, FALSE; etc.</li>   
  * </ul>
  * 
+ * <p>
+ * The values are matched directly against their
+ * characters, so no {@link String} is needed.
+ * 
  * @author Nerd4j Team
  */
 public final class StringToBoolean extends AbstractCSVFieldConverter<String,Boolean>
+implements CSVFieldCharsConverter<Boolean>
 {
 
     
@@ -54,25 +59,25 @@ public final class StringToBoolean extends AbstractCSVFieldConverter<String,Bool
     }
 
     
-    /* ***************** */
-    /*  EXTENSION HOOKS  */
-    /* ***************** */
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
     
     
     /**
      * {@inheritDoc}
      */
     @Override
-    protected Boolean performConversion( final String source ) throws Exception
+    public Boolean convertChars( final CharSequence source )
     {
         
         switch( source.length() )
         {
         case 1: return parseCharacter( source.charAt(0) );
-        case 2: return "no".equalsIgnoreCase(source) ? Boolean.FALSE : null;
-        case 3: return "yes".equalsIgnoreCase(source) ? Boolean.TRUE : null;
-        case 4: return "true".equalsIgnoreCase(source) ? Boolean.TRUE : null;
-        case 5: return "false".equalsIgnoreCase(source) ? Boolean.FALSE : null;
+        case 2: return equalsIgnoreCase( "no", source ) ? Boolean.FALSE : null;
+        case 3: return equalsIgnoreCase( "yes", source ) ? Boolean.TRUE : null;
+        case 4: return equalsIgnoreCase( "true", source ) ? Boolean.TRUE : null;
+        case 5: return equalsIgnoreCase( "false", source ) ? Boolean.FALSE : null;
         
         default: return null;
         }
@@ -80,6 +85,23 @@ public final class StringToBoolean extends AbstractCSVFieldConverter<String,Bool
     }
     
     
+    /* ***************** */
+    /*  EXTENSION HOOKS  */
+    /* ***************** */
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Boolean performConversion( final String source ) throws Exception
+    {
+        
+        return convertChars( source );
+        
+    }
+    
+    
     /* ***************** */
     /*  PRIVATE METHODS  */
     /* ***************** */
@@ -116,4 +138,23 @@ public final class StringToBoolean extends AbstractCSVFieldConverter<String,Bool
         
     }
     
+    /**
+     * Tells if the given lower case expected value matches
+     * the given characters of the same length ignoring the case.
+     * 
+     * @param expected the lower case expected value.
+     * @param source   the characters to compare.
+     * @return {@code true} if they match.
+     */
+    private boolean equalsIgnoreCase( final String expected, final CharSequence source )
+    {
+        
+        for( int i = 0; i < expected.length(); ++i )
+            if( Character.toLowerCase(source.charAt(i)) != expected.charAt(i) )
+                return false;
+        
+        return true;
+        
+    }
+    
 }
\ No newline at end of file
@@ -21,21 +21,36 @@
  */
 package org.nerd4j.csv.field.converter;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 
 /**
  * Implementation of the {@link org.nerd4j.csv.field.CSVFieldConverter CSVFieldConverter}
  * interface that converts {@link String}s into {@link Enum}s.
  * 
+ * <p>
+ * The enum constants are matched using a dictionary built once
+ * for each converter, so the value can be matched directly
+ * against the characters read by the parser. The dictionary
+ * can optionally ignore the character case and contain
+ * some aliases for the enum constants.
+ * 
  * @param <E> type of the {@link Enum} to be returned.
  * 
  * @author Nerd4j Team
  */
 public final class StringToEnum<E extends Enum<E>> extends AbstractCSVFieldConverter<String,E>
+implements CSVFieldCharsConverter<E>
 {
 
     /** The type of the {@link Enum} to be returned. */
     private final Class<E> enumType;
     
+    /** Dictionary of the accepted representations of the enum constants. */
+    private final CharsDictionary<E> dictionary;
+    
     /**
      * Constructor with parameters.
      * 
@@ -44,16 +59,54 @@ public final class StringToEnum<E extends Enum<E>> extends AbstractCSVFieldConve
     public StringToEnum( final Class<E> enumType )
     {
 
+        this( enumType, false, null );
+        
+    }
+    
+    /**
+     * Constructor with parameters.
+     * <p>
+     * The aliases map an alternative representation
+     * into the name of the related enum constant.
+     * 
+     * @param enumType   actual implementation of {@link Enum}.
+     * @param ignoreCase tells if the values are matched ignoring the case.
+     * @param aliases    the aliases of the enum constants, can be {@code null}.
+     * @throws IllegalArgumentException if an alias refers to an unknown
+     *         constant or two representations collide.
+     */
+    public StringToEnum( final Class<E> enumType, final boolean ignoreCase,
+                         final Map<String,String> aliases )
+    {
+
         super( String.class, enumType, "Unable to convert {1} into " + enumType );
         
         if( enumType == null )
             throw new NullPointerException( "The enum type is mandatory cannot be null" );
         
         this.enumType = enumType;
+        this.dictionary = new CharsDictionary<E>( getEntries(enumType, aliases), ignoreCase );
         
     }
 
     
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public E convertChars( final CharSequence source )
+    {
+        
+        return dictionary.get( source );
+        
+    }
+    
+    
     /* ***************** */
     /*  EXTENSION HOOKS  */
     /* ***************** */
@@ -66,8 +119,48 @@ public final class StringToEnum<E extends Enum<E>> extends AbstractCSVFieldConve
     protected E performConversion( final String source ) throws Exception
     {
 
-        return Enum.valueOf( enumType, source );
+        return dictionary.get( source );
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Returns the entries of the dictionary made of
+     * the enum constant names and the given aliases.
+     * 
+     * @param enumType the enum type to use.
+     * @param aliases  the aliases of the enum constants.
+     * @return the dictionary entries.
+     */
+    private static <E extends Enum<E>> Map<String,E> getEntries( final Class<E> enumType,
+                                                                 final Map<String,String> aliases )
+    {
+        
+        final Map<String,E> entries = new HashMap<String,E>();
+        for( E constant : enumType.getEnumConstants() )
+            entries.put( constant.name(), constant );
+        
+        final Map<String,String> actualAliases = aliases != null
+                                               ? aliases : Collections.<String,String>emptyMap();
+        
+        for( Map.Entry<String,String> alias : actualAliases.entrySet() )
+        {
+            final E constant = entries.get( alias.getValue() );
+            if( constant == null )
+                throw new IllegalArgumentException( "The alias " + alias.getKey() + " refers to the unknown constant " + alias.getValue() );
+        }
+        
+        for( Map.Entry<String,String> alias : actualAliases.entrySet() )
+            if( entries.put(alias.getKey(), Enum.valueOf(enumType, alias.getValue())) != null )
+                throw new IllegalArgumentException( "The alias " + alias.getKey() + " is defined more than once" );
+        
+        return entries;
         
     }
        
-}
\ No newline at end of file
+}
@@ -0,0 +1,65 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.field.validator;
+
+import org.nerd4j.csv.field.CSVFieldValidator;
+
+
+/**
+ * Represents a {@link CSVFieldValidator} able to reject
+ * a value looking at its length only.
+ * 
+ * <p>
+ * This allows the readers to discard a value
+ * before the related {@link String} is created.
+ *
+ * @author Nerd4j Team
+ */
+public interface CSVFieldLengthValidator extends CSVFieldValidator<String>
+{
+    
+    /**
+     * Tells if a value with the given length can pass the validation.
+     * <p>
+     * If this method returns {@code false} the validation of any
+     * value with such length is granted to fail.
+     * 
+     * @param length the length of the value.
+     * @return {@code false} if a value with such length is granted to fail.
+     */
+    public boolean acceptLength( int length );
+    
+    /**
+     * Tells if the length is the only property checked by this validator.
+     * <p>
+     * If this method returns {@code true} any value accepted by
+     * {@link #acceptLength(int)} is granted to pass the validation,
+     * so the readers can skip the validation of such values.
+     * 
+     * @return {@code true} if the validation checks only the length.
+     */
+    public default boolean isLengthOnly()
+    {
+        return false;
+    }
+    
+}
@@ -21,20 +21,34 @@
  */
 package org.nerd4j.csv.field.validator;
 
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 
 /**
  * Implementation of the {@link org.nerd4j.csv.field.CSVFieldValidator CSVFieldValidator}
  * interface that checks the given {@link String} matches the given regular expression.
+ * 
+ * <p>
+ * The regular expressions made of a sequence of quantified characters or
+ * character classes, like {@code [0-9]+} or {@code [A-Z]{3}}, are compiled
+ * into a table driven automaton that matches without allocations and
+ * without backtracking. Any other regular expression is matched using
+ * a {@link Matcher} reused for all the values.
+ * <p>
+ * Because of the reused matcher this class is not thread safe,
+ * each reader gets its own instance from the registry.
  *
  * @author Nerd4j Team
  */
-public final class CheckRegEx extends AbstractCSVFieldValidator<String>
+public final class CheckRegEx extends AbstractCSVFieldValidator<String> implements CSVFieldLengthValidator
 {
     
-    /** The regular expression pattern to match. */
-    private final Pattern pattern;
+    /** The automaton compiled from the regular expression, {@code null} if not supported. */
+    private final RegExAutomaton automaton;
+    
+    /** The matcher of the regular expression pattern. */
+    private final Matcher matcher;
     
     
     /**
@@ -50,7 +64,26 @@ public final class CheckRegEx extends AbstractCSVFieldValidator<String>
         if( regEx == null || regEx.isEmpty() )
             throw new IllegalArgumentException( "The regular expression pattern is mandatory." );
         
-        this.pattern = Pattern.compile( regEx );
+        final Pattern pattern = Pattern.compile( regEx );
+        this.matcher = pattern.matcher( "" );
+        this.automaton = RegExAutomaton.compile( regEx );
+        
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean acceptLength( final int length )
+    {
+        
+        return automaton == null || automaton.acceptLength( length );
         
     }
 
@@ -67,7 +100,14 @@ public final class CheckRegEx extends AbstractCSVFieldValidator<String>
     protected boolean performValidation( final String value )
     {
         
-        return pattern.matcher( value ).matches();
+        if( automaton != null )
+        {
+            final int match = automaton.match( value );
+            if( match != RegExAutomaton.UNKNOWN )
+                return match == RegExAutomaton.MATCH;
+        }
+        
+        return matcher.reset( value ).matches();
         
     }
     
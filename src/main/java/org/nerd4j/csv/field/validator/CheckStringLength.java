@@ -27,7 +27,7 @@ package org.nerd4j.csv.field.validator;
  *
  * @author Nerd4j Team
  */
-public final class CheckStringLength extends AbstractCSVFieldValidator<String>
+public final class CheckStringLength extends AbstractCSVFieldValidator<String> implements CSVFieldLengthValidator
 {
     
     /** The string min length. */
@@ -74,6 +74,34 @@ public final class CheckStringLength extends AbstractCSVFieldValidator<String>
     }
 
     
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean acceptLength( final int length )
+    {
+        
+        return length >= min && length <= max;
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isLengthOnly()
+    {
+        
+        return true;
+        
+    }
+    
+    
     /* **************** */
     /*  EXTENSION HOOKS */
     /* **************** */
@@ -86,8 +114,7 @@ public final class CheckStringLength extends AbstractCSVFieldValidator<String>
     protected boolean performValidation( final String value )
     {
         
-        final int length = value.length();
-        return length >= min && length <= max;
+        return acceptLength( value.length() );
         
     }
     
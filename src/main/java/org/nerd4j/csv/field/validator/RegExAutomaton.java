@@ -0,0 +1,851 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.field.validator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Deterministic automaton able to match the regular
+ * expressions made of a sequence of quantified characters
+ * or character classes like {@code [0-9]+}, {@code [A-Z]{3}}
+ * or {@code ABC-\d{4,6}}.
+ * 
+ * <p>
+ * The automaton is table driven: each character is mapped into
+ * the class of characters the expression can not distinguish
+ * and the next state is taken from the transition table.
+ * The match requires no allocation and no backtracking.
+ * 
+ * <p>
+ * The supported syntax is:
+ * <ul>
+ *  <li>literal and escaped characters, {@code \t}, {@code \n}, {@code \r} and {@code \f};</li>
+ *  <li>the predefined classes {@code .}, {@code \d}, {@code \D}, {@code \w}, {@code \W}, {@code \s} and {@code \S};</li>
+ *  <li>the character classes {@code [...]} and {@code [^...]} with ranges and predefined classes;</li>
+ *  <li>the greedy quantifiers {@code ?}, {@code *}, {@code +}, <code>{n}</code>, <code>{n,}</code> and <code>{n,m}</code>;</li>
+ *  <li>the anchors {@code ^} at the beginning and {@code $} at the end.</li>
+ * </ul>
+ * Groups, alternations, back references and any other
+ * construct are not supported.
+ * 
+ * @author Nerd4j Team
+ */
+final class RegExAutomaton
+{
+    
+    /** Value used as maximum length when the length is not bounded. */
+    static final int UNBOUNDED = Integer.MAX_VALUE;
+    
+    /** Result of a match when the value matches. */
+    static final int MATCH = 1;
+    
+    /** Result of a match when the value does not match. */
+    static final int NO_MATCH = 0;
+    
+    /** Result of a match when the automaton is unable to tell. */
+    static final int UNKNOWN = -1;
+    
+    /** The maximum number of positions in the expanded expression. */
+    private static final int MAX_POSITIONS = 256;
+    
+    /** The maximum number of states of the automaton. */
+    private static final int MAX_STATES = 1024;
+    
+    /** The greatest character value. */
+    private static final int MAX_CHAR = Character.MAX_VALUE;
+    
+    /** Set of characters matched by {@code \d}. */
+    private static final int[] DIGIT = { '0', '9' };
+    
+    /** Set of characters matched by {@code \w}. */
+    private static final int[] WORD = { '0', '9', 'A', 'Z', '_', '_', 'a', 'z' };
+    
+    /** Set of characters matched by {@code \s}. */
+    private static final int[] SPACE = { '\t', '\r', ' ', ' ' };
+    
+    /** Set of characters matched by {@code .}, any character but the line terminators. */
+    private static final int[] DOT = complement( new int[] { '\n', '\n', '\r', '\r', '\u0085', '\u0085', '\u2028', '\u2029' } );
+    
+    /** The surrogate characters, they are not matched by the automaton. */
+    private static final int[] SURROGATES = { Character.MIN_SURROGATE, Character.MAX_SURROGATE };
+    
+    /** The class of each ASCII character. */
+    private final int[] asciiClasses;
+    
+    /** The first character of each class of characters. */
+    private final int[] classBounds;
+    
+    /** The number of classes of characters. */
+    private final int classCount;
+    
+    /** The transition table, {@code -1} for the dead state. */
+    private final int[] transitions;
+    
+    /** Tells for each state if it is accepting. */
+    private final boolean[] accepting;
+    
+    /** The minimum length of the matching values. */
+    private final int minLength;
+    
+    /** The maximum length of the matching values. */
+    private final int maxLength;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param classBounds the first character of each class of characters.
+     * @param transitions the transition table.
+     * @param accepting   the accepting states.
+     * @param minLength   the minimum length of the matching values.
+     * @param maxLength   the maximum length of the matching values.
+     */
+    private RegExAutomaton( final int[] classBounds, final int[] transitions,
+                            final boolean[] accepting, final int minLength, final int maxLength )
+    {
+        
+        super();
+        
+        this.classBounds = classBounds;
+        this.classCount  = classBounds.length;
+        this.transitions = transitions;
+        this.accepting   = accepting;
+        this.minLength   = minLength;
+        this.maxLength   = maxLength;
+        
+        this.asciiClasses = new int[128];
+        for( int c = 0; c < 128; ++c )
+            this.asciiClasses[c] = classOf( c );
+        
+    }
+    
+    
+    /* ******************* */
+    /*  GETTERS & SETTERS  */
+    /* ******************* */
+    
+    
+    /**
+     * Returns the minimum length of the matching values.
+     * 
+     * @return the minimum length of the matching values.
+     */
+    public int getMinLength()
+    {
+        return minLength;
+    }
+    
+    /**
+     * Returns the maximum length of the matching values
+     * or {@link #UNBOUNDED} if the length is not bounded.
+     * 
+     * @return the maximum length of the matching values.
+     */
+    public int getMaxLength()
+    {
+        return maxLength;
+    }
+    
+    
+    /* **************** */
+    /*  PUBLIC METHODS  */
+    /* **************** */
+    
+    
+    /**
+     * Tells if a value with the given number of characters can match.
+     * <p>
+     * The regular expressions match code points, so a value
+     * containing surrogate pairs may match even if it has up
+     * to twice the maximum number of characters.
+     * 
+     * @param length the number of characters of the value.
+     * @return {@code true} if a value with the given length can match.
+     */
+    public boolean acceptLength( final int length )
+    {
+        
+        return length >= minLength && length <= 2L * maxLength;
+        
+    }
+    
+    /**
+     * Tells if the given characters match the whole expression.
+     * <p>
+     * The automaton does not handle the surrogate characters,
+     * if the value contains any of them the result is unknown.
+     * 
+     * @param chars the characters to match.
+     * @return {@link #MATCH}, {@link #NO_MATCH} or {@link #UNKNOWN}.
+     */
+    public int match( final CharSequence chars )
+    {
+        
+        final int length = chars.length();
+        if( length < minLength )
+            return NO_MATCH;
+        
+        int state = 0;
+        for( int i = 0; i < length; ++i )
+        {
+            
+            final char c = chars.charAt( i );
+            state = transitions[state * classCount + (c < 128 ? asciiClasses[c] : classOf(c))];
+            
+            if( state < 0 )
+                return Character.isSurrogate( c ) ? UNKNOWN : NO_MATCH;
+            
+        }
+        
+        return accepting[state] ? MATCH : NO_MATCH;
+        
+    }
+    
+    
+    /**
+     * Compiles the given regular expression into an automaton.
+     * <p>
+     * If the regular expression uses any construct not supported
+     * or the automaton would be too big {@code null} is returned.
+     * The regular expression is expected to be valid.
+     * 
+     * @param regEx the regular expression to compile.
+     * @return the related automaton or {@code null} if not supported.
+     */
+    static RegExAutomaton compile( final String regEx )
+    {
+        
+        final List<Term> terms = parse( regEx );
+        if( terms == null )
+            return null;
+        
+        /*
+         * We expand the terms into positions: a term {n,m} becomes
+         * n mandatory positions followed by m-n optional positions
+         * while a term {n,} becomes n mandatory positions followed
+         * by a repeatable one.
+         */
+        final List<Position> positions = new ArrayList<Position>();
+        long minLength = 0;
+        long maxLength = 0;
+        for( Term term : terms )
+        {
+            
+            final int optional = term.max == UNBOUNDED ? 1 : term.max - term.min;
+            if( positions.size() + term.min + optional > MAX_POSITIONS )
+                return null;
+            
+            for( int i = 0; i < term.min; ++i )
+                positions.add( new Position(term.set, false, false) );
+            
+            if( term.max == UNBOUNDED )
+                positions.add( new Position(term.set, true, true) );
+            else
+                for( int i = 0; i < optional; ++i )
+                    positions.add( new Position(term.set, true, false) );
+            
+            minLength += term.min;
+            maxLength = term.max == UNBOUNDED || maxLength == UNBOUNDED
+                      ? UNBOUNDED : Math.min( maxLength + term.max, UNBOUNDED );
+            
+        }
+        
+        if( minLength >= UNBOUNDED )
+            return null;
+        
+        /*
+         * The classes of characters are the intervals between
+         * the bounds of the sets used in the expression.
+         */
+        final int[] classBounds = getClassBounds( positions );
+        final int classCount = classBounds.length;
+        
+        /* Then we build the automaton with the subset construction. */
+        final int end = positions.size();
+        final Map<BitSet,Integer> states = new HashMap<BitSet,Integer>();
+        final List<BitSet> pending = new ArrayList<BitSet>();
+        
+        final BitSet initial = new BitSet( end + 1 );
+        initial.set( 0 );
+        close( initial, positions );
+        states.put( initial, 0 );
+        pending.add( initial );
+        
+        int[] transitions = new int[ 16 * classCount ];
+        for( int s = 0; s < pending.size(); ++s )
+        {
+            
+            if( transitions.length < pending.size() * classCount )
+                transitions = Arrays.copyOf( transitions, transitions.length * 2 );
+            
+            final BitSet state = pending.get( s );
+            for( int cls = 0; cls < classCount; ++cls )
+            {
+                
+                final int c = classBounds[cls];
+                final BitSet next = new BitSet( end + 1 );
+                for( int p = state.nextSetBit(0); p >= 0 && p < end; p = state.nextSetBit(p+1) )
+                {
+                    final Position position = positions.get( p );
+                    if( contains(position.set, c) )
+                        next.set( position.repeatable ? p : p + 1 );
+                }
+                
+                if( next.isEmpty() )
+                {
+                    transitions[s * classCount + cls] = -1;
+                    continue;
+                }
+                
+                close( next, positions );
+                Integer target = states.get( next );
+                if( target == null )
+                {
+                    if( pending.size() >= MAX_STATES )
+                        return null;
+                    
+                    target = pending.size();
+                    states.put( next, target );
+                    pending.add( next );
+                    
+                    if( transitions.length < pending.size() * classCount )
+                        transitions = Arrays.copyOf( transitions, transitions.length * 2 );
+                }
+                
+                transitions[s * classCount + cls] = target;
+                
+            }
+            
+        }
+        
+        final boolean[] accepting = new boolean[ pending.size() ];
+        for( int s = 0; s < accepting.length; ++s )
+            accepting[s] = pending.get( s ).get( end );
+        
+        return new RegExAutomaton( classBounds, Arrays.copyOf(transitions, pending.size() * classCount),
+                                   accepting, (int) minLength, (int) maxLength );
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Returns the class of the given character.
+     * 
+     * @param c the character.
+     * @return the related class.
+     */
+    private int classOf( final int c )
+    {
+        
+        final int index = Arrays.binarySearch( classBounds, c );
+        return index >= 0 ? index : -index - 2;
+        
+    }
+    
+    /**
+     * Adds to the given set of positions all the positions
+     * reachable skipping the optional ones.
+     * 
+     * @param state     the set of positions.
+     * @param positions the positions of the expression.
+     */
+    private static void close( final BitSet state, final List<Position> positions )
+    {
+        
+        for( int p = state.nextSetBit(0); p >= 0 && p < positions.size(); p = state.nextSetBit(p+1) )
+            if( positions.get(p).optional )
+                state.set( p + 1 );
+        
+    }
+    
+    /**
+     * Returns the first character of each class of characters
+     * the given positions can not distinguish.
+     * 
+     * @param positions the positions of the expression.
+     * @return the first character of each class.
+     */
+    private static int[] getClassBounds( final List<Position> positions )
+    {
+        
+        final BitSet bounds = new BitSet( MAX_CHAR + 2 );
+        bounds.set( 0 );
+        for( Position position : positions )
+            for( int i = 0; i < position.set.length; i += 2 )
+            {
+                bounds.set( position.set[i] );
+                bounds.set( position.set[i+1] + 1 );
+            }
+        
+        bounds.clear( MAX_CHAR + 1 );
+        return bounds.stream().toArray();
+        
+    }
+    
+    /**
+     * Parses the given regular expression into a sequence of terms.
+     * 
+     * @param regEx the regular expression to parse.
+     * @return the related terms or {@code null} if not supported.
+     */
+    private static List<Term> parse( final String regEx )
+    {
+        
+        int start = 0;
+        int end = regEx.length();
+        
+        for( int i = 0; i < end; ++i )
+            if( Character.isSurrogate(regEx.charAt(i)) )
+                return null;
+        
+        if( end > 0 && regEx.charAt(0) == '^' )
+            ++start;
+        
+        if( end > start && regEx.charAt(end-1) == '$' && ! isEscaped(regEx, end-1) )
+            --end;
+        
+        final List<Term> terms = new ArrayList<Term>();
+        final int[] index = { start };
+        while( index[0] < end )
+        {
+            
+            final int[] set = parseAtom( regEx, index, end );
+            if( set == null )
+                return null;
+            
+            int min = 1;
+            int max = 1;
+            if( index[0] < end )
+            {
+                
+                final char c = regEx.charAt( index[0] );
+                switch( c )
+                {
+                
+                    case '?': min = 0; max = 1; ++index[0]; break;
+                    case '*': min = 0; max = UNBOUNDED; ++index[0]; break;
+                    case '+': min = 1; max = UNBOUNDED; ++index[0]; break;
+                    
+                    case '{':
+                        final int close = regEx.indexOf( '}', index[0] );
+                        if( close < 0 || close >= end )
+                            return null;
+                        
+                        final String bounds = regEx.substring( index[0] + 1, close );
+                        final int comma = bounds.indexOf( ',' );
+                        try{
+                            
+                            min = Integer.parseInt( comma < 0 ? bounds : bounds.substring(0, comma) );
+                            max = comma < 0 ? min
+                                : comma == bounds.length() - 1 ? UNBOUNDED
+                                : Integer.parseInt( bounds.substring(comma + 1) );
+                            
+                        }catch( NumberFormatException ex )
+                        {
+                            return null;
+                        }
+                        
+                        if( min < 0 || max < min )
+                            return null;
+                        
+                        index[0] = close + 1;
+                        break;
+                        
+                    default:
+                        break;
+                
+                }
+                
+                /* Lazy and possessive quantifiers are not supported. */
+                if( index[0] < end && (regEx.charAt(index[0]) == '?' || regEx.charAt(index[0]) == '+') )
+                    return null;
+                
+            }
+            
+            if( max > 0 )
+                terms.add( new Term(minus(set, SURROGATES), min, max) );
+            
+        }
+        
+        return terms;
+        
+    }
+    
+    /**
+     * Parses the atom at the given index and moves the index after it.
+     * 
+     * @param regEx the regular expression to parse.
+     * @param index the index where the atom starts.
+     * @param end   the index where the expression ends.
+     * @return the set of characters matched by the atom or {@code null} if not supported.
+     */
+    private static int[] parseAtom( final String regEx, final int[] index, final int end )
+    {
+        
+        final char c = regEx.charAt( index[0]++ );
+        switch( c )
+        {
+        
+            case '.':
+                return DOT;
+                
+            case '\\':
+                return index[0] < end ? parseEscape( regEx.charAt(index[0]++) ) : null;
+                
+            case '[':
+                return parseClass( regEx, index, end );
+            
+            case '(': case ')': case '|': case '^': case '$':
+            case '*': case '+': case '?': case '{': case '}': case ']':
+                return null;
+            
+            default:
+                return new int[] { c, c };
+            
+        }
+        
+    }
+    
+    /**
+     * Parses the character class at the given index,
+     * just after the opening bracket, and moves the
+     * index after the closing bracket.
+     * 
+     * @param regEx the regular expression to parse.
+     * @param index the index where the class starts.
+     * @param end   the index where the expression ends.
+     * @return the set of characters matched by the class or {@code null} if not supported.
+     */
+    private static int[] parseClass( final String regEx, final int[] index, final int end )
+    {
+        
+        final boolean negated = index[0] < end && regEx.charAt( index[0] ) == '^';
+        if( negated ) ++index[0];
+        
+        int[] set = new int[0];
+        boolean first = true;
+        while( index[0] < end )
+        {
+            
+            char c = regEx.charAt( index[0]++ );
+            if( c == ']' && ! first )
+                return negated ? complement( set ) : set;
+            
+            first = false;
+            if( c == '[' || c == '&' || c == ']' )
+                return null;
+            
+            int[] item;
+            if( c == '\\' )
+            {
+                if( index[0] >= end )
+                    return null;
+                
+                item = parseEscape( regEx.charAt(index[0]++) );
+                if( item == null )
+                    return null;
+            }
+            else
+                item = new int[] { c, c };
+            
+            /* A single character can start a range. */
+            if( item.length == 2 && item[0] == item[1]
+                && index[0] + 1 < end && regEx.charAt(index[0]) == '-' && regEx.charAt(index[0]+1) != ']' )
+            {
+                
+                ++index[0];
+                c = regEx.charAt( index[0]++ );
+                if( c == '[' || c == '&' )
+                    return null;
+                
+                int to = c;
+                if( c == '\\' )
+                {
+                    if( index[0] >= end )
+                        return null;
+                    
+                    final int[] escaped = parseEscape( regEx.charAt(index[0]++) );
+                    if( escaped == null || escaped.length != 2 || escaped[0] != escaped[1] )
+                        return null;
+                    
+                    to = escaped[0];
+                }
+                
+                if( to < item[0] )
+                    return null;
+                
+                item = new int[] { item[0], to };
+                
+            }
+            
+            set = union( set, item );
+            
+        }
+        
+        return null;
+        
+    }
+    
+    /**
+     * Returns the set of characters matched by the given escaped character.
+     * 
+     * @param c the escaped character.
+     * @return the related set of characters or {@code null} if not supported.
+     */
+    private static int[] parseEscape( final char c )
+    {
+        
+        switch( c )
+        {
+        
+            case 'd': return DIGIT;
+            case 'D': return complement( DIGIT );
+            case 'w': return WORD;
+            case 'W': return complement( WORD );
+            case 's': return SPACE;
+            case 'S': return complement( SPACE );
+            case 't': return new int[] { '\t', '\t' };
+            case 'n': return new int[] { '\n', '\n' };
+            case 'r': return new int[] { '\r', '\r' };
+            case 'f': return new int[] { '\f', '\f' };
+            
+            default:
+                /* Any other escaped letter or digit has a special meaning. */
+                return Character.isLetterOrDigit( c ) ? null : new int[] { c, c };
+            
+        }
+        
+    }
+    
+    /**
+     * Tells if the character at the given index is escaped.
+     * 
+     * @param regEx the regular expression.
+     * @param index the index of the character.
+     * @return {@code true} if the character is escaped.
+     */
+    private static boolean isEscaped( final String regEx, final int index )
+    {
+        
+        int backslashes = 0;
+        for( int i = index - 1; i >= 0 && regEx.charAt(i) == '\\'; --i )
+            ++backslashes;
+        
+        return (backslashes & 1) == 1;
+        
+    }
+    
+    /**
+     * Tells if the given set contains the given character.
+     * 
+     * @param set the set of characters as sorted ranges.
+     * @param c   the character.
+     * @return {@code true} if the set contains the character.
+     */
+    private static boolean contains( final int[] set, final int c )
+    {
+        
+        for( int i = 0; i < set.length; i += 2 )
+            if( c >= set[i] && c <= set[i+1] )
+                return true;
+        
+        return false;
+        
+    }
+    
+    /**
+     * Returns the union of the given sets of characters.
+     * 
+     * @param a a set of characters as sorted ranges.
+     * @param b a set of characters as sorted ranges.
+     * @return the union as sorted and disjoint ranges.
+     */
+    private static int[] union( final int[] a, final int[] b )
+    {
+        
+        final BitSet chars = new BitSet( MAX_CHAR + 1 );
+        for( int[] set : new int[][] { a, b } )
+            for( int i = 0; i < set.length; i += 2 )
+                chars.set( set[i], set[i+1] + 1 );
+        
+        return toRanges( chars );
+        
+    }
+    
+    /**
+     * Returns the complement of the given set of characters.
+     * 
+     * @param set a set of characters as sorted ranges.
+     * @return the complement as sorted and disjoint ranges.
+     */
+    private static int[] complement( final int[] set )
+    {
+        
+        final BitSet chars = new BitSet( MAX_CHAR + 1 );
+        for( int i = 0; i < set.length; i += 2 )
+            chars.set( set[i], set[i+1] + 1 );
+        
+        chars.flip( 0, MAX_CHAR + 1 );
+        return toRanges( chars );
+        
+    }
+    
+    /**
+     * Returns the characters of the first set not in the second one.
+     * 
+     * @param a a set of characters as sorted ranges.
+     * @param b a set of characters as sorted ranges.
+     * @return the difference as sorted and disjoint ranges.
+     */
+    private static int[] minus( final int[] a, final int[] b )
+    {
+        
+        final BitSet chars = new BitSet( MAX_CHAR + 1 );
+        for( int i = 0; i < a.length; i += 2 )
+            chars.set( a[i], a[i+1] + 1 );
+        for( int i = 0; i < b.length; i += 2 )
+            chars.clear( b[i], b[i+1] + 1 );
+        
+        return toRanges( chars );
+        
+    }
+    
+    /**
+     * Converts the given characters into sorted and disjoint ranges.
+     * 
+     * @param chars the characters to convert.
+     * @return the related ranges.
+     */
+    private static int[] toRanges( final BitSet chars )
+    {
+        
+        int[] ranges = new int[8];
+        int size = 0;
+        for( int from = chars.nextSetBit(0); from >= 0; from = chars.nextSetBit(from) )
+        {
+            
+            final int to = chars.nextClearBit( from );
+            if( size == ranges.length )
+                ranges = Arrays.copyOf( ranges, size * 2 );
+            
+            ranges[size++] = from;
+            ranges[size++] = to - 1;
+            from = to;
+            
+        }
+        
+        return Arrays.copyOf( ranges, size );
+        
+    }
+    
+    
+    /* *************** */
+    /*  INNER CLASSES  */
+    /* *************** */
+    
+    
+    /**
+     * Represents a quantified set of characters.
+     * 
+     * @author Nerd4j Team
+     */
+    private static class Term
+    {
+        
+        /** The set of characters as sorted ranges. */
+        final int[] set;
+        
+        /** The minimum number of repetitions. */
+        final int min;
+        
+        /** The maximum number of repetitions. */
+        final int max;
+        
+        /**
+         * Constructor with parameters.
+         * 
+         * @param set the set of characters.
+         * @param min the minimum number of repetitions.
+         * @param max the maximum number of repetitions.
+         */
+        Term( final int[] set, final int min, final int max )
+        {
+            
+            super();
+            
+            this.set = set;
+            this.min = min;
+            this.max = max;
+            
+        }
+        
+    }
+    
+    /**
+     * Represents a position in the expanded expression.
+     * 
+     * @author Nerd4j Team
+     */
+    private static class Position
+    {
+        
+        /** The set of characters as sorted ranges. */
+        final int[] set;
+        
+        /** Tells if the position can be skipped. */
+        final boolean optional;
+        
+        /** Tells if the position can be repeated. */
+        final boolean repeatable;
+        
+        /**
+         * Constructor with parameters.
+         * 
+         * @param set        the set of characters.
+         * @param optional   tells if the position can be skipped.
+         * @param repeatable tells if the position can be repeated.
+         */
+        Position( final int[] set, final boolean optional, final boolean repeatable )
+        {
+            
+            super();
+            
+            this.set = set;
+            this.optional = optional;
+            this.repeatable = repeatable;
+            
+        }
+        
+    }
+    
+}
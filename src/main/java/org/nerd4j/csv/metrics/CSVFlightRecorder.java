@@ -0,0 +1,230 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.metrics;
+
+import org.nerd4j.csv.CSVProcessOperation;
+
+
+/**
+ * Entry point for the Java Flight Recorder events
+ * emitted by the CSV readers and writers.
+ * 
+ * <p>
+ * The following events are available:
+ * <ul>
+ *  <li>{@code org.nerd4j.csv.Source}: the life of a reader or writer from creation to close;</li>
+ *  <li>{@code org.nerd4j.csv.Throughput}: periodic sample of the records and characters processed;</li>
+ *  <li>{@code org.nerd4j.csv.Refill}: the parser waiting for the source to refill its buffer;</li>
+ *  <li>{@code org.nerd4j.csv.SlowRecord}: a record that took longer than the threshold to be processed;</li>
+ *  <li>{@code org.nerd4j.csv.ErrorBurst}: {@value #ERROR_BURST_SIZE} field errors within {@value #ERROR_BURST_WINDOW_MILLIS} ms.</li>
+ * </ul>
+ * 
+ * <p>
+ * The events are emitted only while a recording is enabling them.
+ * Otherwise each {@code begin} method returns {@code null} and the
+ * related {@code end} method is not invoked, so the cost on the
+ * hot path is a couple of checks.
+ * If the Flight Recorder is not available in the running JVM
+ * no event is ever emitted.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVFlightRecorder
+{
+    
+    /** The operation reported for the readers. */
+    public static final String READ = "read";
+    
+    /** The operation reported for the writers. */
+    public static final String WRITE = "write";
+    
+    /** The number of errors that make a burst. */
+    public static final int ERROR_BURST_SIZE = 100;
+    
+    /** The maximum time between the first and the last error of a burst. */
+    public static final long ERROR_BURST_WINDOW_MILLIS = 1000;
+    
+    /** Tells if the Flight Recorder is available in the running JVM. */
+    private static final boolean AVAILABLE = isAvailable();
+    
+    
+    /**
+     * This class is not intended to be instantiated.
+     * 
+     */
+    private CSVFlightRecorder()
+    {
+        
+        super();
+        
+    }
+    
+    
+    /* **************** */
+    /*  PUBLIC METHODS  */
+    /* **************** */
+    
+    
+    /**
+     * Begins the event related to the life of a reader or writer.
+     * 
+     * @param configuration the name of the configuration, can be {@code null}.
+     * @param operation     either {@link #READ} or {@link #WRITE}.
+     * @return the event to end or {@code null} if not enabled.
+     */
+    public static Object beginSource( final String configuration, final String operation )
+    {
+        
+        return AVAILABLE ? CSVFlightRecorderEvents.beginSource( configuration, operation ) : null;
+        
+    }
+    
+    /**
+     * Ends the event related to the life of a reader or writer.
+     * 
+     * @param event   the event returned by {@link #beginSource(String, String)}.
+     * @param records the number of records processed.
+     */
+    public static void endSource( final Object event, final long records )
+    {
+        
+        if( event != null )
+            CSVFlightRecorderEvents.endSource( event, records );
+        
+    }
+    
+    /**
+     * Begins the event related to the process of a record.
+     * 
+     * @return the event to end or {@code null} if not enabled.
+     */
+    public static Object beginRecord()
+    {
+        
+        return AVAILABLE ? CSVFlightRecorderEvents.beginRecord() : null;
+        
+    }
+    
+    /**
+     * Ends the event related to the process of a record.
+     * 
+     * @param event         the event returned by {@link #beginRecord()}.
+     * @param configuration the name of the configuration, can be {@code null}.
+     * @param operation     either {@link #READ} or {@link #WRITE}.
+     * @param rowIndex      the index of the record.
+     * @param chars         the number of characters of the record.
+     * @param error         tells if the record failed to be processed.
+     */
+    public static void endRecord( final Object event, final String configuration, final String operation,
+                                  final int rowIndex, final long chars, final boolean error )
+    {
+        
+        if( event != null )
+            CSVFlightRecorderEvents.endRecord( event, configuration, operation, rowIndex, chars, error );
+        
+    }
+    
+    /**
+     * Begins the event related to the refill of the parser buffer.
+     * 
+     * @return the event to end or {@code null} if not enabled.
+     */
+    public static Object beginRefill()
+    {
+        
+        return AVAILABLE ? CSVFlightRecorderEvents.beginRefill() : null;
+        
+    }
+    
+    /**
+     * Ends the event related to the refill of the parser buffer.
+     * 
+     * @param event the event returned by {@link #beginRefill()}.
+     * @param chars the number of characters read.
+     */
+    public static void endRefill( final Object event, final int chars )
+    {
+        
+        if( event != null )
+            CSVFlightRecorderEvents.endRefill( event, chars );
+        
+    }
+    
+    /**
+     * Tells if the error bursts have to be tracked.
+     * 
+     * @return {@code true} if the error burst event is enabled.
+     */
+    public static boolean isErrorBurstEnabled()
+    {
+        
+        return AVAILABLE && CSVFlightRecorderEvents.isErrorBurstEnabled();
+        
+    }
+    
+    /**
+     * Emits the event related to a burst of errors.
+     * 
+     * @param columnName the name of the column of the last error.
+     * @param operation  the operation failed in the last error.
+     * @param errors     the number of errors in the burst.
+     * @param nanos      the time between the first and the last error.
+     */
+    public static void errorBurst( final String columnName, final CSVProcessOperation operation,
+                                   final int errors, final long nanos )
+    {
+        
+        if( AVAILABLE )
+            CSVFlightRecorderEvents.errorBurst( columnName, operation, errors, nanos );
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Tells if the Flight Recorder is available in the running JVM.
+     * <p>
+     * The class defining the events is loaded only if
+     * the {@code jdk.jfr} module is present.
+     * 
+     * @return {@code true} if the Flight Recorder is available.
+     */
+    private static boolean isAvailable()
+    {
+        
+        try{
+            
+            Class.forName( "jdk.jfr.FlightRecorder" );
+            return CSVFlightRecorderEvents.isAvailable();
+            
+        }catch( Throwable ex )
+        {
+            return false;
+        }
+        
+    }
+    
+}
@@ -0,0 +1,466 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+import org.nerd4j.csv.CSVProcessOperation;
+
+
+/**
+ * Definition of the Java Flight Recorder events.
+ * 
+ * <p>
+ * This class is the only one referring to the {@code jdk.jfr}
+ * package and it is loaded only if the Flight Recorder is
+ * available, see {@link CSVFlightRecorder}.
+ * 
+ * @author Nerd4j Team
+ */
+final class CSVFlightRecorderEvents
+{
+    
+    /** The category of the events. */
+    private static final String CATEGORY = "Nerd4j CSV";
+    
+    /** Type of the source events. */
+    private static final EventType SOURCE = EventType.getEventType( SourceEvent.class );
+    
+    /** Type of the slow record events. */
+    private static final EventType RECORD = EventType.getEventType( RecordEvent.class );
+    
+    /** Type of the throughput events. */
+    private static final EventType THROUGHPUT = EventType.getEventType( ThroughputEvent.class );
+    
+    /** Type of the refill events. */
+    private static final EventType REFILL = EventType.getEventType( RefillEvent.class );
+    
+    /** Type of the error burst events. */
+    private static final EventType ERROR_BURST = EventType.getEventType( ErrorBurstEvent.class );
+    
+    /** The number of records read since the start. */
+    private static final LongAdder recordsRead = new LongAdder();
+    
+    /** The number of characters read since the start. */
+    private static final LongAdder charsRead = new LongAdder();
+    
+    /** The number of records written since the start. */
+    private static final LongAdder recordsWritten = new LongAdder();
+    
+    /** The number of records failed since the start. */
+    private static final LongAdder recordsFailed = new LongAdder();
+    
+    /** The values at the last throughput sample. */
+    private static final long[] lastSample = new long[4];
+    
+    static
+    {
+        FlightRecorder.addPeriodicEvent( ThroughputEvent.class, CSVFlightRecorderEvents::emitThroughput );
+    }
+    
+    
+    /**
+     * This class is not intended to be instantiated.
+     * 
+     */
+    private CSVFlightRecorderEvents()
+    {
+        
+        super();
+        
+    }
+    
+    
+    /* ***************** */
+    /*  UTILITY METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Tells if the Flight Recorder is available in the running JVM.
+     * 
+     * @return {@code true} if the Flight Recorder is available.
+     */
+    static boolean isAvailable()
+    {
+        
+        return FlightRecorder.isAvailable();
+        
+    }
+    
+    /**
+     * See {@link CSVFlightRecorder#beginSource(String, String)}.
+     * 
+     * @param configuration the name of the configuration.
+     * @param operation     the operation performed.
+     * @return the event to end or {@code null} if not enabled.
+     */
+    static Object beginSource( final String configuration, final String operation )
+    {
+        
+        if( ! SOURCE.isEnabled() )
+            return null;
+        
+        final SourceEvent event = new SourceEvent();
+        event.configuration = configuration;
+        event.operation = operation;
+        event.begin();
+        
+        return event;
+        
+    }
+    
+    /**
+     * See {@link CSVFlightRecorder#endSource(Object, long)}.
+     * 
+     * @param event   the event to end.
+     * @param records the number of records processed.
+     */
+    static void endSource( final Object event, final long records )
+    {
+        
+        if( ! (event instanceof SourceEvent) )
+            return;
+        
+        final SourceEvent source = (SourceEvent) event;
+        source.end();
+        if( source.shouldCommit() )
+        {
+            source.records = records;
+            source.commit();
+        }
+        
+    }
+    
+    /**
+     * See {@link CSVFlightRecorder#beginRecord()}.
+     * 
+     * @return the event to end or {@code null} if not enabled.
+     */
+    static Object beginRecord()
+    {
+        
+        if( ! RECORD.isEnabled() && ! THROUGHPUT.isEnabled() )
+            return null;
+        
+        final RecordEvent event = new RecordEvent();
+        event.begin();
+        
+        return event;
+        
+    }
+    
+    /**
+     * See {@link CSVFlightRecorder#endRecord(Object, String, String, int, long, boolean)}.
+     * 
+     * @param event         the event to end.
+     * @param configuration the name of the configuration.
+     * @param operation     the operation performed.
+     * @param rowIndex      the index of the record.
+     * @param chars         the number of characters of the record.
+     * @param error         tells if the record failed to be processed.
+     */
+    static void endRecord( final Object event, final String configuration, final String operation,
+                           final int rowIndex, final long chars, final boolean error )
+    {
+        
+        if( ! (event instanceof RecordEvent) )
+            return;
+        
+        if( THROUGHPUT.isEnabled() )
+        {
+            if( CSVFlightRecorder.WRITE.equals(operation) )
+                recordsWritten.increment();
+            else
+            {
+                recordsRead.increment();
+                charsRead.add( chars );
+            }
+            
+            if( error )
+                recordsFailed.increment();
+        }
+        
+        final RecordEvent record = (RecordEvent) event;
+        record.end();
+        if( record.shouldCommit() )
+        {
+            record.configuration = configuration;
+            record.operation = operation;
+            record.rowIndex = rowIndex;
+            record.chars = chars;
+            record.error = error;
+            record.commit();
+        }
+        
+    }
+    
+    /**
+     * See {@link CSVFlightRecorder#beginRefill()}.
+     * 
+     * @return the event to end or {@code null} if not enabled.
+     */
+    static Object beginRefill()
+    {
+        
+        if( ! REFILL.isEnabled() )
+            return null;
+        
+        final RefillEvent event = new RefillEvent();
+        event.begin();
+        
+        return event;
+        
+    }
+    
+    /**
+     * See {@link CSVFlightRecorder#endRefill(Object, int)}.
+     * 
+     * @param event the event to end.
+     * @param chars the number of characters read.
+     */
+    static void endRefill( final Object event, final int chars )
+    {
+        
+        if( ! (event instanceof RefillEvent) )
+            return;
+        
+        final RefillEvent refill = (RefillEvent) event;
+        refill.end();
+        if( refill.shouldCommit() )
+        {
+            refill.chars = chars;
+            refill.commit();
+        }
+        
+    }
+    
+    /**
+     * See {@link CSVFlightRecorder#isErrorBurstEnabled()}.
+     * 
+     * @return {@code true} if the error burst event is enabled.
+     */
+    static boolean isErrorBurstEnabled()
+    {
+        
+        return ERROR_BURST.isEnabled();
+        
+    }
+    
+    /**
+     * See {@link CSVFlightRecorder#errorBurst(String, CSVProcessOperation, int, long)}.
+     * 
+     * @param columnName the name of the column of the last error.
+     * @param operation  the operation failed in the last error.
+     * @param errors     the number of errors in the burst.
+     * @param nanos      the time between the first and the last error.
+     */
+    static void errorBurst( final String columnName, final CSVProcessOperation operation,
+                            final int errors, final long nanos )
+    {
+        
+        final ErrorBurstEvent event = new ErrorBurstEvent();
+        if( ! event.shouldCommit() )
+            return;
+        
+        event.column = columnName;
+        event.operation = operation != null ? operation.getClass().getName() : null;
+        event.errors = errors;
+        event.window = nanos;
+        event.commit();
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Emits the periodic throughput event with
+     * the values since the last sample.
+     * 
+     */
+    private static synchronized void emitThroughput()
+    {
+        
+        final long[] sample = { recordsRead.sum(), charsRead.sum(), recordsWritten.sum(), recordsFailed.sum() };
+        
+        final ThroughputEvent event = new ThroughputEvent();
+        event.recordsRead    = sample[0] - lastSample[0];
+        event.charsRead      = sample[1] - lastSample[1];
+        event.recordsWritten = sample[2] - lastSample[2];
+        event.recordsFailed  = sample[3] - lastSample[3];
+        event.commit();
+        
+        System.arraycopy( sample, 0, lastSample, 0, sample.length );
+        
+    }
+    
+    
+    /* *************** */
+    /*  INNER CLASSES  */
+    /* *************** */
+    
+    
+    /**
+     * The life of a reader or writer from creation to close.
+     * 
+     * @author Nerd4j Team
+     */
+    @Name( "org.nerd4j.csv.Source" )
+    @Label( "CSV Source" )
+    @Category( CATEGORY )
+    @Description( "The life of a CSV reader or writer from creation to close" )
+    static class SourceEvent extends Event
+    {
+        
+        @Label( "Configuration" )
+        String configuration;
+        
+        @Label( "Operation" )
+        String operation;
+        
+        @Label( "Records" )
+        long records;
+        
+    }
+    
+    /**
+     * A record that took longer than the threshold to be processed.
+     * 
+     * @author Nerd4j Team
+     */
+    @Name( "org.nerd4j.csv.SlowRecord" )
+    @Label( "CSV Slow Record" )
+    @Category( CATEGORY )
+    @Description( "A CSV record that took longer than the threshold to be processed" )
+    @Threshold( "10 ms" )
+    static class RecordEvent extends Event
+    {
+        
+        @Label( "Configuration" )
+        String configuration;
+        
+        @Label( "Operation" )
+        String operation;
+        
+        @Label( "Row Index" )
+        int rowIndex;
+        
+        @Label( "Characters" )
+        long chars;
+        
+        @Label( "Error" )
+        boolean error;
+        
+    }
+    
+    /**
+     * Periodic sample of the records processed.
+     * 
+     * @author Nerd4j Team
+     */
+    @Name( "org.nerd4j.csv.Throughput" )
+    @Label( "CSV Throughput" )
+    @Category( CATEGORY )
+    @Description( "The CSV records processed since the previous sample" )
+    @Period( "1 s" )
+    @StackTrace( false )
+    static class ThroughputEvent extends Event
+    {
+        
+        @Label( "Records Read" )
+        long recordsRead;
+        
+        @Label( "Characters Read" )
+        long charsRead;
+        
+        @Label( "Records Written" )
+        long recordsWritten;
+        
+        @Label( "Records Failed" )
+        long recordsFailed;
+        
+    }
+    
+    /**
+     * The parser waiting for the source to refill its buffer.
+     * 
+     * @author Nerd4j Team
+     */
+    @Name( "org.nerd4j.csv.Refill" )
+    @Label( "CSV Buffer Refill" )
+    @Category( CATEGORY )
+    @Description( "The CSV parser waiting for the source to refill its buffer" )
+    @Threshold( "1 ms" )
+    static class RefillEvent extends Event
+    {
+        
+        @Label( "Characters" )
+        @DataAmount( DataAmount.BYTES )
+        int chars;
+        
+    }
+    
+    /**
+     * A burst of field errors.
+     * 
+     * @author Nerd4j Team
+     */
+    @Name( "org.nerd4j.csv.ErrorBurst" )
+    @Label( "CSV Error Burst" )
+    @Category( CATEGORY )
+    @Description( "Many CSV field errors within a short time" )
+    static class ErrorBurstEvent extends Event
+    {
+        
+        @Label( "Last Column" )
+        String column;
+        
+        @Label( "Last Operation" )
+        String operation;
+        
+        @Label( "Errors" )
+        int errors;
+        
+        @Label( "Window" )
+        @Timespan( Timespan.NANOSECONDS )
+        long window;
+        
+    }
+    
+}
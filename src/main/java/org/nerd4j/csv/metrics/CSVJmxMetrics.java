@@ -0,0 +1,680 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.nerd4j.csv.CSVProcessOperation;
+import org.nerd4j.csv.exception.CSVConfigurationException;
+
+
+/**
+ * Implementation of the {@link CSVMetrics} interface
+ * exposing the collected metrics through JMX.
+ * 
+ * <p>
+ * All the counters are {@link LongAdder}s so they
+ * can be updated concurrently without contention.
+ * The instance is registered into the platform
+ * {@link MBeanServer} with the name:
+ * <pre>
+ * org.nerd4j.csv:type=Metrics,name=&lt;name&gt;
+ * </pre>
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVJmxMetrics implements CSVMetrics, CSVJmxMetricsMXBean
+{
+    
+    /** The JMX domain of the metrics. */
+    public static final String DOMAIN = "org.nerd4j.csv";
+    
+    /** The default number of records between two timed records. */
+    public static final int DEFAULT_SAMPLING_INTERVAL = 64;
+    
+    /** The number of buckets of the latency histogram. */
+    private static final int BUCKETS = 40;
+    
+    /** The JMX name of the metrics. */
+    private final ObjectName objectName;
+    
+    /** The number of records between two timed records. */
+    private final int samplingInterval;
+    
+    /** The number of bytes read. */
+    private final LongAdder bytesRead;
+    
+    /** The number of characters read. */
+    private final LongAdder charsRead;
+    
+    /** The number of records read. */
+    private final LongAdder recordsRead;
+    
+    /** The number of fields read. */
+    private final LongAdder fieldsRead;
+    
+    /** The number of records failed. */
+    private final LongAdder recordsFailed;
+    
+    /** The number of records rejected by the filters. */
+    private final LongAdder recordsFiltered;
+    
+    /** The number of failures for each column and operation. */
+    private final ConcurrentMap<String,LongAdder> fieldErrors;
+    
+    /** The number of lookups in the string caches that returned a cached value. */
+    private final LongAdder stringCacheHits;
+    
+    /** The number of lookups in the string caches that created a new value. */
+    private final LongAdder stringCacheMisses;
+    
+    /** The number of records timed. */
+    private final LongAdder recordsTimed;
+    
+    /** The time spent parsing. */
+    private final LongAdder parseNanos;
+    
+    /** The time spent processing. */
+    private final LongAdder processNanos;
+    
+    /** The time spent binding. */
+    private final LongAdder bindNanos;
+    
+    /** The histogram of the reading time. */
+    private final LongAdder[] latency;
+    
+    /** The number of records written. */
+    private final LongAdder recordsWritten;
+    
+    /** The number of fields written. */
+    private final LongAdder fieldsWritten;
+    
+    /** The number of characters written. */
+    private final LongAdder charsWritten;
+    
+    /** The number of bytes written. */
+    private final LongAdder bytesWritten;
+    
+    /** The number of flushes. */
+    private final LongAdder flushes;
+    
+    /** The time spent flushing. */
+    private final LongAdder flushNanos;
+    
+    
+    /**
+     * Constructor with parameters.
+     * <p>
+     * A record every {@value #DEFAULT_SAMPLING_INTERVAL} is timed.
+     * 
+     * @param name the name of the metrics.
+     */
+    public CSVJmxMetrics( final String name )
+    {
+        
+        this( name, DEFAULT_SAMPLING_INTERVAL );
+        
+    }
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param name             the name of the metrics.
+     * @param samplingInterval the number of records between two timed records.
+     */
+    public CSVJmxMetrics( final String name, final int samplingInterval )
+    {
+        
+        super();
+        
+        if( name == null || name.isEmpty() )
+            throw new IllegalArgumentException( "The metrics name is mandatory" );
+        
+        if( samplingInterval < 1 )
+            throw new IllegalArgumentException( "The sampling interval must be positive" );
+        
+        try{
+            
+            this.objectName = new ObjectName( DOMAIN + ":type=Metrics,name=" + ObjectName.quote(name) );
+            
+        }catch( JMException ex )
+        {
+            throw new CSVConfigurationException( ex );
+        }
+        
+        this.samplingInterval = samplingInterval;
+        
+        this.bytesRead      = new LongAdder();
+        this.charsRead      = new LongAdder();
+        this.recordsRead    = new LongAdder();
+        this.fieldsRead     = new LongAdder();
+        this.recordsFailed  = new LongAdder();
+        this.recordsFiltered = new LongAdder();
+        this.fieldErrors    = new ConcurrentHashMap<String,LongAdder>();
+        this.stringCacheHits   = new LongAdder();
+        this.stringCacheMisses = new LongAdder();
+        this.recordsTimed   = new LongAdder();
+        this.parseNanos     = new LongAdder();
+        this.processNanos   = new LongAdder();
+        this.bindNanos      = new LongAdder();
+        this.recordsWritten = new LongAdder();
+        this.fieldsWritten  = new LongAdder();
+        this.charsWritten   = new LongAdder();
+        this.bytesWritten   = new LongAdder();
+        this.flushes        = new LongAdder();
+        this.flushNanos     = new LongAdder();
+        
+        this.latency = new LongAdder[BUCKETS];
+        for( int i = 0; i < BUCKETS; ++i )
+            this.latency[i] = new LongAdder();
+        
+    }
+    
+    
+    /* **************** */
+    /*  PUBLIC METHODS  */
+    /* **************** */
+    
+    
+    /**
+     * Registers the metrics into the platform {@link MBeanServer}.
+     * 
+     * @return this instance for concatenation.
+     * @throws CSVConfigurationException if the registration fails.
+     */
+    public CSVJmxMetrics register()
+    {
+        
+        try{
+            
+            ManagementFactory.getPlatformMBeanServer().registerMBean( this, objectName );
+            return this;
+            
+        }catch( JMException ex )
+        {
+            throw new CSVConfigurationException( ex );
+        }
+        
+    }
+    
+    /**
+     * Removes the metrics from the platform {@link MBeanServer}.
+     * 
+     */
+    public void unregister()
+    {
+        
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try{
+            
+            if( server.isRegistered(objectName) )
+                server.unregisterMBean( objectName );
+            
+        }catch( JMException ex )
+        {
+            throw new CSVConfigurationException( ex );
+        }
+        
+    }
+    
+    /**
+     * Returns the JMX name of the metrics.
+     * 
+     * @return the JMX name of the metrics.
+     */
+    public ObjectName getObjectName()
+    {
+        return objectName;
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSamplingInterval()
+    {
+        return samplingInterval;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void bytesRead( final int count )
+    {
+        bytesRead.add( count );
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void recordRead( final int chars, final int fields )
+    {
+        
+        recordsRead.increment();
+        charsRead.add( chars );
+        fieldsRead.add( fields );
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void recordFiltered()
+    {
+        
+        recordsFiltered.increment();
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void recordTimed( final long parseNanos, final long processNanos, final long bindNanos )
+    {
+        
+        recordsTimed.increment();
+        this.parseNanos.add( parseNanos );
+        this.processNanos.add( processNanos );
+        this.bindNanos.add( bindNanos );
+        
+        final long total = parseNanos + processNanos + bindNanos;
+        final int bucket = total > 0 ? 63 - Long.numberOfLeadingZeros( total ) : 0;
+        latency[Math.min(bucket, BUCKETS - 1)].increment();
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void fieldFailed( final String columnName, final CSVProcessOperation operation )
+    {
+        
+        recordsFailed.increment();
+        
+        String operationName = operation != null ? operation.getClass().getSimpleName() : "";
+        if( operationName.isEmpty() && operation != null )
+            operationName = operation.getClass().getName();
+        
+        final String key = columnName + ":" + operationName;
+        LongAdder counter = fieldErrors.get( key );
+        if( counter == null )
+            counter = fieldErrors.computeIfAbsent( key, k -> new LongAdder() );
+        
+        counter.increment();
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void stringCacheUsed( final String columnName, final long hits, final long misses )
+    {
+        
+        stringCacheHits.add( hits );
+        stringCacheMisses.add( misses );
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void recordWritten( final int fields )
+    {
+        
+        recordsWritten.increment();
+        fieldsWritten.add( fields );
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void charsWritten( final int count )
+    {
+        charsWritten.add( count );
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void bytesWritten( final int count )
+    {
+        bytesWritten.add( count );
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void flushed( final long nanos )
+    {
+        
+        flushes.increment();
+        flushNanos.add( nanos );
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getBytesRead()
+    {
+        return bytesRead.sum();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getCharsRead()
+    {
+        return charsRead.sum();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getRecordsRead()
+    {
+        return recordsRead.sum();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getFieldsRead()
+    {
+        return fieldsRead.sum();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getRecordsFailed()
+    {
+        return recordsFailed.sum();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getRecordsFiltered()
+    {
+        return recordsFiltered.sum();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String,Long> getFieldErrors()
+    {
+        
+        final Map<String,Long> errors = new TreeMap<String,Long>();
+        for( Map.Entry<String,LongAdder> entry : fieldErrors.entrySet() )
+            errors.put( entry.getKey(), entry.getValue().sum() );
+        
+        return errors;
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getStringCacheHits()
+    {
+        return stringCacheHits.sum();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getStringCacheMisses()
+    {
+        return stringCacheMisses.sum();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getRecordsTimed()
+    {
+        return recordsTimed.sum();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getParseNanos()
+    {
+        return parseNanos.sum();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getProcessNanos()
+    {
+        return processNanos.sum();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getBindNanos()
+    {
+        return bindNanos.sum();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long[] getRecordLatencyHistogram()
+    {
+        
+        final long[] histogram = new long[BUCKETS];
+        for( int i = 0; i < BUCKETS; ++i )
+            histogram[i] = latency[i].sum();
+        
+        return histogram;
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getRecordLatencyP50()
+    {
+        return getRecordLatencyPercentile( 0.5 );
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getRecordLatencyP99()
+    {
+        return getRecordLatencyPercentile( 0.99 );
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getRecordsWritten()
+    {
+        return recordsWritten.sum();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getFieldsWritten()
+    {
+        return fieldsWritten.sum();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getCharsWritten()
+    {
+        return charsWritten.sum();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getBytesWritten()
+    {
+        return bytesWritten.sum();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getFlushes()
+    {
+        return flushes.sum();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getFlushNanos()
+    {
+        return flushNanos.sum();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset()
+    {
+        
+        bytesRead.reset();
+        charsRead.reset();
+        recordsRead.reset();
+        fieldsRead.reset();
+        recordsFailed.reset();
+        recordsFiltered.reset();
+        stringCacheHits.reset();
+        stringCacheMisses.reset();
+        fieldErrors.clear();
+        recordsTimed.reset();
+        parseNanos.reset();
+        processNanos.reset();
+        bindNanos.reset();
+        recordsWritten.reset();
+        fieldsWritten.reset();
+        charsWritten.reset();
+        bytesWritten.reset();
+        flushes.reset();
+        flushNanos.reset();
+        
+        for( LongAdder bucket : latency )
+            bucket.reset();
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Returns the upper bound of the histogram bucket
+     * containing the given percentile.
+     * 
+     * @param percentile the percentile in the interval [0,1].
+     * @return the upper bound of the related bucket in nanoseconds.
+     */
+    private long getRecordLatencyPercentile( final double percentile )
+    {
+        
+        final long[] histogram = getRecordLatencyHistogram();
+        
+        long total = 0;
+        for( long count : histogram )
+            total += count;
+        
+        if( total == 0 )
+            return 0;
+        
+        final long rank = (long) Math.ceil( total * percentile );
+        long count = 0;
+        for( int i = 0; i < histogram.length; ++i )
+        {
+            count += histogram[i];
+            if( count >= rank )
+                return (1L << (i + 1)) - 1;
+        }
+        
+        return Long.MAX_VALUE;
+        
+    }
+    
+}
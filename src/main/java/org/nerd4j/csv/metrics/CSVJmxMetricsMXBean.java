@@ -0,0 +1,206 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.metrics;
+
+import java.util.Map;
+
+
+/**
+ * Management interface of the {@link CSVJmxMetrics}.
+ * 
+ * @author Nerd4j Team
+ */
+public interface CSVJmxMetricsMXBean
+{
+    
+    /**
+     * Returns the number of bytes read.
+     * 
+     * @return the number of bytes read.
+     */
+    public long getBytesRead();
+    
+    /**
+     * Returns the number of characters read.
+     * 
+     * @return the number of characters read.
+     */
+    public long getCharsRead();
+    
+    /**
+     * Returns the number of records read.
+     * 
+     * @return the number of records read.
+     */
+    public long getRecordsRead();
+    
+    /**
+     * Returns the number of fields read.
+     * 
+     * @return the number of fields read.
+     */
+    public long getFieldsRead();
+    
+    /**
+     * Returns the number of records failed to be processed.
+     * 
+     * @return the number of records failed.
+     */
+    public long getRecordsFailed();
+    
+    /**
+     * Returns the number of records rejected by the filters.
+     * 
+     * @return the number of records filtered.
+     */
+    public long getRecordsFiltered();
+    
+    /**
+     * Returns the number of failures for each column and operation,
+     * the keys have the form {@code column:operation}.
+     * 
+     * @return the number of failures for each column and operation.
+     */
+    public Map<String,Long> getFieldErrors();
+    
+    /**
+     * Returns the number of lookups in the string caches of the
+     * deduplicated columns that returned a cached value.
+     * <p>
+     * The lookups are counted when the readers are closed.
+     * 
+     * @return the number of string cache hits.
+     */
+    public long getStringCacheHits();
+    
+    /**
+     * Returns the number of lookups in the string caches of the
+     * deduplicated columns that created a new value.
+     * <p>
+     * The lookups are counted when the readers are closed.
+     * 
+     * @return the number of string cache misses.
+     */
+    public long getStringCacheMisses();
+    
+    /**
+     * Returns the number of records timed.
+     * 
+     * @return the number of records timed.
+     */
+    public long getRecordsTimed();
+    
+    /**
+     * Returns the time spent parsing the timed records.
+     * 
+     * @return the time spent parsing in nanoseconds.
+     */
+    public long getParseNanos();
+    
+    /**
+     * Returns the time spent processing the fields of the timed records.
+     * 
+     * @return the time spent processing in nanoseconds.
+     */
+    public long getProcessNanos();
+    
+    /**
+     * Returns the time spent binding the values of the timed records.
+     * 
+     * @return the time spent binding in nanoseconds.
+     */
+    public long getBindNanos();
+    
+    /**
+     * Returns the histogram of the time spent reading the timed records.
+     * <p>
+     * The element {@code i} contains the number of records read in
+     * a time between <code>2<sup>i</sup></code> (inclusive) and
+     * <code>2<sup>i+1</sup></code> (exclusive) nanoseconds.
+     * 
+     * @return the histogram of the reading time.
+     */
+    public long[] getRecordLatencyHistogram();
+    
+    /**
+     * Returns the median time spent reading a record.
+     * 
+     * @return the median time in nanoseconds.
+     */
+    public long getRecordLatencyP50();
+    
+    /**
+     * Returns the 99th percentile of the time spent reading a record.
+     * 
+     * @return the 99th percentile in nanoseconds.
+     */
+    public long getRecordLatencyP99();
+    
+    /**
+     * Returns the number of records written.
+     * 
+     * @return the number of records written.
+     */
+    public long getRecordsWritten();
+    
+    /**
+     * Returns the number of fields written.
+     * 
+     * @return the number of fields written.
+     */
+    public long getFieldsWritten();
+    
+    /**
+     * Returns the number of characters written.
+     * 
+     * @return the number of characters written.
+     */
+    public long getCharsWritten();
+    
+    /**
+     * Returns the number of bytes written.
+     * 
+     * @return the number of bytes written.
+     */
+    public long getBytesWritten();
+    
+    /**
+     * Returns the number of flushes.
+     * 
+     * @return the number of flushes.
+     */
+    public long getFlushes();
+    
+    /**
+     * Returns the time spent flushing.
+     * 
+     * @return the time spent flushing in nanoseconds.
+     */
+    public long getFlushNanos();
+    
+    /**
+     * Resets all the metrics.
+     * 
+     */
+    public void reset();
+    
+}
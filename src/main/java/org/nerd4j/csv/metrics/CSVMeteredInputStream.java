@@ -0,0 +1,111 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.metrics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+
+/**
+ * {@link InputStream} that notifies to the given
+ * {@link CSVMetrics} the number of bytes read.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVMeteredInputStream extends FilterInputStream
+{
+    
+    /** The metrics to notify. */
+    private final CSVMetrics metrics;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param in      the underlying input stream.
+     * @param metrics the metrics to notify.
+     */
+    public CSVMeteredInputStream( final InputStream in, final CSVMetrics metrics )
+    {
+        
+        super( in );
+        
+        if( metrics == null )
+            throw new NullPointerException( "The metrics are mandatory and can't be null" );
+        
+        this.metrics = metrics;
+        
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read() throws IOException
+    {
+        
+        final int read = super.read();
+        if( read >= 0 )
+            metrics.bytesRead( 1 );
+        
+        return read;
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read( final byte[] b, final int off, final int len ) throws IOException
+    {
+        
+        final int read = super.read( b, off, len );
+        if( read > 0 )
+            metrics.bytesRead( read );
+        
+        return read;
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long skip( final long n ) throws IOException
+    {
+        
+        final long skipped = super.skip( n );
+        if( skipped > 0 )
+            metrics.bytesRead( (int) Math.min(skipped, Integer.MAX_VALUE) );
+        
+        return skipped;
+        
+    }
+    
+}
@@ -0,0 +1,91 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.metrics;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+
+/**
+ * {@link OutputStream} that notifies to the given
+ * {@link CSVMetrics} the number of bytes written.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVMeteredOutputStream extends FilterOutputStream
+{
+    
+    /** The metrics to notify. */
+    private final CSVMetrics metrics;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param out     the underlying output stream.
+     * @param metrics the metrics to notify.
+     */
+    public CSVMeteredOutputStream( final OutputStream out, final CSVMetrics metrics )
+    {
+        
+        super( out );
+        
+        if( metrics == null )
+            throw new NullPointerException( "The metrics are mandatory and can't be null" );
+        
+        this.metrics = metrics;
+        
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write( final int b ) throws IOException
+    {
+        
+        out.write( b );
+        metrics.bytesWritten( 1 );
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write( final byte[] b, final int off, final int len ) throws IOException
+    {
+        
+        /* The super class would write one byte at time. */
+        out.write( b, off, len );
+        metrics.bytesWritten( len );
+        
+    }
+    
+}
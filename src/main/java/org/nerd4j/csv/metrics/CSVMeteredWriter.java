@@ -0,0 +1,115 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.metrics;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+
+/**
+ * {@link Writer} that notifies to the given {@link CSVMetrics}
+ * the number of characters written and the time spent flushing.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVMeteredWriter extends FilterWriter
+{
+    
+    /** The metrics to notify. */
+    private final CSVMetrics metrics;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param out     the underlying writer.
+     * @param metrics the metrics to notify.
+     */
+    public CSVMeteredWriter( final Writer out, final CSVMetrics metrics )
+    {
+        
+        super( out );
+        
+        if( metrics == null )
+            throw new NullPointerException( "The metrics are mandatory and can't be null" );
+        
+        this.metrics = metrics;
+        
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write( final int c ) throws IOException
+    {
+        
+        out.write( c );
+        metrics.charsWritten( 1 );
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write( final char[] cbuf, final int off, final int len ) throws IOException
+    {
+        
+        out.write( cbuf, off, len );
+        metrics.charsWritten( len );
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write( final String str, final int off, final int len ) throws IOException
+    {
+        
+        out.write( str, off, len );
+        metrics.charsWritten( len );
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void flush() throws IOException
+    {
+        
+        final long start = System.nanoTime();
+        out.flush();
+        metrics.flushed( System.nanoTime() - start );
+        
+    }
+    
+}
@@ -0,0 +1,153 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.metrics;
+
+import org.nerd4j.csv.CSVProcessOperation;
+
+
+/**
+ * Represents a collector of metrics about the
+ * CSV {@link org.nerd4j.csv.reader.CSVReader readers}
+ * and {@link org.nerd4j.csv.writer.CSVWriter writers}.
+ * 
+ * <p>
+ * The metrics are opt-in: they are collected only by the readers
+ * and writers created by a factory where an instance of this
+ * interface has been set. The same instance is shared by all
+ * such readers and writers, so the implementations must be
+ * thread safe and should be as cheap as possible because
+ * they are invoked for each record.
+ * 
+ * <p>
+ * The time spent reading a record is measured only for
+ * one record every {@link #getSamplingInterval()} records.
+ * 
+ * @author Nerd4j Team
+ */
+public interface CSVMetrics
+{
+    
+    /**
+     * Returns the number of records between two timed records.
+     * <p>
+     * The value is rounded up to the next power of two,
+     * {@code 1} means that all the records are timed.
+     * 
+     * @return the number of records between two timed records.
+     */
+    public int getSamplingInterval();
+    
+    /**
+     * Invoked when some bytes have been read from the CSV source.
+     * <p>
+     * The bytes are counted only if the source is
+     * provided as a file or an input stream.
+     * 
+     * @param count the number of bytes read.
+     */
+    public void bytesRead( int count );
+    
+    /**
+     * Invoked when a record has been read, either
+     * successfully or not.
+     * 
+     * @param chars  the number of characters of the record.
+     * @param fields the number of fields of the record.
+     */
+    public void recordRead( int chars, int fields );
+    
+    /**
+     * Invoked when a record has been read and rejected by the
+     * {@link org.nerd4j.csv.reader.CSVRowFilter filter} of the reader.
+     * <p>
+     * Such records are notified also by {@link #recordRead(int, int)}.
+     */
+    public void recordFiltered();
+    
+    /**
+     * Invoked when a sampled record has been read.
+     * <p>
+     * The time needed to read the record is split into the
+     * time spent parsing the CSV source, the time spent
+     * processing the fields and the time spent binding
+     * the values to the data model.
+     * 
+     * @param parseNanos   the time spent parsing the record.
+     * @param processNanos the time spent processing the fields.
+     * @param bindNanos    the time spent binding the values.
+     */
+    public void recordTimed( long parseNanos, long processNanos, long bindNanos );
+    
+    /**
+     * Invoked when the process of a field fails.
+     * 
+     * @param columnName the name of the failed column.
+     * @param operation  the failed operation.
+     */
+    public void fieldFailed( String columnName, CSVProcessOperation operation );
+    
+    /**
+     * Invoked when a reader is closed for each column
+     * deduplicated by a {@link org.nerd4j.csv.field.CSVStringCache}.
+     * <p>
+     * Each reader has its own caches, so the lookups
+     * refer only to the values read by such reader.
+     * 
+     * @param columnName the name of the deduplicated column.
+     * @param hits       the number of lookups that returned a cached value.
+     * @param misses     the number of lookups that created a new value.
+     */
+    public void stringCacheUsed( String columnName, long hits, long misses );
+    
+    /**
+     * Invoked when a record has been written.
+     * 
+     * @param fields the number of fields of the record.
+     */
+    public void recordWritten( int fields );
+    
+    /**
+     * Invoked when some characters have been written
+     * to the CSV destination.
+     * 
+     * @param count the number of characters written.
+     */
+    public void charsWritten( int count );
+    
+    /**
+     * Invoked when some bytes have been written to the CSV destination.
+     * <p>
+     * The bytes are counted only if the destination is
+     * provided as a file or an output stream.
+     * 
+     * @param count the number of bytes written.
+     */
+    public void bytesWritten( int count );
+    
+    /**
+     * Invoked when the CSV destination has been flushed.
+     * 
+     * @param nanos the time spent flushing.
+     */
+    public void flushed( long nanos );
+    
+}
@@ -23,6 +23,7 @@ package org.nerd4j.csv.parser;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.Writer;
 
 
 /**
@@ -62,6 +63,105 @@ public interface CSVParser extends Closeable
 	 */
 	public String getCurrentValue();
 	
+	/**
+	 * Returns a view over the characters of the last read field.
+	 * <p>
+	 * The view allows to inspect the field content without creating
+	 * a new {@link String}. It is bound to the parser internal state,
+	 * so its content changes on each call to {@link #read()} or
+	 * {@link #skip()}. If the current token isn't {@link CSVToken#FIELD}
+	 * or the field is empty the view has length {@code 0}.
+	 * <p>
+	 * By default the view is the {@link String} returned by
+	 * {@link #getCurrentValue()}, the parsers able to expose
+	 * their internal buffer are expected to override this method.
+	 * 
+	 * @return a view over the characters of the last read field.
+	 */
+	default CharSequence getCurrentChars()
+	{
+		
+		final String value = getCurrentValue();
+		return value != null ? value : "";
+		
+	}
+	
+	/**
+	 * Returns the number of characters of the CSV source consumed
+	 * so far. After a {@link CSVToken#END_OF_RECORD} it is the position
+	 * of the first character of the next record.
+	 * <p>
+	 * By default the position is not tracked and this
+	 * method throws an {@link UnsupportedOperationException}.
+	 * 
+	 * @return the number of characters consumed.
+	 * @throws UnsupportedOperationException if the parser does not track the position.
+	 */
+	default long getCharPosition()
+	{
+		
+		throw new UnsupportedOperationException( getClass().getName() + " does not track the character position" );
+		
+	}
+	
+	/**
+	 * Returns the number of fields read or skipped so far.
+	 * <p>
+	 * By default the fields are not counted and this
+	 * method throws an {@link UnsupportedOperationException}.
+	 * 
+	 * @return the number of fields consumed.
+	 * @throws UnsupportedOperationException if the parser does not count the fields.
+	 */
+	default long getFieldCount()
+	{
+		
+		throw new UnsupportedOperationException( getClass().getName() + " does not count the fields" );
+		
+	}
+	
+	/**
+	 * Enables or disables the capture of the raw records.
+	 * <p>
+	 * When enabled, the parser keeps the characters of the current record
+	 * so that they can be returned by {@link #getCurrentRecord()}. The
+	 * capture starts from the current position, so it should be enabled
+	 * at the beginning of a record.
+	 * <p>
+	 * By default the capture is not supported: disabling it has
+	 * no effect, enabling it throws an {@link UnsupportedOperationException}.
+	 * 
+	 * @param capture tells if to capture the raw records.
+	 * @throws UnsupportedOperationException if the parser does not support the capture.
+	 */
+	default void setRecordCapture( boolean capture )
+	{
+		
+		if( capture )
+			throw new UnsupportedOperationException( getClass().getName() + " does not capture the raw records" );
+		
+	}
+	
+	/**
+	 * Returns the raw characters of the current record, without the
+	 * record separator, if the capture is enabled.
+	 * <p>
+	 * After a {@link CSVToken#END_OF_RECORD} the whole record is returned,
+	 * otherwise the characters read so far. The record is replaced when
+	 * the first field of the next record is read.
+	 * <p>
+	 * By default the capture is not supported and this
+	 * method always returns {@code null}.
+	 * 
+	 * @return the raw current record or {@code null} if the capture is disabled.
+	 */
+	default String getCurrentRecord()
+	{
+		
+		return null;
+		
+	}
+	
 	/**
 	 * Read the next {@link CSVToken} and returns it. The result
 	 * {@link CSVToken} will be returned from {@link #getCurrentToken()} too.
@@ -82,4 +182,39 @@ public interface CSVParser extends Closeable
 	 */
 	public CSVToken skip() throws IOException;
 	
+	/**
+	 * Read the next {@link CSVToken} and returns it. The result
+	 * {@link CSVToken} will be returned from {@link #getCurrentToken()} too.
+	 * <p>
+	 * If the token is a {@link CSVToken#FIELD} its content is written to the
+	 * given {@link Writer} in chunks while parsing, instead of
+	 * being kept in memory. This allows to handle fields too large to be kept
+	 * as a {@link String}. The method {@link #getCurrentValue()} won't return
+	 * any value.
+	 * <p>
+	 * The configured size limits are enforced anyway.
+	 * <p>
+	 * By default the field is read by {@link #read()} and then written
+	 * to the given {@link Writer}, so it is kept in memory and also
+	 * returned by {@link #getCurrentValue()}. The parsers able to
+	 * stream the fields are expected to override this method.
+	 * 
+	 * @param writer the writer to stream the field content to.
+	 * @return next read {@link CSVToken}.
+	 * @throws IOException if an error occurs while parsing data.
+	 */
+	default CSVToken readTo( Writer writer ) throws IOException
+	{
+		
+		if( writer == null )
+			throw new NullPointerException( "The writer to stream the field to is mandatory" );
+		
+		final CSVToken token = read();
+		if( token == CSVToken.FIELD && getCurrentValue() != null )
+			writer.write( getCurrentValue() );
+		
+		return token;
+		
+	}
+	
 }
\ No newline at end of file
@@ -58,6 +58,15 @@ public final class CSVParserFactory
 	/** Sequence of characters that represents a record separator. */
 	private final char[] recordSeparatorSequence;
 	
+	/** The characters that can be the last one of a record separator. */
+	private final char[] recordEnds;
+	
+	/** Maximum number of characters of a field, {@code 0} means no limit. */
+	private final int maxFieldSize;
+	
+	/** Maximum number of characters of a record, {@code 0} means no limit. */
+	private final int maxRecordSize;
+	
 	
 	/* ******************** */
 	/* *** CONSTRUCTORS *** */
@@ -85,6 +94,8 @@ public final class CSVParserFactory
 	{
 	    
 		this.strictQuotes = configuration.isStrictQuotes();
+		this.maxFieldSize = configuration.getMaxFieldSize();
+		this.maxRecordSize = configuration.getMaxRecordSize();
 	    this.asciiCharClasses = new int[ RemarkableASCII.ASCII_TABLE_SIZE ];
 
 	    for( char toIgnoreAround : configuration.getCharsToIgnoreAroundFields() )
@@ -101,6 +112,9 @@ public final class CSVParserFactory
 	    	addCharClass( recordSeparator, CharacterClass.RECORD_SEPARATOR, "RECORD SEPARATOR", true );
 	    
 	    this.recordSeparatorSequence = configuration.isMatchRecordSeparatorExactSequence() ? recordSeparators : null;
+	    this.recordEnds = recordSeparatorSequence != null
+	    		        ? new char[] { recordSeparators[recordSeparators.length - 1] }
+	                    : recordSeparators.clone();
 	    
 	    addCharClass( configuration.getQuoteChar(), CharacterClass.QUOTE, "QUOTE", true );
 	    addCharClass( configuration.getEscapeChar(), CharacterClass.ESCAPE, "ESCAPE", false );
@@ -128,7 +142,77 @@ public final class CSVParserFactory
 		 * We don't need a buffered reader, the parser
 		 * already handles his reading buffer.
 		 */
-		return new CSVParserImpl( reader, asciiCharClasses, recordSeparatorSequence, strictQuotes );
+		return create( reader, false );
+		
+	}
+	
+	/**
+	 * Create a new {@link CSVParser} to read data from given {@link Reader}.
+	 * <p>
+	 * A live source is a {@link Reader} that blocks waiting for new data
+	 * to be written and reports by {@link Reader#ready()} if some data
+	 * can be read without blocking. In this case the parser will not wait
+	 * for the following data once a record is complete.
+	 * 
+	 * @param reader CSV data source.
+	 * @param live   tells if the given reader is a live source.
+	 * @return the new created CSV parser.
+	 */
+	public CSVParser create( final Reader reader, final boolean live )
+	{
+		
+		/*
+		 * We don't need a buffered reader, the parser
+		 * already handles his reading buffer.
+		 */
+		return create( reader, live, true );
+		
+	}
+	
+	/**
+	 * Create a new {@link CSVParser} to read data from given {@link Reader}.
+	 * <p>
+	 * The parsing loop specialised for the plain dialects can be
+	 * disabled to compare it with the generic one.
+	 * 
+	 * @param reader     CSV data source.
+	 * @param live       tells if the given reader is a live source.
+	 * @param specialise tells if to use the specialised parsing loop when possible.
+	 * @return the new created CSV parser.
+	 */
+	CSVParser create( final Reader reader, final boolean live, final boolean specialise )
+	{
+		
+		return new CSVParserImpl( reader, asciiCharClasses, recordSeparatorSequence, strictQuotes,
+				                  live, specialise, maxFieldSize, maxRecordSize );
+		
+	}
+	
+	/**
+	 * Returns the characters that can be the last one of a record separator.
+	 * <p>
+	 * If the record separator must match the exact sequence this is the
+	 * last character of the sequence, otherwise each record separator
+	 * character ends a record by itself.
+	 * 
+	 * @return the characters that can end a record separator.
+	 */
+	public char[] getRecordEnds()
+	{
+		
+		return recordEnds.clone();
+		
+	}
+	
+	/**
+	 * Returns the sequence of characters that represents a record separator.
+	 * 
+	 * @return the record separator sequence, {@code null} if each record separator character ends a record by itself.
+	 */
+	public char[] getRecordSeparatorSequence()
+	{
+		
+		return recordSeparatorSequence != null ? recordSeparatorSequence.clone() : null;
 		
 	}
 	
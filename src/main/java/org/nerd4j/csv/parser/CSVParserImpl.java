@@ -23,11 +23,13 @@ package org.nerd4j.csv.parser;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.io.Writer;
 import java.util.LinkedList;
 import java.util.Queue;
 
 import org.nerd4j.csv.RemarkableASCII;
 import org.nerd4j.csv.exception.MalformedCSVException;
+import org.nerd4j.csv.metrics.CSVFlightRecorder;
 import org.nerd4j.csv.parser.CSVParserFactory.CharacterClass;
 
 /**
@@ -37,6 +39,18 @@ import org.nerd4j.csv.parser.CSVParserFactory.CharacterClass;
  * <p>
  * After usage it should be closed to permit resource release.
  * 
+ * <p>
+ * If the dialect has no escape character, no characters to ignore
+ * and matches any record separator character, the fields are parsed
+ * by a loop specialised for such dialect. Such loop has no branches
+ * for the unused character classes and consumes the runs of ordinary
+ * characters without classifying each of them.
+ * 
+ * <p>
+ * If the size of the fields or of the records is limited, the parsing
+ * fails as soon as the limit is exceeded. The sizes are measured in
+ * characters of the CSV source, including quotes and escapes.
+ * 
  * <h3>Synchronization</h3>
  * <p>
  * CSV parsers are not synchronized.
@@ -52,6 +66,9 @@ final class CSVParserImpl implements CSVParser
 	/** Size of {@link #buffer reading char buffer}, 8MB. */
 	private static final int BUFFER_SIZE = 1024 * 1024 * 8;
 	
+	/** Number of characters read between two writes when streaming a field, 8K. */
+	private static final int STREAM_CHUNK_SIZE = 1024 * 8;
+	
 	/** {@link CharacterClass} mappings from {@link #characterConfiguration}. */
 	private final int[] types;
 	
@@ -73,6 +90,21 @@ final class CSVParserImpl implements CSVParser
 	/** The strategy to use in case a record separator character is read. */
 	private final RecordSeparatorStrategy recordSeparatorStrategy;
 	
+	/** Tells if to use the parsing loop specialised for the plain dialects. */
+	private final boolean plain;
+	
+	/** The greatest character having a special meaning, any following character is normal. */
+	private final char maxSpecialChar;
+	
+	/** The character used to quote fields. */
+	private final char quoteChar;
+	
+	/** Maximum number of characters of a field. */
+	private final long maxFieldSize;
+	
+	/** Maximum number of characters of a record. */
+	private final long maxRecordSize;
+	
 	/** Next character to be read from the {@link #buffer reading char buffer}. */
 	private int bufferIndex;
 	
@@ -83,6 +115,27 @@ final class CSVParserImpl implements CSVParser
 	 */
 	private int bufferElements;
 	
+	/** Number of characters read before the current {@link #buffer} content. */
+	private long bufferOffset;
+	
+	/** Tells if the {@link #reader} is a live source that blocks waiting for new data. */
+	private final boolean live;
+	
+	/**
+	 * The characters of the current record no longer in the {@link #buffer},
+	 * {@code null} if the capture of the raw records is disabled.
+	 */
+	private StringBuilder record;
+	
+	/** The number of fields read or skipped so far. */
+	private long fieldCount;
+	
+	/** The position of the first character of the current record. */
+	private long recordStart;
+	
+	/** The position of the record separator ending the current record, {@code -1} if not ended. */
+	private long recordEnd;
+	
 	/** Last read field termination reason. */
 	private FieldEndReason previousFieldEndReason;
 	
@@ -92,12 +145,37 @@ final class CSVParserImpl implements CSVParser
 	/**
 	 * Current token value, if any. As string to avoid to invoke
 	 * {@link FieldBuilder#toString()} multiple times.
+	 * The value is built on demand by {@link #getCurrentValue()}.
 	 */
 	private String value;
+	
+	/** Tells if the {@link #value} has been built from the {@link #builder}. */
+	private boolean valueReady;
+	
+	/** View over the characters of the current field. */
+	private final CharSequence currentChars;
 
 	/** Counts the actually read characters. */
 	private int charCount;
 	
+	/** The position of the first character of the current field. */
+	private long fieldStart;
+	
+	/** The position of the first character of the record containing the current field. */
+	private long recordPosition;
+	
+	/** Maximum number of characters of the current field to respect both the size limits. */
+	private long fieldLimit;
+	
+	/** Value of {@link #charCount} beyond which {@link #checkpoint(boolean)} has to be called. */
+	private int checkpoint;
+	
+	/** Writer the current field is streamed to, {@code null} if the field is kept in memory. */
+	private Writer fieldWriter;
+	
+	/** Number of characters of the current field already written to the {@link #fieldWriter}. */
+	private long fieldFlushed;
+	
 	/**
 	 * Next read tokens, if any. Needed when a field terminates with a record
 	 * separator or a end of data.
@@ -116,32 +194,111 @@ final class CSVParserImpl implements CSVParser
 	 * @param types  character classes configuration.
 	 * @param recordSeparator the record separator sequence.
 	 * @param strictQuotes tells to handle quotes escaping strictly.
+	 * @param live tells if the reader is a live source that blocks waiting for new data.
+	 */
+	CSVParserImpl( final Reader reader, final int[] types, final char[] recordSeparator, boolean strictQuotes, boolean live )
+	{
+		
+		this( reader, types, recordSeparator, strictQuotes, live, true, 0, 0 );
+		
+	}
+	
+	/**
+	 * Create a new {@link CSVParserImpl} with the given character configuration.
+	 * 
+	 * @param reader CSV data source.
+	 * @param types  character classes configuration.
+	 * @param recordSeparator the record separator sequence.
+	 * @param strictQuotes tells to handle quotes escaping strictly.
+	 * @param live tells if the reader is a live source that blocks waiting for new data.
+	 * @param specialise tells if to use the specialised parsing loop when the dialect allows it.
+	 * @param maxFieldSize maximum number of characters of a field, {@code 0} means no limit.
+	 * @param maxRecordSize maximum number of characters of a record, {@code 0} means no limit.
 	 */
-	CSVParserImpl( final Reader reader, final int[] types, final char[] recordSeparator, boolean strictQuotes )
+	CSVParserImpl( final Reader reader, final int[] types, final char[] recordSeparator,
+			       boolean strictQuotes, boolean live, boolean specialise,
+			       int maxFieldSize, int maxRecordSize )
 	{
 		
 		this.reader = reader;
+		this.live = live;
 		
 		this.types = types;
 		this.strictQuotes = strictQuotes ;
 		
 		this.nexts = new LinkedList<CSVToken>();
 
+		this.bufferOffset = 0;
 		this.bufferElements  = 0;
 		this.bufferIndex = BUFFER_SIZE;
 		this.buffer = new char[ BUFFER_SIZE ];
 		
 		this.token = null;
 		this.value = null;
+		this.valueReady = true;
+		
+		this.fieldCount = 0;
+		this.record = null;
+		this.recordStart = 0;
+		this.recordEnd = -1;
 		
 		this.charCount = 0;		
+		this.fieldStart = 0;
+		this.recordPosition = 0;
+		this.fieldLimit = 0;
+		this.checkpoint = 0;
+		this.fieldWriter = null;
+		this.fieldFlushed = 0;
+		
+		/* The limits are checked only against the field size, without limits it is never exceeded. */
+		this.maxFieldSize = maxFieldSize > 0 ? maxFieldSize : Integer.MAX_VALUE;
+		this.maxRecordSize = maxRecordSize > 0 ? maxRecordSize : Long.MAX_VALUE;
+		
 		this.builder = new FieldBuilderImpl( 1024 );
+		this.currentChars = new CurrentChars();
 		this.previousFieldEndReason = FieldEndReason.UNKNOWN;
 		
 		this.recordSeparatorStrategy = recordSeparator != null && recordSeparator.length > 0
 				                     ? new MatchSeparatorSequenceStrategy( recordSeparator )
 									 : new MatchAnySeparatorCharStrategy();
 		
+		/*
+		 * The specialised loop can be used only if the dialect doesn't
+		 * use the character classes it doesn't handle. It keeps a single
+		 * quote character so the dialects with more quotes are excluded.
+		 */
+		boolean plainDialect = specialise && recordSeparatorStrategy instanceof MatchAnySeparatorCharStrategy;
+		
+		char maxSpecial = 0;
+		char quote = 0;
+		int quotes = 0;
+		for( char c = 0; c < types.length; ++c )
+			switch( types[c] )
+			{
+				
+				case CharacterClass.NORMAL:
+					break;
+					
+				case CharacterClass.ESCAPE:
+				case CharacterClass.TO_IGNORE:
+					plainDialect = false;
+					maxSpecial = c;
+					break;
+					
+				case CharacterClass.QUOTE:
+					if( ++quotes > 1 ) plainDialect = false;
+					quote = c;
+					/* falls through */
+					
+				default:
+					maxSpecial = c;
+					
+			}
+		
+		this.plain = plainDialect;
+		this.maxSpecialChar = maxSpecial;
+		this.quoteChar = quote;
+		
 	}
 	
 	
@@ -168,10 +325,100 @@ final class CSVParserImpl implements CSVParser
 	public String getCurrentValue()
 	{
 		
+		/*
+		 * The field content is kept in the builder until the
+		 * next read, so the string is created only if needed.
+		 */
+		if( ! valueReady )
+		{
+			value = builder.toString();
+			valueReady = true;
+		}
+		
 		return value;
 		
 	}
 	
+	/**
+     * {@inheritDoc}
+     */
+    @Override
+	public CharSequence getCurrentChars()
+	{
+		
+		return currentChars;
+		
+	}
+	
+	/**
+     * {@inheritDoc}
+     */
+    @Override
+	public long getCharPosition()
+	{
+		
+		return bufferElements > 0 ? bufferOffset + bufferIndex : bufferOffset;
+		
+	}
+	
+	/**
+     * {@inheritDoc}
+     */
+    @Override
+	public long getFieldCount()
+	{
+		
+		return fieldCount;
+		
+	}
+	
+	/**
+     * {@inheritDoc}
+     */
+    @Override
+	public void setRecordCapture( final boolean capture )
+	{
+		
+		if( ! capture )
+			record = null;
+		
+		else if( record == null )
+		{
+			record = new StringBuilder( 256 );
+			recordStart = getCharPosition();
+			recordEnd = -1;
+		}
+		
+	}
+	
+	/**
+     * {@inheritDoc}
+     */
+    @Override
+	public String getCurrentRecord()
+	{
+		
+		if( record == null )
+			return null;
+		
+		final long end = recordEnd >= 0 ? recordEnd : getCharPosition();
+		final int length = (int) (end - recordStart);
+		
+		/*
+		 * The characters of the record are partly kept in the record
+		 * builder and partly in the buffer: the builder contains the
+		 * characters before the beginning of the buffer.
+		 */
+		if( length <= record.length() )
+			return record.substring( 0, Math.max(length, 0) );
+		
+		final int from = (int) Math.max( recordStart - bufferOffset, 0 );
+		return new StringBuilder( length ).append( record )
+				                          .append( buffer, from, length - record.length() )
+				                          .toString();
+		
+	}
+	
     /**
      * {@inheritDoc}
      */
@@ -180,7 +427,10 @@ final class CSVParserImpl implements CSVParser
 	{
 		
 		/* Evaluate and return current token. */
-		return token = readField( true );
+		token = readField( true );
+		if( token == CSVToken.FIELD ) ++fieldCount;
+		
+		return token;
 		
 	}
 	
@@ -192,7 +442,45 @@ final class CSVParserImpl implements CSVParser
 	{
 		
 		/* Evaluate and return current token (dummy field builder). */
-		return token = readField( false );
+		token = readField( false );
+		if( token == CSVToken.FIELD ) ++fieldCount;
+		
+		return token;
+		
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CSVToken readTo( final Writer writer ) throws IOException
+	{
+		
+		if( writer == null )
+			throw new NullPointerException( "The writer to stream the field to is mandatory" );
+		
+		/* The field is written to the given writer while parsing. */
+		fieldWriter = writer;
+		try{
+			
+			token = readField( true );
+			if( token == CSVToken.FIELD )
+			{
+				builder.writeTo( writer );
+				builder.clear();
+				++fieldCount;
+			}
+			
+		}finally
+		{
+			fieldWriter = null;
+		}
+		
+		/* The field content is no longer available. */
+		value = null;
+		valueReady = true;
+		
+		return token;
 		
 	}
 	
@@ -208,6 +496,8 @@ final class CSVParserImpl implements CSVParser
 		
 		token = null;
 		value = null;
+		valueReady = true;
+		builder.clear();
 		
 	}
 	
@@ -277,6 +567,38 @@ final class CSVParserImpl implements CSVParser
 		
 	}
 	
+	/**
+	 * Refills the {@link #buffer} reading from the {@link #reader}
+	 * and keeps track of the number of characters read so far.
+	 * 
+	 * @throws IOException if an error occurs while reading characters.
+	 */
+	private void refill() throws IOException
+	{
+		
+		/* Before to overwrite the buffer we keep the characters of the current record. */
+		if( record != null && bufferElements > 0 )
+		{
+			final long bufferEnd = bufferOffset + bufferElements;
+			final long end = recordEnd >= 0 ? Math.min( recordEnd, bufferEnd ) : bufferEnd;
+			final int from = (int) Math.max( recordStart + record.length() - bufferOffset, 0 );
+			final int to = (int) (end - bufferOffset);
+			if( to > from )
+				record.append( buffer, from, to - from );
+		}
+		
+		if( bufferElements > 0 )
+			bufferOffset += bufferElements;
+		
+		final Object event = CSVFlightRecorder.beginRefill();
+		bufferElements = reader.read( buffer, 0 , BUFFER_SIZE );
+		bufferIndex = 0;
+		
+		if( event != null )
+			CSVFlightRecorder.endRefill( event, bufferElements );
+		
+	}
+	
 	/**
 	 * Read the next {@link CSVToken} and returns it.
 	 * <p>
@@ -296,7 +618,9 @@ final class CSVParserImpl implements CSVParser
 		
 		/* Clear previous iteration data. */
 		value = null;
+		valueReady = true;
 		charCount = 0;
+		builder.clear();
 		
 		/* Currently evaluated token. */
 		CSVToken token;
@@ -311,16 +635,42 @@ final class CSVParserImpl implements CSVParser
 			
 		}
 		
-		/* Parse a new field and get the reason why the read ended. */
-		final FieldEndReason currentFieldEndReason = parseField( read );
-		
-	    /* Setup read value (if any) and clear field builder. */
-		if( read )
+		/* If the previous record has ended a new record starts with this field. */
+		if( record != null && recordEnd >= 0 )
 		{
-		    value = builder.toString();
-		    builder.clear();
+			record.setLength( 0 );
+			recordStart = getCharPosition();
+			recordEnd = -1;
 		}
 		
+		/* The field can't exceed neither the field size nor the remaining record size. */
+		fieldStart = getCharPosition();
+		if( previousFieldEndReason != FieldEndReason.FIELD_SEPARATOR )
+			recordPosition = fieldStart;
+		
+		fieldLimit = Math.min( maxFieldSize, maxRecordSize - (fieldStart - recordPosition) );
+		fieldFlushed = 0;
+		checkpoint = nextCheckpoint();
+		
+		/* Parse a new field and get the reason why the read ended. */
+		final FieldEndReason currentFieldEndReason = plain ? parsePlainField( read ) : parseField( read );
+		
+		/* The parsing loops tolerate the field terminator, here we check the exact size. */
+		final long fieldSize = currentFieldEndReason == FieldEndReason.DATA_END ? charCount : charCount - 1;
+		if( fieldSize > fieldLimit )
+			throw sizeExceeded( fieldSize );
+		
+		/* At the end of data the current record ends as well. */
+		if( record != null && recordEnd < 0 && currentFieldEndReason == FieldEndReason.DATA_END )
+			recordEnd = getCharPosition();
+		
+	    /*
+	     * The read value (if any) is kept in the field builder
+	     * until the next read and it is converted into a string
+	     * only if requested.
+	     */
+		valueReady = ! read;
+		
 		/* Manipulate FieldEndReason to generate CSVTokens. */
 		switch ( currentFieldEndReason )
 		{
@@ -338,7 +688,7 @@ final class CSVParserImpl implements CSVParser
 				     */
 				    case UNKNOWN:
 				        
-				    	if( value == null || value.isEmpty() )
+				    	if( builder.length() == 0 && fieldFlushed == 0 )
 				    		token = CSVToken.END_OF_DATA;
 				    	else
 				    	{
@@ -451,6 +801,90 @@ final class CSVParserImpl implements CSVParser
 		
 	}
 	
+	/**
+	 * Applies the {@link #recordSeparatorStrategy} to the record
+	 * separator character just read and, if the record ends,
+	 * keeps track of the end of the record.
+	 * 
+	 * @param read tells if to actually read the field or to skip it.
+	 * @return {@code true} if the record separator has been matched.
+	 * @throws IOException if an error occurs while reading characters.
+	 */
+	private boolean matchRecordSeparator( final boolean read ) throws IOException
+	{
+		
+		final long separatorPosition = bufferOffset + bufferIndex - 1;
+		if( ! recordSeparatorStrategy.apply(read) )
+			return false;
+		
+		if( record != null )
+			recordEnd = separatorPosition;
+		
+		return true;
+		
+	}
+	
+	/**
+	 * Returns the value of {@link #charCount} beyond which the parsing
+	 * loops have to call {@link #checkpoint(boolean)}: after the field
+	 * limit plus the field terminator or, if the field is streamed,
+	 * when the next chunk has been read.
+	 * 
+	 * @return the next checkpoint.
+	 */
+	private int nextCheckpoint()
+	{
+		
+		long next = fieldLimit + 1;
+		if( fieldWriter != null )
+			next = Math.min( next, charCount + STREAM_CHUNK_SIZE );
+		
+		return (int) Math.min( next, Integer.MAX_VALUE );
+		
+	}
+	
+	/**
+	 * Called by the parsing loops when {@link #charCount} goes beyond
+	 * the {@link #checkpoint}. Fails if the field exceeds the limits,
+	 * otherwise writes the field read so far to the {@link #fieldWriter}
+	 * if any.
+	 * 
+	 * @param read tells if to actually read the field or to skip it.
+	 * @throws IOException if an error occurs while writing characters.
+	 */
+	private void checkpoint( final boolean read ) throws IOException
+	{
+		
+		/* The last character read may be the field terminator. */
+		if( charCount > fieldLimit + 1 )
+			throw sizeExceeded( charCount - 1 );
+		
+		if( read && fieldWriter != null )
+			fieldFlushed += builder.flushTo( fieldWriter );
+		
+		checkpoint = nextCheckpoint();
+		
+	}
+	
+	/**
+	 * Returns the exception to throw when the current field,
+	 * having the given size, exceeds the size limits.
+	 * 
+	 * @param fieldSize the size of the current field.
+	 * @return the exception to throw.
+	 */
+	private MalformedCSVException sizeExceeded( final long fieldSize )
+	{
+		
+		if( fieldSize > maxFieldSize )
+			return new MalformedCSVException( "The field starting at character " + fieldStart
+					                        + " exceeds the maximum size of " + maxFieldSize + " characters.", fieldStart );
+		else
+			return new MalformedCSVException( "The record starting at character " + recordPosition
+					                        + " exceeds the maximum size of " + maxRecordSize + " characters.", recordPosition );
+		
+	}
+	
 	/**
 	 * Read and parse a field from {@link #reader} and write it on a
 	 * {@link FieldBuilder}.
@@ -496,8 +930,7 @@ final class CSVParserImpl implements CSVParser
 				 * assume bufferElements == BUFFER_SIZE neither if
 				 * the stream is much bigger than BUFFER_SIZE.
 				 */
-				bufferElements = reader.read( buffer, 0 , BUFFER_SIZE );
-				bufferIndex = 0;
+				refill();
 				
 			}
 			
@@ -515,6 +948,7 @@ final class CSVParserImpl implements CSVParser
 				    case FieldState.QUOTED_END:
 				    case FieldState.DOUBLE_QUOTE:
 				        if( read ) builder.rollbackToMark();
+				        /* falls through */
 				    
 				    case FieldState.NORMAL:
 					case FieldState.INITIAL:
@@ -551,7 +985,8 @@ final class CSVParserImpl implements CSVParser
 			 * We count also the characters to ignore 
 			 * to know if the field is actually empty. 
 			 */
-			++ charCount;
+			if( ++ charCount > checkpoint )
+				checkpoint( read );
 
 			
 			/* Handle current character depending on his class. */
@@ -585,7 +1020,7 @@ final class CSVParserImpl implements CSVParser
 					return FieldEndReason.FIELD_SEPARATOR;
 					
 				case FieldState.INITIAL ^ CharacterClass.RECORD_SEPARATOR:
-					if ( recordSeparatorStrategy.apply(read) )
+					if ( matchRecordSeparator(read) )
 						return FieldEndReason.RECORD_SEPARATOR;
 						
 					/* Handle as CharacterClass.NORMAL */
@@ -632,7 +1067,7 @@ final class CSVParserImpl implements CSVParser
 					return FieldEndReason.FIELD_SEPARATOR;
 					
 				case FieldState.NORMAL ^ CharacterClass.RECORD_SEPARATOR:
-					if ( recordSeparatorStrategy.apply(read) )
+					if ( matchRecordSeparator(read) )
 						return FieldEndReason.RECORD_SEPARATOR;
 						
 					/* Handle as CharacterClass.NORMAL */
@@ -722,7 +1157,7 @@ final class CSVParserImpl implements CSVParser
 					return FieldEndReason.FIELD_SEPARATOR;
 					
 				case FieldState.NORMAL_END ^ CharacterClass.RECORD_SEPARATOR:
-				    if( recordSeparatorStrategy.apply(read) )
+				    if( matchRecordSeparator(read) )
 				    {					
 				    	if( read ) builder.rollbackToMark();
 				    	return FieldEndReason.RECORD_SEPARATOR;
@@ -867,7 +1302,7 @@ final class CSVParserImpl implements CSVParser
 					return FieldEndReason.FIELD_SEPARATOR;
 					
 				case FieldState.QUOTED_END ^ CharacterClass.RECORD_SEPARATOR:
-					if ( recordSeparatorStrategy.apply(read) )
+					if ( matchRecordSeparator(read) )
 					{
 						/*
 						 * If we are not in strictQuote mode we wrote the last quote
@@ -937,7 +1372,7 @@ final class CSVParserImpl implements CSVParser
 					return FieldEndReason.FIELD_SEPARATOR;
 					
 				case FieldState.DOUBLE_QUOTE ^ CharacterClass.RECORD_SEPARATOR:
-					if ( recordSeparatorStrategy.apply(read) )
+					if ( matchRecordSeparator(read) )
 					{
 						/*
 						 * We wrote the last quote and all the characters
@@ -963,55 +1398,401 @@ final class CSVParserImpl implements CSVParser
 	
 	
 	/**
-	 * Represents the selected strategy to apply when
-	 * a record separator character has been read.
+	 * Read and parse a field from {@link #reader} and write it on a
+	 * {@link FieldBuilder}.
+	 * <p>
+	 * This is the specialisation of {@link #parseField(boolean)} for the
+	 * dialects without escape character and characters to ignore, and
+	 * matching any record separator character. The two methods must
+	 * produce the same results for such dialects.
 	 * 
-	 * @author Nerd4j Team
+	 * @param read tells if to actually read the field or to skip it.
+	 * @return reason of field end.
+	 * 
+	 * @throws IOException if an error occurs while reading characters.
 	 */
-	private static interface RecordSeparatorStrategy
+	private FieldEndReason parsePlainField( final boolean read ) throws IOException
 	{
 		
-		/**
-		 * Applies the related strategy to handle record
-		 * separator and returns {@code true} if the
-		 * current position represents a record end.
-		 * 
-		 * @param read tells if to actually read the field or to skip it.
-		 * @return {@code true} if it's a valid record separator.
-		 * @throws IOException if there are problems in reading the buffer.
-		 */
-		public boolean apply( boolean read ) throws IOException;
+		final char[] buffer = this.buffer;
+		final int[] types = this.types;
+		final char maxSpecialChar = this.maxSpecialChar;
+		final char quoteChar = this.quoteChar;
 		
-	}
-
-	
-	/**
-	 * Implementation of the {@link RecordSeparatorStrategy} that
-	 * matches the exact character sequence. If the sequence does
-	 * not match the characters are treated as normal characters.
-	 * 
-	 * @author Nerd4j Team
-	 */
-	private class MatchSeparatorSequenceStrategy implements RecordSeparatorStrategy
-	{
+		/* Read character as int. */
+		char current;
 		
-		/** The character sequence that represents the record separator. */
-		private final char[] sequence;
+		/* Read character type. */
+		int type;
 		
+		/* Current field state. */
+		int state = FieldState.INITIAL;
 		
-		/**
-		 * Constructor with parameters.
-		 * 
-		 * @param sequence record separator character sequence.
-		 */
-		public MatchSeparatorSequenceStrategy( char[] sequence )
+		/* Loop on characters until an exit case is found. */
+		while ( true )
 		{
 			
-			super();
-			
-			this.sequence = sequence;
+			/* Check if buffer need to be refilled. */
+			if ( bufferIndex >= bufferElements )
+				refill();
 			
-		}
+			/*
+			 * If after refilling we are still in the situation
+			 * where all the characters have been read then we
+			 * reached the end of the stream.
+			 */
+			if( bufferIndex >= bufferElements )
+				/* Got an end of data. */
+				switch ( state )
+				{
+				
+				    case FieldState.NORMAL_END:
+				    case FieldState.QUOTED_END:
+				    case FieldState.DOUBLE_QUOTE:
+				        if( read ) builder.rollbackToMark();
+				        /* falls through */
+				    
+				    case FieldState.NORMAL:
+					case FieldState.INITIAL:
+						/* Normal field termination. */
+						return FieldEndReason.DATA_END;
+						
+					case FieldState.QUOTED:
+						/* Current field has an unclosed quote. */
+						throw new MalformedCSVException( "Unclosed quoted field at end of data." );
+						
+					default:
+						throw new IllegalStateException( "Unknown state: " + state + ". This is a bug evidence." );
+						
+				}
+			
+			/*
+			 * Inside a field the runs of characters that don't change
+			 * the state are consumed at once: in a not quoted field the
+			 * characters following any special one, in a quoted field
+			 * all the characters but the quote.
+			 */
+			if( state == FieldState.NORMAL || state == FieldState.QUOTED )
+			{
+				
+				/* The run stops at the next checkpoint. */
+				final int start = bufferIndex;
+				final int end = (int) Math.min( bufferElements, (long) start + checkpoint - charCount + 1 );
+				int index = start;
+				
+				if( state == FieldState.NORMAL )
+					while( index < end && buffer[index] > maxSpecialChar ) ++index;
+				else
+					while( index < end && buffer[index] != quoteChar ) ++index;
+				
+				if( index > start )
+				{
+					
+					if( read ) builder.append( buffer, start, index - start );
+					
+					charCount += index - start;
+					bufferIndex = index;
+					
+					if( charCount > checkpoint )
+						checkpoint( read );
+					
+					continue;
+					
+				}
+				
+			}
+			
+			/* Read current character. */
+			current = buffer[bufferIndex++];
+			
+			/* Find the current character class. */
+			type = current > maxSpecialChar ? CharacterClass.NORMAL : types[current];
+			
+			/*
+			 * We count also the characters to ignore 
+			 * to know if the field is actually empty. 
+			 */
+			if( ++ charCount > checkpoint )
+				checkpoint( read );
+			
+			
+			/* Handle current character depending on his class. */
+			switch ( state ^ type )
+			{
+			
+				/* ************************** */
+				/* *** FieldState.INITIAL *** */
+				/* ************************** */
+				
+				case FieldState.INITIAL ^ CharacterClass.NORMAL:
+				    if( read ) builder.append( current );
+				    state = FieldState.NORMAL;
+					break;
+					
+				case FieldState.INITIAL ^ CharacterClass.TO_IGNORE_AROUND_FIELDS:
+					break;
+					
+				case FieldState.INITIAL ^ CharacterClass.QUOTE:
+					state = FieldState.QUOTED;
+					break;
+					
+				case FieldState.INITIAL ^ CharacterClass.FIELD_SEPARATOR:
+					return FieldEndReason.FIELD_SEPARATOR;
+					
+				case FieldState.INITIAL ^ CharacterClass.RECORD_SEPARATOR:
+					/* Any record separator character matches. */
+					matchRecordSeparator( read );
+					return FieldEndReason.RECORD_SEPARATOR;
+					
+				/* ************************* */
+				/* *** FieldState.NORMAL *** */
+				/* ************************* */
+				
+				case FieldState.NORMAL ^ CharacterClass.NORMAL:
+				    if( read ) builder.append( current );
+					break;
+					
+				case FieldState.NORMAL ^ CharacterClass.TO_IGNORE_AROUND_FIELDS:
+					state = FieldState.NORMAL_END;
+					
+					if( read ) 
+					{
+					    builder.mark();
+					    builder.append( current );
+					}
+					break;
+					
+				case FieldState.NORMAL ^ CharacterClass.QUOTE:
+					/* Current field is unquoted but contains a not escaped quote. */
+					
+					/* If quotes have to be handled strictly */
+					if( strictQuotes )
+						throw new MalformedCSVException( "Encountered an unescaped quote in a unquoted field." );
+					
+					/* Handle as CharacterClass.NORMAL */
+					if( read ) builder.append( current );
+					break;
+					
+				case FieldState.NORMAL ^ CharacterClass.FIELD_SEPARATOR:
+					return FieldEndReason.FIELD_SEPARATOR;
+					
+				case FieldState.NORMAL ^ CharacterClass.RECORD_SEPARATOR:
+					matchRecordSeparator( read );
+					return FieldEndReason.RECORD_SEPARATOR;
+					
+				/* ***************************** */
+				/* *** FieldState.NORMAL_END *** */
+				/* ***************************** */
+				
+				case FieldState.NORMAL_END ^ CharacterClass.NORMAL:
+					state = FieldState.NORMAL;
+					if( read ) builder.append( current );
+					break;
+					
+				case FieldState.NORMAL_END ^ CharacterClass.TO_IGNORE_AROUND_FIELDS:
+				    if( read ) 
+				    {
+				        builder.extendMark();
+				        builder.append( current );
+				    }
+					break;
+					
+				case FieldState.NORMAL_END ^ CharacterClass.QUOTE:
+					/* Current field is unquoted but contains a not escaped quote. */
+					
+					/* If quotes have to be handled less strictly */
+					if( strictQuotes )
+					{
+						if( read ) builder.rollbackToMark();
+						throw new MalformedCSVException( "Encountered an unescaped quote in a unquoted field." );
+					}
+					
+					/* Handle as CharacterClass.NORMAL */
+					state = FieldState.NORMAL;
+					if( read ) builder.append( current );
+					break;
+					
+				case FieldState.NORMAL_END ^ CharacterClass.FIELD_SEPARATOR:
+				    if( read ) builder.rollbackToMark();
+					return FieldEndReason.FIELD_SEPARATOR;
+					
+				case FieldState.NORMAL_END ^ CharacterClass.RECORD_SEPARATOR:
+					matchRecordSeparator( read );
+			    	if( read ) builder.rollbackToMark();
+			    	return FieldEndReason.RECORD_SEPARATOR;
+					
+				/* ************************* */
+				/* *** FieldState.QUOTED *** */
+				/* ************************* */
+				
+				case FieldState.QUOTED ^ CharacterClass.QUOTE:
+					if( read )
+					{
+						builder.mark();
+						builder.append( current );
+					}
+					state = FieldState.DOUBLE_QUOTE;
+					break;
+					
+				/* ***************************** */
+				/* *** FieldState.QUOTED_END *** */
+				/* ***************************** */
+				
+				case FieldState.QUOTED_END ^ CharacterClass.NORMAL:
+					/* If quotes have to be handled strictly */
+					if( strictQuotes )
+						/* Normal character outside a quoted field. */
+						throw new MalformedCSVException( "Encountered a normal character outside a quoted field." );
+					
+					/* Handle as CharacterClass.NORMAL */
+					state = FieldState.QUOTED;
+					if( read ) builder.append( current );
+					break;
+					
+				case FieldState.QUOTED_END ^ CharacterClass.TO_IGNORE_AROUND_FIELDS:
+					/*
+					 * If we are not skipping the text and we are handling
+					 * quotes less strictly then we read ahead to see if
+					 * the field ends or if there is some other text. 
+					 */
+					if( ! strictQuotes && read )
+					{
+						builder.extendMark();
+						builder.append( current );
+					}
+					break;
+					
+				case FieldState.QUOTED_END ^ CharacterClass.QUOTE:
+					/* If quotes have to be handled strictly */
+					if( strictQuotes )
+						/* Quote character outside a quoted field. */
+						throw new MalformedCSVException( "Encountered a quote character outside a quoted field." );
+					
+					state = FieldState.DOUBLE_QUOTE;
+					if( read ) builder.append( current );
+					break;
+					
+				case FieldState.QUOTED_END ^ CharacterClass.FIELD_SEPARATOR:
+					/*
+					 * If we are not in strictQuote mode we wrote the last quote
+					 * and all the characters TO_IGNORE_AROUND_FIELDS so in
+					 * this case we need to rollback.
+					 */
+					if( ! strictQuotes ) builder.rollbackToMark();
+					return FieldEndReason.FIELD_SEPARATOR;
+					
+				case FieldState.QUOTED_END ^ CharacterClass.RECORD_SEPARATOR:
+					matchRecordSeparator( read );
+					if( ! strictQuotes ) builder.rollbackToMark();
+					return FieldEndReason.RECORD_SEPARATOR;
+					
+				/* ******************************* */
+				/* *** FieldState.DOUBLE_QUOTE *** */
+				/* ******************************* */
+				
+				case FieldState.DOUBLE_QUOTE ^ CharacterClass.NORMAL:
+					/* If quotes have to be handled strictly */
+					if( strictQuotes )
+						/* Normal character outside a quoted field. */
+						throw new MalformedCSVException( "Encountered a normal character outside a quoted field." );
+
+					/* Handle as CharacterClass.NORMAL */
+					state = FieldState.QUOTED;
+					if( read ) builder.append( current );
+					break;
+					
+				case FieldState.DOUBLE_QUOTE ^ CharacterClass.TO_IGNORE_AROUND_FIELDS:
+					/*
+					 * If we are not skipping the text and we are handling
+					 * quotes less strictly then we read ahead to see if
+					 * the field ends or if there is some other text. 
+					 */
+					if( ! strictQuotes && read )
+					{
+						builder.extendMark();
+						builder.append( current );
+					}
+					state = FieldState.QUOTED_END;
+					break;
+					
+				case FieldState.DOUBLE_QUOTE ^ CharacterClass.QUOTE:
+					state = FieldState.QUOTED;
+					break;
+					
+				case FieldState.DOUBLE_QUOTE ^ CharacterClass.FIELD_SEPARATOR:
+					/*
+					 * We wrote the last quote and all the characters
+					 * TO_IGNORE_AROUND_FIELDS so in this case we need
+					 * to rollback.
+					 */
+					builder.rollbackToMark();
+					return FieldEndReason.FIELD_SEPARATOR;
+					
+				case FieldState.DOUBLE_QUOTE ^ CharacterClass.RECORD_SEPARATOR:
+					matchRecordSeparator( read );
+					builder.rollbackToMark();						
+					return FieldEndReason.RECORD_SEPARATOR;
+					
+				default:
+					throw new IllegalStateException( "Unknown couple FieldState " + state + " CharacterClass " + type + ". This is a bug evidence." );
+					
+			}
+			
+		}
+		
+	}
+	
+	
+	/**
+	 * Represents the selected strategy to apply when
+	 * a record separator character has been read.
+	 * 
+	 * @author Nerd4j Team
+	 */
+	private static interface RecordSeparatorStrategy
+	{
+		
+		/**
+		 * Applies the related strategy to handle record
+		 * separator and returns {@code true} if the
+		 * current position represents a record end.
+		 * 
+		 * @param read tells if to actually read the field or to skip it.
+		 * @return {@code true} if it's a valid record separator.
+		 * @throws IOException if there are problems in reading the buffer.
+		 */
+		public boolean apply( boolean read ) throws IOException;
+		
+	}
+
+	
+	/**
+	 * Implementation of the {@link RecordSeparatorStrategy} that
+	 * matches the exact character sequence. If the sequence does
+	 * not match the characters are treated as normal characters.
+	 * 
+	 * @author Nerd4j Team
+	 */
+	private class MatchSeparatorSequenceStrategy implements RecordSeparatorStrategy
+	{
+		
+		/** The character sequence that represents the record separator. */
+		private final char[] sequence;
+		
+		
+		/**
+		 * Constructor with parameters.
+		 * 
+		 * @param sequence record separator character sequence.
+		 */
+		public MatchSeparatorSequenceStrategy( char[] sequence )
+		{
+			
+			super();
+			
+			this.sequence = sequence;
+			
+		}
 		
 		
 		/**
@@ -1043,8 +1824,7 @@ final class CSVParserImpl implements CSVParser
 					 * assume bufferElements == BUFFER_SIZE neither if
 					 * the stream is much bigger than BUFFER_SIZE.
 					 */
-					bufferElements = reader.read( buffer, 0 , BUFFER_SIZE );
-					bufferIndex = 0;
+					refill();
 					
 				}
 			
@@ -1142,14 +1922,23 @@ final class CSVParserImpl implements CSVParser
 				if ( bufferIndex >= bufferElements )
 				{
 					
+					/*
+					 * A live source blocks until new data is written,
+					 * in such case we look ahead only if there are
+					 * characters ready to be read so that the current
+					 * record can be returned without waiting for the
+					 * next one.
+					 */
+					if( live && ! reader.ready() )
+						return true;
+					
 					/*
 					 * The read operation may not fill all the buffer
 					 * even if there are enough data. So we can't
 					 * assume bufferElements == BUFFER_SIZE neither if
 					 * the stream is much bigger than BUFFER_SIZE.
 					 */
-					bufferElements = reader.read( buffer, 0 , BUFFER_SIZE );
-					bufferIndex = 0;
+					refill();
 					
 				}
 			
@@ -1176,4 +1965,61 @@ final class CSVParserImpl implements CSVParser
 		
 	}
 	
+	
+	/**
+	 * Live view over the characters of the current field.
+	 * The content changes each time a new token is read.
+	 * 
+	 * @author Nerd4j Team
+	 */
+	private class CurrentChars implements CharSequence
+	{
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int length()
+		{
+			
+			return builder.length();
+			
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public char charAt( int index )
+		{
+			
+			return builder.charAt( index );
+			
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public CharSequence subSequence( int start, int end )
+		{
+			
+			return toString().substring( start, end );
+			
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public String toString()
+		{
+			
+			final String current = getCurrentValue();
+			return current != null ? current : "";
+			
+		}
+		
+	}
+	
 }
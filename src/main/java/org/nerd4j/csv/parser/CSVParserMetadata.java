@@ -80,6 +80,18 @@ public final class CSVParserMetadata
      * (by default this set is: {[ ],[\t],[\n]}).
      */
     private char[] charsToIgnoreAroundFields;
+    
+    /**
+     * Maximum number of characters of a field, {@code 0} means no limit.
+     * (by default there is no limit).
+     */
+    private int maxFieldSize;
+    
+    /**
+     * Maximum number of characters of a record, {@code 0} means no limit.
+     * (by default there is no limit).
+     */
+    private int maxRecordSize;
 
     /**
      * Default constructor.
@@ -102,6 +114,8 @@ public final class CSVParserMetadata
         
         this.matchRecordSeparatorExactSequence = false;
         this.recordSeparator = new char[] { RemarkableASCII.CR, RemarkableASCII.LF };
+        this.maxFieldSize = 0;
+        this.maxRecordSize = 0;
         
     }
 
@@ -279,5 +293,45 @@ public final class CSVParserMetadata
 	{
 		this.matchRecordSeparatorExactSequence = matchRecordSeparatorExactSequence;
 	}
+	
+	/**
+	 * Returns the maximum number of characters of a field.
+	 * 
+	 * @return the maximum field size, {@code 0} means no limit.
+	 */
+	public int getMaxFieldSize()
+	{
+		return maxFieldSize;
+	}
+	
+	/**
+	 * Sets the maximum number of characters of a field.
+	 * 
+	 * @param maxFieldSize value to set, {@code 0} means no limit.
+	 */
+	public void setMaxFieldSize( int maxFieldSize )
+	{
+		this.maxFieldSize = maxFieldSize;
+	}
+	
+	/**
+	 * Returns the maximum number of characters of a record.
+	 * 
+	 * @return the maximum record size, {@code 0} means no limit.
+	 */
+	public int getMaxRecordSize()
+	{
+		return maxRecordSize;
+	}
+	
+	/**
+	 * Sets the maximum number of characters of a record.
+	 * 
+	 * @param maxRecordSize value to set, {@code 0} means no limit.
+	 */
+	public void setMaxRecordSize( int maxRecordSize )
+	{
+		this.maxRecordSize = maxRecordSize;
+	}
 
 }
@@ -48,6 +48,15 @@ interface FieldBuilder
 	 */
 	public void append( int character );
 	
+	/**
+	 * Append a portion of the given characters at the end of the content.
+	 * 
+	 * @param characters the characters to append.
+	 * @param offset     position of the first character to append.
+	 * @param count      number of characters to append.
+	 */
+	public void append( char[] characters, int offset, int count );
+	
 	/**
 	 * Returns the length of current content
 	 * 
@@ -55,6 +64,17 @@ interface FieldBuilder
 	 */
 	public int length();
 	
+	/**
+	 * Returns the character at the given position of current content.
+	 * 
+	 * @param index position of the wanted character.
+	 * @return the character at the given position.
+	 * 
+	 * @throws IndexOutOfBoundsException
+	 *             if the index is outside builder current limits.
+	 */
+	public char charAt( int index );
+	
 	/** Clear current content. */
 	public void clear();
 	
@@ -163,4 +183,18 @@ interface FieldBuilder
 	 */
 	public void writeTo( Writer writer, int offset, int length ) throws IOException;
 	
+	/**
+	 * Writes on the given {@link Writer} the content that can no longer
+	 * be rolled back and removes it from the {@link FieldBuilder}.
+	 * <p>
+	 * The content following the marked position, if any, is kept
+	 * so that {@link #rollbackToMark()} still works as expected.
+	 * 
+	 * @param writer writer where write content.
+	 * @return the number of characters written.
+	 * 
+	 * @throws IOException if any error occur while writing.
+	 */
+	public int flushTo( Writer writer ) throws IOException;
+	
 }
\ No newline at end of file
@@ -116,6 +116,25 @@ final class FieldBuilderImpl implements FieldBuilder
         
     }
     
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void append( char[] characters, int offset, int count )
+    {
+        
+        /*
+         * If the array size is not enough to keep all
+         * the characters we grow the array capacity.
+         */
+        if( length + count > data.length )
+            data = Arrays.copyOf( data, Math.max(data.length << 1, length + count) );
+        
+        System.arraycopy( characters, offset, data, length, count );
+        length += count;
+        
+    }
+    
     /**
      * {@inheritDoc}
      */
@@ -204,6 +223,20 @@ final class FieldBuilderImpl implements FieldBuilder
         
         return length;
         
+    }
+	
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public char charAt( int index )
+    {
+        
+        if( index < 0 || index >= length )
+            throw new IndexOutOfBoundsException( "Index: " + index + ", length: " + length );
+        
+        return data[index];
+        
     }
 	
 	/**
@@ -266,5 +299,28 @@ final class FieldBuilderImpl implements FieldBuilder
         throw new UnsupportedOperationException();
         
     }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int flushTo( Writer writer ) throws IOException
+    {
+        
+        final int count = isMarked() ? markPos : length;
+        if( count <= 0 )
+            return 0;
+        
+        /* The characters following the flushed ones are moved to the beginning. */
+        writer.write( data, 0, count );
+        System.arraycopy( data, count, data, 0, length - count );
+        
+        length -= count;
+        if( markPos > -1 )
+            markPos -= count;
+        
+        return count;
+        
+    }
 	
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+
+/**
+ * Enumerates the ways a {@link CSVColumnReader} can handle
+ * the values that can't be converted into the requested type.
+ * <p>
+ * A record missing the requested column is handled as a bad value.
+ * 
+ * @author Nerd4j Team
+ */
+public enum CSVBadValuePolicy
+{
+    
+    /** The bad value is ignored and the record is skipped. */
+    SKIP,
+    
+    /** The bad value is replaced by a given default value. */
+    DEFAULT,
+    
+    /** The reading fails with a {@link org.nerd4j.csv.exception.CSVProcessException}. */
+    FAIL;
+    
+}
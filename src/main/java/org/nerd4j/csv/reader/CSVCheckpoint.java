@@ -0,0 +1,165 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+import java.util.Arrays;
+
+
+/**
+ * Represents the progress of a {@link CSVReader} at a record boundary.
+ * 
+ * <p>
+ * A checkpoint contains the byte offset of the first record not
+ * yet read, the number of records read so far and the header of
+ * the CSV source, if any. At a record boundary the parser has no
+ * pending state, so these information are enough to reopen the
+ * reader without parsing again the records already read.
+ * 
+ * <p>
+ * Instances of this class are immutable.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVCheckpoint
+{
+    
+    /** The byte offset of the first record not yet read. */
+    private final long offset;
+    
+    /** The number of records read so far. */
+    private final long recordIndex;
+    
+    /** The header of the CSV source, if any. */
+    private final String[] header;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param offset      the byte offset of the first record not yet read.
+     * @param recordIndex the number of records read so far.
+     * @param header      the header of the CSV source, can be {@code null}.
+     */
+    public CSVCheckpoint( final long offset, final long recordIndex, final String[] header )
+    {
+        
+        super();
+        
+        if( offset < 0 )
+            throw new IllegalArgumentException( "The offset must be non negative" );
+        
+        if( recordIndex < 0 )
+            throw new IllegalArgumentException( "The record index must be non negative" );
+        
+        this.offset = offset;
+        this.recordIndex = recordIndex;
+        this.header = header != null ? header.clone() : null;
+        
+    }
+    
+    
+    /* ******************* */
+    /*  GETTERS & SETTERS  */
+    /* ******************* */
+    
+    
+    /**
+     * Returns the byte offset of the first record not yet read.
+     * 
+     * @return the byte offset of the next record.
+     */
+    public long getOffset()
+    {
+        return offset;
+    }
+    
+    /**
+     * Returns the number of records read so far.
+     * 
+     * @return the number of records read.
+     */
+    public long getRecordIndex()
+    {
+        return recordIndex;
+    }
+    
+    /**
+     * Returns the header of the CSV source, if any.
+     * 
+     * @return the header of the CSV source or {@code null}.
+     */
+    public String[] getHeader()
+    {
+        return header != null ? header.clone() : null;
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode()
+    {
+        
+        int hashCode = Long.hashCode( offset );
+        hashCode = 31 * hashCode + Long.hashCode( recordIndex );
+        return 31 * hashCode + Arrays.hashCode( header );
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals( Object obj )
+    {
+        
+        if( this == obj )
+            return true;
+        
+        if( obj == null || obj.getClass() != getClass() )
+            return false;
+        
+        final CSVCheckpoint other = (CSVCheckpoint) obj;
+        return offset == other.offset
+            && recordIndex == other.recordIndex
+            && Arrays.equals( header, other.header );
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        
+        return "CSVCheckpoint{offset=" + offset + ", recordIndex=" + recordIndex + ", header=" + Arrays.toString( header ) + "}";
+        
+    }
+    
+}
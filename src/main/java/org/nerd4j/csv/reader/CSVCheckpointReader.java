@@ -0,0 +1,69 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+
+/**
+ * Represents a {@link CSVReader} able to provide
+ * {@link CSVCheckpoint}s of its progress.
+ * 
+ * <p>
+ * A checkpoint can be used to reopen the reader by invoking
+ * {@link CSVReaderFactory#getCSVReader(java.io.File, java.nio.charset.Charset, CSVCheckpoint)}
+ * without parsing again the records already read.
+ * 
+ * @param <M> type of the data model returned by the reader.
+ * 
+ * @author Nerd4j Team
+ */
+public interface CSVCheckpointReader<M> extends CSVReader<M>
+{
+	
+	/**
+	 * Returns the checkpoint related to the current
+	 * position of the reader.
+	 * <p>
+	 * The reader is always at a record boundary between two
+	 * calls to the reading methods, so the checkpoint can be
+	 * taken at any time.
+	 * 
+	 * @return the checkpoint of the current position.
+	 */
+	public CSVCheckpoint getCheckpoint();
+	
+	/**
+	 * Sets the store where to persist the checkpoints
+	 * periodically while reading.
+	 * <p>
+	 * A checkpoint is saved each time the given number of records
+	 * has been read or the given interval of time has elapsed,
+	 * whichever comes first, and when the end of data is reached
+	 * or the reader is closed.
+	 * A value less or equal to {@code 0} disables the related condition.
+	 * 
+	 * @param store        the store where to persist the checkpoints, {@code null} to disable.
+	 * @param everyRecords the number of records between two checkpoints.
+	 * @param everyMillis  the milliseconds between two checkpoints.
+	 */
+	public void setCheckpointStore( CSVCheckpointStore store, long everyRecords, long everyMillis );
+	
+}
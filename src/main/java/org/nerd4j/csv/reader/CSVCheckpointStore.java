@@ -0,0 +1,53 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+import java.io.IOException;
+
+
+/**
+ * Represents a storage where to persist the {@link CSVCheckpoint}s
+ * of a reading process.
+ * 
+ * @author Nerd4j Team
+ * @see CSVCheckpointReader#setCheckpointStore(CSVCheckpointStore, long, long)
+ */
+public interface CSVCheckpointStore
+{
+	
+	/**
+	 * Returns the last saved checkpoint, if any.
+	 * 
+	 * @return the last saved checkpoint or {@code null} if none.
+	 * @throws IOException if an error occurs reading the storage.
+	 */
+	public CSVCheckpoint load() throws IOException;
+	
+	/**
+	 * Saves the given checkpoint replacing the previous one.
+	 * 
+	 * @param checkpoint the checkpoint to save.
+	 * @throws IOException if an error occurs writing the storage.
+	 */
+	public void save( CSVCheckpoint checkpoint ) throws IOException;
+	
+}
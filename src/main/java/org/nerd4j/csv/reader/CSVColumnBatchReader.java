@@ -0,0 +1,61 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+import java.io.IOException;
+
+import org.nerd4j.csv.exception.CSVToModelBindingException;
+import org.nerd4j.csv.reader.batch.CSVColumnBatch;
+
+
+/**
+ * Represents a {@link CSVReader} able to read the records
+ * of the CSV source by column into a {@link CSVColumnBatch}.
+ * 
+ * <p>
+ * The columns are filled with the processed values before they are
+ * bound to the data model, so this capability is available only for
+ * the readers able to access such values. The readers returned by
+ * {@link CSVReaderFactoryImpl} implement this interface.
+ * 
+ * @author Nerd4j Team
+ */
+public interface CSVColumnBatchReader
+{
+	
+	/**
+	 * Reads the next records in the CSV source into the given
+	 * {@link CSVColumnBatch} until the batch is full or the end
+	 * of the CSV source has been reached.
+	 * <p>
+	 * The batch is emptied before reading. The records that fail
+	 * to be processed are not added to the batch and are counted
+	 * by {@link CSVColumnBatch#getRejected()}.
+	 * 
+	 * @param batch the batch to fill.
+	 * @return the number of records added to the batch.
+	 * @throws IOException if an error occurs reading the CSV source.
+	 * @throws CSVToModelBindingException if an error occurs during model binding.
+	 */
+	public int readBatch( CSVColumnBatch batch ) throws IOException, CSVToModelBindingException;
+	
+}
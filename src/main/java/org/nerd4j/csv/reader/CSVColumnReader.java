@@ -0,0 +1,1285 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.nerd4j.csv.exception.CSVConfigurationException;
+import org.nerd4j.csv.exception.CSVProcessException;
+import org.nerd4j.csv.exception.CSVSingleUseViolationException;
+import org.nerd4j.csv.exception.CSVUnrecoverableStateException;
+import org.nerd4j.csv.field.CSVField;
+import org.nerd4j.csv.field.CSVFieldProcessContext;
+import org.nerd4j.csv.parser.CSVParser;
+import org.nerd4j.csv.parser.CSVToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Reads the values of a single column of a CSV source
+ * and returns them as a stream.
+ * 
+ * <p>
+ * Each record is tokenized but only the requested column
+ * is materialized and converted, the other columns are
+ * skipped. No data model and no {@link CSVProcessOutcome}
+ * are built, and the primitive streams never box the values.
+ * 
+ * <p>
+ * The primitive streams parse the characters of the column
+ * directly, ignoring the converter and the validators configured
+ * for the field. The stream returned by {@link #objColumn(String)}
+ * processes the values using the configured field instead.
+ * 
+ * <p>
+ * The values that can't be converted, and the records missing the
+ * requested column, are handled according to a {@link CSVBadValuePolicy}.
+ * 
+ * <p>
+ * If the source is a file and the splitting has been enabled by
+ * {@link #setSplittable(boolean)}, the returned streams can be split and
+ * processed in parallel. The file is split after the record separators,
+ * so the splitting must be enabled only if the records do not contain
+ * record separators inside quoted fields. By default the streams
+ * are not split.
+ * 
+ * <p>
+ * A {@link CSVColumnReader} can return only one stream.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVColumnReader implements Closeable
+{
+    
+    /** Internal logging system. */
+    private static final Logger logger = LoggerFactory.getLogger( CSVColumnReader.class );
+    
+    /** Minimum size in bytes of a file range to be split. */
+    private static final long MIN_SPLIT_SIZE = 1024 * 64;
+    
+    /** The meta-data model used to open the sources. */
+    private final CSVReaderMetadata<?> metadata;
+    
+    /** The opened CSV source. */
+    private final CSVSource source;
+    
+    /** The source file if any, {@code null} if the source can't be split. */
+    private final File file;
+    
+    /** The charset used to decode the file. */
+    private final Charset charset;
+    
+    /** The reader of the file if any. */
+    private final CSVFileSource fileSource;
+    
+    /** Byte offset of the first record in the file. */
+    private final long dataStart;
+    
+    /** The characters that can end a record separator. */
+    private final char[] recordEnds;
+    
+    /** The sequence of characters that represents a record separator, {@code null} if any of the record ends is enough. */
+    private final char[] recordSeparatorSequence;
+    
+    /** Tells if the caller allows to split the file, {@code false} by default. */
+    private boolean splittable;
+    
+    /** The cursors opened by the returned stream. */
+    private final List<Cursor> cursors;
+    
+    /** Tells if a stream has already been returned. */
+    private final AtomicBoolean alreadyInvoked;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param source   the opened CSV source.
+     * @param metadata the meta-data model of the source.
+     */
+    CSVColumnReader( final CSVSource source, final CSVReaderMetadata<?> metadata )
+    {
+        
+        this( source, metadata, null, null, null );
+        
+    }
+    
+    /**
+     * Constructor with parameters.
+     * <p>
+     * If the source reads a file, the streams returned
+     * by this reader can be split once it is enabled.
+     * 
+     * @param source     the opened CSV source.
+     * @param metadata   the meta-data model of the source.
+     * @param fileSource the reader of the file, {@code null} if the source is not a file.
+     * @param file       the source file, {@code null} if the source is not a file.
+     * @param charset    the charset used to decode the file.
+     */
+    CSVColumnReader( final CSVSource source, final CSVReaderMetadata<?> metadata,
+                     final CSVFileSource fileSource, final File file, final Charset charset )
+    {
+        
+        super();
+        
+        if( source == null )
+            throw new NullPointerException( "The CSV source is mandatory and can't be null." );
+        
+        if( metadata == null )
+            throw new NullPointerException( "The CSV reader meta-data is mandatory and can't be null." );
+        
+        this.source = source;
+        this.metadata = metadata;
+        this.file = fileSource != null ? file : null;
+        this.charset = charset;
+        this.fileSource = fileSource;
+        this.dataStart = fileSource != null ? fileSource.getByteOffset( source.getParser().getCharPosition() ) : 0;
+        this.recordEnds = metadata.getParserFactory().getRecordEnds();
+        this.recordSeparatorSequence = metadata.getParserFactory().getRecordSeparatorSequence();
+        this.splittable = false;
+        this.cursors = new ArrayList<Cursor>();
+        this.alreadyInvoked = new AtomicBoolean( false );
+        
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * Enables or disables the splitting of the returned streams.
+     * <p>
+     * The file is split after the record separators without parsing the
+     * records before the split point. By enabling the splitting the caller
+     * asserts that no quoted field contains a record separator, otherwise
+     * a split can start inside a field and the values are read wrongly.
+     * <p>
+     * The splitting has effect only if the source is a file
+     * and this method must be invoked before requesting a stream.
+     * 
+     * @param splittable tells if the returned streams can be split.
+     */
+    public void setSplittable( final boolean splittable )
+    {
+        
+        this.splittable = splittable;
+        
+    }
+    
+    /**
+     * Returns the values of the given column as {@code int}s.
+     * <p>
+     * The reading fails if a value is not a valid {@code int}.
+     * 
+     * @param columnId the configured column identifier.
+     * @return the stream of the column values.
+     * @throws CSVConfigurationException if the column is not configured or not present in the source.
+     * @throws CSVSingleUseViolationException if a stream has already been returned.
+     */
+    public IntStream intColumn( final String columnId )
+    {
+        
+        return intColumn( columnId, CSVBadValuePolicy.FAIL, 0 );
+        
+    }
+    
+    /**
+     * Returns the values of the given column as {@code int}s.
+     * 
+     * @param columnId     the configured column identifier.
+     * @param policy       the way to handle the values that are not valid {@code int}s.
+     * @param defaultValue the value to use if the policy is {@link CSVBadValuePolicy#DEFAULT}.
+     * @return the stream of the column values.
+     * @throws CSVConfigurationException if the column is not configured or not present in the source.
+     * @throws CSVSingleUseViolationException if a stream has already been returned.
+     */
+    public IntStream intColumn( final String columnId, final CSVBadValuePolicy policy, final int defaultValue )
+    {
+        
+        final Cursor cursor = openCursor( columnId, policy );
+        return StreamSupport.intStream( new IntColumnSpliterator(cursor, defaultValue), false )
+                            .onClose( this::closeStream );
+        
+    }
+    
+    /**
+     * Returns the values of the given column as {@code long}s.
+     * <p>
+     * The reading fails if a value is not a valid {@code long}.
+     * 
+     * @param columnId the configured column identifier.
+     * @return the stream of the column values.
+     * @throws CSVConfigurationException if the column is not configured or not present in the source.
+     * @throws CSVSingleUseViolationException if a stream has already been returned.
+     */
+    public LongStream longColumn( final String columnId )
+    {
+        
+        return longColumn( columnId, CSVBadValuePolicy.FAIL, 0 );
+        
+    }
+    
+    /**
+     * Returns the values of the given column as {@code long}s.
+     * 
+     * @param columnId     the configured column identifier.
+     * @param policy       the way to handle the values that are not valid {@code long}s.
+     * @param defaultValue the value to use if the policy is {@link CSVBadValuePolicy#DEFAULT}.
+     * @return the stream of the column values.
+     * @throws CSVConfigurationException if the column is not configured or not present in the source.
+     * @throws CSVSingleUseViolationException if a stream has already been returned.
+     */
+    public LongStream longColumn( final String columnId, final CSVBadValuePolicy policy, final long defaultValue )
+    {
+        
+        final Cursor cursor = openCursor( columnId, policy );
+        return StreamSupport.longStream( new LongColumnSpliterator(cursor, defaultValue), false )
+                            .onClose( this::closeStream );
+        
+    }
+    
+    /**
+     * Returns the values of the given column as {@code double}s.
+     * <p>
+     * The reading fails if a value is not a valid {@code double}.
+     * 
+     * @param columnId the configured column identifier.
+     * @return the stream of the column values.
+     * @throws CSVConfigurationException if the column is not configured or not present in the source.
+     * @throws CSVSingleUseViolationException if a stream has already been returned.
+     */
+    public DoubleStream doubleColumn( final String columnId )
+    {
+        
+        return doubleColumn( columnId, CSVBadValuePolicy.FAIL, 0 );
+        
+    }
+    
+    /**
+     * Returns the values of the given column as {@code double}s.
+     * <p>
+     * The values are parsed using {@link Double#parseDouble(String)}.
+     * 
+     * @param columnId     the configured column identifier.
+     * @param policy       the way to handle the values that are not valid {@code double}s.
+     * @param defaultValue the value to use if the policy is {@link CSVBadValuePolicy#DEFAULT}.
+     * @return the stream of the column values.
+     * @throws CSVConfigurationException if the column is not configured or not present in the source.
+     * @throws CSVSingleUseViolationException if a stream has already been returned.
+     */
+    public DoubleStream doubleColumn( final String columnId, final CSVBadValuePolicy policy, final double defaultValue )
+    {
+        
+        final Cursor cursor = openCursor( columnId, policy );
+        return StreamSupport.doubleStream( new DoubleColumnSpliterator(cursor, defaultValue), false )
+                            .onClose( this::closeStream );
+        
+    }
+    
+    /**
+     * Returns the values of the given column processed
+     * by the related configured field.
+     * <p>
+     * The reading fails if the processing of a value fails.
+     * 
+     * @param columnId the configured column identifier.
+     * @return the stream of the column values.
+     * @throws CSVConfigurationException if the column is not configured or not present in the source.
+     * @throws CSVSingleUseViolationException if a stream has already been returned.
+     */
+    public Stream<Object> objColumn( final String columnId )
+    {
+        
+        return objColumn( columnId, CSVBadValuePolicy.FAIL, null );
+        
+    }
+    
+    /**
+     * Returns the values of the given column processed
+     * by the related configured field.
+     * <p>
+     * The empty values of optional fields are returned as {@code null}.
+     * 
+     * @param columnId     the configured column identifier.
+     * @param policy       the way to handle the values failing the processing.
+     * @param defaultValue the value to use if the policy is {@link CSVBadValuePolicy#DEFAULT}.
+     * @return the stream of the column values.
+     * @throws CSVConfigurationException if the column is not configured or not present in the source.
+     * @throws CSVSingleUseViolationException if a stream has already been returned.
+     */
+    public Stream<Object> objColumn( final String columnId, final CSVBadValuePolicy policy, final Object defaultValue )
+    {
+        
+        final Cursor cursor = openCursor( columnId, policy );
+        return StreamSupport.stream( new ObjColumnSpliterator(cursor, defaultValue), false )
+                            .onClose( this::closeStream );
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException
+    {
+        
+        source.close();
+        
+        final Cursor[] opened;
+        synchronized( cursors )
+        {
+            opened = cursors.toArray( new Cursor[cursors.size()] );
+        }
+        
+        for( Cursor cursor : opened )
+            cursor.close();
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Creates the cursor over the given column of the source.
+     * 
+     * @param columnId the configured column identifier.
+     * @param policy   the way to handle the bad values.
+     * @return a new cursor.
+     */
+    private Cursor openCursor( final String columnId, final CSVBadValuePolicy policy )
+    {
+        
+        if( policy == null )
+            throw new NullPointerException( "The bad value policy is mandatory and can't be null." );
+        
+        final int column = source.getColumnIndex( columnId );
+        if( column < 0 )
+            throw new CSVConfigurationException( "The column " + columnId + " is not configured or not present in the CSV source" );
+        
+        if( alreadyInvoked.getAndSet(true) )
+            throw new CSVSingleUseViolationException();
+        
+        final long end = file != null ? file.length() : Long.MAX_VALUE;
+        return register( new Cursor(source, fileSource, column, policy, dataStart, end, false) );
+        
+    }
+    
+    /**
+     * Registers the given cursor to be closed with this reader.
+     * 
+     * @param cursor the cursor to register.
+     * @return the given cursor.
+     */
+    private Cursor register( final Cursor cursor )
+    {
+        
+        synchronized( cursors )
+        {
+            cursors.add( cursor );
+        }
+        
+        return cursor;
+        
+    }
+    
+    /**
+     * Closes this reader when the returned stream is closed.
+     * 
+     */
+    private void closeStream()
+    {
+        
+        try{
+            
+            close();
+            
+        }catch( IOException ex )
+        {
+            throw new CSVUnrecoverableStateException( "Unable to close the CSV source", ex );
+        }
+        
+    }
+    
+    /**
+     * Returns the offset of the first line starting
+     * in the given range of the source file.
+     * 
+     * @param from the first offset of the range.
+     * @param to   the offset after the range.
+     * @return the offset of the first line or {@code to} if none.
+     * @throws IOException if an error occurs reading the file.
+     */
+    private long nextLineStart( final long from, final long to ) throws IOException
+    {
+        
+        try( RandomAccessFile raf = new RandomAccessFile(file, "r") )
+        {
+            
+            /* A line starts where the previous byte ends a record separator. */
+            long position = from - 1;
+            raf.seek( position );
+            
+            final byte[] buffer = new byte[8192];
+            int matched = 0;
+            int read;
+            while( position < to - 1 && (read = raf.read(buffer)) > 0 )
+                for( int i = 0; i < read && position < to - 1; ++i, ++position )
+                {
+                    
+                    if( recordSeparatorSequence == null )
+                    {
+                        if( isRecordEnd(buffer[i]) )
+                            return position + 1;
+                        
+                        continue;
+                    }
+                    
+                    /* The whole sequence must be matched. */
+                    if( buffer[i] == recordSeparatorSequence[matched] )
+                        ++matched;
+                    else
+                        matched = buffer[i] == recordSeparatorSequence[0] ? 1 : 0;
+                    
+                    if( matched == recordSeparatorSequence.length )
+                        return position + 1;
+                    
+                }
+            
+        }
+        
+        return to;
+        
+    }
+    
+    /**
+     * Tells if the given byte ends a record separator.
+     * 
+     * @param value the byte to check.
+     * @return {@code true} if the byte ends a record separator.
+     */
+    private boolean isRecordEnd( final byte value )
+    {
+        
+        for( char recordEnd : recordEnds )
+            if( value == recordEnd )
+                return true;
+        
+        return false;
+        
+    }
+    
+    
+    /* *************** */
+    /*  INNER CLASSES  */
+    /* *************** */
+    
+    
+    /**
+     * Moves over the records of a range of the source
+     * positioning the parser on the requested column.
+     * 
+     * @author Nerd4j Team
+     */
+    private final class Cursor implements Closeable
+    {
+        
+        /** Index of the requested column in the source. */
+        private final int column;
+        
+        /** The way to handle the bad values. */
+        private final CSVBadValuePolicy policy;
+        
+        /** The CSV source, {@code null} until opened. */
+        private CSVSource source;
+        
+        /** The reader of the file if any. */
+        private CSVFileSource fileSource;
+        
+        /** The parser of the CSV source. */
+        private CSVParser parser;
+        
+        /** The field configured for the requested column. */
+        private CSVField<String,?> field;
+        
+        /** The context used to process the values. */
+        private CSVFieldProcessContext context;
+        
+        /** Byte offset of the first record of the range. */
+        private long start;
+        
+        /** Byte offset after the range. */
+        private final long end;
+        
+        /** Tells if the records starting after the end of the range must be ignored. */
+        private final boolean bounded;
+        
+        /** The last token read. */
+        private CSVToken token;
+        
+        /** Tells if the reading of the range has started. */
+        private boolean started;
+        
+        /** Tells if the end of the range has been reached. */
+        private boolean finished;
+        
+        /** Index of the current record in the range. */
+        private int row;
+        
+        /** Tells if the current record misses the requested column. */
+        private boolean missing;
+        
+        /** The last parsed integral value. */
+        private long longValue;
+        
+        /** The last parsed floating point value. */
+        private double doubleValue;
+        
+        /** The last processed value. */
+        private Object objValue;
+        
+        
+        /**
+         * Constructor with parameters.
+         * 
+         * @param source     the CSV source positioned on the first record, {@code null} to open it when needed.
+         * @param fileSource the reader of the file if any.
+         * @param column     index of the requested column in the source.
+         * @param policy     the way to handle the bad values.
+         * @param start      byte offset of the first record of the range.
+         * @param end        byte offset after the range.
+         * @param bounded    tells if the records starting after the end of the range must be ignored.
+         */
+        Cursor( final CSVSource source, final CSVFileSource fileSource, final int column,
+                final CSVBadValuePolicy policy, final long start, final long end, final boolean bounded )
+        {
+            
+            super();
+            
+            this.column = column;
+            this.policy = policy;
+            this.start = start;
+            this.end = end;
+            this.bounded = bounded;
+            this.row = -1;
+            
+            if( source != null )
+                use( source, fileSource );
+            
+        }
+        
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void close() throws IOException
+        {
+            
+            if( source != null )
+                source.close();
+            
+        }
+        
+        /**
+         * Moves to the requested column of the next record in the range.
+         * 
+         * @return {@code false} if there are no more records in the range.
+         * @throws IOException if an error occurs reading the source.
+         */
+        boolean next() throws IOException
+        {
+            
+            if( finished )
+                return false;
+            
+            if( source == null )
+                open();
+            
+            started = true;
+            
+            /* We move to the end of the previous record. */
+            while( token == CSVToken.FIELD )
+                token = parser.skip();
+            
+            /* We skip any empty row. */
+            do{
+                
+                if( token == CSVToken.END_OF_DATA || ! isInRange() )
+                    return finish();
+                
+                token = column == 0 ? parser.read() : parser.skip();
+                
+            }while( token == CSVToken.END_OF_RECORD );
+            
+            if( token == CSVToken.END_OF_DATA )
+                return finish();
+            
+            /* We skip the columns before the requested one. */
+            for( int i = 1; i <= column && token == CSVToken.FIELD; ++i )
+                token = i == column ? parser.read() : parser.skip();
+            
+            missing = token != CSVToken.FIELD;
+            
+            context.clear();
+            context.moveTo( ++row, column );
+            
+            return true;
+            
+        }
+        
+        /**
+         * Parses the current value as an integral
+         * value in the given range.
+         * 
+         * @param min the minimum accepted value.
+         * @param max the maximum accepted value.
+         * @return {@code true} if the value is valid.
+         */
+        boolean parseLong( final long min, final long max )
+        {
+            
+            if( missing )
+                return false;
+            
+            final CharSequence chars = parser.getCurrentChars();
+            final int length = chars.length();
+            if( length == 0 )
+                return false;
+            
+            int i = 0;
+            boolean negative = false;
+            
+            final char first = chars.charAt( 0 );
+            if( first == '-' || first == '+' )
+            {
+                if( length == 1 )
+                    return false;
+                
+                negative = first == '-';
+                ++i;
+            }
+            
+            /* We accumulate negatively to handle the minimum value. */
+            final long limit = negative ? min : -max;
+            final long limitBeforeMultiply = limit / 10;
+            
+            long result = 0;
+            for( ; i < length; ++i )
+            {
+                
+                final int digit = chars.charAt( i ) - '0';
+                if( digit < 0 || digit > 9 || result < limitBeforeMultiply )
+                    return false;
+                
+                result *= 10;
+                if( result < limit + digit )
+                    return false;
+                
+                result -= digit;
+                
+            }
+            
+            longValue = negative ? result : -result;
+            return true;
+            
+        }
+        
+        /**
+         * Parses the current value as a floating point value.
+         * 
+         * @return {@code true} if the value is valid.
+         */
+        boolean parseDouble()
+        {
+            
+            if( missing || parser.getCurrentChars().length() == 0 )
+                return false;
+            
+            try{
+                
+                doubleValue = Double.parseDouble( parser.getCurrentValue() );
+                return true;
+                
+            }catch( NumberFormatException ex )
+            {
+                return false;
+            }
+            
+        }
+        
+        /**
+         * Processes the current value using the configured field.
+         * 
+         * @return {@code true} if the processing succeeded.
+         */
+        boolean process()
+        {
+            
+            if( missing && ! metadata.isAcceptIncompleteRecords() )
+                return false;
+            
+            final String value = missing ? null : parser.getCurrentValue();
+            context.setOriginalValue( value );
+            
+            objValue = field.process( value, context );
+            return ! context.isError();
+            
+        }
+        
+        /**
+         * Applies the bad value policy to the current value.
+         * 
+         * @param type the name of the requested type.
+         * @return {@code true} if the default value must be returned,
+         *         {@code false} if the value must be skipped.
+         * @throws CSVProcessException if the policy requires to fail.
+         */
+        boolean badValue( final String type )
+        {
+            
+            switch( policy )
+            {
+                
+                case SKIP:
+                    return false;
+                
+                case DEFAULT:
+                    return true;
+                
+                default:
+                    if( ! context.isError() )
+                    {
+                        final String pattern = missing
+                                             ? "The column {0} is missing"
+                                             : "Unable to convert {1} into a " + type + " value";
+                        
+                        context.setOriginalValue( missing ? null : parser.getCurrentValue() );
+                        context.operationFailed( () -> pattern );
+                    }
+                    
+                    throw new CSVProcessException( context.getError() );
+                    
+            }
+            
+        }
+        
+        /**
+         * Splits the range of this cursor at the first line starting
+         * after the middle of the range.
+         * <p>
+         * The cursor keeps the second half of the range and
+         * a new cursor is returned for the first half.
+         * 
+         * @return the cursor for the first half or {@code null} if the range can't be split.
+         */
+        Cursor split()
+        {
+            
+            /* The range can be split only on request and before the reading starts. */
+            if( ! splittable || file == null || started )
+                return null;
+            
+            if( end - start < MIN_SPLIT_SIZE )
+                return null;
+            
+            final long middle;
+            try{
+                
+                middle = nextLineStart( start + (end - start) / 2, end );
+                
+            }catch( IOException ex )
+            {
+                logger.debug( "Unable to split the CSV source", ex );
+                return null;
+            }
+            
+            if( middle >= end )
+                return null;
+            
+            /* The first half takes the opened source if any. */
+            final Cursor prefix = new Cursor( source, fileSource, column, policy, start, middle, true );
+            source = null;
+            fileSource = null;
+            parser = null;
+            token = null;
+            start = middle;
+            
+            return register( prefix );
+            
+        }
+        
+        /**
+         * Returns the estimated size in bytes of the range.
+         * 
+         * @return the estimated size.
+         */
+        long estimateSize()
+        {
+            
+            return file != null ? Math.max( end - start, 0 ) : Long.MAX_VALUE;
+            
+        }
+        
+        /**
+         * Opens the source of the range.
+         * 
+         * @throws IOException if an error occurs opening the source.
+         */
+        private void open() throws IOException
+        {
+            
+            final CSVFileSource rangeSource = new CSVFileSource( file, charset, recordEnds, start, false );
+            try{
+                
+                final CSVParser rangeParser = metadata.getParserFactory().create( rangeSource, false );
+                use( CSVSource.open(rangeParser, CSVColumnReader.this.source.getHeader(), metadata), rangeSource );
+                
+            }catch( RuntimeException ex )
+            {
+                rangeSource.close();
+                throw ex;
+            }
+            
+        }
+        
+        /**
+         * Sets the given source as the source of the range.
+         * 
+         * @param source     the CSV source to use.
+         * @param fileSource the reader of the file if any.
+         */
+        private void use( final CSVSource source, final CSVFileSource fileSource )
+        {
+            
+            this.source = source;
+            this.fileSource = fileSource;
+            this.parser = source.getParser();
+            this.field = source.getFields()[column];
+            this.context = new CSVFieldProcessContext( source.getHeader() );
+            this.token = parser.getCurrentToken();
+            
+        }
+        
+        /**
+         * Marks the end of the range and releases the source.
+         * 
+         * @return always {@code false}.
+         * @throws IOException if an error occurs closing the source.
+         */
+        private boolean finish() throws IOException
+        {
+            
+            finished = true;
+            close();
+            
+            return false;
+            
+        }
+        
+        /**
+         * Tells if the next record starts in the range.
+         * 
+         * @return {@code true} if the next record starts in the range.
+         */
+        private boolean isInRange()
+        {
+            
+            return ! bounded || fileSource.isBefore( parser.getCharPosition(), end );
+            
+        }
+        
+    }
+    
+    
+    /**
+     * Base class for the spliterators over the column values.
+     * 
+     * @author Nerd4j Team
+     */
+    private abstract static class ColumnSpliterator
+    {
+        
+        /** The cursor over the records. */
+        protected final Cursor cursor;
+        
+        
+        /**
+         * Constructor with parameters.
+         * 
+         * @param cursor the cursor over the records.
+         */
+        ColumnSpliterator( final Cursor cursor )
+        {
+            
+            super();
+            
+            this.cursor = cursor;
+            
+        }
+        
+        
+        /**
+         * Returns the estimated size of the range.
+         * 
+         * @return the estimated size.
+         */
+        public long estimateSize()
+        {
+            
+            return cursor.estimateSize();
+            
+        }
+        
+        /**
+         * Returns the characteristics of the spliterator.
+         * 
+         * @return the characteristics.
+         */
+        public int characteristics()
+        {
+            
+            return Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+            
+        }
+        
+        /**
+         * Moves to the next record.
+         * 
+         * @return {@code false} if there are no more records.
+         */
+        protected boolean next()
+        {
+            
+            try{
+                
+                return cursor.next();
+                
+            }catch( IOException ex )
+            {
+                throw new CSVUnrecoverableStateException( "Unable to read the CSV source", ex );
+            }
+            
+        }
+        
+    }
+    
+    
+    /**
+     * Spliterator over the {@code int} values of the column.
+     * 
+     * @author Nerd4j Team
+     */
+    private static final class IntColumnSpliterator extends ColumnSpliterator implements Spliterator.OfInt
+    {
+        
+        /** The value used in place of the bad values. */
+        private final int defaultValue;
+        
+        
+        /**
+         * Constructor with parameters.
+         * 
+         * @param cursor       the cursor over the records.
+         * @param defaultValue the value used in place of the bad values.
+         */
+        IntColumnSpliterator( final Cursor cursor, final int defaultValue )
+        {
+            
+            super( cursor );
+            
+            this.defaultValue = defaultValue;
+            
+        }
+        
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean tryAdvance( final IntConsumer action )
+        {
+            
+            while( next() )
+                if( cursor.parseLong(Integer.MIN_VALUE, Integer.MAX_VALUE) )
+                {
+                    action.accept( (int) cursor.longValue );
+                    return true;
+                }
+                else if( cursor.badValue("int") )
+                {
+                    action.accept( defaultValue );
+                    return true;
+                }
+            
+            return false;
+            
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Spliterator.OfInt trySplit()
+        {
+            
+            final Cursor prefix = cursor.split();
+            return prefix != null ? new IntColumnSpliterator( prefix, defaultValue ) : null;
+            
+        }
+        
+    }
+    
+    
+    /**
+     * Spliterator over the {@code long} values of the column.
+     * 
+     * @author Nerd4j Team
+     */
+    private static final class LongColumnSpliterator extends ColumnSpliterator implements Spliterator.OfLong
+    {
+        
+        /** The value used in place of the bad values. */
+        private final long defaultValue;
+        
+        
+        /**
+         * Constructor with parameters.
+         * 
+         * @param cursor       the cursor over the records.
+         * @param defaultValue the value used in place of the bad values.
+         */
+        LongColumnSpliterator( final Cursor cursor, final long defaultValue )
+        {
+            
+            super( cursor );
+            
+            this.defaultValue = defaultValue;
+            
+        }
+        
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean tryAdvance( final LongConsumer action )
+        {
+            
+            while( next() )
+                if( cursor.parseLong(Long.MIN_VALUE, Long.MAX_VALUE) )
+                {
+                    action.accept( cursor.longValue );
+                    return true;
+                }
+                else if( cursor.badValue("long") )
+                {
+                    action.accept( defaultValue );
+                    return true;
+                }
+            
+            return false;
+            
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Spliterator.OfLong trySplit()
+        {
+            
+            final Cursor prefix = cursor.split();
+            return prefix != null ? new LongColumnSpliterator( prefix, defaultValue ) : null;
+            
+        }
+        
+    }
+    
+    
+    /**
+     * Spliterator over the {@code double} values of the column.
+     * 
+     * @author Nerd4j Team
+     */
+    private static final class DoubleColumnSpliterator extends ColumnSpliterator implements Spliterator.OfDouble
+    {
+        
+        /** The value used in place of the bad values. */
+        private final double defaultValue;
+        
+        
+        /**
+         * Constructor with parameters.
+         * 
+         * @param cursor       the cursor over the records.
+         * @param defaultValue the value used in place of the bad values.
+         */
+        DoubleColumnSpliterator( final Cursor cursor, final double defaultValue )
+        {
+            
+            super( cursor );
+            
+            this.defaultValue = defaultValue;
+            
+        }
+        
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean tryAdvance( final DoubleConsumer action )
+        {
+            
+            while( next() )
+                if( cursor.parseDouble() )
+                {
+                    action.accept( cursor.doubleValue );
+                    return true;
+                }
+                else if( cursor.badValue("double") )
+                {
+                    action.accept( defaultValue );
+                    return true;
+                }
+            
+            return false;
+            
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Spliterator.OfDouble trySplit()
+        {
+            
+            final Cursor prefix = cursor.split();
+            return prefix != null ? new DoubleColumnSpliterator( prefix, defaultValue ) : null;
+            
+        }
+        
+    }
+    
+    
+    /**
+     * Spliterator over the processed values of the column.
+     * 
+     * @author Nerd4j Team
+     */
+    private static final class ObjColumnSpliterator extends ColumnSpliterator implements Spliterator<Object>
+    {
+        
+        /** The value used in place of the bad values. */
+        private final Object defaultValue;
+        
+        
+        /**
+         * Constructor with parameters.
+         * 
+         * @param cursor       the cursor over the records.
+         * @param defaultValue the value used in place of the bad values.
+         */
+        ObjColumnSpliterator( final Cursor cursor, final Object defaultValue )
+        {
+            
+            super( cursor );
+            
+            this.defaultValue = defaultValue;
+            
+        }
+        
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean tryAdvance( final Consumer<? super Object> action )
+        {
+            
+            while( next() )
+                if( cursor.process() )
+                {
+                    action.accept( cursor.objValue );
+                    return true;
+                }
+                else if( cursor.badValue("processed") )
+                {
+                    action.accept( defaultValue );
+                    return true;
+                }
+            
+            return false;
+            
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Spliterator<Object> trySplit()
+        {
+            
+            final Cursor prefix = cursor.split();
+            return prefix != null ? new ObjColumnSpliterator( prefix, defaultValue ) : null;
+            
+        }
+        
+        /**
+         * {@inheritDoc}
+         * <p>
+         * The empty values of the optional fields are {@code null}.
+         */
+        @Override
+        public int characteristics()
+        {
+            
+            return Spliterator.ORDERED | Spliterator.IMMUTABLE;
+            
+        }
+        
+    }
+    
+}
@@ -0,0 +1,153 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+
+/**
+ * Implementation of the {@link CSVCheckpointStore} interface
+ * that saves the last checkpoint into a file.
+ * 
+ * <p>
+ * The checkpoint is written into a temporary file that replaces
+ * the previous one, so an interrupted save never corrupts the
+ * last saved checkpoint.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVFileCheckpointStore implements CSVCheckpointStore
+{
+	
+	/** Version of the file format. */
+	private static final int VERSION = 1;
+	
+	/** The file where to save the checkpoint. */
+	private final File file;
+	
+	/** The temporary file used while saving. */
+	private final File temp;
+	
+	
+	/**
+	 * Constructor with parameters.
+	 * 
+	 * @param file the file where to save the checkpoint.
+	 */
+	public CSVFileCheckpointStore( final File file )
+	{
+		
+		super();
+		
+		if( file == null )
+			throw new NullPointerException( "The checkpoint file is mandatory and can't be null." );
+		
+		this.file = file;
+		this.temp = new File( file.getPath() + ".tmp" );
+		
+	}
+	
+	
+	/* ******************* */
+	/*  INTERFACE METHODS  */
+	/* ******************* */
+	
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CSVCheckpoint load() throws IOException
+	{
+		
+		if( ! file.exists() )
+			return null;
+		
+		try( DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file))) )
+		{
+			
+			final int version = in.readInt();
+			if( version != VERSION )
+				throw new IOException( "Unsupported checkpoint version " + version + " in " + file );
+			
+			final long offset = in.readLong();
+			final long recordIndex = in.readLong();
+			
+			final int length = in.readInt();
+			final String[] header = length < 0 ? null : new String[length];
+			for( int i = 0; i < length; ++i )
+				header[i] = in.readBoolean() ? in.readUTF() : null;
+			
+			return new CSVCheckpoint( offset, recordIndex, header );
+			
+		}
+		
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void save( final CSVCheckpoint checkpoint ) throws IOException
+	{
+		
+		try( DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp))) )
+		{
+			
+			out.writeInt( VERSION );
+			out.writeLong( checkpoint.getOffset() );
+			out.writeLong( checkpoint.getRecordIndex() );
+			
+			final String[] header = checkpoint.getHeader();
+			out.writeInt( header != null ? header.length : -1 );
+			if( header != null )
+				for( String name : header )
+				{
+					out.writeBoolean( name != null );
+					if( name != null )
+						out.writeUTF( name );
+				}
+			
+		}
+		
+		try{
+			
+			Files.move( temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+			
+		}catch( AtomicMoveNotSupportedException ex )
+		{
+			Files.move( temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING );
+		}
+		
+	}
+	
+}
@@ -0,0 +1,412 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.nerd4j.csv.CSVProcessContext;
+import org.nerd4j.csv.CSVProcessOutcome;
+import org.nerd4j.csv.exception.CSVProcessException;
+import org.nerd4j.csv.exception.CSVSingleUseViolationException;
+import org.nerd4j.csv.exception.CSVToModelBindingException;
+import org.nerd4j.csv.parser.CSVParser;
+import org.nerd4j.csv.reader.batch.CSVColumnBatch;
+import org.nerd4j.csv.reader.batch.CSVRecordBatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Implementation of the {@link CSVFollowReader} interface
+ * reading from a {@link CSVFileSource}.
+ * 
+ * <p>
+ * The records are read by a {@link CSVReader} over the file source,
+ * this class counts the records read and maps the position of the
+ * parser into the file offset to provide checkpoints.
+ * 
+ * <p>
+ * When a {@link CSVCheckpointStore} is set the cost on each record
+ * is a counter increment and, if a time interval is configured,
+ * a clock check every {@value #TIME_CHECK_MASK} + 1 records.
+ * 
+ * @param <M> type of the data model returned by the reader.
+ * 
+ * @author Nerd4j Team
+ */
+final class CSVFileReaderImpl<M> implements CSVFollowReader<M>, CSVColumnBatchReader
+{
+    
+    /** Internal logging system. */
+    private static final Logger logger = LoggerFactory.getLogger( CSVFileReaderImpl.class );
+    
+    /** The clock is checked each time the records since the last checkpoint are a multiple of this mask plus one. */
+    private static final long TIME_CHECK_MASK = 63;
+    
+    /** The reader of the records. */
+    private final CSVReaderImpl<M> reader;
+    
+    /** The parser used by the reader. */
+    private final CSVParser parser;
+    
+    /** The file source. */
+    private final CSVFileSource source;
+    
+    /** Tells if the method {@link #iterator()} has already been invoked. */
+    private final AtomicBoolean alreadyInvoked;
+    
+    /** The number of records read so far. */
+    private long recordIndex;
+    
+    /** The store where to persist the checkpoints, if any. */
+    private CSVCheckpointStore store;
+    
+    /** The number of records between two checkpoints. */
+    private long everyRecords;
+    
+    /** The nanoseconds between two checkpoints. */
+    private long everyNanos;
+    
+    /** The records read since the last checkpoint. */
+    private long recordsSinceCheckpoint;
+    
+    /** The time of the last checkpoint in nanoseconds. */
+    private long lastCheckpointTime;
+    
+    /** Tells if the reading failed and the reader is no longer at a record boundary. */
+    private boolean failed;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param reader      the reader of the records.
+     * @param parser      the parser used by the reader.
+     * @param source      the file source.
+     * @param recordIndex the number of records already read.
+     */
+    CSVFileReaderImpl( final CSVReaderImpl<M> reader, final CSVParser parser,
+                       final CSVFileSource source, final long recordIndex )
+    {
+        
+        super();
+        
+        this.reader = reader;
+        this.parser = parser;
+        this.source = source;
+        this.recordIndex = recordIndex;
+        
+        this.store = null;
+        this.failed = false;
+        this.alreadyInvoked = new AtomicBoolean();
+        
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getOffset()
+    {
+        
+        return source.getByteOffset( parser.getCharPosition() );
+        
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CSVCheckpoint getCheckpoint()
+    {
+        
+        return new CSVCheckpoint( getOffset(), recordIndex, reader.getHeader() );
+        
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setCheckpointStore( final CSVCheckpointStore store, final long everyRecords, final long everyMillis )
+    {
+        
+        this.store = store;
+        this.everyRecords = everyRecords;
+        this.everyNanos = everyMillis > 0 ? TimeUnit.MILLISECONDS.toNanos( everyMillis ) : 0;
+        this.recordsSinceCheckpoint = 0;
+        this.lastCheckpointTime = System.nanoTime();
+        
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void stop()
+    {
+        
+        source.stop();
+        
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String[] getHeader()
+    {
+        
+        return reader.getHeader();
+        
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEndOfData()
+    {
+        
+        return reader.isEndOfData();
+        
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public M readModel() throws IOException, CSVToModelBindingException, CSVProcessException
+    {
+        
+        final CSVProcessOutcome<M> outcome = read();
+        final CSVProcessContext context = outcome.getCSVProcessContext();
+        if( context.isError() )
+            throw new CSVProcessException( context.getError() );
+        
+        return outcome.getModel();
+        
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CSVProcessOutcome<M> read() throws IOException, CSVToModelBindingException
+    {
+        
+        final CSVProcessOutcome<M> outcome;
+        try{
+            
+            outcome = reader.read();
+            
+        }catch( IOException | RuntimeException ex )
+        {
+            failed = true;
+            throw ex;
+        }
+        
+        if( reader.isEndOfData() )
+        {
+            if( store != null && recordsSinceCheckpoint > 0 )
+                checkpoint();
+        }
+        else
+        {
+            ++recordIndex;
+            if( store != null )
+                checkpointIfNeeded();
+        }
+        
+        return outcome;
+        
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int readBatch( final CSVColumnBatch batch ) throws IOException, CSVToModelBindingException
+    {
+        
+        final int size;
+        try{
+            
+            size = reader.readBatch( batch );
+            
+        }catch( IOException | RuntimeException ex )
+        {
+            failed = true;
+            throw ex;
+        }
+        
+        batchRead( size + batch.getRejected() );
+        return size;
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int readBatch( final CSVRecordBatch<M> batch ) throws IOException, CSVToModelBindingException
+    {
+        
+        final int size;
+        try{
+            
+            size = reader.readBatch( batch );
+            
+        }catch( IOException | RuntimeException ex )
+        {
+            failed = true;
+            throw ex;
+        }
+        
+        batchRead( size );
+        return size;
+        
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<CSVProcessOutcome<M>> iterator() throws CSVSingleUseViolationException
+    {
+        
+        if( alreadyInvoked.getAndSet(true) )
+            throw new CSVSingleUseViolationException();
+        
+        return new CSVReaderIterator<>( this );
+        
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException
+    {
+        
+        try{
+            
+            if( store != null && recordsSinceCheckpoint > 0 && ! failed )
+                checkpoint();
+            
+        }finally
+        {
+            reader.close();
+        }
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Counts the records read into a batch and saves
+     * a checkpoint if one of the configured conditions is met.
+     * 
+     * @param records the number of records read into the batch.
+     * @throws IOException if an error occurs saving the checkpoint.
+     */
+    private void batchRead( final int records ) throws IOException
+    {
+        
+        recordIndex += records;
+        
+        if( store != null )
+        {
+            recordsSinceCheckpoint += records;
+            if( reader.isEndOfData() )
+            {
+                if( recordsSinceCheckpoint > 0 )
+                    checkpoint();
+            }
+            else if( everyRecords > 0 && recordsSinceCheckpoint >= everyRecords )
+                checkpoint();
+            else if( everyNanos > 0 && System.nanoTime() - lastCheckpointTime >= everyNanos )
+                checkpoint();
+        }
+        
+    }
+    
+    /**
+     * Saves a checkpoint if one of the configured conditions is met.
+     * 
+     * @throws IOException if an error occurs saving the checkpoint.
+     */
+    private void checkpointIfNeeded() throws IOException
+    {
+        
+        ++recordsSinceCheckpoint;
+        if( everyRecords > 0 && recordsSinceCheckpoint >= everyRecords )
+            checkpoint();
+        else if( everyNanos > 0 && (recordsSinceCheckpoint & TIME_CHECK_MASK) == 0
+                 && System.nanoTime() - lastCheckpointTime >= everyNanos )
+            checkpoint();
+        
+    }
+    
+    
+    /**
+     * Saves the checkpoint of the current position.
+     * 
+     * @throws IOException if an error occurs saving the checkpoint.
+     */
+    private void checkpoint() throws IOException
+    {
+        
+        final CSVCheckpoint checkpoint = getCheckpoint();
+        store.save( checkpoint );
+        
+        recordsSinceCheckpoint = 0;
+        lastCheckpointTime = System.nanoTime();
+        
+        logger.debug( "Saved {}", checkpoint );
+        
+    }
+    
+}
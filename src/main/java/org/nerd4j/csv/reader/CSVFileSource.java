@@ -0,0 +1,521 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * {@link Reader} over a file that keeps track of the byte offsets
+ * of the characters read and that is able to follow the file while
+ * it is being appended.
+ * 
+ * <p>
+ * The file is read in chunks of complete lines: the bytes after the
+ * last character that can end a record separator are held back until
+ * the line is completed. If the file is not followed the last line is
+ * returned at the end of the file.
+ * Otherwise, when there are no complete lines to return, the reading
+ * methods block, polling the file with an increasing interval, until
+ * new lines are written or {@link #stop()} is invoked.
+ * 
+ * <p>
+ * The reader keeps the bytes of the last returned chunk so that
+ * a position in characters can be mapped back to the related byte
+ * offset in the file by decoding the chunk again. Only the last chunk
+ * is kept, this is enough because the {@link org.nerd4j.csv.parser.CSVParser}
+ * reads new data only when all the previous one has been consumed.
+ * 
+ * <p>
+ * The charset must encode the record separator characters as
+ * single bytes with the same ASCII value and never use such bytes
+ * inside other characters, this is true for UTF-8 and all the
+ * ASCII compatible charsets.
+ * 
+ * @author Nerd4j Team
+ */
+final class CSVFileSource extends Reader
+{
+    
+    /** Internal logging system. */
+    private static final Logger logger = LoggerFactory.getLogger( CSVFileSource.class );
+    
+    /** Initial interval in milliseconds between two checks for new data. */
+    private static final long MIN_POLL_INTERVAL = 10;
+    
+    /** Maximum interval in milliseconds between two checks for new data. */
+    private static final long MAX_POLL_INTERVAL = 1000;
+    
+    /** Initial size of the reading buffers. */
+    private static final int BUFFER_SIZE = 1024 * 64;
+    
+    /** Tells for each ASCII byte if it can end a record separator. */
+    private final boolean[] recordEnds;
+    
+    /** The decoder used to decode each chunk. */
+    private final CharsetDecoder decoder;
+    
+    /** The channel used to read the file. */
+    private final FileChannel channel;
+    
+    /** Object used to wait for new data and to wake up on stop. */
+    private final Object monitor;
+    
+    /** The bytes read and not yet decoded, always in write mode. */
+    private ByteBuffer bytes;
+    
+    /** The characters of the last decoded chunk, always in read mode. */
+    private CharBuffer chars;
+    
+    /** The bytes of the last decoded chunk. */
+    private byte[] chunkBytes;
+    
+    /** Buffer used to decode again the characters to measure. */
+    private CharBuffer measured;
+    
+    /** Number of pending bytes already known not to contain a record separator. */
+    private int scanned;
+    
+    /** Position in characters of the last decoded chunk. */
+    private long chunkCharStart;
+    
+    /** Byte offset in the file of the last decoded chunk. */
+    private long chunkByteStart;
+    
+    /** Byte offset in the file of the first pending byte. */
+    private long pendingByteStart;
+    
+    /** Characters of the last decoded chunk already measured in bytes. */
+    private int measuredChars;
+    
+    /** Size in bytes of the measured characters. */
+    private int measuredBytes;
+    
+    /** Tells if to follow the file waiting for new data. */
+    private final boolean follow;
+    
+    /** Tells if the file should no longer be followed. */
+    private volatile boolean stopped;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param file       the file to follow.
+     * @param charset    the charset used to decode the file.
+     * @param recordEnds the characters that can end a record separator.
+     * @param offset     the byte offset where to start reading.
+     * @param follow     tells if to follow the file waiting for new data.
+     * @throws FileNotFoundException if the file does not exist.
+     * @throws IOException if the offset is beyond the end of the file.
+     */
+    CSVFileSource( final File file, final Charset charset, final char[] recordEnds,
+                   final long offset, final boolean follow )
+    throws FileNotFoundException, IOException
+    {
+        
+        super();
+        
+        if( charset == null )
+            throw new NullPointerException( "The charset is mandatory and can't be null." );
+        
+        this.recordEnds = new boolean[128];
+        for( char recordEnd : recordEnds )
+        {
+            if( recordEnd >= 128 || ! Arrays.equals(new byte[] { (byte) recordEnd }, String.valueOf(recordEnd).getBytes(charset)) )
+                throw new IllegalArgumentException( "The charset " + charset + " is not supported, it must encode the record separators as single ASCII bytes" );
+            
+            this.recordEnds[recordEnd] = true;
+        }
+        
+        if( offset < 0 )
+            throw new IllegalArgumentException( "The offset must be non negative" );
+        
+        this.channel = new RandomAccessFile( file, "r" ).getChannel();
+        if( offset > channel.size() )
+        {
+            channel.close();
+            throw new IOException( "The offset " + offset + " is beyond the end of the file " + file );
+        }
+        
+        channel.position( offset );
+        
+        this.decoder = charset.newDecoder()
+                              .onMalformedInput( CodingErrorAction.REPLACE )
+                              .onUnmappableCharacter( CodingErrorAction.REPLACE );
+        
+        this.monitor = new Object();
+        this.bytes = ByteBuffer.allocate( BUFFER_SIZE );
+        this.chars = CharBuffer.allocate( BUFFER_SIZE );
+        this.chars.flip();
+        this.chunkBytes = new byte[BUFFER_SIZE];
+        this.measured = CharBuffer.allocate( BUFFER_SIZE );
+        
+        this.scanned = 0;
+        this.chunkCharStart = 0;
+        this.chunkByteStart = offset;
+        this.pendingByteStart = offset;
+        this.measuredChars = 0;
+        this.measuredBytes = 0;
+        this.follow = follow;
+        this.stopped = false;
+        
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the file is followed, blocks until a complete
+     * line is available or the reader has been stopped.
+     */
+    @Override
+    public int read( final char[] cbuf, final int off, final int len )
+    throws IOException
+    {
+        
+        if( len == 0 )
+            return 0;
+        
+        if( ! chars.hasRemaining() && ! nextChunk(true) )
+            return -1;
+        
+        final int count = Math.min( len, chars.remaining() );
+        chars.get( cbuf, off, count );
+        
+        return count;
+        
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Returns {@code true} if a complete line
+     * can be read without blocking.
+     */
+    @Override
+    public boolean ready() throws IOException
+    {
+        
+        return chars.hasRemaining() || nextChunk( false );
+        
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException
+    {
+        
+        stop();
+        channel.close();
+        
+    }
+    
+    
+    /**
+     * Stops following the file: the complete lines already
+     * written will be returned, than the end of data is reached.
+     * <p>
+     * This method has no effect if the file is not followed.
+     */
+    void stop()
+    {
+        
+        stopped = true;
+        synchronized( monitor )
+        {
+            monitor.notifyAll();
+        }
+        
+    }
+    
+    
+    /**
+     * Returns the byte offset in the file related to the given
+     * position in characters. The position must belong to the
+     * last returned chunk of characters.
+     * 
+     * @param charPosition the position in characters.
+     * @return the related byte offset.
+     */
+    long getByteOffset( final long charPosition )
+    {
+        
+        final long relative = charPosition - chunkCharStart;
+        if( relative < 0 )
+            throw new IllegalArgumentException( "The position " + charPosition + " has already been discarded" );
+        
+        if( relative == 0 )
+            return chunkByteStart;
+        
+        if( relative >= chars.limit() )
+            return pendingByteStart;
+        
+        /*
+         * The position is inside the chunk, so we need to know how many bytes it takes.
+         * Encoding the characters again is not reliable because the malformed input
+         * has been replaced, so we decode again the bytes of the chunk until the
+         * requested number of characters is produced. The positions are usually
+         * requested in increasing order, so we measure only the characters
+         * following the last measured position.
+         */
+        final int from = relative >= measuredChars ? measuredChars : 0;
+        final int fromBytes = relative >= measuredChars ? measuredBytes : 0;
+        
+        final int count = (int) relative - from;
+        if( measured.capacity() < count )
+            measured = CharBuffer.allocate( count );
+        else
+            measured.clear();
+        
+        measured.limit( count );
+        
+        final ByteBuffer in = ByteBuffer.wrap( chunkBytes, fromBytes, (int) (pendingByteStart - chunkByteStart) - fromBytes );
+        decoder.reset();
+        decoder.decode( in, measured, false );
+        
+        measuredBytes = in.position();
+        measuredChars = from + measured.position();
+        
+        return chunkByteStart + measuredBytes;
+        
+    }
+    
+    
+    /**
+     * Tells if the byte offset related to the given position
+     * in characters is lower than the given byte offset.
+     * <p>
+     * The byte offset is computed only if the given one
+     * falls into the last returned chunk of characters.
+     * 
+     * @param charPosition the position in characters.
+     * @param byteOffset   the byte offset to compare.
+     * @return {@code true} if the position is before the byte offset.
+     */
+    boolean isBefore( final long charPosition, final long byteOffset )
+    {
+        
+        if( pendingByteStart < byteOffset )
+            return true;
+        
+        return getByteOffset( charPosition ) < byteOffset;
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Decodes the next chunk of complete lines.
+     * 
+     * @param wait tells if to wait for new lines to be written.
+     * @return {@code true} if a new chunk is available.
+     * @throws IOException if an error occurs reading the file.
+     */
+    private boolean nextChunk( final boolean wait ) throws IOException
+    {
+        
+        long interval = MIN_POLL_INTERVAL;
+        while( true )
+        {
+            
+            final int read = fill();
+            final int end = lastLineEnd();
+            if( end > 0 )
+            {
+                decode( end );
+                return true;
+            }
+            
+            /* If some data has been read the file may have more. */
+            if( read > 0 )
+            {
+                interval = MIN_POLL_INTERVAL;
+                continue;
+            }
+            
+            /* If the file is not followed the remaining bytes are the last line. */
+            if( ! follow )
+            {
+                if( bytes.position() == 0 )
+                    return false;
+                
+                decode( bytes.position() );
+                return true;
+            }
+            
+            if( ! wait || stopped )
+                return false;
+            
+            if( channel.size() < pendingByteStart + bytes.position() )
+                throw new IOException( "The followed file has been truncated" );
+            
+            pause( interval );
+            interval = Math.min( interval << 1, MAX_POLL_INTERVAL );
+            
+        }
+        
+    }
+    
+    
+    /**
+     * Reads the available bytes from the file,
+     * growing the buffer if it is full.
+     * 
+     * @return the number of bytes read or {@code -1} if at the end of the file.
+     * @throws IOException if an error occurs reading the file.
+     */
+    private int fill() throws IOException
+    {
+        
+        if( ! bytes.hasRemaining() )
+        {
+            
+            final ByteBuffer larger = ByteBuffer.allocate( bytes.capacity() << 1 );
+            bytes.flip();
+            larger.put( bytes );
+            bytes = larger;
+            
+            logger.debug( "Grown follow buffer to {} bytes", bytes.capacity() );
+            
+        }
+        
+        return channel.read( bytes );
+        
+    }
+    
+    
+    /**
+     * Returns the end of the last complete line in the pending bytes.
+     * 
+     * @return the index after the last record separator or {@code 0} if none.
+     */
+    private int lastLineEnd()
+    {
+        
+        final byte[] array = bytes.array();
+        for( int i = bytes.position() - 1; i >= scanned; --i )
+            if( array[i] >= 0 && recordEnds[array[i]] )
+                return i + 1;
+        
+        scanned = bytes.position();
+        return 0;
+        
+    }
+    
+    
+    /**
+     * Decodes the given number of pending bytes into a new chunk.
+     * 
+     * @param end the number of bytes to decode.
+     */
+    private void decode( final int end )
+    {
+        
+        chunkCharStart += chars.limit();
+        chunkByteStart = pendingByteStart;
+        pendingByteStart += end;
+        measuredChars = 0;
+        measuredBytes = 0;
+        
+        final int maxChars = (int) Math.ceil( end * (double) decoder.maxCharsPerByte() );
+        if( chars.capacity() < maxChars )
+            chars = CharBuffer.allocate( maxChars );
+        else
+            chars.clear();
+        
+        if( chunkBytes.length < end )
+            chunkBytes = new byte[end];
+        
+        System.arraycopy( bytes.array(), 0, chunkBytes, 0, end );
+        
+        final int position = bytes.position();
+        bytes.position( 0 );
+        bytes.limit( end );
+        
+        decoder.reset();
+        decoder.decode( bytes, chars, true );
+        decoder.flush( chars );
+        chars.flip();
+        
+        /* The bytes after the last record separator are kept for the next chunk. */
+        bytes.limit( position );
+        bytes.compact();
+        scanned = bytes.position();
+        
+    }
+    
+    
+    /**
+     * Waits for the given interval unless stopped.
+     * 
+     * @param interval the interval to wait in milliseconds.
+     * @throws InterruptedIOException if interrupted while waiting.
+     */
+    private void pause( final long interval ) throws InterruptedIOException
+    {
+        
+        try{
+            
+            synchronized( monitor )
+            {
+                if( ! stopped )
+                    monitor.wait( interval );
+            }
+            
+        }catch( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException( "Interrupted while waiting for new data" );
+        }
+        
+    }
+    
+}
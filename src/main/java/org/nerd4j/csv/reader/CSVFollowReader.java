@@ -0,0 +1,72 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+
+/**
+ * Represents a {@link CSVReader} that follows a CSV file
+ * while new records are appended to it.
+ * 
+ * <p>
+ * When all the records written so far have been read, the
+ * reading methods block waiting for new records instead of
+ * reaching the end of data. Only complete records are returned,
+ * a trailing line not yet terminated by a record separator is held
+ * back until it is completed.
+ * 
+ * <p>
+ * The end of data is reached only after {@link #stop()}
+ * has been invoked and all the complete records already
+ * written have been read.
+ * 
+ * <p>
+ * The value returned by {@link #getOffset()} can be persisted and
+ * used to resume the reading after a restart by invoking
+ * {@link CSVReaderFactory#getCSVFollowReader(java.io.File, long)}.
+ * 
+ * @param <M> type of the data model returned by the reader.
+ * 
+ * @author Nerd4j Team
+ */
+public interface CSVFollowReader<M> extends CSVCheckpointReader<M>
+{
+	
+	/**
+	 * Returns the byte offset in the file of the first
+	 * record not yet read.
+	 * <p>
+	 * This value can be used to resume the reading.
+	 * 
+	 * @return the offset of the next record.
+	 */
+	public long getOffset();
+	
+	/**
+	 * Stops following the file.
+	 * <p>
+	 * The complete records already written can still be read,
+	 * after that the reader reaches the end of data.
+	 * This method can be invoked by any thread.
+	 */
+	public void stop();
+	
+}
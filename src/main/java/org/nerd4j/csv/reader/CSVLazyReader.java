@@ -0,0 +1,75 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+
+/**
+ * Represents a CSV data source reader returning
+ * {@link CSVLazyRecord}s instead of data models.
+ * 
+ * <p>
+ * For each record only the raw characters of the configured columns
+ * are kept, the columns are processed when accessed. This is useful
+ * when the CSV source has many columns but only few of them are used
+ * for each record.
+ * 
+ * <h3>Synchronization</h3>
+ * <p>
+ * CSV lazy readers are not synchronized.
+ * It is recommended to create separate CSV reader instances for each thread.
+ * 
+ * @author Nerd4j Team
+ */
+public interface CSVLazyReader extends Closeable
+{
+	
+	/**
+	 * Returns the CSV header if any, otherwise returns {@code null}.
+	 * 
+	 * @return the CSV header if any, otherwise returns {@code null}.
+	 */
+	public String[] getHeader();
+	
+    /**
+     * Tells if the end of the CSV source has been reached.
+     * 
+     * @return {@code true} if the end of the CSV source has been reached.
+     */
+    public boolean isEndOfData();
+    
+	/**
+	 * Reads a record in the CSV source without processing its columns.
+	 * <p>
+     * <b>IMPORTANT</b> for performance reasons there is only one
+     *                  instance of the record that is reused on each
+     *                  read. Use {@link CSVLazyRecord#detach()} to keep
+     *                  a record after the next read.
+	 * 
+	 * @return the record read or {@code null} if the end of data has been reached.
+	 * @throws IOException if an error occurs reading the CSV source.
+	 */
+	public CSVLazyRecord read() throws IOException;
+	
+}
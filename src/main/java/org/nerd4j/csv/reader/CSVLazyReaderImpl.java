@@ -0,0 +1,202 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.nerd4j.csv.exception.MalformedCSVException;
+import org.nerd4j.csv.field.CSVField;
+import org.nerd4j.csv.field.CSVMappingDescriptor;
+import org.nerd4j.csv.parser.CSVParser;
+import org.nerd4j.csv.parser.CSVToken;
+
+
+/**
+ * Reference implementation of the {@link CSVLazyReader} interface.
+ * 
+ * @author Nerd4j Team
+ */
+final class CSVLazyReaderImpl implements CSVLazyReader
+{
+    
+    /** Object able to parse a CSV source. */
+    private final CSVParser parser;
+    
+    /** Represents the CSV header, can be {@code null} if the CSV has no header. */
+    private final String[] header;
+    
+    /** Contains the processors used to manipulate data. */
+    private final CSVField<String,?>[] fields;
+    
+    /** The record filled on each read. */
+    private final CSVLazyRecord record;
+    
+    /** The index of the last mandatory field, see {@link CSVReaderImpl}. */
+    private final int lastMandatoryField;
+    
+    /** The index of the current record. */
+    private int rowIndex;
+    
+    /** Tells that the end of the CSV source has been reached. */
+    private boolean endOfData;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param csvSource               the opened CSV source.
+     * @param acceptIncompleteRecords tells if to accept non standard CSV with incomplete records.
+     */
+    CSVLazyReaderImpl( final CSVSource csvSource, final boolean acceptIncompleteRecords )
+    {
+        
+        super();
+        
+        this.parser = csvSource.getParser();
+        this.header = csvSource.getHeader();
+        this.fields = csvSource.getFields();
+        
+        final Map<String,Integer> columnIndexes = new HashMap<String,Integer>();
+        final CSVMappingDescriptor[] descriptors = csvSource.getMappingDescriptors();
+        for( int i = 0; i < descriptors.length; ++i )
+            if( descriptors[i] != null )
+                columnIndexes.put( descriptors[i].getColumnId(), i );
+        
+        this.record = new CSVLazyRecord( header, fields, columnIndexes );
+        
+        int lastMandatoryField = fields.length;
+        if( acceptIncompleteRecords )
+        {
+            lastMandatoryField = -1;
+            for( int i = fields.length-1; i >= 0 && lastMandatoryField < 0; --i )
+                if( fields[i] != null && ! fields[i].isOptional() )
+                    lastMandatoryField = i;
+        }
+        
+        this.lastMandatoryField = lastMandatoryField;
+        this.rowIndex = header == null ? -1 : 0;
+        this.endOfData = false;
+        
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String[] getHeader()
+    {
+        
+        return header;
+        
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEndOfData()
+    {
+        
+        return endOfData;
+        
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CSVLazyRecord read() throws IOException
+    {
+        
+        if( endOfData ) return null;
+        
+        /* We skip any empty row. */
+        CSVToken currentToken;
+        do{
+            
+            currentToken = fields[0] != null ? parser.read() : parser.skip();
+            
+        }while( currentToken == CSVToken.END_OF_RECORD );
+        
+        if( currentToken == CSVToken.END_OF_DATA )
+        {
+            this.endOfData = true;
+            return null;
+        }
+        
+        record.reset( ++rowIndex );
+        if( fields[0] != null )
+            record.set( 0, parser.getCurrentChars() );
+        
+        for( int i = 1; i < fields.length; ++i )
+        {
+            
+            currentToken = fields[i] != null ? parser.read() : parser.skip();
+            
+            /* The missing columns of an incomplete record are left absent. */
+            if( currentToken != CSVToken.FIELD )
+            {
+                if( i > lastMandatoryField )
+                    return record;
+                else
+                    throw new MalformedCSVException( "The record ended before all the mandatory fields have been processed." );
+            }
+            
+            if( fields[i] != null )
+                record.set( i, parser.getCurrentChars() );
+            
+        }
+        
+        /* We skip the columns not configured at the end of the record. */
+        do{
+            
+            currentToken = parser.skip();
+            
+        }while( currentToken == CSVToken.FIELD );
+        
+        return record;
+        
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException
+    {
+        
+        parser.close();
+        
+    }
+    
+}
@@ -0,0 +1,400 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.nerd4j.csv.CSVProcessError;
+import org.nerd4j.csv.exception.CSVProcessException;
+import org.nerd4j.csv.field.CSVField;
+import org.nerd4j.csv.field.CSVFieldProcessContext;
+
+
+/**
+ * Represents a CSV record whose columns are
+ * processed only when accessed.
+ * 
+ * <p>
+ * The record keeps the raw characters of the configured columns
+ * and runs the related {@link CSVField} the first time a column
+ * is accessed, the result is kept for the next accesses.
+ * If a column fails to be processed a {@link CSVProcessException}
+ * is thrown each time the column is accessed while the other
+ * columns are still available.
+ * 
+ * <p>
+ * The record returned by {@link CSVLazyReader#read()} is reused
+ * for the next record, use {@link #detach()} to get a copy that
+ * outlives the reading.
+ * 
+ * <h3>Synchronization</h3>
+ * <p>
+ * CSV lazy records are not synchronized.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVLazyRecord
+{
+    
+    /** Value of the length of a column not present in the record. */
+    private static final int ABSENT = -1;
+    
+    /** State of a column not yet processed. */
+    private static final byte PENDING = 0;
+    
+    /** State of a column processed successfully. */
+    private static final byte PROCESSED = 1;
+    
+    /** State of a column failed to be processed. */
+    private static final byte FAILED = 2;
+    
+    /** Represents the CSV header, can be {@code null} if the CSV has no header. */
+    private final String[] header;
+    
+    /** The fields used to process each source column. */
+    private final CSVField<String,?>[] fields;
+    
+    /** The source column index related to each configured column identifier. */
+    private final Map<String,Integer> columnIndexes;
+    
+    /** The context used to process the columns. */
+    private final CSVFieldProcessContext context;
+    
+    /** The raw characters of the columns. */
+    private char[] chars;
+    
+    /** The number of raw characters in use. */
+    private int charCount;
+    
+    /** The position of each column in the raw characters. */
+    private final int[] starts;
+    
+    /** The length of each column, {@value #ABSENT} if not present. */
+    private final int[] lengths;
+    
+    /** The processing state of each column. */
+    private final byte[] states;
+    
+    /** The processed value of each column. */
+    private final Object[] values;
+    
+    /** The processing error of each column. */
+    private final CSVProcessError[] errors;
+    
+    /** The index of the record in the CSV source. */
+    private int rowIndex;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param header        the CSV header if any.
+     * @param fields        the fields used to process each source column.
+     * @param columnIndexes the source column index related to each configured column identifier.
+     */
+    CSVLazyRecord( final String[] header, final CSVField<String,?>[] fields,
+                   final Map<String,Integer> columnIndexes )
+    {
+        
+        super();
+        
+        this.header = header;
+        this.fields = fields;
+        this.columnIndexes = columnIndexes;
+        this.context = new CSVFieldProcessContext( header );
+        
+        this.chars = new char[256];
+        this.starts = new int[fields.length];
+        this.lengths = new int[fields.length];
+        this.states = new byte[fields.length];
+        this.values = new Object[fields.length];
+        this.errors = new CSVProcessError[fields.length];
+        
+    }
+    
+    
+    /* ******************* */
+    /*  GETTERS & SETTERS  */
+    /* ******************* */
+    
+    
+    /**
+     * Returns the index of the record in the CSV source.
+     * 
+     * @return the index of the record.
+     */
+    public int getRowIndex()
+    {
+        return rowIndex;
+    }
+    
+    /**
+     * Returns the CSV header if any, otherwise returns {@code null}.
+     * 
+     * @return the CSV header if any, otherwise returns {@code null}.
+     */
+    public String[] getHeader()
+    {
+        return header;
+    }
+    
+    
+    /* **************** */
+    /*  PUBLIC METHODS  */
+    /* **************** */
+    
+    
+    /**
+     * Returns the index of the source column configured with
+     * the given column identifier or {@code -1} if the given
+     * column is not configured or not present in the source.
+     * 
+     * @param columnId the configured column identifier.
+     * @return the index of the related source column if any, {@code -1} otherwise.
+     */
+    public int getColumnIndex( final String columnId )
+    {
+        
+        final Integer index = columnIndexes.get( columnId );
+        return index != null ? index : -1;
+        
+    }
+    
+    /**
+     * Returns the raw value of the given source column
+     * or {@code null} if the column is empty or missing.
+     * 
+     * @param column the source column index.
+     * @return the raw value of the column.
+     */
+    public String getOriginalValue( final int column )
+    {
+        
+        checkColumn( column );
+        
+        final int length = lengths[column];
+        return length > 0 ? new String( chars, starts[column], length ) : null;
+        
+    }
+    
+    /**
+     * Returns the processed value of the given source column.
+     * 
+     * @param column the source column index.
+     * @return the processed value of the column.
+     * @throws CSVProcessException if the column fails to be processed.
+     */
+    public Object get( final int column ) throws CSVProcessException
+    {
+        
+        checkColumn( column );
+        
+        switch( states[column] )
+        {
+            
+            case PROCESSED:
+                return values[column];
+                
+            case FAILED:
+                throw new CSVProcessException( errors[column] );
+                
+            default:
+                return process( column );
+            
+        }
+        
+    }
+    
+    /**
+     * Returns the processed value of the column
+     * configured with the given identifier.
+     * 
+     * @param columnId the configured column identifier.
+     * @return the processed value of the column.
+     * @throws CSVProcessException if the column fails to be processed.
+     */
+    public Object get( final String columnId ) throws CSVProcessException
+    {
+        
+        final Integer index = columnIndexes.get( columnId );
+        if( index == null )
+            throw new IllegalArgumentException( "The column " + columnId + " is not configured or not present in the source" );
+        
+        return get( index );
+        
+    }
+    
+    /**
+     * Returns the processed value of the column configured
+     * with the given identifier cast to the given type.
+     * 
+     * @param <T>      the expected type of the value.
+     * @param columnId the configured column identifier.
+     * @param type     the expected type of the value.
+     * @return the processed value of the column.
+     * @throws CSVProcessException if the column fails to be processed.
+     */
+    public <T> T get( final String columnId, final Class<T> type ) throws CSVProcessException
+    {
+        
+        return type.cast( get(columnId) );
+        
+    }
+    
+    /**
+     * Returns a copy of this record independent from
+     * the reader, that can be kept after the next read.
+     * <p>
+     * The values already processed are copied as well.
+     * 
+     * @return a copy of this record.
+     */
+    public CSVLazyRecord detach()
+    {
+        
+        final CSVLazyRecord copy = new CSVLazyRecord( header, fields, columnIndexes );
+        
+        copy.rowIndex = rowIndex;
+        copy.charCount = charCount;
+        copy.chars = Arrays.copyOf( chars, charCount );
+        
+        System.arraycopy( starts, 0, copy.starts, 0, starts.length );
+        System.arraycopy( lengths, 0, copy.lengths, 0, lengths.length );
+        System.arraycopy( states, 0, copy.states, 0, states.length );
+        System.arraycopy( values, 0, copy.values, 0, values.length );
+        System.arraycopy( errors, 0, copy.errors, 0, errors.length );
+        
+        return copy;
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PACKAGE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Prepares the record to hold a new CSV record.
+     * 
+     * @param rowIndex the index of the new record.
+     */
+    void reset( final int rowIndex )
+    {
+        
+        this.rowIndex = rowIndex;
+        this.charCount = 0;
+        
+        Arrays.fill( lengths, ABSENT );
+        Arrays.fill( states, PENDING );
+        Arrays.fill( values, null );
+        Arrays.fill( errors, null );
+        
+    }
+    
+    /**
+     * Sets the raw characters of the given source column.
+     * 
+     * @param column the source column index.
+     * @param value  the raw characters of the column.
+     */
+    void set( final int column, final CharSequence value )
+    {
+        
+        final int length = value.length();
+        if( charCount + length > chars.length )
+            chars = Arrays.copyOf( chars, Math.max(charCount + length, chars.length << 1) );
+        
+        for( int i = 0; i < length; ++i )
+            chars[charCount + i] = value.charAt( i );
+        
+        starts[column] = charCount;
+        lengths[column] = length;
+        charCount += length;
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Checks that the given source column is configured.
+     * 
+     * @param column the source column index.
+     */
+    private void checkColumn( final int column )
+    {
+        
+        if( column < 0 || column >= fields.length || fields[column] == null )
+            throw new IllegalArgumentException( "The column " + column + " is not configured" );
+        
+    }
+    
+    /**
+     * Processes the given source column and keeps the outcome.
+     * 
+     * @param column the source column index.
+     * @return the processed value of the column.
+     * @throws CSVProcessException if the column fails to be processed.
+     */
+    private Object process( final int column ) throws CSVProcessException
+    {
+        
+        /* The columns missing in incomplete records are treated as empty. */
+        final String originalValue = lengths[column] > 0 ? new String( chars, starts[column], lengths[column] ) : null;
+        
+        context.clear();
+        context.moveTo( rowIndex, column );
+        context.setOriginalValue( originalValue );
+        
+        final Object value = fields[column].process( originalValue, context );
+        if( context.isError() )
+        {
+            
+            /*
+             * The error refers to the context, so we copy the
+             * context to keep the error after further processing.
+             */
+            final CSVFieldProcessContext errorContext = new CSVFieldProcessContext( header );
+            errorContext.moveTo( rowIndex, column );
+            errorContext.setOriginalValue( originalValue );
+            errorContext.setProcessedValue( context.getProcessedValue() );
+            errorContext.operationFailed( context.getError().getOperation() );
+            
+            states[column] = FAILED;
+            errors[column] = errorContext.getError();
+            throw new CSVProcessException( errors[column] );
+            
+        }
+        
+        states[column] = PROCESSED;
+        values[column] = value;
+        
+        return value;
+        
+    }
+    
+}
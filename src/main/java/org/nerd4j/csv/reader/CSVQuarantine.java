@@ -0,0 +1,310 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Sink of the CSV records rejected by a {@link CSVReader}.
+ * 
+ * <p>
+ * Each rejected record is appended verbatim to the quarantine
+ * preceded by a comment line reporting the row index, the column
+ * and the error that caused the rejection:
+ * <pre>
+ * # row 12 column PRICE: Unable to convert NaN into class java.lang.Float
+ * Sound Card,A sound card,1234,EUR,NaN,true,01-01-13
+ * </pre>
+ * 
+ * <p>
+ * The records are written by a background thread through a buffered
+ * writer so the reading is not slowed down by the quarantine. If the
+ * background thread is not fast enough the reader waits for it.
+ * 
+ * <p>
+ * The quarantine must be closed after the reading
+ * to ensure that all the records have been written.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVQuarantine implements Closeable
+{
+    
+    /** Internal logging system. */
+    private static final Logger logger = LoggerFactory.getLogger( CSVQuarantine.class );
+    
+    /** The maximum number of records waiting to be written. */
+    private static final int QUEUE_SIZE = 1024;
+    
+    /** The entry telling the background thread to stop. */
+    private static final String END = new String();
+    
+    /** The records waiting to be written. */
+    private final BlockingQueue<String> queue;
+    
+    /** The writer of the quarantine. */
+    private final Writer writer;
+    
+    /** The background thread writing the records. */
+    private final Thread worker;
+    
+    /** The error occurred while writing the records, if any. */
+    private volatile IOException failure;
+    
+    /** Tells if the quarantine has been closed. */
+    private boolean closed;
+    
+    
+    /**
+     * Constructor with parameters.
+     * <p>
+     * The quarantine file is written
+     * using the platform default charset.
+     * 
+     * @param file the quarantine file.
+     * @throws IOException if fails to open the file.
+     */
+    public CSVQuarantine( final File file ) throws IOException
+    {
+        
+        this( file, Charset.defaultCharset() );
+        
+    }
+    
+    /**
+     * Constructor with parameters.
+     * <p>
+     * If the quarantine file already exists
+     * the records are appended to it.
+     * 
+     * @param file    the quarantine file.
+     * @param charset the charset used to encode the file.
+     * @throws IOException if fails to open the file.
+     */
+    public CSVQuarantine( final File file, final Charset charset ) throws IOException
+    {
+        
+        this( new OutputStreamWriter(new FileOutputStream(file,true), charset) );
+        
+    }
+    
+    /**
+     * Constructor with parameters.
+     * <p>
+     * The given writer is closed
+     * when the quarantine is closed.
+     * 
+     * @param writer the writer of the quarantine.
+     */
+    public CSVQuarantine( final Writer writer )
+    {
+        
+        super();
+        
+        if( writer == null )
+            throw new NullPointerException( "The quarantine writer is mandatory and can't be null." );
+        
+        this.writer = writer instanceof BufferedWriter ? writer : new BufferedWriter( writer, 64 * 1024 );
+        this.queue  = new ArrayBlockingQueue<String>( QUEUE_SIZE );
+        
+        this.closed  = false;
+        this.failure = null;
+        
+        this.worker = new Thread( this::drain, "csv-quarantine" );
+        this.worker.setDaemon( true );
+        this.worker.start();
+        
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * Writes all the pending records and closes the quarantine.
+     * 
+     * @throws IOException if fails to write the records.
+     */
+    @Override
+    public synchronized void close() throws IOException
+    {
+        
+        if( closed )
+            return;
+        
+        closed = true;
+        enqueue( END );
+        
+        try{
+            
+            worker.join();
+            
+        }catch( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException( "Interrupted while waiting for the quarantine to be written", ex );
+        }
+        
+        if( failure != null )
+            throw failure;
+        
+    }
+    
+    
+    /* **************** */
+    /*  PUBLIC METHODS  */
+    /* **************** */
+    
+    
+    /**
+     * Appends the given rejected record to the quarantine.
+     * 
+     * @param rowIndex   the index of the rejected row.
+     * @param columnName the name of the column that caused the rejection, can be {@code null}.
+     * @param message    the message of the error, can be {@code null}.
+     * @param record     the raw text of the rejected record.
+     * @throws IOException if the quarantine is closed or failed to write the records.
+     */
+    public synchronized void reject( final int rowIndex, final String columnName,
+                                     final String message, final String record )
+    throws IOException
+    {
+        
+        if( closed )
+            throw new IOException( "The quarantine has already been closed" );
+        
+        if( failure != null )
+            throw failure;
+        
+        final StringBuilder sb = new StringBuilder( 64 + (record != null ? record.length() : 0) );
+        sb.append( "# row " ).append( rowIndex );
+        if( columnName != null )
+            sb.append( " column " ).append( columnName );
+        if( message != null )
+            sb.append( ": " ).append( message.replace('\r',' ').replace('\n',' ') );
+        sb.append( '\n' );
+        
+        if( record != null )
+            sb.append( record );
+        sb.append( '\n' );
+        
+        enqueue( sb.toString() );
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Puts the given entry into the queue waiting
+     * for the background thread to make room.
+     * 
+     * @param entry the entry to put.
+     * @throws IOException if interrupted while waiting.
+     */
+    private void enqueue( final String entry ) throws IOException
+    {
+        
+        try{
+            
+            queue.put( entry );
+            
+        }catch( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException( "Interrupted while writing the quarantine", ex );
+        }
+        
+    }
+    
+    /**
+     * Writes the records in the queue until the end entry is found.
+     * <p>
+     * In case of failure the records are consumed but not written.
+     * 
+     */
+    private void drain()
+    {
+        
+        try{
+            
+            String entry;
+            while( (entry = queue.take()) != END )
+            {
+                if( failure != null )
+                    continue;
+                
+                try{
+                    
+                    writer.write( entry );
+                    
+                    /* When the queue is empty we flush the buffer. */
+                    if( queue.isEmpty() )
+                        writer.flush();
+                    
+                }catch( IOException ex )
+                {
+                    logger.error( "Unable to write the quarantine", ex );
+                    failure = ex;
+                }
+            }
+            
+        }catch( InterruptedException ex )
+        {
+            logger.warn( "The quarantine writer has been interrupted", ex );
+            failure = new IOException( "The quarantine writer has been interrupted", ex );
+        }
+        finally
+        {
+            try{
+                
+                writer.close();
+                
+            }catch( IOException ex )
+            {
+                logger.error( "Unable to close the quarantine", ex );
+                if( failure == null )
+                    failure = ex;
+            }
+        }
+        
+    }
+    
+}
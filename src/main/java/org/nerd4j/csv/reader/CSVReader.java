@@ -32,6 +32,8 @@ import org.nerd4j.csv.CSVProcessOutcome;
 import org.nerd4j.csv.exception.CSVProcessException;
 import org.nerd4j.csv.exception.CSVSingleUseViolationException;
 import org.nerd4j.csv.exception.CSVToModelBindingException;
+import org.nerd4j.csv.field.CSVFieldProcessSnapshot;
+import org.nerd4j.csv.reader.batch.CSVRecordBatch;
 
 
 /**
@@ -108,6 +110,72 @@ public interface CSVReader<M> extends Closeable, Iterable<CSVProcessOutcome<M>>
 	 */
 	public CSVProcessOutcome<M> read() throws IOException, CSVToModelBindingException;
 	
+	/**
+	 * Reads the next records in the CSV source into the given
+	 * {@link CSVRecordBatch} until the batch is full or the end
+	 * of the CSV source has been reached.
+	 * <p>
+	 * The batch is emptied before reading. The records that fail
+	 * to be processed are added to the batch as well, in the same
+	 * order, together with a snapshot of the error. A new data model
+	 * is created for each record even in model reuse mode.
+	 * <p>
+	 * If an exception is thrown the batch keeps the records
+	 * read before the failure.
+	 * <p>
+	 * By default the records are read one by one using {@link #read()},
+	 * the readers that reuse the data model are expected to override
+	 * this method.
+	 * 
+	 * @param batch the batch to fill.
+	 * @return the number of records added to the batch, {@code 0} at the end of data.
+	 * @throws IOException if an error occurs reading the CSV source.
+	 * @throws CSVToModelBindingException if an error occurs during model binding.
+	 */
+	default int readBatch( CSVRecordBatch<M> batch ) throws IOException, CSVToModelBindingException
+	{
+		
+		batch.clear();
+		while( ! batch.isFull() )
+		{
+			
+			final CSVProcessOutcome<M> outcome = read();
+			if( outcome.isError() )
+				batch.addError( CSVFieldProcessSnapshot.of(outcome.getCSVProcessContext()) );
+			
+			/* A successful outcome without model means the end of data. */
+			else if( outcome.getModel() == null )
+				break;
+			
+			else
+				batch.add( outcome.getModel() );
+			
+		}
+		
+		return batch.getSize();
+		
+	}
+	
+	/**
+	 * Reads at most the given number of records from the CSV
+	 * source into a new {@link CSVRecordBatch}, see
+	 * {@link #readBatch(CSVRecordBatch)}.
+	 * 
+	 * @param max the maximum number of records to read.
+	 * @return the batch of the records read, empty at the end of data.
+	 * @throws IOException if an error occurs reading the CSV source.
+	 * @throws CSVToModelBindingException if an error occurs during model binding.
+	 */
+	default CSVRecordBatch<M> readBatch( int max ) throws IOException, CSVToModelBindingException
+	{
+		
+		final CSVRecordBatch<M> batch = new CSVRecordBatch<M>( max );
+		readBatch( batch );
+		
+		return batch;
+		
+	}
+	
 	/**
 	 * Creates a {@link Spliterator} over the outcomes returned by this {@link CSVReader}.
 	 * <p>
@@ -23,11 +23,14 @@ package org.nerd4j.csv.reader;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.nio.charset.Charset;
 
 import org.nerd4j.csv.exception.CSVToModelBindingException;
+import org.nerd4j.csv.metrics.CSVMetrics;
 
 
 /**
@@ -39,6 +42,26 @@ import org.nerd4j.csv.exception.CSVToModelBindingException;
  */
 public interface CSVReaderFactory<Model>
 {
+    
+    /**
+     * Sets the collector of the metrics of the readers.
+     * <p>
+     * The metrics are collected only by the readers created
+     * after this call, {@code null} disables the metrics.
+     * <p>
+     * By default the metrics are not supported: disabling them has no
+     * effect, setting a collector throws an {@link UnsupportedOperationException}.
+     * 
+     * @param metrics the collector of the metrics, can be {@code null}.
+     * @throws UnsupportedOperationException if the factory does not support the metrics.
+     */
+    default void setMetrics( CSVMetrics metrics )
+    {
+        
+        if( metrics != null )
+            throw new UnsupportedOperationException( getClass().getName() + " does not support the metrics" );
+        
+    }
 
     /**
      * Creates the {@link CSVReader} able to read the given
@@ -77,4 +100,264 @@ public interface CSVReaderFactory<Model>
     public CSVReader<Model> getCSVReader( Reader reader )
     throws IOException, CSVToModelBindingException;
     
+    /**
+     * Creates the {@link CSVReader} able to read the given CSV source
+     * file and produce a related data model with the given options.
+     * 
+     * @param file    the CSV source file.
+     * @param options the optional behaviours of the reader.
+     * @return a related {@link CSVReader}.
+     * @throws FileNotFoundException if fails to find the source.
+     * @throws IOException if fails to read the source.
+     * @throws CSVToModelBindingException if binding configuration is inconsistent.
+     * @throws org.nerd4j.csv.exception.CSVConfigurationException if a filtered column is not configured.
+     */
+    default CSVReader<Model> getCSVReader( File file, CSVReaderOptions options )
+    throws FileNotFoundException, IOException, CSVToModelBindingException
+    {
+        
+        return getCSVReader( new FileReader(file), options );
+        
+    }
+    
+    /**
+     * Creates the {@link CSVReader} able to read the given CSV source
+     * and produce a related data model with the given options.
+     * <p>
+     * By default the options are not supported and this
+     * method throws an {@link UnsupportedOperationException}.
+     * 
+     * @param reader  the CSV source reader.
+     * @param options the optional behaviours of the reader.
+     * @return a related {@link CSVReader}.
+     * @throws IOException if fails to read the source.
+     * @throws CSVToModelBindingException if binding configuration is inconsistent.
+     * @throws org.nerd4j.csv.exception.CSVConfigurationException if a filtered column is not configured.
+     * @throws UnsupportedOperationException if the factory does not support the options.
+     */
+    default CSVReader<Model> getCSVReader( Reader reader, CSVReaderOptions options )
+    throws IOException, CSVToModelBindingException
+    {
+        
+        throw new UnsupportedOperationException( getClass().getName() + " does not support the reader options" );
+        
+    }
+    
+    /**
+     * Creates the {@link CSVCheckpointReader} able to read the given
+     * CSV source file starting from the given checkpoint.
+     * <p>
+     * The records before the checkpoint are not parsed again, the
+     * header is taken from the checkpoint. If the checkpoint has
+     * no header but the configuration requires to read it, the
+     * header is read from the beginning of the file.
+     * <p>
+     * By default the checkpoints are not supported and this
+     * method throws an {@link UnsupportedOperationException}.
+     * 
+     * @param file       the CSV source file.
+     * @param charset    the charset used to decode the file.
+     * @param checkpoint the checkpoint where to start, {@code null} to start from the beginning.
+     * @return a related {@link CSVCheckpointReader}.
+     * @throws FileNotFoundException if fails to find the source.
+     * @throws IOException if fails to read the source.
+     * @throws CSVToModelBindingException if binding configuration is inconsistent.
+     * @throws UnsupportedOperationException if the factory does not support the checkpoints.
+     * @see CSVCheckpointReader#getCheckpoint()
+     */
+    default CSVCheckpointReader<Model> getCSVReader( File file, Charset charset, CSVCheckpoint checkpoint )
+    throws FileNotFoundException, IOException, CSVToModelBindingException
+    {
+        
+        throw new UnsupportedOperationException( getClass().getName() + " does not support the checkpoints" );
+        
+    }
+    
+    /**
+     * Creates the {@link CSVReader} able to read the given CSV source
+     * file using the given {@link CSVSidecarCache}.
+     * <p>
+     * If the cache contains the values of the file, read with the same
+     * configuration, the records are read from the cache without parsing
+     * the file. Otherwise the file is read and the cache is populated.
+     * <p>
+     * By default the cache is not supported and this
+     * method throws an {@link UnsupportedOperationException}.
+     * 
+     * @param file  the CSV source file.
+     * @param cache the cache of the parsed values.
+     * @return a related {@link CSVReader}.
+     * @throws FileNotFoundException if fails to find the source.
+     * @throws IOException if fails to read the source.
+     * @throws CSVToModelBindingException if binding configuration is inconsistent.
+     * @throws UnsupportedOperationException if the factory does not support the cache.
+     */
+    default CSVReader<Model> getCSVReader( File file, CSVSidecarCache cache )
+    throws FileNotFoundException, IOException, CSVToModelBindingException
+    {
+        
+        throw new UnsupportedOperationException( getClass().getName() + " does not support the sidecar cache" );
+        
+    }
+    
+    /**
+     * Creates a {@link CSVLazyReader} able to read the given CSV source file.
+     * <p>
+     * The lazy reader does not build the data model,
+     * the columns are processed only when accessed.
+     * 
+     * @param file the CSV source file.
+     * @return a related {@link CSVLazyReader}.
+     * @throws FileNotFoundException if fails to find the source.
+     * @throws IOException if fails to read the source.
+     */
+    default CSVLazyReader getCSVLazyReader( File file )
+    throws FileNotFoundException, IOException
+    {
+        
+        return getCSVLazyReader( new FileReader(file) );
+        
+    }
+    
+    /**
+     * Creates a {@link CSVLazyReader} able to read the given CSV source.
+     * <p>
+     * The lazy reader does not build the data model,
+     * the columns are processed only when accessed.
+     * <p>
+     * By default the lazy reading is not supported and this
+     * method throws an {@link UnsupportedOperationException}.
+     * 
+     * @param reader the CSV source.
+     * @return a related {@link CSVLazyReader}.
+     * @throws IOException if fails to read the source.
+     * @throws UnsupportedOperationException if the factory does not support the lazy reading.
+     */
+    default CSVLazyReader getCSVLazyReader( Reader reader )
+    throws IOException
+    {
+        
+        throw new UnsupportedOperationException( getClass().getName() + " does not support the lazy reading" );
+        
+    }
+    
+    /**
+     * Creates a {@link CSVColumnReader} able to read the values
+     * of a single column of the given CSV source file.
+     * <p>
+     * The file is read using the platform default charset and
+     * the returned streams can be split once it is enabled.
+     * 
+     * @param file the CSV source file.
+     * @return a related {@link CSVColumnReader}.
+     * @throws FileNotFoundException if fails to find the source.
+     * @throws IOException if fails to read the source.
+     * @see CSVColumnReader#setSplittable(boolean)
+     */
+    default CSVColumnReader getCSVColumnReader( File file )
+    throws FileNotFoundException, IOException
+    {
+        
+        return getCSVColumnReader( file, Charset.defaultCharset() );
+        
+    }
+    
+    /**
+     * Creates a {@link CSVColumnReader} able to read the values
+     * of a single column of the given CSV source file.
+     * <p>
+     * The returned streams can be split once it is enabled, the charset must
+     * encode the record separators as single bytes like UTF-8 does.
+     * <p>
+     * By default the column reading is not supported and this
+     * method throws an {@link UnsupportedOperationException}.
+     * 
+     * @param file    the CSV source file.
+     * @param charset the charset used to decode the file.
+     * @return a related {@link CSVColumnReader}.
+     * @throws FileNotFoundException if fails to find the source.
+     * @throws IOException if fails to read the source.
+     * @throws UnsupportedOperationException if the factory does not support the column reading.
+     * @see CSVColumnReader#setSplittable(boolean)
+     */
+    default CSVColumnReader getCSVColumnReader( File file, Charset charset )
+    throws FileNotFoundException, IOException
+    {
+        
+        throw new UnsupportedOperationException( getClass().getName() + " does not support the column reading" );
+        
+    }
+    
+    /**
+     * Creates a {@link CSVColumnReader} able to read the values
+     * of a single column of the given CSV source.
+     * <p>
+     * The returned streams can't be split.
+     * <p>
+     * By default the column reading is not supported and this
+     * method throws an {@link UnsupportedOperationException}.
+     * 
+     * @param reader the CSV source.
+     * @return a related {@link CSVColumnReader}.
+     * @throws IOException if fails to read the source.
+     * @throws UnsupportedOperationException if the factory does not support the column reading.
+     */
+    default CSVColumnReader getCSVColumnReader( Reader reader )
+    throws IOException
+    {
+        
+        throw new UnsupportedOperationException( getClass().getName() + " does not support the column reading" );
+        
+    }
+    
+    /**
+     * Creates a {@link CSVFollowReader} able to read the given CSV source
+     * file while it is being appended, starting from the given byte offset.
+     * <p>
+     * The file is read using the platform default charset.
+     * 
+     * @param file   the CSV source file.
+     * @param offset the byte offset where to start reading the records.
+     * @return a related {@link CSVFollowReader}.
+     * @throws FileNotFoundException if fails to find the source.
+     * @throws IOException if fails to read the source.
+     * @throws CSVToModelBindingException if binding configuration is inconsistent.
+     * @see CSVFollowReader#getOffset()
+     */
+    default CSVFollowReader<Model> getCSVFollowReader( File file, long offset )
+    throws FileNotFoundException, IOException, CSVToModelBindingException
+    {
+        
+        return getCSVFollowReader( file, Charset.defaultCharset(), offset );
+        
+    }
+    
+    /**
+     * Creates a {@link CSVFollowReader} able to read the given CSV source
+     * file while it is being appended, starting from the given byte offset.
+     * <p>
+     * If the offset is greater than {@code 0} and the configuration requires
+     * to read the header, the header is read from the beginning of the file.
+     * <p>
+     * By default the following is not supported and this
+     * method throws an {@link UnsupportedOperationException}.
+     * 
+     * @param file    the CSV source file.
+     * @param charset the charset used to decode the file.
+     * @param offset  the byte offset where to start reading the records.
+     * @return a related {@link CSVFollowReader}.
+     * @throws FileNotFoundException if fails to find the source.
+     * @throws IOException if fails to read the source.
+     * @throws CSVToModelBindingException if binding configuration is inconsistent.
+     * @throws UnsupportedOperationException if the factory does not support the following.
+     * @see CSVFollowReader#getOffset()
+     */
+    default CSVFollowReader<Model> getCSVFollowReader( File file, Charset charset, long offset )
+    throws FileNotFoundException, IOException, CSVToModelBindingException
+    {
+        
+        throw new UnsupportedOperationException( getClass().getName() + " does not support following the files" );
+        
+    }
+    
 }
@@ -22,24 +22,21 @@
 package org.nerd4j.csv.reader;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.charset.Charset;
 
 import org.nerd4j.csv.exception.CSVConfigurationException;
 import org.nerd4j.csv.exception.CSVToModelBindingException;
-import org.nerd4j.csv.exception.MalformedCSVException;
-import org.nerd4j.csv.field.CSVField;
-import org.nerd4j.csv.field.CSVFieldMetadata;
+import org.nerd4j.csv.metrics.CSVMeteredInputStream;
+import org.nerd4j.csv.metrics.CSVMetrics;
 import org.nerd4j.csv.parser.CSVParser;
 import org.nerd4j.csv.reader.binding.CSVToModelBinder;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 
 /**
@@ -52,12 +49,12 @@ import org.slf4j.LoggerFactory;
 public final class CSVReaderFactoryImpl<Model> implements CSVReaderFactory<Model>
 {
     
-    /** Internal logging system. */
-    private static final Logger logger = LoggerFactory.getLogger( CSVReaderFactoryImpl.class );
-
     /** The {@code Factory} for the reader meta-data model. */
     private final CSVReaderMetadataFactory<Model> metadataFactory;
     
+    /** The collector of the metrics of the readers, {@code null} if disabled. */
+    private volatile CSVMetrics metrics;
+    
     
     /**
      * Constructor with parameters.
@@ -73,6 +70,7 @@ public final class CSVReaderFactoryImpl<Model> implements CSVReaderFactory<Model
             throw new CSVConfigurationException( "The CSV reader configuration is mandatory" );
         
         this.metadataFactory = metadataFactory;
+        this.metrics = null;
         
     }
     
@@ -82,6 +80,17 @@ public final class CSVReaderFactoryImpl<Model> implements CSVReaderFactory<Model
     /* ******************* */
     
     
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setMetrics( final CSVMetrics metrics )
+    {
+        
+        this.metrics = metrics;
+        
+    }
+    
     /**
      * {@inheritDoc}
      */
@@ -90,7 +99,7 @@ public final class CSVReaderFactoryImpl<Model> implements CSVReaderFactory<Model
     throws FileNotFoundException, IOException, CSVToModelBindingException
     {
         
-        return getCSVReader( new FileReader(file) );
+        return getCSVReader( openFile(file) );
         
     }
   
@@ -102,7 +111,8 @@ public final class CSVReaderFactoryImpl<Model> implements CSVReaderFactory<Model
     throws IOException, CSVToModelBindingException
     {
         
-        return getCSVReader( new InputStreamReader(is) );
+        final CSVMetrics metrics = this.metrics;
+        return getCSVReader( new InputStreamReader(metrics != null ? new CSVMeteredInputStream(is, metrics) : is) );
         
     }
     
@@ -121,237 +131,287 @@ public final class CSVReaderFactoryImpl<Model> implements CSVReaderFactory<Model
     	 */
     	final CSVReaderMetadata<Model> metadata = metadataFactory.getCSVReaderMetadata();
         
-        /* We create the parser able to parse the given CSV source. */
-        final CSVParser csvParser = metadata.getParserFactory().create( reader );
+        /*
+         * Then we open the CSV source: the parser is created, the header
+         * is read if requested and the source columns are matched with
+         * the configured ones.
+         */
+        final CSVSource csvSource = CSVSource.open( reader, metadata );
+        
+        return getCSVReader( csvSource, metadata );
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CSVReader<Model> getCSVReader( File file, CSVReaderOptions options )
+    throws FileNotFoundException, IOException, CSVToModelBindingException
+    {
         
-        /* As second step we read the CSV source header if requested. */
-        final String[] csvHeader = readHeaderIfNeeded( csvParser, metadata );
+        return getCSVReader( openFile(file), options );
         
-        /* Than we create the column mapping needed to elaborate the CSV source fields. */
-        final Integer[] columnMapping = buildColumnMapping( csvHeader, metadata );
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CSVReader<Model> getCSVReader( Reader reader, CSVReaderOptions options )
+    throws IOException, CSVToModelBindingException
+    {
         
-        /* We create the fields needed to elaborate the CSV source columns. */
-        final CSVField<String,?>[] fields = buildFields( columnMapping, metadata );
+        if( options == null )
+            throw new NullPointerException( "The reader options are mandatory and can't be null" );
         
-        /* We create the model binder needed to bind the source data to the output model. */
-        final CSVToModelBinder<Model> modelBinder = metadata.getModelBinderFactory().getCSVToModelBinder( metadata, columnMapping );
+        final CSVReaderMetadata<Model> metadata = metadataFactory.getCSVReaderMetadata();
+        final CSVSource csvSource = CSVSource.open( reader, metadata );
         
-        /* Finally we create the CSV reader. */
-        final CSVReader<Model> csvReader =
-          new CSVReaderImpl<Model>( csvParser, csvHeader, fields, modelBinder, metadata.isAcceptIncompleteRecords() );
+        final CSVReaderImpl<Model> csvReader = getCSVReader( csvSource, metadata );
+        try{
+            
+            /* Each option is enabled independently from the others. */
+            if( options.isReuseModel() )
+                csvReader.reuseModel();
+            
+            if( options.isSnapshotOutcomes() )
+                csvReader.snapshotOutcomes();
+            
+            if( options.getRowFilter() != null )
+                csvReader.setRowFilter( options.getRowFilter() );
+            
+            if( options.isCaptureRecords() )
+                csvReader.captureRecords( options.getQuarantine() );
+            
+        }catch( RuntimeException ex )
+        {
+            csvReader.close();
+            throw ex;
+        }
         
         return csvReader;
         
     }
-   
     
-    /* ***************** */
-    /*  PRIVATE METHODS  */
-    /* ***************** */
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CSVFollowReader<Model> getCSVFollowReader( File file, Charset charset, long offset )
+    throws FileNotFoundException, IOException, CSVToModelBindingException
+    {
+        
+        return getCSVFileReader( file, charset, offset > 0 ? new CSVCheckpoint(offset, 0, null) : null, true );
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CSVCheckpointReader<Model> getCSVReader( File file, Charset charset, CSVCheckpoint checkpoint )
+    throws FileNotFoundException, IOException, CSVToModelBindingException
+    {
+        
+        return getCSVFileReader( file, charset, checkpoint, false );
+        
+    }
     
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CSVReader<Model> getCSVReader( File file, CSVSidecarCache cache )
+    throws FileNotFoundException, IOException, CSVToModelBindingException
+    {
+        
+        final CSVReaderMetadata<Model> metadata = metadataFactory.getCSVReaderMetadata();
+        return cache.getCSVReader( file, this, metadata, metadataFactory.getConfigurationFingerprint() );
+        
+    }
     
     /**
-     * If the flag "readHeader" in the configuration is {@code true}
-     * reads the first row and returns an array of {@link String}s
-     * representing the CSV source header.
-     * 
-     * @param csvParser the CSV source parser.
-     * @param metadata  the meta-data model to read configuration from.
-     * @return the CSV source header or {@code null}.
-     * @throws IOException if the CSV parser fails to read the source.
+     * {@inheritDoc}
      */
-    private String[] readHeaderIfNeeded( CSVParser csvParser, CSVReaderMetadata<Model> metadata )
+    @Override
+    public CSVLazyReader getCSVLazyReader( Reader reader )
     throws IOException
     {
         
-        if( metadata.isReadHeader() )
-        {
-            final CSVHeaderReader csvHeaderReader = new CSVHeaderReader( csvParser );
-            final String[] header = csvHeaderReader.readHeader();
-            
-            if( header == null || header.length < 1 )
-            {
-                logger.error( "Inconsistent CSV format, header expected but not present." );
-                throw new MalformedCSVException( "The CSV source was expected to have an header but was empty." );
-            }
-            
-            return header;
-        }
+        final CSVReaderMetadata<Model> metadata = metadataFactory.getCSVReaderMetadata();
+        final CSVSource csvSource = CSVSource.open( reader, metadata );
         
-        return null;
+        return new CSVLazyReaderImpl( csvSource, metadata.isAcceptIncompleteRecords() );
         
     }
     
-    
     /**
-     * Builds the fields needed to elaborate the CSV source fields.
-     * 
-     * @param columnMapping the mapping between the CSV source and the configuration.
-     * @param metadata  the meta-data model to read configuration from.
-     * @return the fields needed to elaborate the CSV source fields.
+     * {@inheritDoc}
      */
-    @SuppressWarnings("unchecked")
-    private CSVField<String,?>[] buildFields( Integer[] columnMapping, CSVReaderMetadata<Model> metadata )
+    @Override
+    public CSVColumnReader getCSVColumnReader( File file, Charset charset )
+    throws FileNotFoundException, IOException
     {
         
-        logger.debug( "Going to get field processors from the configuration." );
+        final CSVReaderMetadata<Model> metadata = metadataFactory.getCSVReaderMetadata();
+        
+        final CSVFileSource fileSource = new CSVFileSource( file, charset, metadata.getParserFactory().getRecordEnds(), 0, false );
+        try{
+            
+            final CSVParser csvParser = metadata.getParserFactory().create( fileSource, false );
+            final CSVSource csvSource = CSVSource.open( csvParser, metadata );
+            
+            return new CSVColumnReader( csvSource, metadata, fileSource, file, charset );
+            
+        }catch( IOException | RuntimeException ex )
+        {
+            fileSource.close();
+            throw ex;
+        }
         
-        if( columnMapping.length < 1 )
-            /* The array of fields has always at least one element. */
-            return new CSVField[1];
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CSVColumnReader getCSVColumnReader( Reader reader )
+    throws IOException
+    {
         
-        final CSVField<String,?>[] fields = new CSVField[ columnMapping.length ];
-        final CSVFieldMetadata<String,?>[] fieldConfs = metadata.getFieldConfigurations();
-        for( int i = 0; i < fields.length; ++i )
-            if( columnMapping[i] != null )
-                fields[i] = fieldConfs[columnMapping[i]].getField();
+        final CSVReaderMetadata<Model> metadata = metadataFactory.getCSVReaderMetadata();
+        final CSVSource csvSource = CSVSource.open( reader, metadata );
         
-        return fields;
+        return new CSVColumnReader( csvSource, metadata );
         
     }
     
     
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
     /**
-     * Returns an array that associates each column of the source
-     * CSV with the corresponding index in the configuration.
-     * <p>
-     * This process is performed by reading the CSV source header.
-     * If the header is {@code null} all the information
-     * will be taken from the configuration.  
+     * Creates the reader able to read the given CSV file starting
+     * from the given checkpoint.
      * <p>
-     *  If the configuration is smaller than the source CSV some
-     *  entries in the array may be {@code null}.
-     * <p>
-     *  If the configuration is greater than the source CSV the
-     *  inconsistent configurations will be ignored.
+     * If the checkpoint has no header but the configuration requires
+     * to read it, the header is read from the beginning of the file.
      * 
-     * @param header the CSV source header if any.
-     * @param metadata  the meta-data model to read configuration from.
-     * @return the column index re-mapping.
+     * @param file       the CSV source file.
+     * @param charset    the charset used to decode the file.
+     * @param checkpoint the checkpoint where to start, {@code null} to start from the beginning.
+     * @param follow     tells if to follow the file while it is being appended.
+     * @return a related reader.
+     * @throws FileNotFoundException if fails to find the source.
+     * @throws IOException if fails to read the source.
+     * @throws CSVToModelBindingException if binding configuration is inconsistent.
      */
-    private Integer[] buildColumnMapping( String[] header, CSVReaderMetadata<Model> metadata )
+    private CSVFileReaderImpl<Model> getCSVFileReader( File file, Charset charset, CSVCheckpoint checkpoint, boolean follow )
+    throws FileNotFoundException, IOException, CSVToModelBindingException
     {
         
-        logger.debug( "Going to get the column mapping by parsing the configuration." );
+        final CSVReaderMetadata<Model> metadata = metadataFactory.getCSVReaderMetadata();
         
-        final CSVFieldMetadata<String,?>[] fieldConfs = metadata.getFieldConfigurations();
-        if( fieldConfs == null || fieldConfs.length < 1 )
-            return new Integer[0];
+        final boolean resume = checkpoint != null && checkpoint.getOffset() > 0;
+        final long offset = resume ? checkpoint.getOffset() : 0;
+        final long recordIndex = resume ? checkpoint.getRecordIndex() : 0;
         
-        /* We check the consistency of the configuration and the source CSV. */
-        final boolean useColumnNames = metadata.isUseColumnNames();
-        if( useColumnNames && header == null )
-        {
-              
-            if( metadata.isReadHeader() )
-                logger.error( "The flag 'useColumnNames' is true but there is no header to match. Check the CSV source to be not empty" );
-            else
-                logger.error( "The configuration 'useColumnNames=true' and 'readHeader=false' are inconsistent. It is not possible to use column names without any matching header." );
-              
-            throw new CSVConfigurationException( "Unable to use column names without any matching header" );
-              
-        }
+        /*
+         * If we resume from a given offset the header, if needed
+         * and not available in the checkpoint, is not present at
+         * such offset so we read it from the beginning of the file.
+         */
+        String[] header = resume ? checkpoint.getHeader() : null;
+        if( resume && header == null && metadata.isReadHeader() )
+            try( CSVSource headerSource = CSVSource.open(new InputStreamReader(new FileInputStream(file), charset), metadata) )
+            {
+                header = headerSource.getHeader();
+            }
         
-        if( metadata.isUseColumnNames() )
-        {
-            /*
-             * If the flag 'readHeader' in the configuration is true
-             * we expect the CSV source to have an header and we need
-             * to match the information in the configuration with the
-             * one in the header. 
-             */
-            return buildColumnMappingUsingColumnNames( fieldConfs, header );
-        }
-        else
+        final CSVFileSource fileSource = new CSVFileSource( file, charset, metadata.getParserFactory().getRecordEnds(), offset, follow );
+        try{
+            
+            final CSVParser csvParser = metadata.getParserFactory().create( fileSource, follow );
+            final CSVSource csvSource = resume
+                                      ? CSVSource.open( csvParser, header, metadata )
+                                      : CSVSource.open( csvParser, metadata );
+            
+            return new CSVFileReaderImpl<Model>( getCSVReader(csvSource, metadata), csvParser, fileSource, recordIndex );
+            
+        }catch( IOException | RuntimeException ex )
         {
-            /*
-             * If the flag 'readHeader' in the configuration is false
-             * we the only available information is the one in the
-             * configuration so we use it to build the processors.
-             */            
-            return buildColumnMappingUsingIndexes( fieldConfs );
+            fileSource.close();
+            throw ex;
         }
         
     }
-
     
     /**
-     * Builds the column mapping needed to elaborate the CSV source
-     * using the column indexes to identify the fields.
+     * Opens the given CSV source file, if the metrics
+     * are enabled the bytes read are counted.
      * 
-     * @param fieldConfs array of field configurations.
-     * @return the column mapping needed to elaborate the CSV source fields.
+     * @param file the CSV source file.
+     * @return the reader of the file.
+     * @throws FileNotFoundException if fails to find the source.
      */
-    private Integer[] buildColumnMappingUsingIndexes( final CSVFieldMetadata<String,?>[] fieldConfs )
+    Reader openFile( File file ) throws FileNotFoundException
     {
         
-        int[] indexes = new int[fieldConfs.length];
-        for( int i = 0; i < fieldConfs.length; ++i )
-        {
-            try{
-                
-                indexes[i] = Integer.parseInt( fieldConfs[i].getMappingDescriptor().getColumnId() );
-                
-            }catch( Exception ex )
-            {
-                logger.error( "Unable to get column index", ex );
-                throw new CSVConfigurationException( fieldConfs[i].getMappingDescriptor().getColumnId() + " is not a valid column index", ex );
-            }
-        }
+        final CSVMetrics metrics = this.metrics;
+        if( metrics != null )
+            return new InputStreamReader( new CSVMeteredInputStream(new FileInputStream(file), metrics) );
         
-        int maxIndex = -1;
-        for( int i = 0; i < indexes.length; ++i )
-            if( indexes[i] > maxIndex )
-                maxIndex = indexes[i];
+        return new FileReader( file );
         
-        final Integer[] columnMapping = new Integer[maxIndex + 1];
-                
-        int columnIndex;
-        for( int i = 0; i < fieldConfs.length; ++i )
-        {
-            columnIndex = indexes[i];
-            
-            if( columnMapping[columnIndex] != null )
-                throw new CSVConfigurationException( "Multiple configuration for the same column " + columnIndex );
-            
-            columnMapping[columnIndex] = i;
-        }
+    }
+    
+    /**
+     * Creates the {@link CSVReader} able to read the given opened CSV source.
+     * 
+     * @param csvSource the opened CSV source.
+     * @param metadata  the meta-data model to read configuration from.
+     * @return a related {@link CSVReader}.
+     * @throws CSVToModelBindingException if binding configuration is inconsistent.
+     */
+    private CSVReaderImpl<Model> getCSVReader( CSVSource csvSource, CSVReaderMetadata<Model> metadata )
+    throws CSVToModelBindingException
+    {
+        
+        final Integer[] columnMapping = csvSource.getColumnMapping();
+        
+        /* We create the model binder needed to bind the source data to the output model. */
+        final CSVToModelBinder<Model> modelBinder = metadata.getModelBinderFactory().getCSVToModelBinder( metadata, columnMapping );
         
-        return columnMapping;
+        return getCSVReader( csvSource, metadata, modelBinder );
         
     }
-   
+    
     /**
-     * Builds the column  mapping needed to elaborate the CSV source
-     * using the column names to identify the fields.
+     * Creates the {@link CSVReader} able to read the given opened
+     * CSV source using the given model binder.
+     * <p>
+     * The metrics and the flight recorder of this factory
+     * are applied to the reader.
      * 
-     * @param fieldConfs array of field configurations.
-     * @param header     the CSV source header.
-     * @return the column mapping needed to elaborate the CSV source fields.
+     * @param csvSource   the opened CSV source.
+     * @param metadata    the meta-data model to read configuration from.
+     * @param modelBinder the binder of the data model.
+     * @return a related {@link CSVReader}.
      */
-    private Integer[] buildColumnMappingUsingColumnNames( final CSVFieldMetadata<String,?>[] fieldConfs, final String[] header )
+    CSVReaderImpl<Model> getCSVReader( CSVSource csvSource, CSVReaderMetadata<Model> metadata, CSVToModelBinder<Model> modelBinder )
     {
         
-        /* We create a map that allows to find the processor by column name. */
-        String columnId = null;
-        final Map<String,Integer> namedColumnMap = new HashMap<String,Integer>();
-        for( int i = 0; i < fieldConfs.length; ++i )
-        {
-            columnId = fieldConfs[i].getMappingDescriptor().getColumnId();
-            if( namedColumnMap.containsKey(columnId) )
-                throw new CSVConfigurationException( "Multiple configuration for the same column identifier: " + columnId );
-            
-            namedColumnMap.put( columnId, i );
-        }
+        final CSVReaderImpl<Model> csvReader = new CSVReaderImpl<Model>( csvSource.getParser(), csvSource.getHeader(), csvSource.getFields(), csvSource.getMappingDescriptors(),
+                                                                         modelBinder, metadata.isAcceptIncompleteRecords() );
         
-        final Integer[] columnMapping = new Integer[header.length];
-
-        /* We fill the processors by name. */
-        for( int i = 0; i < columnMapping.length; ++i )
-            columnMapping[i] = namedColumnMap.get( header[i] );
+        csvReader.setMetrics( metrics );
+        csvReader.setFlightRecorder( metadataFactory.getName() );
+        
+        return csvReader;
         
-        return columnMapping;
-                
     }
     
-}
\ No newline at end of file
+}
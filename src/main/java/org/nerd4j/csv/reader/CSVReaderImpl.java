@@ -22,20 +22,33 @@
 package org.nerd4j.csv.reader;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.function.Predicate;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.nerd4j.csv.CSVProcessContext;
 import org.nerd4j.csv.CSVProcessOutcome;
+import org.nerd4j.csv.exception.CSVConfigurationException;
 import org.nerd4j.csv.exception.CSVProcessException;
 import org.nerd4j.csv.exception.CSVSingleUseViolationException;
 import org.nerd4j.csv.exception.CSVToModelBindingException;
 import org.nerd4j.csv.exception.MalformedCSVException;
 import org.nerd4j.csv.field.CSVField;
 import org.nerd4j.csv.field.CSVFieldProcessContext;
+import org.nerd4j.csv.field.CSVMappingDescriptor;
+import org.nerd4j.csv.field.CSVStringCache;
+import org.nerd4j.csv.metrics.CSVFlightRecorder;
+import org.nerd4j.csv.metrics.CSVMetrics;
 import org.nerd4j.csv.parser.CSVParser;
 import org.nerd4j.csv.parser.CSVToken;
+import org.nerd4j.csv.reader.batch.CSVColumnBatch;
+import org.nerd4j.csv.reader.batch.CSVColumnBatchBinder;
+import org.nerd4j.csv.reader.batch.CSVRecordBatch;
 import org.nerd4j.csv.reader.binding.CSVToModelBinder;
+import org.nerd4j.csv.reader.binding.CSVToModelReusableBinder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -62,11 +75,14 @@ import org.slf4j.LoggerFactory;
  * 
  * @author Nerd4J Team
  */
-final class CSVReaderImpl<M> implements CSVReader<M>
+final class CSVReaderImpl<M> implements CSVReader<M>, CSVColumnBatchReader
 {
     
     /** SLF4J Logging system. */
     private static final Logger logger = LoggerFactory.getLogger( CSVReaderImpl.class );
+    
+    /** Number of records read at once by the iterators in outcome snapshot mode. */
+    private static final int ITERATOR_BATCH_SIZE = 256;
 
     /** Object able to parse a CSV source. */
     private final CSVParser parser;
@@ -80,6 +96,9 @@ final class CSVReaderImpl<M> implements CSVReader<M>
     /** Contains the processors used to manipulate data. */
     private final CSVField<String,?>[] fields;
     
+    /** The mapping descriptor of each source column. */
+    private final CSVMappingDescriptor[] descriptors;
+    
     /** The process execution context. */ 
     private final CSVFieldProcessContext context;
 
@@ -101,6 +120,60 @@ final class CSVReaderImpl<M> implements CSVReader<M>
     /** Tells that the end of the CSV source has been reached. */
     private boolean endOfData;
     
+    /** Tells if the raw text of the records is captured. */
+    private boolean captureRecords;
+    
+    /** Tells if the data model instance is reused for all the records. */
+    private boolean reuseModel;
+    
+    /** Tells if each read returns an immutable snapshot of the outcome. */
+    private boolean snapshotOutcomes;
+    
+    /** The filter of the records, {@code null} if all the records are accepted. */
+    private CSVRowFilter rowFilter;
+    
+    /** The condition on the raw characters of each source column, {@code null} if none. */
+    private List<Predicate<CharSequence>> rawFilters;
+    
+    /** The condition on the processed value of each source column, {@code null} if none. */
+    private List<Predicate<Object>> valueFilters;
+    
+    /** Tells if the current record has been rejected by the filter. */
+    private boolean filtered;
+    
+    /** The sink of the rejected records, can be {@code null}. */
+    private CSVQuarantine quarantine;
+    
+    /** The collector of the metrics, {@code null} if the metrics are disabled. */
+    private CSVMetrics metrics;
+    
+    /** Tells if this reader has been closed. */
+    private boolean closed;
+    
+    /** Mask used to select the timed records. */
+    private int samplingMask;
+    
+    /** The number of records read with the metrics enabled. */
+    private long recordCount;
+    
+    /** Tells if the current record is timed. */
+    private boolean timing;
+    
+    /** The time spent processing the fields of the current record. */
+    private long processNanos;
+    
+    /** The time spent binding the values of the current record. */
+    private long bindNanos;
+    
+    /** The name of the configuration reported to the Flight Recorder. */
+    private String configurationName;
+    
+    /** The Flight Recorder event of this source, {@code null} if not enabled. */
+    private Object sourceEvent;
+    
+    /** The number of records read while the source event is enabled. */
+    private long sourceRecords;
+    
     
     
     /**
@@ -109,11 +182,13 @@ final class CSVReaderImpl<M> implements CSVReader<M>
      * @param parser the understanding CSV parser.
      * @param header the CSV header if exists.
      * @param processors the CSV field processors.
+     * @param descriptors the mapping descriptor of each source column.
      * @param modelBinder the CSV model builder.
      * @param acceptIncompleteRecords tells if to accept non standard CSV with incomplete records.
      */
     public CSVReaderImpl( final CSVParser parser, final String[] header,
                           final CSVField<String,?>[] fields,
+                          final CSVMappingDescriptor[] descriptors,
                           final CSVToModelBinder<M> modelBinder,
                           final boolean acceptIncompleteRecords )
     {
@@ -139,9 +214,21 @@ final class CSVReaderImpl<M> implements CSVReader<M>
         this.parser = parser;
         this.header = header;
         this.fields = fields;
+        this.descriptors = descriptors;
         this.modelBinder = modelBinder;
         
         this.endOfData = false;
+        this.quarantine = null;
+        this.captureRecords = false;
+        this.reuseModel = false;
+        this.snapshotOutcomes = false;
+        this.rowFilter = null;
+        this.rawFilters = null;
+        this.valueFilters = null;
+        this.filtered = false;
+        this.metrics = null;
+        this.closed = false;
+        this.timing = false;
         this.outcome   = new CSVProcessOutcomeImpl();
         this.context   = new CSVFieldProcessContext( header );
         
@@ -211,12 +298,177 @@ final class CSVReaderImpl<M> implements CSVReader<M>
 	public CSVProcessOutcome<M> read() throws IOException, CSVToModelBindingException
 	{
         
-        /* First of all we clear the reading context and outcome. */
-        context.clear();
+        /* First of all we clear the reading outcome. */
         outcome.clear();
         
+        /* The records rejected by the filter are skipped. */
+        do{
+            
+            outcome.model = readNextRecord( modelBinder );
+            
+        }while( filtered );
+        
+        if( snapshotOutcomes )
+            return new CSVProcessOutcomeSnapshot<M>( outcome.model, context.snapshot(), outcome.getRawRecord() );
+        
+        return outcome;
+        
+	}
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int readBatch( final CSVColumnBatch batch ) throws IOException, CSVToModelBindingException
+    {
+        
+        final CSVColumnBatchBinder batchBinder = batch.bind( descriptors );
+        while( ! batch.isFull() )
+            if( readNextRecord(batchBinder) == null )
+            {
+                
+                if( endOfData ) break;
+                
+                /* The record has been rejected by the filter. */
+                if( filtered )
+                {
+                    batchBinder.discard();
+                    continue;
+                }
+                
+                /* The record has not been processed successfully. */
+                logger.debug( "Record rejected from the batch: {}", context.getError() );
+                batchBinder.reject();
+                
+            }
+        
+        return batch.getSize();
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int readBatch( final CSVRecordBatch<M> batch ) throws IOException, CSVToModelBindingException
+    {
+        
+        batch.clear();
+        
+        /* The batch keeps several models so they can't be reused. */
+        final boolean reuse = reuseModel;
+        reuseModel = false;
+        try{
+            
+            while( ! batch.isFull() )
+            {
+                
+                final M model = readNextRecord( modelBinder );
+                if( model != null )
+                    batch.add( model );
+                
+                else if( endOfData )
+                    break;
+                
+                /* The records rejected by the filter are skipped. */
+                else if( ! filtered )
+                    batch.addError( context.snapshot() );
+                
+            }
+            
+        }finally
+        {
+            reuseModel = reuse;
+        }
+        
+        return batch.getSize();
+        
+    }
+    
+    
+    /**
+     * Closes this stream and releases any system resources associated
+     * with it. If the stream is already closed then invoking this 
+     * method has no effect. 
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException
+    {
+        
+        this.parser.close();
+        
+        CSVFlightRecorder.endSource( sourceEvent, sourceRecords );
+        sourceEvent = null;
+        
+        /* The string caches belong to this reader so they are reported only once. */
+        if( metrics != null && ! closed )
+            for( int i = 0; i < fields.length; ++i )
+            {
+                final CSVStringCache stringCache = fields[i] != null ? fields[i].getStringCache() : null;
+                if( stringCache != null )
+                    metrics.stringCacheUsed( descriptors[i].getColumnId(), stringCache.getHits(), stringCache.getMisses() );
+            }
+        
+        closed = true;
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     * 
+     * @throws CSVSingleUseViolationException if invoked more than once.
+     */
+	@Override
+	public Iterator<CSVProcessOutcome<M>> iterator()
+	throws CSVSingleUseViolationException
+	{
+	
+		if( alreadyInvoked.getAndSet(true) )
+			throw new CSVSingleUseViolationException();
+			
+		/*
+		 * The immutable outcomes can be served from batches of records,
+		 * unless the raw records are needed since the batches don't keep them.
+		 */
+		if( snapshotOutcomes && ! captureRecords )
+			return new CSVReaderIterator<>( this, ITERATOR_BATCH_SIZE );
+		
+		return new CSVReaderIterator<>( this );
+		
+	}
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Reads a record in the CSV source and binds
+     * it using the given binder.
+     * <p>
+     * If the end of the data has been reached or an error
+     * occurs during the process this method returns
+     * {@code null} and the context is accordingly updated.
+     * 
+     * @param <T>    type of the data model to fill.
+     * @param binder the binder of the data model.
+     * @return the data model related to the record or {@code null}.
+     * @throws IOException if an error occurs reading the CSV source.
+     * @throws CSVToModelBindingException if an error occurs during model binding.
+     */
+    private <T> T readRecord( final CSVToModelBinder<T> binder ) throws IOException, CSVToModelBindingException
+    {
+        
+        /* First of all we clear the reading context. */
+        context.clear();
+        filtered = false;
+        
         /* If the end of the data has been reached we don't need to do anything. */
-        if( endOfData ) return outcome;
+        if( endOfData ) return null;
         
         /* Otherwise we tell the context that we start processing a new row. */
         context.newRow();
@@ -256,7 +508,7 @@ final class CSVReaderImpl<M> implements CSVReader<M>
             logger.debug( "CSV source is empty, no more records to read." );
             this.endOfData = true;
             
-            return outcome;
+            return null;
         }
         
         /*
@@ -266,18 +518,34 @@ final class CSVReaderImpl<M> implements CSVReader<M>
          */
         logger.debug( "Proceeding to read a new CSV record" );
         
-        /* We create a new empty model. */
-        modelBinder.initModel();
+        /*
+         * We create a new empty model or, in model reuse mode,
+         * we clear the same instance returned for the previous
+         * record if the binder supports it.
+         */
+        if( reuseModel && binder instanceof CSVToModelReusableBinder )
+        {
+            final T previous = binder.getModel();
+            ((CSVToModelReusableBinder<?>) binder).resetModel();
+            
+            assert previous == null || previous == binder.getModel()
+                 : "A reusable binder must keep the same model instance";
+        }
+        else
+            binder.initModel();
         
         /* We handle the current column if needed. */
-        if( ! processColumn(0, field) )
+        if( ! processColumn(0, field, binder) )
         {            
+            /* If the record has been filtered out we skip the rest of it. */
+            if( filtered ) return skipFilteredRecord();
+            
             /* 
              * If an error has occurred during the process
              * we return the outcome with the related error.
              */
             handleErrorInFieldProcess();
-            return outcome;
+            return null;
         }
               
         /* Now we handle the rest of the columns. */
@@ -301,22 +569,24 @@ final class CSVReaderImpl<M> implements CSVReader<M>
                      * fields have been processed so we are in a consistent
                      * state and we can return the related data model. 
                      */
-                    outcome.model = modelBinder.getModel();
-                    return outcome;
+                    return binder.getModel();
             	}
             	else
             		throw new MalformedCSVException( "The record ended before all the mandatory fields have been processed." );
             }
             
             /* We handle the current column if needed. */
-            if( ! processColumn(i, field) )
+            if( ! processColumn(i, field, binder) )
             {
+                /* If the record has been filtered out we skip the rest of it. */
+                if( filtered ) return skipFilteredRecord();
+                
                 /* 
                  * If an error has occurred during the process
                  * we return the outcome with the related error.
                  */
                 handleErrorInFieldProcess();
-                return outcome;
+                return null;
             }
             
         }
@@ -337,49 +607,31 @@ final class CSVReaderImpl<M> implements CSVReader<M>
          * Now we are in a consistent position (the end of the CSV source record)
          * and we can return the related data model. 
          */
-        outcome.model = modelBinder.getModel();
-        return outcome;
+        return binder.getModel();
         
-	}
+    }
     
     
     /**
-     * Closes this stream and releases any system resources associated
-     * with it. If the stream is already closed then invoking this 
-     * method has no effect. 
-     *
-     * @throws IOException if an I/O error occurs
+     * Returns the index of the configured source column with the given name.
+     * 
+     * @param column the name of the column.
+     * @return the index of the column, -1 if not configured.
      */
-    @Override
-    public void close() throws IOException
+    private int getColumnIndex( final String column )
     {
         
-        this.parser.close();
+        if( descriptors == null ) return -1;
+        
+        for( int i = 0; i < descriptors.length && i < fields.length; ++i )
+            if( fields[i] != null && descriptors[i] != null
+                && column.equals(descriptors[i].getColumnId()) )
+                return i;
+        
+        return -1;
         
     }
     
-    /**
-     * {@inheritDoc}
-     * 
-     * @throws CSVSingleUseViolationException if invoked more than once.
-     */
-	@Override
-	public Iterator<CSVProcessOutcome<M>> iterator()
-	throws CSVSingleUseViolationException
-	{
-	
-		if( alreadyInvoked.getAndSet(true) )
-			throw new CSVSingleUseViolationException();
-			
-		return new CSVReaderIterator<>( this );
-		
-	}
-    
-    
-    /* ***************** */
-    /*  PRIVATE METHODS  */
-    /* ***************** */
-
     
     /**
      * Returns the index of the last mandatory field.
@@ -413,10 +665,11 @@ final class CSVReaderImpl<M> implements CSVReader<M>
      * 
      * @param index index of the column to process.
      * @param field the field to process.
+     * @param binder the binder of the data model.
      * @return {@code true} if the fiend has been processed successfully.
      * @throws CSVModelBuilderException if an error occurs during model binding.
      */
-    private boolean processColumn( final int index, final CSVField<String,?> field )
+    private boolean processColumn( final int index, final CSVField<String,?> field, final CSVToModelBinder<?> binder )
     throws CSVToModelBindingException
     {
 
@@ -426,15 +679,68 @@ final class CSVReaderImpl<M> implements CSVReader<M>
         /* If the field is null we don't need to do any work. */
         if( field == null ) return true;
         
+        /* If the raw characters do not satisfy the filter we reject the record. */
+        if( rawFilters != null && rawFilters.get(index) != null
+            && ! rawFilters.get(index).test(parser.getCurrentChars()) )
+        {
+            filtered = true;
+            return false;
+        }
+        
+        /*
+         * If the length of the field is granted to fail the validation
+         * we report the failure without processing the value. The String
+         * is created only to be reported by the error.
+         */
+        final int length = parser.getCurrentChars().length();
+        if( length > 0 && ! field.acceptLength(length) )
+        {
+            context.setOriginalValue( parser.getCurrentValue() );
+            field.rejectLength( context );
+            return false;
+        }
+        
+        /*
+         * If the field can be converted looking directly at the
+         * characters read by the parser we avoid to create the
+         * related String. If the characters can not be converted
+         * we fall back to the String process to get the error.
+         */
+        final long processStart = timing ? System.nanoTime() : 0L;
+        if( length > 0 && field.acceptChars() )
+        {
+            final Object processedValue = field.processChars( parser.getCurrentChars(), context );
+            if( processedValue != null )
+            {
+                if( context.isError() )
+                {
+                    context.setOriginalValue( parser.getCurrentValue() );
+                    return false;
+                }
+                
+                return bind( index, processedValue, binder, processStart );
+            }
+        }
+        
         /*
          * If the parser reads a field the value of such
          * field is returned by the getCurrentValue() method.
+         * For the deduplicated columns the cache returns the
+         * canonical value without creating a new one.
          */
-        final String originalValue = parser.getCurrentValue();
+        final CSVStringCache stringCache = field.getStringCache();
+        final String originalValue = stringCache != null && length > 0
+                                   ? stringCache.get( parser.getCurrentChars() )
+                                   : parser.getCurrentValue();
         context.setOriginalValue( originalValue );
             
-        /* We process such value to obtain the expected processed value. */            
-        final Object processedValue = field.process( originalValue, context );
+        /*
+         * We process such value to obtain the expected processed value.
+         * The length of a non empty value has already been accepted.
+         */
+        final Object processedValue = length > 0
+                                    ? field.processCheckedLength( originalValue, context )
+                                    : field.process( originalValue, context );
 
         /* If an error occurs during the processing of the field we fail the process. */
         if( context.isError() )return false;
@@ -443,10 +749,295 @@ final class CSVReaderImpl<M> implements CSVReader<M>
          * Otherwise we bind the processed value
          * to the related position in the data model.
          */
-        modelBinder.fill( index, processedValue );
+        return bind( index, processedValue, binder, processStart );
+    
+    }
+    
+    /**
+     * Binds the given processed value to the related
+     * position in the data model collecting the timings.
+     * <p>
+     * If the value does not satisfy the filter the
+     * record is rejected and nothing is bound.
+     * 
+     * @param index          the index of the column.
+     * @param processedValue the value to bind.
+     * @param binder         the binder of the data model.
+     * @param processStart   the time the process started, if timing is enabled.
+     * @return {@code false} if the record has been rejected by the filter.
+     * @throws CSVToModelBindingException if the binding fails.
+     */
+    private boolean bind( final int index, final Object processedValue,
+                          final CSVToModelBinder<?> binder, final long processStart )
+    throws CSVToModelBindingException
+    {
+        
+        if( valueFilters != null && valueFilters.get(index) != null
+            && ! valueFilters.get(index).test(processedValue) )
+        {
+            filtered = true;
+            return false;
+        }
+        
+        final long bindStart = timing ? System.nanoTime() : 0L;
+        binder.fill( index, processedValue );
+        
+        if( timing )
+        {
+            final long bindEnd = System.nanoTime();
+            processNanos += bindStart - processStart;
+            bindNanos += bindEnd - bindStart;
+        }
         
         return true;
+        
+    }
+    
+    /**
+     * Skips the rest of the record rejected by the filter.
+     * 
+     * @param <T> type of the data model.
+     * @return always {@code null}.
+     * @throws IOException if an error occurs during the CSV source parsing.
+     */
+    private <T> T skipFilteredRecord() throws IOException
+    {
+        
+        CSVToken currentToken;
+        do{
+            
+            currentToken = parser.skip();
+            
+        }while( currentToken == CSVToken.FIELD );
+        
+        rowFilter.recordRejected();
+        return null;
+        
+    }
+    
+    
+    /**
+     * Reads the next record collecting the metrics and
+     * emitting the Flight Recorder events if enabled.
+     * 
+     * @param <T> type of the data model.
+     * @param binder the binder of the data model.
+     * @return the data model, {@code null} if the end of data has been reached or an error occurred.
+     * @throws IOException if an error occurs during the CSV source parsing.
+     * @throws CSVToModelBindingException if an error occurs during model binding.
+     */
+    private <T> T readNextRecord( final CSVToModelBinder<T> binder )
+    throws IOException, CSVToModelBindingException
+    {
+        
+        final Object event = CSVFlightRecorder.beginRecord();
+        if( event == null )
+            return metrics == null ? readRecord( binder ) : readMeasuredRecord( binder );
+        
+        final long charStart = parser.getCharPosition();
+        final T model = metrics == null ? readRecord( binder ) : readMeasuredRecord( binder );
+        
+        /* At the end of data no record has been read. */
+        if( model != null || context.isError() )
+        {
+            ++sourceRecords;
+            CSVFlightRecorder.endRecord( event, configurationName, CSVFlightRecorder.READ, context.getRowIndex(),
+                                         parser.getCharPosition() - charStart, context.isError() );
+        }
+        
+        return model;
+        
+    }
+    
+    /**
+     * Reads the next record like {@link #readRecord(CSVToModelBinder)}
+     * and notifies the metrics about it.
+     * <p>
+     * Only one record every {@link CSVMetrics#getSamplingInterval()}
+     * is timed, the parse time is the time spent reading the record
+     * less the time spent processing and binding the fields.
+     * 
+     * @param <T> type of the data model.
+     * @param binder the binder of the data model.
+     * @return the data model, {@code null} if the end of data has been reached or an error occurred.
+     * @throws IOException if an error occurs during the CSV source parsing.
+     * @throws CSVToModelBindingException if an error occurs during model binding.
+     */
+    private <T> T readMeasuredRecord( final CSVToModelBinder<T> binder )
+    throws IOException, CSVToModelBindingException
+    {
+        
+        final long charStart = parser.getCharPosition();
+        final long fieldStart = parser.getFieldCount();
+        
+        timing = (recordCount++ & samplingMask) == 0;
+        processNanos = 0L;
+        bindNanos = 0L;
+        
+        final long start = timing ? System.nanoTime() : 0L;
+        final T model = readRecord( binder );
+        final long elapsed = timing ? System.nanoTime() - start : 0L;
+        
+        final boolean timed = timing;
+        timing = false;
+        
+        /* The records rejected by the filter are counted apart. */
+        if( filtered )
+        {
+            metrics.recordRead( (int) (parser.getCharPosition() - charStart),
+                                (int) (parser.getFieldCount() - fieldStart) );
+            metrics.recordFiltered();
+            
+            return null;
+        }
+        
+        /* At the end of data no record has been read. */
+        if( model == null && ! context.isError() )
+            return null;
+        
+        if( timed )
+            metrics.recordTimed( Math.max(elapsed - processNanos - bindNanos, 0L), processNanos, bindNanos );
+        
+        metrics.recordRead( (int) (parser.getCharPosition() - charStart),
+                            (int) (parser.getFieldCount() - fieldStart) );
+        
+        if( context.isError() )
+            metrics.fieldFailed( context.getColumnName(), context.getError().getOperation() );
+        
+        return model;
+        
+    }
+    
+    /**
+     * Enables the collection of the metrics.
+     * <p>
+     * This method must be invoked before to start reading.
+     * 
+     * @param metrics the collector of the metrics.
+     */
+    void setMetrics( final CSVMetrics metrics )
+    {
+        
+        this.metrics = metrics;
+        this.samplingMask = metrics != null
+                          ? Integer.highestOneBit( Math.max(metrics.getSamplingInterval(), 1) * 2 - 1 ) - 1
+                          : 0;
+        
+    }
+    
+    
+    /**
+     * Enables the Flight Recorder events related to this reader.
+     * <p>
+     * This method must be invoked before to start reading.
+     * 
+     * @param configurationName the name of the configuration, can be {@code null}.
+     */
+    void setFlightRecorder( final String configurationName )
+    {
+        
+        this.configurationName = configurationName;
+        this.sourceEvent = CSVFlightRecorder.beginSource( configurationName, CSVFlightRecorder.READ );
+        
+    }
+    
+    
+    /**
+     * Sets the filter of the records.
+     * <p>
+     * The conditions of the filter are resolved against the
+     * columns of the CSV source, only the configured columns
+     * can be filtered. This method must be invoked before
+     * to start reading.
+     * 
+     * @param rowFilter the filter of the records.
+     * @throws CSVConfigurationException if a filtered column is not configured.
+     */
+    void setRowFilter( final CSVRowFilter rowFilter )
+    {
+        
+        final List<Predicate<CharSequence>> rawFilters = new ArrayList<Predicate<CharSequence>>( Collections.nCopies(fields.length, null) );
+        final List<Predicate<Object>> valueFilters = new ArrayList<Predicate<Object>>( Collections.nCopies(fields.length, null) );
+        
+        for( CSVRowFilter.Condition condition : rowFilter.getConditions() )
+        {
+            
+            final int index = getColumnIndex( condition.column );
+            if( index < 0 )
+                throw new CSVConfigurationException( "Unable to filter the column " + condition.column + " not configured in the reader" );
+            
+            final Predicate<CharSequence> rawFilter = rawFilters.get( index );
+            if( condition.rawPredicate != null )
+                rawFilters.set( index, rawFilter == null
+                                       ? condition.rawPredicate
+                                       : rawFilter.and(condition.rawPredicate) );
+            
+            final Predicate<Object> valueFilter = valueFilters.get( index );
+            if( condition.valuePredicate != null )
+                valueFilters.set( index, valueFilter == null
+                                         ? condition.valuePredicate
+                                         : valueFilter.and(condition.valuePredicate) );
+            
+        }
+        
+        this.rowFilter = rowFilter;
+        this.rawFilters = rawFilters;
+        this.valueFilters = valueFilters;
+        
+    }
+    
+    
+    /**
+     * Enables the model reuse mode: if the model binder is a
+     * {@link CSVToModelReusableBinder} the same model instance
+     * is cleared and filled again for each record.
+     * <p>
+     * In this mode the model returned for a record is valid
+     * only until the next record is read.
+     * <p>
+     * This method must be invoked before to start reading.
+     */
+    void reuseModel()
+    {
+        
+        this.reuseModel = true;
+        
+    }
     
+    
+    /**
+     * Enables the outcome snapshot mode: each read returns
+     * a new immutable outcome instead of the shared one.
+     * <p>
+     * The outcomes keep the data model and, only in case
+     * of error, the information about the error. Therefore
+     * they can be collected or handed to other threads.
+     * <p>
+     * This method must be invoked before to start reading.
+     */
+    void snapshotOutcomes()
+    {
+        
+        this.snapshotOutcomes = true;
+        
+    }
+    
+    
+    /**
+     * Enables the capture of the raw text of the records
+     * and sends the rejected records to the given quarantine.
+     * <p>
+     * This method must be invoked before to start reading.
+     * 
+     * @param quarantine the sink of the rejected records, {@code null} to capture only.
+     */
+    void captureRecords( final CSVQuarantine quarantine )
+    {
+        
+        this.parser.setRecordCapture( true );
+        this.captureRecords = true;
+        this.quarantine = quarantine;
+        
     }
     
     
@@ -472,6 +1063,11 @@ final class CSVReaderImpl<M> implements CSVReader<M>
             
         }while( currentToken == CSVToken.FIELD );
         
+        /* If requested the rejected record is sent to the quarantine. */
+        if( quarantine != null )
+            quarantine.reject( context.getRowIndex(), context.getColumnName(),
+                               context.getError().getMessage(), parser.getCurrentRecord() );
+        
     }
     
     
@@ -530,6 +1126,15 @@ final class CSVReaderImpl<M> implements CSVReader<M>
         {
             return context;
         }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String getRawRecord()
+        {
+            return captureRecords ? parser.getCurrentRecord() : null;
+        }
 
         
         /* ***************** */
@@ -547,5 +1152,80 @@ final class CSVReaderImpl<M> implements CSVReader<M>
         }
         
     }
+    
+    
+    /**
+     * Immutable implementation of the {@link CSVProcessOutcome}
+     * interface returned in outcome snapshot mode.
+     * 
+     * @param <T> type of the data model representing the CSV record.
+     * 
+     * @author Nerd4J Team
+     */
+    static final class CSVProcessOutcomeSnapshot<T> implements CSVProcessOutcome<T>
+    {
+        
+        /** The data model corresponding to the CSV record read. */
+        private final T model;
+        
+        /** The snapshot of the execution context. */
+        private final CSVProcessContext context;
+        
+        /** The raw text of the CSV record, if captured. */
+        private final String rawRecord;
+        
+        
+        /**
+         * Constructor with parameters.
+         * 
+         * @param model     the data model corresponding to the CSV record read.
+         * @param context   the snapshot of the execution context.
+         * @param rawRecord the raw text of the CSV record, if captured.
+         */
+        public CSVProcessOutcomeSnapshot( final T model, final CSVProcessContext context, final String rawRecord )
+        {
+            
+            super();
+            
+            this.model = model;
+            this.context = context;
+            this.rawRecord = rawRecord;
+            
+        }
+
+        
+        /* ******************* */
+        /*  INTERFACE METHODS  */       
+        /* ******************* */
+
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public T getModel()
+        {
+            return model;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public CSVProcessContext getCSVProcessContext()
+        {
+            return context;
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String getRawRecord()
+        {
+            return rawRecord;
+        }
+        
+    }
 
 }
\ No newline at end of file
@@ -27,6 +27,7 @@ import java.util.Objects;
 
 import org.nerd4j.csv.CSVProcessOutcome;
 import org.nerd4j.csv.exception.CSVUnrecoverableStateException;
+import org.nerd4j.csv.reader.batch.CSVRecordBatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,6 +37,13 @@ import org.slf4j.LoggerFactory;
  * allowing the read outcomes to be used into a "for-each loop" or in the new
  * {@code Java 8 Stream API}.
  * 
+ * <p>
+ * If a batch size is given the records are read in batches using
+ * {@link CSVReader#readBatch(CSVRecordBatch)} and each outcome is
+ * a new immutable object built from the batch. Otherwise the records
+ * are read one at a time and the outcomes are the ones returned by
+ * {@link CSVReader#read()}.
+ * 
  * @param <M> type of the data model representing the CSV record.
  * 
  * @since 1.2.0
@@ -62,6 +70,18 @@ class CSVReaderIterator<M> implements Iterator<CSVProcessOutcome<M>>
 	 */  
 	private CSVUnrecoverableStateException exception;
 	
+	/** The batch of records to iterate, {@code null} if reading one record at a time. */
+	private final CSVRecordBatch<M> batch;
+	
+	/** The index in the {@link #batch} of the element to be returned by {@link #next()}. */
+	private int batchIndex;
+	
+	/**
+	 * An unrecoverable exception occurred while filling the {@link #batch}.
+	 * It is thrown after returning the records read before the failure.
+	 */
+	private CSVUnrecoverableStateException batchException;
+	
 	
 	/**
 	 * Constructor with parameters.
@@ -80,6 +100,32 @@ class CSVReaderIterator<M> implements Iterator<CSVProcessOutcome<M>>
 		this.exception = null;
 		this.nextElement = null;
 		
+		this.batch = null;
+		this.batchIndex = 0;
+		this.batchException = null;
+		
+	}
+	
+	/**
+	 * Constructor with parameters.
+	 * 
+	 * @param source    the bean source for this iterator.
+	 * @param batchSize the number of records to read at once.
+	 */
+	public CSVReaderIterator( CSVReader<M> source, int batchSize )
+	{
+		
+		super();
+		
+		this.source = Objects.requireNonNull( source, "The bean source for this iterator is mandatory" );
+		
+		this.exception = null;
+		this.nextElement = null;
+		
+		this.batch = new CSVRecordBatch<M>( batchSize );
+		this.batchIndex = 0;
+		this.batchException = null;
+		
 	}
 	
 	
@@ -102,6 +148,10 @@ class CSVReaderIterator<M> implements Iterator<CSVProcessOutcome<M>>
 		if( this.exception != null )
 			throw this.exception;
 		
+		/* In batch mode we check if there are records left in the batch. */
+		if( this.batch != null )
+			return performBatchReadIfNeeded();
+		
 		/*
 		 * We perform the read operation if needed and
 		 * return whether the CSV source is not empty.
@@ -127,6 +177,13 @@ class CSVReaderIterator<M> implements Iterator<CSVProcessOutcome<M>>
 		if( ! hasNext() )
 			throw new NoSuchElementException();
 		
+		/* In batch mode we build the outcome of the next record in the batch. */
+		if( this.batch != null )
+		{
+			final int index = this.batchIndex++;
+			return new CSVReaderImpl.CSVProcessOutcomeSnapshot<M>( batch.getModel(index), batch.getContext(index), null );
+		}
+		
 		/* We save the current element in a local variable. */
 		final CSVProcessOutcome<M> toBeReturned = this.nextElement;
 		
@@ -179,5 +236,49 @@ class CSVReaderIterator<M> implements Iterator<CSVProcessOutcome<M>>
 		}
 		
 	}
+	
+	/**
+	 * Fills the batch with the next records if all the records
+	 * in the batch have been returned by {@link #next()}.
+	 * 
+	 * @return {@code true} if there are records left in the batch.
+	 */
+	private boolean performBatchReadIfNeeded()
+	{
+		
+		if( this.batchIndex < this.batch.getSize() )
+			return true;
+		
+		/* The records read before the failure have been returned. */
+		if( this.batchException != null )
+		{
+			this.exception = this.batchException;
+			throw this.exception;
+		}
+		
+		this.batch.clear();
+		this.batchIndex = 0;
+		try{
+			
+			source.readBatch( this.batch );
+			
+		}catch( Exception ex )
+		{
+			
+			logger.error( "Unable to read the CSV source", ex );
+			this.batchException = new CSVUnrecoverableStateException( ex );
+			
+			/* The failure is notified after returning the records already read. */
+			if( this.batch.getSize() == 0 )
+			{
+				this.exception = this.batchException;
+				throw this.exception;
+			}
+			
+		}
+		
+		return this.batchIndex < this.batch.getSize();
+		
+	}
 
 }
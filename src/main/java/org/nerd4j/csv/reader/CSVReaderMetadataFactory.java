@@ -21,6 +21,7 @@
  */
 package org.nerd4j.csv.reader;
 
+import org.nerd4j.csv.conf.CSVConfFingerprint;
 import org.nerd4j.csv.conf.CSVMetadataBuilder;
 import org.nerd4j.csv.conf.mapping.CSVConfiguration;
 import org.nerd4j.csv.conf.mapping.CSVReaderConf;
@@ -38,13 +39,13 @@ public final class CSVReaderMetadataFactory<Model>
 {
 	
 	/** Configuration to be parsed to create the meta-data model. */
-	private CSVReaderConf readerConf;
+	private final CSVReaderConf readerConf;
 	
 	/** The global CSV configuration. */
-	private CSVConfiguration configuration;
+	private final CSVConfiguration configuration;
 	
 	/** The configuration registry to be used if needed. */
-	private CSVRegistry registry;
+	private final CSVRegistry registry;
 	
 	
 	/**
@@ -85,4 +86,35 @@ public final class CSVReaderMetadataFactory<Model>
         
     }
     
-}
\ No newline at end of file
+    
+    /**
+     * Returns the fingerprint of the configuration used
+     * to create the meta-data model.
+     * <p>
+     * Two factories built with equivalent configurations
+     * return the same fingerprint.
+     * 
+     * @return fingerprint of the configuration.
+     */
+    public long getConfigurationFingerprint()
+    {
+        
+        return CSVConfFingerprint.of( readerConf, configuration );
+        
+    }
+    
+    
+    /**
+     * Returns the name of the reader configuration
+     * used to create the meta-data model.
+     * 
+     * @return name of the configuration, can be {@code null}.
+     */
+    public String getName()
+    {
+        
+        return readerConf.getName();
+        
+    }
+    
+}
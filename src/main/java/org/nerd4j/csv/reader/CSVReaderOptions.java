@@ -0,0 +1,243 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+import org.nerd4j.csv.exception.CSVConfigurationException;
+
+
+/**
+ * Represents the optional behaviours of a {@link CSVReader}
+ * to be enabled by the {@link CSVReaderFactory}.
+ * 
+ * <p>
+ * The options can be freely combined, for example:
+ * <pre>
+ * final CSVReaderOptions options = new CSVReaderOptions()
+ *                                      .filter( CSVRowFilter.in("STATUS", "ACTIVE") )
+ *                                      .captureRecords( quarantine )
+ *                                      .reuseModel();
+ * 
+ * try( CSVReader&lt;Model&gt; reader = readerFactory.getCSVReader(file, options) )
+ * {
+ *     ...
+ * }
+ * </pre>
+ * The only exception is the model reuse that can not be
+ * combined with the outcome snapshots. The options are read
+ * when the reader is created so the same instance can be
+ * used to create many readers.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVReaderOptions
+{
+    
+    /** Tells if to reuse the same data model instance for all the records. */
+    private boolean reuseModel;
+    
+    /** Tells if to return an immutable outcome for each record. */
+    private boolean snapshotOutcomes;
+    
+    /** The filter of the records, {@code null} if all the records are accepted. */
+    private CSVRowFilter rowFilter;
+    
+    /** Tells if to capture the raw text of the records. */
+    private boolean captureRecords;
+    
+    /** The sink of the rejected records, {@code null} if not enabled. */
+    private CSVQuarantine quarantine;
+    
+    
+    /**
+     * Default constructor.
+     * <p>
+     * No option is enabled.
+     */
+    public CSVReaderOptions()
+    {
+        
+        super();
+        
+        this.reuseModel = false;
+        this.snapshotOutcomes = false;
+        this.rowFilter = null;
+        this.captureRecords = false;
+        this.quarantine = null;
+        
+    }
+    
+    
+    /* **************** */
+    /*  PUBLIC METHODS  */
+    /* **************** */
+    
+    
+    /**
+     * Makes the reader reuse the same data model instance for all the records.
+     * <p>
+     * The data model returned for a record is valid only until the
+     * next record is read, then it is cleared and filled again.
+     * Therefore the models must be used or copied before reading
+     * the next record and must not be collected, for example, from
+     * the {@link CSVReader#stream()}. If the configured model does
+     * not support reuse, like the beans, a new model is created
+     * for each record as usual.
+     * 
+     * @return this options.
+     * @throws CSVConfigurationException if the outcome snapshots are enabled.
+     * @see org.nerd4j.csv.reader.binding.CSVToModelReusableBinder
+     */
+    public CSVReaderOptions reuseModel()
+    {
+        
+        if( snapshotOutcomes )
+            throw new CSVConfigurationException( "The model reuse can't be combined with the outcome snapshots" );
+        
+        this.reuseModel = true;
+        return this;
+        
+    }
+    
+    /**
+     * Makes the reader return an immutable outcome for each record.
+     * <p>
+     * By default the reader returns always the same outcome instance
+     * updated for each record. The outcomes returned in this mode
+     * are never changed: they keep the data model and, only in case
+     * of error, a snapshot of the error. So they can be collected,
+     * for example, from the {@link CSVReader#stream()} or handed to
+     * other threads without copying them. All the successful outcomes
+     * share the same execution context so they don't keep the row index.
+     * 
+     * @return this options.
+     * @throws CSVConfigurationException if the model reuse is enabled.
+     */
+    public CSVReaderOptions snapshotOutcomes()
+    {
+        
+        if( reuseModel )
+            throw new CSVConfigurationException( "The outcome snapshots can't be combined with the model reuse" );
+        
+        this.snapshotOutcomes = true;
+        return this;
+        
+    }
+    
+    /**
+     * Makes the reader return only the records accepted by the given filter.
+     * <p>
+     * The filter is evaluated while reading, the records rejected
+     * are skipped as soon as a condition fails without processing
+     * the remaining columns nor building the data model. If a filtered
+     * column is not configured the reader creation fails with a
+     * {@link CSVConfigurationException}.
+     * 
+     * @param rowFilter the filter of the records.
+     * @return this options.
+     */
+    public CSVReaderOptions filter( final CSVRowFilter rowFilter )
+    {
+        
+        if( rowFilter == null )
+            throw new NullPointerException( "The row filter is mandatory and can't be null" );
+        
+        this.rowFilter = rowFilter;
+        return this;
+        
+    }
+    
+    /**
+     * Makes the reader capture the raw text of the records.
+     * <p>
+     * The raw text of each record is available through
+     * {@link org.nerd4j.csv.CSVProcessOutcome#getRawRecord()} and the
+     * records failing to be processed are sent to the given quarantine.
+     * 
+     * @param quarantine the sink of the rejected records, {@code null} to capture only.
+     * @return this options.
+     */
+    public CSVReaderOptions captureRecords( final CSVQuarantine quarantine )
+    {
+        
+        this.captureRecords = true;
+        this.quarantine = quarantine;
+        return this;
+        
+    }
+    
+    
+    /* ******************* */
+    /*  GETTERS & SETTERS  */
+    /* ******************* */
+    
+    
+    /**
+     * Tells if the model reuse is enabled.
+     * 
+     * @return {@code true} if the model reuse is enabled.
+     */
+    public boolean isReuseModel()
+    {
+        return reuseModel;
+    }
+    
+    /**
+     * Tells if the outcome snapshots are enabled.
+     * 
+     * @return {@code true} if the outcome snapshots are enabled.
+     */
+    public boolean isSnapshotOutcomes()
+    {
+        return snapshotOutcomes;
+    }
+    
+    /**
+     * Returns the filter of the records.
+     * 
+     * @return the filter of the records, {@code null} if not enabled.
+     */
+    public CSVRowFilter getRowFilter()
+    {
+        return rowFilter;
+    }
+    
+    /**
+     * Tells if the capture of the raw records is enabled.
+     * 
+     * @return {@code true} if the capture of the raw records is enabled.
+     */
+    public boolean isCaptureRecords()
+    {
+        return captureRecords;
+    }
+    
+    /**
+     * Returns the sink of the rejected records.
+     * 
+     * @return the quarantine, {@code null} if not enabled.
+     */
+    public CSVQuarantine getQuarantine()
+    {
+        return quarantine;
+    }
+    
+}
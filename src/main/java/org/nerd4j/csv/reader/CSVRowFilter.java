@@ -0,0 +1,288 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+
+/**
+ * Represents a filter on the records of a CSV source
+ * evaluated by the {@link CSVReader} while reading.
+ * 
+ * <p>
+ * The filter is made of some conditions on specific columns,
+ * a record is accepted only if all the conditions are satisfied.
+ * A condition can check the raw characters of the column, before
+ * any processing, or the value after the processing. Each condition
+ * is evaluated as soon as the related column is parsed, if it fails
+ * the reader skips the rest of the record without processing the
+ * remaining columns nor binding the data model, and proceeds
+ * with the next record.
+ * 
+ * <p>
+ * The conditions refer to columns configured in the reader, the
+ * characters given to a raw condition are valid only during the
+ * evaluation and must not be kept. Filters are immutable and
+ * can be shared by many readers, the predicates are expected
+ * to be thread safe.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVRowFilter
+{
+    
+    /** The conditions the records must satisfy. */
+    private final List<Condition> conditions;
+    
+    /** Number of records rejected by this filter. */
+    private final LongAdder rejected;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param conditions the conditions the records must satisfy.
+     */
+    private CSVRowFilter( final List<Condition> conditions )
+    {
+        
+        super();
+        
+        this.conditions = Collections.unmodifiableList( conditions );
+        this.rejected = new LongAdder();
+        
+    }
+    
+    
+    /* **************** */
+    /*  STATIC METHODS  */
+    /* **************** */
+    
+    
+    /**
+     * Creates a filter that checks the raw characters
+     * of the given column before any processing.
+     * 
+     * @param column    the name of the column to check.
+     * @param predicate the condition to satisfy.
+     * @return a new filter.
+     */
+    public static CSVRowFilter onRawValue( final String column, final Predicate<CharSequence> predicate )
+    {
+        
+        if( predicate == null )
+            throw new NullPointerException( "The predicate is mandatory and can't be null" );
+        
+        return new CSVRowFilter( Collections.singletonList(new Condition(column, predicate, null)) );
+        
+    }
+    
+    /**
+     * Creates a filter that checks the value of the
+     * given column after the processing.
+     * 
+     * @param column    the name of the column to check.
+     * @param predicate the condition to satisfy.
+     * @return a new filter.
+     */
+    public static CSVRowFilter onValue( final String column, final Predicate<Object> predicate )
+    {
+        
+        if( predicate == null )
+            throw new NullPointerException( "The predicate is mandatory and can't be null" );
+        
+        return new CSVRowFilter( Collections.singletonList(new Condition(column, null, predicate)) );
+        
+    }
+    
+    /**
+     * Creates a filter that accepts the records where the
+     * raw characters of the given column are equal to
+     * one of the given values.
+     * 
+     * @param column the name of the column to check.
+     * @param values the accepted values.
+     * @return a new filter.
+     */
+    public static CSVRowFilter in( final String column, final String... values )
+    {
+        
+        if( values == null )
+            throw new NullPointerException( "The accepted values are mandatory and can't be null" );
+        
+        final String[] accepted = values.clone();
+        return onRawValue( column, source -> {
+            
+            for( String value : accepted )
+                if( contentEquals(value, source) )
+                    return true;
+            
+            return false;
+            
+        });
+        
+    }
+    
+    
+    /* **************** */
+    /*  PUBLIC METHODS  */
+    /* **************** */
+    
+    
+    /**
+     * Returns a new filter that accepts the records
+     * accepted both by this filter and the given one.
+     * 
+     * @param other the other filter to satisfy.
+     * @return a new filter.
+     */
+    public CSVRowFilter and( final CSVRowFilter other )
+    {
+        
+        if( other == null )
+            throw new NullPointerException( "The filter to combine is mandatory and can't be null" );
+        
+        final List<Condition> conditions = new ArrayList<Condition>( this.conditions );
+        conditions.addAll( other.conditions );
+        
+        return new CSVRowFilter( conditions );
+        
+    }
+    
+    /**
+     * Returns the number of records rejected by this
+     * filter in all the readers where it is used.
+     * 
+     * @return the number of rejected records.
+     */
+    public long getRejectedCount()
+    {
+        
+        return rejected.sum();
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Returns the conditions of this filter.
+     * 
+     * @return the conditions of this filter.
+     */
+    List<Condition> getConditions()
+    {
+        
+        return conditions;
+        
+    }
+    
+    /**
+     * Invoked by the readers when a record has been rejected.
+     * 
+     */
+    void recordRejected()
+    {
+        
+        rejected.increment();
+        
+    }
+    
+    /**
+     * Tells if the given value has the same characters
+     * of the given source.
+     * 
+     * @param value  the value to compare.
+     * @param source the characters to compare.
+     * @return {@code true} if they have the same characters.
+     */
+    private static boolean contentEquals( final String value, final CharSequence source )
+    {
+        
+        final int length = value.length();
+        if( length != source.length() ) return false;
+        
+        for( int i = 0; i < length; ++i )
+            if( value.charAt(i) != source.charAt(i) )
+                return false;
+        
+        return true;
+        
+    }
+    
+    
+    /* *************** */
+    /*  INNER CLASSES  */
+    /* *************** */
+    
+    
+    /**
+     * Represents a condition on a specific column,
+     * either on the raw characters or on the value.
+     * 
+     * @author Nerd4j Team
+     */
+    static final class Condition
+    {
+        
+        /** The name of the column to check. */
+        final String column;
+        
+        /** The condition on the raw characters, can be {@code null}. */
+        final Predicate<CharSequence> rawPredicate;
+        
+        /** The condition on the processed value, can be {@code null}. */
+        final Predicate<Object> valuePredicate;
+        
+        
+        /**
+         * Constructor with parameters.
+         * 
+         * @param column         the name of the column to check.
+         * @param rawPredicate   the condition on the raw characters.
+         * @param valuePredicate the condition on the processed value.
+         */
+        Condition( final String column, final Predicate<CharSequence> rawPredicate,
+                   final Predicate<Object> valuePredicate )
+        {
+            
+            super();
+            
+            if( column == null )
+                throw new NullPointerException( "The column name is mandatory and can't be null" );
+            
+            this.column = column;
+            this.rawPredicate = rawPredicate;
+            this.valuePredicate = valuePredicate;
+            
+        }
+        
+    }
+    
+}
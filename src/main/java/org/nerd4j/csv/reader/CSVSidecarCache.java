@@ -0,0 +1,369 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+import org.nerd4j.csv.exception.CSVToModelBindingException;
+import org.nerd4j.csv.reader.binding.CSVToModelBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Persistent cache of the parsed CSV files.
+ * 
+ * <p>
+ * The first time a CSV file is read through the cache the values
+ * converted by the configured fields are stored, while reading,
+ * into a binary sidecar file. The next readings of the same file
+ * take the values from the sidecar skipping both the parsing and
+ * the conversion.
+ * 
+ * <p>
+ * The sidecar is bound to the size, the last modified time and a
+ * hash of the beginning and the end of the source file and to the
+ * fingerprint of the reader configuration. If any of them changes
+ * the sidecar is discarded and built again.
+ * 
+ * <p>
+ * The values are stored in pages of {@value #PAGE_ROWS} records
+ * where the values of each column are kept together. Each page
+ * is memory mapped when read.
+ * Only the following value types can be stored:
+ * {@link String}, the primitive wrappers, {@link java.util.Date},
+ * {@link java.math.BigDecimal}, {@link java.math.BigInteger}
+ * and the enumerations. If a different type is produced or
+ * if any record fails to be processed, the source is marked
+ * as not cacheable and is always read from the CSV file.
+ * 
+ * <p>
+ * Any failure of the cache is logged and never prevents the
+ * CSV file from being read.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVSidecarCache
+{
+    
+    /** Internal logging system. */
+    private static final Logger logger = LoggerFactory.getLogger( CSVSidecarCache.class );
+    
+    /** The extension of the sidecar files. */
+    public static final String EXTENSION = ".n4jc";
+    
+    /** The number of records in each page. */
+    static final int PAGE_ROWS = 4096;
+    
+    /** The magic number at the beginning of each sidecar file. */
+    static final long MAGIC = 0x4E346A4353564331L;
+    
+    /** The version of the sidecar format. */
+    static final int VERSION = 1;
+    
+    /** The number of bytes hashed at the beginning and at the end of the source. */
+    private static final int HASH_SAMPLE = 64 * 1024;
+    
+    /** The directory where to store the sidecar files, {@code null} to store them next to the source. */
+    private final File directory;
+    
+    
+    /**
+     * Default constructor.
+     * <p>
+     * The sidecar files are stored next
+     * to the related source files.
+     * 
+     */
+    public CSVSidecarCache()
+    {
+        
+        super();
+        
+        this.directory = null;
+        
+    }
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param directory the directory where to store the sidecar files.
+     */
+    public CSVSidecarCache( final File directory )
+    {
+        
+        super();
+        
+        if( directory == null )
+            throw new NullPointerException( "The sidecar directory is mandatory and can't be null." );
+        
+        this.directory = directory;
+        
+    }
+    
+    
+    /* ******************* */
+    /*  GETTERS & SETTERS  */
+    /* ******************* */
+    
+    
+    /**
+     * Returns the sidecar file related to the given source.
+     * 
+     * @param source the CSV source file.
+     * @return the related sidecar file.
+     */
+    public File getSidecarFile( final File source )
+    {
+        
+        if( directory == null )
+            return new File( source.getPath() + EXTENSION );
+        
+        /*
+         * Sources with the same name in different directories
+         * are distinguished by the hash of their absolute path.
+         */
+        final String path = source.getAbsolutePath();
+        return new File( directory, source.getName() + '.' + Integer.toHexString(path.hashCode()) + EXTENSION );
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PACKAGE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Returns a reader for the given source file.
+     * <p>
+     * If a valid sidecar exists the records are read from
+     * the sidecar, otherwise they are read from the source
+     * and the sidecar is written while reading.
+     * 
+     * @param <M>         type of the data model returned by the reader.
+     * @param source      the CSV source file.
+     * @param factory     the factory creating the readers of the source.
+     * @param metadata    the meta-data model to read configuration from.
+     * @param fingerprint the fingerprint of the reader configuration.
+     * @return a reader for the given source.
+     * @throws IOException if fails to read the source.
+     * @throws CSVToModelBindingException if binding configuration is inconsistent.
+     */
+    <M> CSVReader<M> getCSVReader( final File source, final CSVReaderFactoryImpl<M> factory,
+                                   final CSVReaderMetadata<M> metadata, final long fingerprint )
+    throws IOException, CSVToModelBindingException
+    {
+        
+        final long[] key = getKey( source, fingerprint );
+        final File sidecar = getSidecarFile( source );
+        
+        if( sidecar.exists() )
+        {
+            
+            try( DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(sidecar))) )
+            {
+                
+                if( in.readLong() == MAGIC && in.readInt() == VERSION
+                    && Arrays.equals(key, readKey(in)) )
+                {
+                    
+                    /* A sidecar with complete == false marks a source we can't cache. */
+                    if( ! in.readBoolean() )
+                        return openSource( source, factory, metadata, null );
+                    
+                    logger.debug( "Reading {} from sidecar {}", source, sidecar );
+                    return CSVSidecarReaderImpl.open( sidecar, metadata );
+                    
+                }
+                
+            }catch( IOException | RuntimeException ex )
+            {
+                logger.warn( "Unable to read the sidecar " + sidecar + ", it will be built again", ex );
+            }
+            
+            logger.debug( "Discarding the stale sidecar {}", sidecar );
+            if( ! sidecar.delete() )
+                logger.warn( "Unable to delete the stale sidecar {}", sidecar );
+            
+        }
+        
+        CSVSidecarWriter writer = null;
+        try{
+            
+            writer = new CSVSidecarWriter( sidecar, key );
+            
+        }catch( IOException ex )
+        {
+            logger.warn( "Unable to create the sidecar " + sidecar + ", reading without cache", ex );
+        }
+        
+        return openSource( source, factory, metadata, writer );
+        
+    }
+    
+    /**
+     * Writes the given key to the given output.
+     * 
+     * @param out the output to write.
+     * @param key the key to write.
+     * @throws IOException if fails to write.
+     */
+    static void writeKey( final DataOutput out, final long[] key ) throws IOException
+    {
+        
+        for( long value : key )
+            out.writeLong( value );
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Opens the given source file and creates a reader over it.
+     * If a sidecar writer is provided the values read are recorded.
+     * 
+     * @param <M>      type of the data model returned by the reader.
+     * @param source   the CSV source file.
+     * @param factory  the factory creating the readers of the source.
+     * @param metadata the meta-data model to read configuration from.
+     * @param writer   the sidecar writer, {@code null} to read without recording.
+     * @return a reader for the given source.
+     * @throws IOException if fails to read the source.
+     * @throws CSVToModelBindingException if binding configuration is inconsistent.
+     */
+    private <M> CSVReader<M> openSource( final File source, final CSVReaderFactoryImpl<M> factory,
+                                         final CSVReaderMetadata<M> metadata, final CSVSidecarWriter writer )
+    throws IOException, CSVToModelBindingException
+    {
+        
+        try{
+            
+            final CSVSource csvSource = CSVSource.open( factory.openFile(source), metadata );
+            final CSVToModelBinder<M> modelBinder = metadata.getModelBinderFactory().getCSVToModelBinder( metadata, csvSource.getColumnMapping() );
+            
+            if( writer == null )
+                return factory.getCSVReader( csvSource, metadata, modelBinder );
+            
+            final CSVSidecarRecordingReader.RecordingBinder<M> recordingBinder
+                = new CSVSidecarRecordingReader.RecordingBinder<M>( modelBinder, csvSource.getFields() );
+            
+            final CSVReaderImpl<M> reader = factory.getCSVReader( csvSource, metadata, recordingBinder );
+            
+            return new CSVSidecarRecordingReader<M>( reader, recordingBinder, writer );
+            
+        }catch( IOException | RuntimeException ex )
+        {
+            if( writer != null )
+                writer.abandon();
+            throw ex;
+        }
+        
+    }
+    
+    /**
+     * Computes the key of the given source.
+     * 
+     * @param source      the CSV source file.
+     * @param fingerprint the fingerprint of the reader configuration.
+     * @return the key of the source.
+     * @throws IOException if fails to read the source.
+     */
+    private static long[] getKey( final File source, final long fingerprint ) throws IOException
+    {
+        
+        try( RandomAccessFile file = new RandomAccessFile(source, "r") )
+        {
+            
+            final long length = file.length();
+            final byte[] buffer = new byte[ HASH_SAMPLE ];
+            
+            long hash = 0xcbf29ce484222325L;
+            hash = hash( file, 0, buffer, hash );
+            if( length > HASH_SAMPLE )
+                hash = hash( file, Math.max(HASH_SAMPLE, length - HASH_SAMPLE), buffer, hash );
+            
+            return new long[] { length, source.lastModified(), hash, fingerprint };
+            
+        }
+        
+    }
+    
+    /**
+     * Updates the given hash with the bytes of the file
+     * starting at the given position.
+     * 
+     * @param file     the file to hash.
+     * @param position the position where to start.
+     * @param buffer   the buffer to use.
+     * @param hash     the hash to update.
+     * @return the updated hash.
+     * @throws IOException if fails to read the file.
+     */
+    private static long hash( final RandomAccessFile file, final long position, final byte[] buffer, long hash )
+    throws IOException
+    {
+        
+        file.seek( position );
+        
+        int read;
+        int total = 0;
+        while( total < buffer.length && (read = file.read(buffer, total, buffer.length - total)) > 0 )
+            total += read;
+        
+        for( int i = 0; i < total; ++i )
+            hash = (hash ^ (buffer[i] & 0xff)) * 0x100000001b3L;
+        
+        return hash;
+        
+    }
+    
+    /**
+     * Reads a key from the given input.
+     * 
+     * @param in the input to read.
+     * @return the key read.
+     * @throws IOException if fails to read.
+     */
+    private static long[] readKey( final DataInputStream in ) throws IOException
+    {
+        
+        final long[] key = new long[4];
+        for( int i = 0; i < key.length; ++i )
+            key[i] = in.readLong();
+        
+        return key;
+        
+    }
+    
+}
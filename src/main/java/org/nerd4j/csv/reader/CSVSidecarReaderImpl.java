@@ -0,0 +1,588 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.nerd4j.csv.CSVProcessContext;
+import org.nerd4j.csv.CSVProcessOutcome;
+import org.nerd4j.csv.exception.CSVProcessException;
+import org.nerd4j.csv.exception.CSVSingleUseViolationException;
+import org.nerd4j.csv.exception.CSVToModelBindingException;
+import org.nerd4j.csv.field.CSVFieldProcessContext;
+import org.nerd4j.csv.field.CSVMappingDescriptor;
+import org.nerd4j.csv.reader.batch.CSVColumnBatch;
+import org.nerd4j.csv.reader.batch.CSVColumnBatchBinder;
+import org.nerd4j.csv.reader.batch.CSVRecordBatch;
+import org.nerd4j.csv.reader.binding.CSVToModelBinder;
+
+
+/**
+ * Implementation of the {@link CSVReader} interface that reads
+ * the records from a sidecar of the {@link CSVSidecarCache}.
+ * 
+ * <p>
+ * The pages of the sidecar are memory mapped one at a time
+ * and the stored values are bound to the model in the same
+ * way they were bound when read from the CSV source.
+ * 
+ * @param <M> type of the data model returned by the reader.
+ * 
+ * @author Nerd4j Team
+ */
+final class CSVSidecarReaderImpl<M> implements CSVReader<M>, CSVColumnBatchReader
+{
+    
+    /** The sidecar file. */
+    private final RandomAccessFile file;
+    
+    /** Object able to build and fill the data model related to the CSV record. */
+    private final CSVToModelBinder<M> modelBinder;
+    
+    /** Represents the CSV header, can be {@code null} if the CSV has no header. */
+    private final String[] header;
+    
+    /** The indexes of the source columns stored. */
+    private final int[] sources;
+    
+    /** The mapping descriptor of each source column. */
+    private final CSVMappingDescriptor[] descriptors;
+    
+    /** The enumeration classes used by the values. */
+    private final Class<?>[] classes;
+    
+    /** The offsets of the pages. */
+    private final long[] pageOffsets;
+    
+    /** The lengths of the pages. */
+    private final int[] pageLengths;
+    
+    /** The values of the current page for each column. */
+    private final ByteBuffer[] columns;
+    
+    /** The process execution context. */
+    private final CSVFieldProcessContext context;
+    
+    /** The reading process outcome. */
+    private final CSVProcessOutcomeImpl outcome;
+    
+    /** Tells that the method has been already invoked at least once. */
+    private final AtomicBoolean alreadyInvoked;
+    
+    /** Buffer used to decode the strings. */
+    private byte[] bytes;
+    
+    /** The index of the next page to read. */
+    private int nextPage;
+    
+    /** The records left in the current page. */
+    private int pageRows;
+    
+    /** Tells that the end of the CSV source has been reached. */
+    private boolean endOfData;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param file        the sidecar file.
+     * @param modelBinder the CSV model builder.
+     * @param header      the CSV header if exists.
+     * @param sources     the indexes of the source columns stored.
+     * @param descriptors the mapping descriptor of each source column.
+     * @param classes     the enumeration classes used by the values.
+     * @param pageOffsets the offsets of the pages.
+     * @param pageLengths the lengths of the pages.
+     */
+    private CSVSidecarReaderImpl( final RandomAccessFile file, final CSVToModelBinder<M> modelBinder,
+                                  final String[] header, final int[] sources,
+                                  final CSVMappingDescriptor[] descriptors, final Class<?>[] classes,
+                                  final long[] pageOffsets, final int[] pageLengths )
+    {
+        
+        super();
+        
+        this.file = file;
+        this.header = header;
+        this.sources = sources;
+        this.descriptors = descriptors;
+        this.classes = classes;
+        this.modelBinder = modelBinder;
+        this.pageOffsets = pageOffsets;
+        this.pageLengths = pageLengths;
+        
+        this.columns = new ByteBuffer[sources.length];
+        this.bytes = new byte[64];
+        
+        this.nextPage = 0;
+        this.pageRows = 0;
+        this.endOfData = false;
+        
+        this.outcome = new CSVProcessOutcomeImpl();
+        this.context = new CSVFieldProcessContext( header );
+        this.alreadyInvoked = new AtomicBoolean();
+        
+    }
+    
+    
+    /**
+     * Opens a reader over the given sidecar.
+     * 
+     * @param <M>      type of the data model returned by the reader.
+     * @param sidecar  the sidecar file.
+     * @param metadata the meta-data model to read configuration from.
+     * @return a reader over the sidecar.
+     * @throws IOException if fails to read the sidecar.
+     * @throws CSVToModelBindingException if binding configuration is inconsistent.
+     */
+    static <M> CSVSidecarReaderImpl<M> open( final File sidecar, final CSVReaderMetadata<M> metadata )
+    throws IOException, CSVToModelBindingException
+    {
+        
+        final RandomAccessFile file = new RandomAccessFile( sidecar, "r" );
+        try{
+            
+            /* We skip the magic number, the version, the key and the complete flag. */
+            file.seek( 8 + 4 + 4 * 8 + 1 );
+            
+            final int length = file.readInt();
+            final String[] header = length < 0 ? null : new String[length];
+            for( int i = 0; i < length; ++i )
+                header[i] = file.readBoolean() ? file.readUTF() : null;
+            
+            final int[] sources = new int[file.readInt()];
+            for( int i = 0; i < sources.length; ++i )
+                sources[i] = file.readInt();
+            
+            file.seek( file.length() - 8 );
+            file.seek( file.readLong() );
+            
+            final Class<?>[] classes = new Class<?>[file.readInt()];
+            for( int i = 0; i < classes.length; ++i )
+                try{
+                    
+                    classes[i] = Class.forName( file.readUTF() );
+                    
+                }catch( ClassNotFoundException ex )
+                {
+                    throw new IOException( "Unable to load the class of the sidecar values", ex );
+                }
+            
+            final int pages = file.readInt();
+            final long[] pageOffsets = new long[pages];
+            final int[] pageLengths = new int[pages];
+            for( int i = 0; i < pages; ++i )
+            {
+                pageOffsets[i] = file.readLong();
+                pageLengths[i] = file.readInt();
+            }
+            
+            final Integer[] columnMapping = CSVSource.buildColumnMapping( header, metadata );
+            final CSVToModelBinder<M> modelBinder = metadata.getModelBinderFactory().getCSVToModelBinder( metadata, columnMapping );
+            
+            final CSVMappingDescriptor[] descriptors = CSVSource.buildMappingDescriptors( columnMapping, metadata );
+            
+            return new CSVSidecarReaderImpl<M>( file, modelBinder, header, sources, descriptors,
+                                                classes, pageOffsets, pageLengths );
+            
+        }catch( IOException | RuntimeException ex )
+        {
+            file.close();
+            throw ex;
+        }
+        
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String[] getHeader()
+    {
+        
+        return header;
+        
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEndOfData()
+    {
+        
+        return endOfData;
+        
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public M readModel() throws IOException, CSVToModelBindingException, CSVProcessException
+    {
+        
+        read();
+        if( context.isError() )
+            throw new CSVProcessException( context.getError() );
+        
+        return outcome.getModel();
+        
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CSVProcessOutcome<M> read() throws IOException, CSVToModelBindingException
+    {
+        
+        outcome.clear();
+        
+        outcome.model = readRecord( modelBinder );
+        return outcome;
+        
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int readBatch( final CSVColumnBatch batch ) throws IOException, CSVToModelBindingException
+    {
+        
+        final CSVColumnBatchBinder batchBinder = batch.bind( descriptors );
+        while( ! batch.isFull() )
+            if( readRecord(batchBinder) == null )
+                break;
+        
+        return batch.getSize();
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int readBatch( final CSVRecordBatch<M> batch ) throws IOException, CSVToModelBindingException
+    {
+        
+        batch.clear();
+        while( ! batch.isFull() )
+        {
+            
+            /* The sidecar contains only the records processed successfully. */
+            final M model = readRecord( modelBinder );
+            if( model == null )
+                break;
+            
+            batch.add( model );
+            
+        }
+        
+        return batch.getSize();
+        
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException
+    {
+        
+        file.close();
+        
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     * 
+     * @throws CSVSingleUseViolationException if invoked more than once.
+     */
+    @Override
+    public Iterator<CSVProcessOutcome<M>> iterator()
+    throws CSVSingleUseViolationException
+    {
+        
+        if( alreadyInvoked.getAndSet(true) )
+            throw new CSVSingleUseViolationException();
+        
+        return new CSVReaderIterator<>( this );
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Reads the next stored record and binds
+     * it using the given binder.
+     * 
+     * @param <T>    type of the data model to fill.
+     * @param binder the binder of the data model.
+     * @return the data model related to the record or {@code null} if the end of data has been reached.
+     * @throws IOException if fails to read the sidecar.
+     * @throws CSVToModelBindingException if an error occurs during model binding.
+     */
+    private <T> T readRecord( final CSVToModelBinder<T> binder ) throws IOException, CSVToModelBindingException
+    {
+        
+        context.clear();
+        
+        if( endOfData ) return null;
+        
+        while( pageRows == 0 )
+        {
+            if( nextPage >= pageOffsets.length )
+            {
+                this.endOfData = true;
+                return null;
+            }
+            
+            mapPage( nextPage++ );
+        }
+        
+        --pageRows;
+        context.newRow();
+        binder.initModel();
+        
+        for( int i = 0; i < columns.length; ++i )
+        {
+            
+            final ByteBuffer column = columns[i];
+            final byte tag = column.get();
+            if( tag != CSVSidecarWriter.ABSENT )
+                binder.fill( sources[i], decode(tag, column) );
+            
+        }
+        
+        return binder.getModel();
+        
+    }
+    
+    /**
+     * Maps the given page and positions the columns
+     * at the beginning of the page.
+     * 
+     * @param page the index of the page to map.
+     * @throws IOException if fails to map the page.
+     */
+    private void mapPage( final int page ) throws IOException
+    {
+        
+        final MappedByteBuffer buffer = file.getChannel().map( FileChannel.MapMode.READ_ONLY, pageOffsets[page], pageLengths[page] );
+        
+        pageRows = buffer.getInt();
+        for( int i = 0; i < columns.length; ++i )
+        {
+            
+            final int length = buffer.getInt();
+            final int start = buffer.position();
+            
+            final ByteBuffer column = buffer.duplicate();
+            column.limit( start + length );
+            columns[i] = column;
+            
+            buffer.position( start + length );
+            
+        }
+        
+    }
+    
+    /**
+     * Decodes the value with the given tag.
+     * 
+     * @param tag    the tag of the value.
+     * @param column the column where to read the value.
+     * @return the decoded value.
+     * @throws IOException if the tag is unknown.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private Object decode( final byte tag, final ByteBuffer column ) throws IOException
+    {
+        
+        switch( tag )
+        {
+            
+            case CSVSidecarWriter.NULL:
+                return null;
+                
+            case CSVSidecarWriter.STRING:
+                return readString( column, column.getInt() );
+                
+            case CSVSidecarWriter.LONG:
+                return column.getLong();
+                
+            case CSVSidecarWriter.INT:
+                return column.getInt();
+                
+            case CSVSidecarWriter.SHORT:
+                return column.getShort();
+                
+            case CSVSidecarWriter.BYTE:
+                return column.get();
+                
+            case CSVSidecarWriter.DOUBLE:
+                return column.getDouble();
+                
+            case CSVSidecarWriter.FLOAT:
+                return column.getFloat();
+                
+            case CSVSidecarWriter.TRUE:
+                return Boolean.TRUE;
+                
+            case CSVSidecarWriter.FALSE:
+                return Boolean.FALSE;
+                
+            case CSVSidecarWriter.CHAR:
+                return column.getChar();
+                
+            case CSVSidecarWriter.DATE:
+                return new Date( column.getLong() );
+                
+            case CSVSidecarWriter.BIG_DECIMAL:
+                return new BigDecimal( readString(column, column.getInt()) );
+                
+            case CSVSidecarWriter.BIG_INTEGER:
+                return new BigInteger( readString(column, column.getInt()) );
+                
+            case CSVSidecarWriter.ENUM:
+                final Class enumType = classes[column.getShort()];
+                return Enum.valueOf( enumType, readString(column, column.getInt()) );
+                
+            default:
+                throw new IOException( "Unknown value tag " + tag + " in the sidecar" );
+            
+        }
+        
+    }
+    
+    /**
+     * Reads a string of the given length in bytes.
+     * 
+     * @param column the column where to read the string.
+     * @param length the length of the string in bytes.
+     * @return the string read.
+     */
+    private String readString( final ByteBuffer column, final int length )
+    {
+        
+        if( bytes.length < length )
+            bytes = new byte[ Math.max(length, bytes.length * 2) ];
+        
+        column.get( bytes, 0, length );
+        return new String( bytes, 0, length, StandardCharsets.UTF_8 );
+        
+    }
+    
+    
+    /* *************** */
+    /*  INNER CLASSES  */
+    /* *************** */
+    
+    
+    /**
+     * Implementation of the {@link CSVProcessOutcome} interface
+     * for this CSV reader.
+     * 
+     * @author Nerd4j Team
+     */
+    private class CSVProcessOutcomeImpl implements CSVProcessOutcome<M>
+    {
+        
+        /** The data model corresponding to the record read. */
+        private M model;
+        
+        
+        /**
+         * Default constructor.
+         * 
+         */
+        public CSVProcessOutcomeImpl()
+        {
+            
+            super();
+            
+            this.model = null;
+            
+        }
+        
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public M getModel()
+        {
+            return model;
+        }
+        
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public CSVProcessContext getCSVProcessContext()
+        {
+            return context;
+        }
+        
+        
+        /**
+         * Clears the internal values of the outcome.
+         * 
+         */
+        private void clear()
+        {
+            this.model = null;
+        }
+        
+    }
+    
+}
@@ -0,0 +1,438 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.nerd4j.csv.CSVProcessContext;
+import org.nerd4j.csv.CSVProcessOutcome;
+import org.nerd4j.csv.exception.CSVProcessException;
+import org.nerd4j.csv.exception.CSVSingleUseViolationException;
+import org.nerd4j.csv.exception.CSVToModelBindingException;
+import org.nerd4j.csv.field.CSVField;
+import org.nerd4j.csv.reader.batch.CSVColumnBatch;
+import org.nerd4j.csv.reader.batch.CSVRecordBatch;
+import org.nerd4j.csv.reader.binding.CSVToModelBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Implementation of the {@link CSVReader} interface that records
+ * the values read from the CSV source into a sidecar of the
+ * {@link CSVSidecarCache}.
+ * 
+ * <p>
+ * The values are captured by a {@link RecordingBinder} placed in
+ * front of the model binder and are written once the record has
+ * been read successfully. If the reading is not completed the
+ * sidecar is discarded.
+ * 
+ * @param <M> type of the data model returned by the reader.
+ * 
+ * @author Nerd4j Team
+ */
+final class CSVSidecarRecordingReader<M> implements CSVReader<M>, CSVColumnBatchReader
+{
+    
+    /** Internal logging system. */
+    private static final Logger logger = LoggerFactory.getLogger( CSVSidecarRecordingReader.class );
+    
+    /** The reader of the records. */
+    private final CSVReaderImpl<M> reader;
+    
+    /** The binder capturing the values. */
+    private final RecordingBinder<M> binder;
+    
+    /** Tells if the method {@link #iterator()} has already been invoked. */
+    private final AtomicBoolean alreadyInvoked;
+    
+    /** The writer of the sidecar, {@code null} once the recording is over. */
+    private CSVSidecarWriter writer;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param reader the reader of the records.
+     * @param binder the binder capturing the values.
+     * @param writer the writer of the sidecar.
+     */
+    CSVSidecarRecordingReader( final CSVReaderImpl<M> reader, final RecordingBinder<M> binder,
+                               final CSVSidecarWriter writer )
+    {
+        
+        super();
+        
+        this.reader = reader;
+        this.binder = binder;
+        this.writer = writer;
+        
+        this.alreadyInvoked = new AtomicBoolean();
+        
+        try{
+            
+            writer.begin( reader.getHeader(), binder.getSources() );
+            
+        }catch( IOException ex )
+        {
+            abandon( ex );
+        }
+        
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String[] getHeader()
+    {
+        
+        return reader.getHeader();
+        
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEndOfData()
+    {
+        
+        return reader.isEndOfData();
+        
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public M readModel() throws IOException, CSVToModelBindingException, CSVProcessException
+    {
+        
+        final CSVProcessOutcome<M> outcome = read();
+        final CSVProcessContext context = outcome.getCSVProcessContext();
+        if( context.isError() )
+            throw new CSVProcessException( context.getError() );
+        
+        return outcome.getModel();
+        
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CSVProcessOutcome<M> read() throws IOException, CSVToModelBindingException
+    {
+        
+        final CSVProcessOutcome<M> outcome;
+        try{
+            
+            outcome = reader.read();
+            
+        }catch( IOException | RuntimeException ex )
+        {
+            if( writer != null )
+            {
+                writer.abandon();
+                writer = null;
+            }
+            throw ex;
+        }
+        
+        if( writer == null )
+            return outcome;
+        
+        try{
+            
+            if( reader.isEndOfData() )
+            {
+                writer.finish();
+                writer = null;
+            }
+            
+            /* Records with errors are not stored so the source can't be cached. */
+            else if( outcome.getCSVProcessContext().isError()
+                     || ! writer.append(binder.values, binder.filled) )
+            {
+                writer.markUncacheable();
+                writer = null;
+            }
+            
+        }catch( IOException ex )
+        {
+            abandon( ex );
+        }
+        
+        return outcome;
+        
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The records read into a batch are not recorded
+     * so the sidecar being written is discarded.
+     */
+    @Override
+    public int readBatch( final CSVColumnBatch batch ) throws IOException, CSVToModelBindingException
+    {
+        
+        if( writer != null )
+        {
+            logger.debug( "Reading by batch, the sidecar will not be written" );
+            writer.abandon();
+            writer = null;
+        }
+        
+        return reader.readBatch( batch );
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The records read into a batch are not recorded
+     * so the sidecar being written is discarded.
+     */
+    @Override
+    public int readBatch( final CSVRecordBatch<M> batch ) throws IOException, CSVToModelBindingException
+    {
+        
+        if( writer != null )
+        {
+            logger.debug( "Reading by batch, the sidecar will not be written" );
+            writer.abandon();
+            writer = null;
+        }
+        
+        return reader.readBatch( batch );
+        
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<CSVProcessOutcome<M>> iterator() throws CSVSingleUseViolationException
+    {
+        
+        if( alreadyInvoked.getAndSet(true) )
+            throw new CSVSingleUseViolationException();
+        
+        return new CSVReaderIterator<>( this );
+        
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException
+    {
+        
+        try{
+            
+            /* If the source has not been completely read the sidecar is discarded. */
+            if( writer != null )
+            {
+                writer.abandon();
+                writer = null;
+            }
+            
+        }finally
+        {
+            reader.close();
+        }
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Discards the sidecar after a failure.
+     * 
+     * @param cause the cause of the failure.
+     */
+    private void abandon( final IOException cause )
+    {
+        
+        logger.warn( "Unable to write the sidecar, reading without cache", cause );
+        
+        writer.abandon();
+        writer = null;
+        
+    }
+    
+    
+    /* *************** */
+    /*  INNER CLASSES  */
+    /* *************** */
+    
+    
+    /**
+     * Implementation of the {@link CSVToModelBinder} interface
+     * that captures the values bound to the model.
+     * 
+     * @param <M> type of the data model.
+     * 
+     * @author Nerd4j Team
+     */
+    static final class RecordingBinder<M> implements CSVToModelBinder<M>
+    {
+        
+        /** The binder to delegate to. */
+        private final CSVToModelBinder<M> delegate;
+        
+        /** The indexes of the source columns recorded. */
+        private final int[] sources;
+        
+        /** The recorded column for each source column, -1 if not recorded. */
+        private final int[] slots;
+        
+        /** The values of the current record. */
+        private final Object[] values;
+        
+        /** Tells which values of the current record have been set. */
+        private final boolean[] filled;
+        
+        
+        /**
+         * Constructor with parameters.
+         * 
+         * @param delegate the binder to delegate to.
+         * @param fields   the fields of the CSV source.
+         */
+        RecordingBinder( final CSVToModelBinder<M> delegate, final CSVField<String,?>[] fields )
+        {
+            
+            super();
+            
+            this.delegate = delegate;
+            
+            int count = 0;
+            this.slots = new int[fields.length];
+            for( int i = 0; i < fields.length; ++i )
+                slots[i] = fields[i] != null ? count++ : -1;
+            
+            this.sources = new int[count];
+            for( int i = 0; i < fields.length; ++i )
+                if( slots[i] >= 0 )
+                    sources[slots[i]] = i;
+            
+            this.values = new Object[count];
+            this.filled = new boolean[count];
+            
+        }
+        
+        
+        /* ******************* */
+        /*  INTERFACE METHODS  */
+        /* ******************* */
+        
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void initModel() throws CSVToModelBindingException
+        {
+            
+            Arrays.fill( values, null );
+            Arrays.fill( filled, false );
+            
+            delegate.initModel();
+            
+        }
+        
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void fill( final int column, final Object value ) throws CSVToModelBindingException
+        {
+            
+            delegate.fill( column, value );
+            
+            final int slot = slots[column];
+            if( slot >= 0 )
+            {
+                values[slot] = value;
+                filled[slot] = true;
+            }
+            
+        }
+        
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public M getModel()
+        {
+            
+            return delegate.getModel();
+            
+        }
+        
+        
+        /* ***************** */
+        /*  PACKAGE METHODS  */
+        /* ***************** */
+        
+        
+        /**
+         * Returns the indexes of the source columns recorded.
+         * 
+         * @return the indexes of the source columns recorded.
+         */
+        int[] getSources()
+        {
+            
+            return sources;
+            
+        }
+        
+    }
+    
+}
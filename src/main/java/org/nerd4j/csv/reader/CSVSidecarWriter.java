@@ -0,0 +1,548 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Writes the values read from a CSV source into a sidecar file
+ * of the {@link CSVSidecarCache}.
+ * 
+ * <p>
+ * The sidecar is written into a temporary file that replaces
+ * the sidecar only when the whole source has been read.
+ * 
+ * @author Nerd4j Team
+ */
+final class CSVSidecarWriter
+{
+    
+    /** Internal logging system. */
+    private static final Logger logger = LoggerFactory.getLogger( CSVSidecarWriter.class );
+    
+    /** Tag of a value not set in the record. */
+    static final byte ABSENT = 0;
+    
+    /** Tag of a {@code null} value. */
+    static final byte NULL = 1;
+    
+    /** Tag of a {@link String} value. */
+    static final byte STRING = 2;
+    
+    /** Tag of a {@link Long} value. */
+    static final byte LONG = 3;
+    
+    /** Tag of an {@link Integer} value. */
+    static final byte INT = 4;
+    
+    /** Tag of a {@link Short} value. */
+    static final byte SHORT = 5;
+    
+    /** Tag of a {@link Byte} value. */
+    static final byte BYTE = 6;
+    
+    /** Tag of a {@link Double} value. */
+    static final byte DOUBLE = 7;
+    
+    /** Tag of a {@link Float} value. */
+    static final byte FLOAT = 8;
+    
+    /** Tag of the {@link Boolean#TRUE} value. */
+    static final byte TRUE = 9;
+    
+    /** Tag of the {@link Boolean#FALSE} value. */
+    static final byte FALSE = 10;
+    
+    /** Tag of a {@link Character} value. */
+    static final byte CHAR = 11;
+    
+    /** Tag of a {@link Date} value. */
+    static final byte DATE = 12;
+    
+    /** Tag of a {@link BigDecimal} value. */
+    static final byte BIG_DECIMAL = 13;
+    
+    /** Tag of a {@link BigInteger} value. */
+    static final byte BIG_INTEGER = 14;
+    
+    /** Tag of an {@link Enum} value. */
+    static final byte ENUM = 15;
+    
+    /** The sidecar file to write. */
+    private final File sidecar;
+    
+    /** The temporary file where to write. */
+    private final File temp;
+    
+    /** The key of the source. */
+    private final long[] key;
+    
+    /** The stream writing the temporary file. */
+    private DataOutputStream out;
+    
+    /** The current position in the temporary file. */
+    private long position;
+    
+    /** The values of the current page for each column. */
+    private ByteArrayOutputStream[] columnBuffers;
+    
+    /** The streams writing the column buffers. */
+    private DataOutputStream[] columns;
+    
+    /** The number of records in the current page. */
+    private int pageRows;
+    
+    /** The total number of records. */
+    private long records;
+    
+    /** The offsets of the pages. */
+    private final List<Long> pageOffsets;
+    
+    /** The lengths of the pages. */
+    private final List<Integer> pageLengths;
+    
+    /** The enumeration classes used by the values. */
+    private final List<Class<?>> classes;
+    
+    /** The indexes of the enumeration classes. */
+    private final Map<Class<?>,Integer> classIndexes;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param sidecar the sidecar file to write.
+     * @param key     the key of the source.
+     * @throws IOException if fails to create the temporary file.
+     */
+    CSVSidecarWriter( final File sidecar, final long[] key ) throws IOException
+    {
+        
+        super();
+        
+        this.key = key;
+        this.sidecar = sidecar;
+        
+        final File parent = sidecar.getAbsoluteFile().getParentFile();
+        this.temp = File.createTempFile( sidecar.getName(), ".tmp", parent );
+        
+        this.pageOffsets = new ArrayList<Long>();
+        this.pageLengths = new ArrayList<Integer>();
+        this.classes = new ArrayList<Class<?>>();
+        this.classIndexes = new HashMap<Class<?>,Integer>();
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PACKAGE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Writes the beginning of the sidecar.
+     * 
+     * @param header  the CSV header if any.
+     * @param sources the indexes of the source columns recorded.
+     * @throws IOException if fails to write.
+     */
+    void begin( final String[] header, final int[] sources ) throws IOException
+    {
+        
+        out = new DataOutputStream( new BufferedOutputStream(new FileOutputStream(temp), 64 * 1024) );
+        writeHead( out, key, true );
+        
+        out.writeInt( header != null ? header.length : -1 );
+        if( header != null )
+            for( String name : header )
+            {
+                out.writeBoolean( name != null );
+                if( name != null )
+                    out.writeUTF( name );
+            }
+        
+        out.writeInt( sources.length );
+        for( int source : sources )
+            out.writeInt( source );
+        
+        position = out.size();
+        
+        columnBuffers = new ByteArrayOutputStream[sources.length];
+        columns = new DataOutputStream[sources.length];
+        for( int i = 0; i < columns.length; ++i )
+        {
+            columnBuffers[i] = new ByteArrayOutputStream( 8 * CSVSidecarCache.PAGE_ROWS );
+            columns[i] = new DataOutputStream( columnBuffers[i] );
+        }
+        
+    }
+    
+    /**
+     * Appends a record to the sidecar.
+     * 
+     * @param values the values of the record for each recorded column.
+     * @param filled tells which values have been set.
+     * @return {@code false} if a value has a type that can't be stored.
+     * @throws IOException if fails to write.
+     */
+    boolean append( final Object[] values, final boolean[] filled ) throws IOException
+    {
+        
+        for( int i = 0; i < columns.length; ++i )
+            if( ! write(columns[i], filled[i], values[i]) )
+                return false;
+        
+        ++records;
+        if( ++pageRows == CSVSidecarCache.PAGE_ROWS )
+            writePage();
+        
+        return true;
+        
+    }
+    
+    /**
+     * Completes the sidecar and moves it in place.
+     * 
+     * @throws IOException if fails to write.
+     */
+    void finish() throws IOException
+    {
+        
+        if( pageRows > 0 )
+            writePage();
+        
+        final long trailer = position;
+        
+        out.writeInt( classes.size() );
+        for( Class<?> type : classes )
+            out.writeUTF( type.getName() );
+        
+        out.writeInt( pageOffsets.size() );
+        for( int i = 0; i < pageOffsets.size(); ++i )
+        {
+            out.writeLong( pageOffsets.get(i) );
+            out.writeInt( pageLengths.get(i) );
+        }
+        
+        out.writeLong( records );
+        out.writeLong( trailer );
+        close();
+        
+        move();
+        logger.debug( "Written sidecar {} with {} records", sidecar, records );
+        
+    }
+    
+    /**
+     * Replaces the sidecar with a marker telling
+     * that the source can't be cached.
+     * 
+     * @throws IOException if fails to write.
+     */
+    void markUncacheable() throws IOException
+    {
+        
+        close();
+        
+        try( DataOutputStream marker = new DataOutputStream(new FileOutputStream(temp)) )
+        {
+            writeHead( marker, key, false );
+        }
+        
+        move();
+        logger.debug( "Marked sidecar {} as not cacheable", sidecar );
+        
+    }
+    
+    /**
+     * Discards the sidecar being written.
+     * 
+     */
+    void abandon()
+    {
+        
+        try{
+            
+            close();
+            
+        }catch( IOException ex )
+        {
+            logger.debug( "Unable to close the sidecar " + temp, ex );
+        }
+        
+        if( temp.exists() && ! temp.delete() )
+            logger.warn( "Unable to delete the temporary sidecar {}", temp );
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Writes the beginning of a sidecar file.
+     * 
+     * @param out      the output to write.
+     * @param key      the key of the source.
+     * @param complete tells if the sidecar contains the source data.
+     * @throws IOException if fails to write.
+     */
+    private static void writeHead( final DataOutputStream out, final long[] key, final boolean complete )
+    throws IOException
+    {
+        
+        out.writeLong( CSVSidecarCache.MAGIC );
+        out.writeInt( CSVSidecarCache.VERSION );
+        CSVSidecarCache.writeKey( out, key );
+        out.writeBoolean( complete );
+        
+    }
+    
+    /**
+     * Writes a value into the given column.
+     * 
+     * @param column the column to write.
+     * @param filled tells if the value has been set.
+     * @param value  the value to write.
+     * @return {@code false} if the value has a type that can't be stored.
+     * @throws IOException if fails to write.
+     */
+    private boolean write( final DataOutputStream column, final boolean filled, final Object value )
+    throws IOException
+    {
+        
+        if( ! filled )
+            column.writeByte( ABSENT );
+        
+        else if( value == null )
+            column.writeByte( NULL );
+        
+        else if( value instanceof String )
+        {
+            column.writeByte( STRING );
+            writeString( column, (String) value );
+        }
+        
+        else if( value instanceof Long )
+        {
+            column.writeByte( LONG );
+            column.writeLong( (Long) value );
+        }
+        
+        else if( value instanceof Integer )
+        {
+            column.writeByte( INT );
+            column.writeInt( (Integer) value );
+        }
+        
+        else if( value instanceof Short )
+        {
+            column.writeByte( SHORT );
+            column.writeShort( (Short) value );
+        }
+        
+        else if( value instanceof Byte )
+        {
+            column.writeByte( BYTE );
+            column.writeByte( (Byte) value );
+        }
+        
+        else if( value instanceof Double )
+        {
+            column.writeByte( DOUBLE );
+            column.writeDouble( (Double) value );
+        }
+        
+        else if( value instanceof Float )
+        {
+            column.writeByte( FLOAT );
+            column.writeFloat( (Float) value );
+        }
+        
+        else if( value instanceof Boolean )
+            column.writeByte( (Boolean) value ? TRUE : FALSE );
+        
+        else if( value instanceof Character )
+        {
+            column.writeByte( CHAR );
+            column.writeChar( (Character) value );
+        }
+        
+        /* Subclasses of Date, like java.sql.Date, can't be restored. */
+        else if( value.getClass() == Date.class )
+        {
+            column.writeByte( DATE );
+            column.writeLong( ((Date) value).getTime() );
+        }
+        
+        else if( value.getClass() == BigDecimal.class )
+        {
+            column.writeByte( BIG_DECIMAL );
+            writeString( column, value.toString() );
+        }
+        
+        else if( value.getClass() == BigInteger.class )
+        {
+            column.writeByte( BIG_INTEGER );
+            writeString( column, value.toString() );
+        }
+        
+        else if( value instanceof Enum )
+        {
+            final Enum<?> constant = (Enum<?>) value;
+            column.writeByte( ENUM );
+            column.writeShort( getClassIndex(constant.getDeclaringClass()) );
+            writeString( column, constant.name() );
+        }
+        
+        else
+        {
+            logger.debug( "Values of type {} can't be stored into the sidecar", value.getClass() );
+            return false;
+        }
+        
+        return true;
+        
+    }
+    
+    /**
+     * Writes a string as its length followed by its UTF-8 bytes.
+     * 
+     * @param column the column to write.
+     * @param value  the string to write.
+     * @throws IOException if fails to write.
+     */
+    private static void writeString( final DataOutputStream column, final String value ) throws IOException
+    {
+        
+        final byte[] bytes = value.getBytes( StandardCharsets.UTF_8 );
+        column.writeInt( bytes.length );
+        column.write( bytes );
+        
+    }
+    
+    /**
+     * Returns the index of the given class in the class table.
+     * 
+     * @param type the class to find.
+     * @return the index of the class.
+     */
+    private int getClassIndex( final Class<?> type )
+    {
+        
+        Integer index = classIndexes.get( type );
+        if( index == null )
+        {
+            index = classes.size();
+            classes.add( type );
+            classIndexes.put( type, index );
+        }
+        
+        return index;
+        
+    }
+    
+    /**
+     * Writes the current page into the sidecar.
+     * 
+     * @throws IOException if fails to write.
+     */
+    private void writePage() throws IOException
+    {
+        
+        int length = 4;
+        out.writeInt( pageRows );
+        
+        for( ByteArrayOutputStream buffer : columnBuffers )
+        {
+            out.writeInt( buffer.size() );
+            buffer.writeTo( out );
+            length += 4 + buffer.size();
+            buffer.reset();
+        }
+        
+        pageOffsets.add( position );
+        pageLengths.add( length );
+        
+        position += length;
+        pageRows = 0;
+        
+    }
+    
+    /**
+     * Closes the temporary file if open.
+     * 
+     * @throws IOException if fails to close.
+     */
+    private void close() throws IOException
+    {
+        
+        if( out != null )
+        {
+            out.close();
+            out = null;
+        }
+        
+    }
+    
+    /**
+     * Moves the temporary file in place of the sidecar.
+     * 
+     * @throws IOException if fails to move.
+     */
+    private void move() throws IOException
+    {
+        
+        try{
+            
+            Files.move( temp.toPath(), sidecar.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+            
+        }catch( AtomicMoveNotSupportedException ex )
+        {
+            Files.move( temp.toPath(), sidecar.toPath(), StandardCopyOption.REPLACE_EXISTING );
+        }
+        
+    }
+    
+}
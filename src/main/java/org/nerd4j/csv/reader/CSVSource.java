@@ -0,0 +1,511 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.nerd4j.csv.exception.CSVConfigurationException;
+import org.nerd4j.csv.exception.MalformedCSVException;
+import org.nerd4j.csv.field.CSVField;
+import org.nerd4j.csv.field.CSVFieldMetadata;
+import org.nerd4j.csv.field.CSVMappingDescriptor;
+import org.nerd4j.csv.parser.CSVParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Represents a CSV source opened with respect to a {@link CSVReaderMetadata}.
+ *
+ * <p>
+ * Opening a source means creating the {@link CSVParser}, reading
+ * the header if requested and matching the source columns with
+ * the configured ones. The result is the parser positioned at the
+ * first data record, the header, the column mapping and the
+ * {@link CSVField}s needed to elaborate each source column.
+ *
+ * <p>
+ * This is the same work the {@link CSVReaderFactoryImpl} does before
+ * creating a {@link CSVReader}, it is exposed to let the components
+ * that work directly on the parsed fields (without binding each record
+ * to a data model) share the same column matching rules.
+ *
+ * @author Nerd4j Team
+ */
+public final class CSVSource implements Closeable
+{
+
+    /** Internal logging system. */
+    private static final Logger logger = LoggerFactory.getLogger( CSVSource.class );
+
+    /** The meta-data used to open the source. */
+    private final CSVReaderMetadata<?> metadata;
+
+    /** Object able to parse the CSV source. */
+    private final CSVParser parser;
+
+    /** Represents the CSV header, can be {@code null} if the CSV has no header. */
+    private final String[] header;
+
+    /** Associates each source column with the corresponding index in the configuration. */
+    private final Integer[] columnMapping;
+
+    /** Contains the fields used to elaborate each source column. */
+    private final CSVField<String,?>[] fields;
+
+
+    /**
+     * Constructor with parameters.
+     *
+     * @param metadata      the meta-data used to open the source.
+     * @param parser        the CSV source parser.
+     * @param header        the CSV source header if any.
+     * @param columnMapping the column mapping.
+     * @param fields        the fields needed to elaborate the source columns.
+     */
+    private CSVSource( final CSVReaderMetadata<?> metadata, final CSVParser parser,
+                       final String[] header, final Integer[] columnMapping,
+                       final CSVField<String,?>[] fields )
+    {
+
+        super();
+
+        this.metadata = metadata;
+        this.parser = parser;
+        this.header = header;
+        this.columnMapping = columnMapping;
+        this.fields = fields;
+
+    }
+
+
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+
+
+    /**
+     * Opens the given CSV source with respect to the given meta-data.
+     *
+     * @param reader   the CSV source to open.
+     * @param metadata the meta-data that describes how to read the source.
+     * @return the opened CSV source.
+     * @throws IOException if an error occurs reading the CSV source header.
+     */
+    public static CSVSource open( final Reader reader, final CSVReaderMetadata<?> metadata )
+    throws IOException
+    {
+
+        if( reader == null )
+            throw new NullPointerException( "The CSV source is mandatory and can't be null." );
+
+        if( metadata == null )
+            throw new NullPointerException( "The CSV reader meta-data is mandatory and can't be null." );
+
+        /* We create the parser able to parse the given CSV source. */
+        return open( metadata.getParserFactory().create(reader), metadata );
+
+    }
+
+
+    /**
+     * Prepares the given CSV parser to be read according to the
+     * given meta-data reading the header if requested.
+     *
+     * @param csvParser the CSV parser to read.
+     * @param metadata  the meta-data model to read configuration from.
+     * @return the opened CSV source.
+     * @throws IOException if an error occurs reading the CSV source header.
+     */
+    static CSVSource open( final CSVParser csvParser, final CSVReaderMetadata<?> metadata )
+    throws IOException
+    {
+
+        /* As second step we read the CSV source header if requested. */
+        final String[] csvHeader = readHeaderIfNeeded( csvParser, metadata );
+
+        return open( csvParser, csvHeader, metadata );
+
+    }
+
+
+    /**
+     * Prepares the given CSV parser to be read according to the
+     * given meta-data using the given header instead of reading
+     * it from the source.
+     *
+     * @param csvParser the CSV parser positioned after the header, if any.
+     * @param csvHeader the CSV source header, can be {@code null}.
+     * @param metadata  the meta-data model to read configuration from.
+     * @return the opened CSV source.
+     */
+    static CSVSource open( final CSVParser csvParser, final String[] csvHeader, final CSVReaderMetadata<?> metadata )
+    {
+
+        /* We create the column mapping needed to elaborate the CSV source fields. */
+        final Integer[] columnMapping = buildColumnMapping( csvHeader, metadata );
+
+        /* We create the fields needed to elaborate the CSV source columns. */
+        final CSVField<String,?>[] fields = buildFields( columnMapping, metadata );
+
+        return new CSVSource( metadata, csvParser, csvHeader, columnMapping, fields );
+
+    }
+
+
+    /**
+     * Returns the index of the source column configured with
+     * the given column identifier or {@code -1} if the given
+     * column is not configured or not present in the source.
+     *
+     * @param columnId the configured column identifier.
+     * @return the index of the related source column if any, {@code -1} otherwise.
+     */
+    public int getColumnIndex( final String columnId )
+    {
+
+        if( columnId == null )
+            return -1;
+
+        final CSVFieldMetadata<String,?>[] fieldConfs = metadata.getFieldConfigurations();
+        for( int i = 0; i < columnMapping.length; ++i )
+            if( columnMapping[i] != null
+                && columnId.equals(fieldConfs[columnMapping[i]].getMappingDescriptor().getColumnId()) )
+                return i;
+
+        return -1;
+
+    }
+
+
+    /**
+     * Returns the meta-data describing the configured column
+     * related to the given source column index, if any.
+     *
+     * @param index the source column index.
+     * @return the related field meta-data if any, {@code null} otherwise.
+     */
+    public CSVFieldMetadata<String,?> getFieldMetadata( final int index )
+    {
+
+        if( index < 0 || index >= columnMapping.length || columnMapping[index] == null )
+            return null;
+
+        return metadata.getFieldConfigurations()[columnMapping[index]];
+
+    }
+
+
+    /**
+     * Returns the mapping descriptor of the configured column
+     * related to each source column.
+     *
+     * @return the mapping descriptors, {@code null} for the columns not configured.
+     */
+    public CSVMappingDescriptor[] getMappingDescriptors()
+    {
+
+        return buildMappingDescriptors( columnMapping, metadata );
+
+    }
+
+
+    /**
+     * Closes the underlying CSV parser.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException
+    {
+
+        parser.close();
+
+    }
+
+
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+
+
+    /**
+     * If the flag "readHeader" in the configuration is {@code true}
+     * reads the first row and returns an array of {@link String}s
+     * representing the CSV source header.
+     *
+     * @param csvParser the CSV source parser.
+     * @param metadata  the meta-data model to read configuration from.
+     * @return the CSV source header or {@code null}.
+     * @throws IOException if the CSV parser fails to read the source.
+     */
+    private static String[] readHeaderIfNeeded( CSVParser csvParser, CSVReaderMetadata<?> metadata )
+    throws IOException
+    {
+
+        if( metadata.isReadHeader() )
+        {
+            final CSVHeaderReader csvHeaderReader = new CSVHeaderReader( csvParser );
+            final String[] header = csvHeaderReader.readHeader();
+
+            if( header == null || header.length < 1 )
+            {
+                logger.error( "Inconsistent CSV format, header expected but not present." );
+                throw new MalformedCSVException( "The CSV source was expected to have an header but was empty." );
+            }
+
+            return header;
+        }
+
+        return null;
+
+    }
+
+
+    /**
+     * Builds the mapping descriptors related to each source column.
+     *
+     * @param columnMapping the mapping between the CSV source and the configuration.
+     * @param metadata  the meta-data model to read configuration from.
+     * @return the mapping descriptors, {@code null} for the columns not configured.
+     */
+    static CSVMappingDescriptor[] buildMappingDescriptors( Integer[] columnMapping, CSVReaderMetadata<?> metadata )
+    {
+
+        final CSVMappingDescriptor[] descriptors = new CSVMappingDescriptor[ columnMapping.length ];
+        final CSVFieldMetadata<String,?>[] fieldConfs = metadata.getFieldConfigurations();
+        for( int i = 0; i < descriptors.length; ++i )
+            if( columnMapping[i] != null )
+                descriptors[i] = fieldConfs[columnMapping[i]].getMappingDescriptor();
+
+        return descriptors;
+
+    }
+
+
+    /**
+     * Builds the fields needed to elaborate the CSV source fields.
+     *
+     * @param columnMapping the mapping between the CSV source and the configuration.
+     * @param metadata  the meta-data model to read configuration from.
+     * @return the fields needed to elaborate the CSV source fields.
+     */
+    @SuppressWarnings("unchecked")
+    private static CSVField<String,?>[] buildFields( Integer[] columnMapping, CSVReaderMetadata<?> metadata )
+    {
+
+        logger.debug( "Going to get field processors from the configuration." );
+
+        if( columnMapping.length < 1 )
+            /* The array of fields has always at least one element. */
+            return new CSVField[1];
+
+        final CSVField<String,?>[] fields = new CSVField[ columnMapping.length ];
+        final CSVFieldMetadata<String,?>[] fieldConfs = metadata.getFieldConfigurations();
+        for( int i = 0; i < fields.length; ++i )
+            if( columnMapping[i] != null )
+                fields[i] = fieldConfs[columnMapping[i]].getField();
+
+        return fields;
+
+    }
+
+
+    /**
+     * Returns an array that associates each column of the source
+     * CSV with the corresponding index in the configuration.
+     * <p>
+     * This process is performed by reading the CSV source header.
+     * If the header is {@code null} all the information
+     * will be taken from the configuration.
+     * <p>
+     *  If the configuration is smaller than the source CSV some
+     *  entries in the array may be {@code null}.
+     * <p>
+     *  If the configuration is greater than the source CSV the
+     *  inconsistent configurations will be ignored.
+     *
+     * @param header the CSV source header if any.
+     * @param metadata  the meta-data model to read configuration from.
+     * @return the column index re-mapping.
+     */
+    static Integer[] buildColumnMapping( String[] header, CSVReaderMetadata<?> metadata )
+    {
+
+        logger.debug( "Going to get the column mapping by parsing the configuration." );
+
+        final CSVFieldMetadata<String,?>[] fieldConfs = metadata.getFieldConfigurations();
+        if( fieldConfs == null || fieldConfs.length < 1 )
+            return new Integer[0];
+
+        /* We check the consistency of the configuration and the source CSV. */
+        final boolean useColumnNames = metadata.isUseColumnNames();
+        if( useColumnNames && header == null )
+        {
+
+            if( metadata.isReadHeader() )
+                logger.error( "The flag 'useColumnNames' is true but there is no header to match. Check the CSV source to be not empty" );
+            else
+                logger.error( "The configuration 'useColumnNames=true' and 'readHeader=false' are inconsistent. It is not possible to use column names without any matching header." );
+
+            throw new CSVConfigurationException( "Unable to use column names without any matching header" );
+
+        }
+
+        if( metadata.isUseColumnNames() )
+        {
+            /*
+             * If the flag 'readHeader' in the configuration is true
+             * we expect the CSV source to have an header and we need
+             * to match the information in the configuration with the
+             * one in the header.
+             */
+            return buildColumnMappingUsingColumnNames( fieldConfs, header );
+        }
+        else
+        {
+            /*
+             * If the flag 'readHeader' in the configuration is false
+             * we the only available information is the one in the
+             * configuration so we use it to build the processors.
+             */
+            return buildColumnMappingUsingIndexes( fieldConfs );
+        }
+
+    }
+
+
+    /**
+     * Builds the column mapping needed to elaborate the CSV source
+     * using the column indexes to identify the fields.
+     *
+     * @param fieldConfs array of field configurations.
+     * @return the column mapping needed to elaborate the CSV source fields.
+     */
+    private static Integer[] buildColumnMappingUsingIndexes( final CSVFieldMetadata<String,?>[] fieldConfs )
+    {
+
+        int[] indexes = new int[fieldConfs.length];
+        for( int i = 0; i < fieldConfs.length; ++i )
+        {
+            try{
+
+                indexes[i] = Integer.parseInt( fieldConfs[i].getMappingDescriptor().getColumnId() );
+
+            }catch( Exception ex )
+            {
+                logger.error( "Unable to get column index", ex );
+                throw new CSVConfigurationException( fieldConfs[i].getMappingDescriptor().getColumnId() + " is not a valid column index", ex );
+            }
+        }
+
+        int maxIndex = -1;
+        for( int i = 0; i < indexes.length; ++i )
+            if( indexes[i] > maxIndex )
+                maxIndex = indexes[i];
+
+        final Integer[] columnMapping = new Integer[maxIndex + 1];
+
+        int columnIndex;
+        for( int i = 0; i < fieldConfs.length; ++i )
+        {
+            columnIndex = indexes[i];
+
+            if( columnMapping[columnIndex] != null )
+                throw new CSVConfigurationException( "Multiple configuration for the same column " + columnIndex );
+
+            columnMapping[columnIndex] = i;
+        }
+
+        return columnMapping;
+
+    }
+
+    /**
+     * Builds the column  mapping needed to elaborate the CSV source
+     * using the column names to identify the fields.
+     *
+     * @param fieldConfs array of field configurations.
+     * @param header     the CSV source header.
+     * @return the column mapping needed to elaborate the CSV source fields.
+     */
+    private static Integer[] buildColumnMappingUsingColumnNames( final CSVFieldMetadata<String,?>[] fieldConfs, final String[] header )
+    {
+
+        /* We create a map that allows to find the processor by column name. */
+        String columnId = null;
+        final Map<String,Integer> namedColumnMap = new HashMap<String,Integer>();
+        for( int i = 0; i < fieldConfs.length; ++i )
+        {
+            columnId = fieldConfs[i].getMappingDescriptor().getColumnId();
+            if( namedColumnMap.containsKey(columnId) )
+                throw new CSVConfigurationException( "Multiple configuration for the same column identifier: " + columnId );
+
+            namedColumnMap.put( columnId, i );
+        }
+
+        final Integer[] columnMapping = new Integer[header.length];
+
+        /* We fill the processors by name. */
+        for( int i = 0; i < columnMapping.length; ++i )
+            columnMapping[i] = namedColumnMap.get( header[i] );
+
+        return columnMapping;
+
+    }
+
+
+    /* ******************* */
+    /*  GETTERS & SETTERS  */
+    /* ******************* */
+
+
+    public CSVReaderMetadata<?> getMetadata()
+    {
+        return metadata;
+    }
+
+    public CSVParser getParser()
+    {
+        return parser;
+    }
+
+    public String[] getHeader()
+    {
+        return header;
+    }
+
+    public Integer[] getColumnMapping()
+    {
+        return columnMapping;
+    }
+
+    public CSVField<String,?>[] getFields()
+    {
+        return fields;
+    }
+
+}
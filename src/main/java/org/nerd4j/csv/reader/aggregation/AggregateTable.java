@@ -0,0 +1,651 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.aggregation;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+
+/**
+ * Open addressing hash table that keeps the partial aggregates
+ * for each group of a {@link CSVAggregation}.
+ * 
+ * <p>
+ * The accumulators are stored in parallel primitive arrays indexed by
+ * slot, so updating a group doesn't allocate any object. The aggregates
+ * of integral columns are accumulated as {@code long} values so they
+ * don't lose precision, the others are accumulated as {@code double}
+ * values stored using their raw bits. The extension
+ * classes define the type of the keys and how they are hashed, compared
+ * and stored on disk. The group related to the {@code null} key is kept
+ * in an extra slot after the hash table.
+ * 
+ * <p>
+ * This class is intended for internal use only.
+ * 
+ * @author Nerd4j Team
+ */
+abstract class AggregateTable
+{
+    
+    /*
+     * Aggregate function codes.
+     * Switching on constants is faster than
+     * switching on the related enum.
+     */
+    static final int COUNT = 0;
+    static final int SUM   = 1;
+    static final int MIN   = 2;
+    static final int MAX   = 3;
+    static final int AVG   = 4;
+    
+    /** Tag used on disk for the {@code null} key. */
+    static final byte NULL_KEY = 0;
+    
+    /** Tag used on disk for non {@code null} keys. */
+    static final byte NOT_NULL_KEY = 1;
+    
+    /** The initial capacity of the table. */
+    private static final int INITIAL_CAPACITY = 64;
+
+    
+    /** The code of the function to apply for each aggregate. */
+    protected final int[] functions;
+    
+    /** Tells for each aggregate if it is computed on integral values. */
+    protected final boolean[] integral;
+    
+    /** Tells for each aggregate if the final result is integral. */
+    private final boolean[] integralResult;
+    
+    /** The number of aggregates for each group. */
+    protected final int width;
+    
+    /** The number of slots in the hash table, always a power of 2. */
+    protected int capacity;
+    
+    /** Mask used to get a slot from an hash. */
+    protected int mask;
+    
+    /** The number of groups in the table. */
+    protected int size;
+    
+    /** Number of groups causing the table to grow. */
+    private int threshold;
+    
+    /** Number of records for each slot, {@code 0} means the slot is free. */
+    protected long[] records;
+    
+    /** Accumulated value for each slot and aggregate, the {@code double} values are stored as raw bits. */
+    protected long[] values;
+    
+    /** Number of accumulated values for each slot and aggregate. */
+    protected long[] counts;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param functions the code of the function to apply for each aggregate.
+     * @param integral  tells for each aggregate if it is computed on integral values.
+     */
+    protected AggregateTable( final int[] functions, final boolean[] integral )
+    {
+        
+        super();
+        
+        this.functions = functions;
+        this.integral = integral;
+        this.width = functions.length;
+        
+        this.integralResult = new boolean[width];
+        for( int i = 0; i < width; ++i )
+            integralResult[i] = functions[i] == COUNT || integral[i] && functions[i] != AVG;
+        
+        allocate( INITIAL_CAPACITY );
+        
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * Creates a new table able to handle keys of the given kind.
+     * 
+     * @param integralKey tells if the keys are integral numbers.
+     * @param functions   the code of the function to apply for each aggregate.
+     * @param integral    tells for each aggregate if it is computed on integral values.
+     * @return a new empty table.
+     */
+    static AggregateTable create( final boolean integralKey, final int[] functions, final boolean[] integral )
+    {
+        
+        return integralKey
+             ? new LongKeyAggregateTable( functions, integral )
+             : new StringKeyAggregateTable( functions, integral );
+        
+    }
+    
+    
+    /**
+     * Returns the number of groups in the table.
+     * 
+     * @return number of groups in the table.
+     */
+    int size()
+    {
+        
+        return size;
+        
+    }
+    
+    
+    /**
+     * Returns the slot related to the given key,
+     * if the key is new a new group is created.
+     * 
+     * @param key the group key, can be {@code null}.
+     * @return the slot related to the key.
+     */
+    abstract int slotFor( Object key );
+    
+    
+    /**
+     * Adds a record to the group in the given slot.
+     * 
+     * @param slot the slot of the group.
+     */
+    void addRecord( final int slot )
+    {
+        
+        ++records[slot];
+        
+    }
+    
+    
+    /**
+     * Accumulates the given value in the given integral
+     * aggregate of the group in the given slot.
+     * 
+     * @param slot      the slot of the group.
+     * @param aggregate the index of the aggregate.
+     * @param value     the value to accumulate.
+     * @throws ArithmeticException if the sum overflows a {@code long}.
+     */
+    void accumulate( final int slot, final int aggregate, final long value )
+    {
+        
+        final int index = slot * width + aggregate;
+        values[index] = counts[index]++ == 0 ? value : combine( aggregate, values[index], value );
+        
+    }
+    
+    
+    /**
+     * Accumulates the given value in the given non integral
+     * aggregate of the group in the given slot.
+     * 
+     * @param slot      the slot of the group.
+     * @param aggregate the index of the aggregate.
+     * @param value     the value to accumulate.
+     */
+    void accumulate( final int slot, final int aggregate, final double value )
+    {
+        
+        accumulate( slot, aggregate, Double.doubleToRawLongBits(value) );
+        
+    }
+    
+    
+    /**
+     * Merges the groups of the given table into this one.
+     * 
+     * @param other the table to merge, must be of the same type.
+     */
+    void merge( final AggregateTable other )
+    {
+        
+        final int end = other.capacity;
+        for( int otherSlot = 0; otherSlot <= end; ++otherSlot )
+            if( other.records[otherSlot] > 0 )
+            {
+                final int slot = slotFor( other.keyAt(otherSlot) );
+                merge( slot, other.records[otherSlot], other.values, other.counts, otherSlot * other.width );
+            }
+        
+    }
+    
+    
+    /**
+     * Writes the groups in the table to the given outputs partitioning
+     * them by key. The same key is always written to the same partition.
+     * 
+     * @param partitions the outputs related to each partition.
+     * @throws IOException if an error occurs writing the groups.
+     */
+    void spill( final DataOutputStream[] partitions ) throws IOException
+    {
+        
+        DataOutputStream out;
+        for( int slot = 0; slot <= capacity; ++slot )
+        {
+            
+            if( records[slot] == 0 ) continue;
+            
+            out = partitions[ partitionOf(slot, partitions.length) ];
+            writeKey( slot, out );
+            out.writeLong( records[slot] );
+            
+            final int offset = slot * width;
+            for( int i = 0; i < width; ++i )
+            {
+                out.writeLong( values[offset + i] );
+                out.writeLong( counts[offset + i] );
+            }
+            
+        }
+        
+    }
+    
+    
+    /**
+     * Reads the groups written by {@link #spill(DataOutputStream[])}
+     * and merges them into this table.
+     * 
+     * @param in the input to read.
+     * @throws IOException if an error occurs reading the groups.
+     */
+    void load( final DataInputStream in ) throws IOException
+    {
+        
+        final long[]   entryValues = new long[width];
+        final long[]   entryCounts = new long[width];
+        
+        while( true )
+        {
+            
+            final byte tag;
+            try{
+                
+                tag = in.readByte();
+                
+            }catch( EOFException ex )
+            {
+                return;
+            }
+            
+            final int slot = tag == NULL_KEY ? slotFor( null ) : readKey( in );
+            final long entryRecords = in.readLong();
+            
+            for( int i = 0; i < width; ++i )
+            {
+                entryValues[i] = in.readLong();
+                entryCounts[i] = in.readLong();
+            }
+            
+            merge( slot, entryRecords, entryValues, entryCounts, 0 );
+            
+        }
+        
+    }
+    
+    
+    /**
+     * Removes all the groups from the table.
+     * The table keeps its capacity.
+     */
+    void clear()
+    {
+        
+        Arrays.fill( records, 0L );
+        Arrays.fill( counts, 0L );
+        clearKeys();
+        
+        size = 0;
+        
+    }
+    
+    
+    /**
+     * Visits each group in the table.
+     * 
+     * @param names    the names of the aggregates.
+     * @param consumer the consumer to call for each group.
+     */
+    void forEach( final String[] names, final Consumer<? super CSVAggregateGroup> consumer )
+    {
+        
+        for( int slot = 0; slot <= capacity; ++slot )
+        {
+            
+            if( records[slot] == 0 ) continue;
+            
+            final double[] results = new double[width];
+            final long[] integralResults = new long[width];
+            final int offset = slot * width;
+            for( int i = 0; i < width; ++i )
+            {
+                results[i] = result( i, values[offset + i], counts[offset + i] );
+                integralResults[i] = functions[i] == COUNT ? counts[offset + i] : values[offset + i];
+            }
+            
+            consumer.accept( new CSVAggregateGroup(keyAt(slot), records[slot], names, results,
+                                                   integralResult, integralResults) );
+            
+        }
+        
+    }
+    
+    
+    /* ***************** */
+    /*  EXTENSION HOOKS  */
+    /* ***************** */
+    
+    
+    /**
+     * Returns the key related to the given used slot.
+     * 
+     * @param slot the slot of the group.
+     * @return the related key, can be {@code null}.
+     */
+    protected abstract Object keyAt( int slot );
+    
+    /**
+     * Returns the partition where to spill the given slot.
+     * 
+     * @param slot       the slot of the group.
+     * @param partitions the number of partitions.
+     * @return the partition index.
+     */
+    protected abstract int partitionOf( int slot, int partitions );
+    
+    /**
+     * Writes the key related to the given slot
+     * including the {@code null} tag.
+     * 
+     * @param slot the slot of the group.
+     * @param out  the output to write.
+     * @throws IOException if an error occurs writing the key.
+     */
+    protected abstract void writeKey( int slot, DataOutputStream out ) throws IOException;
+    
+    /**
+     * Reads a non {@code null} key and returns the related slot.
+     * 
+     * @param in  the input to read.
+     * @return the slot related to the key.
+     * @throws IOException if an error occurs reading the key.
+     */
+    protected abstract int readKey( DataInputStream in ) throws IOException;
+    
+    /**
+     * Allocates the key storage for the given capacity.
+     * 
+     * @param capacity the new capacity.
+     */
+    protected abstract void allocateKeys( int capacity );
+    
+    /** Removes all the keys from the table. */
+    protected abstract void clearKeys();
+    
+    /**
+     * Moves all the groups in a new table with the given capacity.
+     * The extension classes are expected to call {@link #allocate(int)}
+     * and {@link #move(int, long[], long[], long[], int)} for each group.
+     * 
+     * @param newCapacity the new capacity.
+     */
+    protected abstract void rehash( int newCapacity );
+    
+    
+    /* ******************* */
+    /*  PROTECTED METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * Ensures there is room for a new group, growing the
+     * table if needed. To be called before searching for
+     * the slot of a key that may be new.
+     */
+    protected void ensureCapacity()
+    {
+        
+        if( size >= threshold )
+            rehash( capacity << 1 );
+        
+    }
+    
+    
+    /**
+     * Tells the table a new group has been added.
+     */
+    protected void groupAdded()
+    {
+        
+        ++size;
+        
+    }
+    
+    
+    /**
+     * Allocates the slots for the given capacity.
+     * 
+     * @param newCapacity the new capacity.
+     */
+    protected void allocate( final int newCapacity )
+    {
+        
+        this.capacity = newCapacity;
+        this.mask = newCapacity - 1;
+        this.threshold = newCapacity >> 1;
+        this.size = 0;
+        
+        /* The extra slot is reserved to the null key. */
+        this.records = new long[newCapacity + 1];
+        this.values = new long[(newCapacity + 1) * width];
+        this.counts = new long[(newCapacity + 1) * width];
+        
+        allocateKeys( newCapacity );
+        
+    }
+    
+    
+    /**
+     * Copies the accumulators of a group from the old
+     * arrays into the given slot of the current arrays.
+     * 
+     * @param slot       the destination slot.
+     * @param oldRecords the old records array.
+     * @param oldValues  the old values array.
+     * @param oldCounts  the old counts array.
+     * @param oldSlot    the source slot.
+     */
+    protected void move( final int slot, final long[] oldRecords, final long[] oldValues,
+                         final long[] oldCounts, final int oldSlot )
+    {
+        
+        records[slot] = oldRecords[oldSlot];
+        System.arraycopy( oldValues, oldSlot * width, values, slot * width, width );
+        System.arraycopy( oldCounts, oldSlot * width, counts, slot * width, width );
+        
+        ++size;
+        
+    }
+    
+    
+    /**
+     * Mixes the bits of the given hash to get
+     * a good distribution of the slots.
+     * 
+     * @param hash the hash to mix.
+     * @return the mixed hash.
+     */
+    protected static long mix( long hash )
+    {
+        
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        
+        return hash;
+        
+    }
+    
+    
+    /**
+     * Returns the partition related to the given
+     * mixed hash using its higher bits.
+     * 
+     * @param hash       the mixed hash.
+     * @param partitions the number of partitions.
+     * @return the partition index.
+     */
+    protected static int partition( final long hash, final int partitions )
+    {
+        
+        return (int) ((hash >>> 33) % partitions);
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Merges the given partial aggregates into the group in the given slot.
+     * 
+     * @param slot         the slot of the group.
+     * @param otherRecords the number of records to add.
+     * @param otherValues  the values to merge.
+     * @param otherCounts  the counts to merge.
+     * @param offset       the offset of the first aggregate in the arrays.
+     */
+    private void merge( final int slot, final long otherRecords,
+                        final long[] otherValues, final long[] otherCounts, final int offset )
+    {
+        
+        records[slot] += otherRecords;
+        
+        final int base = slot * width;
+        for( int i = 0; i < width; ++i )
+        {
+            
+            final long otherCount = otherCounts[offset + i];
+            if( otherCount == 0 ) continue;
+            
+            final int index = base + i;
+            final long otherValue = otherValues[offset + i];
+            
+            values[index] = counts[index] == 0 ? otherValue : combine( i, values[index], otherValue );
+            counts[index] += otherCount;
+            
+        }
+        
+    }
+    
+    
+    /**
+     * Combines the given accumulated values of an aggregate.
+     * 
+     * @param aggregate the index of the aggregate.
+     * @param current   the current accumulated value.
+     * @param value     the value to combine.
+     * @return the combined value.
+     * @throws ArithmeticException if an integral sum overflows a {@code long}.
+     */
+    private long combine( final int aggregate, final long current, final long value )
+    {
+        
+        if( integral[aggregate] )
+            switch( functions[aggregate] )
+            {
+                case SUM:
+                case AVG:
+                    return Math.addExact( current, value );
+                    
+                case MIN:
+                    return value < current ? value : current;
+                    
+                case MAX:
+                    return value > current ? value : current;
+                    
+                default:
+                    return current;
+            }
+        
+        final double currentValue = Double.longBitsToDouble( current );
+        final double otherValue = Double.longBitsToDouble( value );
+        switch( functions[aggregate] )
+        {
+            case SUM:
+            case AVG:
+                return Double.doubleToRawLongBits( currentValue + otherValue );
+                
+            case MIN:
+                return otherValue < currentValue ? value : current;
+                
+            case MAX:
+                return otherValue > currentValue ? value : current;
+                
+            default:
+                return current;
+        }
+        
+    }
+    
+    
+    /**
+     * Returns the final result of an aggregate.
+     * 
+     * @param aggregate the index of the aggregate.
+     * @param value     the accumulated value.
+     * @param count     the number of accumulated values.
+     * @return the final result.
+     */
+    private double result( final int aggregate, final long value, final long count )
+    {
+        
+        final int function = functions[aggregate];
+        if( function == COUNT )
+            return count;
+        
+        if( count == 0 )
+            return Double.NaN;
+        
+        final double result = integral[aggregate] ? value : Double.longBitsToDouble( value );
+        return function == AVG ? result / count : result;
+        
+    }
+    
+}
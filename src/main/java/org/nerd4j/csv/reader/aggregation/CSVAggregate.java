@@ -0,0 +1,110 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.aggregation;
+
+
+/**
+ * Represents a single aggregate to compute for each group
+ * of a {@link CSVAggregation}: the function to apply, the
+ * column to apply it on and the name of the result.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVAggregate
+{
+    
+    /** The name of the aggregate result. */
+    private final String name;
+    
+    /** The identifier of the aggregated column, can be {@code null} for {@link CSVAggregateFunction#COUNT}. */
+    private final String columnId;
+    
+    /** The aggregate function to apply. */
+    private final CSVAggregateFunction function;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param name     the name of the aggregate result.
+     * @param function the aggregate function to apply.
+     * @param columnId the identifier of the aggregated column.
+     */
+    public CSVAggregate( final String name, final CSVAggregateFunction function, final String columnId )
+    {
+        
+        super();
+        
+        if( name == null || name.isEmpty() )
+            throw new NullPointerException( "The aggregate name is mandatory and can't be null" );
+        
+        if( function == null )
+            throw new NullPointerException( "The aggregate function is mandatory and can't be null" );
+        
+        if( columnId == null && function != CSVAggregateFunction.COUNT )
+            throw new NullPointerException( "The aggregated column is mandatory for the function " + function );
+        
+        this.name = name;
+        this.function = function;
+        this.columnId = columnId;
+        
+    }
+    
+    
+    /* ******************* */
+    /*  GETTERS & SETTERS  */
+    /* ******************* */
+    
+    
+    public String getName()
+    {
+        return name;
+    }
+    
+    public String getColumnId()
+    {
+        return columnId;
+    }
+    
+    public CSVAggregateFunction getFunction()
+    {
+        return function;
+    }
+    
+    
+    /* ***************** */
+    /*  UTILITY METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        
+        return name + "=" + function + "(" + (columnId != null ? columnId : "*") + ")";
+        
+    }
+    
+}
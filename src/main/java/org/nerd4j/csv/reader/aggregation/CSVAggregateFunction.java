@@ -0,0 +1,48 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.aggregation;
+
+
+/**
+ * Enumerates the aggregate functions supported by the {@link CSVAggregator}.
+ * 
+ * @author Nerd4j Team
+ */
+public enum CSVAggregateFunction
+{
+	
+	/** Number of non empty values in the column (or number of records if no column is given). */
+	COUNT,
+	
+	/** Sum of the values in the column. */
+	SUM,
+	
+	/** Minimum value in the column. */
+	MIN,
+	
+	/** Maximum value in the column. */
+	MAX,
+	
+	/** Arithmetic mean of the values in the column. */
+	AVG;
+	
+}
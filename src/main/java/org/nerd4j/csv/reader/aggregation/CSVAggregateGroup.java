@@ -0,0 +1,244 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.aggregation;
+
+import java.util.Arrays;
+
+
+/**
+ * Represents the result of a {@link CSVAggregation} for a single group.
+ * 
+ * <p>
+ * The key is a {@link Long} if the key column is converted into an
+ * integral number, otherwise it is the textual representation of
+ * the converted value. The key is {@code null} for the records
+ * having an empty key column.
+ * 
+ * <p>
+ * The aggregates are returned as {@code double} values. The aggregates
+ * having no values to aggregate (i.e. all the values in the group are
+ * empty) are {@link Double#NaN}, except {@link CSVAggregateFunction#COUNT}
+ * that is {@code 0}.
+ * 
+ * <p>
+ * The {@link CSVAggregateFunction#SUM SUM}, {@link CSVAggregateFunction#MIN MIN}
+ * and {@link CSVAggregateFunction#MAX MAX} of a column converted into
+ * an integral number are computed on {@code long} values, their exact
+ * value is returned by {@link #getLongValue(int)}. A {@code SUM} that
+ * overflows a {@code long} causes the aggregation to fail with an
+ * {@link ArithmeticException}.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVAggregateGroup
+{
+    
+    /** The key of the group. */
+    private final Object key;
+    
+    /** The number of records in the group. */
+    private final long recordCount;
+    
+    /** The names of the aggregates. */
+    private final String[] names;
+    
+    /** The values of the aggregates. */
+    private final double[] values;
+    
+    /** Tells for each aggregate if its value is integral. */
+    private final boolean[] integral;
+    
+    /** The exact values of the integral aggregates. */
+    private final long[] longValues;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param key         the key of the group.
+     * @param recordCount the number of records in the group.
+     * @param names       the names of the aggregates.
+     * @param values      the values of the aggregates.
+     * @param integral    tells for each aggregate if its value is integral.
+     * @param longValues  the exact values of the integral aggregates.
+     */
+    CSVAggregateGroup( final Object key, final long recordCount,
+                       final String[] names, final double[] values,
+                       final boolean[] integral, final long[] longValues )
+    {
+        
+        super();
+        
+        this.key = key;
+        this.recordCount = recordCount;
+        this.names = names;
+        this.values = values;
+        this.integral = integral;
+        this.longValues = longValues;
+        
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * Returns the value of the aggregate with the given index
+     * with respect to the order used to define the aggregates.
+     * 
+     * @param index the index of the aggregate.
+     * @return the value of the aggregate.
+     */
+    public double getValue( final int index )
+    {
+        
+        return values[index];
+        
+    }
+    
+    
+    /**
+     * Returns the value of the aggregate with the given name.
+     * 
+     * @param name the name of the aggregate.
+     * @return the value of the aggregate.
+     * @throws IllegalArgumentException if there is no aggregate with the given name.
+     */
+    public double getValue( final String name )
+    {
+        
+        return values[ indexOf(name) ];
+        
+    }
+    
+    
+    /**
+     * Tells if the aggregate with the given index has an integral
+     * value that can be returned by {@link #getLongValue(int)}.
+     * 
+     * @param index the index of the aggregate.
+     * @return {@code true} if the aggregate has an integral value.
+     */
+    public boolean hasLongValue( final int index )
+    {
+        
+        return integral[index] && ! Double.isNaN( values[index] );
+        
+    }
+    
+    
+    /**
+     * Returns the exact value of the integral aggregate with the given
+     * index with respect to the order used to define the aggregates.
+     * 
+     * @param index the index of the aggregate.
+     * @return the exact value of the aggregate.
+     * @throws IllegalStateException if the aggregate has no integral value.
+     */
+    public long getLongValue( final int index )
+    {
+        
+        if( ! hasLongValue(index) )
+            throw new IllegalStateException( "The aggregate " + names[index] + " has no integral value" );
+        
+        return longValues[index];
+        
+    }
+    
+    
+    /**
+     * Returns the exact value of the integral aggregate with the given name.
+     * 
+     * @param name the name of the aggregate.
+     * @return the exact value of the aggregate.
+     * @throws IllegalArgumentException if there is no aggregate with the given name.
+     * @throws IllegalStateException if the aggregate has no integral value.
+     */
+    public long getLongValue( final String name )
+    {
+        
+        return getLongValue( indexOf(name) );
+        
+    }
+    
+    
+    /* ******************* */
+    /*  GETTERS & SETTERS  */
+    /* ******************* */
+    
+    
+    public Object getKey()
+    {
+        return key;
+    }
+    
+    public long getRecordCount()
+    {
+        return recordCount;
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Returns the index of the aggregate with the given name.
+     * 
+     * @param name the name of the aggregate.
+     * @return the index of the aggregate.
+     * @throws IllegalArgumentException if there is no aggregate with the given name.
+     */
+    private int indexOf( final String name )
+    {
+        
+        for( int i = 0; i < names.length; ++i )
+            if( names[i].equals(name) )
+                return i;
+        
+        throw new IllegalArgumentException( "There is no aggregate named " + name );
+        
+    }
+    
+    
+    /* ***************** */
+    /*  UTILITY METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        
+        return "CSVAggregateGroup [key=" + key + ", records=" + recordCount
+               + ", aggregates=" + Arrays.toString(names)
+               + ", values=" + Arrays.toString(values) + "]";
+        
+    }
+    
+}
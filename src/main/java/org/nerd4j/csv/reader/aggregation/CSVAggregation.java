@@ -0,0 +1,244 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.aggregation;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Describes a group-by aggregation to be performed by a {@link CSVAggregator}.
+ * 
+ * <p>
+ * The records are grouped by the value of the key column and for each
+ * group the configured {@link CSVAggregate}s are computed. The values
+ * are converted using the processors configured for the related columns,
+ * so the key column can be of any type (integral keys are kept in
+ * a primitive table) while the aggregated columns must be numeric.
+ * 
+ * <p>
+ * The number of groups kept in memory is bounded: when the number
+ * of groups exceeds {@link #getMaxGroupsInMemory()} the partial
+ * aggregates are spilled to disk, partitioned by key, and merged
+ * one partition at a time when the result is visited.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVAggregation
+{
+    
+    /** Default maximum number of groups kept in memory before spilling to disk. */
+    public static final int DEFAULT_MAX_GROUPS_IN_MEMORY = 1 << 20;
+    
+    /** Default number of partitions used when spilling to disk. */
+    public static final int DEFAULT_SPILL_PARTITIONS = 16;
+    
+    
+    /** The identifier of the column to group by. */
+    private final String keyColumnId;
+    
+    /** The aggregates to compute for each group. */
+    private final List<CSVAggregate> aggregates;
+    
+    /** Maximum number of groups kept in memory before spilling to disk. */
+    private int maxGroupsInMemory;
+    
+    /** Number of partitions used when spilling to disk. */
+    private int spillPartitions;
+    
+    /** Directory where to create the spill files, {@code null} means the system temporary directory. */
+    private File spillDirectory;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param keyColumnId the identifier of the column to group by.
+     */
+    public CSVAggregation( final String keyColumnId )
+    {
+        
+        super();
+        
+        if( keyColumnId == null || keyColumnId.isEmpty() )
+            throw new NullPointerException( "The key column is mandatory and can't be null" );
+        
+        this.keyColumnId = keyColumnId;
+        this.aggregates = new ArrayList<CSVAggregate>();
+        
+        this.spillDirectory = null;
+        this.spillPartitions = DEFAULT_SPILL_PARTITIONS;
+        this.maxGroupsInMemory = DEFAULT_MAX_GROUPS_IN_MEMORY;
+        
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * Adds the given aggregate to the aggregation.
+     * 
+     * @param aggregate the aggregate to add.
+     * @return this object to allow concatenation.
+     */
+    public CSVAggregation add( final CSVAggregate aggregate )
+    {
+        
+        if( aggregate == null )
+            throw new NullPointerException( "The aggregate to add can't be null" );
+        
+        for( CSVAggregate existing : aggregates )
+            if( existing.getName().equals(aggregate.getName()) )
+                throw new IllegalArgumentException( "An aggregate named " + aggregate.getName() + " already exists" );
+        
+        aggregates.add( aggregate );
+        return this;
+        
+    }
+    
+    /**
+     * Adds the count of the records in each group.
+     * 
+     * @param name the name of the aggregate result.
+     * @return this object to allow concatenation.
+     */
+    public CSVAggregation count( final String name )
+    {
+        
+        return add( new CSVAggregate(name, CSVAggregateFunction.COUNT, null) );
+        
+    }
+    
+    /**
+     * Adds the sum of the given column in each group.
+     * 
+     * @param name     the name of the aggregate result.
+     * @param columnId the identifier of the aggregated column.
+     * @return this object to allow concatenation.
+     */
+    public CSVAggregation sum( final String name, final String columnId )
+    {
+        
+        return add( new CSVAggregate(name, CSVAggregateFunction.SUM, columnId) );
+        
+    }
+    
+    /**
+     * Adds the minimum of the given column in each group.
+     * 
+     * @param name     the name of the aggregate result.
+     * @param columnId the identifier of the aggregated column.
+     * @return this object to allow concatenation.
+     */
+    public CSVAggregation min( final String name, final String columnId )
+    {
+        
+        return add( new CSVAggregate(name, CSVAggregateFunction.MIN, columnId) );
+        
+    }
+    
+    /**
+     * Adds the maximum of the given column in each group.
+     * 
+     * @param name     the name of the aggregate result.
+     * @param columnId the identifier of the aggregated column.
+     * @return this object to allow concatenation.
+     */
+    public CSVAggregation max( final String name, final String columnId )
+    {
+        
+        return add( new CSVAggregate(name, CSVAggregateFunction.MAX, columnId) );
+        
+    }
+    
+    /**
+     * Adds the arithmetic mean of the given column in each group.
+     * 
+     * @param name     the name of the aggregate result.
+     * @param columnId the identifier of the aggregated column.
+     * @return this object to allow concatenation.
+     */
+    public CSVAggregation avg( final String name, final String columnId )
+    {
+        
+        return add( new CSVAggregate(name, CSVAggregateFunction.AVG, columnId) );
+        
+    }
+    
+    
+    /* ******************* */
+    /*  GETTERS & SETTERS  */
+    /* ******************* */
+    
+    
+    public String getKeyColumnId()
+    {
+        return keyColumnId;
+    }
+    
+    public List<CSVAggregate> getAggregates()
+    {
+        return Collections.unmodifiableList( aggregates );
+    }
+    
+    public int getMaxGroupsInMemory()
+    {
+        return maxGroupsInMemory;
+    }
+    
+    public void setMaxGroupsInMemory( int maxGroupsInMemory )
+    {
+        if( maxGroupsInMemory < 1 )
+            throw new IllegalArgumentException( "The maximum number of groups in memory must be positive" );
+        
+        this.maxGroupsInMemory = maxGroupsInMemory;
+    }
+    
+    public int getSpillPartitions()
+    {
+        return spillPartitions;
+    }
+    
+    public void setSpillPartitions( int spillPartitions )
+    {
+        if( spillPartitions < 1 )
+            throw new IllegalArgumentException( "The number of spill partitions must be positive" );
+        
+        this.spillPartitions = spillPartitions;
+    }
+    
+    public File getSpillDirectory()
+    {
+        return spillDirectory;
+    }
+    
+    public void setSpillDirectory( File spillDirectory )
+    {
+        this.spillDirectory = spillDirectory;
+    }
+    
+}
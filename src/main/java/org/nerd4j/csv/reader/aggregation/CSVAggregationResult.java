@@ -0,0 +1,408 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.aggregation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Represents the result of a {@link CSVAggregation} performed by a {@link CSVAggregator}.
+ * 
+ * <p>
+ * The groups are kept in memory until their number exceeds the configured
+ * budget, in this case they are spilled to disk into a set of partitions
+ * and, when the result is visited, each partition is loaded and merged
+ * separately. Since the same key is always spilled into the same partition
+ * the memory needed to visit the result is bounded by the size of the
+ * largest partition.
+ * 
+ * <p>
+ * Partial results computed in parallel can be combined using
+ * {@link #merge(CSVAggregationResult)}. The result should be
+ * closed to release the spill files, if any.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVAggregationResult implements Closeable
+{
+    
+    /** Internal logging system. */
+    private static final Logger logger = LoggerFactory.getLogger( CSVAggregationResult.class );
+    
+    /** Size of the buffers used to read and write the spill files. */
+    private static final int SPILL_BUFFER_SIZE = 64 * 1024;
+    
+    /** The names of the aggregates. */
+    private final String[] names;
+    
+    /** The code of the function to apply for each aggregate. */
+    private final int[] functions;
+    
+    /** Tells if the keys are integral numbers. */
+    private final boolean integralKey;
+    
+    /** Tells for each aggregate if it is computed on integral values. */
+    private final boolean[] integral;
+    
+    /** Maximum number of groups kept in memory before spilling to disk. */
+    private final int maxGroupsInMemory;
+    
+    /** Number of partitions used when spilling to disk. */
+    private final int partitionCount;
+    
+    /** Directory where to create the spill files. */
+    private final File spillDirectory;
+    
+    /** The in memory groups. */
+    private final AggregateTable table;
+    
+    /** The spill files for each partition, {@code null} if the result has never been spilled. */
+    private List<List<File>> spills;
+    
+    /** Number of records aggregated. */
+    private long recordCount;
+    
+    /** Number of records rejected because of processing errors. */
+    private long rejectedCount;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param aggregation the aggregation this result is related to.
+     * @param names       the names of the aggregates.
+     * @param functions   the code of the function to apply for each aggregate.
+     * @param integralKey tells if the keys are integral numbers.
+     * @param integral    tells for each aggregate if it is computed on integral values.
+     */
+    CSVAggregationResult( final CSVAggregation aggregation, final String[] names,
+                          final int[] functions, final boolean integralKey, final boolean[] integral )
+    {
+        
+        super();
+        
+        this.names = names;
+        this.functions = functions;
+        this.integralKey = integralKey;
+        this.integral = integral;
+        this.spillDirectory = aggregation.getSpillDirectory();
+        this.maxGroupsInMemory = aggregation.getMaxGroupsInMemory();
+        this.partitionCount = aggregation.getSpillPartitions();
+        
+        this.table = AggregateTable.create( integralKey, functions, integral );
+        this.spills = null;
+        
+        this.recordCount = 0;
+        this.rejectedCount = 0;
+        
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * Merges the given partial result into this one.
+     * <p>
+     * The given result must be related to the same aggregation,
+     * it is consumed by this operation and should not be used
+     * anymore.
+     * 
+     * @param other the partial result to merge.
+     * @return this object to allow concatenation.
+     * @throws IOException if an error occurs spilling the groups to disk.
+     */
+    public CSVAggregationResult merge( final CSVAggregationResult other ) throws IOException
+    {
+        
+        if( other == null || other == this )
+            return this;
+        
+        if( integralKey != other.integralKey || ! Arrays.equals(names, other.names)
+            || ! Arrays.equals(integral, other.integral) || partitionCount != other.partitionCount )
+            throw new IllegalArgumentException( "Unable to merge results of different aggregations" );
+        
+        recordCount += other.recordCount;
+        rejectedCount += other.rejectedCount;
+        
+        if( spills == null && other.spills == null )
+        {
+            
+            /* Both the results are in memory. */
+            table.merge( other.table );
+            other.table.clear();
+            
+            spillIfNeeded();
+            
+        }
+        else
+        {
+            
+            /*
+             * At least one of the results has been spilled, in this
+             * case we spill both and we join the spill files.
+             */
+            spill();
+            other.spill();
+            
+            for( int i = 0; i < partitionCount; ++i )
+                spills.get( i ).addAll( other.spills.get(i) );
+            
+            other.spills = null;
+            
+        }
+        
+        return this;
+        
+    }
+    
+    
+    /**
+     * Visits each group in the result.
+     * <p>
+     * If the result has been spilled to disk, the
+     * partitions are loaded and visited one by one.
+     * 
+     * @param consumer the consumer to call for each group.
+     * @throws IOException if an error occurs reading the spill files.
+     */
+    public void forEach( final Consumer<? super CSVAggregateGroup> consumer ) throws IOException
+    {
+        
+        if( spills == null )
+        {
+            table.forEach( names, consumer );
+            return;
+        }
+        
+        /* Each group must belong to exactly one partition. */
+        spill();
+        
+        for( List<File> partition : spills )
+        {
+            
+            if( partition.isEmpty() ) continue;
+            
+            final AggregateTable partial = AggregateTable.create( integralKey, functions, integral );
+            for( File file : partition )
+                try( DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), SPILL_BUFFER_SIZE)) )
+                {
+                    partial.load( in );
+                }
+            
+            partial.forEach( names, consumer );
+            
+        }
+        
+    }
+    
+    
+    /**
+     * Returns the list of all the groups in the result.
+     * <p>
+     * This method loads all the groups in memory,
+     * consider using {@link #forEach(Consumer)}
+     * for large results.
+     * 
+     * @return the list of all the groups.
+     * @throws IOException if an error occurs reading the spill files.
+     */
+    public List<CSVAggregateGroup> getGroups() throws IOException
+    {
+        
+        final List<CSVAggregateGroup> groups = new ArrayList<CSVAggregateGroup>();
+        forEach( groups::add );
+        
+        return groups;
+        
+    }
+    
+    
+    /**
+     * Tells if the groups have been spilled to disk.
+     * 
+     * @return {@code true} if the groups have been spilled to disk.
+     */
+    public boolean isSpilled()
+    {
+        
+        return spills != null;
+        
+    }
+    
+    
+    /**
+     * Deletes the spill files if any.
+     */
+    @Override
+    public void close()
+    {
+        
+        if( spills == null ) return;
+        
+        for( List<File> partition : spills )
+            for( File file : partition )
+                if( ! file.delete() )
+                    logger.warn( "Unable to delete the spill file {}", file );
+        
+        spills = null;
+        
+    }
+    
+    
+    /* ******************* */
+    /*  GETTERS & SETTERS  */
+    /* ******************* */
+    
+    
+    public long getRecordCount()
+    {
+        return recordCount;
+    }
+    
+    public long getRejectedCount()
+    {
+        return rejectedCount;
+    }
+    
+    
+    /* ***************** */
+    /*  PACKAGE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Returns the in memory groups.
+     * 
+     * @return the in memory groups.
+     */
+    AggregateTable getTable()
+    {
+        
+        return table;
+        
+    }
+    
+    
+    /**
+     * Tells the result that a record has been aggregated.
+     */
+    void recordAggregated()
+    {
+        
+        ++recordCount;
+        
+    }
+    
+    
+    /**
+     * Tells the result that a record has been rejected.
+     */
+    void recordRejected()
+    {
+        
+        ++rejectedCount;
+        
+    }
+    
+    
+    /**
+     * Spills the groups to disk if their number
+     * exceeds the memory budget.
+     * 
+     * @throws IOException if an error occurs writing the spill files.
+     */
+    void spillIfNeeded() throws IOException
+    {
+        
+        if( table.size() > maxGroupsInMemory )
+            spill();
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Spills the in memory groups to disk and clears the table.
+     * 
+     * @throws IOException if an error occurs writing the spill files.
+     */
+    private void spill() throws IOException
+    {
+        
+        if( spills == null )
+        {
+            spills = new ArrayList<List<File>>( partitionCount );
+            for( int i = 0; i < partitionCount; ++i )
+                spills.add( new ArrayList<File>() );
+        }
+        
+        if( table.size() == 0 ) return;
+        
+        logger.debug( "Spilling {} groups to disk", table.size() );
+        
+        final File[] files = new File[partitionCount];
+        final DataOutputStream[] outs = new DataOutputStream[partitionCount];
+        try{
+            
+            for( int i = 0; i < files.length; ++i )
+            {
+                files[i] = File.createTempFile( "nerd4j-csv-aggregation-", ".spill", spillDirectory );
+                spills.get( i ).add( files[i] );
+                
+                outs[i] = new DataOutputStream( new BufferedOutputStream(new FileOutputStream(files[i]), SPILL_BUFFER_SIZE) );
+            }
+            
+            table.spill( outs );
+            
+        }finally
+        {
+            for( DataOutputStream out : outs )
+                if( out != null ) out.close();
+        }
+        
+        table.clear();
+        
+    }
+    
+}
@@ -0,0 +1,568 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.aggregation;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.nerd4j.csv.exception.CSVConfigurationException;
+import org.nerd4j.csv.exception.CSVException;
+import org.nerd4j.csv.field.CSVField;
+import org.nerd4j.csv.field.CSVFieldMetadata;
+import org.nerd4j.csv.field.CSVFieldProcessContext;
+import org.nerd4j.csv.parser.CSVParser;
+import org.nerd4j.csv.parser.CSVToken;
+import org.nerd4j.csv.reader.CSVReaderMetadata;
+import org.nerd4j.csv.reader.CSVReaderMetadataFactory;
+import org.nerd4j.csv.reader.CSVSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Performs streaming group-by aggregations over CSV sources.
+ * 
+ * <p>
+ * The aggregator works directly on the parsed fields: only the key column
+ * and the aggregated columns are read and converted (using the processors
+ * configured in the reader configuration), all the other columns are skipped
+ * and no data model is created for the records. The partial aggregates are
+ * kept in open addressing tables with primitive accumulators and are spilled
+ * to disk when the number of groups exceeds the budget configured in the
+ * {@link CSVAggregation}.
+ * 
+ * <p>
+ * The records having a field that fails to be processed
+ * are not aggregated and are counted as rejected.
+ * 
+ * <p>
+ * Several sources can be aggregated in parallel, each source is aggregated
+ * by a single thread into a partial result and the partial results are
+ * merged at the end. The aggregator itself is thread safe because each
+ * source is read using a new meta-data model.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVAggregator
+{
+    
+    /** Internal logging system. */
+    private static final Logger logger = LoggerFactory.getLogger( CSVAggregator.class );
+    
+    /** The {@code Factory} for the reader meta-data model. */
+    private final CSVReaderMetadataFactory<?> metadataFactory;
+    
+    /** The aggregation to perform. */
+    private final CSVAggregation aggregation;
+    
+    /** The names of the aggregates. */
+    private final String[] names;
+    
+    /** The code of the function to apply for each aggregate. */
+    private final int[] functions;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param metadataFactory the {@code Factory} of meta-data that describes how to read the CSV sources.
+     * @param aggregation     the aggregation to perform.
+     */
+    public CSVAggregator( final CSVReaderMetadataFactory<?> metadataFactory, final CSVAggregation aggregation )
+    {
+        
+        super();
+        
+        if( metadataFactory == null )
+            throw new CSVConfigurationException( "The CSV reader configuration is mandatory" );
+        
+        if( aggregation == null )
+            throw new CSVConfigurationException( "The CSV aggregation is mandatory" );
+        
+        final List<CSVAggregate> aggregates = aggregation.getAggregates();
+        if( aggregates.isEmpty() )
+            throw new CSVConfigurationException( "The CSV aggregation must define at least one aggregate" );
+        
+        this.aggregation = aggregation;
+        this.metadataFactory = metadataFactory;
+        
+        this.names = new String[aggregates.size()];
+        this.functions = new int[aggregates.size()];
+        for( int i = 0; i < names.length; ++i )
+        {
+            names[i] = aggregates.get( i ).getName();
+            functions[i] = aggregates.get( i ).getFunction().ordinal();
+        }
+        
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * Aggregates the records in the given file.
+     * 
+     * @param file the CSV source file.
+     * @return the result of the aggregation.
+     * @throws IOException if an error occurs reading the file.
+     */
+    public CSVAggregationResult aggregate( final File file ) throws IOException
+    {
+        
+        try( Reader reader = new FileReader(file) )
+        {
+            return aggregate( reader );
+        }
+        
+    }
+    
+    
+    /**
+     * Aggregates the records in the given CSV source.
+     * <p>
+     * The given source is not closed by this method.
+     * 
+     * @param reader the CSV source.
+     * @return the result of the aggregation.
+     * @throws IOException if an error occurs reading the source.
+     */
+    public CSVAggregationResult aggregate( final Reader reader ) throws IOException
+    {
+        
+        final CSVReaderMetadata<?> metadata = metadataFactory.getCSVReaderMetadata();
+        final CSVSource source = CSVSource.open( reader, metadata );
+        
+        final Plan plan = new Plan( source );
+        final CSVAggregationResult result = new CSVAggregationResult( aggregation, names, functions,
+                                                                      plan.integralKey, plan.integralAggregates );
+        
+        try{
+            
+            aggregate( source, plan, result );
+            return result;
+            
+        }catch( IOException | RuntimeException ex )
+        {
+            result.close();
+            throw ex;
+        }
+        
+    }
+    
+    
+    /**
+     * Aggregates the records in the given files in parallel.
+     * <p>
+     * Each file is aggregated by a task submitted to the given executor
+     * into a partial result, the partial results are merged at the end.
+     * 
+     * @param files    the CSV source files.
+     * @param executor the executor used to run the tasks.
+     * @return the result of the aggregation.
+     * @throws IOException if an error occurs reading the files.
+     */
+    public CSVAggregationResult aggregate( final List<File> files, final ExecutorService executor )
+    throws IOException
+    {
+        
+        if( files == null || files.isEmpty() )
+            throw new IllegalArgumentException( "At least one file to aggregate is required" );
+        
+        final List<Future<CSVAggregationResult>> tasks = new ArrayList<Future<CSVAggregationResult>>( files.size() );
+        for( File file : files )
+            tasks.add( executor.submit(() -> aggregate(file)) );
+        
+        CSVAggregationResult result = null;
+        try{
+            
+            for( Future<CSVAggregationResult> task : tasks )
+            {
+                final CSVAggregationResult partial = getPartial( task );
+                result = result == null ? partial : result.merge( partial );
+            }
+            
+            return result;
+            
+        }catch( IOException | RuntimeException ex )
+        {
+            
+            /* We cancel the remaining tasks and release the spill files. */
+            for( Future<CSVAggregationResult> task : tasks )
+                if( ! task.cancel(true) && ! task.isCancelled() )
+                    try{
+                        
+                        getPartial( task ).close();
+                        
+                    }catch( Exception e )
+                    {
+                        logger.debug( "Ignoring failure of a cancelled aggregation", e );
+                    }
+            
+            if( result != null )
+                result.close();
+            
+            throw ex;
+            
+        }
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Aggregates the records of the given source into the given result.
+     * 
+     * @param source the opened CSV source.
+     * @param plan   the columns to read.
+     * @param result the result to fill.
+     * @throws IOException if an error occurs reading the source.
+     */
+    private void aggregate( final CSVSource source, final Plan plan, final CSVAggregationResult result )
+    throws IOException
+    {
+        
+        final CSVParser parser = source.getParser();
+        final CSVField<String,?>[] fields = source.getFields();
+        final CSVFieldProcessContext context = new CSVFieldProcessContext( source.getHeader() );
+        final AggregateTable table = result.getTable();
+        
+        final int lastColumn = plan.lastColumn;
+        final int keyColumn = plan.keyColumn;
+        final boolean[] needed = plan.needed;
+        final int[] aggregateColumns = plan.aggregateColumns;
+        final boolean[] integralColumns = plan.integralColumns;
+        
+        final long[] rowLongs = new long[lastColumn + 1];
+        final double[] rowDoubles = new double[lastColumn + 1];
+        final boolean[] rowPresent = new boolean[lastColumn + 1];
+        
+        Object key;
+        boolean valid;
+        CSVToken token;
+        
+        while( true )
+        {
+            
+            context.clear();
+            context.newRow();
+            
+            /* We skip any empty row. */
+            do{
+                
+                token = needed[0] ? parser.read() : parser.skip();
+                
+            }while( token == CSVToken.END_OF_RECORD );
+            
+            if( token == CSVToken.END_OF_DATA ) break;
+            
+            key = null;
+            valid = true;
+            
+            for( int i = 0; ; )
+            {
+                
+                context.newColumn();
+                
+                if( needed[i] )
+                {
+                    
+                    final String originalValue = parser.getCurrentValue();
+                    context.setOriginalValue( originalValue );
+                    
+                    final Object processedValue = fields[i].process( originalValue, context );
+                    if( context.isError() )
+                    {
+                        valid = false;
+                        break;
+                    }
+                    
+                    if( i == keyColumn )
+                        key = processedValue;
+                    
+                    rowPresent[i] = processedValue != null;
+                    if( rowPresent[i] && integralColumns[i] )
+                        rowLongs[i] = ((Number) processedValue).longValue();
+                    else if( processedValue instanceof Number )
+                        rowDoubles[i] = ((Number) processedValue).doubleValue();
+                    
+                }
+                
+                if( ++i > lastColumn ) break;
+                
+                token = needed[i] ? parser.read() : parser.skip();
+                if( token != CSVToken.FIELD )
+                {
+                    /* The record is incomplete, the missing columns must be optional. */
+                    valid = acceptMissingColumns( i, plan, fields, rowPresent );
+                    break;
+                }
+                
+            }
+            
+            /* We move to the end of the record. */
+            while( token == CSVToken.FIELD )
+                token = parser.skip();
+            
+            if( ! valid )
+            {
+                if( logger.isDebugEnabled() && context.isError() )
+                    logger.debug( "Record rejected: {}", context.getError().getMessage() );
+                
+                result.recordRejected();
+                continue;
+            }
+            
+            final int slot = table.slotFor( key );
+            table.addRecord( slot );
+            
+            for( int a = 0; a < aggregateColumns.length; ++a )
+            {
+                final int column = aggregateColumns[a];
+                if( column < 0 )
+                    table.accumulate( slot, a, 0L );
+                else if( rowPresent[column] && integralColumns[column] )
+                    table.accumulate( slot, a, rowLongs[column] );
+                else if( rowPresent[column] )
+                    table.accumulate( slot, a, rowDoubles[column] );
+            }
+            
+            result.recordAggregated();
+            result.spillIfNeeded();
+            
+        }
+        
+    }
+    
+    
+    /**
+     * Checks if the needed columns missing in an incomplete
+     * record are optional and marks them as empty.
+     * 
+     * @param from       index of the first missing column.
+     * @param plan       the columns to read.
+     * @param fields     the fields related to the source columns.
+     * @param rowPresent the flags telling if each column has a value.
+     * @return {@code true} if all the missing columns are optional.
+     */
+    private boolean acceptMissingColumns( final int from, final Plan plan,
+                                          final CSVField<String,?>[] fields,
+                                          final boolean[] rowPresent )
+    {
+        
+        if( ! plan.acceptIncompleteRecords )
+            return false;
+        
+        for( int i = from; i <= plan.lastColumn; ++i )
+            if( plan.needed[i] )
+            {
+                if( ! fields[i].isOptional() )
+                    return false;
+                
+                rowPresent[i] = false;
+            }
+        
+        return true;
+        
+    }
+    
+    
+    /**
+     * Returns the result of the given task unwrapping the execution exceptions.
+     * 
+     * @param task the task to wait for.
+     * @return the partial result.
+     * @throws IOException if the task failed reading the source.
+     */
+    private static CSVAggregationResult getPartial( final Future<CSVAggregationResult> task )
+    throws IOException
+    {
+        
+        try{
+            
+            return task.get();
+            
+        }catch( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException( "Interrupted while waiting for the partial aggregation" );
+        }
+        catch( ExecutionException ex )
+        {
+            final Throwable cause = ex.getCause();
+            if( cause instanceof IOException )
+                throw (IOException) cause;
+            if( cause instanceof RuntimeException )
+                throw (RuntimeException) cause;
+            
+            throw new CSVException( cause );
+        }
+        
+    }
+    
+    
+    /* *************** */
+    /*  INNER CLASSES  */
+    /* *************** */
+    
+    
+    /**
+     * Describes the source columns to read
+     * in order to perform the aggregation.
+     * 
+     * @author Nerd4j Team
+     */
+    private final class Plan
+    {
+        
+        /** Index of the key column. */
+        private final int keyColumn;
+        
+        /** Index of the column related to each aggregate, {@code -1} for {@code COUNT(*)}. */
+        private final int[] aggregateColumns;
+        
+        /** Tells for each column up to the last one if it needs to be processed. */
+        private final boolean[] needed;
+        
+        /** Index of the last column to read. */
+        private final int lastColumn;
+        
+        /** Tells if the keys are converted into integral numbers. */
+        private final boolean integralKey;
+        
+        /** Tells for each column up to the last one if it is converted into an integral number. */
+        private final boolean[] integralColumns;
+        
+        /** Tells for each aggregate if it is computed on integral values. */
+        private final boolean[] integralAggregates;
+        
+        /** Tells if to accept non standard CSV with incomplete records. */
+        private final boolean acceptIncompleteRecords;
+        
+        
+        /**
+         * Constructor with parameters.
+         * 
+         * @param source the opened CSV source.
+         */
+        public Plan( final CSVSource source )
+        {
+            
+            super();
+            
+            this.keyColumn = getColumnIndex( source, aggregation.getKeyColumnId() );
+            this.integralKey = isIntegral( source.getFieldMetadata(keyColumn).getMappingDescriptor().getModelType() );
+            this.acceptIncompleteRecords = source.getMetadata().isAcceptIncompleteRecords();
+            
+            int last = keyColumn;
+            final List<CSVAggregate> aggregates = aggregation.getAggregates();
+            this.aggregateColumns = new int[aggregates.size()];
+            this.integralAggregates = new boolean[aggregates.size()];
+            for( int i = 0; i < aggregateColumns.length; ++i )
+            {
+                
+                final CSVAggregate aggregate = aggregates.get( i );
+                if( aggregate.getColumnId() == null )
+                {
+                    aggregateColumns[i] = -1;
+                    continue;
+                }
+                
+                final int column = getColumnIndex( source, aggregate.getColumnId() );
+                final CSVFieldMetadata<String,?> fieldConf = source.getFieldMetadata( column );
+                if( aggregate.getFunction() != CSVAggregateFunction.COUNT
+                    && ! Number.class.isAssignableFrom(fieldConf.getMappingDescriptor().getModelType()) )
+                    throw new CSVConfigurationException( "The column " + aggregate.getColumnId()
+                                                         + " must be converted into a number to compute " + aggregate );
+                
+                aggregateColumns[i] = column;
+                integralAggregates[i] = isIntegral( fieldConf.getMappingDescriptor().getModelType() );
+                if( column > last ) last = column;
+                
+            }
+            
+            this.lastColumn = last;
+            this.needed = new boolean[last + 1];
+            this.integralColumns = new boolean[last + 1];
+            
+            needed[keyColumn] = true;
+            for( int i = 0; i < aggregateColumns.length; ++i )
+                if( aggregateColumns[i] >= 0 )
+                {
+                    needed[aggregateColumns[i]] = true;
+                    integralColumns[aggregateColumns[i]] = integralAggregates[i];
+                }
+            
+        }
+        
+        
+        /**
+         * Returns the index of the source column configured
+         * with the given identifier.
+         * 
+         * @param source   the opened CSV source.
+         * @param columnId the column identifier.
+         * @return the source column index.
+         */
+        private int getColumnIndex( final CSVSource source, final String columnId )
+        {
+            
+            final int index = source.getColumnIndex( columnId );
+            if( index < 0 )
+                throw new CSVConfigurationException( "The column " + columnId + " is not configured or not present in the CSV source" );
+            
+            return index;
+            
+        }
+        
+        
+        /**
+         * Tells if the given type is an integral number.
+         * 
+         * @param type the type to check.
+         * @return {@code true} if the given type is an integral number.
+         */
+        private boolean isIntegral( final Class<?> type )
+        {
+            
+            return type == Long.class || type == Integer.class
+                || type == Short.class || type == Byte.class;
+            
+        }
+        
+    }
+    
+}
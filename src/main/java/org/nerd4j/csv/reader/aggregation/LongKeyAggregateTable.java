@@ -0,0 +1,221 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.aggregation;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+
+/**
+ * Implementation of the {@link AggregateTable} for integral
+ * keys, the keys are stored as primitive {@code long}s.
+ * 
+ * <p>
+ * This class is intended for internal use only.
+ * 
+ * @author Nerd4j Team
+ */
+final class LongKeyAggregateTable extends AggregateTable
+{
+    
+    /** The key related to each slot. */
+    private long[] keys;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param functions the code of the function to apply for each aggregate.
+     * @param integral  tells for each aggregate if it is computed on integral values.
+     */
+    LongKeyAggregateTable( final int[] functions, final boolean[] integral )
+    {
+        
+        super( functions, integral );
+        
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int slotFor( final Object key )
+    {
+        
+        if( key == null )
+        {
+            if( records[capacity] == 0 ) groupAdded();
+            return capacity;
+        }
+        
+        return slotFor( ((Number) key).longValue() );
+        
+    }
+    
+    
+    /**
+     * Returns the slot related to the given key,
+     * if the key is new a new group is created.
+     * 
+     * @param key the group key.
+     * @return the slot related to the key.
+     */
+    int slotFor( final long key )
+    {
+        
+        ensureCapacity();
+        
+        int slot = (int) mix( key ) & mask;
+        while( records[slot] != 0 )
+        {
+            if( keys[slot] == key ) return slot;
+            slot = (slot + 1) & mask;
+        }
+        
+        keys[slot] = key;
+        groupAdded();
+        
+        return slot;
+        
+    }
+    
+    
+    /* ***************** */
+    /*  EXTENSION HOOKS  */
+    /* ***************** */
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Object keyAt( final int slot )
+    {
+        
+        return slot == capacity ? null : Long.valueOf( keys[slot] );
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int partitionOf( final int slot, final int partitions )
+    {
+        
+        return slot == capacity ? 0 : partition( mix(keys[slot]), partitions );
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void writeKey( final int slot, final DataOutputStream out ) throws IOException
+    {
+        
+        if( slot == capacity )
+            out.writeByte( NULL_KEY );
+        else
+        {
+            out.writeByte( NOT_NULL_KEY );
+            out.writeLong( keys[slot] );
+        }
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int readKey( final DataInputStream in ) throws IOException
+    {
+        
+        return slotFor( in.readLong() );
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void allocateKeys( final int capacity )
+    {
+        
+        this.keys = new long[capacity];
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void clearKeys()
+    {
+        
+        /* Free slots are recognized by the records count. */
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void rehash( final int newCapacity )
+    {
+        
+        final int oldCapacity = capacity;
+        final long[] oldKeys = keys;
+        final long[] oldRecords = records;
+        final long[] oldValues = values;
+        final long[] oldCounts = counts;
+        
+        allocate( newCapacity );
+        
+        for( int oldSlot = 0; oldSlot < oldCapacity; ++oldSlot )
+        {
+            
+            if( oldRecords[oldSlot] == 0 ) continue;
+            
+            final long key = oldKeys[oldSlot];
+            int slot = (int) mix( key ) & mask;
+            while( records[slot] != 0 )
+                slot = (slot + 1) & mask;
+            
+            keys[slot] = key;
+            move( slot, oldRecords, oldValues, oldCounts, oldSlot );
+            
+        }
+        
+        if( oldRecords[oldCapacity] != 0 )
+            move( capacity, oldRecords, oldValues, oldCounts, oldCapacity );
+        
+    }
+    
+}
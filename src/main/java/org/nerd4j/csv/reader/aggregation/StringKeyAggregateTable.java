@@ -0,0 +1,241 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.aggregation;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+
+/**
+ * Implementation of the {@link AggregateTable} for textual keys.
+ * The hash of each key is kept to avoid recomputing it when the
+ * table grows or is spilled to disk.
+ * 
+ * <p>
+ * This class is intended for internal use only.
+ * 
+ * @author Nerd4j Team
+ */
+final class StringKeyAggregateTable extends AggregateTable
+{
+    
+    /** The key related to each slot. */
+    private String[] keys;
+    
+    /** The mixed hash of the key related to each slot. */
+    private long[] hashes;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param functions the code of the function to apply for each aggregate.
+     * @param integral  tells for each aggregate if it is computed on integral values.
+     */
+    StringKeyAggregateTable( final int[] functions, final boolean[] integral )
+    {
+        
+        super( functions, integral );
+        
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    int slotFor( final Object key )
+    {
+        
+        if( key == null )
+        {
+            if( records[capacity] == 0 ) groupAdded();
+            return capacity;
+        }
+        
+        return slotFor( key.toString() );
+        
+    }
+    
+    
+    /**
+     * Returns the slot related to the given key,
+     * if the key is new a new group is created.
+     * 
+     * @param key the group key.
+     * @return the slot related to the key.
+     */
+    int slotFor( final String key )
+    {
+        
+        ensureCapacity();
+        
+        final long hash = mix( key.hashCode() );
+        int slot = (int) hash & mask;
+        while( keys[slot] != null )
+        {
+            if( hashes[slot] == hash && keys[slot].equals(key) ) return slot;
+            slot = (slot + 1) & mask;
+        }
+        
+        keys[slot] = key;
+        hashes[slot] = hash;
+        groupAdded();
+        
+        return slot;
+        
+    }
+    
+    
+    /* ***************** */
+    /*  EXTENSION HOOKS  */
+    /* ***************** */
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Object keyAt( final int slot )
+    {
+        
+        return slot == capacity ? null : keys[slot];
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int partitionOf( final int slot, final int partitions )
+    {
+        
+        return slot == capacity ? 0 : partition( hashes[slot], partitions );
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void writeKey( final int slot, final DataOutputStream out ) throws IOException
+    {
+        
+        if( slot == capacity )
+            out.writeByte( NULL_KEY );
+        else
+        {
+            /*
+             * The key is written as its length followed by its UTF-8 bytes,
+             * the modified UTF-8 of writeUTF is limited to 65535 bytes.
+             */
+            final byte[] bytes = keys[slot].getBytes( StandardCharsets.UTF_8 );
+            out.writeByte( NOT_NULL_KEY );
+            out.writeInt( bytes.length );
+            out.write( bytes );
+        }
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int readKey( final DataInputStream in ) throws IOException
+    {
+        
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully( bytes );
+        
+        return slotFor( new String(bytes, StandardCharsets.UTF_8) );
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void allocateKeys( final int capacity )
+    {
+        
+        this.keys = new String[capacity];
+        this.hashes = new long[capacity];
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void clearKeys()
+    {
+        
+        Arrays.fill( keys, null );
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void rehash( final int newCapacity )
+    {
+        
+        final int oldCapacity = capacity;
+        final String[] oldKeys = keys;
+        final long[] oldHashes = hashes;
+        final long[] oldRecords = records;
+        final long[] oldValues = values;
+        final long[] oldCounts = counts;
+        
+        allocate( newCapacity );
+        
+        for( int oldSlot = 0; oldSlot < oldCapacity; ++oldSlot )
+        {
+            
+            if( oldKeys[oldSlot] == null ) continue;
+            
+            final long hash = oldHashes[oldSlot];
+            int slot = (int) hash & mask;
+            while( keys[slot] != null )
+                slot = (slot + 1) & mask;
+            
+            keys[slot] = oldKeys[oldSlot];
+            hashes[slot] = hash;
+            move( slot, oldRecords, oldValues, oldCounts, oldSlot );
+            
+        }
+        
+        if( oldRecords[oldCapacity] != 0 )
+            move( capacity, oldRecords, oldValues, oldCounts, oldCapacity );
+        
+    }
+    
+}
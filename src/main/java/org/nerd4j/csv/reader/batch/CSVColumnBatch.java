@@ -0,0 +1,286 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.batch;
+
+import org.nerd4j.csv.field.CSVMappingDescriptor;
+import org.nerd4j.csv.reader.CSVColumnBatchReader;
+
+
+/**
+ * Represents a batch of records read from a CSV source
+ * stored by column into {@link CSVColumnVector}s.
+ * 
+ * <p>
+ * The batch is filled by {@link CSVColumnBatchReader#readBatch(CSVColumnBatch)}
+ * and can be reused for the following reads: as long as the columns
+ * of the source do not change the vectors are reused and no further
+ * memory is allocated, except for the new entries of the string
+ * dictionaries and the values of the {@link CSVColumnType#OBJECT} columns.
+ * 
+ * <p>
+ * The records that fail to be processed are not added
+ * to the batch but are counted by {@link #getRejected()}.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVColumnBatch
+{
+    
+    /** The maximum number of records in the batch. */
+    private final int capacity;
+    
+    /** Tells if to allocate the vectors outside the heap. */
+    private final boolean offHeap;
+    
+    /** The vectors of the configured columns in the source order. */
+    private CSVColumnVector[] columns;
+    
+    /** The index of the vector related to each source column, -1 if not configured. */
+    private int[] slots;
+    
+    /** The binder filling this batch. */
+    private CSVColumnBatchBinder binder;
+    
+    /** The number of records in the batch. */
+    int size;
+    
+    /** The number of records rejected while filling the batch. */
+    int rejected;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param capacity the maximum number of records in the batch.
+     */
+    public CSVColumnBatch( final int capacity )
+    {
+        
+        this( capacity, false );
+        
+    }
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param capacity the maximum number of records in the batch.
+     * @param offHeap  tells if to allocate the vectors outside the heap.
+     */
+    public CSVColumnBatch( final int capacity, final boolean offHeap )
+    {
+        
+        super();
+        
+        if( capacity <= 0 )
+            throw new IllegalArgumentException( "The batch capacity must be greater than 0" );
+        
+        this.capacity = capacity;
+        this.offHeap = offHeap;
+        
+        this.columns = new CSVColumnVector[0];
+        this.slots = new int[0];
+        
+    }
+    
+    
+    /* ******************* */
+    /*  GETTERS & SETTERS  */
+    /* ******************* */
+    
+    
+    /**
+     * Returns the maximum number of records in the batch.
+     * 
+     * @return the maximum number of records in the batch.
+     */
+    public int getCapacity()
+    {
+        return capacity;
+    }
+    
+    /**
+     * Returns the number of records in the batch.
+     * 
+     * @return the number of records in the batch.
+     */
+    public int getSize()
+    {
+        return size;
+    }
+    
+    /**
+     * Returns the number of records rejected while filling the batch.
+     * 
+     * @return the number of records rejected.
+     */
+    public int getRejected()
+    {
+        return rejected;
+    }
+    
+    /**
+     * Returns the number of columns in the batch.
+     * 
+     * @return the number of columns in the batch.
+     */
+    public int getColumnCount()
+    {
+        return columns.length;
+    }
+    
+    
+    /* **************** */
+    /*  PUBLIC METHODS  */
+    /* **************** */
+    
+    
+    /**
+     * Tells if the batch reached its capacity.
+     * 
+     * @return {@code true} if the batch is full.
+     */
+    public boolean isFull()
+    {
+        
+        return size >= capacity;
+        
+    }
+    
+    /**
+     * Returns the vector of the column at the given index.
+     * <p>
+     * The columns are in the same order of the source
+     * and include only the configured ones.
+     * 
+     * @param index the index of the column.
+     * @return the related vector.
+     */
+    public CSVColumnVector getColumn( final int index )
+    {
+        
+        return columns[index];
+        
+    }
+    
+    /**
+     * Returns the vector of the column with the given identifier.
+     * 
+     * @param columnId the identifier of the column.
+     * @return the related vector if any, {@code null} otherwise.
+     */
+    public CSVColumnVector getColumn( final String columnId )
+    {
+        
+        for( CSVColumnVector column : columns )
+            if( column.getName().equals(columnId) )
+                return column;
+        
+        return null;
+        
+    }
+    
+    /**
+     * Empties the batch and returns the binder able to fill it
+     * with the values of the source columns described by the
+     * given descriptors.
+     * <p>
+     * This method is intended to be used by the {@link CSVColumnBatchReader}s.
+     * 
+     * @param descriptors the descriptor of each source column, {@code null} if not configured.
+     * @return the binder filling this batch.
+     */
+    public CSVColumnBatchBinder bind( final CSVMappingDescriptor[] descriptors )
+    {
+        
+        if( ! isBoundTo(descriptors) )
+        {
+            
+            int count = 0;
+            final int[] slots = new int[descriptors.length];
+            for( int i = 0; i < descriptors.length; ++i )
+                slots[i] = descriptors[i] != null ? count++ : -1;
+            
+            final CSVColumnVector[] columns = new CSVColumnVector[count];
+            for( int i = 0; i < descriptors.length; ++i )
+                if( slots[i] >= 0 )
+                    columns[slots[i]] = new CSVColumnVector( descriptors[i].getColumnId(),
+                                                             CSVColumnType.of(descriptors[i].getModelType()),
+                                                             capacity, offHeap );
+            
+            this.slots = slots;
+            this.columns = columns;
+            this.binder = new CSVColumnBatchBinder( this, columns, slots );
+            
+        }
+        
+        for( CSVColumnVector column : columns )
+            column.reset();
+        
+        this.size = 0;
+        this.rejected = 0;
+        
+        return binder;
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Tells if the current vectors match the given descriptors.
+     * 
+     * @param descriptors the descriptor of each source column.
+     * @return {@code true} if the vectors can be reused.
+     */
+    private boolean isBoundTo( final CSVMappingDescriptor[] descriptors )
+    {
+        
+        if( binder == null || slots.length != descriptors.length )
+            return false;
+        
+        for( int i = 0; i < descriptors.length; ++i )
+        {
+            
+            final CSVMappingDescriptor descriptor = descriptors[i];
+            if( descriptor == null )
+            {
+                if( slots[i] >= 0 ) return false;
+                continue;
+            }
+            
+            if( slots[i] < 0 ) return false;
+            
+            final CSVColumnVector column = columns[slots[i]];
+            if( ! column.getName().equals(descriptor.getColumnId())
+                || column.getType() != CSVColumnType.of(descriptor.getModelType()) )
+                return false;
+            
+        }
+        
+        return true;
+        
+    }
+    
+}
@@ -0,0 +1,152 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.batch;
+
+import org.nerd4j.csv.reader.binding.CSVToModelBinder;
+
+
+/**
+ * Implementation of the {@link CSVToModelBinder} interface
+ * that fills a {@link CSVColumnBatch}.
+ * 
+ * <p>
+ * Each record is written at the end of the batch and is added
+ * to the batch only when {@link #getModel()} is invoked, if the
+ * record is {@link #reject() rejected} its values are discarded.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVColumnBatchBinder implements CSVToModelBinder<CSVColumnBatch>
+{
+    
+    /** The batch to fill. */
+    private final CSVColumnBatch batch;
+    
+    /** The vectors of the batch. */
+    private final CSVColumnVector[] columns;
+    
+    /** The index of the vector related to each source column, -1 if not configured. */
+    private final int[] slots;
+    
+    /** The row being written. */
+    private int row;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param batch   the batch to fill.
+     * @param columns the vectors of the batch.
+     * @param slots   the index of the vector related to each source column.
+     */
+    CSVColumnBatchBinder( final CSVColumnBatch batch, final CSVColumnVector[] columns, final int[] slots )
+    {
+        
+        super();
+        
+        this.batch = batch;
+        this.columns = columns;
+        this.slots = slots;
+        
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void initModel()
+    {
+        
+        if( batch.isFull() )
+            throw new IllegalStateException( "The batch is full" );
+        
+        row = batch.size;
+        
+    }
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void fill( final int column, final Object value )
+    {
+        
+        final int slot = column < slots.length ? slots[column] : -1;
+        if( slot >= 0 )
+            columns[slot].set( row, value );
+        
+    }
+    
+    
+    /**
+     * Adds the current record to the batch.
+     * 
+     * @return the batch.
+     */
+    @Override
+    public CSVColumnBatch getModel()
+    {
+        
+        ++batch.size;
+        return batch;
+        
+    }
+    
+    
+    /* **************** */
+    /*  PUBLIC METHODS  */
+    /* **************** */
+    
+    
+    /**
+     * Discards the values of the current record.
+     * 
+     */
+    public void reject()
+    {
+        
+        discard();
+        ++batch.rejected;
+        
+    }
+    
+    /**
+     * Discards the values of the current record
+     * without counting it as rejected.
+     * 
+     */
+    public void discard()
+    {
+        
+        for( CSVColumnVector column : columns )
+            column.setNull( row );
+        
+    }
+    
+}
@@ -0,0 +1,83 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.batch;
+
+
+/**
+ * Enumerates the types of the {@link CSVColumnVector}s.
+ * <p>
+ * The type of each column is driven by the target
+ * type of the configured field converter.
+ * 
+ * @author Nerd4j Team
+ */
+public enum CSVColumnType
+{
+    
+    /** {@link Integer}, {@link Short} and {@link Byte} values stored as {@code int}. */
+    INT,
+    
+    /** {@link Long} values stored as {@code long}. */
+    LONG,
+    
+    /** {@link Double} and {@link Float} values stored as {@code double}. */
+    DOUBLE,
+    
+    /** {@link Boolean} values stored as bits. */
+    BOOLEAN,
+    
+    /** {@link String} values stored as codes of a dictionary. */
+    STRING,
+    
+    /** Any other value stored as object. */
+    OBJECT;
+    
+    
+    /**
+     * Returns the column type able to store values of the given type.
+     * 
+     * @param type the type of the values.
+     * @return the related column type.
+     */
+    public static CSVColumnType of( final Class<?> type )
+    {
+        
+        if( type == Integer.class || type == Short.class || type == Byte.class )
+            return INT;
+        
+        if( type == Long.class )
+            return LONG;
+        
+        if( type == Double.class || type == Float.class )
+            return DOUBLE;
+        
+        if( type == Boolean.class )
+            return BOOLEAN;
+        
+        if( type == String.class )
+            return STRING;
+        
+        return OBJECT;
+        
+    }
+    
+}
@@ -0,0 +1,427 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.batch;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Represents the values of a column in a {@link CSVColumnBatch}.
+ * 
+ * <p>
+ * Depending on the {@link CSVColumnType} the values are stored into
+ * an {@link IntBuffer}, a {@link LongBuffer} or a {@link DoubleBuffer}
+ * without boxing. The {@link String} values are encoded as codes of a
+ * dictionary kept across the batches, the {@code null} values are
+ * tracked by a bitmap.
+ * 
+ * <p>
+ * If the batch is on heap the buffers are backed by arrays
+ * accessible through the {@code array()} method of the buffers.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVColumnVector
+{
+    
+    /** The dictionary is reset when a new batch starts and it has more entries than this limit. */
+    private static final int DICTIONARY_LIMIT = 1 << 16;
+    
+    /** The identifier of the column. */
+    private final String name;
+    
+    /** The type of the column. */
+    private final CSVColumnType type;
+    
+    /** Bitmap of the {@code null} values. */
+    private final long[] nulls;
+    
+    /** The values of an {@link CSVColumnType#INT} column or the codes of a {@link CSVColumnType#STRING} column. */
+    private final IntBuffer ints;
+    
+    /** The values of a {@link CSVColumnType#LONG} column or the bits of a {@link CSVColumnType#BOOLEAN} column. */
+    private final LongBuffer longs;
+    
+    /** The values of a {@link CSVColumnType#DOUBLE} column. */
+    private final DoubleBuffer doubles;
+    
+    /** The values of an {@link CSVColumnType#OBJECT} column. */
+    private final Object[] objects;
+    
+    /** The dictionary of a {@link CSVColumnType#STRING} column. */
+    private final List<String> dictionary;
+    
+    /** The codes of the values in the dictionary. */
+    private final Map<String,Integer> codes;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param name     the identifier of the column.
+     * @param type     the type of the column.
+     * @param capacity the maximum number of values.
+     * @param offHeap  tells if to allocate the buffers outside the heap.
+     */
+    CSVColumnVector( final String name, final CSVColumnType type, final int capacity, final boolean offHeap )
+    {
+        
+        super();
+        
+        this.name = name;
+        this.type = type;
+        this.nulls = new long[ (capacity + 63) >>> 6 ];
+        
+        this.ints = type == CSVColumnType.INT || type == CSVColumnType.STRING
+                  ? (offHeap ? allocate(capacity << 2).asIntBuffer() : IntBuffer.allocate(capacity))
+                  : null;
+        
+        final int longCapacity = type == CSVColumnType.BOOLEAN ? nulls.length : capacity;
+        this.longs = type == CSVColumnType.LONG || type == CSVColumnType.BOOLEAN
+                   ? (offHeap ? allocate(longCapacity << 3).asLongBuffer() : LongBuffer.allocate(longCapacity))
+                   : null;
+        
+        this.doubles = type == CSVColumnType.DOUBLE
+                     ? (offHeap ? allocate(capacity << 3).asDoubleBuffer() : DoubleBuffer.allocate(capacity))
+                     : null;
+        
+        this.objects = type == CSVColumnType.OBJECT ? new Object[capacity] : null;
+        
+        this.dictionary = type == CSVColumnType.STRING ? new ArrayList<String>() : null;
+        this.codes = type == CSVColumnType.STRING ? new HashMap<String,Integer>() : null;
+        
+    }
+    
+    
+    /* ******************* */
+    /*  GETTERS & SETTERS  */
+    /* ******************* */
+    
+    
+    /**
+     * Returns the identifier of the column.
+     * 
+     * @return the identifier of the column.
+     */
+    public String getName()
+    {
+        return name;
+    }
+    
+    /**
+     * Returns the type of the column.
+     * 
+     * @return the type of the column.
+     */
+    public CSVColumnType getType()
+    {
+        return type;
+    }
+    
+    /**
+     * Returns the buffer of an {@link CSVColumnType#INT} column
+     * or the buffer of the codes of a {@link CSVColumnType#STRING} column.
+     * 
+     * @return the buffer of the values, {@code null} for other column types.
+     */
+    public IntBuffer getIntBuffer()
+    {
+        return ints;
+    }
+    
+    /**
+     * Returns the buffer of a {@link CSVColumnType#LONG} column.
+     * 
+     * @return the buffer of the values, {@code null} for other column types.
+     */
+    public LongBuffer getLongBuffer()
+    {
+        return type == CSVColumnType.LONG ? longs : null;
+    }
+    
+    /**
+     * Returns the buffer of a {@link CSVColumnType#DOUBLE} column.
+     * 
+     * @return the buffer of the values, {@code null} for other column types.
+     */
+    public DoubleBuffer getDoubleBuffer()
+    {
+        return doubles;
+    }
+    
+    /**
+     * Returns the dictionary of a {@link CSVColumnType#STRING} column.
+     * <p>
+     * The code of each value is its index in the dictionary.
+     * 
+     * @return the dictionary, {@code null} for other column types.
+     */
+    public List<String> getDictionary()
+    {
+        return dictionary != null ? Collections.unmodifiableList( dictionary ) : null;
+    }
+    
+    
+    /* **************** */
+    /*  PUBLIC METHODS  */
+    /* **************** */
+    
+    
+    /**
+     * Tells if the value at the given row is {@code null}.
+     * 
+     * @param row the row of the value.
+     * @return {@code true} if the value is {@code null}.
+     */
+    public boolean isNull( final int row )
+    {
+        
+        return (nulls[row >>> 6] & (1L << row)) != 0;
+        
+    }
+    
+    /**
+     * Returns the value of an {@link CSVColumnType#INT} column.
+     * 
+     * @param row the row of the value.
+     * @return the value at the given row.
+     */
+    public int getInt( final int row )
+    {
+        
+        return ints.get( row );
+        
+    }
+    
+    /**
+     * Returns the value of a {@link CSVColumnType#LONG} column.
+     * 
+     * @param row the row of the value.
+     * @return the value at the given row.
+     */
+    public long getLong( final int row )
+    {
+        
+        return longs.get( row );
+        
+    }
+    
+    /**
+     * Returns the value of a {@link CSVColumnType#DOUBLE} column.
+     * 
+     * @param row the row of the value.
+     * @return the value at the given row.
+     */
+    public double getDouble( final int row )
+    {
+        
+        return doubles.get( row );
+        
+    }
+    
+    /**
+     * Returns the value of a {@link CSVColumnType#BOOLEAN} column.
+     * 
+     * @param row the row of the value.
+     * @return the value at the given row.
+     */
+    public boolean getBoolean( final int row )
+    {
+        
+        return (longs.get(row >>> 6) & (1L << row)) != 0;
+        
+    }
+    
+    /**
+     * Returns the dictionary code of a {@link CSVColumnType#STRING} column.
+     * 
+     * @param row the row of the value.
+     * @return the code of the value at the given row.
+     */
+    public int getCode( final int row )
+    {
+        
+        return ints.get( row );
+        
+    }
+    
+    /**
+     * Returns the value of a {@link CSVColumnType#STRING} column.
+     * 
+     * @param row the row of the value.
+     * @return the value at the given row.
+     */
+    public String getString( final int row )
+    {
+        
+        return isNull( row ) ? null : dictionary.get( ints.get(row) );
+        
+    }
+    
+    /**
+     * Returns the value at the given row as an object
+     * regardless of the column type.
+     * 
+     * @param row the row of the value.
+     * @return the value at the given row.
+     */
+    public Object getObject( final int row )
+    {
+        
+        if( isNull(row) )
+            return null;
+        
+        switch( type )
+        {
+            
+            case INT:     return ints.get( row );
+            case LONG:    return longs.get( row );
+            case DOUBLE:  return doubles.get( row );
+            case BOOLEAN: return getBoolean( row );
+            case STRING:  return dictionary.get( ints.get(row) );
+            default:      return objects[row];
+            
+        }
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PACKAGE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Prepares the vector for a new batch.
+     * 
+     */
+    void reset()
+    {
+        
+        Arrays.fill( nulls, -1L );
+        
+        if( dictionary != null && dictionary.size() > DICTIONARY_LIMIT )
+        {
+            dictionary.clear();
+            codes.clear();
+        }
+        
+    }
+    
+    /**
+     * Marks the value at the given row as {@code null}.
+     * 
+     * @param row the row of the value.
+     */
+    void setNull( final int row )
+    {
+        
+        nulls[row >>> 6] |= 1L << row;
+        
+    }
+    
+    /**
+     * Sets the value at the given row.
+     * 
+     * @param row   the row of the value.
+     * @param value the value to set.
+     */
+    void set( final int row, final Object value )
+    {
+        
+        if( value == null )
+        {
+            setNull( row );
+            return;
+        }
+        
+        nulls[row >>> 6] &= ~(1L << row);
+        
+        switch( type )
+        {
+            
+            case INT:
+                ints.put( row, ((Number) value).intValue() );
+                break;
+                
+            case LONG:
+                longs.put( row, (Long) value );
+                break;
+                
+            case DOUBLE:
+                doubles.put( row, ((Number) value).doubleValue() );
+                break;
+                
+            case BOOLEAN:
+                final int word = row >>> 6;
+                final long bits = longs.get( word );
+                longs.put( word, (Boolean) value ? bits | (1L << row) : bits & ~(1L << row) );
+                break;
+                
+            case STRING:
+                Integer code = codes.get( value );
+                if( code == null )
+                {
+                    code = dictionary.size();
+                    dictionary.add( (String) value );
+                    codes.put( (String) value, code );
+                }
+                ints.put( row, code );
+                break;
+                
+            default:
+                objects[row] = value;
+            
+        }
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Allocates a direct buffer of the given size.
+     * 
+     * @param size the size of the buffer in bytes.
+     * @return a new direct buffer.
+     */
+    private static ByteBuffer allocate( final int size )
+    {
+        
+        return ByteBuffer.allocateDirect( size ).order( ByteOrder.nativeOrder() );
+        
+    }
+    
+}
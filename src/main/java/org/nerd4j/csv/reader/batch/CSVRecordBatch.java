@@ -0,0 +1,248 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.batch;
+
+import java.util.Arrays;
+
+import org.nerd4j.csv.CSVProcessContext;
+import org.nerd4j.csv.field.CSVFieldProcessSnapshot;
+import org.nerd4j.csv.reader.CSVReader;
+
+
+/**
+ * Represents a batch of records read from a CSV source
+ * in the same order they appear in the source.
+ * 
+ * <p>
+ * The batch is filled by {@link CSVReader#readBatch(CSVRecordBatch)}
+ * and can be reused for the following reads without allocating
+ * further memory. For each record the batch keeps the data model
+ * and an immutable snapshot of the process context: all the successful
+ * records share the same snapshot, so the memory is spent only for
+ * the records with errors.
+ * 
+ * @param <M> type of the data model representing the CSV record.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVRecordBatch<M>
+{
+    
+    /** The data model of each record, {@code null} for the records with errors. */
+    private final Object[] models;
+    
+    /** The snapshot of the process context of each record. */
+    private final CSVProcessContext[] contexts;
+    
+    /** The number of records in the batch. */
+    private int size;
+    
+    /** The number of records with errors in the batch. */
+    private int errors;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param capacity the maximum number of records in the batch.
+     */
+    public CSVRecordBatch( final int capacity )
+    {
+        
+        super();
+        
+        if( capacity <= 0 )
+            throw new IllegalArgumentException( "The batch capacity must be greater than 0" );
+        
+        this.models = new Object[capacity];
+        this.contexts = new CSVProcessContext[capacity];
+        
+        this.size = 0;
+        this.errors = 0;
+        
+    }
+    
+    
+    /* ******************* */
+    /*  GETTERS & SETTERS  */
+    /* ******************* */
+    
+    
+    /**
+     * Returns the maximum number of records in the batch.
+     * 
+     * @return the maximum number of records in the batch.
+     */
+    public int getCapacity()
+    {
+        return models.length;
+    }
+    
+    /**
+     * Returns the number of records in the batch,
+     * including the ones with errors.
+     * 
+     * @return the number of records in the batch.
+     */
+    public int getSize()
+    {
+        return size;
+    }
+    
+    /**
+     * Returns the number of records with errors in the batch.
+     * 
+     * @return the number of records with errors.
+     */
+    public int getErrorCount()
+    {
+        return errors;
+    }
+    
+    
+    /* **************** */
+    /*  PUBLIC METHODS  */
+    /* **************** */
+    
+    
+    /**
+     * Tells if the batch reached its capacity.
+     * 
+     * @return {@code true} if the batch is full.
+     */
+    public boolean isFull()
+    {
+        
+        return size >= models.length;
+        
+    }
+    
+    /**
+     * Returns the data model of the record at the given index.
+     * 
+     * @param index the index of the record in the batch.
+     * @return the data model, {@code null} if the record has errors.
+     */
+    @SuppressWarnings("unchecked")
+    public M getModel( final int index )
+    {
+        
+        checkIndex( index );
+        return (M) models[index];
+        
+    }
+    
+    /**
+     * Returns the snapshot of the process context
+     * of the record at the given index.
+     * 
+     * @param index the index of the record in the batch.
+     * @return the snapshot of the process context.
+     */
+    public CSVProcessContext getContext( final int index )
+    {
+        
+        checkIndex( index );
+        return contexts[index];
+        
+    }
+    
+    /**
+     * Tells if the record at the given index has errors.
+     * 
+     * @param index the index of the record in the batch.
+     * @return {@code true} if the record has errors.
+     */
+    public boolean isError( final int index )
+    {
+        
+        return getContext( index ).isError();
+        
+    }
+    
+    /**
+     * Adds a successfully processed record to the batch.
+     * <p>
+     * Used by the {@link CSVReader}s to fill the batch.
+     * 
+     * @param model the data model of the record.
+     */
+    public void add( final M model )
+    {
+        
+        models[size] = model;
+        contexts[size++] = CSVFieldProcessSnapshot.SUCCESS;
+        
+    }
+    
+    /**
+     * Adds a record with errors to the batch.
+     * <p>
+     * Used by the {@link CSVReader}s to fill the batch.
+     * 
+     * @param context the immutable snapshot of the process context.
+     */
+    public void addError( final CSVProcessContext context )
+    {
+        
+        models[size] = null;
+        contexts[size++] = context;
+        ++errors;
+        
+    }
+    
+    /**
+     * Removes all the records from the batch.
+     * 
+     */
+    public void clear()
+    {
+        
+        /* We release the models of the previous records. */
+        Arrays.fill( models, 0, size, null );
+        Arrays.fill( contexts, 0, size, null );
+        
+        size = 0;
+        errors = 0;
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Checks that the given index refers to a record in the batch.
+     * 
+     * @param index the index to check.
+     */
+    private void checkIndex( final int index )
+    {
+        
+        if( index < 0 || index >= size )
+            throw new IndexOutOfBoundsException( "Index: " + index + ", size: " + size );
+        
+    }
+    
+}
@@ -0,0 +1,237 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.binding;
+
+import org.nerd4j.csv.exception.CSVToModelBindingException;
+import org.nerd4j.csv.field.CSVFieldMetadata;
+import org.nerd4j.csv.field.CSVMappingDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Abstract implementation of a {@link CSVToModelBinderFactory} for
+ * data beans where the bean properties are identified by an index
+ * instead of by reflection.
+ * <p>
+ * This class is intended to be extended by the code generated
+ * at compile time by the annotation processor, where each property
+ * is written by a direct call to the related setter or field.
+ * 
+ * @param <B> type of the data bean to build.
+ * 
+ * @author Nerd4j Team
+ */
+public abstract class AbstractCSVToBeanBinderFactory<B> extends AbstractCSVToModelBinderFactory<B,Integer>
+{
+    
+    /** Internal logging system. */
+    private static final Logger logger = LoggerFactory.getLogger( AbstractCSVToBeanBinderFactory.class );
+    
+    
+    /**
+     * Default constructor.
+     * 
+     * @throws CSVToModelBindingException if the creation fails.
+     */
+    protected AbstractCSVToBeanBinderFactory()
+    throws CSVToModelBindingException
+    {
+        
+        super( Integer.class );
+        
+    }
+    
+    
+    /* ***************** */
+    /*  EXTENSION HOOKS  */
+    /* ***************** */
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Integer getMapping( final CSVMappingDescriptor mappingDescriptor )
+    {
+        
+        final int property = getProperty( mappingDescriptor.getModelId() );
+        if( property < 0 )
+            throw new NullPointerException( "There isn't a valid setter or field related to " + mappingDescriptor );
+        
+        return property;
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected CSVToModelBinder<B> getBinder( final CSVFieldMetadata<?,?>[] fieldConfs, final Integer[] fieldMapping )
+    {
+        
+        final int[] columnMapping = new int[fieldMapping.length];
+        for( int i = 0; i < fieldMapping.length; ++i )
+            columnMapping[i] = fieldMapping[i] != null ? fieldMapping[i] : -1;
+        
+        return new CSVToBeanBinder( columnMapping );
+        
+    }
+    
+    /**
+     * Returns the index of the bean property with the given name.
+     * 
+     * @param name the name of the property.
+     * @return the index of the property, {@code -1} if there is no writable property with the given name.
+     */
+    protected abstract int getProperty( String name );
+    
+    /**
+     * Creates a new instance of the data bean.
+     * 
+     * @return a new data bean.
+     */
+    protected abstract B newBean();
+    
+    /**
+     * Writes the given value into the property with the given index.
+     * 
+     * @param bean     the bean to fill.
+     * @param property the index of the property to write.
+     * @param value    the value to write.
+     */
+    protected abstract void setProperty( B bean, int property, Object value );
+    
+    
+    /* *************** */
+    /*  INNER CLASSES  */
+    /* *************** */
+    
+    
+    /**
+     * Represents an implementation of {@link CSVToModelBinder} that
+     * delegates the bean properties writing to the extension hooks.
+     * 
+     * @author Nerd4j Team
+     */
+    private class CSVToBeanBinder implements CSVToModelBinder<B>
+    {
+        
+        /** The internal instance of the data model. */
+        private B model;
+        
+        /**
+         * This array is intended to contain a mapping that associates
+         * each input column index into the related bean property index.
+         */
+        private final int[] columnMapping;
+        
+        
+        /**
+         * Constructor with parameters.
+         * 
+         * @param columnMapping mapping of the columns.
+         */
+        public CSVToBeanBinder( final int[] columnMapping )
+        {
+            
+            super();
+            
+            this.model = null;
+            this.columnMapping = columnMapping;
+            
+        }
+        
+        
+        /* ******************* */
+        /*  INTERFACE METHODS  */
+        /* ******************* */
+        
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void initModel() throws CSVToModelBindingException
+        {
+            
+            try{
+                
+                this.model = newBean();
+                
+            }catch( RuntimeException ex )
+            {
+                
+                logger.error( "Unable to instantiate the data bean", ex );
+                throw new CSVToModelBindingException( ex );
+                
+            }
+            
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void fill( int column, Object value ) throws CSVToModelBindingException
+        {
+            
+            final int property = column < columnMapping.length ? columnMapping[column] : -1;
+            if( property < 0 )
+            {
+                if( logger.isTraceEnabled() )
+                    logger.trace( "There is no valid property for column {} unable to fill value.", column );
+                
+                return;
+            }
+            
+            if( model == null )
+                throw new CSVToModelBindingException( "Try to fill a model without initialization" );
+            
+            try{
+                
+                setProperty( model, property, value );
+                
+            }catch( RuntimeException ex )
+            {
+                
+                logger.error( "Unable to write property " + property + " for column " + column, ex );
+                throw new CSVToModelBindingException( ex );
+                
+            }
+            
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public B getModel()
+        {
+            
+            return model;
+            
+        }
+        
+    }
+    
+}
@@ -0,0 +1,798 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.binding;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+
+/**
+ * Compact implementation of the {@link Map} interface used
+ * to represent a CSV record where the keys are the column names.
+ * 
+ * <p>
+ * All the records read by the same reader share the same
+ * immutable {@link Schema} that associates each key to a
+ * slot index, so each record needs only an array of values.
+ * 
+ * <p>
+ * The map implements the full {@link Map} contract: the keys not
+ * present in the schema can be put anyway and are kept into
+ * an additional map created on demand. The iteration order
+ * follows the schema and then the additional keys.
+ * 
+ * <p>
+ * This class is not thread safe.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVRecordMap extends AbstractMap<String,Object> implements Serializable
+{
+    
+    /** Serial Version UID. */
+    private static final long serialVersionUID = 1L;
+    
+    /** Marks the slots that do not contain a value. */
+    private static final Object ABSENT = new Object();
+    
+    /** The schema shared by the records. */
+    private final Schema schema;
+    
+    /** The values related to the schema keys. */
+    private final Object[] values;
+    
+    /** The entries whose key is not in the schema, created on demand. */
+    private Map<String,Object> extra;
+    
+    /** Number of schema slots containing a value. */
+    private int filled;
+    
+    /** The entry set view, created on demand. */
+    private transient Set<Map.Entry<String,Object>> entrySet;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param schema the schema shared by the records.
+     */
+    public CSVRecordMap( final Schema schema )
+    {
+        
+        super();
+        
+        if( schema == null )
+            throw new NullPointerException( "The schema is mandatory and can't be null" );
+        
+        this.schema = schema;
+        this.values = new Object[schema.keys.length];
+        Arrays.fill( this.values, ABSENT );
+        
+        this.filled = 0;
+        this.extra = null;
+        
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size()
+    {
+        
+        return extra == null ? filled : filled + extra.size();
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsKey( final Object key )
+    {
+        
+        final int slot = schema.getSlot( key );
+        if( slot >= 0 )
+            return values[slot] != ABSENT;
+        
+        return extra != null && extra.containsKey( key );
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object get( final Object key )
+    {
+        
+        final int slot = schema.getSlot( key );
+        if( slot >= 0 )
+            return unmask( values[slot] );
+        
+        return extra != null ? extra.get( key ) : null;
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object put( final String key, final Object value )
+    {
+        
+        final int slot = schema.getSlot( key );
+        if( slot >= 0 )
+            return setSlot( slot, value );
+        
+        if( key == null )
+            throw new NullPointerException( "The record keys can't be null" );
+        
+        if( extra == null )
+            extra = new LinkedHashMap<String,Object>();
+        
+        return extra.put( key, value );
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object remove( final Object key )
+    {
+        
+        final int slot = schema.getSlot( key );
+        if( slot >= 0 )
+            return clearSlot( slot );
+        
+        return extra != null ? extra.remove( key ) : null;
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear()
+    {
+        
+        Arrays.fill( values, ABSENT );
+        filled = 0;
+        extra = null;
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Map.Entry<String,Object>> entrySet()
+    {
+        
+        if( entrySet == null )
+            entrySet = new EntrySet();
+        
+        return entrySet;
+        
+    }
+    
+    
+    /* **************** */
+    /*  PUBLIC METHODS  */
+    /* **************** */
+    
+    
+    /**
+     * Returns the schema shared by the records.
+     * 
+     * @return the schema of the record.
+     */
+    public Schema getSchema()
+    {
+        
+        return schema;
+        
+    }
+    
+    /**
+     * Sets the value of the given column as defined
+     * by the schema without looking up the key.
+     * 
+     * @param column index of the column in the CSV source.
+     * @param value  the value to set.
+     * @return {@code false} if the schema has no key for the column.
+     */
+    public boolean setColumn( final int column, final Object value )
+    {
+        
+        final int slot = schema.getColumnSlot( column );
+        if( slot < 0 ) return false;
+        
+        setSlot( slot, value );
+        return true;
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Sets the value of the given slot.
+     * 
+     * @param slot  the slot to set.
+     * @param value the value to set.
+     * @return the previous value if any.
+     */
+    private Object setSlot( final int slot, final Object value )
+    {
+        
+        final Object previous = values[slot];
+        if( previous == ABSENT ) ++filled;
+        
+        values[slot] = value;
+        return unmask( previous );
+        
+    }
+    
+    /**
+     * Clears the value of the given slot.
+     * 
+     * @param slot the slot to clear.
+     * @return the previous value if any.
+     */
+    private Object clearSlot( final int slot )
+    {
+        
+        final Object previous = values[slot];
+        if( previous != ABSENT ) --filled;
+        
+        values[slot] = ABSENT;
+        return unmask( previous );
+        
+    }
+    
+    /**
+     * Returns {@code null} if the given value is absent.
+     * 
+     * @param value the value to unmask.
+     * @return the actual value.
+     */
+    private static Object unmask( final Object value )
+    {
+        
+        return value == ABSENT ? null : value;
+        
+    }
+    
+    /**
+     * Replaces the marker of the absent values before serialization
+     * because the marker instance is not preserved.
+     * 
+     * @return the object to serialize.
+     */
+    private Object writeReplace()
+    {
+        
+        final Map<String,Object> copy = new LinkedHashMap<String,Object>( this );
+        return new SerializedForm( schema, copy );
+        
+    }
+    
+    
+    /* *************** */
+    /*  INNER CLASSES  */
+    /* *************** */
+    
+    
+    /**
+     * Immutable schema shared by all the records read by
+     * the same reader. It associates each key to a slot
+     * index and each CSV source column to the related slot.
+     * 
+     * @author Nerd4j Team
+     */
+    public static final class Schema implements Serializable
+    {
+        
+        /** Serial Version UID. */
+        private static final long serialVersionUID = 1L;
+        
+        /** The keys in slot order. */
+        private final String[] keys;
+        
+        /** Associates each key to the related slot. */
+        private final Map<String,Integer> slots;
+        
+        /** Associates each CSV source column to the related slot, -1 if none. */
+        private final int[] columnSlots;
+        
+        
+        /**
+         * Constructor with parameters.
+         * <p>
+         * The column mapping associates each CSV source column index
+         * to the related key, {@code null} if the column is not mapped.
+         * If more columns have the same key they share the same slot.
+         * 
+         * @param columnMapping the key related to each column.
+         */
+        public Schema( final String[] columnMapping )
+        {
+            
+            super();
+            
+            if( columnMapping == null )
+                throw new NullPointerException( "The column mapping is mandatory and can't be null" );
+            
+            final Map<String,Integer> slots = new HashMap<String,Integer>();
+            this.columnSlots = new int[columnMapping.length];
+            
+            for( int i = 0; i < columnMapping.length; ++i )
+            {
+                final String key = columnMapping[i];
+                if( key == null )
+                {
+                    this.columnSlots[i] = -1;
+                    continue;
+                }
+                
+                Integer slot = slots.get( key );
+                if( slot == null )
+                {
+                    slot = slots.size();
+                    slots.put( key, slot );
+                }
+                
+                this.columnSlots[i] = slot;
+            }
+            
+            this.slots = slots;
+            this.keys = new String[slots.size()];
+            for( Map.Entry<String,Integer> entry : slots.entrySet() )
+                this.keys[entry.getValue()] = entry.getKey();
+            
+        }
+        
+        
+        /* **************** */
+        /*  PUBLIC METHODS  */
+        /* **************** */
+        
+        
+        /**
+         * Returns the number of keys in the schema.
+         * 
+         * @return the number of keys.
+         */
+        public int size()
+        {
+            
+            return keys.length;
+            
+        }
+        
+        /**
+         * Returns the key in the given slot.
+         * 
+         * @param slot the slot index.
+         * @return the related key.
+         */
+        public String getKey( final int slot )
+        {
+            
+            return keys[slot];
+            
+        }
+        
+        /**
+         * Returns the slot related to the given key.
+         * 
+         * @param key the key to look for.
+         * @return the related slot, -1 if the key is not in the schema.
+         */
+        public int getSlot( final Object key )
+        {
+            
+            final Integer slot = key != null ? slots.get( key ) : null;
+            return slot != null ? slot : -1;
+            
+        }
+        
+        /**
+         * Returns the slot related to the given CSV source column.
+         * 
+         * @param column the index of the column.
+         * @return the related slot, -1 if the column is not mapped.
+         */
+        public int getColumnSlot( final int column )
+        {
+            
+            return column >= 0 && column < columnSlots.length ? columnSlots[column] : -1;
+            
+        }
+        
+    }
+    
+    /**
+     * Entry set view of the record.
+     * 
+     * @author Nerd4j Team
+     */
+    private final class EntrySet extends AbstractSet<Map.Entry<String,Object>>
+    {
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int size()
+        {
+            
+            return CSVRecordMap.this.size();
+            
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void clear()
+        {
+            
+            CSVRecordMap.this.clear();
+            
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Iterator<Map.Entry<String,Object>> iterator()
+        {
+            
+            return new EntryIterator();
+            
+        }
+        
+    }
+    
+    /**
+     * Iterator over the entries of the record,
+     * first the schema slots then the additional keys.
+     * 
+     * @author Nerd4j Team
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<String,Object>>
+    {
+        
+        /** The next slot to return, {@code values.length} if the slots are over. */
+        private int next;
+        
+        /** The last returned slot, -1 if none or if removed. */
+        private int last;
+        
+        /** Iterator over the additional entries, created when the slots are over. */
+        private Iterator<Map.Entry<String,Object>> extraIterator;
+        
+        
+        /**
+         * Default constructor.
+         * 
+         */
+        public EntryIterator()
+        {
+            
+            super();
+            
+            this.last = -1;
+            this.next = advance( 0 );
+            this.extraIterator = null;
+            
+        }
+        
+        
+        /* ******************* */
+        /*  INTERFACE METHODS  */
+        /* ******************* */
+        
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean hasNext()
+        {
+            
+            if( next < values.length ) return true;
+            return getExtraIterator().hasNext();
+            
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Map.Entry<String,Object> next()
+        {
+            
+            if( next < values.length )
+            {
+                last = next;
+                next = advance( next + 1 );
+                return new SlotEntry( last );
+            }
+            
+            last = -1;
+            if( ! getExtraIterator().hasNext() )
+                throw new NoSuchElementException();
+            
+            return extraIterator.next();
+            
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void remove()
+        {
+            
+            if( last >= 0 )
+            {
+                if( values[last] == ABSENT )
+                    throw new IllegalStateException();
+                
+                clearSlot( last );
+                last = -1;
+            }
+            else if( extraIterator != null )
+                extraIterator.remove();
+            else
+                throw new IllegalStateException();
+            
+        }
+        
+        
+        /* ***************** */
+        /*  PRIVATE METHODS  */
+        /* ***************** */
+        
+        
+        /**
+         * Returns the first filled slot starting from the given one.
+         * 
+         * @param from the slot to start from.
+         * @return the first filled slot or {@code values.length} if none.
+         */
+        private int advance( final int from )
+        {
+            
+            int slot = from;
+            while( slot < values.length && values[slot] == ABSENT )
+                ++slot;
+            
+            return slot;
+            
+        }
+        
+        /**
+         * Returns the iterator over the additional entries.
+         * 
+         * @return the iterator over the additional entries.
+         */
+        private Iterator<Map.Entry<String,Object>> getExtraIterator()
+        {
+            
+            if( extraIterator == null )
+                extraIterator = extra != null
+                              ? extra.entrySet().iterator()
+                              : Collections.<Map.Entry<String,Object>>emptyIterator();
+            
+            return extraIterator;
+            
+        }
+        
+    }
+    
+    /**
+     * Entry backed by a schema slot of the record.
+     * 
+     * @author Nerd4j Team
+     */
+    private final class SlotEntry implements Map.Entry<String,Object>
+    {
+        
+        /** The slot of the entry. */
+        private final int slot;
+        
+        
+        /**
+         * Constructor with parameters.
+         * 
+         * @param slot the slot of the entry.
+         */
+        public SlotEntry( final int slot )
+        {
+            
+            super();
+            
+            this.slot = slot;
+            
+        }
+        
+        
+        /* ******************* */
+        /*  INTERFACE METHODS  */
+        /* ******************* */
+        
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String getKey()
+        {
+            
+            return schema.keys[slot];
+            
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Object getValue()
+        {
+            
+            return unmask( values[slot] );
+            
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Object setValue( final Object value )
+        {
+            
+            return setSlot( slot, value );
+            
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals( final Object other )
+        {
+            
+            if( ! (other instanceof Map.Entry) ) return false;
+            
+            final Map.Entry<?,?> entry = (Map.Entry<?,?>) other;
+            final Object value = getValue();
+            return getKey().equals( entry.getKey() )
+                   && (value == null ? entry.getValue() == null : value.equals(entry.getValue()));
+            
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode()
+        {
+            
+            final Object value = getValue();
+            return getKey().hashCode() ^ (value == null ? 0 : value.hashCode());
+            
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString()
+        {
+            
+            return getKey() + "=" + getValue();
+            
+        }
+        
+    }
+    
+    /**
+     * Serialized form of the record made of the
+     * schema and the entries in iteration order.
+     * 
+     * @author Nerd4j Team
+     */
+    private static final class SerializedForm implements Serializable
+    {
+        
+        /** Serial Version UID. */
+        private static final long serialVersionUID = 1L;
+        
+        /** The schema of the record. */
+        private final Schema schema;
+        
+        /** The entries of the record. */
+        private final Map<String,Object> entries;
+        
+        
+        /**
+         * Constructor with parameters.
+         * 
+         * @param schema  the schema of the record.
+         * @param entries the entries of the record.
+         */
+        public SerializedForm( final Schema schema, final Map<String,Object> entries )
+        {
+            
+            super();
+            
+            this.schema = schema;
+            this.entries = entries;
+            
+        }
+        
+        
+        /* ***************** */
+        /*  PRIVATE METHODS  */
+        /* ***************** */
+        
+        
+        /**
+         * Rebuilds the record after deserialization.
+         * 
+         * @return the rebuilt record.
+         */
+        private Object readResolve()
+        {
+            
+            final CSVRecordMap record = new CSVRecordMap( schema );
+            record.putAll( entries );
+            return record;
+            
+        }
+        
+    }
+    
+}
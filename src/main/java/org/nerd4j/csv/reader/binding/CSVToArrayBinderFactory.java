@@ -21,6 +21,8 @@
  */
 package org.nerd4j.csv.reader.binding;
 
+import java.util.Arrays;
+
 import org.nerd4j.csv.exception.CSVToModelBindingException;
 import org.nerd4j.csv.field.CSVFieldMetadata;
 import org.nerd4j.csv.field.CSVMappingDescriptor;
@@ -96,7 +98,7 @@ public final class CSVToArrayBinderFactory extends AbstractCSVToModelBinderFacto
      * 
      * @author Nerd4j Team
      */
-    private class CSVToArrayBinder implements CSVToModelBinder<Object[]>
+    private class CSVToArrayBinder implements CSVToModelReusableBinder<Object[]>
     {
         
         /** The size of the array representing the CSV record. */
@@ -147,6 +149,20 @@ public final class CSVToArrayBinderFactory extends AbstractCSVToModelBinderFacto
             
         }
         
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void resetModel()
+        {
+            
+            if( model == null )
+                initModel();
+            else
+                Arrays.fill( model, null );
+            
+        }
+        
         /**
          * {@inheritDoc}
          */
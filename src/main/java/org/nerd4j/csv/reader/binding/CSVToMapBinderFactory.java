@@ -21,7 +21,6 @@
  */
 package org.nerd4j.csv.reader.binding;
 
-import java.util.HashMap;
 import java.util.Map;
 
 import org.nerd4j.csv.exception.CSVToModelBindingException;
@@ -36,6 +35,11 @@ import org.slf4j.LoggerFactory;
  * {@link CSVToModelBinder}s which populates {@link Map}s that
  * associates to column names the related values.
  * 
+ * <p>
+ * The returned maps are {@link CSVRecordMap}s sharing the
+ * same {@link CSVRecordMap.Schema} built once for each binder,
+ * so each record needs only an array of values.
+ * 
  * @author Nerd4j Team
  */
 public final class CSVToMapBinderFactory extends AbstractCSVToModelBinderFactory<Map<String,Object>,String>
@@ -81,8 +85,7 @@ public final class CSVToMapBinderFactory extends AbstractCSVToModelBinderFactory
     protected CSVToModelBinder<Map<String,Object>> getBinder( final CSVFieldMetadata<?,?>[] fieldConfs, final String[] fieldMapping )
     {
         
-        final int arraySize = fieldConfs == null ? 0 : fieldConfs.length;
-        return new CSVToMapBinder( arraySize, fieldMapping );
+        return new CSVToMapBinder( new CSVRecordMap.Schema(fieldMapping) );
         
     }
     
@@ -98,36 +101,31 @@ public final class CSVToMapBinderFactory extends AbstractCSVToModelBinderFactory
      * 
      * @author Nerd4j Team
      */
-    private class CSVToMapBinder implements CSVToModelBinder<Map<String,Object>>
+    private class CSVToMapBinder implements CSVToModelReusableBinder<Map<String,Object>>
     {
         
-        /** The size of the map representing the CSV record. */
-        private final int mapSize;
-        
         /**
-         * This array is intended to contain a mapping that associates
+         * The schema shared by all the records that associates
          * each input column index into the related output map key.
          */
-        private final String[] columnMapping;
+        private final CSVRecordMap.Schema schema;
         
         /** The internal instance of the data model. */
-        private Map<String,Object> model;
+        private CSVRecordMap model;
 
         
         /**
          * Constructor with parameters.
          * 
-         * @param mapSize size of the map representing the CSV record.
-         * @param columnMapping mapping of the columns.
+         * @param schema the schema shared by the records.
          */
-        public CSVToMapBinder( final int mapSize, final String[] columnMapping )
+        public CSVToMapBinder( final CSVRecordMap.Schema schema )
         {
             
             super();
             
             this.model = null;
-            this.mapSize = mapSize;
-            this.columnMapping = columnMapping;
+            this.schema = schema;
             
         }
         
@@ -145,7 +143,21 @@ public final class CSVToMapBinderFactory extends AbstractCSVToModelBinderFactory
         {
             
             logger.debug( "Creating new empty map." );
-            this.model = new HashMap<String,Object>( mapSize );
+            this.model = new CSVRecordMap( schema );
+            
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void resetModel()
+        {
+            
+            if( model == null )
+                initModel();
+            else
+                model.clear();
             
         }
         
@@ -157,18 +169,13 @@ public final class CSVToMapBinderFactory extends AbstractCSVToModelBinderFactory
         throws CSVToModelBindingException
         {
 
-            final String key = column < columnMapping.length
-                             ? columnMapping[column]
-                             : null;
-
             try{
                             
-                if( key != null )
+                if( model.setColumn(column, value) )
                 {
                     if( logger.isDebugEnabled() )
-                        logger.debug( "Fill value {} for column {} into map using key {}.", value, column, key );
-                        
-                    model.put( key, value );
+                        logger.debug( "Fill value {} for column {} into map using key {}.",
+                                      value, column, schema.getKey(schema.getColumnSlot(column)) );
                 }
                 else
                 {
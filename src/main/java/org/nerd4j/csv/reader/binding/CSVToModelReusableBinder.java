@@ -0,0 +1,61 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.binding;
+
+import org.nerd4j.csv.exception.CSVToModelBindingException;
+
+
+/**
+ * Represents a {@link CSVToModelBinder} able to fill
+ * again the same data model instance for each record.
+ * 
+ * <p>
+ * This allows the readers working in model reuse mode to
+ * read a CSV source without creating a new model per record.
+ * 
+ * <p>
+ * <b>Lifetime contract:</b> after {@link #resetModel()} the model
+ * returned by the previous invocation of {@link #getModel()}
+ * is the same instance and its content is lost, so a model
+ * must be used or copied before the next record is read.
+ * 
+ * @param <M> type of the data model representing the CSV record.
+ * 
+ * @author Nerd4j Team
+ */
+public interface CSVToModelReusableBinder<M> extends CSVToModelBinder<M>
+{
+
+    /**
+     * Clears the current model to be filled with new data by the
+     * method {@link CSVToModelBinder#fill(int,Object)}.
+     * <p>
+     * After this method the model is in the same state of a new empty
+     * model and {@link #getModel()} returns the same instance as before.
+     * If the model has never been initialized a new one is created
+     * as by {@link #initModel()}.
+     * 
+     * @throws CSVToModelBindingException if the reset of the model fails.
+     */
+    public void resetModel() throws CSVToModelBindingException;
+    
+}
@@ -0,0 +1,328 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.diff;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+import org.nerd4j.csv.exception.CSVConfigurationException;
+import org.nerd4j.csv.parser.CSVParser;
+import org.nerd4j.csv.parser.CSVToken;
+import org.nerd4j.csv.reader.CSVReaderMetadataFactory;
+import org.nerd4j.csv.reader.CSVSource;
+import org.nerd4j.csv.writer.CSVWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Detects the records inserted, deleted and changed between
+ * two snapshots of the same CSV data set.
+ * 
+ * <p>
+ * The records are identified by a set of key columns and compared
+ * on their raw content, as returned by the parser, without any
+ * conversion and without creating a data model. The comparison
+ * is performed in a streaming fashion:
+ * <ol>
+ *  <li>The previous snapshot is read and for each record only the key
+ *      and a 64 bit hash of the whole record are kept in memory.</li>
+ *  <li>The current snapshot is read and each record is matched against
+ *      the stored keys: unknown keys are inserted records and keys with
+ *      a different hash are changed records.</li>
+ *  <li>The keys never matched are deleted records.</li>
+ * </ol>
+ * The memory needed is proportional to the size of the keys
+ * plus 16 bytes per record of the previous snapshot.
+ * 
+ * <p>
+ * The changes are written to a {@link CSVWriter} bound to arrays: the
+ * first element of each array is the {@link CSVChangeType} name followed
+ * by the record fields. For inserted and changed records the fields are
+ * the ones in the current snapshot, for deleted records only the key
+ * fields are available (in their original positions).
+ * 
+ * <p>
+ * Both the snapshots are opened using the same reader configuration,
+ * they are expected to have the same columns and the key columns must
+ * be configured in the reader configuration.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVDiff
+{
+    
+    /** Internal logging system. */
+    private static final Logger logger = LoggerFactory.getLogger( CSVDiff.class );
+    
+    /** The {@code Factory} for the reader meta-data model. */
+    private final CSVReaderMetadataFactory<?> metadataFactory;
+    
+    /** The identifiers of the key columns. */
+    private final String[] keyColumnIds;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param metadataFactory the {@code Factory} of meta-data that describes how to read the snapshots.
+     * @param keyColumnIds    the identifiers of the columns that identify each record.
+     */
+    public CSVDiff( final CSVReaderMetadataFactory<?> metadataFactory, final String... keyColumnIds )
+    {
+        
+        super();
+        
+        if( metadataFactory == null )
+            throw new CSVConfigurationException( "The CSV reader configuration is mandatory" );
+        
+        if( keyColumnIds == null || keyColumnIds.length == 0 )
+            throw new CSVConfigurationException( "At least one key column is mandatory" );
+        
+        this.metadataFactory = metadataFactory;
+        this.keyColumnIds = keyColumnIds.clone();
+        
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * Compares the given snapshot files and writes the changes.
+     * 
+     * @param previous the previous snapshot.
+     * @param current  the current snapshot.
+     * @param writer   the writer where to write the changes, can be {@code null}.
+     * @return the summary of the comparison.
+     * @throws IOException if an error occurs reading the snapshots or writing the changes.
+     */
+    public CSVDiffResult diff( final File previous, final File current, final CSVWriter<Object[]> writer )
+    throws IOException
+    {
+        
+        try( Reader previousReader = new FileReader(previous);
+             Reader currentReader = new FileReader(current) )
+        {
+            return diff( previousReader, currentReader, writer );
+        }
+        
+    }
+    
+    
+    /**
+     * Compares the given snapshots and writes the changes.
+     * <p>
+     * The given sources are read until the end but not closed.
+     * 
+     * @param previous the previous snapshot.
+     * @param current  the current snapshot.
+     * @param writer   the writer where to write the changes, can be {@code null}.
+     * @return the summary of the comparison.
+     * @throws IOException if an error occurs reading the snapshots or writing the changes.
+     */
+    public CSVDiffResult diff( final Reader previous, final Reader current, final CSVWriter<Object[]> writer )
+    throws IOException
+    {
+        
+        final CSVDiffResult result = new CSVDiffResult();
+        final RecordBuffer record = new RecordBuffer();
+        final DiffTable table = new DiffTable( keyColumnIds.length );
+        
+        /* First we collect the keys of the previous snapshot. */
+        final CSVSource previousSource = CSVSource.open( previous, metadataFactory.getCSVReaderMetadata() );
+        final int[] previousKeys = getKeyFields( previousSource );
+        final CSVParser previousParser = previousSource.getParser();
+        
+        while( readRecord(previousParser, record) )
+            if( ! table.put(record, previousKeys, record.hash(previousKeys), record.hashAll()) )
+                ++result.duplicatedKeys;
+        
+        logger.debug( "Collected {} keys from the previous snapshot", table.size() );
+        
+        /* Then we match the records of the current snapshot. */
+        final CSVSource currentSource = CSVSource.open( current, metadataFactory.getCSVReaderMetadata() );
+        if( previousSource.getHeader() != null && currentSource.getHeader() != null
+            && ! Arrays.equals(previousSource.getHeader(), currentSource.getHeader()) )
+            throw new CSVConfigurationException( "Unable to compare snapshots with different headers" );
+        
+        final int[] currentKeys = getKeyFields( currentSource );
+        final CSVParser currentParser = currentSource.getParser();
+        
+        while( readRecord(currentParser, record) )
+        {
+            
+            final int slot = table.find( record, currentKeys, record.hash(currentKeys) );
+            if( slot < 0 )
+            {
+                ++result.inserted;
+                write( writer, CSVChangeType.INSERTED, record );
+            }
+            else if( ! table.match(slot) )
+                ++result.duplicatedKeys;
+            else if( table.recordHash(slot) != record.hashAll() )
+            {
+                ++result.changed;
+                write( writer, CSVChangeType.CHANGED, record );
+            }
+            else
+                ++result.unchanged;
+            
+        }
+        
+        /* Finally the keys never matched are the deleted records. */
+        final int width = previousSource.getHeader() != null
+                        ? previousSource.getHeader().length
+                        : max( previousKeys ) + 1;
+        
+        for( int slot = table.nextUnmatched(0); slot >= 0; slot = table.nextUnmatched(slot + 1) )
+        {
+            
+            ++result.deleted;
+            if( writer == null ) continue;
+            
+            final String[] key = table.key( slot );
+            final Object[] change = new Object[ width + 1 ];
+            change[0] = CSVChangeType.DELETED.name();
+            for( int i = 0; i < key.length; ++i )
+                change[ previousKeys[i] + 1 ] = key[i];
+            
+            writer.writeModel( change );
+            
+        }
+        
+        logger.debug( "Snapshot comparison completed: {}", result );
+        
+        return result;
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Reads the next non empty record into the given buffer.
+     * 
+     * @param parser the CSV parser.
+     * @param record the buffer to fill.
+     * @return {@code false} if the end of data has been reached.
+     * @throws IOException if an error occurs reading the source.
+     */
+    private boolean readRecord( final CSVParser parser, final RecordBuffer record )
+    throws IOException
+    {
+        
+        record.clear();
+        
+        CSVToken token;
+        do{
+            
+            token = parser.read();
+            
+        }while( token == CSVToken.END_OF_RECORD );
+        
+        if( token == CSVToken.END_OF_DATA )
+            return false;
+        
+        while( token == CSVToken.FIELD )
+        {
+            record.add( parser.getCurrentChars() );
+            token = parser.read();
+        }
+        
+        return true;
+        
+    }
+    
+    
+    /**
+     * Writes the given change.
+     * 
+     * @param writer the writer where to write the change.
+     * @param type   the change type.
+     * @param record the record related to the change.
+     * @throws IOException if an error occurs writing the change.
+     */
+    private void write( final CSVWriter<Object[]> writer, final CSVChangeType type, final RecordBuffer record )
+    throws IOException
+    {
+        
+        if( writer == null ) return;
+        
+        final Object[] change = new Object[ record.size() + 1 ];
+        change[0] = type.name();
+        for( int i = 0; i < record.size(); ++i )
+            change[i + 1] = record.get( i );
+        
+        writer.writeModel( change );
+        
+    }
+    
+    
+    /**
+     * Returns the source column indexes of the key columns.
+     * 
+     * @param source the opened CSV source.
+     * @return the key column indexes.
+     */
+    private int[] getKeyFields( final CSVSource source )
+    {
+        
+        final int[] keyFields = new int[ keyColumnIds.length ];
+        for( int i = 0; i < keyFields.length; ++i )
+        {
+            keyFields[i] = source.getColumnIndex( keyColumnIds[i] );
+            if( keyFields[i] < 0 )
+                throw new CSVConfigurationException( "The key column " + keyColumnIds[i] + " is not configured or not present in the CSV source" );
+        }
+        
+        return keyFields;
+        
+    }
+    
+    
+    /**
+     * Returns the maximum value in the given array.
+     * 
+     * @param values the values to check.
+     * @return the maximum value.
+     */
+    private static int max( final int[] values )
+    {
+        
+        int max = values[0];
+        for( int value : values )
+            if( value > max ) max = value;
+        
+        return max;
+        
+    }
+    
+}
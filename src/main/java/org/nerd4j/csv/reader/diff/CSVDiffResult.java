@@ -0,0 +1,109 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.diff;
+
+
+/**
+ * Represents the summary of a comparison performed by {@link CSVDiff}.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVDiffResult
+{
+    
+    /** Number of records only in the current snapshot. */
+    long inserted;
+    
+    /** Number of records only in the previous snapshot. */
+    long deleted;
+    
+    /** Number of records changed between the snapshots. */
+    long changed;
+    
+    /** Number of records equal in both snapshots. */
+    long unchanged;
+    
+    /** Number of records having a key already found in the same snapshot. */
+    long duplicatedKeys;
+    
+    
+    /**
+     * Default constructor.
+     */
+    CSVDiffResult()
+    {
+        
+        super();
+        
+    }
+    
+    
+    /* ******************* */
+    /*  GETTERS & SETTERS  */
+    /* ******************* */
+    
+    
+    public long getInserted()
+    {
+        return inserted;
+    }
+    
+    public long getDeleted()
+    {
+        return deleted;
+    }
+    
+    public long getChanged()
+    {
+        return changed;
+    }
+    
+    public long getUnchanged()
+    {
+        return unchanged;
+    }
+    
+    public long getDuplicatedKeys()
+    {
+        return duplicatedKeys;
+    }
+    
+    
+    /* ***************** */
+    /*  UTILITY METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        
+        return "CSVDiffResult [inserted=" + inserted + ", deleted=" + deleted
+               + ", changed=" + changed + ", unchanged=" + unchanged
+               + ", duplicatedKeys=" + duplicatedKeys + "]";
+        
+    }
+    
+}
@@ -0,0 +1,463 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.diff;
+
+import java.util.Arrays;
+
+
+/**
+ * Open addressing hash table that associates the key of each record
+ * of a CSV snapshot with the hash of the whole record.
+ * 
+ * <p>
+ * The keys are stored as characters in a chunked arena and each slot
+ * keeps only a reference into the arena and the record hash, so the
+ * memory needed is proportional to the size of the keys plus 16 bytes
+ * per record. The reference embeds some bits of the key hash to avoid
+ * most of the key comparisons.
+ * 
+ * <p>
+ * This class is intended for internal use only.
+ * 
+ * @author Nerd4j Team
+ */
+final class DiffTable
+{
+    
+    /** Size of each chunk of the key arena. */
+    private static final int CHUNK_SIZE = 1 << 20;
+    
+    /** Maximum length of a key field. */
+    private static final int MAX_FIELD_LENGTH = Character.MAX_VALUE;
+    
+    /** Initial capacity of the table. */
+    private static final int INITIAL_CAPACITY = 1024;
+    
+    /** Mask of the key hash bits stored into the references. */
+    private static final long TAG_MASK = 0xFFFFL;
+    
+    
+    /** Number of fields in each key. */
+    private final int keyFieldCount;
+    
+    /** The chunks of the key arena. */
+    private char[][] chunks;
+    
+    /** Index of the chunk currently filled. */
+    private int chunk;
+    
+    /** First free position in the current chunk. */
+    private int position;
+    
+    /** Reference to the key of each slot, {@code 0} means the slot is free. */
+    private long[] references;
+    
+    /** Hash of the record related to each slot. */
+    private long[] recordHashes;
+    
+    /** Tells which slots have been matched. */
+    private long[] matched;
+    
+    /** Number of slots, always a power of 2. */
+    private int capacity;
+    
+    /** Number of keys in the table. */
+    private int size;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param keyFieldCount number of fields in each key.
+     */
+    DiffTable( final int keyFieldCount )
+    {
+        
+        super();
+        
+        this.keyFieldCount = keyFieldCount;
+        
+        this.chunks = new char[16][];
+        this.chunks[0] = new char[CHUNK_SIZE];
+        this.chunk = 0;
+        
+        /* The first position is never used so no reference is 0. */
+        this.position = 1;
+        
+        allocate( INITIAL_CAPACITY );
+        
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * Associates the key of the given record with the given
+     * record hash. If the key is already present the hash is
+     * replaced and {@code false} is returned.
+     * 
+     * @param record     the record to put.
+     * @param keyFields  the indexes of the key fields.
+     * @param keyHash    the hash of the key fields.
+     * @param recordHash the hash of the whole record.
+     * @return {@code false} if the key was already present.
+     */
+    boolean put( final RecordBuffer record, final int[] keyFields,
+                 final long keyHash, final long recordHash )
+    {
+        
+        final int slot = find( record, keyFields, keyHash );
+        if( slot >= 0 )
+        {
+            recordHashes[slot] = recordHash;
+            return false;
+        }
+        
+        if( size >= (capacity >> 1) + (capacity >> 2) )
+            rehash( capacity << 1 );
+        
+        final int free = freeSlot( keyHash );
+        references[free] = store( record, keyFields, keyHash );
+        recordHashes[free] = recordHash;
+        ++size;
+        
+        return true;
+        
+    }
+    
+    
+    /**
+     * Returns the slot related to the key of the given record.
+     * 
+     * @param record    the record to search.
+     * @param keyFields the indexes of the key fields.
+     * @param keyHash   the hash of the key fields.
+     * @return the related slot or {@code -1} if the key is not present.
+     */
+    int find( final RecordBuffer record, final int[] keyFields, final long keyHash )
+    {
+        
+        final long tag = keyHash & TAG_MASK;
+        final int mask = capacity - 1;
+        
+        int slot = (int) (keyHash >>> 16) & mask;
+        long reference;
+        while( (reference = references[slot]) != 0 )
+        {
+            
+            if( (reference & TAG_MASK) == tag && sameKey(reference, record, keyFields) )
+                return slot;
+            
+            slot = (slot + 1) & mask;
+            
+        }
+        
+        return -1;
+        
+    }
+    
+    
+    /**
+     * Returns the record hash related to the given slot.
+     * 
+     * @param slot the slot.
+     * @return the related record hash.
+     */
+    long recordHash( final int slot )
+    {
+        
+        return recordHashes[slot];
+        
+    }
+    
+    
+    /**
+     * Marks the given slot as matched.
+     * 
+     * @param slot the slot to mark.
+     * @return {@code false} if the slot was already matched.
+     */
+    boolean match( final int slot )
+    {
+        
+        final long bit = 1L << slot;
+        final int word = slot >>> 6;
+        
+        if( (matched[word] & bit) != 0 )
+            return false;
+        
+        matched[word] |= bit;
+        return true;
+        
+    }
+    
+    
+    /**
+     * Returns the first slot, starting from the given one,
+     * containing a key never matched.
+     * 
+     * @param from the slot to start from.
+     * @return the first unmatched slot or {@code -1} if none.
+     */
+    int nextUnmatched( final int from )
+    {
+        
+        for( int slot = from; slot < capacity; ++slot )
+            if( references[slot] != 0 && (matched[slot >>> 6] & (1L << slot)) == 0 )
+                return slot;
+        
+        return -1;
+        
+    }
+    
+    
+    /**
+     * Returns the key fields stored in the given slot.
+     * 
+     * @param slot the slot.
+     * @return the key fields, empty fields are {@code null}.
+     */
+    String[] key( final int slot )
+    {
+        
+        return load( references[slot] );
+        
+    }
+    
+    
+    /**
+     * Returns the number of keys in the table.
+     * 
+     * @return number of keys.
+     */
+    int size()
+    {
+        
+        return size;
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Allocates the slots for the given capacity.
+     * 
+     * @param newCapacity the new capacity.
+     */
+    private void allocate( final int newCapacity )
+    {
+        
+        this.capacity = newCapacity;
+        this.references = new long[newCapacity];
+        this.recordHashes = new long[newCapacity];
+        this.matched = new long[(newCapacity + 63) >>> 6];
+        
+    }
+    
+    
+    /**
+     * Moves all the keys in a new table with the given capacity.
+     * The matched flags are not preserved, so the table is
+     * expected to grow only before any match.
+     * 
+     * @param newCapacity the new capacity.
+     */
+    private void rehash( final int newCapacity )
+    {
+        
+        final long[] oldReferences = references;
+        final long[] oldRecordHashes = recordHashes;
+        
+        allocate( newCapacity );
+        
+        for( int i = 0; i < oldReferences.length; ++i )
+            if( oldReferences[i] != 0 )
+            {
+                final int slot = freeSlot( hashStoredKey(oldReferences[i]) );
+                references[slot] = oldReferences[i];
+                recordHashes[slot] = oldRecordHashes[i];
+            }
+        
+    }
+    
+    
+    /**
+     * Returns the first free slot for the given key hash.
+     * 
+     * @param keyHash the key hash.
+     * @return a free slot.
+     */
+    private int freeSlot( final long keyHash )
+    {
+        
+        final int mask = capacity - 1;
+        
+        int slot = (int) (keyHash >>> 16) & mask;
+        while( references[slot] != 0 )
+            slot = (slot + 1) & mask;
+        
+        return slot;
+        
+    }
+    
+    
+    /**
+     * Stores the key fields of the given record into the arena
+     * and returns the related reference. Each field is stored as
+     * its length followed by its characters.
+     * 
+     * @param record    the record to store.
+     * @param keyFields the indexes of the key fields.
+     * @param keyHash   the hash of the key fields.
+     * @return the reference to the stored key.
+     */
+    private long store( final RecordBuffer record, final int[] keyFields, final long keyHash )
+    {
+        
+        int required = keyFields.length;
+        for( int field : keyFields )
+        {
+            final int length = record.length( field );
+            if( length > MAX_FIELD_LENGTH )
+                throw new IllegalArgumentException( "Key fields longer than " + MAX_FIELD_LENGTH + " characters are not supported" );
+            
+            required += length;
+        }
+        
+        if( position + required > chunks[chunk].length )
+        {
+            if( ++chunk == chunks.length )
+                chunks = Arrays.copyOf( chunks, chunks.length << 1 );
+            
+            chunks[chunk] = new char[ Math.max(CHUNK_SIZE, required) ];
+            position = 0;
+        }
+        
+        final char[] data = chunks[chunk];
+        final long reference = ((long) chunk << 48) | ((long) position << 16) | (keyHash & TAG_MASK);
+        
+        for( int field : keyFields )
+        {
+            final int length = record.length( field );
+            data[position++] = (char) length;
+            for( int i = 0; i < length; ++i )
+                data[position++] = record.charAt( field, i );
+        }
+        
+        return reference;
+        
+    }
+    
+    
+    /**
+     * Tells if the key stored at the given reference is
+     * equal to the key fields of the given record.
+     * 
+     * @param reference the reference to the stored key.
+     * @param record    the record to compare.
+     * @param keyFields the indexes of the key fields.
+     * @return {@code true} if the keys are equal.
+     */
+    private boolean sameKey( final long reference, final RecordBuffer record, final int[] keyFields )
+    {
+        
+        final char[] data = chunks[ (int) (reference >>> 48) ];
+        int pos = (int) ((reference >>> 16) & 0xFFFFFFFFL);
+        
+        for( int field : keyFields )
+        {
+            
+            final int length = data[pos++];
+            if( length != record.length(field) )
+                return false;
+            
+            for( int i = 0; i < length; ++i )
+                if( data[pos++] != record.charAt(field, i) )
+                    return false;
+            
+        }
+        
+        return true;
+        
+    }
+    
+    
+    /**
+     * Computes the hash of the key stored at the given reference,
+     * consistently with {@link RecordBuffer#hash(int[])}.
+     * 
+     * @param reference the reference to the stored key.
+     * @return the key hash.
+     */
+    private long hashStoredKey( final long reference )
+    {
+        
+        final char[] data = chunks[ (int) (reference >>> 48) ];
+        final int fields = keyFieldCount;
+        int pos = (int) ((reference >>> 16) & 0xFFFFFFFFL);
+        
+        long hash = RecordBuffer.start();
+        for( int f = 0; f < fields; ++f )
+        {
+            final int length = data[pos++];
+            hash = RecordBuffer.mixLength( hash, length );
+            for( int i = 0; i < length; ++i )
+                hash = RecordBuffer.mixChar( hash, data[pos++] );
+        }
+        
+        return RecordBuffer.finish( hash );
+        
+    }
+    
+    
+    /**
+     * Returns the key fields stored at the given reference.
+     * 
+     * @param reference the reference to the stored key.
+     * @return the key fields, empty fields are {@code null}.
+     */
+    private String[] load( final long reference )
+    {
+        
+        final char[] data = chunks[ (int) (reference >>> 48) ];
+        final String[] key = new String[ keyFieldCount ];
+        int pos = (int) ((reference >>> 16) & 0xFFFFFFFFL);
+        
+        for( int f = 0; f < key.length; ++f )
+        {
+            final int length = data[pos++];
+            key[f] = length == 0 ? null : new String( data, pos, length );
+            pos += length;
+        }
+        
+        return key;
+        
+    }
+    
+}
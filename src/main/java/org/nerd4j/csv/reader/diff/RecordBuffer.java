@@ -0,0 +1,300 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.diff;
+
+import java.util.Arrays;
+
+
+/**
+ * Reusable buffer that keeps the characters of the fields of
+ * a CSV record, copied from the parser, and computes the hashes
+ * needed by {@link CSVDiff} without creating any {@link String}.
+ * 
+ * <p>
+ * This class is intended for internal use only.
+ * 
+ * @author Nerd4j Team
+ */
+final class RecordBuffer
+{
+    
+    /** 64 bit FNV-1a prime. */
+    private static final long PRIME = 0x100000001b3L;
+    
+    /** 64 bit FNV-1a offset basis. */
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    
+    /** The characters of all the fields. */
+    private char[] chars;
+    
+    /** The offset of each field, the field {@code i} ends at {@code offsets[i+1]}. */
+    private int[] offsets;
+    
+    /** Number of fields in the record. */
+    private int size;
+    
+    
+    /**
+     * Default constructor.
+     */
+    RecordBuffer()
+    {
+        
+        super();
+        
+        this.chars = new char[1024];
+        this.offsets = new int[32];
+        this.size = 0;
+        
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /** Removes all the fields. */
+    void clear()
+    {
+        
+        size = 0;
+        
+    }
+    
+    
+    /**
+     * Appends a field to the record.
+     * 
+     * @param field the field characters.
+     */
+    void add( final CharSequence field )
+    {
+        
+        if( size + 2 > offsets.length )
+            offsets = Arrays.copyOf( offsets, offsets.length << 1 );
+        
+        final int start = offsets[size];
+        final int length = field.length();
+        if( start + length > chars.length )
+            chars = Arrays.copyOf( chars, Math.max(chars.length << 1, start + length) );
+        
+        for( int i = 0; i < length; ++i )
+            chars[start + i] = field.charAt( i );
+        
+        offsets[++size] = start + length;
+        
+    }
+    
+    
+    /**
+     * Returns the number of fields in the record.
+     * 
+     * @return number of fields.
+     */
+    int size()
+    {
+        
+        return size;
+        
+    }
+    
+    
+    /**
+     * Returns the length of the given field or {@code 0}
+     * if the record has less fields.
+     * 
+     * @param field the field index.
+     * @return the field length.
+     */
+    int length( final int field )
+    {
+        
+        return field < size ? offsets[field + 1] - offsets[field] : 0;
+        
+    }
+    
+    
+    /**
+     * Returns the character at the given position of the given field.
+     * 
+     * @param field the field index.
+     * @param index the character index.
+     * @return the character.
+     */
+    char charAt( final int field, final int index )
+    {
+        
+        return chars[offsets[field] + index];
+        
+    }
+    
+    
+    /**
+     * Computes the hash of all the fields in the record.
+     * 
+     * @return the record hash.
+     */
+    long hashAll()
+    {
+        
+        long hash = OFFSET_BASIS;
+        for( int i = 0; i < size; ++i )
+            hash = hashField( hash, i );
+        
+        return finish( hash );
+        
+    }
+    
+    
+    /**
+     * Computes the hash of the given fields in the given order.
+     * The missing fields are considered empty.
+     * 
+     * @param fields the indexes of the fields to hash.
+     * @return the hash of the given fields.
+     */
+    long hash( final int[] fields )
+    {
+        
+        long hash = OFFSET_BASIS;
+        for( int field : fields )
+            hash = hashField( hash, field );
+        
+        return finish( hash );
+        
+    }
+    
+    
+    /**
+     * Returns the given field as a {@link String}.
+     * 
+     * @param field the field index.
+     * @return the field value, {@code null} if empty.
+     */
+    String get( final int field )
+    {
+        
+        final int length = length( field );
+        return length == 0 ? null : new String( chars, offsets[field], length );
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PACKAGE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Mixes a field length into the hash.
+     * The length is mixed before the characters
+     * to keep the fields boundaries into account.
+     * 
+     * @param hash   the current hash.
+     * @param length the field length.
+     * @return the updated hash.
+     */
+    static long mixLength( final long hash, final int length )
+    {
+        
+        return (hash ^ length) * PRIME;
+        
+    }
+    
+    
+    /**
+     * Mixes a character into the hash.
+     * 
+     * @param hash the current hash.
+     * @param c    the character to mix.
+     * @return the updated hash.
+     */
+    static long mixChar( final long hash, final char c )
+    {
+        
+        return (hash ^ c) * PRIME;
+        
+    }
+    
+    
+    /**
+     * Returns the initial value of the hash.
+     * 
+     * @return the initial value of the hash.
+     */
+    static long start()
+    {
+        
+        return OFFSET_BASIS;
+        
+    }
+    
+    
+    /**
+     * Applies the final avalanche step to the hash.
+     * 
+     * @param hash the hash to finish.
+     * @return the finished hash.
+     */
+    static long finish( long hash )
+    {
+        
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        
+        return hash;
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Mixes the given field into the hash.
+     * 
+     * @param hash  the current hash.
+     * @param field the field index.
+     * @return the updated hash.
+     */
+    private long hashField( long hash, final int field )
+    {
+        
+        final int length = length( field );
+        hash = mixLength( hash, length );
+        if( length == 0 ) return hash;
+        
+        final int start = offsets[field];
+        for( int i = 0; i < length; ++i )
+            hash = mixChar( hash, chars[start + i] );
+        
+        return hash;
+        
+    }
+    
+}
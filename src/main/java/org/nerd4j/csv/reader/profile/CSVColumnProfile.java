@@ -0,0 +1,314 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.profile;
+
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Represents the profile of a column of a CSV source.
+ * 
+ * <p>
+ * The number of distinct values, the most frequent values and the
+ * sample are estimated using sketches, so they are approximated.
+ * All the other statistics are exact.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVColumnProfile
+{
+    
+    /** The name of the column. */
+    private final String name;
+    
+    /** Number of records read. */
+    private final long recordCount;
+    
+    /** Number of fields present. */
+    private final long count;
+    
+    /** Number of empty fields. */
+    private final long emptyCount;
+    
+    /** Tells if the values are converted by a configured processor. */
+    private final boolean converted;
+    
+    /** Number of fields the processor failed to convert. */
+    private final long conversionFailures;
+    
+    /** Minimum field length. */
+    private final int minLength;
+    
+    /** Maximum field length. */
+    private final int maxLength;
+    
+    /** Histogram of the field lengths by powers of two. */
+    private final long[] lengthHistogram;
+    
+    /** Estimated number of distinct values. */
+    private final long distinctEstimate;
+    
+    /** Most frequent values. */
+    private final List<CSVValueCount> topValues;
+    
+    /** Sample of the values. */
+    private final List<String> sample;
+    
+    /** Minimum value. */
+    private final Object min;
+    
+    /** Maximum value. */
+    private final Object max;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param sketch      the statistics collected for the column.
+     * @param recordCount the number of records read.
+     * @param topK        the number of most frequent values to report.
+     */
+    CSVColumnProfile( final ColumnSketch sketch, final long recordCount, final int topK )
+    {
+        
+        super();
+        
+        this.name = sketch.name;
+        this.recordCount = recordCount;
+        this.count = sketch.count;
+        this.emptyCount = sketch.empty;
+        this.converted = sketch.converted;
+        this.conversionFailures = sketch.failures;
+        this.minLength = sketch.count > 0 ? sketch.minLength : 0;
+        this.maxLength = sketch.maxLength;
+        this.lengthHistogram = sketch.lengths.clone();
+        this.distinctEstimate = sketch.distinct.estimate();
+        this.topValues = Collections.unmodifiableList( sketch.top.top(topK) );
+        this.sample = Collections.unmodifiableList( sketch.sample.sample() );
+        this.min = sketch.min;
+        this.max = sketch.max;
+        
+    }
+    
+    
+    /* ******************* */
+    /*  GETTERS & SETTERS  */
+    /* ******************* */
+    
+    
+    /**
+     * Returns the name of the column: the header name
+     * if any, the column index otherwise.
+     * 
+     * @return the name of the column.
+     */
+    public String getName()
+    {
+        return name;
+    }
+    
+    /**
+     * Returns the number of fields present in the column.
+     * 
+     * @return the number of fields present.
+     */
+    public long getCount()
+    {
+        return count;
+    }
+    
+    /**
+     * Returns the number of records where the column is missing.
+     * 
+     * @return the number of missing fields.
+     */
+    public long getMissingCount()
+    {
+        return recordCount - count;
+    }
+    
+    /**
+     * Returns the number of empty fields.
+     * 
+     * @return the number of empty fields.
+     */
+    public long getEmptyCount()
+    {
+        return emptyCount;
+    }
+    
+    /**
+     * Returns the ratio of the records where the
+     * column is empty or missing.
+     * 
+     * @return the ratio of empty fields.
+     */
+    public double getEmptyRatio()
+    {
+        return recordCount > 0 ? (double) (emptyCount + getMissingCount()) / recordCount : 0;
+    }
+    
+    /**
+     * Tells if the values are converted by a configured processor.
+     * 
+     * @return {@code true} if a processor is configured for the column.
+     */
+    public boolean isConverted()
+    {
+        return converted;
+    }
+    
+    /**
+     * Returns the number of fields the configured processor failed to convert.
+     * 
+     * @return the number of conversion failures.
+     */
+    public long getConversionFailures()
+    {
+        return conversionFailures;
+    }
+    
+    /**
+     * Returns the ratio of the fields the configured processor failed to convert.
+     * 
+     * @return the conversion failure rate.
+     */
+    public double getConversionFailureRate()
+    {
+        return count > 0 ? (double) conversionFailures / count : 0;
+    }
+    
+    /**
+     * Returns the minimum field length.
+     * 
+     * @return the minimum field length.
+     */
+    public int getMinLength()
+    {
+        return minLength;
+    }
+    
+    /**
+     * Returns the maximum field length.
+     * 
+     * @return the maximum field length.
+     */
+    public int getMaxLength()
+    {
+        return maxLength;
+    }
+    
+    /**
+     * Returns the histogram of the field lengths.
+     * <p>
+     * The element {@code 0} counts the empty fields, the element
+     * {@code i > 0} counts the fields with length between
+     * 2<sup>i-1</sup> and 2<sup>i</sup>-1.
+     * 
+     * @return the histogram of the field lengths.
+     */
+    public long[] getLengthHistogram()
+    {
+        return lengthHistogram.clone();
+    }
+    
+    /**
+     * Returns the estimated number of distinct non empty values.
+     * 
+     * @return the estimated number of distinct values.
+     */
+    public long getDistinctEstimate()
+    {
+        return distinctEstimate;
+    }
+    
+    /**
+     * Returns the most frequent non empty values.
+     * 
+     * @return the most frequent values.
+     */
+    public List<CSVValueCount> getTopValues()
+    {
+        return topValues;
+    }
+    
+    /**
+     * Returns a uniform random sample of the non empty values.
+     * 
+     * @return the sample of the values.
+     */
+    public List<String> getSample()
+    {
+        return sample;
+    }
+    
+    /**
+     * Returns the minimum value: the converted value if
+     * a processor is configured, the raw value otherwise.
+     * 
+     * @return the minimum value, can be {@code null}.
+     */
+    public Object getMin()
+    {
+        return min;
+    }
+    
+    /**
+     * Returns the maximum value: the converted value if
+     * a processor is configured, the raw value otherwise.
+     * 
+     * @return the maximum value, can be {@code null}.
+     */
+    public Object getMax()
+    {
+        return max;
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        
+        return "CSVColumnProfile{name=" + name
+             + ", count=" + count
+             + ", empty=" + emptyCount
+             + ", missing=" + getMissingCount()
+             + ", failures=" + conversionFailures
+             + ", length=[" + minLength + "," + maxLength + "]"
+             + ", distinct~" + distinctEstimate
+             + ", min=" + min
+             + ", max=" + max
+             + ", top=" + topValues
+             + "}";
+        
+    }
+    
+}
@@ -0,0 +1,124 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.profile;
+
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Represents the profile of a CSV source:
+ * the number of records and the profile of each column.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVProfile
+{
+    
+    /** Number of records read. */
+    private final long recordCount;
+    
+    /** The profile of each column in the source order. */
+    private final List<CSVColumnProfile> columns;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param recordCount the number of records read.
+     * @param columns     the profile of each column.
+     */
+    CSVProfile( final long recordCount, final List<CSVColumnProfile> columns )
+    {
+        
+        super();
+        
+        this.recordCount = recordCount;
+        this.columns = Collections.unmodifiableList( columns );
+        
+    }
+    
+    
+    /* ******************* */
+    /*  GETTERS & SETTERS  */
+    /* ******************* */
+    
+    
+    /**
+     * Returns the number of records read.
+     * 
+     * @return the number of records.
+     */
+    public long getRecordCount()
+    {
+        return recordCount;
+    }
+    
+    /**
+     * Returns the profile of each column in the source order.
+     * 
+     * @return the column profiles.
+     */
+    public List<CSVColumnProfile> getColumns()
+    {
+        return columns;
+    }
+    
+    /**
+     * Returns the profile of the column with the given name.
+     * 
+     * @param name the name of the column.
+     * @return the column profile if any, {@code null} otherwise.
+     */
+    public CSVColumnProfile getColumn( final String name )
+    {
+        
+        for( CSVColumnProfile column : columns )
+            if( column.getName().equals(name) )
+                return column;
+        
+        return null;
+        
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        
+        final StringBuilder sb = new StringBuilder( "CSVProfile{records=" ).append( recordCount );
+        for( CSVColumnProfile column : columns )
+            sb.append( "\n  " ).append( column );
+        
+        return sb.append( "\n}" ).toString();
+        
+    }
+    
+}
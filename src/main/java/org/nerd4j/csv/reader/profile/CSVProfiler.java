@@ -0,0 +1,473 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.profile;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.nerd4j.csv.exception.CSVConfigurationException;
+import org.nerd4j.csv.exception.CSVException;
+import org.nerd4j.csv.field.CSVField;
+import org.nerd4j.csv.field.CSVFieldProcessContext;
+import org.nerd4j.csv.parser.CSVParser;
+import org.nerd4j.csv.parser.CSVToken;
+import org.nerd4j.csv.reader.CSVReaderMetadataFactory;
+import org.nerd4j.csv.reader.CSVSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Profiles the columns of CSV sources in a single pass.
+ * 
+ * <p>
+ * For each column it collects the number of empty and missing fields,
+ * the length distribution, the range of the values, the conversion
+ * failures of the configured processor, an estimate of the distinct
+ * values (HyperLogLog), the most frequent values (Space-Saving) and
+ * a uniform sample of the values (reservoir sampling).
+ * 
+ * <p>
+ * All the statistics are kept in bounded structures, so the memory
+ * used does not depend on the size of the source. The raw fields are
+ * inspected directly in the parser buffer, strings are created only
+ * for the values to be converted by a configured processor and for
+ * the values entering the sketches. The sketches are mergeable, so
+ * many files can be profiled in parallel.
+ * 
+ * <p>
+ * The columns are identified by their position in the source
+ * and named after the header, if read, or after their index.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVProfiler
+{
+    
+    /** Internal logging system. */
+    private static final Logger logger = LoggerFactory.getLogger( CSVProfiler.class );
+    
+    /** The {@code Factory} for the reader meta-data model. */
+    private final CSVReaderMetadataFactory<?> metadataFactory;
+    
+    /** The number of most frequent values to report for each column. */
+    private int topK;
+    
+    /** The size of the sample for each column. */
+    private int sampleSize;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param metadataFactory the {@code Factory} of meta-data that describes how to read the sources.
+     */
+    public CSVProfiler( final CSVReaderMetadataFactory<?> metadataFactory )
+    {
+        
+        super();
+        
+        if( metadataFactory == null )
+            throw new CSVConfigurationException( "The CSV reader configuration is mandatory" );
+        
+        this.metadataFactory = metadataFactory;
+        this.topK = 10;
+        this.sampleSize = 100;
+        
+    }
+    
+    
+    /* ******************* */
+    /*  GETTERS & SETTERS  */
+    /* ******************* */
+    
+    
+    /**
+     * Returns the number of most frequent values to report for each column.
+     * 
+     * @return the number of most frequent values.
+     */
+    public int getTopK()
+    {
+        return topK;
+    }
+    
+    /**
+     * Sets the number of most frequent values to report for each column.
+     * <p>
+     * The default value is {@code 10}.
+     * 
+     * @param topK the number of most frequent values.
+     */
+    public void setTopK( int topK )
+    {
+        if( topK < 1 )
+            throw new IllegalArgumentException( "The number of most frequent values must be positive" );
+        this.topK = topK;
+    }
+    
+    /**
+     * Returns the size of the sample for each column.
+     * 
+     * @return the size of the sample.
+     */
+    public int getSampleSize()
+    {
+        return sampleSize;
+    }
+    
+    /**
+     * Sets the size of the sample for each column.
+     * <p>
+     * The default value is {@code 100}.
+     * 
+     * @param sampleSize the size of the sample.
+     */
+    public void setSampleSize( int sampleSize )
+    {
+        if( sampleSize < 1 )
+            throw new IllegalArgumentException( "The sample size must be positive" );
+        this.sampleSize = sampleSize;
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * Profiles the given file.
+     * 
+     * @param file the CSV source file.
+     * @return the profile of the source.
+     * @throws IOException if an error occurs reading the file.
+     */
+    public CSVProfile profile( final File file ) throws IOException
+    {
+        
+        return profile( file, 0 ).toProfile( topK );
+        
+    }
+    
+    
+    /**
+     * Profiles the given CSV source.
+     * <p>
+     * The given source is not closed by this method.
+     * 
+     * @param reader the CSV source.
+     * @return the profile of the source.
+     * @throws IOException if an error occurs reading the source.
+     */
+    public CSVProfile profile( final Reader reader ) throws IOException
+    {
+        
+        return profile( reader, 0 ).toProfile( topK );
+        
+    }
+    
+    
+    /**
+     * Profiles the given files in parallel as a single data set.
+     * <p>
+     * Each file is profiled by a task submitted to the given executor,
+     * the partial profiles are merged at the end. The files must have
+     * the same columns in the same order.
+     * 
+     * @param files    the CSV source files.
+     * @param executor the executor used to run the tasks.
+     * @return the profile of the data set.
+     * @throws IOException if an error occurs reading the files.
+     */
+    public CSVProfile profile( final List<File> files, final ExecutorService executor )
+    throws IOException
+    {
+        
+        if( files == null || files.isEmpty() )
+            throw new IllegalArgumentException( "At least one file to profile is required" );
+        
+        final List<Future<Partial>> tasks = new ArrayList<Future<Partial>>( files.size() );
+        for( int i = 0; i < files.size(); ++i )
+        {
+            final File file = files.get( i );
+            final long seed = i;
+            tasks.add( executor.submit(() -> profile(file, seed)) );
+        }
+        
+        try{
+            
+            Partial result = null;
+            for( Future<Partial> task : tasks )
+            {
+                final Partial partial = getPartial( task );
+                result = result == null ? partial : result.merge( partial );
+            }
+            
+            return result.toProfile( topK );
+            
+        }catch( IOException | RuntimeException ex )
+        {
+            for( Future<Partial> task : tasks )
+                task.cancel( true );
+            
+            throw ex;
+        }
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Profiles the given file into a partial profile.
+     * 
+     * @param file the CSV source file.
+     * @param seed the seed of the sample random generators.
+     * @return the partial profile.
+     * @throws IOException if an error occurs reading the file.
+     */
+    private Partial profile( final File file, final long seed ) throws IOException
+    {
+        
+        try( Reader reader = new FileReader(file) )
+        {
+            return profile( reader, seed );
+        }
+        
+    }
+    
+    
+    /**
+     * Profiles the given CSV source into a partial profile.
+     * 
+     * @param reader the CSV source.
+     * @param seed   the seed of the sample random generators.
+     * @return the partial profile.
+     * @throws IOException if an error occurs reading the source.
+     */
+    private Partial profile( final Reader reader, final long seed ) throws IOException
+    {
+        
+        final CSVSource source = CSVSource.open( reader, metadataFactory.getCSVReaderMetadata() );
+        final CSVParser parser = source.getParser();
+        final CSVField<String,?>[] fields = source.getFields();
+        final String[] header = source.getHeader();
+        final CSVFieldProcessContext context = new CSVFieldProcessContext( header );
+        
+        final Partial partial = new Partial();
+        
+        CSVToken token;
+        while( true )
+        {
+            
+            context.clear();
+            context.newRow();
+            
+            /* We skip any empty row. */
+            do{
+                
+                token = parser.read();
+                
+            }while( token == CSVToken.END_OF_RECORD );
+            
+            if( token == CSVToken.END_OF_DATA ) break;
+            
+            ++partial.records;
+            
+            for( int i = 0; token == CSVToken.FIELD; ++i )
+            {
+                
+                context.newColumn();
+                
+                final CSVField<String,?> field = i < fields.length ? fields[i] : null;
+                final ColumnSketch sketch = i < partial.columns.size()
+                                          ? partial.columns.get( i )
+                                          : partial.addColumn( header, i, field != null, seed );
+                
+                sketch.add( parser.getCurrentChars() );
+                
+                if( field != null )
+                {
+                    
+                    context.clear();
+                    
+                    final String originalValue = parser.getCurrentValue();
+                    context.setOriginalValue( originalValue );
+                    
+                    final Object processedValue = field.process( originalValue, context );
+                    if( context.isError() )
+                        sketch.addFailure();
+                    else
+                        sketch.addConverted( processedValue );
+                    
+                }
+                
+                token = parser.read();
+                
+            }
+            
+        }
+        
+        logger.debug( "Profiled {} records and {} columns", partial.records, partial.columns.size() );
+        
+        return partial;
+        
+    }
+    
+    
+    /**
+     * Returns the result of the given task unwrapping the execution exceptions.
+     * 
+     * @param task the task to wait for.
+     * @return the partial profile.
+     * @throws IOException if the task failed reading the source.
+     */
+    private static Partial getPartial( final Future<Partial> task )
+    throws IOException
+    {
+        
+        try{
+            
+            return task.get();
+            
+        }catch( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException( "Interrupted while waiting for the partial profile" );
+        }
+        catch( ExecutionException ex )
+        {
+            final Throwable cause = ex.getCause();
+            if( cause instanceof IOException )
+                throw (IOException) cause;
+            if( cause instanceof RuntimeException )
+                throw (RuntimeException) cause;
+            
+            throw new CSVException( cause );
+        }
+        
+    }
+    
+    
+    /* *************** */
+    /*  INNER CLASSES  */
+    /* *************** */
+    
+    
+    /**
+     * The statistics collected for a CSV source.
+     * 
+     * @author Nerd4j Team
+     */
+    private final class Partial
+    {
+        
+        /** Number of records read. */
+        long records;
+        
+        /** The statistics of each column. */
+        final List<ColumnSketch> columns = new ArrayList<ColumnSketch>();
+        
+        
+        /**
+         * Adds the statistics for the column with the given index.
+         * 
+         * @param header    the source header, can be {@code null}.
+         * @param index     the column index.
+         * @param converted tells if the column has a configured processor.
+         * @param seed      the seed of the sample random generator.
+         * @return the statistics of the column.
+         */
+        ColumnSketch addColumn( final String[] header, final int index, final boolean converted, final long seed )
+        {
+            
+            final String name = header != null && index < header.length ? header[index] : String.valueOf( index );
+            final ColumnSketch sketch = new ColumnSketch( name, converted, topK, sampleSize, seed * 31 + index );
+            columns.add( sketch );
+            
+            return sketch;
+            
+        }
+        
+        
+        /**
+         * Merges the given statistics into these ones.
+         * 
+         * @param other the statistics to merge.
+         * @return this object.
+         */
+        Partial merge( final Partial other )
+        {
+            
+            records += other.records;
+            for( int i = 0; i < other.columns.size(); ++i )
+            {
+                
+                final ColumnSketch column = other.columns.get( i );
+                if( i >= columns.size() )
+                    columns.add( column );
+                
+                else if( ! columns.get(i).name.equals(column.name) )
+                    throw new CSVConfigurationException( "Unable to merge the column " + column.name + " with " + columns.get(i).name );
+                
+                else
+                    columns.get( i ).merge( column );
+                
+            }
+            
+            return this;
+            
+        }
+        
+        
+        /**
+         * Returns the profile of the source.
+         * 
+         * @param topK the number of most frequent values to report.
+         * @return the profile of the source.
+         */
+        CSVProfile toProfile( final int topK )
+        {
+            
+            final List<CSVColumnProfile> profiles = new ArrayList<CSVColumnProfile>( columns.size() );
+            for( ColumnSketch column : columns )
+                profiles.add( column.toProfile(records, topK) );
+            
+            return new CSVProfile( records, profiles );
+            
+        }
+        
+    }
+    
+}
@@ -0,0 +1,118 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.profile;
+
+
+/**
+ * Represents a value and its estimated number of occurrences.
+ * 
+ * <p>
+ * The count may overestimate the actual number of occurrences
+ * at most by the amount returned by {@link #getError()}.
+ * 
+ * @author Nerd4j Team
+ */
+public final class CSVValueCount
+{
+    
+    /** The value. */
+    private final String value;
+    
+    /** The estimated number of occurrences. */
+    private final long count;
+    
+    /** The maximum overestimation of the count. */
+    private final long error;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param value the value.
+     * @param count the estimated number of occurrences.
+     * @param error the maximum overestimation of the count.
+     */
+    CSVValueCount( final String value, final long count, final long error )
+    {
+        
+        super();
+        
+        this.value = value;
+        this.count = count;
+        this.error = error;
+        
+    }
+    
+    
+    /* ******************* */
+    /*  GETTERS & SETTERS  */
+    /* ******************* */
+    
+    
+    /**
+     * Returns the value.
+     * 
+     * @return the value.
+     */
+    public String getValue()
+    {
+        return value;
+    }
+    
+    /**
+     * Returns the estimated number of occurrences.
+     * 
+     * @return the estimated number of occurrences.
+     */
+    public long getCount()
+    {
+        return count;
+    }
+    
+    /**
+     * Returns the maximum overestimation of the count.
+     * 
+     * @return the maximum overestimation of the count.
+     */
+    public long getError()
+    {
+        return error;
+    }
+    
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        
+        return value + "=" + count + (error > 0 ? " (max error " + error + ")" : "");
+        
+    }
+    
+}
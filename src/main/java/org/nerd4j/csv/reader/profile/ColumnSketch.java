@@ -0,0 +1,288 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.profile;
+
+
+/**
+ * Collects the statistics of a single column in a
+ * single pass and in a bounded amount of memory.
+ * 
+ * <p>
+ * The raw characters of each field are inspected without
+ * creating a {@link String}, strings are created only for
+ * the values entering the top values or the sample.
+ * 
+ * @author Nerd4j Team
+ */
+final class ColumnSketch
+{
+    
+    /** Number of buckets of the length histogram. */
+    static final int LENGTH_BUCKETS = 33;
+    
+    /** The name of the column. */
+    final String name;
+    
+    /** Tells if the values are converted by a configured processor. */
+    final boolean converted;
+    
+    /** Number of fields seen. */
+    long count;
+    
+    /** Number of empty fields. */
+    long empty;
+    
+    /** Number of fields the processor failed to convert. */
+    long failures;
+    
+    /** Minimum field length. */
+    int minLength;
+    
+    /** Maximum field length. */
+    int maxLength;
+    
+    /** Histogram of the field lengths by powers of two. */
+    final long[] lengths;
+    
+    /** Minimum value. */
+    Object min;
+    
+    /** Maximum value. */
+    Object max;
+    
+    /** Sketch of the distinct values. */
+    final HyperLogLog distinct;
+    
+    /** Sketch of the most frequent values. */
+    final TopValues top;
+    
+    /** Sample of the values. */
+    final Reservoir sample;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param name       the name of the column.
+     * @param converted  tells if the values are converted by a configured processor.
+     * @param topK       the number of most frequent values to track.
+     * @param sampleSize the size of the sample.
+     * @param seed       the seed of the sample random generator.
+     */
+    ColumnSketch( final String name, final boolean converted, final int topK, final int sampleSize, final long seed )
+    {
+        
+        super();
+        
+        this.name = name;
+        this.converted = converted;
+        
+        this.count = 0;
+        this.empty = 0;
+        this.failures = 0;
+        this.minLength = Integer.MAX_VALUE;
+        this.maxLength = 0;
+        this.lengths = new long[LENGTH_BUCKETS];
+        
+        this.min = null;
+        this.max = null;
+        
+        this.distinct = new HyperLogLog();
+        this.top = new TopValues( topK << 2 );
+        this.sample = new Reservoir( sampleSize, seed );
+        
+    }
+    
+    
+    /**
+     * Adds the raw characters of a field.
+     * 
+     * @param chars the field characters.
+     */
+    void add( final CharSequence chars )
+    {
+        
+        ++count;
+        
+        final int length = chars.length();
+        ++lengths[32 - Integer.numberOfLeadingZeros(length)];
+        if( length < minLength ) minLength = length;
+        if( length > maxLength ) maxLength = length;
+        
+        if( length == 0 )
+        {
+            ++empty;
+            return;
+        }
+        
+        final long hash = hash( chars );
+        distinct.add( hash );
+        top.add( hash, chars );
+        sample.add( chars );
+        
+        /* Without a processor the range is computed on the raw values. */
+        if( ! converted )
+        {
+            if( min == null || compare(chars, (String) min) < 0 ) min = chars.toString();
+            if( max == null || compare(chars, (String) max) > 0 ) max = chars.toString();
+        }
+        
+    }
+    
+    
+    /**
+     * Adds the value converted by the processor.
+     * 
+     * @param value the converted value.
+     */
+    void addConverted( final Object value )
+    {
+        
+        if( value instanceof Comparable )
+        {
+            if( min == null || compare(value, min) < 0 ) min = value;
+            if( max == null || compare(value, max) > 0 ) max = value;
+        }
+        
+    }
+    
+    
+    /**
+     * Counts a conversion failure.
+     */
+    void addFailure()
+    {
+        
+        ++failures;
+        
+    }
+    
+    
+    /**
+     * Merges the given sketch into this one.
+     * 
+     * @param other the sketch to merge.
+     */
+    void merge( final ColumnSketch other )
+    {
+        
+        count += other.count;
+        empty += other.empty;
+        failures += other.failures;
+        minLength = Math.min( minLength, other.minLength );
+        maxLength = Math.max( maxLength, other.maxLength );
+        for( int i = 0; i < LENGTH_BUCKETS; ++i )
+            lengths[i] += other.lengths[i];
+        
+        if( other.min != null && (min == null || compare(other.min, min) < 0) ) min = other.min;
+        if( other.max != null && (max == null || compare(other.max, max) > 0) ) max = other.max;
+        
+        distinct.merge( other.distinct );
+        top.merge( other.top );
+        sample.merge( other.sample );
+        
+    }
+    
+    
+    /**
+     * Returns the profile of the column.
+     * 
+     * @param records the number of records read.
+     * @param topK    the number of most frequent values to report.
+     * @return the profile of the column.
+     */
+    CSVColumnProfile toProfile( final long records, final int topK )
+    {
+        
+        return new CSVColumnProfile( this, records, topK );
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Returns a 64 bit hash of the given characters
+     * using FNV-1a with a final avalanche step.
+     * 
+     * @param chars the characters to hash.
+     * @return the hash of the characters.
+     */
+    private static long hash( final CharSequence chars )
+    {
+        
+        long hash = 0xcbf29ce484222325L;
+        for( int i = 0, length = chars.length(); i < length; ++i )
+            hash = (hash ^ chars.charAt(i)) * 0x100000001b3L;
+        
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        
+        return hash;
+        
+    }
+    
+    
+    /**
+     * Compares the given characters with the given string.
+     * 
+     * @param chars the characters to compare.
+     * @param value the string to compare.
+     * @return the comparison result.
+     */
+    private static int compare( final CharSequence chars, final String value )
+    {
+        
+        final int length = Math.min( chars.length(), value.length() );
+        for( int i = 0; i < length; ++i )
+        {
+            final int diff = chars.charAt( i ) - value.charAt( i );
+            if( diff != 0 ) return diff;
+        }
+        
+        return chars.length() - value.length();
+        
+    }
+    
+    
+    /**
+     * Compares the given values.
+     * 
+     * @param value the value to compare.
+     * @param other the value to compare to.
+     * @return the comparison result.
+     */
+    @SuppressWarnings("unchecked")
+    private static int compare( final Object value, final Object other )
+    {
+        
+        return ((Comparable<Object>) value).compareTo( other );
+        
+    }
+    
+}
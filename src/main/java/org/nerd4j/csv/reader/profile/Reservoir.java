@@ -0,0 +1,198 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.profile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+
+/**
+ * Uniform random sample of fixed size of the values seen.
+ * 
+ * <p>
+ * The sample is maintained using the algorithm L by Li, that
+ * computes in advance the index of the next value to be sampled,
+ * so the values not sampled cost just a counter increment.
+ * 
+ * @author Nerd4j Team
+ */
+final class Reservoir
+{
+    
+    /** Source of randomness. */
+    private final SplittableRandom random;
+    
+    /** The sampled values. */
+    private final String[] samples;
+    
+    /** The number of values seen. */
+    private long seen;
+    
+    /** The index of the next value to be sampled. */
+    private long next;
+    
+    /** The current weight of the algorithm L. */
+    private double weight;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param capacity the size of the sample.
+     * @param seed     the seed of the random generator.
+     */
+    Reservoir( final int capacity, final long seed )
+    {
+        
+        super();
+        
+        this.random = new SplittableRandom( seed );
+        this.samples = new String[capacity];
+        this.seen = 0;
+        this.weight = Math.exp( Math.log(1 - random.nextDouble()) / capacity );
+        this.next = capacity + skip();
+        
+    }
+    
+    
+    /**
+     * Offers the given value to the sample.
+     * 
+     * @param value the value.
+     */
+    void add( final CharSequence value )
+    {
+        
+        if( seen < samples.length )
+            samples[(int) seen] = value.toString();
+        
+        else if( seen == next )
+        {
+            samples[random.nextInt(samples.length)] = value.toString();
+            weight *= Math.exp( Math.log(1 - random.nextDouble()) / samples.length );
+            next += skip() + 1;
+        }
+        
+        ++seen;
+        
+    }
+    
+    
+    /**
+     * Merges the given sample into this one.
+     * <p>
+     * Each value of the merged sample is taken from one of the two
+     * samples with probability proportional to the number of values
+     * seen by each one.
+     * 
+     * @param other the sample to merge.
+     */
+    void merge( final Reservoir other )
+    {
+        
+        final List<String> these = shuffled( this );
+        final List<String> those = shuffled( other );
+        
+        long thisSeen = seen;
+        long otherSeen = other.seen;
+        
+        final int size = (int) Math.min( samples.length, thisSeen + otherSeen );
+        for( int i = 0; i < size; ++i )
+        {
+            
+            final boolean fromThis = those.isEmpty()
+                                  || ! these.isEmpty() && random.nextLong( thisSeen + otherSeen ) < thisSeen;
+            
+            if( fromThis )
+            {
+                samples[i] = these.remove( these.size() - 1 );
+                --thisSeen;
+            }
+            else
+            {
+                samples[i] = those.remove( those.size() - 1 );
+                --otherSeen;
+            }
+            
+        }
+        
+        seen += other.seen;
+        if( seen > samples.length )
+            next = seen + skip();
+        
+    }
+    
+    
+    /**
+     * Returns the sampled values.
+     * 
+     * @return the sampled values.
+     */
+    List<String> sample()
+    {
+        
+        return new ArrayList<String>( Arrays.asList(samples).subList(0, (int) Math.min(seen, samples.length)) );
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Returns the number of values to skip before the next sample.
+     * 
+     * @return the number of values to skip.
+     */
+    private long skip()
+    {
+        
+        return (long) Math.floor( Math.log(1 - random.nextDouble()) / Math.log(1 - weight) );
+        
+    }
+    
+    
+    /**
+     * Returns the values of the given sample in random order.
+     * 
+     * @param reservoir the sample to shuffle.
+     * @return the shuffled values.
+     */
+    private List<String> shuffled( final Reservoir reservoir )
+    {
+        
+        final List<String> values = reservoir.sample();
+        for( int i = values.size() - 1; i > 0; --i )
+        {
+            final int j = random.nextInt( i + 1 );
+            values.set( i, values.set(j, values.get(i)) );
+        }
+        
+        return values;
+        
+    }
+    
+}
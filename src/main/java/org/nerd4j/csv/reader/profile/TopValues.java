@@ -0,0 +1,235 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.profile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+
+/**
+ * Space-Saving sketch used to find the most frequent values.
+ * 
+ * <p>
+ * The sketch keeps a fixed number of counters identified by the
+ * hash of the value. When a value not yet counted is found and
+ * all the counters are in use, the counter with the minimum count
+ * is assigned to the new value and its count becomes the error.
+ * Each value with a frequency greater than {@code n/capacity}
+ * is guaranteed to be kept.
+ * 
+ * @author Nerd4j Team
+ */
+final class TopValues
+{
+    
+    /** The hashes of the counted values. */
+    private final long[] hashes;
+    
+    /** The counts of the values. */
+    private final long[] counts;
+    
+    /** The maximum overestimation of each count. */
+    private final long[] errors;
+    
+    /** The counted values. */
+    private final String[] values;
+    
+    /** The number of counters in use. */
+    private int size;
+    
+    
+    /**
+     * Constructor with parameters.
+     * 
+     * @param capacity the number of counters.
+     */
+    TopValues( final int capacity )
+    {
+        
+        super();
+        
+        this.hashes = new long[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+        this.values = new String[capacity];
+        this.size = 0;
+        
+    }
+    
+    
+    /**
+     * Counts the given value.
+     * 
+     * @param hash  the hash of the value.
+     * @param value the value.
+     */
+    void add( final long hash, final CharSequence value )
+    {
+        
+        for( int i = 0; i < size; ++i )
+            if( hashes[i] == hash )
+            {
+                ++counts[i];
+                return;
+            }
+        
+        if( size < hashes.length )
+        {
+            set( size++, hash, value.toString(), 1, 0 );
+            return;
+        }
+        
+        final int min = min();
+        set( min, hash, value.toString(), counts[min] + 1, counts[min] );
+        
+    }
+    
+    
+    /**
+     * Merges the given sketch into this one.
+     * <p>
+     * A value missing in one of the sketches is given the
+     * minimum count of such sketch, if full, as both count
+     * and error. Than only the greatest counters are kept.
+     * 
+     * @param other the sketch to merge.
+     */
+    void merge( final TopValues other )
+    {
+        
+        final long thisMin = size == hashes.length ? counts[min()] : 0;
+        final long otherMin = other.size == other.hashes.length ? other.counts[other.min()] : 0;
+        
+        final int total = size + other.size;
+        final long[] mergedHashes = Arrays.copyOf( hashes, total );
+        final long[] mergedCounts = Arrays.copyOf( counts, total );
+        final long[] mergedErrors = Arrays.copyOf( errors, total );
+        final String[] mergedValues = Arrays.copyOf( values, total );
+        final boolean[] matched = new boolean[size];
+        
+        int mergedSize = size;
+        for( int j = 0; j < other.size; ++j )
+        {
+            
+            int i = 0;
+            while( i < size && hashes[i] != other.hashes[j] ) ++i;
+            
+            if( i < size )
+            {
+                mergedCounts[i] += other.counts[j];
+                mergedErrors[i] += other.errors[j];
+                matched[i] = true;
+            }
+            else
+            {
+                mergedHashes[mergedSize] = other.hashes[j];
+                mergedCounts[mergedSize] = other.counts[j] + thisMin;
+                mergedErrors[mergedSize] = other.errors[j] + thisMin;
+                mergedValues[mergedSize] = other.values[j];
+                ++mergedSize;
+            }
+            
+        }
+        
+        for( int i = 0; i < size; ++i )
+            if( ! matched[i] )
+            {
+                mergedCounts[i] += otherMin;
+                mergedErrors[i] += otherMin;
+            }
+        
+        /* We keep only the greatest counters. */
+        final Integer[] order = new Integer[mergedSize];
+        for( int i = 0; i < mergedSize; ++i ) order[i] = i;
+        Arrays.sort( order, Comparator.comparingLong((Integer i) -> mergedCounts[i]).reversed() );
+        
+        size = Math.min( mergedSize, hashes.length );
+        for( int i = 0; i < size; ++i )
+            set( i, mergedHashes[order[i]], mergedValues[order[i]], mergedCounts[order[i]], mergedErrors[order[i]] );
+        
+    }
+    
+    
+    /**
+     * Returns the most frequent values sorted by count.
+     * 
+     * @param limit the maximum number of values to return.
+     * @return the most frequent values.
+     */
+    List<CSVValueCount> top( final int limit )
+    {
+        
+        final List<CSVValueCount> top = new ArrayList<CSVValueCount>( size );
+        for( int i = 0; i < size; ++i )
+            top.add( new CSVValueCount(values[i], counts[i], errors[i]) );
+        
+        top.sort( Comparator.comparingLong(CSVValueCount::getCount).reversed() );
+        return top.size() > limit ? new ArrayList<CSVValueCount>( top.subList(0, limit) ) : top;
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Returns the index of the counter with the minimum count.
+     * 
+     * @return the index of the minimum counter.
+     */
+    private int min()
+    {
+        
+        int min = 0;
+        for( int i = 1; i < size; ++i )
+            if( counts[i] < counts[min] )
+                min = i;
+        
+        return min;
+        
+    }
+    
+    
+    /**
+     * Sets the counter at the given index.
+     * 
+     * @param index the index of the counter.
+     * @param hash  the hash of the value.
+     * @param value the value.
+     * @param count the count of the value.
+     * @param error the maximum overestimation of the count.
+     */
+    private void set( final int index, final long hash, final String value, final long count, final long error )
+    {
+        
+        hashes[index] = hash;
+        values[index] = value;
+        counts[index] = count;
+        errors[index] = error;
+        
+    }
+    
+}
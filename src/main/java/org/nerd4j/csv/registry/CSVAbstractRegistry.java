@@ -21,6 +21,7 @@
  */
 package org.nerd4j.csv.registry;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -42,6 +43,11 @@ import org.nerd4j.csv.exception.CSVConfigurationException;
  *  <li>{@link ModelToCSVBinderFactoryRegistry}</li>
  * </ul>
  * 
+ * <p>
+ * The registry is safe to be shared between threads: the lookups
+ * read an immutable snapshot of the registered items without locking
+ * and each change publishes a new copy of the related map.
+ * 
  * @param <Entry> type of the entry to build.
  * 
  * @author Nerd4j Team
@@ -52,10 +58,13 @@ public abstract class CSVAbstractRegistry<Entry extends CSVRegistryEntry>
 	/**
 	 * The internal map used to register the factories
 	 * able to build register entries. */
-	private final Map<String,CSVRegistryEntryFactory<Entry>> factoryRegistry;
+	private volatile Map<String,CSVRegistryEntryFactory<Entry>> factoryRegistry;
 	
     /** The internal map used to register the entry providers. */
-    private final Map<String,CSVRegistryEntryProvider<Entry>> providerRegistry;
+    private volatile Map<String,CSVRegistryEntryProvider<Entry>> providerRegistry;
+    
+    /** Number of changes made to the registry. */
+    private volatile long version;
     
     
     /**
@@ -67,8 +76,9 @@ public abstract class CSVAbstractRegistry<Entry extends CSVRegistryEntry>
         
         super();
         
-        this.factoryRegistry = new HashMap<>();
-        this.providerRegistry = new HashMap<>();
+        this.factoryRegistry = Collections.emptyMap();
+        this.providerRegistry = Collections.emptyMap();
+        this.version = 0;
         
     }
     
@@ -107,7 +117,7 @@ public abstract class CSVAbstractRegistry<Entry extends CSVRegistryEntry>
     public void setFactory( String name, CSVRegistryEntryFactory<Entry> factory )
     {
     	
-    	factoryRegistry.put( name, factory );
+    	setFactories( Collections.singletonMap(name, factory) );
     	
     }
     
@@ -118,10 +128,14 @@ public abstract class CSVAbstractRegistry<Entry extends CSVRegistryEntry>
      * 
      * @param factories the factories to set.
      */
-    public void setFactories( Map<String, CSVRegistryEntryFactory<Entry>> factories )
+    public synchronized void setFactories( Map<String, CSVRegistryEntryFactory<Entry>> factories )
     {
     	
-    	factoryRegistry.putAll( factories );
+    	final Map<String,CSVRegistryEntryFactory<Entry>> copy = new HashMap<>( factoryRegistry );
+    	copy.putAll( factories );
+    	
+    	factoryRegistry = Collections.unmodifiableMap( copy );
+    	++version;
     	
     }
     
@@ -154,7 +168,7 @@ public abstract class CSVAbstractRegistry<Entry extends CSVRegistryEntry>
     public void setProvider( String name, CSVRegistryEntryProvider<Entry> provider )
     {
         
-    	providerRegistry.put( name, provider );
+    	setProviders( Collections.singletonMap(name, provider) );
         
     }
     
@@ -165,10 +179,14 @@ public abstract class CSVAbstractRegistry<Entry extends CSVRegistryEntry>
      * 
      * @param providers the providers to set.
      */
-    public void setProviders( Map<String,CSVRegistryEntryProvider<Entry>> providers )
+    public synchronized void setProviders( Map<String,CSVRegistryEntryProvider<Entry>> providers )
     {
         
-    	providerRegistry.putAll( providers );
+    	final Map<String,CSVRegistryEntryProvider<Entry>> copy = new HashMap<>( providerRegistry );
+    	copy.putAll( providers );
+    	
+    	providerRegistry = Collections.unmodifiableMap( copy );
+    	++version;
         
     }
     
@@ -191,4 +209,18 @@ public abstract class CSVAbstractRegistry<Entry extends CSVRegistryEntry>
     	
     }
     
+    /**
+     * Returns the number of changes made to the registry.
+     * Can be used to detect if the objects built using
+     * the registry need to be built again.
+     * 
+     * @return the version of the registry.
+     */
+    public long getVersion()
+    {
+        
+        return version;
+        
+    }
+    
 }
\ No newline at end of file
@@ -26,6 +26,7 @@ import java.math.BigInteger;
 import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.TimeZone;
@@ -108,7 +109,9 @@ import org.nerd4j.i18n.LocaleUtil;
  *                           time-zone = output date timezone (optional)
  *                           locale  = the pattern locale for symbols (optional)</li>
  *  <br>
- *  <li>parseEnum          : enum-type = the fully qualified enum class name (mandatory)</li>
+ *  <li>parseEnum          : enum-type   = the fully qualified enum class name (mandatory)
+ *                           ignore-case = true to match the values ignoring the case (optional)
+ *                           aliases     = comma separated list of ALIAS=CONSTANT mappings (optional)</li>
  *  <li>formatEnum         : enum-type = the fully qualified enum class name (mandatory)</li>
  * </ul>
  * 
@@ -524,26 +527,13 @@ final class CSVFieldConverterRegistry extends CSVAbstractRegistry<CSVFieldConver
         	 * {@inheritDoc}
         	 */
             @Override
-            @SuppressWarnings({ "unchecked" })
             public CSVFieldConverter<String,Enum<?>> get( Map<String,String> params )
             {                
                 final String enumType = params.get( "enum-type" );
                 if( enumType == null )
                     throw new CSVConfigurationException( "The enum-type is mandatory to build parseEnum" );
                 
-                try{
-
-                    final Class<?> enumClass = Class.forName( enumType );
-                    
-                    if( ! enumClass.isEnum() )
-                        throw new CSVConfigurationException( "The value enum-type to not represent an enum" );
-                    
-                    return new StringToEnum( enumClass );
-                    
-                }catch( ClassNotFoundException ex )
-                {
-                    throw new CSVConfigurationException( "The value enum-type do not represent a canonical class name", ex );
-                }
+                return buildStringToEnum( enumType, params );
             }
             /**
         	 * {@inheritDoc}
@@ -558,17 +548,7 @@ final class CSVFieldConverterRegistry extends CSVAbstractRegistry<CSVFieldConver
                 if( enumType == null )
                     throw new CSVConfigurationException( "The parameter enum-type is mandatory." );
                 
-                try{
-
-                    final Class<?> enumClass = Class.forName( enumType );
-                    
-                    if( ! enumClass.isEnum() )
-                        throw new CSVConfigurationException( "The value enum-type to not represent an enum" );
-                    
-                }catch( ClassNotFoundException ex )
-                {
-                    throw new CSVConfigurationException( "The value enum-type do not represent a canonical class name", ex );
-                }
+                buildStringToEnum( enumType, params );
             }
         });
         
@@ -629,4 +609,58 @@ final class CSVFieldConverterRegistry extends CSVAbstractRegistry<CSVFieldConver
         
     }
     
+    
+    /**
+     * Creates a {@link StringToEnum} converter for the given
+     * enum type using the optional ignore-case and aliases parameters.
+     * 
+     * @param enumType the fully qualified enum class name.
+     * @param params   the parameters to use.
+     * @return a new {@link StringToEnum} converter.
+     * @throws CSVConfigurationException if the parameters are not valid.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static CSVFieldConverter<String,Enum<?>> buildStringToEnum( final String enumType, final Map<String,String> params )
+    {
+        
+        final Class<?> enumClass;
+        try{
+
+            enumClass = Class.forName( enumType );
+            
+        }catch( ClassNotFoundException ex )
+        {
+            throw new CSVConfigurationException( "The value enum-type do not represent a canonical class name", ex );
+        }
+        
+        if( ! enumClass.isEnum() )
+            throw new CSVConfigurationException( "The value enum-type to not represent an enum" );
+        
+        final String ignoreCase = params.get( "ignore-case" );
+        if( ignoreCase != null && ! "true".equals(ignoreCase) && ! "false".equals(ignoreCase) )
+            throw new CSVConfigurationException( "The value ignore-case must be true or false" );
+        
+        final Map<String,String> aliases = new LinkedHashMap<String,String>();
+        final String aliasList = params.get( "aliases" );
+        if( aliasList != null && ! aliasList.trim().isEmpty() )
+            for( String alias : aliasList.split(",") )
+            {
+                final int separator = alias.indexOf( '=' );
+                if( separator <= 0 || separator == alias.length() - 1 )
+                    throw new CSVConfigurationException( "The alias " + alias + " is not in the form ALIAS=CONSTANT" );
+                
+                aliases.put( alias.substring(0, separator).trim(), alias.substring(separator+1).trim() );
+            }
+        
+        try{
+            
+            return new StringToEnum( enumClass, "true".equals(ignoreCase), aliases );
+            
+        }catch( IllegalArgumentException ex )
+        {
+            throw new CSVConfigurationException( "Unable to build parseEnum for " + enumType, ex );
+        }
+        
+    }
+    
 }
\ No newline at end of file
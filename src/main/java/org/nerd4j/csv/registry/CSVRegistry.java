@@ -114,4 +114,27 @@ public final class CSVRegistry
         return modelToCSVBinderFactoryRegistry;
     }
     
+    
+    /* ******************* */
+    /*  INTERFACE METHODS  */
+    /* ******************* */
+    
+    
+    /**
+     * Returns the number of changes made to any of the internal registries.
+     * The value increases each time a new item is registered.
+     * 
+     * @return the version of the registry.
+     */
+    public long getVersion()
+    {
+        
+        return validatorRegistry.getVersion()
+             + converterRegistry.getVersion()
+             + processorRegistry.getVersion()
+             + csvToModelBinderFactoryRegistry.getVersion()
+             + modelToCSVBinderFactoryRegistry.getVersion();
+        
+    }
+    
 }
\ No newline at end of file
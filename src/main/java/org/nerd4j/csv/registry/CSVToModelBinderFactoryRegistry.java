@@ -23,6 +23,8 @@ package org.nerd4j.csv.registry;
 
 import java.util.Map;
 
+import org.nerd4j.csv.conf.mapping.ann.AnnotatedConfigurationFactory;
+import org.nerd4j.csv.conf.mapping.ann.CSVGeneratedBinding;
 import org.nerd4j.csv.exception.CSVConfigurationException;
 import org.nerd4j.csv.exception.CSVToModelBindingException;
 import org.nerd4j.csv.reader.binding.CSVToArrayBinderFactory;
@@ -122,7 +124,12 @@ final class CSVToModelBinderFactoryRegistry
                 try{
 
                     final Class<?> beanClass = Class.forName( beanType );
-                    return new CSVToBeanBinderFactory( beanClass );
+                    
+                    /* The binders generated at compile time are preferred to the reflection. */
+                    final CSVGeneratedBinding<?> binding = AnnotatedConfigurationFactory.getGeneratedBinding( beanClass );
+                    final CSVToModelBinderFactory<?> generated = binding != null ? binding.getCSVToModelBinderFactory() : null;
+                    
+                    return generated != null ? generated : new CSVToBeanBinderFactory( beanClass );
                     
                 }catch( ClassNotFoundException ex )
                 {
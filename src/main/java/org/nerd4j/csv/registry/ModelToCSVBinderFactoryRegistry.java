@@ -23,6 +23,8 @@ package org.nerd4j.csv.registry;
 
 import java.util.Map;
 
+import org.nerd4j.csv.conf.mapping.ann.AnnotatedConfigurationFactory;
+import org.nerd4j.csv.conf.mapping.ann.CSVGeneratedBinding;
 import org.nerd4j.csv.exception.CSVConfigurationException;
 import org.nerd4j.csv.exception.ModelToCSVBindingException;
 import org.nerd4j.csv.writer.binding.ArrayToCSVBinderFactory;
@@ -121,7 +123,12 @@ final class ModelToCSVBinderFactoryRegistry extends CSVAbstractRegistry<ModelToC
                 try{
                     
                     final Class<?> beanClass = Class.forName( beanType );
-                    return new BeanToCSVBinderFactory( beanClass );
+                    
+                    /* The binders generated at compile time are preferred to the reflection. */
+                    final CSVGeneratedBinding<?> binding = AnnotatedConfigurationFactory.getGeneratedBinding( beanClass );
+                    final ModelToCSVBinderFactory<?> generated = binding != null ? binding.getModelToCSVBinderFactory() : null;
+                    
+                    return generated != null ? generated : new BeanToCSVBinderFactory( beanClass );
                     
                 }catch( ClassNotFoundException ex )
                 {
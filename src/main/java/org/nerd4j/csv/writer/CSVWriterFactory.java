@@ -29,6 +29,7 @@ import java.io.Writer;
 
 import org.nerd4j.csv.exception.CSVInvalidHeaderException;
 import org.nerd4j.csv.exception.ModelToCSVBindingException;
+import org.nerd4j.csv.metrics.CSVMetrics;
 
 
 /**
@@ -41,6 +42,26 @@ import org.nerd4j.csv.exception.ModelToCSVBindingException;
 public interface CSVWriterFactory<Model>
 {
     
+    /**
+     * Sets the collector of the metrics of the writers.
+     * <p>
+     * The metrics are collected only by the writers created
+     * after this call, {@code null} disables the metrics.
+     * <p>
+     * By default the metrics are not supported: disabling them has no
+     * effect, setting a collector throws an {@link UnsupportedOperationException}.
+     * 
+     * @param metrics the collector of the metrics, can be {@code null}.
+     * @throws UnsupportedOperationException if the factory does not support the metrics.
+     */
+    default void setMetrics( CSVMetrics metrics )
+    {
+        
+        if( metrics != null )
+            throw new UnsupportedOperationException( getClass().getName() + " does not support the metrics" );
+        
+    }
+    
     /**
      * Creates the {@link CSVWriter} able to write the given
      * data model into the provided CSV destination file.
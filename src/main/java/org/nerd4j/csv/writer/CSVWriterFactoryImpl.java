@@ -23,6 +23,7 @@ package org.nerd4j.csv.writer;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -38,6 +39,9 @@ import org.nerd4j.csv.exception.ModelToCSVBindingException;
 import org.nerd4j.csv.field.CSVField;
 import org.nerd4j.csv.field.CSVFieldMetadata;
 import org.nerd4j.csv.formatter.CSVFormatter;
+import org.nerd4j.csv.metrics.CSVMeteredOutputStream;
+import org.nerd4j.csv.metrics.CSVMeteredWriter;
+import org.nerd4j.csv.metrics.CSVMetrics;
 import org.nerd4j.csv.writer.binding.ModelToCSVBinder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -59,6 +63,9 @@ public final class CSVWriterFactoryImpl<Model> implements CSVWriterFactory<Model
     /** The {@code Factory} for the reader meta-data model. */
     private final CSVWriterMetadataFactory<Model> metadataFactory;
     
+    /** The collector of the metrics of the writers, {@code null} if disabled. */
+    private volatile CSVMetrics metrics;
+    
     
     /**
      * Constructor with parameters.
@@ -74,6 +81,7 @@ public final class CSVWriterFactoryImpl<Model> implements CSVWriterFactory<Model
             throw new NullPointerException( "The CSV writer configuration is mandatory" );
         
         this.metadataFactory = metadataFactory;
+        this.metrics = null;
         
     }
     
@@ -83,6 +91,17 @@ public final class CSVWriterFactoryImpl<Model> implements CSVWriterFactory<Model
     /* ******************* */
     
     
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setMetrics( final CSVMetrics metrics )
+    {
+        
+        this.metrics = metrics;
+        
+    }
+    
     /**
      * {@inheritDoc}
      */
@@ -91,6 +110,10 @@ public final class CSVWriterFactoryImpl<Model> implements CSVWriterFactory<Model
     throws FileNotFoundException, IOException, ModelToCSVBindingException
     {
         
+        /* If the metrics are enabled we need to count the bytes. */
+        if( metrics != null )
+            return getCSVWriter( new FileOutputStream(file) );
+        
         return getCSVWriter( new FileWriter(file) );
         
     }
@@ -103,6 +126,9 @@ public final class CSVWriterFactoryImpl<Model> implements CSVWriterFactory<Model
     throws FileNotFoundException, IOException, ModelToCSVBindingException, CSVInvalidHeaderException
     {
     	
+    	if( metrics != null )
+    		return getCSVWriter( new FileOutputStream(file), header );
+    	
     	return getCSVWriter( new FileWriter(file), header );
     	
     }
@@ -115,7 +141,7 @@ public final class CSVWriterFactoryImpl<Model> implements CSVWriterFactory<Model
     throws IOException, ModelToCSVBindingException
     {
         
-        return getCSVWriter( new OutputStreamWriter(os) );
+        return getCSVWriter( new OutputStreamWriter(metered(os)) );
         
     }
     
@@ -127,7 +153,7 @@ public final class CSVWriterFactoryImpl<Model> implements CSVWriterFactory<Model
     throws IOException, ModelToCSVBindingException, CSVInvalidHeaderException
     {
     	
-    	return getCSVWriter( new OutputStreamWriter(os), header );
+    	return getCSVWriter( new OutputStreamWriter(metered(os)), header );
     	
     }
     
@@ -205,8 +231,11 @@ public final class CSVWriterFactoryImpl<Model> implements CSVWriterFactory<Model
     throws IOException, ModelToCSVBindingException
     {
     	
+    	/* If the metrics are enabled we count the characters written. */
+    	final CSVMetrics metrics = this.metrics;
+    	
     	/* We create the formatter able to format the given data source. */
-    	final CSVFormatter csvFormatter = metadata.getFormatterFactory().create( writer );
+    	final CSVFormatter csvFormatter = metadata.getFormatterFactory().create( metrics != null ? new CSVMeteredWriter(writer, metrics) : writer );
     	
     	/* As second step we write the CSV header if requested. */
     	if( metadata.isWriteHeader() )
@@ -221,13 +250,30 @@ public final class CSVWriterFactoryImpl<Model> implements CSVWriterFactory<Model
     	final ModelToCSVBinder<Model> modelBinder = metadata.getModelBinderFactory().getModelToCSVBinder( metadata, header );
     	
     	/* Finally we create the CSV writer. */
-    	final CSVWriter<Model> csvWriter = new CSVWriterImpl<Model>( csvFormatter, header, fields, modelBinder );
+    	final CSVWriterImpl<Model> csvWriter = new CSVWriterImpl<Model>( csvFormatter, header, fields, modelBinder );
+    	csvWriter.setMetrics( metrics );
+    	csvWriter.setFlightRecorder( metadataFactory.getName() );
     	
     	return csvWriter;
     	
     }
     
     
+    /**
+     * Wraps the given stream to count the bytes
+     * written if the metrics are enabled.
+     * 
+     * @param os the stream to wrap.
+     * @return the wrapped stream.
+     */
+    private OutputStream metered( OutputStream os )
+    {
+    	
+    	final CSVMetrics metrics = this.metrics;
+    	return metrics != null ? new CSVMeteredOutputStream( os, metrics ) : os;
+    	
+    }
+    
     /**
      * Creates a new header retrieving the column names from
      * the internal configuration.
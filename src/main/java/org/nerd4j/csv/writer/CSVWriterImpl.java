@@ -30,6 +30,8 @@ import org.nerd4j.csv.exception.ModelToCSVBindingException;
 import org.nerd4j.csv.field.CSVField;
 import org.nerd4j.csv.field.CSVFieldProcessContext;
 import org.nerd4j.csv.formatter.CSVFormatter;
+import org.nerd4j.csv.metrics.CSVFlightRecorder;
+import org.nerd4j.csv.metrics.CSVMetrics;
 import org.nerd4j.csv.writer.binding.ModelToCSVBinder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -78,6 +80,18 @@ final class CSVWriterImpl<M> implements CSVWriter<M>
     /** The writing process outcome. */ 
     private final CSVProcessOutcomeImpl outcome;
     
+    /** The collector of the metrics, {@code null} if the metrics are disabled. */
+    private CSVMetrics metrics;
+    
+    /** The name of the configuration reported to the Flight Recorder. */
+    private String configurationName;
+    
+    /** The Flight Recorder event of this destination, {@code null} if not enabled. */
+    private Object sourceEvent;
+    
+    /** The number of records written while the source event is enabled. */
+    private long sourceRecords;
+    
     
     /**
      * Constructor with parameters.
@@ -166,6 +180,9 @@ final class CSVWriterImpl<M> implements CSVWriter<M>
          */
         logger.debug( "Proceeding to write a new CSV record" );
         
+        /* If enabled we emit the Flight Recorder event related to the record. */
+        final Object event = CSVFlightRecorder.beginRecord();
+        
         /* We create a new empty model. */
         modelBinder.setModel( model );
         
@@ -185,7 +202,16 @@ final class CSVWriterImpl<M> implements CSVWriter<M>
             final String processedValue = fields[i].process( originalValue, context );
 
             /* If an error occurs during the processing of the field we fail the process. */
-            if( context.isError() ) return outcome;
+            if( context.isError() )
+            {
+                if( metrics != null )
+                    metrics.fieldFailed( context.getColumnName(), context.getError().getOperation() );
+                
+                if( event != null )
+                    endRecordEvent( event, i );
+                
+                return outcome;
+            }
             
             /*
              * Otherwise we write the processed value
@@ -214,6 +240,12 @@ final class CSVWriterImpl<M> implements CSVWriter<M>
          */
         formatter.writeEOR();
         
+        if( metrics != null )
+            metrics.recordWritten( outputRecord.length );
+        
+        if( event != null )
+            endRecordEvent( event, outputRecord.length );
+        
         /*
          * Now we are in a consistent position (the end of the CSV source record)
          * and we can return the related data model. 
@@ -233,6 +265,9 @@ final class CSVWriterImpl<M> implements CSVWriter<M>
         this.formatter.writeEOD();
         this.formatter.close();
         
+        CSVFlightRecorder.endSource( sourceEvent, sourceRecords );
+        sourceEvent = null;
+        
     }
 
     
@@ -248,6 +283,60 @@ final class CSVWriterImpl<M> implements CSVWriter<M>
     }
     
     
+    /**
+     * Enables the collection of the metrics.
+     * 
+     * @param metrics the collector of the metrics, {@code null} to disable.
+     */
+    void setMetrics( final CSVMetrics metrics )
+    {
+        
+        this.metrics = metrics;
+        
+    }
+    
+    /**
+     * Enables the Flight Recorder events related to this writer.
+     * <p>
+     * This method must be invoked before to start writing.
+     * 
+     * @param configurationName the name of the configuration, can be {@code null}.
+     */
+    void setFlightRecorder( final String configurationName )
+    {
+        
+        this.configurationName = configurationName;
+        this.sourceEvent = CSVFlightRecorder.beginSource( configurationName, CSVFlightRecorder.WRITE );
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Ends the Flight Recorder event related to the current record.
+     * 
+     * @param event  the event to end.
+     * @param fields the number of fields processed.
+     */
+    private void endRecordEvent( final Object event, final int fields )
+    {
+        
+        long chars = 0L;
+        for( int i = 0; i < fields; ++i )
+            if( outputRecord[i] != null )
+                chars += outputRecord[i].length();
+        
+        ++sourceRecords;
+        CSVFlightRecorder.endRecord( event, configurationName, CSVFlightRecorder.WRITE, context.getRowIndex(),
+                                     chars, context.isError() );
+        
+    }
+    
+    
     /* *************** */
     /*  INNER CLASSES  */
     /* *************** */
@@ -38,13 +38,13 @@ public final class CSVWriterMetadataFactory<Model>
 {
 	
 	/** Configuration to be parsed to create the meta-data model. */
-	private CSVWriterConf writerConf;
+	private final CSVWriterConf writerConf;
 	
 	/** The global CSV configuration. */
-	private CSVConfiguration configuration;
+	private final CSVConfiguration configuration;
 	
 	/** The configuration registry to be used if needed. */
-	private CSVRegistry registry;
+	private final CSVRegistry registry;
 	
 	
 	/**
@@ -85,4 +85,18 @@ public final class CSVWriterMetadataFactory<Model>
         
     }
     
-}
\ No newline at end of file
+    
+    /**
+     * Returns the name of the writer configuration
+     * used to create the meta-data model.
+     * 
+     * @return name of the configuration, can be {@code null}.
+     */
+    public String getName()
+    {
+        
+        return writerConf.getName();
+        
+    }
+    
+}
@@ -0,0 +1,217 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.writer.binding;
+
+import org.nerd4j.csv.exception.ModelToCSVBindingException;
+import org.nerd4j.csv.field.CSVFieldMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Abstract implementation of a {@link ModelToCSVBinderFactory} for
+ * data beans where the bean properties are identified by an index
+ * instead of by reflection.
+ * <p>
+ * This class is intended to be extended by the code generated
+ * at compile time by the annotation processor, where each property
+ * is read by a direct call to the related getter.
+ * 
+ * @param <B> type of the bean representing the model.
+ * 
+ * @author Nerd4j Team
+ */
+public abstract class AbstractBeanToCSVBinderFactory<B> extends AbstractModelToCSVBinderFactory<B,Integer>
+{
+    
+    /** Internal logging system. */
+    private static final Logger logger = LoggerFactory.getLogger( AbstractBeanToCSVBinderFactory.class );
+    
+    
+    /**
+     * Default constructor.
+     * 
+     * @throws ModelToCSVBindingException if the creation fails.
+     */
+    protected AbstractBeanToCSVBinderFactory()
+    throws ModelToCSVBindingException
+    {
+        
+        super( Integer.class );
+        
+    }
+    
+    
+    /* ***************** */
+    /*  EXTENSION HOOKS  */
+    /* ***************** */
+    
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Integer getMapping( final String mappingDescriptor )
+    {
+        
+        final int property = getProperty( mappingDescriptor );
+        return property < 0 ? null : property;
+        
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected ModelToCSVBinder<B> getBinder( final CSVFieldMetadata<?,?>[] fieldConfs, final Integer[] fieldMapping )
+    {
+        
+        final int[] columnMapping = new int[fieldMapping.length];
+        for( int i = 0; i < fieldMapping.length; ++i )
+            columnMapping[i] = fieldMapping[i] != null ? fieldMapping[i] : -1;
+        
+        return new BeanToCSVBinder( columnMapping );
+        
+    }
+    
+    /**
+     * Returns the index of the bean property with the given name.
+     * 
+     * @param name the name of the property.
+     * @return the index of the property, {@code -1} if there is no readable property with the given name.
+     */
+    protected abstract int getProperty( String name );
+    
+    /**
+     * Reads the value of the property with the given index.
+     * 
+     * @param bean     the bean to read.
+     * @param property the index of the property to read.
+     * @return the value of the property.
+     */
+    protected abstract Object getValue( B bean, int property );
+    
+    
+    /* *************** */
+    /*  INNER CLASSES  */
+    /* *************** */
+    
+    
+    /**
+     * Represents an implementation of {@link ModelToCSVBinder} that
+     * delegates the bean properties reading to the extension hooks.
+     * 
+     * @author Nerd4j Team
+     */
+    private class BeanToCSVBinder implements ModelToCSVBinder<B>
+    {
+        
+        /**
+         * This array is intended to contain a mapping that associates
+         * each output column index into the related bean property index.
+         */
+        private final int[] columnMapping;
+        
+        /** The internal instance of the data model. */
+        private B model;
+        
+        
+        /**
+         * Constructor with parameters.
+         * 
+         * @param columnMapping mapping of the columns.
+         */
+        public BeanToCSVBinder( final int[] columnMapping )
+        {
+            
+            super();
+            
+            this.model = null;
+            this.columnMapping = columnMapping;
+            
+        }
+        
+        
+        /* ******************* */
+        /*  INTERFACE METHODS  */
+        /* ******************* */
+        
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void setModel( B model )
+        {
+            
+            this.model = model;
+            
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int getRecordSize()
+        {
+            
+            return columnMapping.length;
+            
+        }
+        
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Object getValue( int column ) throws ModelToCSVBindingException
+        {
+            
+            if( model == null )
+            {
+                logger.error( "Try to read an unexisting bean, the model needs to be set before reading." );
+                throw new ModelToCSVBindingException( "Try to read a model without initialization" );
+            }
+            
+            final int property = column < columnMapping.length ? columnMapping[column] : -1;
+            if( property < 0 )
+            {
+                logger.error( "There is no valid getter for column {} unable to get value.", column );
+                throw new ModelToCSVBindingException( "Try to get a value from a invalid position, the internal mapping is inconsistent." );
+            }
+            
+            try{
+                
+                return AbstractBeanToCSVBinderFactory.this.getValue( model, property );
+                
+            }catch( RuntimeException ex )
+            {
+                
+                logger.error( "Unable to read property " + property + " for column " + column, ex );
+                throw new ModelToCSVBindingException( ex );
+                
+            }
+            
+        }
+        
+    }
+    
+}
@@ -23,6 +23,11 @@ package org.nerd4j.csv;
 import java.io.File;
 import java.io.IOException;
 import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
@@ -35,8 +40,12 @@ import org.junit.Test;
 import org.nerd4j.csv.conf.CSVConfigurationFactory;
 import org.nerd4j.csv.conf.mapping.CSVConfiguration;
 import org.nerd4j.csv.conf.mapping.xml.XMLConfiguration;
+import org.nerd4j.csv.metrics.CSVJmxMetrics;
 import org.nerd4j.csv.model.Product;
+import org.nerd4j.csv.parser.CSVParserFactory;
+import org.nerd4j.csv.reader.CSVReader;
 import org.nerd4j.csv.reader.CSVReaderFactory;
+import org.nerd4j.csv.registry.CSVRegistry;
 import org.nerd4j.test.BaseTest;
 
 /**
@@ -108,6 +117,78 @@ public class CSVFactoryTest extends BaseTest
         
     }
     
+    @Test
+    public void getMemoisedFactories() throws Exception
+    {
+        
+        final String xml = "<csv:configuration xmlns:csv=\"http://www.nerd4j.org/csv\">" +
+                             "<csv:parser name=\"parser\" escape=\"\" quote=\"#\" field-sep=\"!\" record-sep=\"|\" />" +
+                             "<csv:reader name=\"reader\">" +
+                               "<csv:model-binder type=\"array\" />" +
+                               "<csv:columns>" +
+                                 "<csv:column name=\"col-1\" mapping=\"0\" />" +
+                               "</csv:columns>" +
+                             "</csv:reader>" +
+                           "</csv:configuration>";
+        
+        final CSVConfiguration configuration = new CSVConfigurationFactory().getCSVConfiguration( new StringReader(xml) );
+        final CSVFactory factory = new CSVFactory( configuration );
+        
+        /* The same parser factory is shared by all the threads. */
+        final ExecutorService executor = Executors.newFixedThreadPool( 8 );
+        final List<Future<CSVParserFactory>> results = new ArrayList<Future<CSVParserFactory>>();
+        for( int i = 0; i < 64; ++i )
+            results.add( executor.submit(() -> factory.getCSVParserFactory("parser")) );
+        
+        final CSVParserFactory parserFactory = factory.getCSVParserFactory( "parser" );
+        for( Future<CSVParserFactory> result : results )
+            Assert.assertSame( parserFactory, result.get() );
+        
+        executor.shutdown();
+        
+        /* Each caller gets its own reader factory so the metrics are not shared. */
+        final CSVReaderFactory<Object[]> metered = factory.getCSVReaderFactory( "reader" );
+        final CSVReaderFactory<Object[]> unmetered = factory.getCSVReaderFactory( "reader" );
+        Assert.assertNotSame( metered, unmetered );
+        
+        final CSVJmxMetrics metrics = new CSVJmxMetrics( "memoised", 1 );
+        metered.setMetrics( metrics );
+        
+        readAll( unmetered );
+        Assert.assertEquals( 0, metrics.getRecordsRead() );
+        
+        readAll( metered );
+        Assert.assertEquals( 2, metrics.getRecordsRead() );
+        
+        /* Registering new items invalidates the built items. */
+        final CSVRegistry registry = factory.getRegistry();
+        registry.getValidatorRegistry().setProvider( "checkStringLength", registry.getValidatorRegistry().getProvider("checkStringLength") );
+        
+        Assert.assertNotSame( parserFactory, factory.getCSVParserFactory("parser") );
+        Assert.assertSame( factory.getCSVParserFactory("parser"), factory.getCSVParserFactory("parser") );
+        
+        /* The metrics set by the caller survive the rebuild. */
+        readAll( metered );
+        Assert.assertEquals( 4, metrics.getRecordsRead() );
+        
+    }
+    
+    /**
+     * Reads all the records of a two lines CSV with the given factory.
+     * 
+     * @param readerFactory the factory to use.
+     * @throws Exception if something goes wrong.
+     */
+    private void readAll( CSVReaderFactory<Object[]> readerFactory ) throws Exception
+    {
+        
+        try( CSVReader<Object[]> reader = readerFactory.getCSVReader(new StringReader("col-1\na\nb\n")) )
+        {
+            while( reader.read() != null && ! reader.isEndOfData() );
+        }
+        
+    }
+    
     
 //    @Test
     public void generateXMLSchema() throws JAXBException, IOException
@@ -0,0 +1,289 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.conf;
+
+import java.io.File;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.nerd4j.csv.conf.mapping.CSVConfiguration;
+import org.nerd4j.csv.conf.mapping.CSVReaderConf;
+import org.nerd4j.csv.conf.mapping.CSVWriterConf;
+import org.nerd4j.csv.conf.mapping.ann.AnnotatedConfigurationFactory;
+import org.nerd4j.csv.conf.mapping.ann.CSVAnnotationProcessor;
+import org.nerd4j.csv.conf.mapping.ann.CSVGeneratedBinding;
+import org.nerd4j.csv.reader.CSVReader;
+import org.nerd4j.csv.reader.CSVReaderFactoryImpl;
+import org.nerd4j.csv.reader.CSVReaderMetadataFactory;
+import org.nerd4j.csv.reader.binding.CSVToModelBinderFactory;
+import org.nerd4j.csv.registry.CSVRegistry;
+import org.nerd4j.csv.registry.CSVRegistryEntryProvider;
+import org.nerd4j.csv.writer.CSVWriter;
+import org.nerd4j.csv.writer.CSVWriterFactoryImpl;
+import org.nerd4j.csv.writer.CSVWriterMetadataFactory;
+import org.nerd4j.csv.writer.binding.ModelToCSVBinderFactory;
+
+
+/**
+ * {@link CSVAnnotationProcessor} unit tests.
+ * 
+ * @author Nerd4j Team
+ */
+public class CSVAnnotationProcessorTest
+{
+    
+    /** Name of the annotated bean compiled by the tests. */
+    private static final String BEAN = "org.nerd4j.csv.gen.Item";
+    
+    /** Source of the annotated bean compiled by the tests. */
+    private static final String SOURCE =
+          "package org.nerd4j.csv.gen;\n"
+        + "import org.nerd4j.csv.conf.mapping.ann.*;\n"
+        + "@CSVReader @CSVWriter\n"
+        + "public class Item {\n"
+        + "  @CSVColumn(name=\"name\") private String name;\n"
+        + "  @CSVColumn(name=\"quantity\") Integer quantity;\n"
+        + "  private Integer price;\n"
+        + "  public String getName() { return name; }\n"
+        + "  public void setName( String name ) { this.name = name; }\n"
+        + "  public Integer getQuantity() { return quantity; }\n"
+        + "  @CSVColumn(name=\"price\") public Integer getPrice() { return price; }\n"
+        + "  public void setPrice( Integer price ) { this.price = price; }\n"
+        + "}\n";
+    
+    /** Source of a binding embedding a snapshot with an older version. */
+    private static final String STALE_BINDING =
+          "package org.nerd4j.csv.gen;\n"
+        + "public final class Item_CSVBinding extends org.nerd4j.csv.conf.mapping.ann.AbstractCSVGeneratedBinding<Item> {\n"
+        + "  protected String getSnapshot() { return \"\\u004e\\u0034\\u0043\\u0053\\u0000\\u0000\\u0000\\u0002\"; }\n"
+        + "  public org.nerd4j.csv.reader.binding.CSVToModelBinderFactory<Item> getCSVToModelBinderFactory() { return null; }\n"
+        + "  public org.nerd4j.csv.writer.binding.ModelToCSVBinderFactory<Item> getModelToCSVBinderFactory() { return null; }\n"
+        + "}\n";
+    
+    
+    @Test
+    public void generatedConfiguration() throws Exception
+    {
+        
+        final Path classes = compile();
+        
+        /* The same bean without the generated binding is configured by reflection. */
+        final Path plain = Files.createTempDirectory( "csv-plain" );
+        final Path bean = plain.resolve( "org/nerd4j/csv/gen/Item.class" );
+        Files.createDirectories( bean.getParent() );
+        Files.copy( classes.resolve("org/nerd4j/csv/gen/Item.class"), bean );
+        
+        final Class<?> generatedBean = load( classes );
+        final Class<?> reflectionBean = load( plain );
+        
+        Assert.assertNotNull( AnnotatedConfigurationFactory.getGeneratedBinding(generatedBean) );
+        Assert.assertNull( AnnotatedConfigurationFactory.getGeneratedBinding(reflectionBean) );
+        
+        final CSVConfiguration generated = new CSVConfigurationFactory().getCSVConfiguration( generatedBean );
+        final CSVConfiguration reflection = new CSVConfigurationFactory().getCSVConfiguration( reflectionBean );
+        
+        Assert.assertEquals( reflection.getReaders().keySet(), generated.getReaders().keySet() );
+        Assert.assertEquals( reflection.getWriters().keySet(), generated.getWriters().keySet() );
+        Assert.assertEquals( CSVConfFingerprint.of(reflection.getReaders().get(BEAN)),
+                             CSVConfFingerprint.of(generated.getReaders().get(BEAN)) );
+        Assert.assertEquals( CSVConfFingerprint.of(reflection.getWriters().get(BEAN)),
+                             CSVConfFingerprint.of(generated.getWriters().get(BEAN)) );
+        
+    }
+    
+    @Test
+    public void staleGeneratedConfiguration() throws Exception
+    {
+        
+        final Class<?> staleBean = load( compile(false, "Item.java", SOURCE, "Item_CSVBinding.java", STALE_BINDING) );
+        final Class<?> reflectionBean = load( compile(false, "Item.java", SOURCE) );
+        
+        Assert.assertNotNull( AnnotatedConfigurationFactory.getGeneratedBinding(staleBean) );
+        Assert.assertNull( AnnotatedConfigurationFactory.getGeneratedBinding(reflectionBean) );
+        
+        /* The snapshot can't be read so the configuration is built by reflection. */
+        final CSVConfiguration stale = new CSVConfigurationFactory().getCSVConfiguration( staleBean );
+        final CSVConfiguration reflection = new CSVConfigurationFactory().getCSVConfiguration( reflectionBean );
+        
+        Assert.assertEquals( CSVConfFingerprint.of(reflection.getReaders().get(BEAN)),
+                             CSVConfFingerprint.of(stale.getReaders().get(BEAN)) );
+        Assert.assertEquals( CSVConfFingerprint.of(reflection.getWriters().get(BEAN)),
+                             CSVConfFingerprint.of(stale.getWriters().get(BEAN)) );
+        
+    }
+    
+    @Test
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void generatedBinders() throws Exception
+    {
+        
+        final Class<?> beanClass = load( compile() );
+        final CSVGeneratedBinding<?> binding = AnnotatedConfigurationFactory.getGeneratedBinding( beanClass );
+        final CSVConfiguration configuration = new CSVConfigurationFactory().getCSVConfiguration( beanClass );
+        
+        /* The generated factories are registered under a custom name. */
+        final CSVRegistry registry = new CSVRegistry();
+        registry.getCsvToModelBinderFactoryRegistry().setProvider( "generated", new CSVRegistryEntryProvider<CSVToModelBinderFactory<?>>()
+        {
+            @Override
+            public CSVToModelBinderFactory<?> get( Map<String,String> params ) { return binding.getCSVToModelBinderFactory(); }
+            @Override
+            public void validate( Map<String,String> params ) {}
+        });
+        registry.getModelToCSVBinderFactoryRegistry().setProvider( "generated", new CSVRegistryEntryProvider<ModelToCSVBinderFactory<?>>()
+        {
+            @Override
+            public ModelToCSVBinderFactory<?> get( Map<String,String> params ) { return binding.getModelToCSVBinderFactory(); }
+            @Override
+            public void validate( Map<String,String> params ) {}
+        });
+        
+        final CSVReaderConf readerConf = configuration.getReaders().get( BEAN );
+        readerConf.getModelBinder().setType( "generated" );
+        
+        final CSVReader<Object> reader = new CSVReaderFactoryImpl( new CSVReaderMetadataFactory(readerConf, configuration, registry) )
+                                             .getCSVReader( new StringReader("name,quantity,price\nfoo,3,12\n") );
+        final Object item = reader.readModel();
+        reader.close();
+        
+        Assert.assertEquals( "foo", beanClass.getMethod("getName").invoke(item) );
+        Assert.assertEquals( 3, beanClass.getMethod("getQuantity").invoke(item) );
+        Assert.assertEquals( 12, beanClass.getMethod("getPrice").invoke(item) );
+        
+        final CSVWriterConf writerConf = configuration.getWriters().get( BEAN );
+        writerConf.getModelBinder().setType( "generated" );
+        
+        final StringWriter target = new StringWriter();
+        final CSVWriter<Object> writer = new CSVWriterFactoryImpl( new CSVWriterMetadataFactory(writerConf, configuration, registry) )
+                                             .getCSVWriter( target );
+        writer.writeModel( item );
+        writer.close();
+        
+        for( String value : Arrays.asList("foo", "3", "12") )
+            Assert.assertTrue( target.toString(), target.toString().contains(value) );
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    /**
+     * Compiles the annotated bean running the {@link CSVAnnotationProcessor}.
+     * 
+     * @return the directory containing the compiled classes.
+     * @throws Exception if the compilation fails.
+     */
+    private Path compile() throws Exception
+    {
+        
+        final Path classes = compile( true, "Item.java", SOURCE );
+        
+        Assert.assertTrue( Files.exists(classes.resolve("org/nerd4j/csv/gen/Item_CSVBinding.java")) );
+        return classes;
+        
+    }
+    
+    /**
+     * Compiles the given sources.
+     * 
+     * @param process {@code true} to run the {@link CSVAnnotationProcessor}.
+     * @param sources pairs of file names and source codes to compile.
+     * @return the directory containing the compiled classes.
+     * @throws Exception if the compilation fails.
+     */
+    private Path compile( boolean process, String... sources ) throws Exception
+    {
+        
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assume.assumeNotNull( compiler );
+        
+        final Path sourceDir = Files.createTempDirectory( "csv-source" );
+        final List<File> files = new ArrayList<File>();
+        for( int i = 0; i < sources.length; i += 2 )
+        {
+            final Path source = sourceDir.resolve( sources[i] );
+            Files.write( source, sources[i+1].getBytes(StandardCharsets.UTF_8) );
+            files.add( source.toFile() );
+        }
+        
+        final Path classes = Files.createTempDirectory( "csv-classes" );
+        final List<String> options = new ArrayList<String>( Arrays.asList("-classpath", System.getProperty("java.class.path"),
+                                                                          "-d", classes.toString(), "-s", classes.toString()) );
+        if( ! process )
+            options.add( "-proc:none" );
+        
+        final StandardJavaFileManager fileManager = compiler.getStandardFileManager( null, null, StandardCharsets.UTF_8 );
+        try{
+            
+            final CompilationTask task = compiler.getTask( null, fileManager, null, options, null,
+                    fileManager.getJavaFileObjects(files.toArray(new File[files.size()])) );
+            
+            if( process )
+                task.setProcessors( Collections.singletonList(new CSVAnnotationProcessor()) );
+            Assert.assertTrue( "Unable to compile the sources", task.call() );
+            
+        }finally
+        {
+            fileManager.close();
+        }
+        
+        return classes;
+        
+    }
+    
+    /**
+     * Loads the annotated bean from the given directory.
+     * 
+     * @param classes the directory containing the compiled classes.
+     * @return the annotated bean.
+     * @throws Exception if the loading fails.
+     */
+    private Class<?> load( Path classes ) throws Exception
+    {
+        
+        final URLClassLoader loader = new URLClassLoader( new URL[] {classes.toUri().toURL()}, getClass().getClassLoader() );
+        return Class.forName( BEAN, true, loader );
+        
+    }
+    
+}
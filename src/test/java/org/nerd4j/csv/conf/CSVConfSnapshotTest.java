@@ -0,0 +1,80 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.conf;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.nerd4j.csv.CSVFactory;
+import org.nerd4j.csv.conf.mapping.CSVConfiguration;
+import org.nerd4j.csv.conf.mapping.CSVParserConf;
+import org.nerd4j.csv.exception.CSVConfigurationException;
+import org.nerd4j.csv.model.Product;
+
+
+/**
+ * {@link CSVConfSnapshot} unit tests.
+ * 
+ * @author Nerd4j Team
+ */
+public class CSVConfSnapshotTest
+{
+    
+    @Test
+    public void writeAndRead() throws Exception
+    {
+        
+        final CSVConfiguration configuration;
+        try( InputStream source = getClass().getResourceAsStream("/test-conf.xml") )
+        {
+            configuration = new CSVConfigurationFactory().getCSVConfiguration( source, Product.class );
+        }
+        
+        final CSVParserConf parser = configuration.getParsers().get( "csvParser" );
+        parser.setMaxFieldSize( 1024 );
+        
+        final ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        CSVConfSnapshot.write( configuration, snapshot );
+        
+        final CSVConfiguration loaded = CSVConfSnapshot.read( new ByteArrayInputStream(snapshot.toByteArray()) );
+        Assert.assertEquals( CSVConfFingerprint.of(configuration), CSVConfFingerprint.of(loaded) );
+        Assert.assertEquals( configuration.getReaders().keySet(), loaded.getReaders().keySet() );
+        Assert.assertNotNull( new CSVFactory(loaded).getCSVReaderFactory("csvReader") );
+        
+        final CSVParserConf loadedParser = loaded.getParsers().get( "csvParser" );
+        Assert.assertEquals( Integer.valueOf(1024), loadedParser.getMaxFieldSize() );
+        Assert.assertNull( loadedParser.getMaxRecordSize() );
+        
+    }
+    
+    @Test(expected=CSVConfigurationException.class)
+    public void readInvalidSnapshot() throws Exception
+    {
+        
+        CSVConfSnapshot.read( new ByteArrayInputStream(new byte[] {0, 0, 0, 0, 0, 0, 0, 1}) );
+        
+    }
+    
+}
@@ -24,6 +24,10 @@ import java.io.StringReader;
 
 import org.junit.Assert;
 import org.junit.Test;
+import org.nerd4j.csv.conf.mapping.CSVConfiguration;
+import org.nerd4j.csv.conf.mapping.CSVColumnConf;
+import org.nerd4j.csv.conf.mapping.CSVParserConf;
+import org.nerd4j.csv.conf.mapping.CSVReaderConf;
 import org.nerd4j.csv.conf.mapping.xml.XMLConfiguration;
 import org.nerd4j.csv.conf.mapping.xml.XMLConfigurationFactory;
 import org.nerd4j.test.BaseTest;
@@ -60,4 +64,59 @@ public class XMLConfigurationFactoryTest extends BaseTest
 	    
 	}
     
-}
\ No newline at end of file
+    
+    @Test
+    public void loadAttributesAndParams()
+    {
+        
+        final String xml = "<?xml version=\"1.0\"?>" +
+                           "<csv:configuration xmlns:csv=\"http://www.nerd4j.org/csv\">" +
+                             "<!-- comment -->" +
+                             "<csv:parser name=\"parser\" escape=\"\" quote=\"#\" field-sep=\"!\" record-sep=\"|\" strict-quotes=\"1\" />" +
+                             "<csv:reader name=\"reader\" parser-ref=\"parser\" read-header=\"false\">" +
+                               "<csv:model-binder type=\"bean\" bean-class=\"org.nerd4j.csv.model.Product\" />" +
+                               "<csv:unknown><csv:column name=\"ignored\" /></csv:unknown>" +
+                               "<csv:columns>" +
+                                 "<csv:column name=\"col-1\" mapping=\"name\" order=\"2\" optional=\"true\">" +
+                                   "<csv:processor converter-ref=\"parseInt\">" +
+                                     "<csv:precondition type=\"checkStringLength\" min=\"2\" max=\"3\" />" +
+                                   "</csv:processor>" +
+                                 "</csv:column>" +
+                               "</csv:columns>" +
+                             "</csv:reader>" +
+                           "</csv:configuration>";
+        
+        final XMLConfiguration xmlConf = XMLConfigurationFactory.load( new StringReader(xml) );
+        Assert.assertEquals( 1, xmlConf.getParsers().size() );
+        Assert.assertEquals( 1, xmlConf.getReaders().size() );
+        Assert.assertNull( xmlConf.getWriters() );
+        Assert.assertEquals( 1, xmlConf.getReaders().get(0).getColumns().size() );
+        
+        final CSVConfiguration csvConf = new CSVConfiguration();
+        XMLConfigurationFactory.merge( xmlConf, csvConf );
+        
+        final CSVParserConf parser = csvConf.getParsers().get( "parser" );
+        Assert.assertNull( parser.getEscapeChar() );
+        Assert.assertEquals( Character.valueOf('#'), parser.getQuoteChar() );
+        Assert.assertEquals( Character.valueOf('!'), parser.getFieldSeparator() );
+        Assert.assertEquals( "|", new String(parser.getRecordSeparator()) );
+        Assert.assertEquals( Boolean.TRUE, parser.isStrictQuotes() );
+        
+        final CSVReaderConf reader = csvConf.getReaders().get( "reader" );
+        Assert.assertEquals( "parser", reader.getParserRef() );
+        Assert.assertEquals( Boolean.FALSE, reader.getReadHeader() );
+        Assert.assertEquals( "bean", reader.getModelBinder().getType() );
+        Assert.assertEquals( "org.nerd4j.csv.model.Product", reader.getModelBinder().getParams().get("bean-class") );
+        
+        final CSVColumnConf column = reader.getColumns().get( "col-1" );
+        Assert.assertEquals( "name", column.getMapping() );
+        Assert.assertEquals( Integer.valueOf(2), column.getOrder() );
+        Assert.assertEquals( Boolean.TRUE, column.getOptional() );
+        Assert.assertEquals( "parseInt", column.getProcessor().getConverterRef() );
+        Assert.assertEquals( "checkStringLength", column.getProcessor().getPrecondition().getType() );
+        Assert.assertEquals( "3", column.getProcessor().getPrecondition().getParams().get("max") );
+        Assert.assertFalse( column.getProcessor().getPrecondition().getParams().containsKey("type") );
+        
+    }
+    
+}
@@ -0,0 +1,132 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.field;
+
+import java.io.StringReader;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.nerd4j.csv.CSVFactory;
+import org.nerd4j.csv.conf.CSVConfigurationFactory;
+import org.nerd4j.csv.conf.mapping.CSVConfiguration;
+import org.nerd4j.csv.metrics.CSVJmxMetrics;
+import org.nerd4j.csv.reader.CSVReader;
+import org.nerd4j.csv.reader.CSVReaderFactory;
+
+
+/**
+ * {@link CSVStringCache} unit tests.
+ * 
+ * @author Nerd4j Team
+ */
+public class CSVStringCacheTest
+{
+    
+    @Test
+    public void returnsCanonicalValues()
+    {
+        
+        final CSVStringCache cache = new CSVStringCache( 16 );
+        
+        final String first = cache.get( new StringBuilder("EUR") );
+        Assert.assertEquals( "EUR", first );
+        Assert.assertSame( first, cache.get(new StringBuilder("EUR")) );
+        Assert.assertEquals( "GBP", cache.get(new StringBuilder("GBP")) );
+        Assert.assertSame( first, cache.get(new StringBuilder("EUR")) );
+        
+        Assert.assertEquals( 2, cache.getHits() );
+        Assert.assertEquals( 2, cache.getMisses() );
+        Assert.assertEquals( 0.5, cache.getHitRate(), 0.0 );
+        
+    }
+    
+    @Test
+    public void disablesOnHighCardinality()
+    {
+        
+        final CSVStringCache cache = new CSVStringCache();
+        for( int i = 0; i < CSVStringCache.SAMPLE_SIZE; ++i )
+        {
+            Assert.assertTrue( cache.isEnabled() );
+            cache.get( "value-" + i );
+        }
+        
+        Assert.assertFalse( cache.isEnabled() );
+        Assert.assertEquals( "value-0", cache.get(new StringBuilder("value-0")) );
+        Assert.assertEquals( CSVStringCache.SAMPLE_SIZE, cache.getMisses() );
+        
+    }
+    
+    @Test
+    public void readDeduplicatedColumn() throws Exception
+    {
+        
+        final String xml = "<csv:configuration xmlns:csv=\"http://www.nerd4j.org/csv\">" +
+                             "<csv:reader name=\"reader\">" +
+                               "<csv:model-binder type=\"array\" />" +
+                               "<csv:columns>" +
+                                 "<csv:column name=\"name\" mapping=\"0\" />" +
+                                 "<csv:column name=\"currency\" mapping=\"1\" dedup=\"true\" />" +
+                               "</csv:columns>" +
+                             "</csv:reader>" +
+                           "</csv:configuration>";
+        
+        final CSVConfiguration configuration = new CSVConfigurationFactory().getCSVConfiguration( new StringReader(xml) );
+        Assert.assertTrue( configuration.getReaders().get("reader").getColumns().get("currency").getDedup() );
+        
+        final CSVFactory factory = new CSVFactory( configuration );
+        final CSVReaderFactory<Object[]> readerFactory = factory.<Object[]>getCSVReaderFactory( "reader" );
+        
+        final CSVJmxMetrics metrics = new CSVJmxMetrics( "dedup-test" );
+        readerFactory.setMetrics( metrics );
+        
+        final String source = "name,currency\nfirst,EUR\nsecond,EUR\nthird,GBP\n";
+        try( CSVReader<Object[]> reader = readerFactory.getCSVReader(new StringReader(source)) )
+        {
+            
+            final Object[] first = reader.readModel();
+            final Object[] second = reader.readModel();
+            final Object[] third = reader.readModel();
+            
+            Assert.assertEquals( "EUR", first[1] );
+            Assert.assertSame( first[1], second[1] );
+            Assert.assertEquals( "GBP", third[1] );
+            Assert.assertNotSame( first[0], second[0] );
+            
+        }
+        
+        Assert.assertEquals( 1, metrics.getStringCacheHits() );
+        Assert.assertEquals( 2, metrics.getStringCacheMisses() );
+        
+        /* Each reader has its own cache so the values are cached again. */
+        try( CSVReader<Object[]> reader = readerFactory.getCSVReader(new StringReader(source)) )
+        {
+            while( reader.readModel() != null );
+            reader.close();
+        }
+        
+        Assert.assertEquals( 2, metrics.getStringCacheHits() );
+        Assert.assertEquals( 4, metrics.getStringCacheMisses() );
+        
+    }
+    
+}
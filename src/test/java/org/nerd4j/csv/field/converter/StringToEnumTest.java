@@ -0,0 +1,150 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.field.converter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.nerd4j.csv.exception.CSVConfigurationException;
+import org.nerd4j.csv.field.CSVFieldConverter;
+import org.nerd4j.csv.field.CSVFieldProcessContext;
+import org.nerd4j.csv.model.Product.Currency;
+import org.nerd4j.csv.registry.CSVRegistry;
+
+
+/**
+ * Test for the dictionary based converters.
+ * 
+ * @author Nerd4j Team
+ */
+public class StringToEnumTest
+{
+	
+	
+	/* ************** */
+	/*  TEST METHODS  */
+	/* ************** */
+	
+	
+    @Test
+    public void testConvertChars()
+    {
+    	
+    	final StringToEnum<Currency> converter = new StringToEnum<Currency>( Currency.class );
+    	
+    	Assert.assertSame( Currency.EUR, converter.convertChars(new StringBuilder("EUR")) );
+    	Assert.assertSame( Currency.GBP, converter.convertChars(new StringBuilder("GBP")) );
+    	Assert.assertNull( converter.convertChars(new StringBuilder("eur")) );
+    	Assert.assertNull( converter.convertChars(new StringBuilder("EU")) );
+    	Assert.assertNull( converter.convertChars(new StringBuilder("")) );
+    	
+    }
+    
+    @Test
+    public void testIgnoreCaseAndAliases()
+    {
+    	
+    	final Map<String,String> aliases = new HashMap<String,String>();
+    	aliases.put( "euro", "EUR" );
+    	aliases.put( "$", "USD" );
+    	
+    	final StringToEnum<Currency> converter = new StringToEnum<Currency>( Currency.class, true, aliases );
+    	
+    	Assert.assertSame( Currency.EUR, converter.convertChars(new StringBuilder("eur")) );
+    	Assert.assertSame( Currency.EUR, converter.convertChars(new StringBuilder("Euro")) );
+    	Assert.assertSame( Currency.USD, converter.convertChars(new StringBuilder("$")) );
+    	Assert.assertSame( Currency.GBP, converter.convertChars(new StringBuilder("gBp")) );
+    	Assert.assertNull( converter.convertChars(new StringBuilder("yen")) );
+    	
+    	aliases.put( "pound", "GBX" );
+    	try{
+    		
+    		new StringToEnum<Currency>( Currency.class, true, aliases );
+    		Assert.fail( "An alias of an unknown constant should be rejected" );
+    		
+    	}catch( IllegalArgumentException ex ) {}
+    	
+    }
+    
+    @Test
+    public void testConvertWithoutExceptions()
+    {
+    	
+    	final CSVFieldProcessContext context = new CSVFieldProcessContext( null );
+    	final StringToEnum<Currency> converter = new StringToEnum<Currency>( Currency.class );
+    	
+    	Assert.assertSame( Currency.USD, converter.convert("USD", context) );
+    	Assert.assertFalse( context.isError() );
+    	
+    	Assert.assertNull( converter.convert("XXX", context) );
+    	Assert.assertTrue( context.isError() );
+    	
+    }
+    
+    @Test
+    public void testBooleanChars()
+    {
+    	
+    	final StringToBoolean converter = new StringToBoolean();
+    	
+    	Assert.assertEquals( Boolean.TRUE, converter.convertChars(new StringBuilder("Yes")) );
+    	Assert.assertEquals( Boolean.TRUE, converter.convertChars(new StringBuilder("TRUE")) );
+    	Assert.assertEquals( Boolean.TRUE, converter.convertChars(new StringBuilder("1")) );
+    	Assert.assertEquals( Boolean.FALSE, converter.convertChars(new StringBuilder("nO")) );
+    	Assert.assertEquals( Boolean.FALSE, converter.convertChars(new StringBuilder("False")) );
+    	Assert.assertNull( converter.convertChars(new StringBuilder("maybe")) );
+    	Assert.assertNull( converter.convertChars(new StringBuilder("ture")) );
+    	
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRegistryParameters()
+    {
+    	
+    	final CSVRegistry registry = new CSVRegistry();
+    	final Map<String,String> params = new HashMap<String,String>();
+    	params.put( "enum-type", Currency.class.getName() );
+    	params.put( "ignore-case", "true" );
+    	params.put( "aliases", "euro=EUR, dollar=USD" );
+    	
+    	registry.getConverterRegistry().getProvider( "parseEnum" ).validate( params );
+    	final CSVFieldConverter<String,Currency> converter = (CSVFieldConverter<String,Currency>)
+    			registry.getConverterRegistry().provideFactory( "parseEnum", params ).create();
+    	
+    	final CSVFieldProcessContext context = new CSVFieldProcessContext( null );
+    	Assert.assertSame( Currency.EUR, converter.convert("EURO", context) );
+    	Assert.assertSame( Currency.USD, converter.convert("dollar", context) );
+    	
+    	params.put( "aliases", "euro" );
+    	try{
+    		
+    		registry.getConverterRegistry().getProvider( "parseEnum" ).validate( params );
+    		Assert.fail( "A malformed alias should be rejected" );
+    		
+    	}catch( CSVConfigurationException ex ) {}
+    	
+    }
+    
+}
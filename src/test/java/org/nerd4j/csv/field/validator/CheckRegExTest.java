@@ -0,0 +1,176 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.field.validator;
+
+import java.util.regex.Pattern;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.nerd4j.csv.field.CSVFieldProcessContext;
+import org.nerd4j.csv.field.CSVFieldProcessor;
+import org.nerd4j.csv.field.converter.StringToBoolean;
+
+
+/**
+ * Test for the class CheckRegEx.
+ * 
+ * @author Nerd4j Team
+ */
+public class CheckRegExTest
+{
+    
+	private static final String[] compiled = {
+		"[0-9]+", "[A-Z]{3}", "[A-Za-z0-9_-]{1,64}", "ABC-\\d{4,6}", "^\\w*x$", "[a-z]*a",
+		"[^,;]+", "a?b?c?", "\\.\\s\\S.", "[\\d.]{2,}", "x{0}y", "[-a]b[a-]", "\\$[0-9]{1,3}"
+	};
+	
+	private static final String[] fallback = {
+		"(ab)+", "a|b", "a+?", "\\bword", "[a-z&&[^e]]+", "\\p{Alpha}+", "(?i)abc", "a++"
+	};
+	
+	private static final String[] values = {
+		"", "0", "0123", "ABC", "abc", "AB", "ABCD", "ABC-1234", "ABC-123", "ABC-1234567",
+		"aaa", "abx", "x", "a-b", "-b-", "ab", "a,b", ". x.", ".\tyz", "1.", "..", "y", "$12",
+		"$1234", "Word", "word", "wrd", "\u00e8\u00e0", "\ud83d\ude00", "a\ud83d\ude00", ". x\ud83d\ude00", "\n", "a\nb"
+	};
+	
+	
+	/* ************** */
+	/*  TEST METHODS  */
+	/* ************** */
+	
+	
+    @Test
+    public void testCompiledPatterns()
+    {
+    	
+    	for( String regEx : compiled )
+    	{
+    		
+    		Assert.assertNotNull( regEx, RegExAutomaton.compile(regEx) );
+    		assertSameResult( regEx );
+    		
+    	}
+    	
+    }
+    
+    @Test
+    public void testFallbackPatterns()
+    {
+    	
+    	for( String regEx : fallback )
+    	{
+    		
+    		Assert.assertNull( regEx, RegExAutomaton.compile(regEx) );
+    		assertSameResult( regEx );
+    		
+    	}
+    	
+    }
+    
+    @Test
+    public void testAcceptLength()
+    {
+    	
+    	final CheckRegEx regEx = new CheckRegEx( "ABC-\\d{4,6}" );
+    	Assert.assertFalse( regEx.acceptLength(7) );
+    	Assert.assertTrue( regEx.acceptLength(8) );
+    	Assert.assertTrue( regEx.acceptLength(10) );
+    	
+    	Assert.assertTrue( new CheckRegEx("[0-9]+").acceptLength(1000) );
+    	Assert.assertTrue( new CheckRegEx("(ab)+").acceptLength(1) );
+    	
+    	final CheckStringLength length = new CheckStringLength( 2, 4 );
+    	Assert.assertFalse( length.acceptLength(1) );
+    	Assert.assertTrue( length.acceptLength(3) );
+    	Assert.assertFalse( length.acceptLength(5) );
+    	
+    	Assert.assertTrue( length.isLengthOnly() );
+    	Assert.assertFalse( regEx.isLengthOnly() );
+    	
+    }
+    
+    @Test
+    public void testLengthOnlyPrecondition()
+    {
+    	
+    	final CheckStringLength length = new CheckStringLength( 4, 5 );
+    	final CSVFieldProcessor<String,Boolean> processor
+    		= new CSVFieldProcessor<String,Boolean>( length, new StringToBoolean(), null );
+    	
+    	/* A length only precondition does not prevent the chars processing. */
+    	Assert.assertTrue( processor.acceptChars() );
+    	
+    	CSVFieldProcessContext context = new CSVFieldProcessContext( null );
+    	Assert.assertEquals( Boolean.TRUE, processor.processChars("true", context) );
+    	Assert.assertFalse( context.isError() );
+    	
+    	/* The chars rejected by the precondition fall back to the String process. */
+    	Assert.assertNull( processor.processChars("yes", context) );
+    	Assert.assertFalse( context.isError() );
+    	Assert.assertNull( processor.process("yes", context) );
+    	Assert.assertTrue( context.isError() );
+    	
+    	context = new CSVFieldProcessContext( null );
+    	Assert.assertEquals( Boolean.FALSE, processor.processCheckedLength("false", context) );
+    	Assert.assertFalse( context.isError() );
+    	
+    	processor.rejectLength( context );
+    	Assert.assertTrue( context.isError() );
+    	
+    	/* A regular expression is not granted by the length. */
+    	final CSVFieldProcessor<String,Boolean> regEx
+    		= new CSVFieldProcessor<String,Boolean>( new CheckRegEx("t.*"), new StringToBoolean(), null );
+    	Assert.assertFalse( regEx.acceptChars() );
+    	
+    	context = new CSVFieldProcessContext( null );
+    	Assert.assertNull( regEx.processCheckedLength("false", context) );
+    	Assert.assertTrue( context.isError() );
+    	
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    private static void assertSameResult( String regEx )
+    {
+    	
+    	final Pattern pattern = Pattern.compile( regEx );
+    	final CheckRegEx validator = new CheckRegEx( regEx );
+    	
+    	for( String value : values )
+    	{
+    		
+    		final CSVFieldProcessContext context = new CSVFieldProcessContext( null );
+    		validator.apply( value, context );
+    		
+    		Assert.assertEquals( regEx + " on '" + value + "'",
+    				             pattern.matcher(value).matches(), ! context.isError() );
+    		
+    	}
+    	
+    }
+    
+}
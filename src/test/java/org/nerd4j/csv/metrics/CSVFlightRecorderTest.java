@@ -0,0 +1,159 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.metrics;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.nerd4j.csv.CSVProcessOutcome;
+import org.nerd4j.csv.reader.CSVReader;
+import org.nerd4j.csv.reader.CSVReaderConfigurator;
+import org.nerd4j.csv.reader.CSVReaderFactory;
+import org.nerd4j.csv.reader.CSVReaderFactoryImpl;
+
+
+/**
+ * Test for the class CSVFlightRecorder.
+ * 
+ * @author Nerd4j Team
+ */
+public class CSVFlightRecorderTest
+{
+    
+	private static final String header = "\"NAME\",\"DESCRIPTION\",\"UPC\",\"CURRENCY\",\"PRICE\",\"IN-STOCK\",\"LAST-UPDATE\"\n";
+	
+	private static final String valid = "\"Name\",\"Description\",1,EUR,10.5,true,16-10-14\n";
+	
+	private static final String invalid = "\"Name\",\"Description\",NaN,EUR,10.5,true,16-10-14\n";
+	
+	
+	/* ************** */
+	/*  TEST METHODS  */
+	/* ************** */
+	
+	
+    @Test
+    public void testDisabledEvents() throws Exception
+    {
+    	
+    	/* Without a recording no event is created. */
+    	Assert.assertNull( CSVFlightRecorder.beginSource("conf", CSVFlightRecorder.READ) );
+    	Assert.assertNull( CSVFlightRecorder.beginRecord() );
+    	Assert.assertNull( CSVFlightRecorder.beginRefill() );
+    	Assert.assertFalse( CSVFlightRecorder.isErrorBurstEnabled() );
+    	
+    	/* Ending a disabled event has no effect. */
+    	CSVFlightRecorder.endSource( null, 0 );
+    	CSVFlightRecorder.endRecord( null, "conf", CSVFlightRecorder.READ, 0, 0, false );
+    	CSVFlightRecorder.endRefill( null, 0 );
+    	
+    }
+    
+    @Test
+    public void testReaderEvents() throws Exception
+    {
+    	
+    	final StringBuilder source = new StringBuilder( header );
+    	source.append( valid ).append( valid );
+    	for( int i = 0; i < CSVFlightRecorder.ERROR_BURST_SIZE; ++i )
+    		source.append( invalid );
+    	
+    	final CSVReaderFactory<Object[]> readerFactory = CSVReaderConfigurator.getCSVToArrayReaderFactory( false );
+    	
+    	final Path file = Files.createTempFile( "csv-flight-recorder", ".jfr" );
+    	try( Recording recording = new Recording() )
+    	{
+    		
+    		recording.enable( "org.nerd4j.csv.Source" );
+    		recording.enable( "org.nerd4j.csv.SlowRecord" ).withThreshold( Duration.ZERO );
+    		recording.enable( "org.nerd4j.csv.Refill" ).withThreshold( Duration.ZERO );
+    		recording.enable( "org.nerd4j.csv.ErrorBurst" );
+    		recording.start();
+    		
+    		int errors = 0;
+    		try( CSVReader<Object[]> reader = readerFactory.getCSVReader(new StringReader(source.toString())) )
+    		{
+    			
+    			for( CSVProcessOutcome<Object[]> outcome : reader )
+    				if( outcome.getCSVProcessContext().isError() )
+    					++errors;
+    			
+    		}
+    		
+    		Assert.assertEquals( CSVFlightRecorder.ERROR_BURST_SIZE, errors );
+    		
+    		recording.stop();
+    		recording.dump( file );
+    		
+    		final List<RecordedEvent> events = RecordingFile.readAllEvents( file );
+    		Assert.assertEquals( 1, count(events, "org.nerd4j.csv.Source") );
+    		Assert.assertEquals( 2 + CSVFlightRecorder.ERROR_BURST_SIZE, count(events, "org.nerd4j.csv.SlowRecord") );
+    		Assert.assertTrue( count(events, "org.nerd4j.csv.Refill") > 0 );
+    		Assert.assertEquals( 1, count(events, "org.nerd4j.csv.ErrorBurst") );
+    		
+    		for( RecordedEvent event : events )
+    			if( "org.nerd4j.csv.Source".equals(event.getEventType().getName()) )
+    			{
+    				Assert.assertEquals( CSVFlightRecorder.READ, event.getString("operation") );
+    				Assert.assertEquals( 2 + CSVFlightRecorder.ERROR_BURST_SIZE, event.getLong("records") );
+    			}
+    			else if( "org.nerd4j.csv.ErrorBurst".equals(event.getEventType().getName()) )
+    			{
+    				Assert.assertEquals( "UPC", event.getString("column") );
+    				Assert.assertEquals( CSVFlightRecorder.ERROR_BURST_SIZE, event.getInt("errors") );
+    			}
+    		
+    	}finally
+    	{
+    		Files.deleteIfExists( file );
+    	}
+    	
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    private static int count( final List<RecordedEvent> events, final String name )
+    {
+    	
+    	int count = 0;
+    	for( RecordedEvent event : events )
+    		if( name.equals(event.getEventType().getName()) )
+    			++count;
+    	
+    	return count;
+    	
+    }
+    
+}
@@ -0,0 +1,150 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.metrics;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Date;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.nerd4j.csv.CSVProcessOutcome;
+import org.nerd4j.csv.model.Product;
+import org.nerd4j.csv.reader.CSVReader;
+import org.nerd4j.csv.reader.CSVReaderConfigurator;
+import org.nerd4j.csv.reader.CSVReaderFactory;
+import org.nerd4j.csv.reader.CSVReaderFactoryImpl;
+import org.nerd4j.csv.writer.CSVWriter;
+import org.nerd4j.csv.writer.CSVWriterConfigurator;
+import org.nerd4j.csv.writer.CSVWriterFactory;
+import org.nerd4j.csv.writer.CSVWriterFactoryImpl;
+
+
+/**
+ * Test for the class CSVJmxMetrics.
+ * 
+ * @author Nerd4j Team
+ */
+public class CSVJmxMetricsTest
+{
+    
+	private static final String source = "\"NAME\",\"DESCRIPTION\",\"UPC\",\"CURRENCY\",\"PRICE\",\"IN-STOCK\",\"LAST-UPDATE\"\n"
+			                           + "\"Name 1\",\"Description\",1,EUR,10.5,true,16-10-14\n"
+			                           + "\"Name 2\",\"Description\",NaN,GBP,20,,16-10-14\n"
+			                           + "\"Name 3\",\"Description\",3,USD,30,false,\n";
+	
+	
+	/* ************** */
+	/*  TEST METHODS  */
+	/* ************** */
+	
+	
+    @Test
+    public void testReaderMetrics() throws Exception
+    {
+    	
+    	final CSVJmxMetrics metrics = new CSVJmxMetrics( "reader", 1 );
+    	final CSVReaderFactory<Object[]> readerFactory = CSVReaderConfigurator.getCSVToArrayReaderFactory( false );
+    	readerFactory.setMetrics( metrics );
+    	
+    	final byte[] bytes = source.getBytes();
+    	try( CSVReader<Object[]> reader = readerFactory.getCSVReader(new ByteArrayInputStream(bytes)) )
+    	{
+    		
+    		for( CSVProcessOutcome<Object[]> outcome : reader )
+    			Assert.assertNotNull( outcome );
+    		
+    	}
+    	
+    	Assert.assertEquals( bytes.length, metrics.getBytesRead() );
+    	Assert.assertEquals( 3, metrics.getRecordsRead() );
+    	Assert.assertEquals( 21, metrics.getFieldsRead() );
+    	Assert.assertEquals( source.length() - source.indexOf('\n') - 1, metrics.getCharsRead() );
+    	Assert.assertEquals( 1, metrics.getRecordsFailed() );
+    	
+    	final Map<String,Long> errors = metrics.getFieldErrors();
+    	Assert.assertEquals( 1, errors.size() );
+    	Assert.assertTrue( errors.keySet().iterator().next().startsWith("UPC:") );
+    	
+    	Assert.assertEquals( 3, metrics.getRecordsTimed() );
+    	long timed = 0;
+    	for( long count : metrics.getRecordLatencyHistogram() )
+    		timed += count;
+    	Assert.assertEquals( 3, timed );
+    	Assert.assertTrue( metrics.getRecordLatencyP99() >= metrics.getRecordLatencyP50() );
+    	
+    	metrics.reset();
+    	Assert.assertEquals( 0, metrics.getRecordsRead() );
+    	Assert.assertTrue( metrics.getFieldErrors().isEmpty() );
+    	
+    }
+    
+    @Test
+    public void testWriterMetrics() throws Exception
+    {
+    	
+    	final CSVJmxMetrics metrics = new CSVJmxMetrics( "writer" );
+    	final CSVWriterFactory<Object[]> writerFactory =
+    			new CSVWriterFactoryImpl<Object[]>( CSVWriterConfigurator.<Object[]>getArrayToCSVWriterMetadataFactory() );
+    	writerFactory.setMetrics( metrics );
+    	
+    	final ByteArrayOutputStream os = new ByteArrayOutputStream();
+    	try( CSVWriter<Object[]> writer = writerFactory.getCSVWriter(os) )
+    	{
+    		
+    		final Object[] model = { "name", "description", 1L, Product.Currency.EUR, 10.5f, true, new Date() };
+    		writer.write( model );
+    		writer.write( model );
+    		writer.flush();
+    		
+    		Assert.assertEquals( 2, metrics.getRecordsWritten() );
+    		Assert.assertEquals( 14, metrics.getFieldsWritten() );
+    		Assert.assertEquals( os.size(), metrics.getBytesWritten() );
+    		Assert.assertEquals( os.toString().length(), metrics.getCharsWritten() );
+    		Assert.assertTrue( metrics.getFlushes() > 0 );
+    		
+    	}
+    	
+    }
+    
+    @Test
+    public void testRegistration() throws Exception
+    {
+    	
+    	final CSVJmxMetrics metrics = new CSVJmxMetrics( "registration" ).register();
+    	try{
+    		
+    		Assert.assertTrue( ManagementFactory.getPlatformMBeanServer().isRegistered(metrics.getObjectName()) );
+    		Assert.assertEquals( 0L, ManagementFactory.getPlatformMBeanServer().getAttribute(metrics.getObjectName(), "RecordsRead") );
+    		
+    	}finally
+    	{
+    		metrics.unregister();
+    	}
+    	
+    	Assert.assertFalse( ManagementFactory.getPlatformMBeanServer().isRegistered(metrics.getObjectName()) );
+    	
+    }
+    
+}
@@ -0,0 +1,256 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.parser;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.nerd4j.csv.exception.MalformedCSVException;
+
+
+/**
+ * Tests the field and record size limits
+ * and the streaming of the fields.
+ * 
+ * @author Nerd4j Team
+ */
+public class CSVParserLimitsTest
+{
+	
+	/** Characters used to build the short parts of the random sources. */
+	private static final String ALPHABET = "ab1 ,\"\n";
+	
+	
+	/* ************** */
+	/*  TEST METHODS  */
+	/* ************** */
+	
+	
+	@Test
+	public void testUnclosedQuote() throws IOException
+	{
+		
+		final StringBuilder source = new StringBuilder( "a,\"" );
+		for( int i = 0; i < 100000; ++i )
+			source.append( "x," );
+		
+		final CSVParserMetadata metadata = new CSVParserMetadata();
+		metadata.setMaxFieldSize( 1000 );
+		
+		for( boolean specialise : new boolean[] { true, false } )
+		{
+			
+			final CSVParser parser = new CSVParserFactory( metadata ).create( new StringReader(source.toString()), false, specialise );
+			Assert.assertEquals( CSVToken.FIELD, parser.read() );
+			Assert.assertEquals( "a", parser.getCurrentValue() );
+			
+			try{
+				
+				parser.read();
+				Assert.fail( "The field should exceed the limit" );
+				
+			}catch( MalformedCSVException ex )
+			{
+				Assert.assertEquals( 2, ex.getPosition() );
+				Assert.assertTrue( ex.getMessage(), ex.getMessage().contains("field starting at character 2") );
+			}
+			
+		}
+		
+	}
+	
+	@Test
+	public void testFieldLimit() throws IOException
+	{
+		
+		final CSVParserMetadata metadata = new CSVParserMetadata();
+		metadata.setMaxFieldSize( 4 );
+		
+		for( boolean specialise : new boolean[] { true, false } )
+		{
+			
+			Assert.assertEquals( list("abcd","","ab",null,"9"), parse(metadata, "abcd,,ab\n\"\"\"d\"\n", specialise) );
+			Assert.assertEquals( list("a",null,"2"), parse(metadata, "a\nbcdef", specialise) );
+			Assert.assertEquals( list("ab",null,"5"), parse(metadata, "\"ab\"\n\"abc\"", specialise) );
+			
+		}
+		
+	}
+	
+	@Test
+	public void testRecordLimit() throws IOException
+	{
+		
+		final CSVParserMetadata metadata = new CSVParserMetadata();
+		metadata.setMaxRecordSize( 7 );
+		
+		for( boolean specialise : new boolean[] { true, false } )
+		{
+			
+			Assert.assertEquals( list("ab","cd","e",null,"abcdefg",null), parse(metadata, "ab,cd,e\nabcdefg\n", specialise) );
+			Assert.assertEquals( list("ab","cd","e",null,"ab","cd","8"), parse(metadata, "ab,cd,e\nab,cd,ef\n", specialise) );
+			Assert.assertEquals( list("ab","cd","","",null), parse(metadata, "ab,cd,,", specialise) );
+			Assert.assertEquals( list("ab","cd","","0"), parse(metadata, "ab,cd,,x", specialise) );
+			
+		}
+		
+	}
+	
+	@Test
+	public void testReadTo() throws IOException
+	{
+		
+		final CSVParserFactory factory = new CSVParserFactory();
+		final Random random = new Random( 1 );
+		
+		for( int i = 0; i < 200; ++i )
+		{
+			
+			/* The long runs make the fields be streamed in several chunks. */
+			final StringBuilder source = new StringBuilder();
+			final int parts = random.nextInt( 12 );
+			for( int p = 0; p < parts; ++p )
+				if( random.nextBoolean() )
+				{
+					final int length = random.nextInt( 20 );
+					for( int c = 0; c < length; ++c )
+						source.append( ALPHABET.charAt(random.nextInt(ALPHABET.length())) );
+				}
+				else
+				{
+					final char c = "x \"".charAt( random.nextInt(3) );
+					final int length = random.nextInt( 30000 );
+					for( int r = 0; r < length; ++r )
+						source.append( c );
+				}
+			
+			for( boolean specialise : new boolean[] { true, false } )
+			{
+				
+				final List<String> expected = new ArrayList<String>();
+				final List<String> actual = new ArrayList<String>();
+				
+				final CSVParser reader = factory.create( new StringReader(source.toString()), false, specialise );
+				final CSVParser streamer = factory.create( new StringReader(source.toString()), false, specialise );
+				try{
+					
+					CSVToken token;
+					do{
+						
+						token = reader.read();
+						final String value = token == CSVToken.FIELD ? reader.getCurrentValue() : null;
+						expected.add( token + "|" + (value != null ? value : "") + "|" + reader.getCharPosition() );
+						
+					}while( token != CSVToken.END_OF_DATA );
+					
+				}catch( MalformedCSVException ex )
+				{
+					expected.add( ex.getMessage() );
+				}
+				
+				try{
+					
+					CSVToken token;
+					do{
+						
+						final StringWriter writer = new StringWriter();
+						token = streamer.readTo( writer );
+						Assert.assertNull( streamer.getCurrentValue() );
+						actual.add( token + "|" + writer + "|" + streamer.getCharPosition() );
+						
+					}while( token != CSVToken.END_OF_DATA );
+					
+				}catch( MalformedCSVException ex )
+				{
+					actual.add( ex.getMessage() );
+				}
+				
+				Assert.assertEquals( expected, actual );
+				
+			}
+			
+		}
+		
+	}
+	
+	
+	/* ***************** */
+	/*  PRIVATE METHODS  */
+	/* ***************** */
+	
+	
+	/**
+	 * Parses the given source and returns the read fields
+	 * using {@code null} for the record ends. If the limits
+	 * are exceeded the position of the error is added and
+	 * the parsing stops.
+	 * 
+	 * @param metadata   the dialect to use.
+	 * @param source     the source to parse.
+	 * @param specialise tells if to use the specialised loop.
+	 * @return the read values.
+	 * @throws IOException if an error occurs while parsing.
+	 */
+	private List<String> parse( CSVParserMetadata metadata, String source, boolean specialise ) throws IOException
+	{
+		
+		final CSVParser parser = new CSVParserFactory( metadata ).create( new StringReader(source), false, specialise );
+		final List<String> values = new ArrayList<String>();
+		try{
+			
+			CSVToken token;
+			while( (token = parser.read()) != CSVToken.END_OF_DATA )
+				values.add( token == CSVToken.FIELD ? (parser.getCurrentValue() != null ? parser.getCurrentValue() : "") : null );
+			
+		}catch( MalformedCSVException ex )
+		{
+			values.add( String.valueOf(ex.getPosition()) );
+		}
+		
+		return values;
+		
+	}
+	
+	/**
+	 * Returns the given values as a list.
+	 * 
+	 * @param values the values.
+	 * @return the list of values.
+	 */
+	private List<String> list( String... values )
+	{
+		
+		final List<String> list = new ArrayList<String>();
+		for( String value : values )
+			list.add( value );
+		
+		return list;
+		
+	}
+	
+}
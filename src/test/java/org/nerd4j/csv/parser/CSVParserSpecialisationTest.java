@@ -0,0 +1,291 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.nerd4j.csv.RemarkableASCII;
+import org.nerd4j.csv.exception.MalformedCSVException;
+import org.nerd4j.csv.parser.CSVParserFactory.CharacterClass;
+
+
+/**
+ * Differential tests checking that the parsing loop specialised
+ * for the plain dialects behaves as the generic one.
+ * 
+ * @author Nerd4j Team
+ */
+public class CSVParserSpecialisationTest
+{
+	
+	/** Characters used to build the random sources. */
+	private static final String ALPHABET = "ab1 \t,;|\"\r\n\\xè";
+	
+	
+	/* ************** */
+	/*  TEST METHODS  */
+	/* ************** */
+	
+	
+	@Test
+	public void testDefaultDialect() throws IOException
+	{
+		
+		compare( new CSVParserMetadata(), 1 );
+		
+	}
+	
+	@Test
+	public void testStrictQuotes() throws IOException
+	{
+		
+		final CSVParserMetadata metadata = new CSVParserMetadata();
+		metadata.setStrictQuotes( true );
+		
+		compare( metadata, 2 );
+		
+	}
+	
+	@Test
+	public void testNoCharsToIgnoreAround() throws IOException
+	{
+		
+		final CSVParserMetadata metadata = new CSVParserMetadata();
+		metadata.setFieldSeparator( ';' );
+		metadata.setCharsToIgnoreAroundFields( new char[0] );
+		metadata.setRecordSeparator( new char[] { '\n' } );
+		
+		compare( metadata, 3 );
+		
+	}
+	
+	@Test
+	public void testHighSeparator() throws IOException
+	{
+		
+		final CSVParserMetadata metadata = new CSVParserMetadata();
+		metadata.setFieldSeparator( '|' );
+		
+		compare( metadata, 4 );
+		
+	}
+	
+	@Test
+	public void testManyQuotes() throws IOException
+	{
+		
+		/* The factory allows a single quote, so the classes are built by hand. */
+		final int[] types = new int[ RemarkableASCII.ASCII_TABLE_SIZE ];
+		types[','] = CharacterClass.FIELD_SEPARATOR;
+		types['\n'] = CharacterClass.RECORD_SEPARATOR;
+		types['"'] = CharacterClass.QUOTE;
+		types['\''] = CharacterClass.QUOTE;
+		
+		final Random random = new Random( 5 );
+		for( int i = 0; i < 3000; ++i )
+		{
+			
+			final String source = randomSource( random, ALPHABET + "''" );
+			final long runSeed = random.nextLong();
+			
+			final Random expectedRandom = new Random( runSeed );
+			final List<String> expected = parse( new CSVParserImpl(new ChunkedReader(source, expectedRandom), types, null,
+					                                               false, false, false, 0, 0), expectedRandom );
+			
+			final Random actualRandom = new Random( runSeed );
+			final List<String> actual = parse( new CSVParserImpl(new ChunkedReader(source, actualRandom), types, null,
+					                                             false, false, true, 0, 0), actualRandom );
+			
+			Assert.assertEquals( "Source: [" + source + "]", expected, actual );
+			
+		}
+		
+	}
+	
+	
+	/* ***************** */
+	/*  PRIVATE METHODS  */
+	/* ***************** */
+	
+	
+	/**
+	 * Parses random sources with both the specialised and
+	 * the generic loops and checks the results are equal.
+	 * 
+	 * @param metadata the dialect to test.
+	 * @param seed     the seed of the random sources.
+	 * @throws IOException if an error occurs while parsing.
+	 */
+	private void compare( CSVParserMetadata metadata, long seed ) throws IOException
+	{
+		
+		final CSVParserFactory factory = new CSVParserFactory( metadata );
+		final Random random = new Random( seed );
+		
+		for( int i = 0; i < 3000; ++i )
+		{
+			
+			final String source = randomSource( random, ALPHABET );
+			
+			final long runSeed = random.nextLong();
+			final List<String> expected = parse( factory, source, runSeed, false );
+			final List<String> actual = parse( factory, source, runSeed, true );
+			
+			Assert.assertEquals( "Source: [" + source + "]", expected, actual );
+			
+		}
+		
+	}
+	
+	/**
+	 * Returns a random source made of the given characters.
+	 * 
+	 * @param random   the random driving the choices.
+	 * @param alphabet the characters to use.
+	 * @return the random source.
+	 */
+	private String randomSource( Random random, String alphabet )
+	{
+		
+		final StringBuilder source = new StringBuilder();
+		final int length = random.nextInt( 120 );
+		for( int c = 0; c < length; ++c )
+			source.append( alphabet.charAt(random.nextInt(alphabet.length())) );
+		
+		return source.toString();
+		
+	}
+	
+	/**
+	 * Parses the given source reading or skipping the fields
+	 * randomly and returns a trace of the parser state.
+	 * 
+	 * @param factory    the factory of the parsers.
+	 * @param source     the source to parse.
+	 * @param seed       the seed driving the choices.
+	 * @param specialise tells if to use the specialised loop.
+	 * @return the trace of the parser state.
+	 * @throws IOException if an error occurs while parsing.
+	 */
+	private List<String> parse( CSVParserFactory factory, String source, long seed, boolean specialise )
+	throws IOException
+	{
+		
+		final Random random = new Random( seed );
+		final CSVParser parser = factory.create( new ChunkedReader(source, random), false, specialise );
+		
+		return parse( parser, random );
+		
+	}
+	
+	/**
+	 * Parses reading or skipping the fields randomly
+	 * and returns a trace of the parser state.
+	 * 
+	 * @param parser the parser to use.
+	 * @param random the random driving the choices.
+	 * @return the trace of the parser state.
+	 * @throws IOException if an error occurs while parsing.
+	 */
+	private List<String> parse( CSVParser parser, Random random ) throws IOException
+	{
+		
+		parser.setRecordCapture( true );
+		
+		final List<String> trace = new ArrayList<String>();
+		try{
+			
+			CSVToken token;
+			do{
+				
+				final boolean read = random.nextBoolean();
+				token = read ? parser.read() : parser.skip();
+				
+				trace.add( token + "|" + (read ? parser.getCurrentValue() : "") + "|" + parser.getCharPosition()
+						   + "|" + parser.getFieldCount() + "|" + parser.getCurrentRecord() );
+				
+			}while( token != CSVToken.END_OF_DATA );
+			
+		}catch( MalformedCSVException ex )
+		{
+			trace.add( ex.getMessage() );
+		}
+		
+		return trace;
+		
+	}
+	
+	
+	/* *************** */
+	/*  INNER CLASSES  */
+	/* *************** */
+	
+	
+	/**
+	 * Reader returning few characters at a time
+	 * to cross the parser buffer boundaries.
+	 */
+	private static class ChunkedReader extends Reader
+	{
+		
+		private final Reader reader;
+		
+		private final Random random;
+		
+		
+		ChunkedReader( String source, Random random )
+		{
+			
+			super();
+			
+			this.reader = new StringReader( source );
+			this.random = new Random( random.nextLong() );
+			
+		}
+		
+		
+		@Override
+		public int read( char[] cbuf, int off, int len ) throws IOException
+		{
+			
+			return reader.read( cbuf, off, Math.min(len, 1 + random.nextInt(7)) );
+			
+		}
+		
+		@Override
+		public void close() throws IOException
+		{
+			
+			reader.close();
+			
+		}
+		
+	}
+	
+}
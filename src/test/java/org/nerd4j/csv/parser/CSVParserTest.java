@@ -23,6 +23,7 @@ package org.nerd4j.csv.parser;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.io.StringWriter;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -778,6 +779,151 @@ public class CSVParserTest extends BaseTest
 		
 	}
 	
+	/**
+	 * Test the capture of the raw records, also
+	 * when the records span several buffer refills.
+	 */
+	@Test
+	public void recordCapture() throws IOException
+	{
+		
+		final String string = "abc,\"x,y\"\r\nlonger record,with fields\r\n\"last\"";
+		
+		final CSVParserMetadata metadata = new CSVParserMetadata();
+		metadata.setRecordSeparator( "\r\n".toCharArray() );
+		
+		for( Reader reader : new Reader[] { new StringReader(string), new TrickleReader(string) } )
+		{
+			
+			final CSVParser parser = new CSVParserFactory( metadata ).create( reader );
+			Assert.assertNull( parser.getCurrentRecord() );
+			parser.setRecordCapture( true );
+			
+			parser.read();
+			parser.read();
+			Assert.assertEquals( "abc,\"x,y\"", parser.getCurrentRecord() );
+			parser.read();
+			Assert.assertEquals( CSVToken.END_OF_RECORD , parser.getCurrentToken() );
+			Assert.assertEquals( "abc,\"x,y\"", parser.getCurrentRecord() );
+			
+			parser.read();
+			Assert.assertEquals( "longer record,", parser.getCurrentRecord() );
+			parser.skip();
+			parser.skip();
+			Assert.assertEquals( "longer record,with fields", parser.getCurrentRecord() );
+			
+			parser.read();
+			Assert.assertEquals( "last", parser.getCurrentValue() );
+			parser.read();
+			Assert.assertEquals( CSVToken.END_OF_RECORD , parser.getCurrentToken() );
+			parser.read();
+			Assert.assertEquals( CSVToken.END_OF_DATA , parser.getCurrentToken() );
+			Assert.assertEquals( "\"last\"", parser.getCurrentRecord() );
+			
+		}
+		
+	}
+	
+	/**
+	 * Test the default implementations of the
+	 * parser interface over the field values.
+	 */
+	@Test
+	public void defaultCurrentChars() throws IOException
+	{
+		
+		final CSVParser parser = new MinimalParser( new StringReader("abc,\n") );
+		
+		Assert.assertEquals( CSVToken.FIELD, parser.read() );
+		Assert.assertEquals( "abc", parser.getCurrentChars().toString() );
+		
+		Assert.assertEquals( CSVToken.FIELD, parser.read() );
+		Assert.assertEquals( 0, parser.getCurrentChars().length() );
+		
+		Assert.assertEquals( CSVToken.END_OF_RECORD, parser.read() );
+		Assert.assertEquals( 0, parser.getCurrentChars().length() );
+		
+	}
+	
+	/**
+	 * Checks that the default implementation
+	 * does not track the character position.
+	 */
+	@Test(expected=UnsupportedOperationException.class)
+	public void defaultCharPosition() throws IOException
+	{
+		
+		final CSVParser parser = new MinimalParser( new StringReader("abc\n") );
+		parser.read();
+		parser.getCharPosition();
+		
+	}
+	
+	/**
+	 * Checks that the default implementation
+	 * does not capture the raw records.
+	 */
+	@Test
+	public void defaultRecordCapture() throws IOException
+	{
+		
+		final CSVParser parser = new MinimalParser( new StringReader("abc\n") );
+		parser.setRecordCapture( false );
+		
+		Assert.assertEquals( CSVToken.FIELD, parser.read() );
+		Assert.assertEquals( CSVToken.END_OF_RECORD, parser.read() );
+		Assert.assertNull( parser.getCurrentRecord() );
+		
+		try{
+			
+			parser.setRecordCapture( true );
+			Assert.fail( "The capture should not be supported" );
+			
+		}catch( UnsupportedOperationException ex )
+		{
+			/* Expected. */
+		}
+		
+	}
+	
+	/**
+	 * Checks that the default implementation
+	 * does not count the fields.
+	 */
+	@Test(expected=UnsupportedOperationException.class)
+	public void defaultFieldCount() throws IOException
+	{
+		
+		final CSVParser parser = new MinimalParser( new StringReader("abc\n") );
+		parser.read();
+		parser.getFieldCount();
+		
+	}
+	
+	/**
+	 * Checks that the default implementation writes
+	 * the field values read by the parser.
+	 */
+	@Test
+	public void defaultReadTo() throws IOException
+	{
+		
+		final CSVParser parser = new MinimalParser( new StringReader("abc,\"d,e\"\n") );
+		final StringWriter writer = new StringWriter();
+		
+		Assert.assertEquals( CSVToken.FIELD, parser.readTo(writer) );
+		Assert.assertEquals( "abc", writer.toString() );
+		
+		writer.getBuffer().setLength( 0 );
+		Assert.assertEquals( CSVToken.FIELD, parser.readTo(writer) );
+		Assert.assertEquals( "d,e", writer.toString() );
+		
+		writer.getBuffer().setLength( 0 );
+		Assert.assertEquals( CSVToken.END_OF_RECORD, parser.readTo(writer) );
+		Assert.assertEquals( "", writer.toString() );
+		
+	}
+	
 	/**
 	 * Returns a parser with strict quotes enabled.
 	 */
@@ -792,4 +938,70 @@ public class CSVParserTest extends BaseTest
 		
 	}
 	
+	/**
+	 * Reader that returns few characters at time
+	 * to force the parser to refill its buffer.
+	 */
+	private static class TrickleReader extends StringReader
+	{
+		
+		public TrickleReader( String string )
+		{
+			super( string );
+		}
+		
+		@Override
+		public int read( char[] cbuf, int off, int len ) throws IOException
+		{
+			return super.read( cbuf, off, Math.min(len, 3) );
+		}
+		
+	}
+	
+	/**
+	 * Parser implementing only the abstract methods
+	 * of the interface, the others use the defaults.
+	 */
+	private static class MinimalParser implements CSVParser
+	{
+		
+		private final CSVParser parser;
+		
+		public MinimalParser( Reader reader )
+		{
+			this.parser = new CSVParserFactory().create( reader );
+		}
+		
+		@Override
+		public CSVToken getCurrentToken()
+		{
+			return parser.getCurrentToken();
+		}
+		
+		@Override
+		public String getCurrentValue()
+		{
+			return parser.getCurrentValue();
+		}
+		
+		@Override
+		public CSVToken read() throws IOException
+		{
+			return parser.read();
+		}
+		
+		@Override
+		public CSVToken skip() throws IOException
+		{
+			return parser.skip();
+		}
+		
+		@Override
+		public void close() throws IOException
+		{
+			parser.close();
+		}
+		
+	}
+	
 }
@@ -48,6 +48,20 @@ public class FieldBuilderImplTest extends BaseTest
 		
 	}
 	
+	@Test
+	public void appendRange()
+	{
+		
+		final FieldBuilder builder = new FieldBuilderImpl( 2 );
+		
+		builder.append( '0' );
+		builder.append( "x123456789y".toCharArray(), 1, 9 );
+		
+		Assert.assertEquals( "0123456789" , builder.toString() );
+		Assert.assertEquals( 10 , builder.length() );
+		
+	}
+	
 	@Test
 	public void markPositionValid()
 	{
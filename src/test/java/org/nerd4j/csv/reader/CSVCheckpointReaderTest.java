@@ -0,0 +1,117 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Test for the class CSVCheckpointReader.
+ * 
+ * @author Nerd4j Team
+ */
+public class CSVCheckpointReaderTest
+{
+    
+	/* ************** */
+	/*  TEST METHODS  */
+	/* ************** */
+	
+	
+    @Test
+    public void testResumeFromCheckpoint() throws Exception
+    {
+    	
+    	final File file = CSVReaderConfigurator.createSource( 1000 );
+    	final File checkpointFile = File.createTempFile( "checkpoint", ".bin" );
+    	checkpointFile.delete();
+    	checkpointFile.deleteOnExit();
+    	
+    	final CSVCheckpointStore store = new CSVFileCheckpointStore( checkpointFile );
+    	final CSVReaderFactory<Object[]> readerFactory = CSVReaderConfigurator.getCSVToArrayReaderFactory( false );
+    	
+    	/* We read part of the file and than we simulate a failure. */
+    	final CSVCheckpointReader<Object[]> failing = readerFactory.getCSVReader( file, StandardCharsets.UTF_8, null );
+    	failing.setCheckpointStore( store, 100, 0 );
+    	for( int i = 0; i < 350; ++i )
+    		Assert.assertEquals( (long) i, failing.readModel()[2] );
+    	
+    	final CSVCheckpoint checkpoint = store.load();
+    	Assert.assertEquals( 300, checkpoint.getRecordIndex() );
+    	Assert.assertArrayEquals( failing.getHeader(), checkpoint.getHeader() );
+    	
+    	/* Than we resume from the last saved checkpoint. */
+    	try( CSVCheckpointReader<Object[]> reader = readerFactory.getCSVReader(file, StandardCharsets.UTF_8, checkpoint) )
+    	{
+    		
+    		reader.setCheckpointStore( store, 100, 0 );
+    		
+    		Object[] model;
+    		long expected = 300;
+    		while( (model = reader.readModel()) != null )
+    			Assert.assertEquals( expected++, model[2] );
+    		
+    		Assert.assertEquals( 1000, expected );
+    		Assert.assertEquals( new CSVCheckpoint(file.length(), 1000, checkpoint.getHeader()), reader.getCheckpoint() );
+    		
+    	}
+    	
+    	Assert.assertEquals( 1000, store.load().getRecordIndex() );
+    	Assert.assertEquals( file.length(), store.load().getOffset() );
+    	
+    	failing.close();
+    	
+    }
+    
+    @Test
+    public void testLastRecordWithoutRecordSeparator() throws Exception
+    {
+    	
+    	final File file = CSVReaderConfigurator.createSource( 3 );
+    	try( OutputStream os = new FileOutputStream(file, true) )
+    	{
+    		os.write( "\"Name\",\"Description\",3,EUR,10,true,16-10-14".getBytes(StandardCharsets.UTF_8) );
+    	}
+    	
+    	final CSVReaderFactory<Object[]> readerFactory = CSVReaderConfigurator.getCSVToArrayReaderFactory( false );
+    	
+    	try( CSVCheckpointReader<Object[]> reader = readerFactory.getCSVReader(file, StandardCharsets.UTF_8, null) )
+    	{
+    		
+    		int count = 0;
+    		while( reader.readModel() != null )
+    			++count;
+    		
+    		Assert.assertEquals( 4, count );
+    		Assert.assertEquals( 4, reader.getCheckpoint().getRecordIndex() );
+    		
+    	}
+    	
+    }
+    
+}
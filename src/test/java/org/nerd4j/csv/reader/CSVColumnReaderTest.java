@@ -0,0 +1,197 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+import java.io.File;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.nerd4j.csv.exception.CSVConfigurationException;
+import org.nerd4j.csv.exception.CSVProcessException;
+import org.nerd4j.csv.exception.CSVSingleUseViolationException;
+
+
+/**
+ * Test for the class CSVColumnReader.
+ * 
+ * @author Nerd4j Team
+ */
+public class CSVColumnReaderTest
+{
+    
+	private static final String header = "\"NAME\",\"DESCRIPTION\",\"UPC\",\"CURRENCY\",\"PRICE\",\"IN-STOCK\",\"LAST-UPDATE\"\n";
+	
+	private static final String source = header
+			                           + "\"Name 1\",\"Description\",1,EUR,10.5,true,16-10-14\n"
+			                           + "\"Name 2\",\"Description\",NaN,GBP,20,,16-10-14\n"
+			                           + "\n"
+			                           + "\"Name 3\",\"Description\",3,USD,30,false,\n"
+			                           + "\"Name 4\",\"Description\",2147483648,EUR,40,false,\n"
+			                           + "\"Name 5\",\"Description\"\n";
+	
+	
+	/* ************** */
+	/*  TEST METHODS  */
+	/* ************** */
+	
+	
+    @Test
+    public void testIntColumn() throws Exception
+    {
+    	
+    	try( CSVColumnReader reader = CSVReaderConfigurator.getCSVToArrayReaderFactory(true).getCSVColumnReader(new StringReader(source)) )
+    	{
+    		final int[] values = reader.intColumn( "UPC", CSVBadValuePolicy.DEFAULT, -1 ).toArray();
+    		Assert.assertArrayEquals( new int[] { 1, -1, 3, -1, -1 }, values );
+    	}
+    	
+    	try( CSVColumnReader reader = CSVReaderConfigurator.getCSVToArrayReaderFactory(true).getCSVColumnReader(new StringReader(source)) )
+    	{
+    		final long[] values = reader.longColumn( "UPC", CSVBadValuePolicy.SKIP, 0 ).toArray();
+    		Assert.assertArrayEquals( new long[] { 1, 3, 2147483648L }, values );
+    	}
+    	
+    	try( CSVColumnReader reader = CSVReaderConfigurator.getCSVToArrayReaderFactory(true).getCSVColumnReader(new StringReader(source)) )
+    	{
+    		
+    		reader.intColumn( "UPC" ).sum();
+    		Assert.fail( "An invalid value should fail the reading" );
+    		
+    	}catch( CSVProcessException ex )
+    	{
+    		Assert.assertTrue( ex.getMessage().contains("NaN") );
+    	}
+    	
+    }
+    
+    @Test
+    public void testDoubleColumn() throws Exception
+    {
+    	
+    	try( CSVColumnReader reader = CSVReaderConfigurator.getCSVToArrayReaderFactory(true).getCSVColumnReader(new StringReader(source)) )
+    	{
+    		Assert.assertEquals( 100.5, reader.doubleColumn("PRICE", CSVBadValuePolicy.SKIP, 0).sum(), 0 );
+    	}
+    	
+    }
+    
+    @Test
+    public void testObjColumn() throws Exception
+    {
+    	
+    	try( CSVColumnReader reader = CSVReaderConfigurator.getCSVToArrayReaderFactory(true).getCSVColumnReader(new StringReader(source)) )
+    	{
+    		
+    		final Object[] values = reader.objColumn( "IN-STOCK", CSVBadValuePolicy.FAIL, null ).toArray();
+    		Assert.assertEquals( Arrays.asList(true, null, false, false, null), Arrays.asList(values) );
+    		
+    	}
+    	
+    	try( CSVColumnReader reader = CSVReaderConfigurator.getCSVToArrayReaderFactory(true).getCSVColumnReader(new StringReader(source)) )
+    	{
+    		
+    		final String names = reader.objColumn( "NAME" ).map( String::valueOf ).collect( Collectors.joining(",") );
+    		Assert.assertEquals( "Name 1,Name 2,Name 3,Name 4,Name 5", names );
+    		
+    	}
+    	
+    }
+    
+    @Test
+    public void testInvalidUse() throws Exception
+    {
+    	
+    	try( CSVColumnReader reader = CSVReaderConfigurator.getCSVToArrayReaderFactory(true).getCSVColumnReader(new StringReader(source)) )
+    	{
+    		
+    		try{
+    			
+    			reader.intColumn( "STATUS" );
+    			Assert.fail( "An unknown column should be rejected" );
+    			
+    		}catch( CSVConfigurationException ex ) {}
+    		
+    		reader.intColumn( "UPC" );
+    		
+    		try{
+    			
+    			reader.longColumn( "UPC" );
+    			Assert.fail( "A column reader should return only one stream" );
+    			
+    		}catch( CSVSingleUseViolationException ex ) {}
+    		
+    	}
+    	
+    }
+    
+    @Test
+    public void testSplitFile() throws Exception
+    {
+    	
+    	final int records = 20000;
+    	final File file = CSVReaderConfigurator.createSource( records );
+    	
+    	/* By default the streams are not split. */
+    	try( CSVColumnReader reader = CSVReaderConfigurator.getCSVToArrayReaderFactory(true).getCSVColumnReader(file, StandardCharsets.UTF_8) )
+    	{
+    		Assert.assertNull( reader.longColumn("UPC").spliterator().trySplit() );
+    	}
+    	
+    	try( CSVColumnReader reader = CSVReaderConfigurator.getCSVToArrayReaderFactory(true).getCSVColumnReader(file, StandardCharsets.UTF_8) )
+    	{
+    		
+    		reader.setSplittable( true );
+    		
+    		final Spliterator.OfLong second = reader.longColumn( "UPC" ).spliterator();
+    		final Spliterator.OfLong first = second.trySplit();
+    		Assert.assertNotNull( first );
+    		
+    		final AtomicLong count = new AtomicLong();
+    		final AtomicLong sum = new AtomicLong();
+    		first.forEachRemaining( (long value) -> { count.incrementAndGet(); sum.addAndGet(value); } );
+    		
+    		/* The first half contains a prefix of the records. */
+    		final long firstCount = count.get();
+    		Assert.assertTrue( firstCount > 0 && firstCount < records );
+    		Assert.assertEquals( firstCount * (firstCount - 1) / 2, sum.get() );
+    		
+    		second.forEachRemaining( (long value) -> { count.incrementAndGet(); sum.addAndGet(value); } );
+    		Assert.assertEquals( records, count.get() );
+    		Assert.assertEquals( (long) records * (records - 1) / 2, sum.get() );
+    		
+    	}
+    	
+    	try( CSVColumnReader reader = CSVReaderConfigurator.getCSVToArrayReaderFactory(true).getCSVColumnReader(file, StandardCharsets.UTF_8) )
+    	{
+    		reader.setSplittable( true );
+    		Assert.assertEquals( (long) records * (records - 1) / 2, reader.intColumn("UPC").parallel().asLongStream().sum() );
+    	}
+    	
+    }
+    
+}
@@ -0,0 +1,132 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Test for the class CSVFileSource.
+ * 
+ * @author Nerd4j Team
+ */
+public class CSVFileSourceTest
+{
+	
+	/* ************** */
+	/*  TEST METHODS  */
+	/* ************** */
+	
+	
+    @Test
+    public void testCarriageReturnSeparator() throws Exception
+    {
+    	
+    	final File file = File.createTempFile( "source", ".csv" );
+    	file.deleteOnExit();
+    	
+    	write( file, "a,b\rc,d\re".getBytes(StandardCharsets.UTF_8) );
+    	
+    	try( CSVFileSource source = new CSVFileSource(file, StandardCharsets.UTF_8, new char[] { '\r' }, 0, true) )
+    	{
+    		
+    		/* The complete lines are returned even without any line feed. */
+    		Assert.assertTrue( source.ready() );
+    		Assert.assertEquals( "a,b\rc,d\r", read(source) );
+    		Assert.assertFalse( source.ready() );
+    		
+    		source.stop();
+    		Assert.assertEquals( -1, source.read(new char[8], 0, 8) );
+    		
+    	}
+    	
+    }
+    
+    
+    @Test
+    public void testByteOffsetOfMalformedInput() throws Exception
+    {
+    	
+    	final File file = File.createTempFile( "source", ".csv" );
+    	file.deleteOnExit();
+    	
+    	/* The malformed byte is decoded as a single replacement char. */
+    	final ByteArrayOutputStream data = new ByteArrayOutputStream();
+    	data.write( 'a' );
+    	data.write( 0xFF );
+    	data.write( "b\u00E0,c\n".getBytes(StandardCharsets.UTF_8) );
+    	write( file, data.toByteArray() );
+    	
+    	try( CSVFileSource source = new CSVFileSource(file, StandardCharsets.UTF_8, new char[] { '\n' }, 0, false) )
+    	{
+    		
+    		Assert.assertEquals( "a\uFFFDb\u00E0,c\n", read(source) );
+    		
+    		Assert.assertEquals( 1, source.getByteOffset(1) );
+    		Assert.assertEquals( 2, source.getByteOffset(2) );
+    		Assert.assertEquals( 3, source.getByteOffset(3) );
+    		Assert.assertEquals( 5, source.getByteOffset(4) );
+    		Assert.assertEquals( 7, source.getByteOffset(6) );
+    		
+    		/* The positions can be requested in any order. */
+    		Assert.assertEquals( 2, source.getByteOffset(2) );
+    		Assert.assertEquals( 8, source.getByteOffset(7) );
+    		
+    	}
+    	
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    private static void write( File file, byte[] data ) throws IOException
+    {
+    	
+    	try( OutputStream os = new FileOutputStream(file) )
+    	{
+    		os.write( data );
+    	}
+    	
+    }
+    
+    private static String read( CSVFileSource source ) throws IOException
+    {
+    	
+    	final char[] buffer = new char[64];
+    	final int read = source.read( buffer, 0, buffer.length );
+    	
+    	return new String( buffer, 0, read );
+    	
+    }
+    
+}
@@ -0,0 +1,128 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Test for the class CSVFollowReader.
+ * 
+ * @author Nerd4j Team
+ */
+public class CSVFollowReaderTest
+{
+    
+	private static final String header = "\"NAME\",\"DESCRIPTION\",\"UPC\",\"CURRENCY\",\"PRICE\",\"IN-STOCK\",\"LAST-UPDATE\"\n";
+	
+	private static final String records = "\"Nàme 1\",\"Description 1\",1,EUR,10.5,true,16-10-14\n"
+			                            + "\"Name 2\",\"Description 2\",2,USD,20,true,16-10-14\n";
+	
+	
+	/* ************** */
+	/*  TEST METHODS  */
+	/* ************** */
+	
+	
+    @Test
+    public void testFollowAndResume() throws Exception
+    {
+    	
+    	final File file = File.createTempFile( "follow", ".csv" );
+    	file.deleteOnExit();
+    	
+    	append( file, header + records + "\"Name 3\",\"Description 3\",3,E" );
+    	
+    	final CSVReaderFactory<Object[]> readerFactory = CSVReaderConfigurator.getCSVToArrayReaderFactory( false );
+    	
+    	final long offset;
+    	try( CSVFollowReader<Object[]> reader = readerFactory.getCSVFollowReader(file, StandardCharsets.UTF_8, 0) )
+    	{
+    		
+    		Assert.assertEquals( 7, reader.getHeader().length );
+    		Assert.assertEquals( 1L, reader.readModel()[2] );
+    		Assert.assertEquals( 2L, reader.readModel()[2] );
+    		Assert.assertEquals( (header + records).getBytes(StandardCharsets.UTF_8).length, reader.getOffset() );
+    		
+    		/* The partial line is completed while the reader is waiting. */
+    		final Thread writer = new Thread( () -> {
+    			try{
+    				Thread.sleep( 100 );
+    				append( file, "UR,30,true,16-10-14\n" );
+    			}catch( Exception ex )
+    			{
+    				throw new RuntimeException( ex );
+    			}
+    		});
+    		writer.start();
+    		
+    		Assert.assertEquals( 3L, reader.readModel()[2] );
+    		Assert.assertEquals( file.length(), reader.getOffset() );
+    		writer.join();
+    		
+    		reader.stop();
+    		Assert.assertNull( reader.readModel() );
+    		Assert.assertTrue( reader.isEndOfData() );
+    		
+    		offset = reader.getOffset();
+    		
+    	}
+    	
+    	append( file, "\"Name 4\",\"Description 4\",4,GBP,40,true,16-10-14\n\"Name 5\"" );
+    	try( CSVFollowReader<Object[]> reader = readerFactory.getCSVFollowReader(file, StandardCharsets.UTF_8, offset) )
+    	{
+    		
+    		Assert.assertEquals( 7, reader.getHeader().length );
+    		Assert.assertEquals( 4L, reader.readModel()[2] );
+    		
+    		reader.stop();
+    		Assert.assertNull( reader.readModel() );
+    		Assert.assertEquals( file.length() - "\"Name 5\"".length(), reader.getOffset() );
+    		
+    	}
+    	
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    private static void append( File file, String data ) throws IOException
+    {
+    	
+    	try( OutputStream os = new FileOutputStream(file, true) )
+    	{
+    		os.write( data.getBytes(StandardCharsets.UTF_8) );
+    	}
+    	
+    }
+    
+}
@@ -0,0 +1,151 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+import java.io.StringReader;
+import java.util.Date;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.nerd4j.csv.exception.CSVProcessException;
+import org.nerd4j.csv.model.Product;
+
+
+/**
+ * Test for the class CSVLazyReader.
+ * 
+ * @author Nerd4j Team
+ */
+public class CSVLazyReaderTest
+{
+    
+	private static final String source = "\"NAME\",\"DESCRIPTION\",\"UPC\",\"CURRENCY\",\"PRICE\",\"IN-STOCK\",\"LAST-UPDATE\"\n"
+			                           + "\"Name 1\",\"Description\",1,EUR,10.5,true,16-10-14\n"
+			                           + "\"Name 2\",\"Description\",NaN,GBP,20,,16-10-14\n"
+			                           + "\"Name 3\",\"Description\",3,USD,30,false,\n";
+	
+	
+	/* ************** */
+	/*  TEST METHODS  */
+	/* ************** */
+	
+	
+    @Test
+    public void testLazyRead() throws Exception
+    {
+    	
+    	try( CSVLazyReader reader = getReader() )
+    	{
+    		
+    		final CSVLazyRecord record = reader.read();
+    		Assert.assertEquals( 1, record.getRowIndex() );
+    		Assert.assertEquals( 1L, record.get("UPC") );
+    		Assert.assertEquals( Product.Currency.EUR, record.get("CURRENCY") );
+    		Assert.assertEquals( 10.5f, record.get("PRICE", Float.class), 0f );
+    		Assert.assertEquals( "10.5", record.getOriginalValue(record.getColumnIndex("PRICE")) );
+    		
+    		/* The processed values are kept. */
+    		final Date lastUpdate = record.get( "LAST-UPDATE", Date.class );
+    		Assert.assertSame( lastUpdate, record.get("LAST-UPDATE") );
+    		
+    	}
+    	
+    }
+    
+    @Test
+    public void testErrorOnAccess() throws Exception
+    {
+    	
+    	try( CSVLazyReader reader = getReader() )
+    	{
+    		
+    		reader.read();
+    		final CSVLazyRecord record = reader.read();
+    		Assert.assertEquals( "Name 2", record.get("NAME") );
+    		Assert.assertNull( record.get("IN-STOCK") );
+    		
+    		try{
+    			record.get( "UPC" );
+    			Assert.fail( "The column UPC is not a number" );
+    		}catch( CSVProcessException ex )
+    		{
+    			Assert.assertTrue( ex.getMessage().contains("NaN") );
+    		}
+    		
+    		/* The other columns are still available. */
+    		Assert.assertEquals( Product.Currency.GBP, record.get("CURRENCY") );
+    		
+    		/* The error is kept for the next accesses. */
+    		try{
+    			record.get( "UPC" );
+    			Assert.fail( "The column UPC is not a number" );
+    		}catch( CSVProcessException ex )
+    		{
+    			Assert.assertTrue( ex.getMessage().contains("NaN") );
+    		}
+    		
+    	}
+    	
+    }
+    
+    @Test
+    public void testDetach() throws Exception
+    {
+    	
+    	try( CSVLazyReader reader = getReader() )
+    	{
+    		
+    		final CSVLazyRecord first = reader.read();
+    		Assert.assertEquals( "Name 1", first.get("NAME") );
+    		final CSVLazyRecord detached = first.detach();
+    		
+    		reader.read();
+    		final CSVLazyRecord third = reader.read();
+    		Assert.assertSame( first, third );
+    		Assert.assertNull( third.get("LAST-UPDATE") );
+    		Assert.assertNull( reader.read() );
+    		Assert.assertTrue( reader.isEndOfData() );
+    		
+    		Assert.assertEquals( "Name 1", detached.get("NAME") );
+    		Assert.assertEquals( 1L, detached.get("UPC") );
+    		Assert.assertEquals( true, detached.get("IN-STOCK") );
+    		
+    	}
+    	
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    private static CSVLazyReader getReader() throws Exception
+    {
+    	
+    	final CSVReaderFactory<Object[]> readerFactory = CSVReaderConfigurator.getCSVToArrayReaderFactory( false );
+    	
+    	return readerFactory.getCSVLazyReader( new StringReader(source) );
+    	
+    }
+    
+}
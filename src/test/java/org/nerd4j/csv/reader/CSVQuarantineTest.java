@@ -0,0 +1,120 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.nerd4j.csv.CSVProcessOutcome;
+
+
+/**
+ * Test for the class CSVQuarantine.
+ * 
+ * @author Nerd4j Team
+ */
+public class CSVQuarantineTest
+{
+    
+	private static final String source = "\"NAME\",\"DESCRIPTION\",\"UPC\",\"CURRENCY\",\"PRICE\",\"IN-STOCK\",\"LAST-UPDATE\"\n"
+			                           + "\"Name 1\",\"Description\",1,EUR,10.5,true,16-10-14\n"
+			                           + "\"Name 2\",\"Description\",NaN,GBP,20,,16-10-14\n"
+			                           + "\"Name 3\",\"Description\",3,USD,30,false,\n"
+			                           + "\"Name 4\",\"Multi\nline\",4,XYZ,40,true,16-10-14\n";
+	
+	
+	/* ************** */
+	/*  TEST METHODS  */
+	/* ************** */
+	
+	
+    @Test
+    public void testRawRecord() throws Exception
+    {
+    	
+    	try( CSVReader<Object[]> reader = getReader(null) )
+    	{
+    		
+    		CSVProcessOutcome<Object[]> outcome = reader.read();
+    		Assert.assertTrue( outcome.isSuccess() );
+    		Assert.assertEquals( "\"Name 1\",\"Description\",1,EUR,10.5,true,16-10-14", outcome.getRawRecord() );
+    		
+    		outcome = reader.read();
+    		Assert.assertTrue( outcome.isError() );
+    		Assert.assertEquals( "\"Name 2\",\"Description\",NaN,GBP,20,,16-10-14", outcome.getRawRecord() );
+    		
+    		outcome = reader.read();
+    		Assert.assertEquals( "\"Name 3\",\"Description\",3,USD,30,false,", outcome.getRawRecord() );
+    		
+    	}
+    	
+    }
+    
+    @Test
+    public void testQuarantine() throws Exception
+    {
+    	
+    	final StringWriter writer = new StringWriter();
+    	try( CSVQuarantine quarantine = new CSVQuarantine(writer);
+    		 CSVReader<Object[]> reader = getReader(quarantine) )
+    	{
+    		
+    		int success = 0;
+    		for( CSVProcessOutcome<Object[]> outcome : reader )
+    			if( outcome.isSuccess() )
+    				++success;
+    		
+    		Assert.assertEquals( 2, success );
+    		
+    	}
+    	
+    	final String[] lines = writer.toString().split( "\n" );
+    	Assert.assertEquals( 5, lines.length );
+    	
+    	Assert.assertTrue( lines[0].startsWith("# row 2 column UPC: ") );
+    	Assert.assertTrue( lines[0].contains("NaN") );
+    	Assert.assertEquals( "\"Name 2\",\"Description\",NaN,GBP,20,,16-10-14", lines[1] );
+    	
+    	Assert.assertTrue( lines[2].startsWith("# row 4 column CURRENCY: ") );
+    	Assert.assertEquals( "\"Name 4\",\"Multi", lines[3] );
+    	Assert.assertEquals( "line\",4,XYZ,40,true,16-10-14", lines[4] );
+    	
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    private static CSVReader<Object[]> getReader( CSVQuarantine quarantine ) throws Exception
+    {
+    	
+    	final CSVReaderFactory<Object[]> readerFactory = CSVReaderConfigurator.getCSVToArrayReaderFactory( false );
+    	
+    	return readerFactory.getCSVReader( new StringReader(source), new CSVReaderOptions().captureRecords(quarantine) );
+    	
+    }
+    
+}
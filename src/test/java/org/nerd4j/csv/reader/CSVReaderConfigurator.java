@@ -21,6 +21,11 @@
  */
 package org.nerd4j.csv.reader;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
 import org.nerd4j.csv.conf.CSVMetadataRegister;
 import org.nerd4j.csv.conf.mapping.CSVColumnConf;
 import org.nerd4j.csv.conf.mapping.CSVConfiguration;
@@ -34,6 +39,35 @@ import org.nerd4j.csv.registry.CSVRegistry;
 public class CSVReaderConfigurator
 {
     
+	private static final String header = "\"NAME\",\"DESCRIPTION\",\"UPC\",\"CURRENCY\",\"PRICE\",\"IN-STOCK\",\"LAST-UPDATE\"\n";
+	
+	
+    public static CSVReaderFactory<Object[]> getCSVToArrayReaderFactory( boolean acceptIncompleteRecords ) throws Exception
+    {
+    	
+    	return new CSVReaderFactoryImpl<Object[]>( CSVReaderConfigurator.<Object[]>getCSVToArrayReaderMetadataFactory(acceptIncompleteRecords) );
+    	
+    }
+    
+    public static File createSource( int records ) throws Exception
+    {
+    	
+    	final File file = File.createTempFile( "csv-source", ".csv" );
+    	file.deleteOnExit();
+    	
+    	final StringBuilder source = new StringBuilder( header );
+    	for( int i = 0; i < records; ++i )
+    		source.append( "\"Nàme " ).append( i ).append( "\",\"Description\"," ).append( i ).append( ",EUR,10,true,16-10-14\n" );
+    	
+    	try( OutputStream os = new FileOutputStream(file) )
+    	{
+    		os.write( source.toString().getBytes(StandardCharsets.UTF_8) );
+    	}
+    	
+    	return file;
+    	
+    }
+    
     public static <M> CSVReaderMetadataFactory<M> getCSVToArrayReaderMetadataFactory( boolean acceptIncompleteRecords ) throws Exception
     {
     	
@@ -0,0 +1,232 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Iterator;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.nerd4j.csv.CSVProcessOutcome;
+import org.nerd4j.csv.exception.CSVProcessException;
+import org.nerd4j.csv.exception.CSVToModelBindingException;
+import org.nerd4j.csv.exception.CSVUnrecoverableStateException;
+import org.nerd4j.csv.reader.batch.CSVRecordBatch;
+
+
+/**
+ * Test for the batch read of the records.
+ * 
+ * @author Nerd4j Team
+ */
+public class CSVRecordBatchTest
+{
+    
+	private static final String header = "\"NAME\",\"DESCRIPTION\",\"UPC\",\"CURRENCY\",\"PRICE\",\"IN-STOCK\",\"LAST-UPDATE\"\n";
+	
+	private static final String source = header
+			                           + "\"Name 1\",\"Description\",1,EUR,10.5,true,16-10-14\n"
+			                           + "\"Name 2\",\"Description\",NaN,GBP,20,,16-10-14\n"
+			                           + "\"Name 3\",\"Description 3\",3,USD,30,false,\n";
+	
+	private static final String incomplete = "\"Name 4\",\"Description 4\",4,EUR,40\n";
+	
+	
+	/* ************** */
+	/*  TEST METHODS  */
+	/* ************** */
+	
+	
+    @Test
+    public void testReadBatch() throws Exception
+    {
+    	
+    	try( CSVReader<Object[]> reader = CSVReaderConfigurator.getCSVToArrayReaderFactory(false).getCSVReader(new StringReader(source)) )
+    	{
+    		
+    		final CSVRecordBatch<Object[]> batch = reader.readBatch( 2 );
+    		Assert.assertEquals( 2, batch.getSize() );
+    		Assert.assertTrue( batch.isFull() );
+    		Assert.assertEquals( 1, batch.getErrorCount() );
+    		
+    		Assert.assertEquals( "Name 1", batch.getModel(0)[0] );
+    		Assert.assertFalse( batch.isError(0) );
+    		
+    		Assert.assertNull( batch.getModel(1) );
+    		Assert.assertTrue( batch.isError(1) );
+    		Assert.assertEquals( 2, batch.getContext(1).getRowIndex() );
+    		Assert.assertEquals( 2, batch.getContext(1).getColumnIndex() );
+    		
+    		/* The same batch is reused for the following records. */
+    		Assert.assertEquals( 1, reader.readBatch(batch) );
+    		Assert.assertEquals( 0, batch.getErrorCount() );
+    		Assert.assertEquals( "Name 3", batch.getModel(0)[0] );
+    		Assert.assertTrue( reader.isEndOfData() );
+    		
+    		Assert.assertEquals( 0, reader.readBatch(batch) );
+    		
+    	}
+    	
+    }
+    
+    @Test
+    public void testModelsAreNotReused() throws Exception
+    {
+    	
+    	try( CSVReader<Object[]> reader = CSVReaderConfigurator.getCSVToArrayReaderFactory(false).getCSVReader(new StringReader(source), new CSVReaderOptions().reuseModel()) )
+    	{
+    		
+    		final CSVRecordBatch<Object[]> batch = reader.readBatch( 10 );
+    		Assert.assertEquals( 3, batch.getSize() );
+    		Assert.assertNotSame( batch.getModel(0), batch.getModel(2) );
+    		Assert.assertEquals( "Name 1", batch.getModel(0)[0] );
+    		Assert.assertEquals( "Name 3", batch.getModel(2)[0] );
+    		
+    	}
+    	
+    }
+    
+    @Test
+    public void testBatchIterator() throws Exception
+    {
+    	
+    	try( CSVReader<Object[]> reader = CSVReaderConfigurator.getCSVToArrayReaderFactory(false).getCSVReader(new StringReader(source + incomplete), new CSVReaderOptions().snapshotOutcomes()) )
+    	{
+    		
+    		final Iterator<CSVProcessOutcome<Object[]>> iterator = reader.iterator();
+    		
+    		/* The records read before the failure are returned. */
+    		Assert.assertEquals( "Name 1", iterator.next().getModel()[0] );
+    		Assert.assertTrue( iterator.next().isError() );
+    		Assert.assertEquals( "Name 3", iterator.next().getModel()[0] );
+    		
+    		try{
+    			
+    			iterator.hasNext();
+    			Assert.fail( "The incomplete record should fail" );
+    			
+    		}catch( CSVUnrecoverableStateException ex )
+    		{
+    			/* Expected. */
+    		}
+    		
+    	}
+    	
+    }
+    
+    @Test
+    public void testDefaultReadBatch() throws Exception
+    {
+    	
+    	try( CSVReader<Object[]> reader = new RecordByRecordReader(CSVReaderConfigurator.getCSVToArrayReaderFactory(false).getCSVReader(new StringReader(source))) )
+    	{
+    		
+    		final CSVRecordBatch<Object[]> batch = reader.readBatch( 2 );
+    		Assert.assertEquals( 2, batch.getSize() );
+    		Assert.assertEquals( 1, batch.getErrorCount() );
+    		Assert.assertEquals( "Name 1", batch.getModel(0)[0] );
+    		
+    		/* The errors are kept as immutable snapshots. */
+    		Assert.assertTrue( batch.isError(1) );
+    		Assert.assertEquals( 2, batch.getContext(1).getRowIndex() );
+    		Assert.assertEquals( 2, batch.getContext(1).getColumnIndex() );
+    		
+    		Assert.assertEquals( 1, reader.readBatch(batch) );
+    		Assert.assertEquals( "Name 3", batch.getModel(0)[0] );
+    		Assert.assertEquals( 0, reader.readBatch(batch) );
+    		
+    		/* The columnar batches are a separate capability. */
+    		Assert.assertFalse( reader instanceof CSVColumnBatchReader );
+    		
+    	}
+    	
+    }
+    
+    @Test(expected=IllegalArgumentException.class)
+    public void testInvalidCapacity()
+    {
+    	
+    	new CSVRecordBatch<Object[]>( 0 );
+    	
+    }
+    
+    
+	/* *************** */
+	/*  INNER CLASSES  */
+	/* *************** */
+	
+	
+    /**
+     * Reader implementing only the record by record
+     * methods to test the default batch read.
+     */
+    private static class RecordByRecordReader implements CSVReader<Object[]>
+    {
+    	
+    	private final CSVReader<Object[]> reader;
+    	
+    	public RecordByRecordReader( CSVReader<Object[]> reader )
+    	{
+    		super();
+    		this.reader = reader;
+    	}
+    	
+    	@Override
+    	public String[] getHeader()
+    	{
+    		return reader.getHeader();
+    	}
+    	
+    	@Override
+    	public boolean isEndOfData()
+    	{
+    		return reader.isEndOfData();
+    	}
+    	
+    	@Override
+    	public Object[] readModel() throws IOException, CSVToModelBindingException, CSVProcessException
+    	{
+    		return reader.readModel();
+    	}
+    	
+    	@Override
+    	public CSVProcessOutcome<Object[]> read() throws IOException, CSVToModelBindingException
+    	{
+    		return reader.read();
+    	}
+    	
+    	@Override
+    	public Iterator<CSVProcessOutcome<Object[]>> iterator()
+    	{
+    		return reader.iterator();
+    	}
+    	
+    	@Override
+    	public void close() throws IOException
+    	{
+    		reader.close();
+    	}
+    	
+    }
+    
+}
@@ -0,0 +1,128 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+import java.io.StringReader;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.nerd4j.csv.CSVProcessOutcome;
+import org.nerd4j.csv.model.Product;
+
+
+/**
+ * Test for the readers in model reuse mode.
+ * 
+ * @author Nerd4j Team
+ */
+public class CSVReusingReaderTest
+{
+    
+	private static final String source = "\"NAME\",\"DESCRIPTION\",\"UPC\",\"CURRENCY\",\"PRICE\",\"IN-STOCK\",\"LAST-UPDATE\"\n"
+			                           + "\"Name 1\",\"Description\",1,EUR,10.5,true,16-10-14\n"
+			                           + "\"Name 2\",\"Description\",NaN,GBP,20,,16-10-14\n"
+			                           + "\"Name 3\",\"Description 3\",3,USD,30,false,\n";
+	
+	
+	/* ************** */
+	/*  TEST METHODS  */
+	/* ************** */
+	
+	
+    @Test
+    public void testReuseArray() throws Exception
+    {
+    	
+    	final CSVReaderFactory<Object[]> readerFactory = CSVReaderConfigurator.getCSVToArrayReaderFactory( false );
+    	
+    	try( CSVReader<Object[]> reader = readerFactory.getCSVReader(new StringReader(source), new CSVReaderOptions().reuseModel()) )
+    	{
+    		
+    		final Object[] first = reader.read().getModel();
+    		Assert.assertEquals( "Name 1", first[0] );
+    		Assert.assertEquals( "Description", first[1] );
+    		
+    		final CSVProcessOutcome<Object[]> error = reader.read();
+    		Assert.assertNull( error.getModel() );
+    		Assert.assertTrue( error.getCSVProcessContext().isError() );
+    		
+    		final Object[] third = reader.read().getModel();
+    		Assert.assertSame( first, third );
+    		Assert.assertEquals( "Name 3", third[0] );
+    		Assert.assertEquals( "Description 3", third[1] );
+    		Assert.assertNull( third[6] );
+    		Assert.assertEquals( Product.Currency.USD, third[3] );
+    		
+    		Assert.assertNull( reader.read().getModel() );
+    		Assert.assertTrue( reader.isEndOfData() );
+    		
+    	}
+    	
+    }
+    
+    @Test
+    public void testReuseMap() throws Exception
+    {
+    	
+    	final CSVReaderFactory<Map<String,Object>> readerFactory =
+    			new CSVReaderFactoryImpl<Map<String,Object>>( CSVReaderConfigurator.<Map<String,Object>>getCSVToMapReaderMetadataFactory(false) );
+    	
+    	try( CSVReader<Map<String,Object>> reader = readerFactory.getCSVReader(new StringReader(source), new CSVReaderOptions().reuseModel()) )
+    	{
+    		
+    		final Map<String,Object> first = reader.read().getModel();
+    		final int size = first.size();
+    		first.put( "EXTRA", "value" );
+    		
+    		reader.read();
+    		final Map<String,Object> third = reader.read().getModel();
+    		Assert.assertSame( first, third );
+    		Assert.assertEquals( size, third.size() );
+    		Assert.assertFalse( third.containsKey("EXTRA") );
+    		
+    	}
+    	
+    }
+    
+    @Test
+    public void testBeansAreNotReused() throws Exception
+    {
+    	
+    	final CSVReaderFactory<Product> readerFactory =
+    			new CSVReaderFactoryImpl<Product>( CSVReaderConfigurator.<Product>getCSVToBeanReaderMetadataFactory(false) );
+    	
+    	try( CSVReader<Product> reader = readerFactory.getCSVReader(new StringReader(source), new CSVReaderOptions().reuseModel()) )
+    	{
+    		
+    		final Product first = reader.read().getModel();
+    		reader.read();
+    		final Product third = reader.read().getModel();
+    		
+    		Assert.assertNotSame( first, third );
+    		Assert.assertEquals( "Name 1", first.getName() );
+    		
+    	}
+    	
+    }
+    
+}
@@ -0,0 +1,171 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+import java.io.StringReader;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.nerd4j.csv.CSVProcessOutcome;
+import org.nerd4j.csv.exception.CSVConfigurationException;
+import org.nerd4j.csv.metrics.CSVJmxMetrics;
+import org.nerd4j.csv.reader.batch.CSVColumnBatch;
+
+
+/**
+ * Test for the class CSVRowFilter.
+ * 
+ * @author Nerd4j Team
+ */
+public class CSVRowFilterTest
+{
+    
+	private static final String source = "\"NAME\",\"DESCRIPTION\",\"UPC\",\"CURRENCY\",\"PRICE\",\"IN-STOCK\",\"LAST-UPDATE\"\n"
+			                           + "\"Name 1\",\"Description\",1,EUR,10.5,true,16-10-14\n"
+			                           + "\"Name 2\",\"Description\",NaN,GBP,20,,16-10-14\n"
+			                           + "\"Name 3\",\"Description\",3,USD,30,false,\n"
+			                           + "\"Name 4\",\"Description\",4,EUR,40,false,\n";
+	
+	
+	/* ************** */
+	/*  TEST METHODS  */
+	/* ************** */
+	
+	
+    @Test
+    public void testRawFilter() throws Exception
+    {
+    	
+    	final CSVRowFilter filter = CSVRowFilter.in( "CURRENCY", "EUR" );
+    	try( CSVReader<Object[]> reader = CSVReaderConfigurator.getCSVToArrayReaderFactory(false).getCSVReader(new StringReader(source), new CSVReaderOptions().filter(filter)) )
+    	{
+    		
+    		Assert.assertEquals( "Name 1", reader.read().getModel()[0] );
+    		
+    		/* The record with the invalid UPC fails before the filtered column. */
+    		Assert.assertTrue( reader.read().getCSVProcessContext().isError() );
+    		
+    		final CSVProcessOutcome<Object[]> outcome = reader.read();
+    		Assert.assertFalse( outcome.getCSVProcessContext().isError() );
+    		Assert.assertEquals( "Name 4", outcome.getModel()[0] );
+    		Assert.assertEquals( 4, outcome.getCSVProcessContext().getRowIndex() );
+    		
+    		Assert.assertNull( reader.read().getModel() );
+    		Assert.assertTrue( reader.isEndOfData() );
+    		
+    	}
+    	
+    	Assert.assertEquals( 1, filter.getRejectedCount() );
+    	
+    }
+    
+    @Test
+    public void testValueFilter() throws Exception
+    {
+    	
+    	final CSVRowFilter filter = CSVRowFilter.onValue( "PRICE", value -> ((Float) value) > 25f )
+    			                                .and( CSVRowFilter.onRawValue("NAME", name -> name.charAt(0) == 'N') );
+    	
+    	final CSVJmxMetrics metrics = new CSVJmxMetrics( "filter-test" );
+    	final CSVReaderFactory<Object[]> factory = CSVReaderConfigurator.getCSVToArrayReaderFactory( false );
+    	factory.setMetrics( metrics );
+    	
+    	try( CSVReader<Object[]> reader = factory.getCSVReader(new StringReader(source), new CSVReaderOptions().filter(filter)) )
+    	{
+    		
+    		/* The first record is filtered, the second fails before the filtered column. */
+    		Assert.assertTrue( reader.read().getCSVProcessContext().isError() );
+    		Assert.assertEquals( "Name 3", reader.read().getModel()[0] );
+    		Assert.assertEquals( "Name 4", reader.read().getModel()[0] );
+    		Assert.assertNull( reader.read().getModel() );
+    		
+    	}
+    	
+    	Assert.assertEquals( 1, filter.getRejectedCount() );
+    	Assert.assertEquals( 1, metrics.getRecordsFiltered() );
+    	Assert.assertEquals( 4, metrics.getRecordsRead() );
+    	
+    }
+    
+    @Test
+    public void testBatchFilter() throws Exception
+    {
+    	
+    	final CSVRowFilter filter = CSVRowFilter.in( "CURRENCY", "EUR", "GBP" );
+    	try( CSVReader<Object[]> reader = CSVReaderConfigurator.getCSVToArrayReaderFactory(false).getCSVReader(new StringReader(source), new CSVReaderOptions().filter(filter)) )
+    	{
+    		
+    		final CSVColumnBatch batch = new CSVColumnBatch( 10 );
+    		Assert.assertEquals( 2, ((CSVColumnBatchReader) reader).readBatch(batch) );
+    		Assert.assertEquals( 1, batch.getRejected() );
+    		Assert.assertEquals( "Name 4", batch.getColumn("NAME").getString(1) );
+    		
+    	}
+    	
+    	Assert.assertEquals( 1, filter.getRejectedCount() );
+    	
+    }
+    
+    @Test
+    public void testCombinedOptions() throws Exception
+    {
+    	
+    	final CSVReaderOptions options = new CSVReaderOptions().filter( CSVRowFilter.in("CURRENCY", "EUR") )
+    			                                               .captureRecords( null )
+    			                                               .reuseModel();
+    	
+    	try( CSVReader<Object[]> reader = CSVReaderConfigurator.getCSVToArrayReaderFactory(false).getCSVReader(new StringReader(source), options) )
+    	{
+    		
+    		CSVProcessOutcome<Object[]> outcome = reader.read();
+    		final Object[] model = outcome.getModel();
+    		Assert.assertEquals( "Name 1", model[0] );
+    		Assert.assertEquals( "\"Name 1\",\"Description\",1,EUR,10.5,true,16-10-14", outcome.getRawRecord() );
+    		
+    		outcome = reader.read();
+    		Assert.assertTrue( outcome.isError() );
+    		Assert.assertEquals( "\"Name 2\",\"Description\",NaN,GBP,20,,16-10-14", outcome.getRawRecord() );
+    		
+    		/* The filtered record is skipped and the model is reused. */
+    		outcome = reader.read();
+    		Assert.assertSame( model, outcome.getModel() );
+    		Assert.assertEquals( "Name 4", model[0] );
+    		Assert.assertEquals( "\"Name 4\",\"Description\",4,EUR,40,false,", outcome.getRawRecord() );
+    		
+    	}
+    	
+    }
+    
+    @Test
+    public void testUnknownColumn() throws Exception
+    {
+    	
+    	try{
+    		
+    		CSVReaderConfigurator.getCSVToArrayReaderFactory(false).getCSVReader( new StringReader(source), new CSVReaderOptions().filter(CSVRowFilter.in("STATUS", "ACTIVE")) );
+    		Assert.fail( "A filter on an unknown column should be rejected" );
+    		
+    	}catch( CSVConfigurationException ex ) {}
+    	
+    }
+    
+}
@@ -0,0 +1,275 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.nerd4j.csv.CSVProcessOutcome;
+import org.nerd4j.csv.metrics.CSVJmxMetrics;
+import org.nerd4j.csv.reader.batch.CSVColumnBatch;
+
+
+/**
+ * Test for the class CSVSidecarCache.
+ * 
+ * @author Nerd4j Team
+ */
+public class CSVSidecarCacheTest
+{
+    
+	private static final String header = "\"NAME\",\"DESCRIPTION\",\"UPC\",\"CURRENCY\",\"PRICE\",\"IN-STOCK\",\"LAST-UPDATE\"\n";
+	
+	
+	/* ************** */
+	/*  TEST METHODS  */
+	/* ************** */
+	
+	
+    @Test
+    public void testReadFromSidecar() throws Exception
+    {
+    	
+    	final File file = createSource( 5000, null );
+    	final CSVSidecarCache cache = new CSVSidecarCache();
+    	final File sidecar = cache.getSidecarFile( file );
+    	sidecar.deleteOnExit();
+    	
+    	final CSVReaderFactory<Map<String,Object>> readerFactory = getReaderFactory();
+    	
+    	final List<Map<String,Object>> expected;
+    	try( CSVReader<Map<String,Object>> reader = readerFactory.getCSVReader(file, cache) )
+    	{
+    		Assert.assertTrue( reader instanceof CSVSidecarRecordingReader );
+    		expected = readAll( reader );
+    	}
+    	
+    	Assert.assertEquals( 5000, expected.size() );
+    	Assert.assertTrue( sidecar.exists() );
+    	
+    	try( CSVReader<Map<String,Object>> reader = readerFactory.getCSVReader(file, cache) )
+    	{
+    		Assert.assertTrue( reader instanceof CSVSidecarReaderImpl );
+    		Assert.assertArrayEquals( header.replace("\"", "").trim().split(","), reader.getHeader() );
+    		Assert.assertEquals( expected, readAll(reader) );
+    		Assert.assertTrue( reader.isEndOfData() );
+    	}
+    	
+    }
+    
+    @Test
+    public void testMetricsWhileCaching() throws Exception
+    {
+    	
+    	final File file = createSource( 100, null );
+    	final CSVSidecarCache cache = new CSVSidecarCache();
+    	cache.getSidecarFile( file ).deleteOnExit();
+    	
+    	final CSVJmxMetrics metrics = new CSVJmxMetrics( "sidecar-test" );
+    	final CSVReaderFactory<Map<String,Object>> readerFactory = getReaderFactory();
+    	readerFactory.setMetrics( metrics );
+    	
+    	/* The source is read by a reader of the factory so the metrics are collected. */
+    	try( CSVReader<Map<String,Object>> reader = readerFactory.getCSVReader(file, cache) )
+    	{
+    		Assert.assertTrue( reader instanceof CSVSidecarRecordingReader );
+    		Assert.assertEquals( 100, readAll(reader).size() );
+    	}
+    	
+    	Assert.assertEquals( 100, metrics.getRecordsRead() );
+    	Assert.assertEquals( file.length(), metrics.getBytesRead() );
+    	
+    }
+    
+    @Test
+    public void testReadBatchFromSidecar() throws Exception
+    {
+    	
+    	final File file = createSource( 100, null );
+    	final CSVSidecarCache cache = new CSVSidecarCache();
+    	cache.getSidecarFile( file ).deleteOnExit();
+    	
+    	final CSVReaderFactory<Map<String,Object>> readerFactory = getReaderFactory();
+    	try( CSVReader<Map<String,Object>> reader = readerFactory.getCSVReader(file, cache) )
+    	{
+    		readAll( reader );
+    	}
+    	
+    	final CSVColumnBatch batch = new CSVColumnBatch( 64 );
+    	try( CSVReader<Map<String,Object>> reader = readerFactory.getCSVReader(file, cache) )
+    	{
+    		Assert.assertTrue( reader instanceof CSVSidecarReaderImpl );
+    		
+    		final CSVColumnBatchReader columns = (CSVColumnBatchReader) reader;
+    		Assert.assertEquals( 64, columns.readBatch(batch) );
+    		Assert.assertEquals( 36, columns.readBatch(batch) );
+    		Assert.assertEquals( 99L, batch.getColumn("UPC").getLong(35) );
+    		Assert.assertEquals( 0, columns.readBatch(batch) );
+    	}
+    	
+    }
+    
+    @Test
+    public void testSidecarInvalidation() throws Exception
+    {
+    	
+    	final File file = createSource( 10, null );
+    	final CSVSidecarCache cache = new CSVSidecarCache( file.getParentFile() );
+    	final File sidecar = cache.getSidecarFile( file );
+    	sidecar.deleteOnExit();
+    	
+    	final CSVReaderFactory<Map<String,Object>> readerFactory = getReaderFactory();
+    	try( CSVReader<Map<String,Object>> reader = readerFactory.getCSVReader(file, cache) )
+    	{
+    		Assert.assertEquals( 10, readAll(reader).size() );
+    	}
+    	
+    	/* The source is changed so the sidecar must be built again. */
+    	try( OutputStream os = new FileOutputStream(file, true) )
+    	{
+    		os.write( "\"Name\",\"Description\",10,USD,10,false,16-10-14\n".getBytes(StandardCharsets.UTF_8) );
+    	}
+    	
+    	try( CSVReader<Map<String,Object>> reader = readerFactory.getCSVReader(file, cache) )
+    	{
+    		Assert.assertTrue( reader instanceof CSVSidecarRecordingReader );
+    		Assert.assertEquals( 11, readAll(reader).size() );
+    	}
+    	
+    	try( CSVReader<Map<String,Object>> reader = readerFactory.getCSVReader(file, cache) )
+    	{
+    		Assert.assertTrue( reader instanceof CSVSidecarReaderImpl );
+    		
+    		final List<Map<String,Object>> models = readAll( reader );
+    		Assert.assertEquals( 11, models.size() );
+    		Assert.assertEquals( 10L, models.get(10).get("Upc") );
+    		Assert.assertEquals( false, models.get(10).get("InStock") );
+    	}
+    	
+    }
+    
+    @Test
+    public void testUncacheableSource() throws Exception
+    {
+    	
+    	final File file = createSource( 10, "\"Name\",\"Description\",NaN,EUR,10,true,16-10-14\n" );
+    	final CSVSidecarCache cache = new CSVSidecarCache();
+    	final File sidecar = cache.getSidecarFile( file );
+    	sidecar.deleteOnExit();
+    	
+    	final CSVReaderFactory<Map<String,Object>> readerFactory = getReaderFactory();
+    	try( CSVReader<Map<String,Object>> reader = readerFactory.getCSVReader(file, cache) )
+    	{
+    		Assert.assertEquals( 11, readAll(reader).size() );
+    	}
+    	
+    	/* The source is marked as not cacheable and is read directly. */
+    	Assert.assertTrue( sidecar.exists() );
+    	try( CSVReader<Map<String,Object>> reader = readerFactory.getCSVReader(file, cache) )
+    	{
+    		Assert.assertTrue( reader instanceof CSVReaderImpl );
+    		Assert.assertEquals( 11, readAll(reader).size() );
+    	}
+    	
+    }
+    
+    @Test
+    public void testIncompleteReading() throws Exception
+    {
+    	
+    	final File file = createSource( 10, null );
+    	final CSVSidecarCache cache = new CSVSidecarCache();
+    	final File sidecar = cache.getSidecarFile( file );
+    	
+    	final CSVReaderFactory<Map<String,Object>> readerFactory = getReaderFactory();
+    	try( CSVReader<Map<String,Object>> reader = readerFactory.getCSVReader(file, cache) )
+    	{
+    		reader.readModel();
+    	}
+    	
+    	Assert.assertFalse( sidecar.exists() );
+    	
+    	final File[] temps = file.getParentFile().listFiles( (dir, name) -> name.startsWith(sidecar.getName()) );
+    	Assert.assertEquals( 0, temps.length );
+    	
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    private static CSVReaderFactory<Map<String,Object>> getReaderFactory() throws Exception
+    {
+    	
+    	return new CSVReaderFactoryImpl<Map<String,Object>>( CSVReaderConfigurator.<Map<String,Object>>getCSVToMapReaderMetadataFactory(false) );
+    	
+    }
+    
+    private static List<Map<String,Object>> readAll( CSVReader<Map<String,Object>> reader ) throws Exception
+    {
+    	
+    	final List<Map<String,Object>> models = new ArrayList<Map<String,Object>>();
+    	for( CSVProcessOutcome<Map<String,Object>> outcome : reader )
+    	{
+    		final Map<String,Object> model = outcome.getModel();
+    		models.add( model != null ? new HashMap<String,Object>(model) : null );
+    	}
+    	
+    	return models;
+    	
+    }
+    
+    private static File createSource( int records, String last ) throws Exception
+    {
+    	
+    	final File file = File.createTempFile( "sidecar", ".csv" );
+    	file.deleteOnExit();
+    	
+    	final StringBuilder source = new StringBuilder( header );
+    	for( int i = 0; i < records; ++i )
+    		source.append( "\"Name " ).append( i ).append( "\",\"Description\"," ).append( i )
+    		      .append( i % 2 == 0 ? ",EUR," : ",GBP," ).append( i ).append( ".5," )
+    		      .append( i % 3 == 0 ? "true" : "" ).append( ",16-10-14\n" );
+    	
+    	if( last != null )
+    		source.append( last );
+    	
+    	try( OutputStream os = new FileOutputStream(file) )
+    	{
+    		os.write( source.toString().getBytes(StandardCharsets.UTF_8) );
+    	}
+    	
+    	return file;
+    	
+    }
+    
+}
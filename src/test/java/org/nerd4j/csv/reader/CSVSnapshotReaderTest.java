@@ -0,0 +1,126 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.nerd4j.csv.CSVProcessContext;
+import org.nerd4j.csv.CSVProcessOutcome;
+import org.nerd4j.csv.exception.CSVConfigurationException;
+import org.nerd4j.csv.field.CSVFieldProcessSnapshot;
+
+
+/**
+ * Test for the readers in outcome snapshot mode.
+ * 
+ * @author Nerd4j Team
+ */
+public class CSVSnapshotReaderTest
+{
+    
+	private static final String source = "\"NAME\",\"DESCRIPTION\",\"UPC\",\"CURRENCY\",\"PRICE\",\"IN-STOCK\",\"LAST-UPDATE\"\n"
+			                           + "\"Name 1\",\"Description\",1,EUR,10.5,true,16-10-14\n"
+			                           + "\"Name 2\",\"Description\",NaN,GBP,20,,16-10-14\n"
+			                           + "\"Name 3\",\"Description 3\",3,USD,30,false,\n";
+	
+	
+	/* ************** */
+	/*  TEST METHODS  */
+	/* ************** */
+	
+	
+    @Test
+    public void testCollectedOutcomes() throws Exception
+    {
+    	
+    	final CSVReaderFactory<Object[]> readerFactory = CSVReaderConfigurator.getCSVToArrayReaderFactory( false );
+    	
+    	final List<CSVProcessOutcome<Object[]>> outcomes;
+    	try( CSVReader<Object[]> reader = readerFactory.getCSVReader(new StringReader(source), new CSVReaderOptions().snapshotOutcomes()) )
+    	{
+    		outcomes = reader.stream().collect( Collectors.toList() );
+    	}
+    	
+    	Assert.assertEquals( 3, outcomes.size() );
+    	Assert.assertEquals( "Name 1", outcomes.get(0).getModel()[0] );
+    	Assert.assertEquals( "Name 3", outcomes.get(2).getModel()[0] );
+    	
+    	/* The successful outcomes share the same context. */
+    	Assert.assertFalse( outcomes.get(0).isError() );
+    	Assert.assertFalse( outcomes.get(2).isError() );
+    	Assert.assertSame( outcomes.get(0).getCSVProcessContext(), outcomes.get(2).getCSVProcessContext() );
+    	
+    	/* The error is kept after reading the following records. */
+    	final CSVProcessOutcome<Object[]> error = outcomes.get( 1 );
+    	Assert.assertNull( error.getModel() );
+    	Assert.assertTrue( error.isError() );
+    	
+    	final CSVProcessContext context = error.getCSVProcessContext();
+    	Assert.assertEquals( 2, context.getRowIndex() );
+    	Assert.assertEquals( 2, context.getColumnIndex() );
+    	Assert.assertNotNull( context.getError().getOperation() );
+    	Assert.assertTrue( context.getError().getMessage(), context.getError().getMessage().contains("NaN") );
+    	
+    	final CSVFieldProcessSnapshot snapshot = (CSVFieldProcessSnapshot) context;
+    	Assert.assertEquals( "UPC", snapshot.getColumnName() );
+    	Assert.assertEquals( "NaN", snapshot.getOriginalValue() );
+    	
+    }
+    
+    @Test
+    public void testDistinctOutcomes() throws Exception
+    {
+    	
+    	final CSVReaderFactory<Object[]> readerFactory = CSVReaderConfigurator.getCSVToArrayReaderFactory( false );
+    	
+    	try( CSVReader<Object[]> reader = readerFactory.getCSVReader(new StringReader(source), new CSVReaderOptions().snapshotOutcomes()) )
+    	{
+    		
+    		final CSVProcessOutcome<Object[]> first = reader.read();
+    		final CSVProcessOutcome<Object[]> second = reader.read();
+    		
+    		Assert.assertNotSame( first, second );
+    		Assert.assertFalse( first.isError() );
+    		Assert.assertTrue( second.isError() );
+    		
+    		/* The model can still be read as usual. */
+    		Assert.assertEquals( "Name 3", reader.readModel()[0] );
+    		Assert.assertNull( reader.read().getModel() );
+    		Assert.assertTrue( reader.isEndOfData() );
+    		
+    	}
+    	
+    }
+    
+    @Test(expected=CSVConfigurationException.class)
+    public void testIncompatibleOptions()
+    {
+    	
+    	new CSVReaderOptions().snapshotOutcomes().reuseModel();
+    	
+    }
+    
+}
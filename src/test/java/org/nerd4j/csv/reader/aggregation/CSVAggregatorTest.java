@@ -0,0 +1,333 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.aggregation;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.nerd4j.csv.exception.CSVConfigurationException;
+import org.nerd4j.csv.reader.CSVReaderConfigurator;
+import org.nerd4j.csv.reader.CSVReaderMetadataFactory;
+
+
+/**
+ * Test for the class CSVAggregator.
+ * 
+ * @author Nerd4j Team
+ */
+public class CSVAggregatorTest
+{
+    
+	private static final String header = "\"NAME\",\"DESCRIPTION\",\"UPC\",\"CURRENCY\",\"PRICE\",\"IN-STOCK\",\"LAST-UPDATE\"\n";
+	
+	private static final String records = "\"Name 1\",\"Description 1\",1,EUR,10.5,true,16-10-14\n"
+			                            + "\"Name 2\",\"Description 2\",2,USD,20,true,16-10-14\n"
+			                            + "\"Name 3\",\"Description 3\",1,EUR,4.5,false,16-10-14\n"
+			                            + "\"Name 4\",\"Description 4\",3,GBP,7,true,16-10-14\n"
+			                            + "\"Name 5\",\"Description 5\",2,EUR,wrong,true,16-10-14\n"
+			                            + "\"Name 6\",\"Description 6\",2,USD,30,,\n";
+	
+	
+	/* ************** */
+	/*  TEST METHODS  */
+	/* ************** */
+	
+	
+    @Test
+    public void testAggregateByTextualKey() throws Exception
+    {
+    	
+    	final CSVAggregation aggregation = new CSVAggregation( "CURRENCY" )
+    			.count( "count" )
+    			.sum( "total", "PRICE" )
+    			.min( "min", "PRICE" )
+    			.max( "max", "PRICE" )
+    			.avg( "avg", "PRICE" );
+    	
+    	final CSVAggregator aggregator = new CSVAggregator( getMetadataFactory(), aggregation );
+    	try( CSVAggregationResult result = aggregator.aggregate(new StringReader(header + records)) )
+    	{
+    		
+    		Assert.assertEquals( 5, result.getRecordCount() );
+    		Assert.assertEquals( 1, result.getRejectedCount() );
+    		Assert.assertFalse( result.isSpilled() );
+    		
+    		final Map<Object,CSVAggregateGroup> groups = toMap( result.getGroups() );
+    		Assert.assertEquals( 3, groups.size() );
+    		
+    		final CSVAggregateGroup eur = groups.get( "EUR" );
+    		Assert.assertEquals( 2, eur.getRecordCount() );
+    		Assert.assertEquals( 2, eur.getValue("count"), 0 );
+    		Assert.assertEquals( 15, eur.getValue("total"), 0.0001 );
+    		Assert.assertEquals( 4.5, eur.getValue("min"), 0.0001 );
+    		Assert.assertEquals( 10.5, eur.getValue("max"), 0.0001 );
+    		Assert.assertEquals( 7.5, eur.getValue("avg"), 0.0001 );
+    		
+    		final CSVAggregateGroup usd = groups.get( "USD" );
+    		Assert.assertEquals( 2, usd.getRecordCount() );
+    		Assert.assertEquals( 50, usd.getValue("total"), 0.0001 );
+    		
+    		Assert.assertEquals( 7, groups.get("GBP").getValue("max"), 0.0001 );
+    		
+    	}
+        
+    }
+    
+    
+    @Test
+    public void testAggregateByIntegralKey() throws Exception
+    {
+    	
+    	final CSVAggregation aggregation = new CSVAggregation( "UPC" ).sum( "total", "PRICE" );
+    	final CSVAggregator aggregator = new CSVAggregator( getMetadataFactory(), aggregation );
+    	try( CSVAggregationResult result = aggregator.aggregate(new StringReader(header + records)) )
+    	{
+    		
+    		final Map<Object,CSVAggregateGroup> groups = toMap( result.getGroups() );
+    		Assert.assertEquals( 3, groups.size() );
+    		Assert.assertEquals( 15, groups.get(1L).getValue(0), 0.0001 );
+    		Assert.assertEquals( 50, groups.get(2L).getValue(0), 0.0001 );
+    		Assert.assertEquals( 7, groups.get(3L).getValue(0), 0.0001 );
+    		
+    	}
+    	
+    }
+    
+    
+    @Test
+    public void testIntegralAggregates() throws Exception
+    {
+    	
+    	final long big = Long.MAX_VALUE - 10;
+    	final String source = header
+    			            + "\"Name 1\",\"Description 1\"," + big + ",EUR,1,true,16-10-14\n"
+    			            + "\"Name 2\",\"Description 2\",7,EUR,1,true,16-10-14\n"
+    			            + "\"Name 3\",\"Description 3\"," + (big - 1) + ",USD,1,true,16-10-14\n"
+    			            + "\"Name 4\",\"Description 4\"," + "-5,USD,1,true,16-10-14\n";
+    	
+    	final CSVAggregation aggregation = new CSVAggregation( "CURRENCY" )
+    			.count( "count" )
+    			.sum( "total", "UPC" )
+    			.min( "min", "UPC" )
+    			.max( "max", "UPC" )
+    			.avg( "avg", "UPC" );
+    	aggregation.setMaxGroupsInMemory( 1 );
+    	
+    	try( CSVAggregationResult result = new CSVAggregator(getMetadataFactory(), aggregation).aggregate(new StringReader(source)) )
+    	{
+    		
+    		Assert.assertTrue( result.isSpilled() );
+    		
+    		final Map<Object,CSVAggregateGroup> groups = toMap( result.getGroups() );
+    		
+    		final CSVAggregateGroup eur = groups.get( "EUR" );
+    		Assert.assertEquals( 2, eur.getLongValue("count") );
+    		Assert.assertEquals( big + 7, eur.getLongValue("total") );
+    		Assert.assertEquals( 7, eur.getLongValue("min") );
+    		Assert.assertEquals( big, eur.getLongValue("max") );
+    		Assert.assertFalse( eur.hasLongValue(4) );
+    		Assert.assertEquals( (big + 7) / 2.0, eur.getValue("avg"), 1 );
+    		
+    		final CSVAggregateGroup usd = groups.get( "USD" );
+    		Assert.assertEquals( big - 6, usd.getLongValue("total") );
+    		Assert.assertEquals( -5, usd.getLongValue("min") );
+    		Assert.assertEquals( big - 1, usd.getLongValue("max") );
+    		
+    	}
+    	
+    	/* A sum that doesn't fit into a long fails. */
+    	final CSVAggregation overflow = new CSVAggregation( "CURRENCY" ).sum( "total", "UPC" );
+    	try( CSVAggregationResult result = new CSVAggregator(getMetadataFactory(), overflow).aggregate(new StringReader(source + source.substring(header.length()))) )
+    	{
+    		Assert.fail( "The sum should overflow" );
+    	}
+    	catch( ArithmeticException ex )
+    	{
+    		/* Expected. */
+    	}
+    	
+    }
+    
+    
+    @Test
+    public void testSpillToDisk() throws Exception
+    {
+    	
+    	final StringBuilder source = new StringBuilder( header );
+    	for( int i = 0; i < 1000; ++i )
+    		source.append( "\"Name\",\"Description\"," ).append( i % 100 ).append( ",EUR," ).append( i ).append( ",true,16-10-14\n" );
+    	
+    	final CSVAggregation inMemory = new CSVAggregation( "UPC" ).count( "count" ).sum( "total", "PRICE" ).max( "max", "PRICE" );
+    	final CSVAggregation spilling = new CSVAggregation( "UPC" ).count( "count" ).sum( "total", "PRICE" ).max( "max", "PRICE" );
+    	spilling.setMaxGroupsInMemory( 10 );
+    	spilling.setSpillPartitions( 4 );
+    	
+    	try( CSVAggregationResult expected = new CSVAggregator(getMetadataFactory(), inMemory).aggregate(new StringReader(source.toString()));
+    		 CSVAggregationResult actual = new CSVAggregator(getMetadataFactory(), spilling).aggregate(new StringReader(source.toString())) )
+    	{
+    		
+    		Assert.assertFalse( expected.isSpilled() );
+    		Assert.assertTrue( actual.isSpilled() );
+    		
+    		checkSameGroups( expected, actual );
+    		
+    		final CSVAggregateGroup group = toMap( actual.getGroups() ).get( 42L );
+    		Assert.assertEquals( 10, group.getValue("count"), 0 );
+    		Assert.assertEquals( 942, group.getValue("max"), 0 );
+    		
+    	}
+    	
+    }
+    
+    
+    @Test
+    public void testSpillLongKeys() throws Exception
+    {
+    	
+    	final char[] chars = new char[70000];
+    	Arrays.fill( chars, '\u00e8' );
+    	final String longKey = new String( chars );
+    	
+    	final StringBuilder source = new StringBuilder( header );
+    	for( int i = 0; i < 10; ++i )
+    		source.append( "\"Name\",\"" ).append( i % 2 == 0 ? longKey : "Description " + i ).append( "\",1,EUR," ).append( i ).append( ",true,16-10-14\n" );
+    	
+    	final CSVAggregation aggregation = new CSVAggregation( "DESCRIPTION" ).count( "count" ).sum( "total", "PRICE" );
+    	aggregation.setMaxGroupsInMemory( 2 );
+    	
+    	try( CSVAggregationResult result = new CSVAggregator(getMetadataFactory(), aggregation).aggregate(new StringReader(source.toString())) )
+    	{
+    		
+    		Assert.assertTrue( result.isSpilled() );
+    		
+    		final Map<Object,CSVAggregateGroup> groups = toMap( result.getGroups() );
+    		Assert.assertEquals( 6, groups.size() );
+    		Assert.assertEquals( 5, groups.get(longKey).getValue("count"), 0 );
+    		Assert.assertEquals( 20, groups.get(longKey).getValue("total"), 0 );
+    		
+    	}
+    	
+    }
+    
+    
+    @Test
+    public void testParallelAggregation() throws Exception
+    {
+    	
+    	final File first = File.createTempFile( "aggregation-test", ".csv" );
+    	final File second = File.createTempFile( "aggregation-test", ".csv" );
+    	final ExecutorService executor = Executors.newFixedThreadPool( 2 );
+    	try{
+    		
+    		try( Writer writer = new FileWriter(first) )
+    		{
+    			writer.write( header + records );
+    		}
+    		
+    		try( Writer writer = new FileWriter(second) )
+    		{
+    			writer.write( header + records );
+    		}
+    		
+    		final CSVAggregation aggregation = new CSVAggregation( "CURRENCY" ).count( "count" ).sum( "total", "PRICE" );
+    		aggregation.setMaxGroupsInMemory( 1 );
+    		
+    		final CSVAggregator aggregator = new CSVAggregator( getMetadataFactory(), aggregation );
+    		try( CSVAggregationResult result = aggregator.aggregate(Arrays.asList(first, second), executor) )
+    		{
+    			
+    			Assert.assertEquals( 10, result.getRecordCount() );
+    			Assert.assertEquals( 2, result.getRejectedCount() );
+    			
+    			final Map<Object,CSVAggregateGroup> groups = toMap( result.getGroups() );
+    			Assert.assertEquals( 3, groups.size() );
+    			Assert.assertEquals( 30, groups.get("EUR").getValue("total"), 0.0001 );
+    			Assert.assertEquals( 4, groups.get("USD").getValue("count"), 0 );
+    			
+    		}
+    		
+    	}finally
+    	{
+    		executor.shutdown();
+    		first.delete();
+    		second.delete();
+    	}
+    	
+    }
+    
+    
+    @Test(expected=CSVConfigurationException.class)
+    public void testNotNumericColumn() throws Exception
+    {
+    	
+    	final CSVAggregation aggregation = new CSVAggregation( "CURRENCY" ).sum( "total", "NAME" );
+    	new CSVAggregator( getMetadataFactory(), aggregation ).aggregate( new StringReader(header + records) );
+    	
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    private CSVReaderMetadataFactory<Map<String,Object>> getMetadataFactory() throws Exception
+    {
+    	
+    	return CSVReaderConfigurator.getCSVToMapReaderMetadataFactory( false );
+    	
+    }
+    
+    private Map<Object,CSVAggregateGroup> toMap( List<CSVAggregateGroup> groups )
+    {
+    	
+    	final Map<Object,CSVAggregateGroup> map = new HashMap<Object,CSVAggregateGroup>();
+    	for( CSVAggregateGroup group : groups )
+    		Assert.assertNull( "Duplicated group " + group.getKey(), map.put(group.getKey(), group) );
+    	
+    	return map;
+    	
+    }
+    
+    private void checkSameGroups( CSVAggregationResult expected, CSVAggregationResult actual ) throws Exception
+    {
+    	
+    	final Map<Object,CSVAggregateGroup> expectedGroups = toMap( expected.getGroups() );
+    	final Map<Object,CSVAggregateGroup> actualGroups = toMap( actual.getGroups() );
+    	
+    	Assert.assertEquals( expectedGroups.keySet(), actualGroups.keySet() );
+    	for( Object key : expectedGroups.keySet() )
+    		Assert.assertEquals( expectedGroups.get(key).toString(), actualGroups.get(key).toString() );
+    	
+    }
+    
+}
@@ -0,0 +1,165 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.batch;
+
+import java.io.StringReader;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.nerd4j.csv.model.Product;
+import org.nerd4j.csv.reader.CSVColumnBatchReader;
+import org.nerd4j.csv.reader.CSVReader;
+import org.nerd4j.csv.reader.CSVReaderConfigurator;
+import org.nerd4j.csv.reader.CSVReaderFactory;
+import org.nerd4j.csv.reader.CSVReaderFactoryImpl;
+
+
+/**
+ * Test for the class CSVColumnBatch.
+ * 
+ * @author Nerd4j Team
+ */
+public class CSVColumnBatchTest
+{
+    
+	private static final String header = "\"NAME\",\"DESCRIPTION\",\"UPC\",\"CURRENCY\",\"PRICE\",\"IN-STOCK\",\"LAST-UPDATE\"\n";
+	
+	
+	/* ************** */
+	/*  TEST METHODS  */
+	/* ************** */
+	
+	
+    @Test
+    public void testReadBatch() throws Exception
+    {
+    	
+    	testReadBatch( false );
+    	
+    }
+    
+    @Test
+    public void testReadOffHeapBatch() throws Exception
+    {
+    	
+    	testReadBatch( true );
+    	
+    }
+    
+    @Test
+    public void testRejectedRecords() throws Exception
+    {
+    	
+    	final String source = header
+    			            + "\"Name\",\"Description\",1,EUR,10,true,16-10-14\n"
+    			            + "\"Name\",\"Description\",NaN,EUR,10,true,16-10-14\n"
+    			            + "\"Name\",\"Description\",3,EUR,10,,16-10-14\n";
+    	
+    	final CSVColumnBatch batch = new CSVColumnBatch( 10 );
+    	try( CSVReader<Object[]> reader = CSVReaderConfigurator.getCSVToArrayReaderFactory(false).getCSVReader(new StringReader(source)) )
+    	{
+    		
+    		Assert.assertEquals( 2, ((CSVColumnBatchReader) reader).readBatch(batch) );
+    		Assert.assertEquals( 1, batch.getRejected() );
+    		
+    		final CSVColumnVector upc = batch.getColumn( "UPC" );
+    		Assert.assertEquals( 1L, upc.getLong(0) );
+    		Assert.assertEquals( 3L, upc.getLong(1) );
+    		
+    		final CSVColumnVector inStock = batch.getColumn( "IN-STOCK" );
+    		Assert.assertFalse( inStock.isNull(0) );
+    		Assert.assertTrue( inStock.isNull(1) );
+    		
+    	}
+    	
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    private void testReadBatch( boolean offHeap ) throws Exception
+    {
+    	
+    	final int records = 10000;
+    	final StringBuilder source = new StringBuilder( header );
+    	for( int i = 0; i < records; ++i )
+    		source.append( "\"Name " ).append( i % 10 ).append( "\",\"Description\"," ).append( i )
+    		      .append( i % 2 == 0 ? ",EUR," : ",GBP," ).append( i ).append( ".5," )
+    		      .append( i % 3 == 0 ? "" : i % 3 == 1 ? "true" : "false" ).append( ",16-10-14\n" );
+    	
+    	final CSVColumnBatch batch = new CSVColumnBatch( 4096, offHeap );
+    	try( CSVReader<Object[]> reader = CSVReaderConfigurator.getCSVToArrayReaderFactory(false).getCSVReader(new StringReader(source.toString())) )
+    	{
+    		
+    		int read = 0;
+    		int size;
+    		CSVColumnVector upc = null;
+    		final CSVColumnBatchReader columns = (CSVColumnBatchReader) reader;
+    		while( (size = columns.readBatch(batch)) > 0 )
+    		{
+    			
+    			Assert.assertEquals( 7, batch.getColumnCount() );
+    			Assert.assertEquals( Math.min(4096, records - read), size );
+    			
+    			/* The vectors are reused between the batches. */
+    			if( upc != null )
+    				Assert.assertSame( upc, batch.getColumn("UPC") );
+    			
+    			upc = batch.getColumn( "UPC" );
+    			final CSVColumnVector name = batch.getColumn( "NAME" );
+    			final CSVColumnVector currency = batch.getColumn( "CURRENCY" );
+    			final CSVColumnVector price = batch.getColumn( "PRICE" );
+    			final CSVColumnVector inStock = batch.getColumn( "IN-STOCK" );
+    			
+    			Assert.assertEquals( CSVColumnType.LONG, upc.getType() );
+    			Assert.assertEquals( CSVColumnType.STRING, name.getType() );
+    			Assert.assertEquals( CSVColumnType.OBJECT, currency.getType() );
+    			Assert.assertEquals( CSVColumnType.DOUBLE, price.getType() );
+    			Assert.assertEquals( CSVColumnType.BOOLEAN, inStock.getType() );
+    			Assert.assertEquals( offHeap, upc.getLongBuffer().isDirect() );
+    			
+    			for( int row = 0; row < size; ++row, ++read )
+    			{
+    				Assert.assertEquals( read, upc.getLong(row) );
+    				Assert.assertEquals( "Name " + (read % 10), name.getString(row) );
+    				Assert.assertEquals( read % 2 == 0 ? Product.Currency.EUR : Product.Currency.GBP, currency.getObject(row) );
+    				Assert.assertEquals( read + 0.5, price.getDouble(row), 0.0 );
+    				Assert.assertEquals( read % 3 == 0, inStock.isNull(row) );
+    				if( read % 3 != 0 )
+    					Assert.assertEquals( read % 3 == 1, inStock.getBoolean(row) );
+    			}
+    			
+    			Assert.assertEquals( 10, name.getDictionary().size() );
+    			
+    		}
+    		
+    		Assert.assertEquals( records, read );
+    		Assert.assertTrue( reader.isEndOfData() );
+    		
+    	}
+    	
+    }
+    
+}
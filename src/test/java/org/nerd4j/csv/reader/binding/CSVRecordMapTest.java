@@ -0,0 +1,166 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.binding;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Test for the class CSVRecordMap.
+ * 
+ * @author Nerd4j Team
+ */
+public class CSVRecordMapTest
+{
+    
+    private final CSVRecordMap.Schema schema = new CSVRecordMap.Schema( new String[] { null, "A", "B", null, "C" } );
+    
+    
+    @Test
+    public void testSchema()
+    {
+        
+        Assert.assertEquals( 3, schema.size() );
+        Assert.assertEquals( -1, schema.getColumnSlot(0) );
+        Assert.assertEquals( "A", schema.getKey(schema.getColumnSlot(1)) );
+        Assert.assertEquals( "C", schema.getKey(schema.getColumnSlot(4)) );
+        Assert.assertEquals( -1, schema.getColumnSlot(5) );
+        Assert.assertEquals( -1, schema.getSlot("D") );
+        
+    }
+    
+    @Test
+    public void testMapContract()
+    {
+        
+        final CSVRecordMap record = new CSVRecordMap( schema );
+        final Map<String,Object> expected = new HashMap<String,Object>();
+        Assert.assertEquals( expected, record );
+        Assert.assertTrue( record.isEmpty() );
+        
+        Assert.assertTrue( record.setColumn(1, "a") );
+        Assert.assertFalse( record.setColumn(3, "x") );
+        record.setColumn( 4, null );
+        expected.put( "A", "a" );
+        expected.put( "C", null );
+        assertSameMap( expected, record );
+        Assert.assertFalse( record.containsKey("B") );
+        
+        Assert.assertEquals( "a", record.put("A", "a2") );
+        Assert.assertNull( record.put("D", "d") );
+        expected.put( "A", "a2" );
+        expected.put( "D", "d" );
+        assertSameMap( expected, record );
+        
+        Assert.assertNull( record.remove("C") );
+        Assert.assertEquals( "d", record.remove("D") );
+        Assert.assertNull( record.remove("B") );
+        expected.remove( "C" );
+        expected.remove( "D" );
+        assertSameMap( expected, record );
+        
+        record.clear();
+        Assert.assertTrue( record.isEmpty() );
+        
+    }
+    
+    @Test
+    public void testIterator()
+    {
+        
+        final CSVRecordMap record = new CSVRecordMap( schema );
+        record.setColumn( 2, "b" );
+        record.setColumn( 1, "a" );
+        record.put( "E", "e" );
+        
+        final StringBuilder keys = new StringBuilder();
+        for( String key : record.keySet() )
+            keys.append( key );
+        Assert.assertEquals( "ABE", keys.toString() );
+        
+        final Iterator<Map.Entry<String,Object>> iterator = record.entrySet().iterator();
+        iterator.next().setValue( "a2" );
+        iterator.next();
+        iterator.remove();
+        iterator.next();
+        iterator.remove();
+        Assert.assertFalse( iterator.hasNext() );
+        
+        Assert.assertEquals( 1, record.size() );
+        Assert.assertEquals( "a2", record.get("A") );
+        
+    }
+    
+    @Test
+    public void testSerialization() throws Exception
+    {
+        
+        final CSVRecordMap record = new CSVRecordMap( schema );
+        record.setColumn( 1, "a" );
+        record.setColumn( 4, null );
+        record.put( "E", "e" );
+        
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final ObjectOutputStream out = new ObjectOutputStream( bytes );
+        out.writeObject( record );
+        out.close();
+        
+        final ObjectInputStream in = new ObjectInputStream( new ByteArrayInputStream(bytes.toByteArray()) );
+        final Object copy = in.readObject();
+        
+        Assert.assertTrue( copy instanceof CSVRecordMap );
+        assertSameMap( record, (CSVRecordMap) copy );
+        Assert.assertFalse( ((CSVRecordMap) copy).containsKey("B") );
+        
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+
+    
+    private void assertSameMap( Map<String,Object> expected, Map<String,Object> actual )
+    {
+        
+        Assert.assertEquals( expected, actual );
+        Assert.assertEquals( actual, expected );
+        Assert.assertEquals( expected.hashCode(), actual.hashCode() );
+        Assert.assertEquals( expected.size(), actual.size() );
+        for( String key : expected.keySet() )
+        {
+            Assert.assertTrue( actual.containsKey(key) );
+            Assert.assertEquals( expected.get(key), actual.get(key) );
+        }
+        
+    }
+    
+}
@@ -0,0 +1,185 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.diff;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.nerd4j.csv.CSVProcessOutcome;
+import org.nerd4j.csv.exception.CSVConfigurationException;
+import org.nerd4j.csv.reader.CSVReaderConfigurator;
+import org.nerd4j.csv.writer.CSVWriter;
+
+
+/**
+ * Test for the class CSVDiff.
+ * 
+ * @author Nerd4j Team
+ */
+public class CSVDiffTest
+{
+    
+	private static final String header = "\"NAME\",\"DESCRIPTION\",\"UPC\",\"CURRENCY\",\"PRICE\",\"IN-STOCK\",\"LAST-UPDATE\"\n";
+	
+	private static final String previous = header
+			                             + "\"Name 1\",\"Description 1\",1,EUR,10.5,true,16-10-14\n"
+			                             + "\"Name 2\",\"Description 2\",2,USD,20,true,16-10-14\n"
+			                             + "\"Name 3\",\"Description 3\",3,EUR,4.5,false,16-10-14\n"
+			                             + "\"Name 4\",\"Description 4\",4,GBP,7,true,16-10-14\n";
+	
+	private static final String current = header
+			                            + "\"Name 1\",\"Description 1\",1,EUR,10.5,true,16-10-14\n"
+			                            + "\"Name 3\",\"Description 3\",3,EUR,5.5,false,16-10-15\n"
+			                            + "\"Name 4\",\"Description 4\",4,GBP,7,true,16-10-14\n"
+			                            + "\n"
+			                            + "\"Name 5\",\"Description 5\",5,USD,30,,\n";
+	
+	
+	/* ************** */
+	/*  TEST METHODS  */
+	/* ************** */
+	
+	
+    @Test
+    public void testDiff() throws Exception
+    {
+    	
+    	final CapturingWriter writer = new CapturingWriter();
+    	final CSVDiffResult result = new CSVDiff( CSVReaderConfigurator.getCSVToArrayReaderMetadataFactory(false), "UPC" )
+    			.diff( new StringReader(previous), new StringReader(current), writer );
+    	
+    	Assert.assertEquals( 1, result.getInserted() );
+    	Assert.assertEquals( 1, result.getDeleted() );
+    	Assert.assertEquals( 1, result.getChanged() );
+    	Assert.assertEquals( 2, result.getUnchanged() );
+    	Assert.assertEquals( 0, result.getDuplicatedKeys() );
+    	
+    	Assert.assertEquals( 3, writer.changes.size() );
+    	Assert.assertArrayEquals( new Object[] { "CHANGED", "Name 3", "Description 3", "3", "EUR", "5.5", "false", "16-10-15" }, writer.changes.get(0) );
+    	Assert.assertArrayEquals( new Object[] { "INSERTED", "Name 5", "Description 5", "5", "USD", "30", null, null }, writer.changes.get(1) );
+    	Assert.assertArrayEquals( new Object[] { "DELETED", null, null, "2", null, null, null, null }, writer.changes.get(2) );
+    	
+    }
+    
+    @Test
+    public void testDiffWithCompositeKeyAndDuplicates() throws Exception
+    {
+    	
+    	final String duplicated = current + "\"Name 6\",\"Description 6\",1,EUR,1,true,16-10-14\n";
+    	final CSVDiffResult result = new CSVDiff( CSVReaderConfigurator.getCSVToArrayReaderMetadataFactory(false), "UPC", "CURRENCY" )
+    			.diff( new StringReader(previous), new StringReader(duplicated), null );
+    	
+    	Assert.assertEquals( 1, result.getInserted() );
+    	Assert.assertEquals( 1, result.getDeleted() );
+    	Assert.assertEquals( 1, result.getChanged() );
+    	Assert.assertEquals( 2, result.getUnchanged() );
+    	Assert.assertEquals( 1, result.getDuplicatedKeys() );
+    	
+    }
+    
+    @Test
+    public void testDiffOfLargeSnapshots() throws Exception
+    {
+    	
+    	final StringBuilder before = new StringBuilder( header );
+    	final StringBuilder after = new StringBuilder( header );
+    	for( int i = 0; i < 50000; ++i )
+    	{
+    		before.append( "\"Name\",\"Description\"," ).append( i ).append( ",EUR," ).append( i ).append( ",true,16-10-14\n" );
+    		if( i % 10 != 0 )
+    			after.append( "\"Name\",\"Description\"," ).append( i ).append( ",EUR," ).append( i % 7 == 0 ? i + 1 : i ).append( ",true,16-10-14\n" );
+    	}
+    	
+    	final CSVDiffResult result = new CSVDiff( CSVReaderConfigurator.getCSVToArrayReaderMetadataFactory(false), "UPC" )
+    			.diff( new StringReader(before.toString()), new StringReader(after.toString()), null );
+    	
+    	Assert.assertEquals( 0, result.getInserted() );
+    	Assert.assertEquals( 5000, result.getDeleted() );
+    	Assert.assertEquals( countChanged(), result.getChanged() );
+    	Assert.assertEquals( 45000 - countChanged(), result.getUnchanged() );
+    	
+    }
+    
+    @Test(expected=CSVConfigurationException.class)
+    public void testUnknownKeyColumn() throws Exception
+    {
+    	
+    	new CSVDiff( CSVReaderConfigurator.getCSVToArrayReaderMetadataFactory(false), "UNKNOWN" )
+    			.diff( new StringReader(previous), new StringReader(current), null );
+    	
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    private static int countChanged()
+    {
+    	
+    	int changed = 0;
+    	for( int i = 0; i < 50000; ++i )
+    		if( i % 10 != 0 && i % 7 == 0 )
+    			++changed;
+    	
+    	return changed;
+    	
+    }
+    
+    
+    /* *************** */
+    /*  INNER CLASSES  */
+    /* *************** */
+    
+    
+    private static class CapturingWriter implements CSVWriter<Object[]>
+    {
+    	
+    	private final List<Object[]> changes = new ArrayList<>();
+    	
+    	@Override
+    	public void writeModel( Object[] model )
+    	{
+    		changes.add( Arrays.copyOf(model, model.length) );
+    	}
+    	
+    	@Override
+    	public CSVProcessOutcome<Object[]> write( Object[] model )
+    	{
+    		writeModel( model );
+    		return null;
+    	}
+    	
+    	@Override
+    	public void flush() {}
+    	
+    	@Override
+    	public void close() {}
+    	
+    }
+    
+}
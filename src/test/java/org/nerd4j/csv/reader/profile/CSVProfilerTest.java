@@ -0,0 +1,192 @@
+/*
+ * #%L
+ * Nerd4j CSV
+ * %%
+ * Copyright (C) 2013 Nerd4j
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 3 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ * #L%
+ */
+package org.nerd4j.csv.reader.profile;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.nerd4j.csv.reader.CSVReaderConfigurator;
+import org.nerd4j.csv.reader.CSVReaderMetadataFactory;
+
+
+/**
+ * Test for the class CSVProfiler.
+ * 
+ * @author Nerd4j Team
+ */
+public class CSVProfilerTest
+{
+    
+	private static final String header = "\"NAME\",\"DESCRIPTION\",\"UPC\",\"CURRENCY\",\"PRICE\",\"IN-STOCK\",\"LAST-UPDATE\"\n";
+	
+	private static final String records = "\"Name 1\",\"Description 1\",1,EUR,10.5,true,16-10-14\n"
+			                            + "\"Name 2\",\"Description 2\",2,USD,20,true,16-10-14\n"
+			                            + "\"Name 3\",\"Description 3\",1,EUR,4.5,false,16-10-14\n"
+			                            + "\"Name 4\",\"Description 4\",3,GBP,7,true,16-10-14\n"
+			                            + "\"Name 5\",\"Description 5\",2,EUR,wrong,true,16-10-14\n"
+			                            + "\"Name 6\",\"Description 6\",2,USD,30,,\n";
+	
+	
+	/* ************** */
+	/*  TEST METHODS  */
+	/* ************** */
+	
+	
+    @Test
+    public void testProfile() throws Exception
+    {
+    	
+    	final CSVProfile profile = new CSVProfiler( getMetadataFactory() ).profile( new StringReader(header + records) );
+    	
+    	Assert.assertEquals( 6, profile.getRecordCount() );
+    	Assert.assertEquals( 7, profile.getColumns().size() );
+    	
+    	final CSVColumnProfile price = profile.getColumn( "PRICE" );
+    	Assert.assertTrue( price.isConverted() );
+    	Assert.assertEquals( 1, price.getConversionFailures() );
+    	Assert.assertEquals( 4.5f, price.getMin() );
+    	Assert.assertEquals( 30f, price.getMax() );
+    	Assert.assertEquals( 1, price.getMinLength() );
+    	Assert.assertEquals( 5, price.getMaxLength() );
+    	
+    	final CSVColumnProfile currency = profile.getColumn( "CURRENCY" );
+    	Assert.assertEquals( 3, currency.getDistinctEstimate() );
+    	Assert.assertEquals( "EUR", currency.getTopValues().get(0).getValue() );
+    	Assert.assertEquals( 3, currency.getTopValues().get(0).getCount() );
+    	Assert.assertEquals( "USD", currency.getTopValues().get(1).getValue() );
+    	Assert.assertEquals( 2, currency.getTopValues().get(1).getCount() );
+    	
+    	final CSVColumnProfile inStock = profile.getColumn( "IN-STOCK" );
+    	Assert.assertEquals( 1, inStock.getEmptyCount() );
+    	Assert.assertEquals( 1.0 / 6, inStock.getEmptyRatio(), 0.0001 );
+    	Assert.assertEquals( 1, inStock.getLengthHistogram()[0] );
+    	Assert.assertEquals( 0, inStock.getConversionFailures() );
+    	
+    	final CSVColumnProfile name = profile.getColumn( "NAME" );
+    	Assert.assertEquals( "Name 1", name.getMin() );
+    	Assert.assertEquals( "Name 6", name.getMax() );
+    	Assert.assertEquals( 6, name.getSample().size() );
+    	
+    }
+    
+    @Test
+    public void testProfileOfColumnNotConfigured() throws Exception
+    {
+    	
+    	final String source = header.replace( "\n", ",\"NOTE\"\n" )
+    			            + records.replace( "\n", ",b\n" ).replaceFirst( ",b\n", ",\n" );
+    	
+    	final CSVProfile profile = new CSVProfiler( getMetadataFactory() ).profile( new StringReader(source) );
+    	
+    	final CSVColumnProfile note = profile.getColumn( "NOTE" );
+    	Assert.assertFalse( note.isConverted() );
+    	Assert.assertEquals( 1, note.getEmptyCount() );
+    	Assert.assertEquals( "b", note.getMin() );
+    	Assert.assertEquals( "b", note.getMax() );
+    	Assert.assertEquals( 1, note.getDistinctEstimate() );
+    	
+    }
+    
+    @Test
+    public void testParallelProfileOfLargeDataSet() throws Exception
+    {
+    	
+    	final List<File> files = new ArrayList<File>();
+    	for( int f = 0; f < 4; ++f )
+    	{
+    		
+    		final File file = File.createTempFile( "profile", ".csv" );
+    		file.deleteOnExit();
+    		files.add( file );
+    		
+    		try( Writer writer = new FileWriter(file) )
+    		{
+    			writer.write( header );
+    			for( int i = 0; i < 25000; ++i )
+    			{
+    				final int id = f * 25000 + i;
+    				writer.write( "\"Name " + id + "\",\"Description\"," + (id % 5000) + "," + (id % 10 == 0 ? "GBP" : "EUR") + "," + id + ",true,16-10-14\n" );
+    			}
+    		}
+    		
+    	}
+    	
+    	final CSVProfiler profiler = new CSVProfiler( getMetadataFactory() );
+    	profiler.setTopK( 2 );
+    	profiler.setSampleSize( 50 );
+    	
+    	final ExecutorService executor = Executors.newFixedThreadPool( 4 );
+    	try{
+    		
+    		final CSVProfile profile = profiler.profile( files, executor );
+    		Assert.assertEquals( 100000, profile.getRecordCount() );
+    		
+    		final CSVColumnProfile upc = profile.getColumn( "UPC" );
+    		Assert.assertEquals( 5000, upc.getDistinctEstimate(), 5000 * 0.05 );
+    		Assert.assertEquals( 0L, upc.getMin() );
+    		Assert.assertEquals( 4999L, upc.getMax() );
+    		Assert.assertEquals( 50, upc.getSample().size() );
+    		
+    		final CSVColumnProfile name = profile.getColumn( "NAME" );
+    		Assert.assertEquals( 100000, name.getDistinctEstimate(), 100000 * 0.05 );
+    		
+    		final CSVColumnProfile currency = profile.getColumn( "CURRENCY" );
+    		Assert.assertEquals( 2, currency.getTopValues().size() );
+    		Assert.assertEquals( "EUR", currency.getTopValues().get(0).getValue() );
+    		Assert.assertEquals( 90000, currency.getTopValues().get(0).getCount() );
+    		Assert.assertEquals( "GBP", currency.getTopValues().get(1).getValue() );
+    		Assert.assertEquals( 10000, currency.getTopValues().get(1).getCount() );
+    		
+    		final CSVProfile single = profiler.profile( files.get(0) );
+    		Assert.assertEquals( 25000, single.getRecordCount() );
+    		Assert.assertEquals( 0f, single.getColumn("PRICE").getMin() );
+    		Assert.assertEquals( 24999f, single.getColumn("PRICE").getMax() );
+    		
+    	}finally
+    	{
+    		executor.shutdownNow();
+    	}
+    	
+    }
+    
+    
+    /* ***************** */
+    /*  PRIVATE METHODS  */
+    /* ***************** */
+    
+    
+    private static CSVReaderMetadataFactory<?> getMetadataFactory() throws Exception
+    {
+    	
+    	return CSVReaderConfigurator.getCSVToMapReaderMetadataFactory( false );
+    	
+    }
+    
+}